@@ -25,8 +25,12 @@ import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
 import com.busify.project.auth.service.EmailService;
+import com.busify.project.auth.util.PdfGeneratorUtil;
 import com.busify.project.common.config.EmailConfig;
 import com.busify.project.common.exception.EmailSendException;
+import com.busify.project.common.template.EmailTemplateEngine;
+import com.busify.project.common.template.TemplateFormatters;
+import com.busify.project.ticket.service.BoardingPassService;
 import com.busify.project.user.entity.Profile;
 
 import jakarta.mail.MessagingException;
@@ -37,9 +41,6 @@ import lombok.extern.slf4j.Slf4j;
 import java.awt.image.BufferedImage;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.text.NumberFormat;
-import java.time.ZoneId;
-import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -55,6 +56,8 @@ public class EmailServiceImpl implements EmailService {
 
     private final EmailConfig emailConfig;
     private final JavaMailSender mailSender;
+    private final EmailTemplateEngine templateEngine;
+    private final BoardingPassService boardingPassService;
 
     @Override
     @Async("emailExecutor")
@@ -80,39 +83,9 @@ public class EmailServiceImpl implements EmailService {
     }
 
     private String buildVerificationEmailContent(String fullName, String verificationUrl) {
-        return """
-                <!DOCTYPE html>
-                <html>
-                <head>
-                    <meta charset="UTF-8">
-                    <title>Xác thực Email</title>
-                </head>
-                <body style="font-family: Arial, sans-serif; line-height: 1.6; color: #333;">
-                    <div style="max-width: 600px; margin: 0 auto; padding: 20px;">
-                        <h2 style="color: #4CAF50;">Xác thực Email của bạn</h2>
-                        <p>Xin chào <strong>%s</strong>,</p>
-                        <p>Cảm ơn bạn đã đăng ký tài khoản. Vui lòng click vào link bên dưới để xác thực email:</p>
-                        <div style="text-align: center; margin: 30px 0;">
-                            <a href="%s"
-                               style="background-color: #4CAF50; color: white; padding: 12px 30px;
-                                      text-decoration: none; border-radius: 5px; display: inline-block;">
-                                Xác thực Email
-                            </a>
-                        </div>
-                        <p>Hoặc copy link sau vào trình duyệt:</p>
-                        <p style="word-break: break-all; background-color: #f5f5f5; padding: 10px; border-radius: 3px;">
-                            %s
-                        </p>
-                        <p><strong>Lưu ý:</strong> Link này sẽ hết hạn sau 24 giờ.</p>
-                        <p>Nếu bạn không đăng ký tài khoản này, vui lòng bỏ qua email này.</p>
-                        <hr style="margin: 30px 0;">
-                        <p style="font-size: 12px; color: #666;">
-                            Email này được gửi tự động, vui lòng không reply.
-                        </p>
-                    </div>
-                </body>
-                </html>
-                """.formatted(fullName, verificationUrl, verificationUrl);
+        return templateEngine.render("verification", EmailTemplateEngine.model(
+                "fullName", fullName,
+                "verificationUrl", verificationUrl));
     }
 
     @Override
@@ -139,35 +112,9 @@ public class EmailServiceImpl implements EmailService {
     }
 
     private String buildPasswordResetEmailContent(String fullName, String resetUrl) {
-        return """
-                <!DOCTYPE html>
-                <html>
-                <head>
-                    <meta charset="UTF-8">
-                    <title>Đặt lại mật khẩu</title>
-                </head>
-                <body style="font-family: Arial, sans-serif; line-height: 1.6; color: #333;">
-                    <div style="max-width: 600px; margin: 0 auto; padding: 20px;">
-                        <h2 style="color: #FF6B6B;">Đặt lại mật khẩu</h2>
-                        <p>Xin chào <strong>%s</strong>,</p>
-                        <p>Chúng tôi nhận được yêu cầu đặt lại mật khẩu cho tài khoản của bạn.</p>
-                        <div style="text-align: center; margin: 30px 0;">
-                            <a href="%s"
-                               style="background-color: #FF6B6B; color: white; padding: 12px 30px;
-                                      text-decoration: none; border-radius: 5px; display: inline-block;">
-                                Đặt lại mật khẩu
-                            </a>
-                        </div>
-                        <p>Hoặc copy link sau vào trình duyệt:</p>
-                        <p style="word-break: break-all; background-color: #f5f5f5; padding: 10px; border-radius: 3px;">
-                            %s
-                        </p>
-                        <p><strong>Lưu ý:</strong> Link này sẽ hết hạn sau 24 giờ.</p>
-                        <p>Nếu bạn không yêu cầu đặt lại mật khẩu, vui lòng bỏ qua email này.</p>
-                    </div>
-                </body>
-                </html>
-                """.formatted(fullName, resetUrl, resetUrl);
+        return templateEngine.render("password-reset", EmailTemplateEngine.model(
+                "fullName", fullName,
+                "resetUrl", resetUrl));
     }
 
     @Override
@@ -209,10 +156,6 @@ public class EmailServiceImpl implements EmailService {
     }
 
     private byte[] generateTicketPDF(String fullName, List<Tickets> tickets) throws IOException {
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("HH:mm dd/MM/yyyy")
-                .withZone(ZoneId.of("Asia/Ho_Chi_Minh"));
-        NumberFormat currencyFormatter = NumberFormat.getInstance(new Locale("vi", "VN"));
-
         ByteArrayOutputStream baos = new ByteArrayOutputStream();
 
         try {
@@ -241,9 +184,10 @@ public class EmailServiceImpl implements EmailService {
                     .setMarginBottom(2));
 
             Tickets firstTicket = tickets.get(0);
-            String departureTime = formatter.format(firstTicket.getBooking().getTrip().getDepartureTime());
-            String arrivalTime = formatter.format(firstTicket.getBooking().getTrip().getEstimatedArrivalTime());
-            String formattedPrice = currencyFormatter.format(firstTicket.getPrice());
+            String departureTime = TemplateFormatters.formatDateTime(firstTicket.getBooking().getTrip().getDepartureTime());
+            String arrivalTime = TemplateFormatters.formatDateTime(
+                    firstTicket.getBooking().getTrip().getEstimatedArrivalTime());
+            String formattedPrice = TemplateFormatters.formatCurrency(firstTicket.getPrice());
 
             // QR CODE nhỏ lại
             String bookingCode = firstTicket.getBooking().getBookingCode();
@@ -307,6 +251,8 @@ public class EmailServiceImpl implements EmailService {
 
             document.add(tripTable.setMarginBottom(3));
 
+            PdfGeneratorUtil.addBoardingPasses(document, tickets, boardingPassService.issue(tickets));
+
             // ===== FOOTER =====
             document.add(new Paragraph("Lưu ý:")
                     .setBold()
@@ -356,62 +302,28 @@ public class EmailServiceImpl implements EmailService {
         }
     }
 
-    private String buildTicketEmailContent(String fullName, List<Tickets> tickets) {
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("HH:mm dd/MM/yyyy")
-                .withZone(ZoneId.of("Asia/Ho_Chi_Minh"));
-        NumberFormat currencyFormatter = NumberFormat.getInstance(new Locale("vi", "VN"));
-
-        StringBuilder ticketCards = new StringBuilder();
-
-        for (Tickets ticket : tickets) {
-            String departureTime = formatter.format(ticket.getBooking().getTrip().getDepartureTime());
-            String arrivalTime = formatter.format(ticket.getBooking().getTrip().getEstimatedArrivalTime());
-            String formattedPrice = currencyFormatter.format(ticket.getPrice());
-
-            ticketCards
-                    .append("""
-                            <div style="border: 2px dashed #4CAF50; border-radius: 10px; padding: 15px; margin-bottom: 20px; background-color: #f9fff9;">
-                                <h3 style="margin: 0; color: #4CAF50;">🎫 Mã vé: %s</h3>
-                                <p style="margin: 5px 0;"><strong>Số ghế:</strong> %s</p>
-                                <p style="margin: 5px 0;"><strong>Giá:</strong> %s VND</p>
-                                <p style="margin: 5px 0;"><strong>Giờ khởi hành:</strong> %s</p>
-                                <p style="margin: 5px 0;"><strong>Giờ đến dự kiến:</strong> %s</p>
-                                <p style="margin: 5px 0;"><strong>Điểm đi:</strong> %s</p>
-                                <p style="margin: 5px 0;"><strong>Điểm đến:</strong> %s</p>
-                                <p style="margin: 5px 0;"><strong>Biển số xe:</strong> %s</p>
-                            </div>
-                            """
-                            .formatted(
-                                    ticket.getTicketCode(),
-                                    ticket.getSeatNumber(),
-                                    formattedPrice,
-                                    departureTime,
-                                    arrivalTime,
-                                    ticket.getBooking().getTrip().getRoute().getStartLocation().getName(),
-                                    ticket.getBooking().getTrip().getRoute().getEndLocation().getName(),
-                                    ticket.getBooking().getTrip().getBus().getLicensePlate()));
-        }
+    private String renderTicketList(String itemTemplate, List<Tickets> tickets) {
+        return templateEngine.renderEach(itemTemplate, tickets, ticket -> EmailTemplateEngine.model(
+                "ticketCode", ticket.getTicketCode(),
+                "seatNumber", ticket.getSeatNumber()));
+    }
 
-        return """
-                <!DOCTYPE html>
-                <html>
-                <head>
-                    <meta charset="UTF-8">
-                    <title>Vé đặt thành công</title>
-                </head>
-                <body style="font-family: Arial, sans-serif; line-height: 1.6; color: #333; background-color: #f5f5f5; padding: 20px;">
-                    <div style="max-width: 600px; margin: 0 auto; background: white; padding: 20px; border-radius: 10px;">
-                        <h2 style="color: #4CAF50;">Xin chào %s,</h2>
-                        <p>Cảm ơn bạn đã đặt vé tại <strong>Busify</strong>. Dưới đây là thông tin vé của bạn:</p>
-                        %s
-                        <p style="margin-top: 20px;"><strong>📎 File PDF với QR code đã được đính kèm trong email này.</strong></p>
-                        <p>Chúc bạn có chuyến đi an toàn và vui vẻ! 🚌</p>
-                        <p style="font-size: 12px; color: #666;">Email này được gửi tự động, vui lòng không trả lời.</p>
-                    </div>
-                </body>
-                </html>
-                """
-                .formatted(fullName, ticketCards.toString());
+    private String buildTicketEmailContent(String fullName, List<Tickets> tickets) {
+        String ticketCards = templateEngine.renderEach("ticket-card", tickets,
+                ticket -> EmailTemplateEngine.model(
+                        "ticketCode", ticket.getTicketCode(),
+                        "seatNumber", ticket.getSeatNumber(),
+                        "price", TemplateFormatters.formatCurrency(ticket.getPrice()),
+                        "departureTime", TemplateFormatters.formatDateTime(ticket.getBooking().getTrip().getDepartureTime()),
+                        "arrivalTime", TemplateFormatters.formatDateTime(
+                                ticket.getBooking().getTrip().getEstimatedArrivalTime()),
+                        "startLocation", ticket.getBooking().getTrip().getRoute().getStartLocation().getName(),
+                        "endLocation", ticket.getBooking().getTrip().getRoute().getEndLocation().getName(),
+                        "licensePlate", ticket.getBooking().getTrip().getBus().getLicensePlate()));
+
+        return templateEngine.render("ticket-confirmation", EmailTemplateEngine.model(
+                "fullName", fullName,
+                "ticketCards", ticketCards));
     }
 
     @Override
@@ -426,20 +338,9 @@ public class EmailServiceImpl implements EmailService {
             helper.setSubject(subject);
 
             // Simple HTML wrapper for the content
-            String htmlContent = """
-                    <!DOCTYPE html>
-                    <html>
-                    <head>
-                        <meta charset="UTF-8">
-                        <title>%s</title>
-                    </head>
-                    <body style="font-family: Arial, sans-serif; line-height: 1.6; color: #333;">
-                        <div style="max-width: 600px; margin: 0 auto; padding: 20px;">
-                            %s
-                        </div>
-                    </body>
-                    </html>
-                    """.formatted(subject, content.replace("\n", "<br>"));
+            String htmlContent = templateEngine.render("simple", EmailTemplateEngine.model(
+                    "subject", subject,
+                    "content", content.replace("\n", "<br>")));
 
             helper.setText(htmlContent, true);
 
@@ -461,24 +362,9 @@ public class EmailServiceImpl implements EmailService {
             helper.setTo(toEmail);
             helper.setSubject("Thông báo hủy vé");
 
-            String htmlContent = """
-                    <!DOCTYPE html>
-                    <html>
-                    <head>
-                        <meta charset="UTF-8">
-                        <title>Vé bị hủy</title>
-                    </head>
-                    <body style="font-family: Arial, sans-serif; line-height: 1.6; color: #333;">
-                        <div style="max-width: 600px; margin: 0 auto; padding: 20px;">
-                            <h2 style="color: #FF6B6B;">Vé của bạn đã bị hủy</h2>
-                            <p>Xin chào <strong>%s</strong>,</p>
-                            <p>Vé với mã <strong>%s</strong> đã bị hủy. Nếu bạn có thắc mắc, vui lòng liên hệ hỗ trợ.</p>
-                            <p style="font-size: 12px; color: #666;">Email này được gửi tự động, vui lòng không trả lời.</p>
-                        </div>
-                    </body>
-                    </html>
-                    """
-                    .formatted(fullName, ticket.getTicketCode());
+            String htmlContent = templateEngine.render("ticket-cancelled", EmailTemplateEngine.model(
+                    "fullName", fullName,
+                    "ticketCode", ticket.getTicketCode()));
 
             helper.setText(htmlContent, true);
             mailSender.send(message);
@@ -499,32 +385,9 @@ public class EmailServiceImpl implements EmailService {
             helper.setTo(toEmail);
             helper.setSubject("Thông báo hủy booking");
 
-            StringBuilder ticketList = new StringBuilder();
-            for (Tickets ticket : tickets) {
-                ticketList.append("<li>Mã vé: ").append(ticket.getTicketCode())
-                        .append(", Số ghế: ").append(ticket.getSeatNumber()).append("</li>");
-            }
-
-            String htmlContent = """
-                    <!DOCTYPE html>
-                    <html>
-                    <head>
-                        <meta charset="UTF-8">
-                        <title>Booking bị hủy</title>
-                    </head>
-                    <body style="font-family: Arial, sans-serif; line-height: 1.6; color: #333;">
-                        <div style="max-width: 600px; margin: 0 auto; padding: 20px;">
-                            <h2 style="color: #FF6B6B;">Booking của bạn đã bị hủy</h2>
-                            <p>Xin chào <strong>%s</strong>,</p>
-                            <p>Booking của bạn đã bị hủy. Danh sách vé:</p>
-                            <ul>%s</ul>
-                            <p>Nếu bạn có thắc mắc, vui lòng liên hệ hỗ trợ.</p>
-                            <p style="font-size: 12px; color: #666;">Email này được gửi tự động, vui lòng không trả lời.</p>
-                        </div>
-                    </body>
-                    </html>
-                    """
-                    .formatted(fullName, ticketList.toString());
+            String htmlContent = templateEngine.render("booking-cancelled", EmailTemplateEngine.model(
+                    "fullName", fullName,
+                    "ticketList", renderTicketList("ticket-item", tickets)));
 
             helper.setText(htmlContent, true);
             mailSender.send(message);
@@ -545,32 +408,9 @@ public class EmailServiceImpl implements EmailService {
             helper.setTo(toEmail);
             helper.setSubject("Thông báo cập nhật booking");
 
-            StringBuilder ticketList = new StringBuilder();
-            for (Tickets ticket : tickets) {
-                ticketList.append("<li>Mã vé: ").append(ticket.getTicketCode())
-                        .append(", Số ghế: ").append(ticket.getSeatNumber()).append("</li>");
-            }
-
-            String htmlContent = """
-                    <!DOCTYPE html>
-                    <html>
-                    <head>
-                        <meta charset="UTF-8">
-                        <title>Booking được cập nhật</title>
-                    </head>
-                    <body style="font-family: Arial, sans-serif; line-height: 1.6; color: #333;">
-                        <div style="max-width: 600px; margin: 0 auto; padding: 20px;">
-                            <h2 style="color: #4CAF50;">Booking của bạn đã được cập nhật</h2>
-                            <p>Xin chào <strong>%s</strong>,</p>
-                            <p>Thông tin booking của bạn đã được thay đổi. Danh sách vé mới:</p>
-                            <ul>%s</ul>
-                            <p>Nếu bạn có thắc mắc, vui lòng liên hệ hỗ trợ.</p>
-                            <p style="font-size: 12px; color: #666;">Email này được gửi tự động, vui lòng không trả lời.</p>
-                        </div>
-                    </body>
-                    </html>
-                    """
-                    .formatted(fullName, ticketList.toString());
+            String htmlContent = templateEngine.render("booking-updated", EmailTemplateEngine.model(
+                    "fullName", fullName,
+                    "ticketList", renderTicketList("ticket-item", tickets)));
 
             helper.setText(htmlContent, true);
             mailSender.send(message);
@@ -592,27 +432,10 @@ public class EmailServiceImpl implements EmailService {
             helper.setTo(toEmail);
             helper.setSubject("Thông báo về khiếu nại");
 
-            String htmlContent = """
-                    <!DOCTYPE html>
-                    <html>
-                    <head>
-                        <meta charset="UTF-8">
-                        <title>Trạng thái khiếu nại</title>
-                    </head>
-                    <body style="font-family: Arial, sans-serif; line-height: 1.6; color: #333;">
-                        <div style="max-width: 600px; margin: 0 auto; padding: 20px;">
-                            <h2 style="color: #2196F3;">Thông báo về khiếu nại</h2>
-                            <p>Xin chào <strong>%s</strong>,</p>
-                            <p>Trạng thái khiếu nại của bạn: <strong>%s</strong></p>
-                            <p>Nội dung khiếu nại:</p>
-                            <div style="background-color: #f5f5f5; padding: 10px; border-radius: 3px;">%s</div>
-                            <p>Nếu bạn cần hỗ trợ thêm, vui lòng liên hệ với chúng tôi.</p>
-                            <p style="font-size: 12px; color: #666;">Email này được gửi tự động, vui lòng không trả lời.</p>
-                        </div>
-                    </body>
-                    </html>
-                    """
-                    .formatted(fullName, complaintStatus, complaintContent);
+            String htmlContent = templateEngine.render("complaint-status", EmailTemplateEngine.model(
+                    "fullName", fullName,
+                    "complaintStatus", complaintStatus,
+                    "complaintContent", complaintContent));
 
             helper.setText(htmlContent, true);
             mailSender.send(message);
@@ -652,58 +475,14 @@ public class EmailServiceImpl implements EmailService {
     private String buildCustomerSupportEmailContent(String userName, String message,
             String caseNumber, String csRepName) {
         String caseReference = caseNumber != null && !caseNumber.isEmpty()
-                ? "<p style=\"margin: 0 0 15px;\"><strong>Mã tham chiếu:</strong> " + caseNumber + "</p>"
+                ? templateEngine.renderFragment("case-reference", EmailTemplateEngine.model("caseNumber", caseNumber))
                 : "";
 
-        return """
-                <!DOCTYPE html>
-                <html>
-                <head>
-                    <meta charset="UTF-8">
-                    <meta name="viewport" content="width=device-width, initial-scale=1.0">
-                    <title>Thông báo từ Busify</title>
-                    <style>
-                        @media only screen and (max-width: 600px) {
-                            .container { padding: 15px !important; }
-                            .header img { max-width: 150px !important; }
-                            .content { padding: 15px !important; }
-                            .footer { font-size: 11px !important; }
-                        }
-                    </style>
-                </head>
-                <body style="font-family: -apple-system, BlinkMacSystemFont, 'Segoe UI', Roboto, Oxygen, Ubuntu, Cantarell, sans-serif; line-height: 1.6; color: #333333; background-color: #f4f4f9; margin: 0; padding: 20px;">
-                    <div class="container" style="max-width: 600px; margin: 0 auto; background: #ffffff; border-radius: 8px; box-shadow: 0 2px 4px rgba(0,0,0,0.1); overflow: hidden;">
-                        <div class="header" style="background: linear-gradient(90deg, #4285F4, #34A853); padding: 20px; text-align: center;">
-                            <h2 style="color: #ffffff; margin: 10px 0 0; font-size: 24px;">Busify Customer Support</h2>
-                        </div>
-
-                        <div class="content" style="padding: 25px;">
-                            <p style="margin: 0 0 15px;">Kính gửi <strong>%s</strong>,</p>
-
-                            %s
-
-                            <div style="padding:15px 15px 15px 0px; margin: 20px 0; border-radius: 4px;">
-                                %s
-                            </div>
-
-                            <p style="margin: 0 0 15px;">Nếu bạn có câu hỏi hoặc cần hỗ trợ thêm, vui lòng phản hồi email này hoặc liên hệ với chúng tôi qua số <a href="tel:+1234567890" style="color: #4285F4; text-decoration: none;">hotline</a>.</p>
-
-                            <p style="margin: 0;">Trân trọng,<br>
-                            Nhân viên Chăm sóc Khách hàng<br>
-                            Busify</p>
-                        </div>
-
-                        <hr style="border: none; border-top: 1px solid #e2e8f0; margin: 20px 0;">
-
-                        <div class="footer" style="font-size: 12px; color: #6b7280; text-align: center; padding: 15px;">
-                            <p style="margin: 0;">© 2025 Busify. Tất cả các quyền được bảo lưu.</p>
-                            <p style="margin: 5px 0 0;"><a href="https://busify.com" style="color: #4285F4; text-decoration: none;">busify.com</a> | <a href="mailto:support@busify.com" style="color: #4285F4; text-decoration: none;">support@busify.com</a></p>
-                        </div>
-                    </div>
-                </body>
-                </html>
-                """
-                .formatted(userName, caseReference, message == null ? "" : message.replace("\n", "<br>"), csRepName);
+        return templateEngine.render("customer-support", EmailTemplateEngine.model(
+                "userName", userName,
+                "caseReference", caseReference,
+                "message", message == null ? "" : message.replace("\n", "<br>"),
+                "csRepName", csRepName));
     }
 
     @Override
@@ -718,96 +497,16 @@ public class EmailServiceImpl implements EmailService {
             helper.setTo(toEmail);
             helper.setSubject("Thông báo hủy booking và hoàn tiền");
 
-            StringBuilder ticketList = new StringBuilder();
-            for (Tickets ticket : tickets) {
-                ticketList.append("<li style='margin-bottom: 5px;'>")
-                        .append("Mã vé: <strong>").append(ticket.getTicketCode()).append("</strong>, ")
-                        .append("Số ghế: <strong>").append(ticket.getSeatNumber()).append("</strong>")
-                        .append("</li>");
-            }
-
             String statusColor = "COMPLETED".equals(refundStatus) ? "#4CAF50" : "#FF9800";
             String statusText = "COMPLETED".equals(refundStatus) ? "Hoàn tiền thành công" : "Đang xử lý hoàn tiền";
 
-            String htmlContent = """
-        <!DOCTYPE html>
-        <html>
-        <head>
-            <meta charset="UTF-8">
-            <title>Thông báo hoàn tiền</title>
-        </head>
-        <body style="font-family: Arial, sans-serif; line-height: 1.6; color: #333333; background-color: #f5f5f5; margin: 0; padding: 20px;">
-            <div style="max-width: 600px; margin: 0 auto; background-color: #ffffff; border-radius: 8px; box-shadow: 0 2px 10px rgba(0,0,0,0.1); overflow: hidden;">
-
-                <!-- Header -->
-                <div style="background: linear-gradient(135deg, #667eea 0%%, #764ba2 100%%); padding: 30px 20px; text-align: center;">
-                    <h1 style="color: #ffffff; margin: 0; font-size: 24px; font-weight: bold;">BUSIFY</h1>
-                    <p style="color: #ffffff; margin: 10px 0 0; opacity: 0.9;">Thông báo hủy booking và hoàn tiền</p>
-                </div>
-
-                <!-- Content -->
-                <div style="padding: 30px 20px;">
-                    <h2 style="color: #333333; margin: 0 0 20px; font-size: 20px;">Xin chào <span style="color: #667eea;">%s</span>,</h2>
-
-                    <p style="margin: 0 0 20px; font-size: 16px;">Booking của bạn đã được hủy và chúng tôi đã xử lý yêu cầu hoàn tiền.</p>
-
-                    <!-- Status Box -->
-                    <div style="background-color: %s; color: white; padding: 15px; border-radius: 6px; text-align: center; margin: 20px 0; font-weight: bold; font-size: 16px;">
-                        %s
-                    </div>
-
-                    <!-- Ticket Information -->
-                    <div style="background-color: #f8f9fa; padding: 20px; border-radius: 6px; margin: 20px 0; border-left: 4px solid #667eea;">
-                        <h3 style="color: #333; margin: 0 0 15px; font-size: 18px;">📋 Thông tin vé đã hủy</h3>
-                        <ul style="margin: 0; padding-left: 20px; list-style-type: none;">%s</ul>
-                    </div>
-
-                    <!-- Refund Information -->
-                    <div style="background-color: #e8f5e8; padding: 20px; border-radius: 6px; margin: 20px 0; border-left: 4px solid #4CAF50;">
-                        <h3 style="color: #333; margin: 0 0 15px; font-size: 18px;">💰 Thông tin hoàn tiền</h3>
-                        <p style="margin: 0 0 10px;"><strong>Số tiền hoàn:</strong> <span style="color: #4CAF50; font-size: 18px; font-weight: bold;">%s VNĐ</span></p>
-                        <p style="margin: 0 0 10px;"><strong>Trạng thái:</strong> <span style="color: %s; font-weight: bold;">%s</span></p>
-                        <p style="margin: 0;"><strong>Lý do hủy:</strong> %s</p>
-                    </div>
-
-                    <!-- Important Notes -->
-                    <div style="background-color: #fff3cd; padding: 15px; border-radius: 6px; margin: 20px 0; border-left: 4px solid #ffc107;">
-                        <h4 style="color: #856404; margin: 0 0 10px; font-size: 16px;">📌 Lưu ý quan trọng</h4>
-                        <ul style="margin: 0; padding-left: 20px; color: #856404;">
-                            <li>Số tiền hoàn sẽ được chuyển về tài khoản/thẻ thanh toán ban đầu trong vòng 3-7 ngày làm việc</li>
-                            <li>Bạn sẽ nhận được thông báo SMS khi giao dịch hoàn tiền hoàn tất</li>
-                            <li>Nếu có thắc mắc, vui lòng liên hệ hotline: <strong>1900-xxxx</strong></li>
-                        </ul>
-                    </div>
-
-                    <div style="text-align: center; margin: 30px 0;">
-                        <p style="margin: 0 0 10px; font-size: 16px;">Cảm ơn bạn đã tin tưởng sử dụng dịch vụ của chúng tôi!</p>
-                        <a href="http://localhost:3000/trips" style="display: inline-block; background-color: #667eea; color: white; padding: 12px 25px; text-decoration: none; border-radius: 6px; font-weight: bold; margin-top: 10px;">Đặt vé mới</a>
-                    </div>
-                </div>
-
-                <!-- Footer -->
-                <div style="background-color: #f8f9fa; padding: 20px; text-align: center; border-top: 1px solid #e9ecef;">
-                    <p style="margin: 0; font-size: 12px; color: #666;">
-                        Email này được gửi tự động, vui lòng không trả lời.<br>
-                        © 2025 Busify. Tất cả các quyền được bảo lưu.
-                    </p>
-                </div>
-            </div>
-        </body>
-        </html>
-        """
-                    .formatted(
-                            fullName,              // %s 1
-                            statusColor,           // %s 2
-                            statusText,            // %s 3
-                            ticketList.toString(), // %s 4
-                            refundAmount,          // %s 5
-                            statusColor,           // %s 6
-                            statusText,            // %s 7
-                            refundReason != null ? refundReason : "Không có lý do cụ thể" // %s 8
-                    );
-
+            String htmlContent = templateEngine.render("booking-refund", EmailTemplateEngine.model(
+                    "fullName", fullName,
+                    "statusColor", statusColor,
+                    "statusText", statusText,
+                    "ticketList", renderTicketList("refund-ticket-item", tickets),
+                    "refundAmount", refundAmount,
+                    "refundReason", refundReason != null ? refundReason : "Không có lý do cụ thể"));
 
             helper.setText(htmlContent, true);
             mailSender.send(message);
@@ -873,72 +572,12 @@ public class EmailServiceImpl implements EmailService {
 
     private String buildCustomerSupportEmailContentByTrip(String userName, String message, String csRepName,
             String route, String time, String busCompany) {
-        return """
-                <!DOCTYPE html>
-                <html>
-                <head>
-                    <meta charset="UTF-8">
-                    <meta name="viewport" content="width=device-width, initial-scale=1.0">
-                    <title>Thông báo từ Busify</title>
-                    <style>
-                        @media only screen and (max-width: 600px) {
-                            .container { padding: 15px !important; }
-                            .header img { max-width: 150px !important; }
-                            .content { padding: 15px !important; }
-                            .footer { font-size: 11px !important; }
-                        }
-                    </style>
-                </head>
-                <body style="font-family: -apple-system, BlinkMacSystemFont, 'Segoe UI', Roboto, Oxygen, Ubuntu, Cantarell, sans-serif; line-height: 1.6; color: #333333; background-color: #f4f4f9; margin: 0; padding: 20px;">
-                    <div class="container" style="max-width: 600px; margin: 0 auto; background: #ffffff; border-radius: 8px; box-shadow: 0 2px 4px rgba(0,0,0,0.1); overflow: hidden;">
-                        <div class="header" style="background: linear-gradient(90deg, #4285F4, #34A853); padding: 20px; text-align: center;">
-                            <h2 style="color: #ffffff; margin: 10px 0 0; font-size: 24px;">Busify Customer Support</h2>
-                        </div>
-
-                        <div class="content" style="padding: 25px;">
-                            <p style="margin: 0 0 15px;">Kính gửi <strong>%s</strong>,</p>
-
-                            <div style="padding:15px 15px 15px 0px; margin: 20px 0; border-radius: 4px;">
-                                <table class="info-table" style="width: 100%%; border-collapse: collapse; margin: 0 0 10px;">
-                                    <tr>
-                                        <td style="padding: 8px; font-weight: bold; border-bottom: 1px solid #e2e8f0;">Tuyến đường:</td>
-                                        <td style="padding: 8px; border-bottom: 1px solid #e2e8f0;">%s</td>
-                                    </tr>
-                                    <tr>
-                                        <td style="padding: 8px; font-weight: bold; border-bottom: 1px solid #e2e8f0;">Thời gian:</td>
-                                        <td style="padding: 8px; border-bottom: 1px solid #e2e8f0;">%s</td>
-                                    </tr>
-                                    <tr>
-                                        <td style="padding: 8px; font-weight: bold; border-bottom: 1px solid #e2e8f0;">Nhà xe:</td>
-                                        <td style="padding: 8px; border-bottom: 1px solid #e2e8f0;">%s</td>
-                                    </tr>
-                                </table>
-                                %s
-                            </div>
-
-                            <p style="margin: 0 0 15px;">Nếu bạn có câu hỏi hoặc cần hỗ trợ thêm, vui lòng phản hồi email này hoặc liên hệ với chúng tôi qua số <a href="tel:+1234567890" style="color: #4285F4; text-decoration: none;">hotline</a>.</p>
-
-                            <p style="margin: 0;">Trân trọng,<br>
-                            Nhân viên Chăm sóc Khách hàng<br>
-                            Busify</p>
-                        </div>
-
-                        <hr style="border: none; border-top: 1px solid #e2e8f0; margin: 20px 0;">
-
-                        <div class="footer" style="font-size: 12px; color: #6b7280; text-align: center; padding: 15px;">
-                            <p style="margin: 0;">© 2025 Busify. Tất cả các quyền được bảo lưu.</p>
-                            <p style="margin: 5px 0 0;"><a href="https://busify.com" style="color: #4285F4; text-decoration: none;">busify.com</a> | <a href="mailto:support@busify.com" style="color: #4285F4; text-decoration: none;">support@busify.com</a></p>
-                        </div>
-                    </div>
-                </body>
-                </html>
-                """
-                .formatted(
-                        userName,
-                        route,
-                        time,
-                        busCompany,
-                        message == null ? "" : message.replace("\n", "<br>"));
+        return templateEngine.render("customer-support-trip", EmailTemplateEngine.model(
+                "userName", userName,
+                "route", route,
+                "time", time,
+                "busCompany", busCompany,
+                "message", message == null ? "" : message.replace("\n", "<br>")));
     }
 
     @Override
@@ -969,52 +608,8 @@ public class EmailServiceImpl implements EmailService {
     }
 
     private String buildCustomerSupportEmailToBusOperator(String userName, String message, String csRepName) {
-        return """
-                <!DOCTYPE html>
-                <html>
-                <head>
-                    <meta charset="UTF-8">
-                    <meta name="viewport" content="width=device-width, initial-scale=1.0">
-                    <title>Thông báo từ Busify</title>
-                    <style>
-                        @media only screen and (max-width: 600px) {
-                            .container { padding: 15px !important; }
-                            .header img { max-width: 150px !important; }
-                            .content { padding: 15px !important; }
-                            .footer { font-size: 11px !important; }
-                        }
-                    </style>
-                </head>
-                <body style="font-family: -apple-system, BlinkMacSystemFont, 'Segoe UI', Roboto, Oxygen, Ubuntu, Cantarell, sans-serif; line-height: 1.6; color: #333333; background-color: #f4f4f9; margin: 0; padding: 20px;">
-                    <div class="container" style="max-width: 600px; margin: 0 auto; background: #ffffff; border-radius: 8px; box-shadow: 0 2px 4px rgba(0,0,0,0.1); overflow: hidden;">
-                        <div class="header" style="background: linear-gradient(90deg, #4285F4, #34A853); padding: 20px; text-align: center;">
-                            <h2 style="color: #ffffff; margin: 10px 0 0; font-size: 24px;">Busify Customer Support</h2>
-                        </div>
-
-                        <div class="content" style="padding: 25px;">
-                            <p style="margin: 0 0 15px;">Kính gửi <strong>%s</strong>,</p>
-
-                            <div style="padding:15px 15px 15px 0px; margin: 20px 0; border-radius: 4px;">
-                                %s
-                            </div>
-
-                            <p style="margin: 0 0 15px;">Nếu bạn có câu hỏi hoặc cần hỗ trợ thêm, vui lòng phản hồi email này hoặc liên hệ với chúng tôi qua số <a href="tel:+1234567890" style="color: #4285F4; text-decoration: none;">hotline</a>.</p>
-
-                            <p style="margin: 0;">Trân trọng,<br>
-                            Nhân viên Chăm sóc Khách hàng<br>
-                            Busify</p>
-                        </div>
-
-                        <hr style="border: none; border-top: 1px solid #e2e8f0; margin: 20px 0;">
-
-                        <div class="footer" style="font-size: 12px; color: #6b7280; text-align: center; padding: 15px;">
-                            <p style="margin: 0;">© 2025 Busify. Tất cả các quyền được bảo lưu.</p>
-                            <p style="margin: 5px 0 0;"><a href="https://busify.com" style="color: #4285F4; text-decoration: none;">busify.com</a> | <a href="mailto:support@busify.com" style="color: #4285F4; text-decoration: none;">support@busify.com</a></p>
-                        </div>
-                    </div>
-                </body>
-                </html>
-                """
-                .formatted(userName, message == null ? "" : message.replace("\n", "<br>"));
+        return templateEngine.render("customer-support-operator", EmailTemplateEngine.model(
+                "userName", userName,
+                "message", message == null ? "" : message.replace("\n", "<br>")));
     }
 }
\ No newline at end of file
@@ -1,11 +1,8 @@
 package com.busify.project.auth.service.impl;
 
-import java.time.LocalDateTime;
 import java.util.UUID;
 
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import com.busify.project.auth.entity.VerificationToken;
 import com.busify.project.auth.enums.TokenType;
@@ -45,12 +42,6 @@ public class EmailVerificationServiceImpl implements EmailVerificationService {
         return UUID.randomUUID().toString() + "-" + System.currentTimeMillis();
     }
 
-    @Scheduled(fixedRate = 3600000) // Chạy mỗi giờ
-    @Transactional
-    public void cleanupExpiredTokens() {
-        tokenRepository.deleteByExpiryDateBefore(LocalDateTime.now());
-    }
-
     @Override
     public void verifyEmail(String token) {
         VerificationToken verificationToken = tokenRepository.findByToken(token)
@@ -1,5 +1,6 @@
 package com.busify.project.auth.util;
 
+import com.busify.project.common.template.TemplateFormatters;
 import com.busify.project.ticket.entity.Tickets;
 import com.google.zxing.BarcodeFormat;
 import com.google.zxing.EncodeHintType;
@@ -24,9 +25,6 @@ import org.springframework.core.io.ClassPathResource;
 import java.awt.image.BufferedImage;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.text.NumberFormat;
-import java.time.ZoneId;
-import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.List;
 
@@ -39,11 +37,11 @@ public class PdfGeneratorUtil {
         return PdfFontFactory.createFont(fontPath);
     }
 
-    public static byte[] generateTicketPDF(String fullName, List<Tickets> tickets) throws IOException {
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("HH:mm dd/MM/yyyy")
-                .withZone(ZoneId.of("Asia/Ho_Chi_Minh"));
-        NumberFormat currencyFormatter = NumberFormat.getInstance(new Locale("vi", "VN"));
-
+    /**
+     * @param boardingTokens thẻ lên xe có chữ ký theo ticketId; vé không có thẻ (đã huỷ) không in QR lên xe
+     */
+    public static byte[] generateTicketPDF(String fullName, List<Tickets> tickets, Map<Long, String> boardingTokens)
+            throws IOException {
         ByteArrayOutputStream baos = new ByteArrayOutputStream();
 
         try {
@@ -71,9 +69,10 @@ public class PdfGeneratorUtil {
 
             // ===== THÔNG TIN HÀNH TRÌNH =====
             Tickets firstTicket = tickets.get(0);
-            String departureTime = formatter.format(firstTicket.getBooking().getTrip().getDepartureTime());
-            String arrivalTime = formatter.format(firstTicket.getBooking().getTrip().getEstimatedArrivalTime());
-            String formattedPrice = currencyFormatter.format(firstTicket.getPrice());
+            String departureTime = TemplateFormatters.formatDateTime(firstTicket.getBooking().getTrip().getDepartureTime());
+            String arrivalTime = TemplateFormatters.formatDateTime(
+                    firstTicket.getBooking().getTrip().getEstimatedArrivalTime());
+            String formattedPrice = TemplateFormatters.formatCurrency(firstTicket.getPrice());
 
             Table tripTable = new Table(new float[] { 2, 4 });
             tripTable.setWidth(UnitValue.createPercentValue(100));
@@ -154,6 +153,8 @@ public class PdfGeneratorUtil {
 
             document.add(mainTable.setMarginBottom(3));
 
+            addBoardingPasses(document, tickets, boardingTokens);
+
             // ===== FOOTER =====
             document.add(new Paragraph("Lưu ý:")
                     .setBold()
@@ -179,6 +180,45 @@ public class PdfGeneratorUtil {
         return baos.toByteArray();
     }
 
+    /**
+     * Thẻ lên xe: QR có chữ ký cho từng vé, tài xế quét và kiểm tra không cần mạng
+     */
+    public static void addBoardingPasses(Document document, List<Tickets> tickets, Map<Long, String> boardingTokens)
+            throws IOException {
+        Table boardingTable = new Table(UnitValue.createPercentArray(new float[] { 1, 1 }))
+                .useAllAvailableWidth().setBorder(Border.NO_BORDER);
+        int boardingCells = 0;
+        for (Tickets ticket : tickets) {
+            String token = boardingTokens.get(ticket.getTicketId());
+            if (token == null) {
+                continue;
+            }
+            Image boardingQr = new Image(ImageDataFactory.create(generateQRCode(token, 240, 240)))
+                    .setWidth(70)
+                    .setHeight(70);
+            boardingTable.addCell(new Cell()
+                    .add(boardingQr)
+                    .add(new Paragraph("Ghế " + ticket.getSeatNumber() + " - " + ticket.getTicketCode())
+                            .setFontSize(5)
+                            .setTextAlignment(TextAlignment.CENTER))
+                    .setBorder(Border.NO_BORDER)
+                    .setTextAlignment(TextAlignment.CENTER)
+                    .setPadding(0));
+            boardingCells++;
+        }
+        if (boardingCells == 0) {
+            return;
+        }
+        if (boardingCells % 2 == 1) {
+            boardingTable.addCell(new Cell().setBorder(Border.NO_BORDER));
+        }
+        document.add(new Paragraph("Thẻ lên xe")
+                .setBold()
+                .setFontSize(5)
+                .setMargin(0));
+        document.add(boardingTable.setMarginBottom(3));
+    }
+
     private static byte[] generateQRCode(String content, int width, int height) throws IOException {
         try {
             QRCodeWriter qrCodeWriter = new QRCodeWriter();
@@ -1,5 +1,6 @@
 package com.busify.project.blog.entity;
 
+import com.busify.project.common.search.SearchEntityListener;
 import com.busify.project.user.entity.User;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
@@ -21,6 +22,7 @@ import java.util.Set;
         @Index(name = "idx_blog_posts_featured", columnList = "featured"),
         @Index(name = "idx_blog_posts_created_at", columnList = "created_at")
 })
+@EntityListeners(SearchEntityListener.class)
 @Builder
 @AllArgsConstructor
 @NoArgsConstructor
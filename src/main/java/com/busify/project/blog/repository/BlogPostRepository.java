@@ -9,6 +9,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -59,5 +60,15 @@ public interface BlogPostRepository extends JpaRepository<BlogPost, Long> {
             @Param("tag") String tag,
             @Param("search") String search,
             Pageable pageable);
-    
-}
\ No newline at end of file
+
+    /**
+     * (id, tiêu đề, tóm tắt, nội dung, đã xuất bản, thời điểm xuất bản) cho chỉ mục tìm kiếm
+     */
+    @Query("SELECT bp.id, bp.title, bp.excerpt, bp.content, bp.published, bp.publishedAt FROM BlogPost bp " +
+           "WHERE bp.id > :lastId ORDER BY bp.id")
+    List<Object[]> findSearchRowsAfter(@Param("lastId") Long lastId, Pageable pageable);
+
+    @Query("SELECT bp.id, bp.title, bp.excerpt, bp.content, bp.published, bp.publishedAt FROM BlogPost bp " +
+           "WHERE bp.id IN :ids")
+    List<Object[]> findSearchRowsByIds(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,67 @@
+package com.busify.project.blog.search;
+
+import com.busify.project.blog.entity.BlogPost;
+import com.busify.project.blog.repository.BlogPostRepository;
+import com.busify.project.common.search.SearchDocument;
+import com.busify.project.common.search.SearchIndexProvider;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Chỉ mục bài viết: tiêu đề nặng hơn tóm tắt, tóm tắt nặng hơn nội dung; lọc theo trạng thái xuất bản
+ */
+@Component
+@RequiredArgsConstructor
+public class BlogPostSearchIndexProvider implements SearchIndexProvider {
+
+    public static final String INDEX = "blog_posts";
+    public static final String FILTER_PUBLISHED = "published";
+
+    private final BlogPostRepository blogPostRepository;
+
+    @Override
+    public String getIndexName() {
+        return INDEX;
+    }
+
+    @Override
+    public Class<?> getEntityType() {
+        return BlogPost.class;
+    }
+
+    @Override
+    public Long idOf(Object entity) {
+        return ((BlogPost) entity).getId();
+    }
+
+    @Override
+    public List<SearchDocument> loadAfter(long lastId, int limit) {
+        return blogPostRepository.findSearchRowsAfter(lastId, PageRequest.of(0, limit)).stream()
+                .map(BlogPostSearchIndexProvider::toDocument)
+                .toList();
+    }
+
+    @Override
+    public List<SearchDocument> loadByIds(Collection<Long> ids) {
+        return blogPostRepository.findSearchRowsByIds(ids).stream()
+                .map(BlogPostSearchIndexProvider::toDocument)
+                .toList();
+    }
+
+    private static SearchDocument toDocument(Object[] row) {
+        LocalDateTime publishedAt = (LocalDateTime) row[5];
+        return SearchDocument.builder((Long) row[0])
+                .rankHint(publishedAt != null ? publishedAt.toEpochSecond(ZoneOffset.UTC) : 0)
+                .text("title", (String) row[1], 3f)
+                .text("excerpt", (String) row[2], 2f)
+                .text("content", (String) row[3], 1f)
+                .filter(FILTER_PUBLISHED, Boolean.TRUE.equals(row[4]))
+                .build();
+    }
+}
@@ -10,8 +10,13 @@ import com.busify.project.blog.exception.BlogPermissionDeniedException;
 import com.busify.project.blog.exception.BlogPostNotFoundException;
 import com.busify.project.blog.mapper.BlogMapper;
 import com.busify.project.blog.repository.BlogPostRepository;
+import com.busify.project.blog.search.BlogPostSearchIndexProvider;
 import com.busify.project.blog.service.BlogPostService;
+import com.busify.project.common.dto.media.UploadedMedia;
+import com.busify.project.common.search.SearchIndexService;
+import com.busify.project.common.search.SearchQuery;
 import com.busify.project.common.service.CloudinaryService;
+import com.busify.project.common.service.MediaUploadService;
 import com.busify.project.user.entity.User;
 import com.busify.project.user.repository.UserRepository;
 import com.busify.project.user.service.impl.UserServiceImpl;
@@ -24,7 +29,10 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.text.Normalizer;
@@ -44,6 +52,11 @@ public class BlogPostServiceImpl implements BlogPostService {
     private final UserRepository userRepository;
     private final UserServiceImpl userService;
     private final CloudinaryService cloudinaryService;
+    private final MediaUploadService mediaUploadService;
+    private final SearchIndexService searchIndexService;
+    private final TransactionTemplate transactionTemplate;
+
+    private static final String BLOG_IMAGE_FOLDER = "blog-posts";
     
     @Override
     public Page<BlogPostSummaryDto> getPublishedPosts(Pageable pageable) {
@@ -78,7 +91,13 @@ public class BlogPostServiceImpl implements BlogPostService {
     
     @Override
     public Page<BlogPostSummaryDto> searchPosts(String keyword, Pageable pageable) {
-        return blogPostRepository.searchPublishedPosts(keyword, pageable)
+        SearchQuery query = SearchQuery.builder()
+                .match(keyword)
+                .filter(BlogPostSearchIndexProvider.FILTER_PUBLISHED, true)
+                .build();
+        return searchIndexService.search(BlogPostSearchIndexProvider.INDEX, query, pageable)
+                .map(hits -> searchIndexService.toPage(hits, pageable, blogPostRepository::findAllById, BlogPost::getId))
+                .orElseGet(() -> blogPostRepository.searchPublishedPosts(keyword, pageable))
                 .map(BlogMapper::convertToSummaryDto);
     }
 
@@ -125,8 +144,20 @@ public class BlogPostServiceImpl implements BlogPostService {
     }
     
     @Override
-    @Transactional
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public BlogPostDto createPost(CreateBlogPostDto createDto) {
+        // Upload trước khi mở transaction để không giữ connection DB trong lúc chờ Cloudinary
+        UploadedMedia uploaded = uploadImage(createDto.getImage(), "Failed to upload image: ");
+        try {
+            return transactionTemplate.execute(status -> savePost(createDto, uploaded));
+        } catch (RuntimeException e) {
+            // Lưu post thất bại -> xoá ảnh vừa upload
+            discard(uploaded);
+            throw e;
+        }
+    }
+
+    private BlogPostDto savePost(CreateBlogPostDto createDto, UploadedMedia uploaded) {
         User author = userService.getUserCurrentlyLoggedIn();
         
         if (!canUserCreatePosts(author)) {
@@ -134,16 +165,7 @@ public class BlogPostServiceImpl implements BlogPostService {
         }
         
         String slug = generateUniqueSlug(createDto.getTitle());
-        String imageUrl = null;
-        
-        // Handle image upload
-        if (createDto.getImage() != null && !createDto.getImage().isEmpty()) {
-            try {
-                imageUrl = cloudinaryService.uploadFile(createDto.getImage(), "blog-posts");
-            } catch (Exception e) {
-                throw new RuntimeException("Failed to upload image: " + e.getMessage(), e);
-            }
-        }
+        String imageUrl = uploaded != null ? uploaded.getUrl() : null;
 
         Set<String> tagSet = new HashSet<>();
         if (createDto.getTags() != null) {
@@ -176,8 +198,18 @@ public class BlogPostServiceImpl implements BlogPostService {
     }
     
     @Override
-    @Transactional
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public BlogPostDto updatePost(Long id, CreateBlogPostDto updateDto) {
+        UploadedMedia uploaded = uploadImage(updateDto.getImage(), "Failed to upload new image: ");
+        try {
+            return transactionTemplate.execute(status -> applyPostUpdate(id, updateDto, uploaded));
+        } catch (RuntimeException e) {
+            discard(uploaded);
+            throw e;
+        }
+    }
+
+    private BlogPostDto applyPostUpdate(Long id, CreateBlogPostDto updateDto, UploadedMedia uploaded) {
         BlogPost post = blogPostRepository.findById(id)
                 .orElseThrow(() -> new BlogPostNotFoundException(id));
         
@@ -193,25 +225,17 @@ public class BlogPostServiceImpl implements BlogPostService {
             post.setSlug(newSlug);
         }
         
-        // Handle image upload/update
+        // Handle image update
         String imageUrl = post.getImageUrl(); // Keep existing image by default
-        if (updateDto.getImage() != null && !updateDto.getImage().isEmpty()) {
-            try {
-                // Delete old image if exists
-                if (post.getImageUrl() != null && !post.getImageUrl().isEmpty()) {
-                    try {
-                        String publicId = cloudinaryService.extractPublicId(post.getImageUrl());
-                        cloudinaryService.deleteFile(publicId);
-                    } catch (Exception e) {
-                        // Log error but don't fail the update
-                        System.err.println("Failed to delete old image: " + e.getMessage());
-                    }
+        if (uploaded != null) {
+            imageUrl = uploaded.getUrl();
+
+            // Delete old image (async, only after the update is committed)
+            if (post.getImageUrl() != null && !post.getImageUrl().isEmpty()) {
+                String publicId = cloudinaryService.extractPublicId(post.getImageUrl());
+                if (publicId != null) {
+                    mediaUploadService.deleteAfterCommit(List.of(publicId));
                 }
-                
-                // Upload new image
-                imageUrl = cloudinaryService.uploadFile(updateDto.getImage(), "blog-posts");
-            } catch (Exception e) {
-                throw new RuntimeException("Failed to upload new image: " + e.getMessage(), e);
             }
         }
 
@@ -254,14 +278,11 @@ public class BlogPostServiceImpl implements BlogPostService {
             throw new BlogPermissionDeniedException("You don't have permission to delete this post");
         }
         
-        // Delete image from Cloudinary if exists
+        // Delete image from Cloudinary (async, only after the deletion is committed)
         if (post.getImageUrl() != null && !post.getImageUrl().isEmpty()) {
-            try {
-                String publicId = cloudinaryService.extractPublicId(post.getImageUrl());
-                cloudinaryService.deleteFile(publicId);
-            } catch (Exception e) {
-                // Log error but don't fail the deletion
-                System.err.println("Failed to delete image from Cloudinary: " + e.getMessage());
+            String publicId = cloudinaryService.extractPublicId(post.getImageUrl());
+            if (publicId != null) {
+                mediaUploadService.deleteAfterCommit(List.of(publicId));
             }
         }
         
@@ -351,6 +372,26 @@ public class BlogPostServiceImpl implements BlogPostService {
         return Sort.by(new Sort.Order(direction, sortBy));
     }
     
+    /**
+     * @return {@code null} nếu không gửi ảnh
+     */
+    private UploadedMedia uploadImage(MultipartFile image, String errorPrefix) {
+        if (image == null || image.isEmpty()) {
+            return null;
+        }
+        try {
+            return mediaUploadService.upload(image, BLOG_IMAGE_FOLDER);
+        } catch (Exception e) {
+            throw new RuntimeException(errorPrefix + e.getMessage(), e);
+        }
+    }
+
+    private void discard(UploadedMedia uploaded) {
+        if (uploaded != null) {
+            mediaUploadService.deleteAsync(List.of(uploaded.getPublicId()));
+        }
+    }
+
     private boolean canUserCreatePosts(User user) {
         if (user.getRole() == null) return false;
         String roleName = user.getRole().getName().toLowerCase();
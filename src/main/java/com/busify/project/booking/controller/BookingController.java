@@ -170,7 +170,12 @@ public class BookingController {
     }
 
     @GetMapping("/guests")
-    public ApiResponse<List<BookingGuestResponse>> getAllGuests() {
+    public ApiResponse<?> getAllGuests(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        if (cursor != null || limit != null) {
+            return ApiResponse.success("All guests fetched successfully", bookingService.getGuests(cursor, limit));
+        }
         List<BookingGuestResponse> guests = bookingService.getAllGuests();
         return ApiResponse.success("All guests fetched successfully", guests);
     }
@@ -37,4 +37,8 @@ public class BookingAddRequestDTO {
     @NotNull
     @PositiveOrZero
     private BigDecimal totalAmount;
+
+    // Đi một đoạn của tuyến: bỏ trống là lên ở điểm đầu / xuống ở điểm cuối
+    private Long pickupLocationId;
+    private Long dropoffLocationId;
 }
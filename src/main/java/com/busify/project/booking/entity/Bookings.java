@@ -1,5 +1,6 @@
 package com.busify.project.booking.entity;
 
+import com.busify.project.common.id.IdSequences;
 import com.busify.project.payment.entity.Payment;
 import com.busify.project.ticket.entity.Tickets;
 import com.busify.project.user.entity.User;
@@ -17,14 +18,18 @@ import java.util.List;
 
 @Entity
 @Table(name = "bookings", indexes = {
-        @Index(name = "idx_booking_customerID_createdAt", columnList = "customer_id, created_at")
+        @Index(name = "idx_booking_customerID_createdAt", columnList = "customer_id, created_at"),
+        @Index(name = "idx_booking_createdAt", columnList = "created_at")
 })
 @AllArgsConstructor
 @NoArgsConstructor
 @Data
 public class Bookings {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "bookings_id")
+    @TableGenerator(name = "bookings_id", table = "id_blocks", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = IdSequences.BOOKINGS,
+            allocationSize = IdSequences.ENTITY_ALLOCATION_SIZE)
     private Long Id;
 
     @ManyToOne
@@ -92,4 +97,15 @@ public class Bookings {
 
     @Column(name = "applied_promotion_id")
     private Long appliedPromotionId;
+
+    // Điểm lên/xuống khi đi một đoạn của tuyến; null là điểm đầu/cuối tuyến
+    @Column(name = "pickup_location_id")
+    private Long pickupLocationId;
+
+    @Column(name = "dropoff_location_id")
+    private Long dropoffLocationId;
+
+    // Các chặng ghế bị chiếm (SeatSegments); null với booking cũ là cả chuyến
+    @Column(name = "segment_mask")
+    private Long segmentMask;
 }
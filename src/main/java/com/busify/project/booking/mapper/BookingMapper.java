@@ -6,7 +6,6 @@ import com.busify.project.booking.dto.response.BookingHistoryResponse;
 import com.busify.project.booking.dto.response.BookingUpdateResponseDTO;
 import com.busify.project.booking.entity.Bookings;
 import com.busify.project.booking.enums.BookingStatus;
-import com.busify.project.booking.util.BookingCodeGen;
 import com.busify.project.trip.entity.Trip;
 import com.busify.project.user.entity.User;
 import com.busify.project.user.entity.Profile;
@@ -69,7 +68,6 @@ public class BookingMapper {
 
         bookings.setSeatNumber(request.getSeatNumber());
         bookings.setTotalAmount(request.getTotalAmount());
-        bookings.setBookingCode(BookingCodeGen.generateBookingCode());
         bookings.setStatus(BookingStatus.pending);
         // Note: promotion field removed - using appliedDiscountCode and
         // appliedPromotionId instead
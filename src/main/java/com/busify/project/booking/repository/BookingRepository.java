@@ -15,6 +15,7 @@ import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -120,12 +121,27 @@ public interface BookingRepository extends JpaRepository<Bookings, Long> {
                         "b.status NOT IN ('canceled_by_customer', 'canceled_by_operator', 'completed')")
         List<Bookings> findExpiredPendingBookings(@Param("cutoffTime") Instant cutoffTime);
 
+        // Như trên, chỉ lấy các booking thuộc một phân vùng (id mod partitions) của job quét định kỳ
+        @Query("SELECT b FROM Bookings b WHERE " +
+                        "b.createdAt < :cutoffTime AND " +
+                        "(b.payment IS NULL OR b.payment.status = 'pending') AND " +
+                        "b.status NOT IN ('canceled_by_customer', 'canceled_by_operator', 'completed') AND " +
+                        "MOD(b.id, :partitions) = :partition")
+        List<Bookings> findExpiredPendingBookingsInPartition(@Param("cutoffTime") Instant cutoffTime,
+                        @Param("partitions") int partitions, @Param("partition") int partition);
+
         // Cập nhật status của tất cả bookings thành completed khi trip arrived
         @Modifying
         @Transactional
         @Query("UPDATE Bookings b SET b.status = com.busify.project.booking.enums.BookingStatus.completed WHERE b.trip.id = :tripId AND b.status IN (com.busify.project.booking.enums.BookingStatus.confirmed)")
         int markBookingsAsCompletedByTripId(@Param("tripId") Long tripId);
 
+        // Như trên cho một lô chuyến, dùng khi chuyển trạng thái hàng loạt
+        @Modifying
+        @Transactional
+        @Query("UPDATE Bookings b SET b.status = com.busify.project.booking.enums.BookingStatus.completed WHERE b.trip.id IN :tripIds AND b.status IN (com.busify.project.booking.enums.BookingStatus.confirmed)")
+        int markBookingsAsCompletedByTripIds(@Param("tripIds") Collection<Long> tripIds);
+
         List<Bookings> findByTripId(Long tripId);
 
         @Query("SELECT new com.busify.project.booking.dto.response.BookingGuestResponse(" +
@@ -136,6 +152,22 @@ public interface BookingRepository extends JpaRepository<Bookings, Long> {
                         "GROUP BY b.guestEmail")
         List<BookingGuestResponse> findGuestsByOperator(@Param("operatorId") Long operatorId);
 
+        @Query("SELECT COUNT(DISTINCT b.guestEmail) FROM Bookings b " +
+                        "WHERE b.trip.bus.operator.id = :operatorId AND b.guestEmail IS NOT NULL")
+        long countGuestsByOperator(@Param("operatorId") Long operatorId);
+
+        // Keyset theo guestEmail: trang sau bắt đầu ngay sau email cuối của trang trước
+        @Query("SELECT new com.busify.project.booking.dto.response.BookingGuestResponse(" +
+                        "MAX(b.guestFullName), b.guestEmail, MAX(b.guestPhone), MAX(b.guestAddress)) " +
+                        "FROM Bookings b " +
+                        "WHERE b.trip.bus.operator.id = :operatorId " +
+                        "AND b.guestEmail IS NOT NULL " +
+                        "AND (:afterEmail IS NULL OR b.guestEmail > :afterEmail) " +
+                        "GROUP BY b.guestEmail " +
+                        "ORDER BY b.guestEmail")
+        List<BookingGuestResponse> findGuestsByOperatorAfter(@Param("operatorId") Long operatorId,
+                        @Param("afterEmail") String afterEmail, Pageable pageable);
+
         // Check if promotion is used in any bookings (by discount code or promotion ID)
         @Query("SELECT COUNT(b) > 0 FROM Bookings b WHERE " +
                         "b.appliedDiscountCode = :discountCode OR b.appliedPromotionId = :promotionId")
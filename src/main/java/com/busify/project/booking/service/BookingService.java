@@ -3,6 +3,7 @@ package com.busify.project.booking.service;
 import com.busify.project.booking.dto.request.BookingAddRequestDTO;
 import com.busify.project.booking.dto.response.*;
 import com.busify.project.common.dto.response.ApiResponse;
+import com.busify.project.common.pagination.CursorPage;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -51,4 +52,6 @@ public interface BookingService {
 
     List<BookingGuestResponse> getAllGuests();
 
+    CursorPage<BookingGuestResponse> getGuests(String cursor, Integer limit);
+
 }
@@ -19,6 +19,11 @@ import com.busify.project.booking.exception.BookingPromotionException;
 import com.busify.project.booking.exception.BookingCreationException;
 import com.busify.project.bus_operator.repository.BusOperatorRepository;
 import com.busify.project.common.dto.response.ApiResponse;
+import com.busify.project.common.exception.ErrorCode;
+import com.busify.project.common.id.HumanCodeGenerator;
+import com.busify.project.common.pagination.CursorCodec;
+import com.busify.project.common.pagination.CursorPage;
+import com.busify.project.common.pagination.CursorPagination;
 import com.busify.project.common.utils.JwtUtils;
 import com.busify.project.employee.repository.EmployeeRepository;
 import com.busify.project.payment.entity.Payment;
@@ -28,11 +33,10 @@ import com.busify.project.refund.service.RefundService;
 import com.busify.project.promotion.dto.response.PromotionResponseDTO;
 import com.busify.project.promotion.service.PromotionService;
 import com.busify.project.ticket.entity.Tickets;
+import com.busify.project.ticket.service.BoardingPassService;
 import com.busify.project.trip.entity.Trip;
 import com.busify.project.trip.repository.TripRepository;
-import com.busify.project.trip_seat.entity.TripSeat;
-import com.busify.project.trip_seat.enums.TripSeatStatus;
-import com.busify.project.trip_seat.repository.TripSeatRepository;
+import com.busify.project.trip_seat.services.SeatInventoryService;
 import com.busify.project.trip_seat.services.SeatReleaseService;
 import com.busify.project.trip_seat.services.TripSeatService;
 import com.busify.project.user.entity.Profile;
@@ -53,7 +57,6 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDate;
-import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -70,17 +73,20 @@ import java.util.Arrays;
 public class BookingServiceImpl implements BookingService {
     private final UserRepository userRepository;
     private final TripRepository tripRepository;
-    private final TripSeatRepository tripSeatRepository;
     private final BookingRepository bookingRepository;
     private final JwtUtils jwtUtil;
     private final AuditLogService auditLogService;
     private final EmailService emailService;
     private final TripSeatService tripSeatService;
     private final SeatReleaseService seatReleaseService;
+    private final SeatInventoryService seatInventoryService;
     private final PromotionService promotionService;
     private final RefundService refundService;
     private final BusOperatorRepository busOperatorRepository;
     private final EmployeeRepository employeeRepository;
+    private final BoardingPassService boardingPassService;
+    private final CursorPagination cursorPagination;
+    private final HumanCodeGenerator humanCodeGenerator;
 
     @Override
     public Map<String, Long> getBookingCountsByStatus() {
@@ -217,20 +223,24 @@ public class BookingServiceImpl implements BookingService {
         final Trip trip = tripRepository.findById(request.getTripId())
                 .orElseThrow(() -> new BookingCreationException("Trip not found with ID: " + request.getTripId()));
 
+        long segmentMask = resolveSegmentMask(request, trip);
+
         request.setSellingMethod(SellingMethod.ONLINE);
-        Bookings booking = bookingRepository.save(
-                BookingMapper.fromRequestDTOtoEntity(
-                        request, trip, customer,
-                        request.getGuestFullName(), request.getGuestPhone(), request.getGuestEmail(),
-                        request.getGuestAddress()));
+        Bookings newBooking = BookingMapper.fromRequestDTOtoEntity(
+                request, trip, customer,
+                request.getGuestFullName(), request.getGuestPhone(), request.getGuestEmail(),
+                request.getGuestAddress());
+        newBooking.setBookingCode(humanCodeGenerator.nextBookingCode());
+        applySegment(newBooking, request, segmentMask);
+        Bookings booking = bookingRepository.save(newBooking);
 
         // Note: Promotion will be marked as used when payment is successful
         // (handled by PaymentSuccessHandler)
 
-        String[] seatNumbers = request.getSeatNumber().split(",");
+        List<String> seatNumbers = splitSeatNumbers(request.getSeatNumber());
+        holdSeats(trip.getId(), seatNumbers, segmentMask, customer, request.getSeatNumber());
         for (String seatNum : seatNumbers) {
-            lockSeat(seatNum.trim(), customer, trip.getId());
-            seatReleaseService.scheduleRelease(seatNum.trim(), booking.getId());
+            seatReleaseService.scheduleRelease(seatNum, booking.getId());
         }
 
         return BookingMapper.toResponseAddDTO(booking);
@@ -258,10 +268,14 @@ public class BookingServiceImpl implements BookingService {
         final Trip trip = tripRepository.findById(request.getTripId())
                 .orElseThrow(() -> new BookingCreationException("Trip not found with ID: " + request.getTripId()));
 
+        long segmentMask = resolveSegmentMask(request, trip);
+
         Bookings booking = BookingMapper.fromRequestDTOtoEntity(
                 request, trip, null,
                 request.getGuestFullName(), request.getGuestPhone(), request.getGuestEmail(),
                 request.getGuestAddress());
+        booking.setBookingCode(humanCodeGenerator.nextBookingCode());
+        applySegment(booking, request, segmentMask);
         booking.setSellingMethod(SellingMethod.OFFLINE);
         booking.setStatus(BookingStatus.confirmed);
         booking = bookingRepository.save(booking);
@@ -275,28 +289,42 @@ public class BookingServiceImpl implements BookingService {
         auditLog.setUser(seller);
         auditLogService.save(auditLog);
 
-        String[] seatNumbers = request.getSeatNumber().split(",");
-        for (String seatNum : seatNumbers) {
-            lockSeat(seatNum.trim(), seller, trip.getId());
-        }
+        holdSeats(trip.getId(), splitSeatNumbers(request.getSeatNumber()), segmentMask, seller,
+                request.getSeatNumber());
 
         return BookingMapper.toResponseAddDTO(booking);
     }
 
-    @Transactional
-    public TripSeat lockSeat(String seatNumber, User user, Long tripId) {
-        TripSeat seat = tripSeatRepository.findTripSeatBySeatNumberAndTripId(seatNumber, tripId)
-                .orElseThrow(() -> new BookingSeatUnavailableException("Seat " + seatNumber + " not found"));
-
-        if (seat.getStatus() != TripSeatStatus.available) {
-            throw new BookingSeatUnavailableException("Seat " + seatNumber + " is not available");
+    private long resolveSegmentMask(BookingAddRequestDTO request, Trip trip) {
+        long segmentMask = seatInventoryService.segmentMask(trip.getId(),
+                request.getPickupLocationId(), request.getDropoffLocationId());
+        if (segmentMask == 0L) {
+            throw new BookingSeatUnavailableException(ErrorCode.INVALID_SEAT_SEGMENT,
+                    "Pickup/drop-off locations are not on the route of trip " + trip.getId());
         }
+        return segmentMask;
+    }
+
+    private void applySegment(Bookings booking, BookingAddRequestDTO request, long segmentMask) {
+        booking.setPickupLocationId(request.getPickupLocationId());
+        booking.setDropoffLocationId(request.getDropoffLocationId());
+        booking.setSegmentMask(segmentMask);
+    }
 
-        seat.setStatus(TripSeatStatus.locked);
-        seat.setLockingUser(user);
-        seat.setLockedAt(LocalDateTime.now());
+    private static List<String> splitSeatNumbers(String seatNumber) {
+        return Arrays.stream(seatNumber.split(","))
+                .map(String::trim)
+                .filter(seat -> !seat.isEmpty())
+                .toList();
+    }
 
-        return tripSeatRepository.save(seat);
+    /**
+     * Giữ chỗ nguyên tử theo chặng; ghế đã giữ được sẽ được trả lại nếu một ghế khác bị chiếm
+     */
+    private void holdSeats(Long tripId, List<String> seatNumbers, long segmentMask, User user, String requested) {
+        if (!seatInventoryService.holdSeats(tripId, seatNumbers, segmentMask, user.getId())) {
+            throw new BookingSeatUnavailableException(requested);
+        }
     }
 
     @Override
@@ -562,7 +590,7 @@ public class BookingServiceImpl implements BookingService {
         // Update trip seat status
         for (Tickets ticket : booking.getTickets()) {
             tripSeatService.changeTripSeatStatusToAvailable(ticket.getBooking().getTrip().getId(),
-                    ticket.getSeatNumber());
+                    ticket.getSeatNumber(), seatInventoryService.segmentMask(booking));
         }
 
         // 4. save audit log (bổ sung chi tiết hoàn tiền)
@@ -592,35 +620,9 @@ public class BookingServiceImpl implements BookingService {
     @Transactional
     public int markBookingsAsCompletedWhenTripArrived(Long tripId) {
         try {
-            log.info("=== DEBUG: markBookingsAsCompletedWhenTripArrived called for tripId: {} ===", tripId);
-
-            // Đầu tiên, kiểm tra có booking nào của trip này không
-            List<Bookings> allBookingsForTrip = bookingRepository.findAll().stream()
-                    .filter(b -> b.getTrip().getId().equals(tripId))
-                    .collect(Collectors.toList());
-
-            log.info("Total bookings found for trip {}: {}", tripId, allBookingsForTrip.size());
-
-            // Log trạng thái các booking trước khi cập nhật
-            for (Bookings booking : allBookingsForTrip) {
-                log.info("Booking ID: {}, Code: {}, Status: {}",
-                        booking.getId(), booking.getBookingCode(), booking.getStatus());
-            }
-
-            // Cập nhật tất cả booking có status = confirmed thành completed cho trip này
+            // Một câu UPDATE theo tập, không tải booking của chuyến
             int completedCount = bookingRepository.markBookingsAsCompletedByTripId(tripId);
-            log.info("Number of bookings marked as completed: {}", completedCount);
-
-            // Kiểm tra lại sau khi cập nhật
-            List<Bookings> bookingsAfterUpdate = bookingRepository.findAll().stream()
-                    .filter(b -> b.getTrip().getId().equals(tripId))
-                    .collect(Collectors.toList());
-
-            log.info("=== After update ===");
-            for (Bookings booking : bookingsAfterUpdate) {
-                log.info("Booking ID: {}, Code: {}, Status: {}",
-                        booking.getId(), booking.getBookingCode(), booking.getStatus());
-            }
+            log.info("Trip {} arrived, bookings marked as completed: {}", tripId, completedCount);
 
             // Log audit cho hành động tự động hoàn thành booking
             if (completedCount > 0) {
@@ -639,13 +641,11 @@ public class BookingServiceImpl implements BookingService {
                         auditLog.setUser(user);
                     }
                     auditLogService.save(auditLog);
-                    log.info("Audit log created successfully");
                 } catch (Exception auditException) {
                     log.error("Failed to create audit log for auto-complete bookings: {}", auditException.getMessage());
                 }
             }
 
-            log.info("=== END DEBUG: markBookingsAsCompletedWhenTripArrived ===");
             return completedCount;
         } catch (Exception e) {
             log.error("Error auto-completing bookings for trip {}: {}", tripId, e.getMessage(), e);
@@ -704,7 +704,8 @@ public class BookingServiceImpl implements BookingService {
         }
 
         try {
-            return PdfGeneratorUtil.generateTicketPDF(fullName, booking.getTickets());
+            return PdfGeneratorUtil.generateTicketPDF(fullName, booking.getTickets(),
+                    boardingPassService.issue(booking.getTickets()));
         } catch (IOException e) {
             log.error("Error generating PDF for booking {}: {}", bookingCode, e.getMessage(), e);
             throw new RuntimeException("Could not generate PDF for booking " + bookingCode, e);
@@ -713,6 +714,20 @@ public class BookingServiceImpl implements BookingService {
 
     @Override
     public List<BookingGuestResponse> getAllGuests() {
+        Long operatorId = currentOperatorId();
+        cursorPagination.requireBounded(bookingRepository.countGuestsByOperator(operatorId), "khách hàng");
+        return bookingRepository.findGuestsByOperator(operatorId);
+    }
+
+    @Override
+    public CursorPage<BookingGuestResponse> getGuests(String cursor, Integer limit) {
+        int pageSize = cursorPagination.limit(limit);
+        List<BookingGuestResponse> guests = bookingRepository.findGuestsByOperatorAfter(currentOperatorId(),
+                cursorPagination.afterString(cursor), PageRequest.of(0, pageSize + 1));
+        return CursorPage.of(guests, pageSize, guest -> CursorCodec.encode(guest.getGuestEmail()));
+    }
+
+    private Long currentOperatorId() {
         // 1. Lấy email user hiện tại từ JWT
         String email = jwtUtil.getCurrentUserLogin().orElse("");
         User user = userRepository.findByEmail(email)
@@ -732,8 +747,7 @@ public class BookingServiceImpl implements BookingService {
                     .orElseThrow(() -> new RuntimeException("Không tìm thấy Operator cho staff này"));
         }
 
-        // 3. Trả về danh sách guest
-        return bookingRepository.findGuestsByOperator(operatorId);
+        return operatorId;
     }
 
 }
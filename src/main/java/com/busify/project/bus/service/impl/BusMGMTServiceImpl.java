@@ -15,7 +15,9 @@ import com.busify.project.bus_model.repository.BusModelRepository;
 import com.busify.project.bus_operator.entity.BusOperator;
 import com.busify.project.bus_operator.repository.BusOperatorRepository;
 import com.busify.project.common.dto.response.ApiResponse;
+import com.busify.project.common.dto.media.UploadedMedia;
 import com.busify.project.common.service.CloudinaryService;
+import com.busify.project.common.service.MediaUploadService;
 import com.busify.project.common.utils.JwtUtils;
 import com.busify.project.audit_log.entity.AuditLog;
 import com.busify.project.audit_log.service.AuditLogService;
@@ -43,13 +45,14 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.multipart.MultipartFile;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 @Service
@@ -57,6 +60,7 @@ import java.util.stream.Collectors;
 public class BusMGMTServiceImpl implements BusMGMTService {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(BusMGMTServiceImpl.class);
+    private static final String BUS_IMAGE_FOLDER = "busify/buses/images";
 
     private final BusRepository busRepository;
     private final BusImageRepository busImageRepository;
@@ -69,15 +73,28 @@ public class BusMGMTServiceImpl implements BusMGMTService {
     private final CloudinaryService cloudinaryService;
     private final ObjectMapper objectMapper;
     private final AuditLogService auditLogService;
+    private final MediaUploadService mediaUploadService;
+    private final TransactionTemplate transactionTemplate;
 
     @Override
-    @Transactional
     public BusMGMTResponseDTO addBus(BusMGMTRequestDTO requestDTO) {
-        Bus bus = new Bus();
-
         if (busRepository.existsByLicensePlate(requestDTO.getLicensePlate())) {
             throw new ValidationException("Biển số xe đã tồn tại trong hệ thống");
         }
+
+        // Upload ảnh song song trước khi mở transaction để không giữ connection DB trong lúc chờ Cloudinary
+        List<UploadedMedia> uploaded = mediaUploadService.uploadAll(requestDTO.getImages(), BUS_IMAGE_FOLDER);
+        try {
+            return transactionTemplate.execute(status -> createBus(requestDTO, uploaded));
+        } catch (RuntimeException e) {
+            // Transaction rollback -> dọn các ảnh đã upload
+            mediaUploadService.deleteAsync(uploaded.stream().map(UploadedMedia::getPublicId).toList());
+            throw e;
+        }
+    }
+
+    private BusMGMTResponseDTO createBus(BusMGMTRequestDTO requestDTO, List<UploadedMedia> uploaded) {
+        Bus bus = new Bus();
         bus.setLicensePlate(requestDTO.getLicensePlate());
 
         // Lấy user hiện tại
@@ -127,53 +144,15 @@ public class BusMGMTServiceImpl implements BusMGMTService {
         bus.setAmenities(amenitiesMap);
         bus.setStatus(requestDTO.getStatus() != null ? requestDTO.getStatus() : BusStatus.active);
 
-        // Lưu bus trước, sau đó upload ảnh và lưu BusImage
         Bus savedBus = busRepository.save(bus);
 
-        // Upload images nếu có
-        List<MultipartFile> images = requestDTO.getImages();
-        if (images != null && !images.isEmpty()) {
-            for (int i = 0; i < images.size(); i++) {
-                MultipartFile file = images.get(i);
-                String imageUrl = null;
-                String publicId = null;
-
-                // Thử upload với 1 retry để giảm lỗi timeout tạm thời
-                int attempts = 0;
-                int maxAttempts = 2;
-                Exception lastEx = null;
-                while (attempts < maxAttempts) {
-                    attempts++;
-                    try {
-                        imageUrl = cloudinaryService.uploadFile(file, "busify/buses/images");
-                        publicId = cloudinaryService.extractPublicId(imageUrl);
-                        break; // thành công -> thoát vòng
-                    } catch (Exception ex) {
-                        lastEx = ex;
-                        LOGGER.warn("Upload ảnh thất bại attempt {}/{}: {}", attempts, maxAttempts, ex.getMessage());
-                        // Nếu còn attempt, thử lại
-                    }
-                }
-
-                if (imageUrl == null) {
-                    // Nếu muốn không rollback mà chỉ log, bạn có thể tiếp tục; hiện tại ném exception để rollback
-                    LOGGER.error("Upload ảnh thất bại toàn bộ attempts: {}", lastEx == null ? "unknown" : lastEx.getMessage());
-                    throw new RuntimeException("Không thể upload ảnh bus: " + (lastEx != null ? lastEx.getMessage() : ""));
-                }
-
-                // Lưu BusImage vào DB
-                try {
-                    BusImage busImage = new BusImage();
-                    busImage.setBus(savedBus);
-                    busImage.setImageUrl(imageUrl);
-                    busImage.setPublicId(publicId);
-                    busImage.setPrimary(i == 0);
-                    busImageRepository.save(busImage);
-                } catch (Exception e) {
-                    LOGGER.error("Không thể lưu BusImage vào DB: {}", e.getMessage(), e);
-                    throw new RuntimeException("Không thể lưu ảnh bus vào database: " + e.getMessage());
-                }
+        // Ảnh đã upload xong -> chỉ còn ghi BusImage, ảnh đầu tiên là primary
+        if (!uploaded.isEmpty()) {
+            List<BusImage> busImages = new ArrayList<>(uploaded.size());
+            for (int i = 0; i < uploaded.size(); i++) {
+                busImages.add(toBusImage(savedBus, uploaded.get(i), i == 0));
             }
+            busImageRepository.saveAll(busImages);
         }
 
         // Audit log for bus creation
@@ -191,8 +170,21 @@ public class BusMGMTServiceImpl implements BusMGMTService {
     }
 
     @Override
-    @Transactional
-    public BusMGMTResponseDTO  updateBus(Long id, BusMGMTRequestDTO requestDTO) {
+    public BusMGMTResponseDTO updateBus(Long id, BusMGMTRequestDTO requestDTO) {
+        if (!busRepository.existsById(id)) {
+            throw BusUpdateException.busNotFound(id);
+        }
+
+        List<UploadedMedia> uploaded = mediaUploadService.uploadAll(requestDTO.getImages(), BUS_IMAGE_FOLDER);
+        try {
+            return transactionTemplate.execute(status -> applyBusUpdate(id, requestDTO, uploaded));
+        } catch (RuntimeException e) {
+            mediaUploadService.deleteAsync(uploaded.stream().map(UploadedMedia::getPublicId).toList());
+            throw e;
+        }
+    }
+
+    private BusMGMTResponseDTO applyBusUpdate(Long id, BusMGMTRequestDTO requestDTO, List<UploadedMedia> uploaded) {
         Bus bus = busRepository.findById(id)
                 .orElseThrow(() -> BusUpdateException.busNotFound(id));
 
@@ -263,46 +255,28 @@ public class BusMGMTServiceImpl implements BusMGMTService {
         }
         bus.setStatus(requestDTO.getStatus());
 
-        // Xử lý ảnh bị xoá
+        // Xử lý ảnh bị xoá; file trên Cloudinary chỉ bị xoá sau khi DB đã commit
         if (requestDTO.getDeletedImageIds() != null && !requestDTO.getDeletedImageIds().isEmpty()) {
+            List<String> removedPublicIds = new ArrayList<>();
             requestDTO.getDeletedImageIds().forEach(imgId -> {
                 BusImage img = busImageRepository.findById(imgId)
                         .orElseThrow(() -> new RuntimeException("Ảnh không tồn tại: " + imgId));
-                try {
-                    String publicId = img.getPublicId();
-                    if (publicId == null || publicId.isBlank()) {
-                        publicId = cloudinaryService.extractPublicId(img.getImageUrl());
-                    }
-                    if (publicId != null) {
-                        cloudinaryService.deleteFile(publicId);
-                    }
-                } catch (Exception e) {
-                    LOGGER.warn("Không xóa được ảnh trên Cloudinary (imgId={}): {}", imgId, e.getMessage());
+                String publicId = resolvePublicId(img);
+                if (publicId != null) {
+                    removedPublicIds.add(publicId);
                 }
                 // Xóa cả trong collection Bus + DB
                 bus.getImages().remove(img);
                 busImageRepository.deleteById(imgId);
             });
+            mediaUploadService.deleteAfterCommit(removedPublicIds);
         }
 
-        // Thêm ảnh mới (nếu có)
-        List<MultipartFile> newImages = requestDTO.getImages();
-        if (newImages != null && !newImages.isEmpty()) {
-            for (MultipartFile file : newImages) {
-                try {
-                    String imageUrl = cloudinaryService.uploadFile(file, "busify/buses/images");
-                    String publicId = cloudinaryService.extractPublicId(imageUrl);
-
-                    BusImage busImage = new BusImage();
-                    busImage.setBus(bus);
-                    busImage.setImageUrl(imageUrl);
-                    busImage.setPublicId(publicId);
-                    busImage.setPrimary(false); // tuỳ logic: có thể đặt ảnh đầu tiên là primary
-                    busImageRepository.save(busImage);
-                } catch (Exception e) {
-                    throw new RuntimeException("Không thể upload ảnh bus: " + e.getMessage(), e);
-                }
-            }
+        // Thêm ảnh mới đã upload (tuỳ logic: có thể đặt ảnh đầu tiên là primary)
+        if (!uploaded.isEmpty()) {
+            busImageRepository.saveAll(uploaded.stream()
+                    .map(media -> toBusImage(bus, media, false))
+                    .toList());
         }
 
         Bus updatedBus = busRepository.save(bus);
@@ -323,6 +297,10 @@ public class BusMGMTServiceImpl implements BusMGMTService {
 
     @Override
     public BusDeleteResponseDTO deleteBus(Long id, boolean isDelete) {
+        return transactionTemplate.execute(status -> removeBus(id, isDelete));
+    }
+
+    private BusDeleteResponseDTO removeBus(Long id, boolean isDelete) {
         Bus bus = busRepository.findById(id)
                 .orElseThrow(() -> new BusNotFoundException(id));
 
@@ -332,20 +310,15 @@ public class BusMGMTServiceImpl implements BusMGMTService {
         }
 
         if (isDelete) {
-            // Xóa ảnh liên quan (nếu cần) trước khi xóa bus
+            // Xóa ảnh liên quan trước khi xóa bus; file trên Cloudinary chỉ bị xoá sau khi DB đã commit
             List<BusImage> images = busImageRepository.findByBusId(bus.getId());
             if (images != null && !images.isEmpty()) {
-                images.forEach(img -> {
-                    try {
-                        String publicId = cloudinaryService.extractPublicId(img.getImageUrl());
-                        if (publicId != null) {
-                            cloudinaryService.deleteFile(publicId);
-                        }
-                    } catch (Exception e) {
-                        LOGGER.warn("Không xóa được ảnh trên Cloudinary: {}", e.getMessage());
-                    }
-                    busImageRepository.delete(img);
-                });
+                List<String> publicIds = images.stream()
+                        .map(this::resolvePublicId)
+                        .filter(Objects::nonNull)
+                        .toList();
+                busImageRepository.deleteAll(images);
+                mediaUploadService.deleteAfterCommit(publicIds);
             }
 
             // Audit log for bus deletion (before actual deletion)
@@ -369,6 +342,23 @@ public class BusMGMTServiceImpl implements BusMGMTService {
                 bus.getSeatLayout().getName());
     }
 
+    private BusImage toBusImage(Bus bus, UploadedMedia media, boolean primary) {
+        BusImage busImage = new BusImage();
+        busImage.setBus(bus);
+        busImage.setImageUrl(media.getUrl());
+        busImage.setPublicId(media.getPublicId());
+        busImage.setPrimary(primary);
+        return busImage;
+    }
+
+    private String resolvePublicId(BusImage img) {
+        String publicId = img.getPublicId();
+        if (publicId == null || publicId.isBlank()) {
+            publicId = cloudinaryService.extractPublicId(img.getImageUrl());
+        }
+        return publicId;
+    }
+
     @Override
     public ApiResponse<?> getAllBuses(String keyword, BusStatus status, List<String> amenities, int page, int size) {
         Pageable pageable = PageRequest.of(page - 1, size);
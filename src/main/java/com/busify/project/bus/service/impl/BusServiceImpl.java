@@ -13,11 +13,9 @@ import com.busify.project.common.utils.JwtUtils;
 import com.busify.project.audit_log.entity.AuditLog;
 import com.busify.project.audit_log.service.AuditLogService;
 import com.busify.project.employee.repository.EmployeeRepository;
-import com.busify.project.seat_layout.repository.SeatLayoutRepository;
+import com.busify.project.seat_layout.service.SeatLayoutCatalog;
 import com.busify.project.user.entity.User;
 import com.busify.project.user.repository.UserRepository;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
@@ -30,9 +28,8 @@ import java.util.stream.Collectors;
 public class BusServiceImpl implements BusService {
 
     private final BusRepository busRepository;
-    private final SeatLayoutRepository seatLayoutRepository;
+    private final SeatLayoutCatalog seatLayoutCatalog;
     private final BusOperatorRepository busOperatorRepository;
-    private final ObjectMapper objectMapper;
     private final UserRepository userRepository;
     private final JwtUtils jwtUtil;
     private final AuditLogService auditLogService;
@@ -45,15 +42,9 @@ public class BusServiceImpl implements BusService {
                     if (bus.getSeatLayout() == null) {
                         throw new IllegalArgumentException("Seat layout is null for bus ID: " + busId);
                     }
-                    return seatLayoutRepository.findById(bus.getSeatLayout().getId())
-                            .map(seatLayout -> {
-                                JsonNode layout = objectMapper.convertValue(seatLayout.getLayoutData(), JsonNode.class);
-                                int rows = layout.get("rows").asInt();
-                                int columns = layout.get("cols").asInt();
-                                int floors = layout.has("floors") ? layout.get("floors").asInt() : 1;
-
-                                return new BusLayoutResponseDTO(rows, columns, floors);
-                            })
+                    return seatLayoutCatalog.get(bus.getSeatLayout().getId())
+                            .map(layout -> new BusLayoutResponseDTO(layout.getRows(), layout.getCols(),
+                                    layout.getFloors()))
                             .orElseThrow(
                                     () -> new IllegalArgumentException("Seat layout not found for bus ID: " + busId));
                 })
@@ -47,6 +47,19 @@ public class BusOperatorController {
                 return ApiResponse.success("All bus operators fetched successfully", busOperators);
         }
 
+        // Danh sách nhà xe cho bộ lọc chuyến; truyền cursor/limit để phân trang
+        @GetMapping("/all")
+        public ApiResponse<?> getAllBusOperators(
+                        @RequestParam(required = false) String cursor,
+                        @RequestParam(required = false) Integer limit) {
+                if (cursor != null || limit != null) {
+                        return ApiResponse.success("All bus operators fetched successfully",
+                                        busOperatorService.getBusOperators(cursor, limit));
+                }
+                List<BusOperatorFilterTripResponse> busOperators = busOperatorService.getAllBusOperators();
+                return ApiResponse.success("All bus operators fetched successfully", busOperators);
+        }
+
         @GetMapping("/management")
         @PreAuthorize("hasRole('ADMIN')")
         public ApiResponse<BusOperatorManagementPageResponse> getBusOperatorsForManagementPaginated(
@@ -1,5 +1,6 @@
 package com.busify.project.bus_operator.entity;
 
+import com.busify.project.common.search.SearchEntityListener;
 import com.busify.project.user.entity.Profile;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
@@ -20,6 +21,7 @@ import java.time.Instant;
 @Setter
 @Entity
 @Table(name = "bus_operators")
+@EntityListeners(SearchEntityListener.class)
 @Builder
 @AllArgsConstructor
 @NoArgsConstructor
@@ -6,6 +6,7 @@ import com.busify.project.bus_operator.dto.response.MonthlyTotalRevenueDTO;
 import com.busify.project.bus_operator.dto.response.WeeklyBusOperatorReportDTO;
 import com.busify.project.bus_operator.entity.BusOperator;
 import com.busify.project.bus_operator.enums.OperatorStatus;
+import com.busify.project.common.pagination.KeysetRepository;
 import com.busify.project.trip.dto.response.TopOperatorRatingDTO;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
@@ -14,40 +15,34 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Page;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface BusOperatorRepository extends JpaRepository<BusOperator, Long> {
+public interface BusOperatorRepository extends JpaRepository<BusOperator, Long>, KeysetRepository {
     @Query(value = "SELECT " +
             "bo.operator_id AS id, " +
             "bo.name AS name, " +
             "bo.email AS email, " +
             "bo.hotline AS hotline, " +
-            "COALESCE(AVG(r.rating), 0) AS averageRating, " +
-            "COUNT(r.review_id) AS totalReviews " +
+            "CAST(COALESCE(ra.average_rating, 0) AS DECIMAL(10, 4)) AS averageRating, " +
+            "COALESCE(ra.rating_count, 0) AS totalReviews " +
             "FROM " +
             "bus_operators bo " +
             "LEFT JOIN " +
-            "buses b ON bo.operator_id = b.operator_id " +
-            "LEFT JOIN " +
-            "trips t ON b.id = t.bus_id " +
-            "LEFT JOIN " +
-            "reviews r ON t.trip_id = r.trip_id " +
-            "GROUP BY " +
-            "bo.operator_id, bo.name, bo.hotline, bo.email " +
+            "rating_aggregates ra ON ra.scope = 'OPERATOR' AND ra.target_id = bo.operator_id " +
             "ORDER BY " +
             "averageRating DESC, totalReviews DESC", nativeQuery = true)
     List<BusOperatorRatingResponse> findAllOperatorsWithRatings(Pageable pageable);
 
     @Query("""
-            SELECT bo.id as operatorId, bo.name as operatorName, AVG(r.rating) as averageRating
-            FROM Review r
-            JOIN r.trip t
-            JOIN t.bus b
-            JOIN b.operator bo
-            GROUP BY bo.id, bo.name
-            ORDER BY AVG(r.rating) DESC
+            SELECT bo.id as operatorId, bo.name as operatorName, ra.averageRating as averageRating
+            FROM RatingAggregate ra, BusOperator bo
+            WHERE ra.id.scope = com.busify.project.review.enums.RatingScope.OPERATOR
+                AND ra.id.targetId = bo.id
+                AND ra.ratingCount > 0
+            ORDER BY ra.averageRating DESC, ra.ratingCount DESC
             """)
     List<TopOperatorRatingDTO> findTopRatedOperatorId(Pageable pageable);
 
@@ -230,4 +225,34 @@ public interface BusOperatorRepository extends JpaRepository<BusOperator, Long>
 
     @Query("SELECT bo.id FROM BusOperator bo")
     List<Long> findAllIds();
+
+    /**
+     * Như {@link #findBusOperatorsForManagement} nhưng từ khoá và tên chủ nhà xe đã được
+     * chỉ mục tìm kiếm đổi thành danh sách id
+     */
+    @Query("SELECT bo FROM BusOperator bo WHERE bo.id IN :ids AND (:status IS NULL OR bo.status = :status)")
+    Page<BusOperator> findBusOperatorsForManagementByIds(
+            @Param("ids") Collection<Long> ids,
+            @Param("status") OperatorStatus status,
+            Pageable pageable);
+
+    /**
+     * (id, tên, email, hotline, tên chủ nhà xe, trạng thái, thời điểm tạo) cho chỉ mục tìm kiếm
+     */
+    @Query("""
+            SELECT bo.id, bo.name, bo.email, bo.hotline, ow.fullName, bo.status, bo.createdAt
+            FROM BusOperator bo
+            LEFT JOIN bo.owner ow
+            WHERE bo.id > :lastId
+            ORDER BY bo.id
+            """)
+    List<Object[]> findSearchRowsAfter(@Param("lastId") Long lastId, Pageable pageable);
+
+    @Query("""
+            SELECT bo.id, bo.name, bo.email, bo.hotline, ow.fullName, bo.status, bo.createdAt
+            FROM BusOperator bo
+            LEFT JOIN bo.owner ow
+            WHERE bo.id IN :ids
+            """)
+    List<Object[]> findSearchRowsByIds(@Param("ids") Collection<Long> ids);
 }
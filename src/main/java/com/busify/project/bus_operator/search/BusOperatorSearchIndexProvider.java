@@ -0,0 +1,78 @@
+package com.busify.project.bus_operator.search;
+
+import com.busify.project.bus_operator.entity.BusOperator;
+import com.busify.project.bus_operator.repository.BusOperatorRepository;
+import com.busify.project.common.search.SearchDocument;
+import com.busify.project.common.search.SearchIndexProvider;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Chỉ mục nhà xe theo tên, email, hotline và tên chủ nhà xe; lọc theo trạng thái.
+ * Đổi tên chủ nhà xe chỉ được cập nhật ở lần build lại toàn bộ.
+ */
+@Component
+@RequiredArgsConstructor
+public class BusOperatorSearchIndexProvider implements SearchIndexProvider {
+
+    public static final String INDEX = "bus_operators";
+    public static final String FIELD_NAME = "name";
+    public static final String FIELD_EMAIL = "email";
+    public static final String FIELD_HOTLINE = "hotline";
+    public static final String FIELD_OWNER = "owner";
+    public static final String FILTER_STATUS = "status";
+
+    private final BusOperatorRepository busOperatorRepository;
+
+    @Override
+    public String getIndexName() {
+        return INDEX;
+    }
+
+    @Override
+    public Class<?> getEntityType() {
+        return BusOperator.class;
+    }
+
+    @Override
+    public Long idOf(Object entity) {
+        return ((BusOperator) entity).getId();
+    }
+
+    @Override
+    public List<SearchDocument> loadAfter(long lastId, int limit) {
+        return busOperatorRepository.findSearchRowsAfter(lastId, PageRequest.of(0, limit)).stream()
+                .map(BusOperatorSearchIndexProvider::toDocument)
+                .toList();
+    }
+
+    @Override
+    public List<SearchDocument> loadByIds(Collection<Long> ids) {
+        return busOperatorRepository.findSearchRowsByIds(ids).stream()
+                .map(BusOperatorSearchIndexProvider::toDocument)
+                .toList();
+    }
+
+    @Override
+    public Set<String> getSnapshotExcludedFields() {
+        return Set.of(FIELD_EMAIL, FIELD_HOTLINE);
+    }
+
+    private static SearchDocument toDocument(Object[] row) {
+        Instant createdAt = (Instant) row[6];
+        return SearchDocument.builder((Long) row[0])
+                .rankHint(createdAt != null ? createdAt.toEpochMilli() : 0)
+                .text(FIELD_NAME, (String) row[1], 2f)
+                .identifier(FIELD_EMAIL, (String) row[2], 1f)
+                .identifier(FIELD_HOTLINE, (String) row[3], 1f)
+                .text(FIELD_OWNER, (String) row[4], 1f)
+                .filter(FILTER_STATUS, row[5])
+                .build();
+    }
+}
@@ -2,12 +2,15 @@ package com.busify.project.bus_operator.service;
 
 import com.busify.project.bus_operator.dto.request.*;
 import com.busify.project.bus_operator.dto.response.*;
+import com.busify.project.common.pagination.CursorPage;
 
 import java.util.List;
 
 public interface BusOperatorService {
     List<BusOperatorFilterTripResponse> getAllBusOperators();
 
+    CursorPage<BusOperatorFilterTripResponse> getBusOperators(String cursor, Integer limit);
+
     List<BusOperatorRatingResponse> getAllBusOperatorsByRating(Integer limit);
 
     BusOperatorDetailsResponse getOperatorById(Long id);
@@ -8,9 +8,18 @@ import com.busify.project.bus_operator.entity.BusOperator;
 import com.busify.project.bus_operator.enums.OperatorStatus;
 import com.busify.project.bus_operator.mapper.BusOperatorMapper;
 import com.busify.project.bus_operator.repository.BusOperatorRepository;
+import com.busify.project.bus_operator.search.BusOperatorSearchIndexProvider;
 import com.busify.project.bus_operator.service.BusOperatorService;
+import com.busify.project.common.pagination.CursorCodec;
+import com.busify.project.common.pagination.CursorPage;
+import com.busify.project.common.pagination.CursorPagination;
+import com.busify.project.common.pagination.KeysetQuery;
+import com.busify.project.common.search.SearchIndexService;
+import com.busify.project.common.search.SearchQuery;
 import com.busify.project.common.service.CloudinaryService;
-import com.busify.project.review.repository.ReviewRepository;
+import com.busify.project.review.dto.response.RatingSummaryDTO;
+import com.busify.project.review.enums.RatingScope;
+import com.busify.project.review.service.RatingAggregateService;
 import com.busify.project.role.entity.Role;
 import com.busify.project.role.repository.RoleRepository;
 import com.busify.project.user.entity.Profile;
@@ -43,6 +52,7 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
@@ -51,7 +61,7 @@ import java.util.stream.Collectors;
 public class BusOperatorServiceImpl implements BusOperatorService {
 
     private final BusOperatorRepository busOperatorRepository;
-    private final ReviewRepository reviewRepository;
+    private final RatingAggregateService ratingAggregateService;
     private final BusRepository busRepository;
     private final UserRepository userRepository;
     private final CloudinaryService cloudinaryService;
@@ -59,15 +69,28 @@ public class BusOperatorServiceImpl implements BusOperatorService {
     private final JwtUtils utils;
     private final PasswordEncoder passwordEncoder;
     private final AuditLogService auditLogService;
+    private final SearchIndexService searchIndexService;
+    private final CursorPagination cursorPagination;
 
     @Override
     public List<BusOperatorFilterTripResponse> getAllBusOperators() {
+        cursorPagination.requireBounded(busOperatorRepository.count(), "nhà xe");
         return busOperatorRepository.findAll()
                 .stream()
                 .map(BusOperatorMapper::toDTO)
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public CursorPage<BusOperatorFilterTripResponse> getBusOperators(String cursor, Integer limit) {
+        int pageSize = cursorPagination.limit(limit);
+        List<BusOperator> operators = busOperatorRepository.findKeyset(KeysetQuery.of(BusOperator.class, "id")
+                .after(cursorPagination.afterId(cursor))
+                .limit(pageSize));
+        return CursorPage.of(operators, pageSize, operator -> CursorCodec.encode(operator.getId()))
+                .map(BusOperatorMapper::toDTO);
+    }
+
     @Override
     public List<BusOperatorRatingResponse> getAllBusOperatorsByRating(Integer limit) {
         Pageable pageable = PageRequest.of(0, limit);
@@ -77,8 +100,7 @@ public class BusOperatorServiceImpl implements BusOperatorService {
     public BusOperatorDetailsResponse getOperatorById(Long id) {
         final BusOperator busOperator = busOperatorRepository.findById(id)
                 .orElseThrow(() -> BusOperatorNotFoundException.withId(id));
-        final Double rating = reviewRepository.findAverageRatingByOperatorId(id);
-        final Long totalReviews = reviewRepository.countByBusOperatorId(id);
+        final RatingSummaryDTO rating = ratingAggregateService.getSummary(RatingScope.OPERATOR, id);
         return new BusOperatorDetailsResponse(
                 busOperator.getId(),
                 busOperator.getName(),
@@ -87,8 +109,8 @@ public class BusOperatorServiceImpl implements BusOperatorService {
                 busOperator.getDescription(),
                 busOperator.getAvatar(),
                 busOperator.getAddress(),
-                rating != null ? rating : 0.0,
-                totalReviews != null ? totalReviews : 0L);
+                rating.getAverageRating(),
+                rating.getTotalReviews());
     }
 
     public List<BusOperatorResponse> getAllActiveOperators() {
@@ -104,6 +126,35 @@ public class BusOperatorServiceImpl implements BusOperatorService {
                 .toList();
     }
 
+    // Từ khoá và tên chủ nhà xe đi qua chỉ mục tìm kiếm; lọc trạng thái, sắp xếp và phân trang vẫn trong DB
+    private Page<BusOperator> searchOperators(BusOperatorFilterRequest filterRequest, Pageable pageable) {
+        String search = filterRequest.getSearch();
+        String ownerName = filterRequest.getOwnerName();
+        boolean hasSearch = search != null && !search.isBlank();
+        boolean hasOwner = ownerName != null && !ownerName.isBlank();
+        Optional<List<Long>> matchedIds = Optional.empty();
+        if (hasSearch || hasOwner) {
+            SearchQuery.Builder query = SearchQuery.builder();
+            if (hasSearch) {
+                query.match(search, BusOperatorSearchIndexProvider.FIELD_NAME,
+                        BusOperatorSearchIndexProvider.FIELD_EMAIL, BusOperatorSearchIndexProvider.FIELD_HOTLINE);
+            }
+            if (hasOwner) {
+                query.match(ownerName, BusOperatorSearchIndexProvider.FIELD_OWNER);
+            }
+            matchedIds = searchIndexService.matchingIds(BusOperatorSearchIndexProvider.INDEX, query.build());
+        }
+        if (matchedIds.isEmpty()) {
+            return busOperatorRepository.findBusOperatorsForManagement(search, filterRequest.getStatus(), ownerName,
+                    pageable);
+        }
+        if (matchedIds.get().isEmpty()) {
+            return Page.empty(pageable);
+        }
+        return busOperatorRepository.findBusOperatorsForManagementByIds(matchedIds.get(), filterRequest.getStatus(),
+                pageable);
+    }
+
     @Override
     public BusOperatorManagementPageResponse getBusOperatorsForManagement(BusOperatorFilterRequest filterRequest) {
         // Create sort object
@@ -114,11 +165,7 @@ public class BusOperatorServiceImpl implements BusOperatorService {
         Pageable pageable = PageRequest.of(filterRequest.getPage(), filterRequest.getSize(), sort);
 
         // Get paginated operators with filters
-        Page<BusOperator> operatorsPage = busOperatorRepository.findBusOperatorsForManagement(
-                filterRequest.getSearch(),
-                filterRequest.getStatus(),
-                filterRequest.getOwnerName(),
-                pageable);
+        Page<BusOperator> operatorsPage = searchOperators(filterRequest, pageable);
 
         // Get operator IDs for bus fetching
         List<Long> operatorIds = operatorsPage.getContent()
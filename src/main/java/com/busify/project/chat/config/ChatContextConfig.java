@@ -0,0 +1,29 @@
+package com.busify.project.chat.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "busify.chat.context")
+@Data
+public class ChatContextConfig {
+
+    // Ước lượng token tối đa cho phần lịch sử gửi kèm mỗi request
+    private int historyTokenBudget = 1200;
+
+    // Số tin nhắn gần nhất đọc từ DB khi khởi tạo ngữ cảnh cho một phòng
+    private int warmupMessages = 20;
+
+    // Độ dài tối đa của phần tóm tắt các tin nhắn cũ
+    private int maxSummaryChars = 800;
+
+    // Số phòng giữ ngữ cảnh trong bộ nhớ
+    private int maxRooms = 5000;
+
+    // Cache câu trả lời cho các câu hỏi lặp lại
+    private boolean responseCacheEnabled = true;
+    private int responseCacheMaxEntries = 1000;
+    private int responseCacheTtlMinutes = 60;
+    private int responseCacheMaxQuestionChars = 160;
+}
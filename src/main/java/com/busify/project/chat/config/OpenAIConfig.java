@@ -16,6 +16,15 @@ public class OpenAIConfig {
     private int timeout = 30;
     private int maxTokens = 500;
     private double temperature = 0.7;
+    private String baseUrl = "https://openrouter.ai/api/v1";
+
+    // Shared HTTP client tuning
+    private int connectTimeoutMs = 5000;
+    private int maxConnections = 50;
+    private int pendingAcquireTimeoutMs = 5000;
+
+    // Upper bound on upstream requests in flight across all chat rooms
+    private int maxConcurrentRequests = 20;
     
     public String getKey() {
         return key;
@@ -0,0 +1,50 @@
+package com.busify.project.chat.config;
+
+import io.netty.channel.ChannelOption;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+/**
+ * Single pooled WebClient for OpenRouter, built once instead of per request
+ */
+@Configuration
+@RequiredArgsConstructor
+public class OpenRouterClientConfig {
+
+    private final OpenAIConfig openAIConfig;
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider openRouterConnectionProvider() {
+        return ConnectionProvider.builder("openrouter")
+                .maxConnections(openAIConfig.getMaxConnections())
+                .pendingAcquireTimeout(Duration.ofMillis(openAIConfig.getPendingAcquireTimeoutMs()))
+                .maxIdleTime(Duration.ofSeconds(60))
+                .evictInBackground(Duration.ofSeconds(120))
+                .build();
+    }
+
+    @Bean
+    public WebClient openRouterWebClient(ConnectionProvider openRouterConnectionProvider) {
+        HttpClient httpClient = HttpClient.create(openRouterConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, openAIConfig.getConnectTimeoutMs())
+                .responseTimeout(Duration.ofSeconds(openAIConfig.getTimeout()));
+
+        return WebClient.builder()
+                .baseUrl(openAIConfig.getBaseUrl())
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .defaultHeader(HttpHeaders.AUTHORIZATION, "Bearer " + openAIConfig.getKey())
+                .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .defaultHeader("HTTP-Referer", "http://localhost:8080") // OpenRouter yêu cầu
+                .defaultHeader("X-Title", "Busify Chatbot") // OpenRouter yêu cầu
+                .build();
+    }
+}
@@ -1,11 +1,15 @@
 package com.busify.project.chat.controller;
 
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.springframework.messaging.handler.annotation.DestinationVariable;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -14,8 +18,10 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.busify.project.chat.dto.AIChatStreamChunkDTO;
 import com.busify.project.chat.dto.ChatMessageDTO;
 import com.busify.project.chat.model.ChatMessage;
+import com.busify.project.chat.service.AIResponseCache;
 import com.busify.project.chat.service.ChatBotService;
 import com.busify.project.chat.service.ChatService;
 import com.busify.project.chat.service.OpenAIService;
@@ -24,6 +30,7 @@ import com.busify.project.common.utils.JwtUtils;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import reactor.core.scheduler.Schedulers;
 
 @RestController
 @RequestMapping("/api/ai-chat")
@@ -36,11 +43,13 @@ public class ChatAIController {
     private final ChatBotService chatBotService;
     private final JwtUtils jwtUtils;
     private final OpenAIService openAIService;
+    private final AIResponseCache aiResponseCache;
 
     /**
      * Xử lý tin nhắn chat với AI qua WebSocket.
      * Client gửi tin nhắn đến "/app/chat.ai/{userId}".
-     * Server sẽ trả lời tự động và broadcast đến "/topic/ai/{userId}".
+     * Phản hồi được stream theo từng đoạn đến "/topic/ai/{userId}/stream",
+     * sau đó tin nhắn hoàn chỉnh được broadcast đến "/topic/ai/{userId}".
      */
     @MessageMapping("/chat.ai/{userId}")
     public void chatWithAI(@DestinationVariable String userId, @Payload ChatMessageDTO chatMessage) {
@@ -69,52 +78,73 @@ public class ChatAIController {
                 return;
             }
 
-            // 3. Lấy phản hồi từ AI (với lịch sử nếu có)
-            List<ChatMessage> chatHistory = chatService.getChatHistoryByRoom(roomId);
-            String aiReply;
-            
-            if (chatHistory.size() > 1) {
-                // Có lịch sử chat, sử dụng context
-                aiReply = chatBotService.getBotReplyWithHistory(chatMessage.getContent(), chatHistory, chatMessage.getSender());
-            } else {
-                // Không có lịch sử, sử dụng reply thông thường
-                aiReply = chatBotService.getBotReply(chatMessage.getContent(), chatMessage.getSender());
-            }
+            // 3. Stream phản hồi từ AI: từng đoạn được đẩy tới "/topic/ai/{userId}/stream",
+            // tin nhắn hoàn chỉnh được lưu và gửi tới "/topic/ai/{userId}" khi kết thúc
+            String streamId = UUID.randomUUID().toString();
+            String streamDestination = "/topic/ai/" + userId + "/stream";
+            StringBuilder fullReply = new StringBuilder();
+            AtomicInteger sequence = new AtomicInteger();
 
-            // 4. Tạo tin nhắn phản hồi từ AI
-            ChatMessageDTO aiMessage = ChatMessageDTO.builder()
-                .content(aiReply)
-                .sender("AI Bot")
-                .recipient(chatMessage.getSender())
-                .type(ChatMessageDTO.MessageType.CHAT)
-                .build();
+            chatBotService.streamBotReplyWithHistory(chatMessage.getContent(), roomId, chatMessage.getSender())
+                // Lưu DB và gửi STOMP không chạy trên event loop của Netty
+                .publishOn(Schedulers.boundedElastic())
+                .subscribe(
+                    chunk -> {
+                        fullReply.append(chunk);
+                        messagingTemplate.convertAndSend(streamDestination, AIChatStreamChunkDTO.builder()
+                            .streamId(streamId)
+                            .content(chunk)
+                            .sequence(sequence.getAndIncrement())
+                            .build());
+                    },
+                    error -> {
+                        log.error("AI stream failed for user: {}", chatMessage.getSender(), error);
+                        sendErrorMessage(userId, chatMessage.getSender());
+                    },
+                    () -> {
+                        messagingTemplate.convertAndSend(streamDestination, AIChatStreamChunkDTO.builder()
+                            .streamId(streamId)
+                            .sequence(sequence.get())
+                            .done(true)
+                            .build());
 
-            // 5. Lưu tin nhắn AI
-            ChatMessage savedAiMessage = chatService.saveMessage(aiMessage, roomId);
-            log.info("Saved AI message with ID: {}", savedAiMessage.getId());
+                        // 4. Tạo và lưu tin nhắn phản hồi hoàn chỉnh từ AI
+                        ChatMessageDTO aiMessage = ChatMessageDTO.builder()
+                            .content(fullReply.toString())
+                            .sender("AI Bot")
+                            .recipient(chatMessage.getSender())
+                            .type(ChatMessageDTO.MessageType.CHAT)
+                            .build();
+
+                        ChatMessage savedAiMessage = chatService.saveMessage(aiMessage, roomId);
+                        log.info("Saved AI message with ID: {}", savedAiMessage.getId());
 
-            // 6. Gửi phản hồi AI đến client
-            messagingTemplate.convertAndSend("/topic/ai/" + userId, savedAiMessage);
-            log.info("Sent AI reply to topic: /topic/ai/{}", userId);
+                        // 5. Gửi tin nhắn hoàn chỉnh đến client
+                        messagingTemplate.convertAndSend("/topic/ai/" + userId, savedAiMessage);
+                        log.info("Sent AI reply to topic: /topic/ai/{}", userId);
+                    });
 
         } catch (Exception e) {
             log.error("Error processing AI chat message from user: {}", chatMessage.getSender(), e);
-            
-            // Gửi tin nhắn lỗi
-            ChatMessageDTO errorMessage = ChatMessageDTO.builder()
-                .content("Xin lỗi, đã có lỗi xảy ra. Vui lòng thử lại sau.")
-                .sender("AI Bot")
-                .recipient(chatMessage.getSender())
-                .type(ChatMessageDTO.MessageType.CHAT)
-                .build();
-            
-            try {
-                String roomId = "ai-" + userId;
-                ChatMessage savedErrorMessage = chatService.saveMessage(errorMessage, roomId);
-                messagingTemplate.convertAndSend("/topic/ai/" + userId, savedErrorMessage);
-            } catch (Exception saveError) {
-                log.error("Failed to save/send error message", saveError);
-            }
+            sendErrorMessage(userId, chatMessage.getSender());
+        }
+    }
+
+    private void sendErrorMessage(String userId, String recipient) {
+        // Gửi tin nhắn lỗi
+        ChatMessageDTO errorMessage = ChatMessageDTO.builder()
+            .content("Xin lỗi, đã có lỗi xảy ra. Vui lòng thử lại sau.")
+            .sender("AI Bot")
+            .recipient(recipient)
+            .type(ChatMessageDTO.MessageType.CHAT)
+            .build();
+
+        try {
+            String roomId = "ai-" + userId;
+            ChatMessage savedErrorMessage = chatService.saveMessage(errorMessage, roomId);
+            messagingTemplate.convertAndSend("/topic/ai/" + userId, savedErrorMessage);
+        } catch (Exception saveError) {
+            log.error("Failed to save/send error message", saveError);
         }
     }
 
@@ -133,15 +163,8 @@ public class ChatAIController {
             chatMessage.setSender(currentUser);
             chatService.saveMessage(chatMessage, roomId);
 
-            // Lấy phản hồi AI (với lịch sử nếu có)
-            List<ChatMessage> chatHistory = chatService.getChatHistoryByRoom(roomId);
-            String aiReply;
-            
-            if (chatHistory.size() > 1) {
-                aiReply = chatBotService.getBotReplyWithHistory(chatMessage.getContent(), chatHistory, currentUser);
-            } else {
-                aiReply = chatBotService.getBotReply(chatMessage.getContent(), currentUser);
-            }
+            // Lấy phản hồi AI với ngữ cảnh hội thoại của phòng
+            String aiReply = chatBotService.getBotReplyWithHistory(chatMessage.getContent(), roomId, currentUser);
 
             // Tạo và lưu tin nhắn AI
             ChatMessageDTO aiMessage = ChatMessageDTO.builder()
@@ -235,6 +258,15 @@ public class ChatAIController {
         }
     }
 
+    /**
+     * Thống kê cache câu trả lời AI (hit rate, kích thước)
+     */
+    @GetMapping("/cache-stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ApiResponse<Map<String, Object>> getResponseCacheStats() {
+        return ApiResponse.success("Lấy thống kê cache AI thành công", aiResponseCache.getStats());
+    }
+
     /**
      * Kiểm tra trạng thái OpenAI API
      */
@@ -0,0 +1,20 @@
+package com.busify.project.chat.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Một đoạn phản hồi AI được đẩy qua "/topic/ai/{userId}/stream" trong lúc stream
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AIChatStreamChunkDTO {
+    private String streamId;
+    private String content; // Phần nội dung mới, không phải toàn bộ
+    private int sequence;
+    private boolean done;
+}
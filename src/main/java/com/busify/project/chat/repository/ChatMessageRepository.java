@@ -2,6 +2,7 @@ package com.busify.project.chat.repository;
 
 import com.busify.project.chat.dto.ChatMessageDTO;
 import com.busify.project.chat.model.ChatMessage;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -18,6 +19,11 @@ public interface ChatMessageRepository extends JpaRepository<ChatMessage, Long>
          */
         List<ChatMessage> findByRoomIdOrderByTimestampAsc(String roomId);
 
+        /**
+         * Lấy các tin nhắn mới nhất của một phòng (giới hạn theo Pageable).
+         */
+        List<ChatMessage> findByRoomIdOrderByTimestampDesc(String roomId, Pageable pageable);
+
         /**
          * Tìm tất cả tin nhắn giữa hai người dùng (chat 1-1).
          */
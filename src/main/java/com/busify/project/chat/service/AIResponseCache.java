@@ -0,0 +1,98 @@
+package com.busify.project.chat.service;
+
+import com.busify.project.chat.config.ChatContextConfig;
+import com.busify.project.common.utils.VietnameseTextNormalizer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache câu trả lời AI cho các câu hỏi thường gặp.
+ * <p>
+ * Khóa là câu hỏi đã chuẩn hóa (bỏ dấu, chữ thường, bỏ dấu câu), nên
+ * "Chính sách hoàn tiền?" và "chinh sach hoan tien" dùng chung một bản ghi.
+ * Chỉ các câu hỏi ngắn mới được cache để tránh trả lời sai cho câu hỏi phụ
+ * thuộc ngữ cảnh dài. Cache dùng chung cho mọi phòng nên nơi gọi chỉ được đọc/ghi
+ * câu hỏi mở đầu cuộc trò chuyện (không có lịch sử), xem
+ * {@link ConversationContextManager#isFirstTurn}.
+ * </p>
+ */
+@Service
+@RequiredArgsConstructor
+public class AIResponseCache {
+
+    private final ChatContextConfig config;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    private final Map<String, Entry> entries = Collections.synchronizedMap(
+            new LinkedHashMap<>(256, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                    return size() > config.getResponseCacheMaxEntries();
+                }
+            });
+
+    public Optional<String> get(String question) {
+        String key = keyOf(question);
+        if (key == null) {
+            return Optional.empty();
+        }
+        Entry entry = entries.get(key);
+        if (entry == null || entry.isExpired()) {
+            if (entry != null) {
+                entries.remove(key);
+            }
+            misses.incrementAndGet();
+            return Optional.empty();
+        }
+        hits.incrementAndGet();
+        return Optional.of(entry.reply);
+    }
+
+    public void put(String question, String reply) {
+        String key = keyOf(question);
+        if (key == null || reply == null || reply.isBlank()) {
+            return;
+        }
+        long ttlMillis = Duration.ofMinutes(config.getResponseCacheTtlMinutes()).toMillis();
+        entries.put(key, new Entry(reply, System.currentTimeMillis() + ttlMillis));
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    public Map<String, Object> getStats() {
+        long hitCount = hits.get();
+        long missCount = misses.get();
+        long total = hitCount + missCount;
+        return Map.of(
+                "size", entries.size(),
+                "hits", hitCount,
+                "misses", missCount,
+                "hitRate", total == 0 ? 0.0 : (double) hitCount / total);
+    }
+
+    private String keyOf(String question) {
+        if (!config.isResponseCacheEnabled() || question == null
+                || question.length() > config.getResponseCacheMaxQuestionChars()) {
+            return null;
+        }
+        String key = VietnameseTextNormalizer.normalize(question);
+        return key.isEmpty() ? null : key;
+    }
+
+    private record Entry(String reply, long expiresAt) {
+        boolean isExpired() {
+            return System.currentTimeMillis() > expiresAt;
+        }
+    }
+}
@@ -3,6 +3,10 @@ package com.busify.project.chat.service;
 import org.springframework.stereotype.Service;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 @Service
 @RequiredArgsConstructor
@@ -10,6 +14,8 @@ import lombok.extern.slf4j.Slf4j;
 public class ChatBotService {
 
     private final OpenAIService openAIService;
+    private final AIResponseCache responseCache;
+    private final ConversationContextManager contextManager;
 
     /**
      * Xử lý tin nhắn từ người dùng và tạo phản hồi từ AI
@@ -41,17 +47,31 @@ public class ChatBotService {
     }
 
     /**
-     * Xử lý tin nhắn với lịch sử hội thoại để có context tốt hơn
+     * Xử lý tin nhắn với ngữ cảnh hội thoại của phòng để có context tốt hơn.
+     * Câu hỏi mở đầu cuộc trò chuyện được trả lời từ {@link AIResponseCache} nếu có;
+     * câu hỏi tiếp theo phụ thuộc ngữ cảnh riêng của phòng nên không đọc/ghi cache.
      */
-    public String getBotReplyWithHistory(String userMessage, java.util.List<com.busify.project.chat.model.ChatMessage> chatHistory, String userEmail) {
+    public String getBotReplyWithHistory(String userMessage, String roomId, String userEmail) {
         try {
             log.info("Processing AI chat message with history from user: {}", userEmail);
-            
+
+            boolean cacheable = contextManager.isFirstTurn(roomId, userMessage);
+            Optional<String> cached = cacheable ? responseCache.get(userMessage) : Optional.empty();
+            if (cached.isPresent()) {
+                log.info("Answered from AI response cache for user: {}", userEmail);
+                contextManager.recordExchange(roomId, userMessage, cached.get());
+                return cached.get();
+            }
+
             // Thử sử dụng ChatGPT với history trước
-            String chatGPTReply = openAIService.getChatGPTResponseWithHistory(userMessage, chatHistory, userEmail);
+            String chatGPTReply = openAIService.getChatGPTResponseWithHistory(userMessage, roomId, userEmail);
             
             if (chatGPTReply != null && !chatGPTReply.trim().isEmpty()) {
                 log.info("Generated ChatGPT reply with history for user: {}", userEmail);
+                if (cacheable) {
+                    responseCache.put(userMessage, chatGPTReply);
+                }
+                contextManager.recordExchange(roomId, userMessage, chatGPTReply);
                 return chatGPTReply;
             } else {
                 log.warn("ChatGPT with history unavailable, falling back to simple reply for user: {}", userEmail);
@@ -65,6 +85,48 @@ public class ChatBotService {
         }
     }
 
+    /**
+     * Stream phản hồi AI theo từng đoạn. Câu hỏi mở đầu đã có trong cache được trả về
+     * ngay trong một đoạn; nếu AI không khả dụng hoặc lỗi trước khi có dữ liệu,
+     * trả về phản hồi mẫu như {@link #getBotReply(String, String)}.
+     */
+    public Flux<String> streamBotReplyWithHistory(String userMessage, String roomId, String userEmail) {
+        boolean cacheable = contextManager.isFirstTurn(roomId, userMessage);
+        Optional<String> cached = cacheable ? responseCache.get(userMessage) : Optional.empty();
+        if (cached.isPresent()) {
+            log.info("Answered from AI response cache for user: {}", userEmail);
+            contextManager.recordExchange(roomId, userMessage, cached.get());
+            return Flux.just(cached.get());
+        }
+
+        if (!openAIService.isOpenAIAvailable()) {
+            return Flux.just(generateMockReply(userMessage));
+        }
+
+        AtomicBoolean emitted = new AtomicBoolean(false);
+        StringBuilder fullReply = new StringBuilder();
+        return openAIService.streamChatGPTResponseWithHistory(userMessage, roomId, userEmail)
+            .doOnNext(chunk -> {
+                emitted.set(true);
+                fullReply.append(chunk);
+            })
+            .doOnComplete(() -> {
+                if (emitted.get()) {
+                    String reply = fullReply.toString();
+                    if (cacheable) {
+                        responseCache.put(userMessage, reply);
+                    }
+                    contextManager.recordExchange(roomId, userMessage, reply);
+                }
+            })
+            .onErrorResume(e -> {
+                log.warn("AI stream failed for user: {} - {}", userEmail, e.getMessage());
+                // Đã gửi một phần cho client thì dừng lại, không ghép thêm phản hồi mẫu
+                return emitted.get() ? Flux.empty() : Flux.just(generateMockReply(userMessage));
+            })
+            .switchIfEmpty(Flux.defer(() -> Flux.just(generateMockReply(userMessage))));
+    }
+
     /**
      * Tạo phản hồi mẫu dựa trên tin nhắn của người dùng (fallback khi ChatGPT không khả dụng)
      */
@@ -0,0 +1,187 @@
+package com.busify.project.chat.service;
+
+import com.busify.project.chat.config.ChatContextConfig;
+import com.busify.project.chat.model.ChatMessage;
+import com.busify.project.chat.repository.ChatMessageRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Quản lý ngữ cảnh hội thoại AI theo từng phòng.
+ * <p>
+ * Mỗi phòng giữ một cửa sổ trượt các tin nhắn gần nhất trong giới hạn token
+ * ({@code busify.chat.context.history-token-budget}). Tin nhắn bị đẩy ra khỏi
+ * cửa sổ được gộp vào một bản tóm tắt ngắn, nên kích thước prompt không tăng
+ * theo độ dài cuộc trò chuyện. Lần đầu gặp một phòng chỉ đọc N tin nhắn mới
+ * nhất từ DB thay vì toàn bộ lịch sử.
+ * </p>
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ConversationContextManager {
+
+    private static final String AI_SENDER = "AI Bot";
+    private static final int SUMMARY_USER_SNIPPET = 120;
+    private static final int SUMMARY_ASSISTANT_SNIPPET = 80;
+
+    private final ChatMessageRepository chatMessageRepository;
+    private final ChatContextConfig config;
+
+    private final Map<String, RoomContext> rooms = Collections.synchronizedMap(
+            new LinkedHashMap<>(256, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, RoomContext> eldest) {
+                    return size() > config.getMaxRooms();
+                }
+            });
+
+    /**
+     * Tạo danh sách tin nhắn gửi lên model: system prompt, tóm tắt (nếu có),
+     * cửa sổ lịch sử gần nhất và tin nhắn hiện tại
+     */
+    public List<OpenRouterService.Message> buildMessages(String roomId, String systemPrompt, String userMessage) {
+        RoomContext context = getOrLoad(roomId);
+        List<OpenRouterService.Message> messages = new ArrayList<>();
+        messages.add(new OpenRouterService.Message("system", systemPrompt));
+
+        synchronized (context) {
+            if (context.summary.length() > 0) {
+                messages.add(new OpenRouterService.Message("system",
+                        "Tóm tắt phần trước của cuộc trò chuyện: " + context.summary));
+            }
+            for (Turn turn : context.window) {
+                messages.add(new OpenRouterService.Message(turn.role, turn.content));
+            }
+        }
+
+        // Tin nhắn hiện tại có thể đã nằm trong cửa sổ nếu vừa được nạp từ DB
+        OpenRouterService.Message last = messages.get(messages.size() - 1);
+        if (!("user".equals(last.getRole()) && userMessage.equals(last.getContent()))) {
+            messages.add(new OpenRouterService.Message("user", userMessage));
+        }
+        return messages;
+    }
+
+    /**
+     * Ghi nhận một lượt hỏi đáp vào ngữ cảnh của phòng
+     */
+    public void recordExchange(String roomId, String userMessage, String reply) {
+        RoomContext context = getOrLoad(roomId);
+        synchronized (context) {
+            Turn lastTurn = context.window.peekLast();
+            if (lastTurn == null || !("user".equals(lastTurn.role) && lastTurn.content.equals(userMessage))) {
+                append(context, new Turn("user", userMessage));
+            }
+            if (reply != null && !reply.isBlank()) {
+                append(context, new Turn("assistant", reply));
+            }
+        }
+    }
+
+    /**
+     * Phòng chưa có lượt hỏi đáp nào trước {@code userMessage} (tin nhắn này có thể đã được lưu
+     * và nạp vào cửa sổ). Chỉ khi đó câu trả lời không phụ thuộc ngữ cảnh riêng của phòng.
+     */
+    public boolean isFirstTurn(String roomId, String userMessage) {
+        RoomContext context = getOrLoad(roomId);
+        synchronized (context) {
+            if (context.summary.length() > 0 || context.window.size() > 1) {
+                return false;
+            }
+            Turn only = context.window.peekFirst();
+            return only == null || ("user".equals(only.role) && only.content.equals(userMessage));
+        }
+    }
+
+    public void evict(String roomId) {
+        rooms.remove(roomId);
+    }
+
+    /**
+     * Ước lượng số token của một đoạn văn bản (tiếng Việt ~3 ký tự/token)
+     */
+    static int estimateTokens(String text) {
+        return text == null ? 0 : text.length() / 3 + 1;
+    }
+
+    private RoomContext getOrLoad(String roomId) {
+        RoomContext context = rooms.get(roomId);
+        if (context != null) {
+            return context;
+        }
+
+        RoomContext loaded = new RoomContext();
+        List<ChatMessage> recent = chatMessageRepository.findByRoomIdOrderByTimestampDesc(roomId,
+                PageRequest.of(0, config.getWarmupMessages()));
+        for (int i = recent.size() - 1; i >= 0; i--) {
+            ChatMessage message = recent.get(i);
+            if (message.getContent() == null || message.getSender() == null) {
+                continue;
+            }
+            String role = AI_SENDER.equals(message.getSender()) ? "assistant" : "user";
+            append(loaded, new Turn(role, message.getContent()));
+        }
+
+        RoomContext existing = rooms.putIfAbsent(roomId, loaded);
+        return existing != null ? existing : loaded;
+    }
+
+    private void append(RoomContext context, Turn turn) {
+        context.window.addLast(turn);
+        context.windowTokens += turn.tokens;
+
+        // Luôn giữ lại ít nhất lượt mới nhất, kể cả khi nó vượt ngân sách
+        while (context.windowTokens > config.getHistoryTokenBudget() && context.window.size() > 1) {
+            Turn evicted = context.window.removeFirst();
+            context.windowTokens -= evicted.tokens;
+            foldIntoSummary(context, evicted);
+        }
+    }
+
+    private void foldIntoSummary(RoomContext context, Turn turn) {
+        int limit = "user".equals(turn.role) ? SUMMARY_USER_SNIPPET : SUMMARY_ASSISTANT_SNIPPET;
+        String snippet = turn.content.replace('\n', ' ').strip();
+        if (snippet.length() > limit) {
+            snippet = snippet.substring(0, limit) + "…";
+        }
+        context.summary.append("user".equals(turn.role) ? "Khách hỏi: " : "Trợ lý đáp: ")
+                .append(snippet)
+                .append(". ");
+
+        // Bỏ phần tóm tắt cũ nhất khi quá dài
+        int overflow = context.summary.length() - config.getMaxSummaryChars();
+        if (overflow > 0) {
+            int cut = context.summary.indexOf(". ", overflow);
+            context.summary.delete(0, cut < 0 ? overflow : cut + 2);
+        }
+    }
+
+    private static final class RoomContext {
+        private final Deque<Turn> window = new ArrayDeque<>();
+        private final StringBuilder summary = new StringBuilder();
+        private int windowTokens;
+    }
+
+    private static final class Turn {
+        private final String role;
+        private final String content;
+        private final int tokens;
+
+        private Turn(String role, String content) {
+            this.role = role;
+            this.content = content;
+            this.tokens = estimateTokens(content);
+        }
+    }
+}
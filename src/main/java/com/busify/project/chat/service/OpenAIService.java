@@ -6,6 +6,7 @@ import com.busify.project.chat.config.OpenAIConfig;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
 
 import java.util.List;
 
@@ -16,6 +17,7 @@ public class OpenAIService {
 
     private final OpenAIConfig openAIConfig;
     private final OpenRouterService openRouterService;
+    private final ConversationContextManager contextManager;
 
     /**
      * Gửi tin nhắn tới OpenRouter và nhận phản hồi
@@ -104,32 +106,16 @@ public class OpenAIService {
     }
 
     /**
-     * Gửi tin nhắn tới OpenRouter với context từ lịch sử hội thoại
+     * Gửi tin nhắn tới OpenRouter với ngữ cảnh hội thoại của phòng
+     * (cửa sổ gần nhất + tóm tắt, xem {@link ConversationContextManager})
      */
-    public String getChatGPTResponseWithHistory(String userMessage, List<com.busify.project.chat.model.ChatMessage> chatHistory, String userEmail) {
+    public String getChatGPTResponseWithHistory(String userMessage, String roomId, String userEmail) {
         try {
             log.info("Processing AI chat message with history from user: {}", userEmail);
             log.info("Using model: {}", openAIConfig.getModel());
 
-            // Tạo system prompt
-            String systemPrompt = createBusifySystemPrompt();
-            
-            // Tạo danh sách tin nhắn với lịch sử
-            List<OpenRouterService.Message> messages = new java.util.ArrayList<>();
-            messages.add(new OpenRouterService.Message("system", systemPrompt));
-            
-            // Thêm lịch sử hội thoại (giới hạn 10 tin nhắn gần nhất để tránh vượt quá token limit)
-            int historyLimit = Math.min(chatHistory.size(), 10);
-            for (int i = chatHistory.size() - historyLimit; i < chatHistory.size(); i++) {
-                com.busify.project.chat.model.ChatMessage msg = chatHistory.get(i);
-                String role = msg.getSender().equals("AI Bot") ? "assistant" : "user";
-                
-                OpenRouterService.Message historyMessage = new OpenRouterService.Message(role, msg.getContent());
-                messages.add(historyMessage);
-            }
-            
-            // Thêm tin nhắn hiện tại
-            messages.add(new OpenRouterService.Message("user", userMessage));
+            List<OpenRouterService.Message> messages = contextManager.buildMessages(roomId,
+                createBusifySystemPrompt(), userMessage);
 
             log.info("Sending request with history to OpenRouter for user: {}", userEmail);
             
@@ -155,4 +141,19 @@ public class OpenAIService {
             return null; // Fallback to simple response
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Gửi tin nhắn tới OpenRouter ở chế độ stream, trả về từng đoạn phản hồi ngay khi nhận được
+     */
+    public Flux<String> streamChatGPTResponseWithHistory(String userMessage, String roomId, String userEmail) {
+        log.info("Streaming AI chat message with history from user: {}", userEmail);
+
+        return openRouterService.streamChatCompletion(
+            openAIConfig.getKey(),
+            openAIConfig.getModel(),
+            contextManager.buildMessages(roomId, createBusifySystemPrompt(), userMessage),
+            openAIConfig.getMaxTokens(),
+            openAIConfig.getTemperature()
+        );
+    }
+}
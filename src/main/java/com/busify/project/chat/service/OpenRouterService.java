@@ -1,25 +1,45 @@
 package com.busify.project.chat.service;
 
+import com.busify.project.chat.config.OpenAIConfig;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.Data;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
 
 import java.time.Duration;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class OpenRouterService {
 
-    private static final String OPENROUTER_BASE_URL = "https://openrouter.ai/api/v1";
+    private static final String STREAM_DONE = "[DONE]";
+    private static final ParameterizedTypeReference<ServerSentEvent<String>> SSE_TYPE =
+            new ParameterizedTypeReference<>() {
+            };
+
     private final ObjectMapper objectMapper = new ObjectMapper();
+    private final WebClient webClient;
+    private final OpenAIConfig openAIConfig;
+    private final Semaphore inFlight;
+
+    public OpenRouterService(@Qualifier("openRouterWebClient") WebClient webClient, OpenAIConfig openAIConfig) {
+        this.webClient = webClient;
+        this.openAIConfig = openAIConfig;
+        this.inFlight = new Semaphore(Math.max(1, openAIConfig.getMaxConcurrentRequests()));
+    }
 
     @Data
     public static class OpenRouterRequest {
@@ -75,32 +95,24 @@ public class OpenRouterService {
         private Integer totalTokens;
     }
 
-    public String getChatCompletion(String apiKey, String model, List<Message> messages, 
+    public String getChatCompletion(String apiKey, String model, List<Message> messages,
                                    Integer maxTokens, Double temperature) {
+        if (!tryAcquire(openAIConfig.getPendingAcquireTimeoutMs())) {
+            return null;
+        }
         try {
-            WebClient webClient = WebClient.builder()
-                .baseUrl(OPENROUTER_BASE_URL)
-                .defaultHeader("Authorization", "Bearer " + apiKey)
-                .defaultHeader("Content-Type", "application/json")
-                .defaultHeader("HTTP-Referer", "http://localhost:8080") // OpenRouter yêu cầu
-                .defaultHeader("X-Title", "Busify Chatbot") // OpenRouter yêu cầu
-                .build();
-
-            OpenRouterRequest request = new OpenRouterRequest();
-            request.setModel(model);
-            request.setMessages(messages);
-            request.setMaxTokens(maxTokens);
-            request.setTemperature(temperature);
+            OpenRouterRequest request = buildRequest(model, messages, maxTokens, temperature, false);
 
             log.info("Sending request to OpenRouter API with model: {}", model);
             log.debug("Request messages count: {}", messages.size());
 
             OpenRouterResponse response = webClient.post()
                 .uri("/chat/completions")
+                .headers(headers -> headers.setBearerAuth(apiKey))
                 .bodyValue(request)
                 .retrieve()
                 .bodyToMono(OpenRouterResponse.class)
-                .timeout(Duration.ofSeconds(30))
+                .timeout(Duration.ofSeconds(openAIConfig.getTimeout()))
                 .block();
 
             if (response != null && response.getChoices() != null && !response.getChoices().isEmpty()) {
@@ -122,26 +134,104 @@ public class OpenRouterService {
             }
 
         } catch (WebClientResponseException e) {
-            log.error("OpenRouter API error - Status: {}, Response: {}", e.getStatusCode(), e.getResponseBodyAsString());
-            
-            // Parse error response để hiển thị thông tin hữu ích
-            try {
-                Map<String, Object> errorResponse = objectMapper.readValue(e.getResponseBodyAsString(), Map.class);
-                Object error = errorResponse.get("error");
-                if (error instanceof Map) {
-                    Map<String, Object> errorMap = (Map<String, Object>) error;
-                    String message = (String) errorMap.get("message");
-                    String code = (String) errorMap.get("code");
-                    log.error("OpenRouter error - Code: {}, Message: {}", code, message);
-                }
-            } catch (Exception parseError) {
-                log.error("Failed to parse error response");
-            }
-            
+            logErrorResponse(e);
             return null;
         } catch (Exception e) {
             log.error("Error calling OpenRouter API", e);
             return null;
+        } finally {
+            inFlight.release();
+        }
+    }
+
+    /**
+     * Gọi OpenRouter ở chế độ stream (SSE) và trả về từng đoạn nội dung ngay khi nhận được.
+     * <p>
+     * Flux hoàn tất khi nhận được sự kiện {@code [DONE]}. Nếu đã đạt giới hạn số request
+     * đồng thời, Flux sẽ lỗi ngay với {@link IllegalStateException} để phía gọi dùng fallback.
+     * </p>
+     */
+    public Flux<String> streamChatCompletion(String apiKey, String model, List<Message> messages,
+                                             Integer maxTokens, Double temperature) {
+        return Flux.defer(() -> {
+            // Flux được subscribe trên thread nhận tin nhắn STOMP nên không được chờ slot
+            if (!tryAcquire(0)) {
+                return Flux.error(new IllegalStateException("Too many concurrent AI requests"));
+            }
+
+            OpenRouterRequest request = buildRequest(model, messages, maxTokens, temperature, true);
+            log.info("Streaming request to OpenRouter API with model: {}", model);
+
+            return webClient.post()
+                .uri("/chat/completions")
+                .headers(headers -> headers.setBearerAuth(apiKey))
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .bodyValue(request)
+                .retrieve()
+                .bodyToFlux(SSE_TYPE)
+                .map(event -> event.data() == null ? "" : event.data().trim())
+                .takeWhile(data -> !STREAM_DONE.equals(data))
+                .mapNotNull(this::extractDelta)
+                .filter(delta -> !delta.isEmpty())
+                .timeout(Duration.ofSeconds(openAIConfig.getTimeout()))
+                .doOnError(WebClientResponseException.class, this::logErrorResponse)
+                .doFinally(signal -> inFlight.release());
+        });
+    }
+
+    private OpenRouterRequest buildRequest(String model, List<Message> messages, Integer maxTokens,
+                                           Double temperature, boolean stream) {
+        OpenRouterRequest request = new OpenRouterRequest();
+        request.setModel(model);
+        request.setMessages(messages);
+        request.setMaxTokens(maxTokens);
+        request.setTemperature(temperature);
+        request.setStream(stream);
+        return request;
+    }
+
+    private String extractDelta(String data) {
+        if (data.isEmpty()) {
+            return null;
+        }
+        try {
+            JsonNode content = objectMapper.readTree(data).path("choices").path(0).path("delta").path("content");
+            return content.isTextual() ? content.asText() : null;
+        } catch (Exception e) {
+            log.debug("Skipping malformed stream chunk: {}", data);
+            return null;
+        }
+    }
+
+    private boolean tryAcquire(long waitMs) {
+        try {
+            if (waitMs <= 0 ? inFlight.tryAcquire() : inFlight.tryAcquire(waitMs, TimeUnit.MILLISECONDS)) {
+                return true;
+            }
+            log.warn("OpenRouter concurrency limit ({}) reached, rejecting request",
+                openAIConfig.getMaxConcurrentRequests());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return false;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void logErrorResponse(WebClientResponseException e) {
+        log.error("OpenRouter API error - Status: {}, Response: {}", e.getStatusCode(), e.getResponseBodyAsString());
+
+        // Parse error response để hiển thị thông tin hữu ích
+        try {
+            Map<String, Object> errorResponse = objectMapper.readValue(e.getResponseBodyAsString(), Map.class);
+            Object error = errorResponse.get("error");
+            if (error instanceof Map) {
+                Map<String, Object> errorMap = (Map<String, Object>) error;
+                Object message = errorMap.get("message");
+                Object code = errorMap.get("code");
+                log.error("OpenRouter error - Code: {}, Message: {}", code, message);
+            }
+        } catch (Exception parseError) {
+            log.error("Failed to parse error response");
         }
     }
-}
\ No newline at end of file
+}
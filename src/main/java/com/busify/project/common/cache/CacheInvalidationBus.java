@@ -0,0 +1,80 @@
+package com.busify.project.common.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Phát và nhận tín hiệu xoá L1 giữa các node qua Redis pub/sub.
+ * Mỗi node có một id riêng để bỏ qua tin nhắn do chính nó gửi.
+ */
+@Slf4j
+public class CacheInvalidationBus implements MessageListener {
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final String channel;
+    private volatile Function<String, TwoTierCache> cacheLookup = name -> null;
+
+    public CacheInvalidationBus(StringRedisTemplate redisTemplate, ObjectMapper objectMapper, String channel) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.channel = channel;
+    }
+
+    void bind(Function<String, TwoTierCache> cacheLookup) {
+        this.cacheLookup = cacheLookup;
+    }
+
+    public String getChannel() {
+        return channel;
+    }
+
+    void publishEvict(String cacheName, String key) {
+        publish(new CacheInvalidationMessage(nodeId, cacheName, key));
+    }
+
+    void publishClear(String cacheName) {
+        publish(new CacheInvalidationMessage(nodeId, cacheName, null));
+    }
+
+    private void publish(CacheInvalidationMessage message) {
+        try {
+            redisTemplate.convertAndSend(channel, objectMapper.writeValueAsString(message));
+        } catch (Exception e) {
+            // Không làm hỏng thao tác ghi; L1 của node khác sẽ tự hết hạn theo l1-ttl
+            log.warn("Không gửi được tín hiệu invalidate cache {}: {}", message.getCacheName(), e.getMessage());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        CacheInvalidationMessage payload;
+        try {
+            payload = objectMapper.readValue(new String(message.getBody(), StandardCharsets.UTF_8),
+                    CacheInvalidationMessage.class);
+        } catch (Exception e) {
+            log.warn("Bỏ qua tín hiệu invalidate cache không hợp lệ: {}", e.getMessage());
+            return;
+        }
+        if (nodeId.equals(payload.getOrigin())) {
+            return;
+        }
+        TwoTierCache cache = cacheLookup.apply(payload.getCacheName());
+        if (cache == null) {
+            return;
+        }
+        if (payload.getKey() == null) {
+            cache.clearLocal();
+        } else {
+            cache.evictLocal(payload.getKey());
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.busify.project.common.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Thông báo xoá L1 gửi qua Redis pub/sub. {@code key == null} nghĩa là xoá toàn bộ cache.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheInvalidationMessage {
+    private String origin;
+    private String cacheName;
+    private String key;
+}
@@ -0,0 +1,20 @@
+package com.busify.project.common.cache;
+
+/**
+ * Tên các cache dùng chung, khớp với khoá cấu hình {@code busify.cache.caches.<tên>}.
+ */
+public final class CacheNames {
+
+    public static final String ALL_USERS = "allUsers";
+    public static final String USER_BY_ID = "userById";
+    public static final String USER_PROFILE = "userProfile";
+    public static final String LOCATIONS = "locations";
+    public static final String ROUTES = "routes";
+    public static final String SEAT_LAYOUTS = "seatLayouts";
+    public static final String OPERATORS = "operators";
+    public static final String PROMOTIONS = "promotions";
+    public static final String PAYMENT_CALLBACKS = "paymentCallbacks";
+
+    private CacheNames() {
+    }
+}
@@ -0,0 +1,23 @@
+package com.busify.project.common.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheStatsDTO {
+    private String name;
+    private long l1Size;
+    private long l1Hits;
+    private long l2Hits;
+    private long misses;
+    private double hitRate;
+    private long loads;
+    private long loadFailures;
+    private double averageLoadMillis;
+    private long l1Evictions;
+}
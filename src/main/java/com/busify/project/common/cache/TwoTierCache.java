@@ -0,0 +1,195 @@
+package com.busify.project.common.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Cache 2 tầng: L1 Caffeine trong process, L2 Redis dùng chung giữa các node.
+ * <p>
+ * Đọc: L1 -> L2 -> loader. Ghi/xoá: ghi xuống L2 trước rồi cập nhật L1, sau đó phát tín hiệu
+ * để các node khác bỏ bản L1 của key đó (lần đọc sau sẽ lấy lại từ L2).
+ * Key L1 là dạng chuỗi của key, giống cách Redis cache chuyển key, để các node hiểu cùng một key.
+ */
+@Slf4j
+public class TwoTierCache extends AbstractValueAdaptingCache {
+
+    private final String name;
+    private final com.github.benmanes.caffeine.cache.Cache<String, Object> l1;
+    private final Cache l2;
+    private final CacheInvalidationBus invalidationBus;
+    private final TwoTierCacheMetrics metrics = new TwoTierCacheMetrics();
+
+    /**
+     * @param l1 cache Caffeine, null nếu cache này tắt L1
+     */
+    public TwoTierCache(String name,
+                        com.github.benmanes.caffeine.cache.Cache<String, Object> l1,
+                        Cache l2,
+                        CacheInvalidationBus invalidationBus,
+                        boolean allowNullValues) {
+        super(allowNullValues);
+        this.name = name;
+        this.l1 = l1;
+        this.l2 = l2;
+        this.invalidationBus = invalidationBus;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return this;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        String localKey = localKey(key);
+        if (l1 != null) {
+            Object local = l1.getIfPresent(localKey);
+            if (local != null) {
+                metrics.l1Hit();
+                return local;
+            }
+        }
+        ValueWrapper remote = l2.get(key);
+        if (remote == null) {
+            metrics.miss();
+            return null;
+        }
+        metrics.l2Hit();
+        Object storeValue = toStoreValue(remote.get());
+        if (l1 != null) {
+            l1.put(localKey, storeValue);
+        }
+        return storeValue;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        if (l1 == null) {
+            return (T) fromStoreValue(loadThrough(key, valueLoader));
+        }
+        String localKey = localKey(key);
+        Object local = l1.getIfPresent(localKey);
+        if (local != null) {
+            metrics.l1Hit();
+            return (T) fromStoreValue(local);
+        }
+        // Caffeine đảm bảo mỗi key chỉ có một thread chạy loader trên node này
+        return (T) fromStoreValue(l1.get(localKey, k -> loadThrough(key, valueLoader)));
+    }
+
+    private Object loadThrough(Object key, Callable<?> valueLoader) {
+        ValueWrapper remote = l2.get(key);
+        if (remote != null) {
+            metrics.l2Hit();
+            return toStoreValue(remote.get());
+        }
+        metrics.miss();
+
+        long start = System.nanoTime();
+        Object value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception e) {
+            metrics.loadFailure(System.nanoTime() - start);
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        metrics.loadSuccess(System.nanoTime() - start);
+
+        if (value == null && !isAllowNullValues()) {
+            // Không cache null: trả thẳng cho caller, Caffeine cũng không giữ mapping
+            return null;
+        }
+        l2.put(key, value);
+        return toStoreValue(value);
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        l2.put(key, value);
+        String localKey = localKey(key);
+        if (l1 != null) {
+            l1.put(localKey, toStoreValue(value));
+        }
+        invalidationBus.publishEvict(name, localKey);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = l2.putIfAbsent(key, value);
+        String localKey = localKey(key);
+        if (l1 != null) {
+            l1.put(localKey, toStoreValue(existing != null ? existing.get() : value));
+        }
+        if (existing == null) {
+            invalidationBus.publishEvict(name, localKey);
+        }
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        l2.evict(key);
+        String localKey = localKey(key);
+        evictLocal(localKey);
+        invalidationBus.publishEvict(name, localKey);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean present = l2.evictIfPresent(key);
+        String localKey = localKey(key);
+        evictLocal(localKey);
+        invalidationBus.publishEvict(name, localKey);
+        return present;
+    }
+
+    @Override
+    public void clear() {
+        l2.clear();
+        clearLocal();
+        invalidationBus.publishClear(name);
+    }
+
+    @Override
+    public boolean invalidate() {
+        boolean hadEntries = l2.invalidate();
+        clearLocal();
+        invalidationBus.publishClear(name);
+        return hadEntries;
+    }
+
+    /**
+     * Chỉ xoá L1 trên node này (nhận từ pub/sub, không phát lại).
+     */
+    void evictLocal(String localKey) {
+        if (l1 != null) {
+            l1.invalidate(localKey);
+        }
+    }
+
+    void clearLocal() {
+        if (l1 != null) {
+            l1.invalidateAll();
+        }
+    }
+
+    public CacheStatsDTO getStats() {
+        if (l1 == null) {
+            return metrics.snapshot(name, 0, 0);
+        }
+        return metrics.snapshot(name, l1.estimatedSize(), l1.stats().evictionCount());
+    }
+
+    private static String localKey(Object key) {
+        return String.valueOf(key);
+    }
+}
@@ -0,0 +1,65 @@
+package com.busify.project.common.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.cache.RedisCacheManager;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * CacheManager tạo {@link TwoTierCache} theo cấu hình {@link TwoTierCacheProperties}.
+ * Cache chưa khai báo vẫn được tạo động với cấu hình mặc định.
+ */
+public class TwoTierCacheManager implements CacheManager {
+
+    private final ConcurrentMap<String, TwoTierCache> caches = new ConcurrentHashMap<>();
+    private final RedisCacheManager redisCacheManager;
+    private final TwoTierCacheProperties properties;
+    private final CacheInvalidationBus invalidationBus;
+
+    public TwoTierCacheManager(RedisCacheManager redisCacheManager,
+                               TwoTierCacheProperties properties,
+                               CacheInvalidationBus invalidationBus) {
+        this.redisCacheManager = redisCacheManager;
+        this.properties = properties;
+        this.invalidationBus = invalidationBus;
+        invalidationBus.bind(caches::get);
+        properties.getCaches().keySet().forEach(this::getCache);
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        return caches.computeIfAbsent(name, this::createCache);
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return Collections.unmodifiableSet(caches.keySet());
+    }
+
+    public List<CacheStatsDTO> getStats() {
+        return caches.values().stream()
+                .map(TwoTierCache::getStats)
+                .sorted((a, b) -> a.getName().compareTo(b.getName()))
+                .toList();
+    }
+
+    private TwoTierCache createCache(String name) {
+        TwoTierCacheProperties.CacheSpec spec = properties.specFor(name);
+        com.github.benmanes.caffeine.cache.Cache<String, Object> l1 = null;
+        if (spec.isL1EnabledOrDefault()) {
+            l1 = Caffeine.newBuilder()
+                    .maximumSize(spec.getL1MaxSizeOrDefault())
+                    .expireAfterWrite(spec.getL1TtlOrDefault())
+                    .recordStats()
+                    .build();
+        }
+        Cache l2 = redisCacheManager.getCache(name);
+        return new TwoTierCache(name, l1, l2, invalidationBus, spec.isCacheNullValuesOrDefault());
+    }
+}
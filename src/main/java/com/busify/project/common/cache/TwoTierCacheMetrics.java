@@ -0,0 +1,62 @@
+package com.busify.project.common.cache;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bộ đếm hit/miss/load cho một cache 2 tầng. Dùng LongAdder vì được cập nhật trên mọi request.
+ */
+class TwoTierCacheMetrics {
+
+    private final LongAdder l1Hits = new LongAdder();
+    private final LongAdder l2Hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder loadFailures = new LongAdder();
+    private final LongAdder totalLoadNanos = new LongAdder();
+
+    void l1Hit() {
+        l1Hits.increment();
+    }
+
+    void l2Hit() {
+        l2Hits.increment();
+    }
+
+    void miss() {
+        misses.increment();
+    }
+
+    void loadSuccess(long nanos) {
+        loads.increment();
+        totalLoadNanos.add(nanos);
+    }
+
+    void loadFailure(long nanos) {
+        loadFailures.increment();
+        totalLoadNanos.add(nanos);
+    }
+
+    CacheStatsDTO snapshot(String name, long l1Size, long l1Evictions) {
+        long l1 = l1Hits.sum();
+        long l2 = l2Hits.sum();
+        long miss = misses.sum();
+        long requests = l1 + l2 + miss;
+        long loadCount = loads.sum();
+        long failures = loadFailures.sum();
+        long attempts = loadCount + failures;
+        return CacheStatsDTO.builder()
+                .name(name)
+                .l1Size(l1Size)
+                .l1Hits(l1)
+                .l2Hits(l2)
+                .misses(miss)
+                .hitRate(requests == 0 ? 0.0 : (double) (l1 + l2) / requests)
+                .loads(loadCount)
+                .loadFailures(failures)
+                .averageLoadMillis(attempts == 0 ? 0.0
+                        : (double) TimeUnit.NANOSECONDS.toMicros(totalLoadNanos.sum()) / attempts / 1000.0)
+                .l1Evictions(l1Evictions)
+                .build();
+    }
+}
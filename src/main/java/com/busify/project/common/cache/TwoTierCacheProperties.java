@@ -0,0 +1,87 @@
+package com.busify.project.common.cache;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cấu hình cache 2 tầng: L1 (Caffeine, trong process) phía trước L2 (Redis).
+ * Mỗi cache có thể override TTL, kích thước và serializer qua {@code busify.cache.caches.<tên>.*}.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "busify.cache")
+@Data
+public class TwoTierCacheProperties {
+
+    // Prefix cho key trên Redis để tách khỏi dữ liệu khác (session, seat lock...)
+    private String keyPrefix = "busify:cache:";
+
+    // Kênh pub/sub dùng để báo các node khác xoá L1
+    private String invalidationChannel = "busify:cache:invalidation";
+
+    // Cấu hình mặc định cho cache không khai báo riêng
+    private CacheSpec defaults = new CacheSpec();
+
+    private Map<String, CacheSpec> caches = new LinkedHashMap<>();
+
+    public CacheSpec specFor(String cacheName) {
+        CacheSpec spec = caches.get(cacheName);
+        return (spec == null ? new CacheSpec() : spec).withDefaults(defaults);
+    }
+
+    @Data
+    public static class CacheSpec {
+        private Boolean l1Enabled;
+        private Long l1MaxSize;
+        private Duration l1Ttl;
+        private Duration l2Ttl;
+        private Serializer serializer;
+        private Boolean cacheNullValues;
+
+        CacheSpec withDefaults(CacheSpec defaults) {
+            CacheSpec merged = new CacheSpec();
+            merged.l1Enabled = l1Enabled != null ? l1Enabled : defaults.isL1EnabledOrDefault();
+            merged.l1MaxSize = l1MaxSize != null ? l1MaxSize : defaults.getL1MaxSizeOrDefault();
+            merged.l1Ttl = l1Ttl != null ? l1Ttl : defaults.getL1TtlOrDefault();
+            merged.l2Ttl = l2Ttl != null ? l2Ttl : defaults.getL2TtlOrDefault();
+            merged.serializer = serializer != null ? serializer : defaults.getSerializerOrDefault();
+            merged.cacheNullValues = cacheNullValues != null ? cacheNullValues : defaults.isCacheNullValuesOrDefault();
+            return merged;
+        }
+
+        public boolean isL1EnabledOrDefault() {
+            return l1Enabled == null || l1Enabled;
+        }
+
+        public long getL1MaxSizeOrDefault() {
+            return l1MaxSize != null ? l1MaxSize : 10_000L;
+        }
+
+        public Duration getL1TtlOrDefault() {
+            return l1Ttl != null ? l1Ttl : Duration.ofMinutes(5);
+        }
+
+        public Duration getL2TtlOrDefault() {
+            return l2Ttl != null ? l2Ttl : Duration.ofMinutes(30);
+        }
+
+        public Serializer getSerializerOrDefault() {
+            return serializer != null ? serializer : Serializer.JSON;
+        }
+
+        public boolean isCacheNullValuesOrDefault() {
+            return cacheNullValues != null && cacheNullValues;
+        }
+    }
+
+    public enum Serializer {
+        // Jackson kèm thông tin kiểu, đọc được từ redis-cli
+        JSON,
+        // Java serialization, nhanh hơn cho object graph lớn nhưng yêu cầu Serializable
+        JDK
+    }
+}
@@ -1,7 +1,9 @@
 package com.busify.project.common.config;
 
 import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableAsync;
@@ -32,4 +34,41 @@ public class AsyncConfig {
         return executor;
     }
 
-}
\ No newline at end of file
+    @Bean(name = "mediaUploadExecutor")
+    public Executor mediaUploadExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(4);
+        executor.setMaxPoolSize(8);
+        executor.setQueueCapacity(200);
+        executor.setThreadNamePrefix("MediaUpload-");
+        // Khi hàng đợi đầy, thread gọi tự upload để tạo back-pressure thay vì từ chối request
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    @Bean(name = "refundExecutor")
+    public Executor refundExecutor(@Value("${busify.refund.worker.threads:4}") int threads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        // RefundJobWorker tự giới hạn số job đang chạy bằng semaphore đúng bằng số thread
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(100);
+        executor.setThreadNamePrefix("RefundWorker-");
+        executor.initialize();
+        return executor;
+    }
+
+    @Bean(name = "outboxExecutor")
+    public Executor outboxExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        // Một thread gửi tuần tự; các lần đánh thức dồn lại thành một lượt chờ
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(1);
+        executor.setThreadNamePrefix("OutboxRelay-");
+        executor.initialize();
+        return executor;
+    }
+
+}
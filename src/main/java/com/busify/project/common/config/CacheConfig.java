@@ -0,0 +1,105 @@
+package com.busify.project.common.config;
+
+import com.busify.project.common.cache.CacheInvalidationBus;
+import com.busify.project.common.cache.TwoTierCacheManager;
+import com.busify.project.common.cache.TwoTierCacheProperties;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.jsontype.BasicPolymorphicTypeValidator;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Cache 2 tầng cho {@code @Cacheable}: Caffeine (L1) trước Redis (L2), TTL/serializer theo từng cache
+ * và đồng bộ xoá L1 giữa các node qua Redis pub/sub. Thay thế RedisCacheManager mặc định của Spring Boot.
+ */
+@Configuration
+public class CacheConfig {
+
+    @Bean
+    public CacheInvalidationBus cacheInvalidationBus(StringRedisTemplate stringRedisTemplate,
+                                                     ObjectMapper objectMapper,
+                                                     TwoTierCacheProperties properties) {
+        return new CacheInvalidationBus(stringRedisTemplate, objectMapper, properties.getInvalidationChannel());
+    }
+
+    @Bean
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                            CacheInvalidationBus invalidationBus) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(invalidationBus, new ChannelTopic(invalidationBus.getChannel()));
+        return container;
+    }
+
+    @Bean
+    @Primary
+    public CacheManager cacheManager(RedisConnectionFactory connectionFactory,
+                                     TwoTierCacheProperties properties,
+                                     CacheInvalidationBus invalidationBus) {
+        RedisSerializer<Object> jsonSerializer = cacheJsonSerializer();
+        RedisSerializer<Object> jdkSerializer = new JdkSerializationRedisSerializer(getClass().getClassLoader());
+
+        Map<String, RedisCacheConfiguration> perCache = new HashMap<>();
+        properties.getCaches().keySet().forEach(name -> perCache.put(name,
+                redisConfiguration(properties, properties.specFor(name), jsonSerializer, jdkSerializer)));
+
+        RedisCacheManager redisCacheManager = RedisCacheManager
+                .builder(RedisCacheWriter.nonLockingRedisCacheWriter(connectionFactory))
+                .cacheDefaults(redisConfiguration(properties, properties.specFor(""), jsonSerializer, jdkSerializer))
+                .withInitialCacheConfigurations(perCache)
+                .build();
+        redisCacheManager.afterPropertiesSet();
+
+        return new TwoTierCacheManager(redisCacheManager, properties, invalidationBus);
+    }
+
+    private static RedisCacheConfiguration redisConfiguration(TwoTierCacheProperties properties,
+                                                              TwoTierCacheProperties.CacheSpec spec,
+                                                              RedisSerializer<Object> jsonSerializer,
+                                                              RedisSerializer<Object> jdkSerializer) {
+        RedisSerializer<Object> valueSerializer =
+                spec.getSerializerOrDefault() == TwoTierCacheProperties.Serializer.JDK ? jdkSerializer : jsonSerializer;
+        RedisCacheConfiguration configuration = RedisCacheConfiguration.defaultCacheConfig()
+                .prefixCacheNameWith(properties.getKeyPrefix())
+                .entryTtl(spec.getL2TtlOrDefault())
+                .serializeKeysWith(RedisSerializationContext.SerializationPair.fromSerializer(new StringRedisSerializer()))
+                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(valueSerializer));
+        return spec.isCacheNullValuesOrDefault() ? configuration : configuration.disableCachingNullValues();
+    }
+
+    private static RedisSerializer<Object> cacheJsonSerializer() {
+        // Mapper riêng cho cache: cần type info để đọc lại đúng DTO và hỗ trợ java.time
+        ObjectMapper mapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        mapper.activateDefaultTyping(
+                BasicPolymorphicTypeValidator.builder().allowIfSubType("com.busify.project.")
+                        .allowIfSubType("java.util.").allowIfSubType("java.time.")
+                        .allowIfSubType("java.math.")
+                        .allowIfSubType("org.springframework.cache.support.NullValue").build(),
+                ObjectMapper.DefaultTyping.NON_FINAL,
+                JsonTypeInfo.As.PROPERTY);
+        GenericJackson2JsonRedisSerializer.registerNullValueSerializer(mapper, null);
+        return new GenericJackson2JsonRedisSerializer(mapper);
+    }
+}
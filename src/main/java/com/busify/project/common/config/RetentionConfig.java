@@ -0,0 +1,106 @@
+package com.busify.project.common.config;
+
+import com.busify.project.common.retention.ReportFileRetentionPolicy;
+import com.busify.project.common.retention.RetentionPolicy;
+import com.busify.project.common.retention.RetentionProperties;
+import com.busify.project.common.retention.SqlRetentionPolicy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.file.Paths;
+import java.time.Duration;
+
+/**
+ * Khai báo thời hạn lưu của từng tập dữ liệu cho {@link com.busify.project.common.retention.RetentionService}.
+ * Thời hạn mặc định ở đây, có thể override qua {@code busify.retention.policies.<tên>.retention}.
+ */
+@Configuration
+public class RetentionConfig {
+
+    @Bean
+    @Order(1)
+    public RetentionPolicy notificationRetentionPolicy(JdbcTemplate jdbcTemplate, RetentionProperties properties,
+            @Value("${busify.notification.retention-days:90}") long retentionDays) {
+        return SqlRetentionPolicy.delete("notifications",
+                properties.retentionFor("notifications", Duration.ofDays(retentionDays)),
+                jdbcTemplate, "notifications", "created_at < ?");
+    }
+
+    @Bean
+    @Order(2)
+    public RetentionPolicy reportFileRetentionPolicy(RetentionProperties properties,
+            @Value("${busify.reports.storage.path}") String storagePath,
+            @Value("${busify.reports.cleanup-days:90}") long cleanupDays) {
+        // Cùng thư mục mà FileStorageService.savePdfReport ghi vào
+        return new ReportFileRetentionPolicy("report-files",
+                properties.retentionFor("report-files", Duration.ofDays(cleanupDays)),
+                Paths.get(storagePath, "reports"));
+    }
+
+    @Bean
+    @Order(3)
+    public RetentionPolicy sessionRetentionPolicy(JdbcTemplate jdbcTemplate, RetentionProperties properties,
+            @Value("${spring.session.jdbc.table-name:SPRING_SESSION}") String sessionTable) {
+        // SPRING_SESSION_ATTRIBUTES bị xoá theo ON DELETE CASCADE
+        return SqlRetentionPolicy.deleteByEpochMillis("sessions",
+                properties.retentionFor("sessions", Duration.ZERO),
+                jdbcTemplate, sessionTable, "EXPIRY_TIME < ?");
+    }
+
+    @Bean
+    @Order(4)
+    public RetentionPolicy verificationTokenRetentionPolicy(JdbcTemplate jdbcTemplate, RetentionProperties properties) {
+        return SqlRetentionPolicy.delete("verification-tokens",
+                properties.retentionFor("verification-tokens", Duration.ZERO),
+                jdbcTemplate, "verification_tokens", "expiry_date < ?");
+    }
+
+    @Bean
+    @Order(5)
+    public RetentionPolicy tripSeatLockRetentionPolicy(JdbcTemplate jdbcTemplate, RetentionProperties properties) {
+        // Giữ chỗ hết hạn sau 15 phút và được SeatReleaseService nhả; đây chỉ dọn khoá bị bỏ sót
+        return SqlRetentionPolicy.update("trip-seat-locks",
+                properties.retentionFor("trip-seat-locks", Duration.ofHours(1)),
+                jdbcTemplate, "trip_seats",
+                "locked_segments = 0, locked_at = NULL, locking_user_id = NULL, "
+                        + "status = CASE WHEN booked_segments <> 0 THEN 'booked' ELSE 'available' END",
+                "locked_segments <> 0 AND locked_at < ?");
+    }
+
+    @Bean
+    @Order(6)
+    public RetentionPolicy auditLogRetentionPolicy(JdbcTemplate jdbcTemplate, RetentionProperties properties) {
+        return SqlRetentionPolicy.delete("audit-logs",
+                properties.retentionFor("audit-logs", Duration.ofDays(365)),
+                jdbcTemplate, "audit_logs", "timestamp < ?");
+    }
+
+    @Bean
+    @Order(7)
+    public RetentionPolicy outboxRetentionPolicy(JdbcTemplate jdbcTemplate, RetentionProperties properties) {
+        // Chỉ sự kiện đã gửi; DEAD được giữ lại để điều tra
+        return SqlRetentionPolicy.delete("outbox-events",
+                properties.retentionFor("outbox-events", Duration.ofDays(7)),
+                jdbcTemplate, "outbox_events", "status = 'DISPATCHED' AND dispatched_at < ?");
+    }
+
+    @Bean
+    @Order(8)
+    public RetentionPolicy paymentCallbackRetentionPolicy(JdbcTemplate jdbcTemplate, RetentionProperties properties) {
+        // Phải dài hơn thời gian gateway còn gọi lại callback, nếu không callback trễ sẽ được xử lý lại
+        return SqlRetentionPolicy.delete("payment-callbacks",
+                properties.retentionFor("payment-callbacks", Duration.ofDays(30)),
+                jdbcTemplate, "payment_callbacks", "status IS NOT NULL AND completed_at < ?");
+    }
+
+    @Bean
+    @Order(9)
+    public RetentionPolicy jobRunRetentionPolicy(JdbcTemplate jdbcTemplate, RetentionProperties properties) {
+        return SqlRetentionPolicy.delete("job-runs",
+                properties.retentionFor("job-runs", Duration.ofDays(30)),
+                jdbcTemplate, "job_runs", "started_at < ?");
+    }
+}
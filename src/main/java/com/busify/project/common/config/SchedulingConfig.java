@@ -1,5 +1,6 @@
 package com.busify.project.common.config;
 
+import com.busify.project.common.job.JobCoordinator;
 import com.busify.project.complaint.service.ComplaintAssignmentService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Configuration;
@@ -15,12 +16,18 @@ public class SchedulingConfig {
     @Autowired
     private ComplaintAssignmentService assignmentService;
 
+    @Autowired
+    private JobCoordinator jobCoordinator;
+
     @Scheduled(fixedRate = 600000) // 600.000 ms = 10 phút
     public void scheduleComplaintAssignment() {
         try {
 //            System.out.println("=== Bắt đầu kiểm tra khiếu nại mới ===");
-            Optional<com.busify.project.complaint.entity.Complaint> result =
-                    assignmentService.assignComplaintToAvailableAgent();
+            // Chỉ một instance gán mỗi lượt, tránh hai instance gán cùng khiếu nại
+            jobCoordinator.runExclusive("complaint-assignment", () -> {
+                Optional<com.busify.project.complaint.entity.Complaint> result =
+                        assignmentService.assignComplaintToAvailableAgent();
+            });
 
 //            if (result.isPresent()) {
 //                System.out.println("✓ Đã gán khiếu nại thành công");
@@ -0,0 +1,50 @@
+package com.busify.project.common.controller;
+
+import com.busify.project.common.cache.CacheStatsDTO;
+import com.busify.project.common.cache.TwoTierCacheManager;
+import com.busify.project.common.dto.response.ApiResponse;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin/caches")
+@RequiredArgsConstructor
+@Tag(name = "Cache", description = "Cache statistics & maintenance API")
+public class CacheController {
+
+    private final CacheManager cacheManager;
+
+    @GetMapping("/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Get L1/L2 hit, miss and load-time statistics per cache (Admin only)")
+    public ApiResponse<List<CacheStatsDTO>> getStats() {
+        List<CacheStatsDTO> stats = cacheManager instanceof TwoTierCacheManager twoTier
+                ? twoTier.getStats()
+                : List.of();
+        return ApiResponse.success("Cache statistics fetched successfully", stats);
+    }
+
+    @DeleteMapping("/{name}")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Clear a cache on every node (Admin only)")
+    public ApiResponse<Void> clear(@PathVariable String name) {
+        Cache cache = cacheManager.getCacheNames().contains(name) ? cacheManager.getCache(name) : null;
+        if (cache == null) {
+            return ApiResponse.error(HttpStatus.NOT_FOUND.value(), "Cache not found: " + name);
+        }
+        cache.clear();
+        return ApiResponse.success("Cache cleared successfully", null);
+    }
+}
@@ -0,0 +1,50 @@
+package com.busify.project.common.controller;
+
+import com.busify.project.common.dto.response.ApiResponse;
+import com.busify.project.common.job.JobLease;
+import com.busify.project.common.job.JobLeaseRepository;
+import com.busify.project.common.job.JobRun;
+import com.busify.project.common.job.JobRunRepository;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin/jobs")
+@RequiredArgsConstructor
+@Tag(name = "Jobs", description = "Scheduled job leases & run history API")
+public class JobController {
+
+    private static final int MAX_RUNS = 500;
+
+    private final JobLeaseRepository jobLeaseRepository;
+    private final JobRunRepository jobRunRepository;
+
+    @GetMapping("/leases")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Get the current lease holder of every scheduled job (Admin only)")
+    public ApiResponse<List<JobLease>> getLeases() {
+        return ApiResponse.success("Job leases fetched successfully", jobLeaseRepository.findAll());
+    }
+
+    @GetMapping("/runs")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Get recent job runs with owner and duration, newest first (Admin only)")
+    public ApiResponse<List<JobRun>> getRuns(
+            @RequestParam(required = false) String job,
+            @RequestParam(defaultValue = "50") int limit) {
+        PageRequest page = PageRequest.of(0, Math.max(1, Math.min(limit, MAX_RUNS)));
+        List<JobRun> runs = job != null
+                ? jobRunRepository.findByJobNameOrderByStartedAtDesc(job, page)
+                : jobRunRepository.findAllByOrderByStartedAtDesc(page);
+        return ApiResponse.success("Job runs fetched successfully", runs);
+    }
+}
@@ -0,0 +1,44 @@
+package com.busify.project.common.controller;
+
+import com.busify.project.common.dto.response.ApiResponse;
+import com.busify.project.common.retention.RetentionService;
+import com.busify.project.common.retention.RetentionStatsDTO;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin/retention")
+@RequiredArgsConstructor
+@Tag(name = "Retention", description = "Data retention statistics & maintenance API")
+public class RetentionController {
+
+    private final RetentionService retentionService;
+
+    @GetMapping("/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Get rows purged and time spent per retention policy (Admin only)")
+    public ApiResponse<List<RetentionStatsDTO>> getStats() {
+        return ApiResponse.success("Retention statistics fetched successfully", retentionService.getStats());
+    }
+
+    @PostMapping("/run")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Run retention policies now; dry-run by default (Admin only)")
+    public ApiResponse<List<RetentionStatsDTO>> run(@RequestParam(defaultValue = "true") boolean dryRun) {
+        return retentionService.run(dryRun)
+                .map(results -> ApiResponse.success(
+                        dryRun ? "Retention dry-run completed" : "Retention run completed", results))
+                .orElseGet(() -> ApiResponse.error(HttpStatus.CONFLICT.value(),
+                        "A retention run is already in progress"));
+    }
+}
@@ -0,0 +1,16 @@
+package com.busify.project.common.dto.media;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Kết quả upload một file lên media provider: URL public và publicId để xoá sau này.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UploadedMedia {
+    private String url;
+    private String publicId;
+}
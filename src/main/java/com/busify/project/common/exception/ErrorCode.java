@@ -43,6 +43,23 @@ public enum ErrorCode {
      */
     EXTERNAL_SERVICE_ERROR(9003, "External service communication failed", HttpStatus.SERVICE_UNAVAILABLE),
 
+    /**
+     * Pagination cursor could not be decoded
+     * <p>
+     * Used when a client sends a cursor that was modified or not issued by the server.
+     * </p>
+     */
+    INVALID_CURSOR(9004, "Invalid pagination cursor", HttpStatus.BAD_REQUEST),
+
+    /**
+     * Unpaged list request exceeds the configured size
+     * <p>
+     * Used when an endpoint that returns a whole list would exceed the configured row limit;
+     * the client should switch to cursor pagination.
+     * </p>
+     */
+    RESULT_SET_TOO_LARGE(9005, "Result set too large - use cursor pagination", HttpStatus.BAD_REQUEST),
+
     // ================= AUTHENTICATION & AUTHORIZATION (1000 - 1099)
     // ========================
 
@@ -345,6 +362,11 @@ public enum ErrorCode {
      */
     TRIP_CANNOT_ARRIVE_EARLY(1417, "Cannot set trip status to ARRIVED before estimated arrival time", HttpStatus.BAD_REQUEST),
 
+    /**
+     * Caller is neither the trip's driver nor its operator
+     */
+    TRIP_ACCESS_DENIED(1418, "You are not assigned to this trip", HttpStatus.FORBIDDEN),
+
     // ================= SEAT MANAGEMENT (1500 - 1599) ===================
 
     /**
@@ -362,6 +384,11 @@ public enum ErrorCode {
      */
     INVALID_SEAT_SELECTION(1503, "Invalid seat selection", HttpStatus.BAD_REQUEST),
 
+    /**
+     * Pickup/drop-off locations are not on the trip's route in travel order
+     */
+    INVALID_SEAT_SEGMENT(1510, "Invalid pickup or drop-off location for this trip", HttpStatus.BAD_REQUEST),
+
     // ================= PAYMENT MANAGEMENT (1600 - 1699) ===================
 
     /**
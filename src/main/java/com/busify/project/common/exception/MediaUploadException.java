@@ -0,0 +1,12 @@
+package com.busify.project.common.exception;
+
+public class MediaUploadException extends RuntimeException {
+
+    public MediaUploadException(String message) {
+        super(message);
+    }
+
+    public MediaUploadException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
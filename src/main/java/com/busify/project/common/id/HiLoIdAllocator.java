@@ -0,0 +1,50 @@
+package com.busify.project.common.id;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Cấp số tăng dần theo từng dãy, mỗi lần chạm DB lấy cả một khối (hi/lo).
+ * <p>
+ * Số trong một khối chỉ được cấp ở một tiến trình nên không bao giờ trùng giữa các instance;
+ * phần chưa dùng của khối bị bỏ khi khởi động lại, nên dãy số có khoảng trống nhưng vẫn tăng.
+ * </p>
+ */
+@Component
+public class HiLoIdAllocator {
+
+    private final IdBlockSource blockSource;
+    private final int blockSize;
+    private final Map<String, Block> blocks = new HashMap<>();
+
+    public HiLoIdAllocator(IdBlockSource blockSource, @Value("${busify.id.block-size:50}") int blockSize) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("busify.id.block-size phải lớn hơn 0");
+        }
+        this.blockSource = blockSource;
+        this.blockSize = blockSize;
+    }
+
+    public synchronized long next(String sequence) {
+        Block block = blocks.get(sequence);
+        if (block == null || block.next == block.end) {
+            long first = blockSource.reserve(sequence, blockSize);
+            block = new Block(first, first + blockSize);
+            blocks.put(sequence, block);
+        }
+        return block.next++;
+    }
+
+    private static final class Block {
+        private long next;
+        private final long end;
+
+        private Block(long next, long end) {
+            this.next = next;
+            this.end = end;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.busify.project.common.id;
+
+/**
+ * Mã ngắn cho người đọc (mã vé, mã đặt chỗ) sinh từ một số của {@link HiLoIdAllocator}.
+ * <p>
+ * Số được xáo trộn bằng một song ánh trên 35 bit (nhân với số lẻ và xorshift, đều khả nghịch)
+ * để các mã liên tiếp trông không liền nhau, rồi ghi thành 7 ký tự Crockford base32 (không có
+ * I, L, O, U) và thêm 1 ký tự kiểm tra. Hai số khác nhau luôn cho hai mã khác nhau nên không cần
+ * thử lại khi trùng. Mã không phải bí mật: đừng dùng nó thay cho chữ ký hay quyền truy cập.
+ * </p>
+ * <p>
+ * Ký tự kiểm tra là {@code Σ (i + 1) · d[i] mod 31} lấy trong cùng bảng chữ cái, thay cho
+ * mod 37 của Crockford vốn cần thêm các ký hiệu {@code * ~ $ =} khó dùng trong URL và SMS.
+ * Phát hiện mọi lỗi gõ sai một ký tự và mọi lỗi đảo hai ký tự kề nhau, trừ trường hợp nhầm 0 với Z.
+ * </p>
+ */
+public final class HumanCode {
+
+    static final String ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ";
+    static final int DATA_LENGTH = 7;
+    private static final int BITS = 5 * DATA_LENGTH;
+    private static final long MASK = (1L << BITS) - 1;
+
+    private HumanCode() {
+    }
+
+    /**
+     * @param value số trong khoảng {@code [0, 2^35)}
+     */
+    public static String encode(long value) {
+        if (value < 0 || value > MASK) {
+            throw new IllegalArgumentException("Số ngoài phạm vi mã: " + value);
+        }
+        long x = scramble(value);
+        char[] code = new char[DATA_LENGTH + 1];
+        int check = 0;
+        for (int i = 0; i < DATA_LENGTH; i++) {
+            int digit = (int) (x >>> (5 * (DATA_LENGTH - 1 - i))) & 31;
+            code[i] = ALPHABET.charAt(digit);
+            check += (i + 1) * digit;
+        }
+        code[DATA_LENGTH] = ALPHABET.charAt(check % 31);
+        return new String(code);
+    }
+
+    /**
+     * Kiểm tra độ dài, bảng chữ cái và ký tự kiểm tra (phân biệt hoa thường)
+     */
+    static boolean isWellFormed(String code) {
+        if (code == null || code.length() != DATA_LENGTH + 1) {
+            return false;
+        }
+        int check = 0;
+        for (int i = 0; i < DATA_LENGTH; i++) {
+            int digit = ALPHABET.indexOf(code.charAt(i));
+            if (digit < 0) {
+                return false;
+            }
+            check += (i + 1) * digit;
+        }
+        return code.charAt(DATA_LENGTH) == ALPHABET.charAt(check % 31);
+    }
+
+    private static long scramble(long value) {
+        long x = value ^ 0x2D3C4B5A6L;
+        x = (x * 0x2545F491L) & MASK;
+        x ^= x >>> 17;
+        x = (x * 0x1B873593L) & MASK;
+        x ^= x >>> 13;
+        return x;
+    }
+}
@@ -0,0 +1,22 @@
+package com.busify.project.common.id;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cấp mã vé/mã đặt chỗ không trùng, mỗi loại một dãy số riêng
+ */
+@Component
+@RequiredArgsConstructor
+public class HumanCodeGenerator {
+
+    private final HiLoIdAllocator allocator;
+
+    public String nextTicketCode() {
+        return HumanCode.encode(allocator.next(IdSequences.TICKET_CODES));
+    }
+
+    public String nextBookingCode() {
+        return HumanCode.encode(allocator.next(IdSequences.BOOKING_CODES));
+    }
+}
@@ -0,0 +1,14 @@
+package com.busify.project.common.id;
+
+/**
+ * Nơi cấp khối số liên tiếp cho {@link HiLoIdAllocator}
+ */
+public interface IdBlockSource {
+
+    /**
+     * Giữ {@code size} số liên tiếp của dãy {@code sequence}
+     *
+     * @return số đầu tiên của khối, khối là {@code [first, first + size)}
+     */
+    long reserve(String sequence, int size);
+}
@@ -0,0 +1,23 @@
+package com.busify.project.common.id;
+
+/**
+ * Tên dãy trong bảng {@code id_blocks}. Dãy entity phải trùng {@code pkColumnValue}
+ * của {@code @TableGenerator} tương ứng.
+ */
+public final class IdSequences {
+
+    public static final String TICKETS = "tickets";
+    public static final String BOOKINGS = "bookings";
+    public static final String TRIPS = "trips";
+
+    public static final String TICKET_CODES = "ticket_code";
+    public static final String BOOKING_CODES = "booking_code";
+
+    /**
+     * Bằng {@code busify.id.block-size} mặc định; annotation cần hằng số lúc biên dịch
+     */
+    public static final int ENTITY_ALLOCATION_SIZE = 50;
+
+    private IdSequences() {
+    }
+}
@@ -0,0 +1,86 @@
+package com.busify.project.common.id;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PostConstruct;
+import java.util.List;
+
+/**
+ * Cấp khối từ bảng {@code id_blocks} ({@code sequence_name}, {@code next_val}).
+ * <p>
+ * Cùng bảng và cùng cách hiểu {@code next_val} (số đầu của khối kế tiếp) với các
+ * {@code @TableGenerator} của entity khi Hibernate dùng optimizer {@code pooled-lo}.
+ * Mỗi lần cấp chạy trong transaction riêng để khoá dòng chỉ giữ trong thời gian cập nhật,
+ * không kéo dài theo transaction nghiệp vụ đang gọi.
+ * </p>
+ */
+@Component
+@Slf4j
+// Chờ Hibernate tạo/cập nhật schema trước khi căn dãy id theo dữ liệu sẵn có
+@DependsOn("entityManagerFactory")
+public class JdbcIdBlockSource implements IdBlockSource {
+
+    /**
+     * Dãy id của entity dùng {@code @TableGenerator} -> bảng, cột khoá chính.
+     * Trước đây các bảng này dùng AUTO_INCREMENT nên dãy phải bắt đầu sau id lớn nhất.
+     */
+    private static final String[][] ENTITY_SEQUENCES = {
+            { IdSequences.TICKETS, "tickets", "ticket_id" },
+            { IdSequences.BOOKINGS, "bookings", "id" },
+            { IdSequences.TRIPS, "trips", "trip_id" },
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public JdbcIdBlockSource(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Đảm bảo dãy id của entity không cấp lại id đã có, kể cả khi chưa chạy migration V12
+     * hoặc có dòng được ghi thẳng vào DB sau lần cấp khối trước.
+     */
+    @PostConstruct
+    void alignEntitySequences() {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS id_blocks ("
+                + "sequence_name VARCHAR(255) NOT NULL PRIMARY KEY, next_val BIGINT NOT NULL)");
+        for (String[] sequence : ENTITY_SEQUENCES) {
+            jdbcTemplate.update("INSERT INTO id_blocks (sequence_name, next_val) "
+                    + "SELECT ?, COALESCE(MAX(" + sequence[2] + "), 0) + 1 FROM " + sequence[1] + " "
+                    + "ON DUPLICATE KEY UPDATE next_val = GREATEST(next_val, VALUES(next_val))", sequence[0]);
+        }
+        log.info("Đã căn dãy id theo dữ liệu hiện có cho {} bảng", ENTITY_SEQUENCES.length);
+    }
+
+    @Override
+    public long reserve(String sequence, int size) {
+        Long first = transactionTemplate.execute(status -> {
+            Long current = lockSequence(sequence);
+            if (current == null) {
+                jdbcTemplate.update("INSERT IGNORE INTO id_blocks (sequence_name, next_val) VALUES (?, 1)", sequence);
+                current = lockSequence(sequence);
+            }
+            jdbcTemplate.update("UPDATE id_blocks SET next_val = ? WHERE sequence_name = ?", current + size, sequence);
+            return current;
+        });
+        if (first == null) {
+            throw new IllegalStateException("Không cấp được khối id cho dãy " + sequence);
+        }
+        return first;
+    }
+
+    private Long lockSequence(String sequence) {
+        List<Long> values = jdbcTemplate.queryForList(
+                "SELECT next_val FROM id_blocks WHERE sequence_name = ? FOR UPDATE", Long.class, sequence);
+        return values.isEmpty() ? null : values.get(0);
+    }
+}
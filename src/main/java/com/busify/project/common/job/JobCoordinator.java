@@ -0,0 +1,228 @@
+package com.busify.project.common.job;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.IntConsumer;
+
+/**
+ * Điều phối job {@code @Scheduled} khi chạy nhiều instance, dựa trên lease trong bảng {@code job_leases}.
+ * <p>
+ * Mỗi instance vẫn kích hoạt lịch như cũ, nhưng chỉ instance ghi được lease (UPDATE có điều kiện
+ * {@code lease_until <= now}) mới chạy; các instance khác bỏ qua lượt đó.
+ * <ul>
+ * <li>{@link #runExclusive}: chỉ một instance chạy mỗi lượt (leader cho lượt đó).</li>
+ * <li>{@link #runPartitioned}: job chia thành N phân vùng, mỗi phân vùng có lease riêng; mỗi instance
+ * bắt đầu từ một phân vùng ngẫu nhiên và chạy các phân vùng còn trống, nên thêm instance là thêm
+ * sức xử lý thay vì chạy trùng.</li>
+ * </ul>
+ * Lease và lịch sử chạy được ghi trong transaction riêng, commit ngay, kể cả khi job được gọi bên trong
+ * một transaction. Lease phải dài hơn thời gian chạy của job, nếu không instance khác có thể chạy chồng.
+ * </p>
+ */
+@Component
+@Slf4j
+public class JobCoordinator {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final JobLeaseRepository leaseRepository;
+    private final JobRunRepository runRepository;
+    private final JobProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final String owner;
+
+    public JobCoordinator(JobLeaseRepository leaseRepository,
+            JobRunRepository runRepository,
+            JobProperties properties,
+            PlatformTransactionManager transactionManager) {
+        this.leaseRepository = leaseRepository;
+        this.runRepository = runRepository;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.owner = instanceId();
+    }
+
+    /**
+     * Chạy {@code task} nếu instance này giành được lease của {@code jobName}. Lỗi của {@code task}
+     * được ghi vào lịch sử rồi ném lại cho nơi gọi.
+     *
+     * @return {@code false} nếu lượt này do instance khác chạy hoặc job bị tắt
+     */
+    public boolean runExclusive(String jobName, Runnable task) {
+        JobProperties.JobSpec spec = properties.specFor(jobName);
+        if (!spec.isEnabledOrDefault()) {
+            return false;
+        }
+        if (!properties.isCoordinationEnabled()) {
+            task.run();
+            return true;
+        }
+        return runWithLease(jobName, jobName, null, leaseFor(spec), task);
+    }
+
+    /**
+     * Chạy {@code task(phân vùng)} cho mỗi phân vùng của {@code jobName} mà instance này giành được lease.
+     * Số phân vùng lấy từ {@code busify.jobs.jobs.<tên>.partitions}, mặc định {@code defaultPartitions}.
+     * Lỗi của một phân vùng được ghi lịch sử và không chặn các phân vùng còn lại.
+     *
+     * @return số phân vùng instance này đã chạy
+     */
+    public int runPartitioned(String jobName, int defaultPartitions, IntConsumer task) {
+        JobProperties.JobSpec spec = properties.specFor(jobName);
+        if (!spec.isEnabledOrDefault()) {
+            return 0;
+        }
+        int partitions = partitionsFor(jobName, defaultPartitions);
+        if (!properties.isCoordinationEnabled()) {
+            for (int partition = 0; partition < partitions; partition++) {
+                task.accept(partition);
+            }
+            return partitions;
+        }
+        Duration lease = leaseFor(spec);
+        int start = ThreadLocalRandom.current().nextInt(partitions);
+        int ran = 0;
+        for (int i = 0; i < partitions; i++) {
+            int partition = (start + i) % partitions;
+            try {
+                if (runWithLease(jobName, jobName + "#" + partition, partition, lease, () -> task.accept(partition))) {
+                    ran++;
+                }
+            } catch (RuntimeException e) {
+                // Phân vùng lỗi đã được ghi lịch sử; các phân vùng khác vẫn chạy
+                log.error("Job {} phân vùng {} lỗi: {}", jobName, partition, e.getMessage(), e);
+                ran++;
+            }
+        }
+        return ran;
+    }
+
+    /**
+     * Số phân vùng thực tế của job, để câu truy vấn chia dữ liệu cùng cách với lease
+     */
+    public int partitionsFor(String jobName, int defaultPartitions) {
+        Integer configured = properties.specFor(jobName).getPartitions();
+        return Math.max(1, configured != null ? configured : defaultPartitions);
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    private boolean runWithLease(String jobName, String leaseName, Integer partition, Duration lease,
+            Runnable task) {
+        Instant startedAt = Instant.now();
+        if (!acquire(leaseName, startedAt, lease)) {
+            log.debug("Bỏ qua {}: instance khác đang giữ lease", leaseName);
+            return false;
+        }
+
+        Long runId = recordStart(jobName, partition, startedAt);
+        long startNanos = System.nanoTime();
+        JobRunStatus status = JobRunStatus.SUCCEEDED;
+        String error = null;
+        try {
+            task.run();
+        } catch (RuntimeException e) {
+            status = JobRunStatus.FAILED;
+            error = truncate(e.getClass().getSimpleName() + ": " + e.getMessage());
+            throw e;
+        } finally {
+            long durationMs = (System.nanoTime() - startNanos) / 1_000_000;
+            recordFinish(runId, status, durationMs, error);
+            release(leaseName, startedAt);
+        }
+        return true;
+    }
+
+    private boolean acquire(String leaseName, Instant now, Duration lease) {
+        try {
+            Integer acquired = transactionTemplate.execute(tx -> {
+                leaseRepository.createIfMissing(leaseName, Instant.EPOCH);
+                return leaseRepository.tryAcquire(leaseName, owner, now, now.plus(lease));
+            });
+            return acquired != null && acquired == 1;
+        } catch (RuntimeException e) {
+            // Không chắc instance khác có đang chạy không: bỏ lượt này thay vì chạy trùng
+            log.error("Không lấy được lease {}: {}", leaseName, e.getMessage(), e);
+            return false;
+        }
+    }
+
+    private void release(String leaseName, Instant startedAt) {
+        Instant holdUntil = startedAt.plus(properties.getMinHold());
+        Instant now = Instant.now();
+        try {
+            transactionTemplate.executeWithoutResult(tx ->
+                    leaseRepository.release(leaseName, owner, holdUntil.isAfter(now) ? holdUntil : now));
+        } catch (RuntimeException e) {
+            // Lease tự hết hạn theo thời hạn đã đặt
+            log.warn("Không trả được lease {}: {}", leaseName, e.getMessage());
+        }
+    }
+
+    private Long recordStart(String jobName, Integer partition, Instant startedAt) {
+        try {
+            return transactionTemplate.execute(tx -> {
+                JobRun run = new JobRun();
+                run.setJobName(jobName);
+                run.setPartitionNo(partition);
+                run.setOwner(owner);
+                run.setStatus(JobRunStatus.RUNNING);
+                run.setStartedAt(startedAt);
+                return runRepository.save(run).getId();
+            });
+        } catch (RuntimeException e) {
+            // Lịch sử chỉ để theo dõi, không chặn job
+            log.warn("Không ghi được lịch sử chạy {}: {}", jobName, e.getMessage());
+            return null;
+        }
+    }
+
+    private void recordFinish(Long runId, JobRunStatus status, long durationMs, String error) {
+        if (runId == null) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(tx -> runRepository.findById(runId).ifPresent(run -> {
+                run.setStatus(status);
+                run.setFinishedAt(Instant.now());
+                run.setDurationMs(durationMs);
+                run.setError(error);
+            }));
+        } catch (RuntimeException e) {
+            log.warn("Không ghi được kết quả lần chạy {}: {}", runId, e.getMessage());
+        }
+    }
+
+    private Duration leaseFor(JobProperties.JobSpec spec) {
+        return spec.getLease() != null ? spec.getLease() : properties.getLease();
+    }
+
+    private static String truncate(String error) {
+        return error.length() <= MAX_ERROR_LENGTH ? error : error.substring(0, MAX_ERROR_LENGTH);
+    }
+
+    private static String instanceId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "unknown";
+        }
+        // pid@host của JVM, thêm hậu tố ngẫu nhiên để hai lần khởi động không trùng nhau
+        return host + ":" + ManagementFactory.getRuntimeMXBean().getPid() + ":"
+                + UUID.randomUUID().toString().substring(0, 8);
+    }
+}
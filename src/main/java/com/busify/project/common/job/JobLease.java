@@ -0,0 +1,37 @@
+package com.busify.project.common.job;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Quyền chạy một job (hoặc một phân vùng của job) trên cả cụm. Instance nào ghi được {@code owner}
+ * bằng câu UPDATE có điều kiện thì được chạy tới {@code leaseUntil}.
+ */
+@Entity
+@Table(name = "job_leases")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class JobLease {
+
+    // Tên job, với job chia phân vùng là "<job>#<phân vùng>"
+    @Id
+    @Column(name = "name", length = 191)
+    private String name;
+
+    @Column(name = "owner", nullable = false, length = 191)
+    private String owner;
+
+    @Column(name = "lease_until", nullable = false)
+    private Instant leaseUntil;
+
+    @Column(name = "acquired_at", nullable = false)
+    private Instant acquiredAt;
+}
@@ -0,0 +1,41 @@
+package com.busify.project.common.job;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+
+/**
+ * Các thao tác lease được {@link JobCoordinator} gọi trong transaction riêng để commit ngay,
+ * không phụ thuộc transaction của job.
+ */
+@Repository
+public interface JobLeaseRepository extends JpaRepository<JobLease, String> {
+
+    /**
+     * Tạo dòng lease nếu chưa có, ở trạng thái đã hết hạn
+     */
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO job_leases (name, owner, lease_until, acquired_at) " +
+            "VALUES (:name, '', :expired, :expired)", nativeQuery = true)
+    int createIfMissing(@Param("name") String name, @Param("expired") Instant expired);
+
+    /**
+     * @return 1 nếu lease đã hết hạn (hoặc đang thuộc {@code owner}) và đã được ghi cho {@code owner}
+     */
+    @Modifying
+    @Query("UPDATE JobLease l SET l.owner = :owner, l.leaseUntil = :until, l.acquiredAt = :now " +
+            "WHERE l.name = :name AND (l.leaseUntil <= :now OR l.owner = :owner)")
+    int tryAcquire(@Param("name") String name, @Param("owner") String owner,
+            @Param("now") Instant now, @Param("until") Instant until);
+
+    /**
+     * Rút ngắn lease về {@code until} sau khi chạy xong; không làm gì nếu lease đã sang instance khác
+     */
+    @Modifying
+    @Query("UPDATE JobLease l SET l.leaseUntil = :until WHERE l.name = :name AND l.owner = :owner")
+    int release(@Param("name") String name, @Param("owner") String owner, @Param("until") Instant until);
+}
@@ -0,0 +1,46 @@
+package com.busify.project.common.job;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cấu hình điều phối job định kỳ giữa các instance. Từng job có thể override qua
+ * {@code busify.jobs.jobs.<tên>.*}.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "busify.jobs")
+@Data
+public class JobProperties {
+
+    // false = triển khai một instance: chạy job trực tiếp, không lấy lease và không ghi lịch sử
+    private boolean coordinationEnabled = true;
+
+    // Thời hạn lease mặc định; phải dài hơn thời gian chạy lâu nhất của job
+    private Duration lease = Duration.ofMinutes(10);
+
+    // Giữ lease ít nhất chừng này sau khi bắt đầu, để instance có đồng hồ lệch vài giây không chạy lại cùng lượt
+    private Duration minHold = Duration.ofSeconds(30);
+
+    private Map<String, JobSpec> jobs = new LinkedHashMap<>();
+
+    public JobSpec specFor(String jobName) {
+        JobSpec spec = jobs.get(jobName);
+        return spec != null ? spec : new JobSpec();
+    }
+
+    @Data
+    public static class JobSpec {
+        private Boolean enabled;
+        private Duration lease;
+        private Integer partitions;
+
+        public boolean isEnabledOrDefault() {
+            return enabled == null || enabled;
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.busify.project.common.job;
+
+public enum JobRunStatus {
+    RUNNING,
+    SUCCEEDED,
+    FAILED
+}
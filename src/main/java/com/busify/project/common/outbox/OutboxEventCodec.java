@@ -0,0 +1,28 @@
+package com.busify.project.common.outbox;
+
+import com.busify.project.common.event.BusifyEvent;
+
+/**
+ * Chuyển một loại sự kiện sang/từ dòng outbox. Sự kiện có codec được
+ * {@link com.busify.project.common.publisher.BusifyEventPublisher} ghi vào outbox thay vì gửi ngay.
+ *
+ * @param <E> loại sự kiện
+ */
+public interface OutboxEventCodec<E extends BusifyEvent> {
+
+    Class<E> getEventType();
+
+    String getAggregateType();
+
+    String aggregateId(E event);
+
+    /**
+     * Payload JSON; chỉ giữ id và giá trị, không giữ entity
+     */
+    String encode(E event);
+
+    /**
+     * Dựng lại sự kiện trong transaction của relay (được nạp entity từ DB)
+     */
+    E decode(String payload);
+}
@@ -0,0 +1,74 @@
+package com.busify.project.common.outbox;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Sự kiện đến hạn đứng đầu aggregate của nó: sự kiện sau chỉ được gửi khi sự kiện trước
+     * đã gửi xong (hoặc DEAD), nên thứ tự theo aggregate được giữ kể cả khi thử lại.
+     * SKIP LOCKED để nhiều instance cùng chạy relay mà không chờ nhau.
+     */
+    @Query(value = """
+            SELECT o.id FROM outbox_events o
+            WHERE o.status = 'PENDING' AND o.next_attempt_at <= :now
+              AND NOT EXISTS (SELECT 1 FROM outbox_events e
+                              WHERE e.aggregate_type = o.aggregate_type
+                                AND e.aggregate_id = o.aggregate_id
+                                AND e.status IN ('PENDING', 'PROCESSING')
+                                AND e.id < o.id)
+            ORDER BY o.id
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<Long> lockDueIds(@Param("now") Instant now, @Param("limit") int limit);
+
+    @Modifying
+    @Query("UPDATE OutboxEvent o SET o.status = com.busify.project.common.outbox.OutboxStatus.PROCESSING, " +
+            "o.claimedUntil = :claimedUntil WHERE o.id IN :ids")
+    int markProcessing(@Param("ids") Collection<Long> ids, @Param("claimedUntil") Instant claimedUntil);
+
+    List<OutboxEvent> findByIdInOrderByIdAsc(Collection<Long> ids);
+
+    @Modifying
+    @Query("UPDATE OutboxEvent o SET o.status = com.busify.project.common.outbox.OutboxStatus.DISPATCHED, " +
+            "o.dispatchedAt = :now, o.claimedUntil = NULL, o.attempts = o.attempts + 1, o.lastError = NULL " +
+            "WHERE o.id = :id")
+    int markDispatched(@Param("id") Long id, @Param("now") Instant now);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE OutboxEvent o SET o.status = com.busify.project.common.outbox.OutboxStatus.PENDING, " +
+            "o.nextAttemptAt = :nextAttemptAt, o.claimedUntil = NULL, o.attempts = o.attempts + 1, " +
+            "o.lastError = :error WHERE o.id = :id")
+    int reschedule(@Param("id") Long id, @Param("nextAttemptAt") Instant nextAttemptAt,
+            @Param("error") String error);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE OutboxEvent o SET o.status = com.busify.project.common.outbox.OutboxStatus.DEAD, " +
+            "o.claimedUntil = NULL, o.attempts = o.attempts + 1, o.lastError = :error WHERE o.id = :id")
+    int markDead(@Param("id") Long id, @Param("error") String error);
+
+    /**
+     * Instance chết khi đang gửi: trả sự kiện về PENDING để gửi lại (at-least-once)
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE OutboxEvent o SET o.status = com.busify.project.common.outbox.OutboxStatus.PENDING, " +
+            "o.claimedUntil = NULL WHERE o.status = com.busify.project.common.outbox.OutboxStatus.PROCESSING " +
+            "AND o.claimedUntil < :now")
+    int releaseExpiredClaims(@Param("now") Instant now);
+
+    long countByStatus(OutboxStatus status);
+}
@@ -0,0 +1,13 @@
+package com.busify.project.common.outbox;
+
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Có sự kiện mới trong outbox; relay được đánh thức sau khi transaction commit
+ */
+public class OutboxEventsWrittenEvent extends ApplicationEvent {
+
+    public OutboxEventsWrittenEvent(Object source) {
+        super(source);
+    }
+}
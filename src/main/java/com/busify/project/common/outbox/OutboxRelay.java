@@ -0,0 +1,176 @@
+package com.busify.project.common.outbox;
+
+import com.busify.project.common.event.BusifyEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Gửi sự kiện trong outbox tới các listener trong process (at-least-once).
+ * <p>
+ * Mỗi lượt nhận một lô sự kiện đến hạn (chỉ sự kiện đứng đầu mỗi aggregate), rồi gửi từng sự kiện
+ * trong một transaction riêng: listener chạy và dòng outbox được đánh dấu DISPATCHED cùng commit.
+ * Listener lỗi thì cả transaction rollback và sự kiện được thử lại với backoff; hết lượt thì DEAD.
+ * Listener có thể nhận lại cùng một sự kiện (lỗi ở listener khác, instance chết giữa chừng) nên phải
+ * idempotent.
+ * </p>
+ */
+@Component
+@Slf4j
+public class OutboxRelay {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final OutboxEventRepository repository;
+    private final ApplicationEventPublisher publisher;
+    private final Map<String, OutboxEventCodec<?>> codecs = new HashMap<>();
+    private final TransactionTemplate transactionTemplate;
+    private final Executor executor;
+    private final AtomicBoolean draining = new AtomicBoolean();
+
+    @Value("${busify.outbox.batch-size:100}")
+    private int batchSize;
+
+    @Value("${busify.outbox.lease-ms:60000}")
+    private long leaseMs;
+
+    @Value("${busify.outbox.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${busify.outbox.base-delay-ms:5000}")
+    private long baseDelayMs;
+
+    @Value("${busify.outbox.max-delay-ms:600000}")
+    private long maxDelayMs;
+
+    public OutboxRelay(OutboxEventRepository repository,
+            ApplicationEventPublisher publisher,
+            List<OutboxEventCodec<?>> codecs,
+            PlatformTransactionManager transactionManager,
+            @Qualifier("outboxExecutor") Executor executor) {
+        this.repository = repository;
+        this.publisher = publisher;
+        for (OutboxEventCodec<?> codec : codecs) {
+            this.codecs.put(codec.getEventType().getSimpleName(), codec);
+        }
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.executor = executor;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEventsWritten(OutboxEventsWrittenEvent event) {
+        try {
+            executor.execute(this::drain);
+        } catch (RejectedExecutionException e) {
+            // Đã có lượt gửi đang chờ; lượt đó hoặc lịch poll sẽ nhận sự kiện này
+        }
+    }
+
+    /**
+     * Gửi tới khi không còn sự kiện đến hạn
+     */
+    @Scheduled(fixedDelayString = "${busify.outbox.poll-ms:1000}")
+    public void drain() {
+        if (!draining.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            List<OutboxEvent> batch;
+            do {
+                batch = claimBatch();
+                for (OutboxEvent event : batch) {
+                    dispatch(event);
+                }
+            } while (!batch.isEmpty());
+        } catch (Exception e) {
+            log.error("Không thể đọc outbox: {}", e.getMessage(), e);
+        } finally {
+            draining.set(false);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${busify.outbox.stale-check-ms:60000}")
+    public void releaseExpiredClaims() {
+        int released = repository.releaseExpiredClaims(Instant.now());
+        if (released > 0) {
+            log.warn("{} sự kiện outbox hết hạn giữ khi đang gửi, sẽ gửi lại", released);
+        }
+    }
+
+    private List<OutboxEvent> claimBatch() {
+        return transactionTemplate.execute(status -> {
+            Instant now = Instant.now();
+            List<Long> ids = repository.lockDueIds(now, batchSize);
+            if (ids.isEmpty()) {
+                return List.of();
+            }
+            repository.markProcessing(ids, now.plusMillis(leaseMs));
+            return repository.findByIdInOrderByIdAsc(ids);
+        });
+    }
+
+    private void dispatch(OutboxEvent event) {
+        OutboxEventCodec<?> codec = codecs.get(event.getEventType());
+        if (codec == null) {
+            repository.markDead(event.getId(), "Không có codec cho " + event.getEventType());
+            log.error("Sự kiện outbox {} loại {} không có codec", event.getId(), event.getEventType());
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                BusifyEvent decoded = codec.decode(event.getPayload());
+                publisher.publishEvent(decoded);
+                repository.markDispatched(event.getId(), Instant.now());
+            });
+        } catch (Exception e) {
+            handleFailure(event, e);
+        }
+    }
+
+    private void handleFailure(OutboxEvent event, Exception e) {
+        int attempts = event.getAttempts() + 1;
+        String error = truncate(e.getClass().getSimpleName() + ": " + e.getMessage());
+        if (attempts >= maxAttempts) {
+            repository.markDead(event.getId(), error);
+            log.error("Sự kiện outbox {} ({} {}) chuyển DEAD sau {} lần: {}", event.getId(),
+                    event.getEventType(), event.getAggregateId(), attempts, error, e);
+            return;
+        }
+        Instant next = Instant.now().plus(retryDelay(attempts, baseDelayMs, maxDelayMs));
+        repository.reschedule(event.getId(), next, error);
+        log.warn("Gửi sự kiện outbox {} ({} {}) lỗi lần {}, thử lại lúc {}: {}", event.getId(),
+                event.getEventType(), event.getAggregateId(), attempts, next, error);
+    }
+
+    /**
+     * Backoff luỹ thừa có jitter trong khoảng [d/2, d], d = min(maxDelay, baseDelay * 2^(attempts-1))
+     */
+    static Duration retryDelay(int attempts, long baseDelayMs, long maxDelayMs) {
+        int shift = Math.min(Math.max(attempts - 1, 0), 30);
+        long delay = Math.min(maxDelayMs, baseDelayMs << shift);
+        long half = delay / 2;
+        return Duration.ofMillis(half + ThreadLocalRandom.current().nextLong(delay - half + 1));
+    }
+
+    private static String truncate(String error) {
+        return error.length() <= MAX_ERROR_LENGTH ? error : error.substring(0, MAX_ERROR_LENGTH);
+    }
+}
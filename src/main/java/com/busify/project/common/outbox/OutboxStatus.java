@@ -0,0 +1,11 @@
+package com.busify.project.common.outbox;
+
+public enum OutboxStatus {
+    // Chờ relay gửi (kể cả chờ thử lại)
+    PENDING,
+    // Relay đang gửi, giữ tới claimed_until
+    PROCESSING,
+    DISPATCHED,
+    // Hết số lần thử; cần xem lỗi và đặt lại PENDING bằng tay
+    DEAD
+}
@@ -0,0 +1,113 @@
+package com.busify.project.common.pagination;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Mã hoá/giải mã cursor phân trang keyset.
+ * <p>
+ * Cursor là chuỗi base64url không padding của giá trị khoá của dòng cuối cùng đã trả về, ví dụ
+ * id, hoặc (thời điểm, id) khi sắp theo thời gian. Mỗi giá trị được ghi kèm kiểu và độ dài
+ * ({@code l5:12345}, {@code s9:a@b.c.vn}, {@code t13:1718000000000}) nên chuỗi chứa ký tự đặc biệt
+ * vẫn giải mã đúng. Client coi cursor là chuỗi mờ, chỉ gửi lại nguyên vẹn.
+ * </p>
+ */
+public final class CursorCodec {
+
+    private static final String VERSION = "c1";
+
+    private CursorCodec() {
+    }
+
+    /**
+     * @param keys giá trị khoá theo thứ tự sắp xếp; hỗ trợ {@link Long}/{@link Integer}, {@link String}, {@link Instant}
+     */
+    public static String encode(Object... keys) {
+        StringBuilder out = new StringBuilder(VERSION);
+        for (Object key : keys) {
+            char type;
+            String value;
+            if (key instanceof Long || key instanceof Integer) {
+                type = 'l';
+                value = key.toString();
+            } else if (key instanceof String s) {
+                type = 's';
+                value = s;
+            } else if (key instanceof Instant instant) {
+                type = 't';
+                value = Long.toString(instant.toEpochMilli());
+            } else {
+                throw new IllegalArgumentException("Kiểu khoá cursor không được hỗ trợ: "
+                        + (key == null ? "null" : key.getClass().getSimpleName()));
+            }
+            out.append(type).append(value.length()).append(':').append(value);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(out.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException nếu cursor bị sửa hoặc không do {@link #encode} tạo ra
+     */
+    public static Cursor decode(String token) {
+        String text;
+        try {
+            text = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Cursor không hợp lệ");
+        }
+        if (!text.startsWith(VERSION)) {
+            throw new IllegalArgumentException("Cursor không hợp lệ");
+        }
+        List<Object> keys = new ArrayList<>();
+        int pos = VERSION.length();
+        try {
+            while (pos < text.length()) {
+                char type = text.charAt(pos++);
+                int colon = text.indexOf(':', pos);
+                int length = Integer.parseInt(text.substring(pos, colon));
+                String value = text.substring(colon + 1, colon + 1 + length);
+                pos = colon + 1 + length;
+                switch (type) {
+                    case 'l' -> keys.add(Long.parseLong(value));
+                    case 's' -> keys.add(value);
+                    case 't' -> keys.add(Instant.ofEpochMilli(Long.parseLong(value)));
+                    default -> throw new IllegalArgumentException("Cursor không hợp lệ");
+                }
+            }
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Cursor không hợp lệ");
+        }
+        if (keys.isEmpty()) {
+            throw new IllegalArgumentException("Cursor không hợp lệ");
+        }
+        return new Cursor(List.copyOf(keys));
+    }
+
+    /**
+     * Các giá trị khoá đã giải mã, truy cập theo vị trí
+     */
+    public record Cursor(List<Object> keys) {
+
+        public Long getLong(int index) {
+            return get(index, Long.class);
+        }
+
+        public String getString(int index) {
+            return get(index, String.class);
+        }
+
+        public Instant getInstant(int index) {
+            return get(index, Instant.class);
+        }
+
+        private <T> T get(int index, Class<T> type) {
+            if (index >= keys.size() || !type.isInstance(keys.get(index))) {
+                throw new IllegalArgumentException("Cursor không hợp lệ");
+            }
+            return type.cast(keys.get(index));
+        }
+    }
+}
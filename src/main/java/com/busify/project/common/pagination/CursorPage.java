@@ -0,0 +1,42 @@
+package com.busify.project.common.pagination;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Một trang kết quả phân trang keyset. {@code nextCursor} là {@code null} ở trang cuối.
+ */
+@Getter
+@AllArgsConstructor
+public class CursorPage<T> {
+
+    private final List<T> items;
+    private final String nextCursor;
+    private final boolean hasNext;
+    private final int limit;
+
+    /**
+     * @param rows     tối đa {@code limit + 1} dòng; dòng thừa chỉ dùng để biết còn trang sau
+     * @param cursorOf cursor trỏ tới ngay sau một dòng
+     */
+    public static <T> CursorPage<T> of(List<T> rows, int limit, Function<T, String> cursorOf) {
+        boolean hasNext = rows.size() > limit;
+        List<T> items = hasNext ? rows.subList(0, limit) : rows;
+        String nextCursor = hasNext ? cursorOf.apply(items.get(items.size() - 1)) : null;
+        return new CursorPage<>(items, nextCursor, hasNext, limit);
+    }
+
+    public <R> CursorPage<R> map(Function<T, R> mapper) {
+        return new CursorPage<>(items.stream().map(mapper).toList(), nextCursor, hasNext, limit);
+    }
+
+    /**
+     * Đổi cả trang một lần, cho các mapper cần nạp dữ liệu phụ theo lô
+     */
+    public <R> CursorPage<R> mapAll(Function<List<T>, List<R>> mapper) {
+        return new CursorPage<>(mapper.apply(items), nextCursor, hasNext, limit);
+    }
+}
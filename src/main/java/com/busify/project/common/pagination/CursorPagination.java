@@ -0,0 +1,94 @@
+package com.busify.project.common.pagination;
+
+import com.busify.project.common.exception.AppException;
+import com.busify.project.common.exception.ErrorCode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Giới hạn dùng chung cho các danh sách: số dòng mỗi trang cursor và số dòng tối đa
+ * mà một endpoint cũ (trả về toàn bộ danh sách) được phép trả về.
+ */
+@Component
+public class CursorPagination {
+
+    @Value("${busify.pagination.default-limit:50}")
+    private int defaultLimit;
+
+    @Value("${busify.pagination.max-limit:500}")
+    private int maxLimit;
+
+    @Value("${busify.pagination.max-unpaged-results:1000}")
+    private long maxUnpagedResults;
+
+    /**
+     * Số dòng mỗi trang: mặc định khi không truyền, tối đa {@code max-limit}
+     */
+    public int limit(Integer requested) {
+        if (requested == null) {
+            return defaultLimit;
+        }
+        if (requested < 1) {
+            throw new AppException(ErrorCode.INVALID_KEY, "limit phải lớn hơn 0");
+        }
+        return Math.min(requested, maxLimit);
+    }
+
+    /**
+     * @return {@code null} cho trang đầu
+     */
+    public CursorCodec.Cursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            return CursorCodec.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new AppException(ErrorCode.INVALID_CURSOR);
+        }
+    }
+
+    /**
+     * Khoá id của cursor, {@code null} cho trang đầu
+     */
+    public Long afterId(String cursor) {
+        CursorCodec.Cursor decoded = decode(cursor);
+        if (decoded == null) {
+            return null;
+        }
+        try {
+            return decoded.getLong(0);
+        } catch (IllegalArgumentException e) {
+            throw new AppException(ErrorCode.INVALID_CURSOR);
+        }
+    }
+
+    /**
+     * Khoá chuỗi của cursor, {@code null} cho trang đầu
+     */
+    public String afterString(String cursor) {
+        CursorCodec.Cursor decoded = decode(cursor);
+        if (decoded == null) {
+            return null;
+        }
+        try {
+            return decoded.getString(0);
+        } catch (IllegalArgumentException e) {
+            throw new AppException(ErrorCode.INVALID_CURSOR);
+        }
+    }
+
+    /**
+     * Chặn endpoint trả về toàn bộ danh sách khi số dòng vượt ngưỡng cấu hình
+     *
+     * @param count    số dòng sẽ trả về
+     * @param resource tên loại dữ liệu, dùng trong thông báo lỗi
+     */
+    public void requireBounded(long count, String resource) {
+        if (count > maxUnpagedResults) {
+            throw new AppException(ErrorCode.RESULT_SET_TOO_LARGE, String.format(
+                    "Có %d %s, vượt quá giới hạn %d dòng cho một lần lấy; hãy dùng tham số cursor/limit",
+                    count, resource, maxUnpagedResults));
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.busify.project.common.pagination;
+
+import lombok.Getter;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Mô tả một trang keyset cho {@link KeysetRepository}: sắp theo một thuộc tính duy nhất (thường là id),
+ * lấy các dòng sau khoá {@code after}, lọc thêm bằng {@link Specification}.
+ */
+@Getter
+public final class KeysetQuery<T> {
+
+    private final Class<T> type;
+    private final String keyAttribute;
+    private boolean descending;
+    private Comparable<?> after;
+    private int limit = 50;
+    private Specification<T> filter;
+    private final List<String> fetches = new ArrayList<>();
+
+    private KeysetQuery(Class<T> type, String keyAttribute) {
+        this.type = type;
+        this.keyAttribute = keyAttribute;
+    }
+
+    /**
+     * @param keyAttribute thuộc tính duy nhất, có index, dùng làm khoá sắp xếp
+     */
+    public static <T> KeysetQuery<T> of(Class<T> type, String keyAttribute) {
+        return new KeysetQuery<>(type, keyAttribute);
+    }
+
+    public KeysetQuery<T> descending() {
+        this.descending = true;
+        return this;
+    }
+
+    /**
+     * Khoá của dòng cuối trang trước; {@code null} = trang đầu
+     */
+    public KeysetQuery<T> after(Comparable<?> after) {
+        this.after = after;
+        return this;
+    }
+
+    public KeysetQuery<T> limit(int limit) {
+        this.limit = limit;
+        return this;
+    }
+
+    public KeysetQuery<T> where(Specification<T> filter) {
+        this.filter = filter;
+        return this;
+    }
+
+    /**
+     * Nạp sẵn quan hệ many-to-one theo đường dẫn (ví dụ {@code "route.startLocation"}) để mapper không
+     * phát sinh N+1; không dùng cho quan hệ collection vì sẽ phá giới hạn số dòng
+     */
+    public KeysetQuery<T> fetch(String... paths) {
+        fetches.addAll(List.of(paths));
+        return this;
+    }
+}
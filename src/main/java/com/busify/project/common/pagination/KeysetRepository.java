@@ -0,0 +1,18 @@
+package com.busify.project.common.pagination;
+
+import java.util.List;
+
+/**
+ * Fragment repository cho phân trang keyset; repository chỉ cần kế thừa thêm interface này.
+ * <p>
+ * Khác với {@code Pageable} (OFFSET càng lớn càng chậm), mỗi trang chỉ là một lần tìm theo index
+ * của khoá rồi đọc tối đa {@code limit + 1} dòng.
+ * </p>
+ */
+public interface KeysetRepository {
+
+    /**
+     * @return tối đa {@code limit + 1} dòng theo thứ tự khoá, để {@link CursorPage#of} biết còn trang sau
+     */
+    <T> List<T> findKeyset(KeysetQuery<T> query);
+}
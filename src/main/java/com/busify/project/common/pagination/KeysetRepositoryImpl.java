@@ -0,0 +1,63 @@
+package com.busify.project.common.pagination;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Fetch;
+import jakarta.persistence.criteria.FetchParent;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class KeysetRepositoryImpl implements KeysetRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public <T> List<T> findKeyset(KeysetQuery<T> query) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> cq = cb.createQuery(query.getType());
+        Root<T> root = cq.from(query.getType());
+
+        // Dùng chung fetch cho các đường dẫn có cùng tiền tố ("route.startLocation", "route.endLocation")
+        Map<String, FetchParent<?, ?>> fetched = new HashMap<>();
+        for (String path : query.getFetches()) {
+            FetchParent<?, ?> parent = root;
+            String prefix = "";
+            for (String part : path.split("\\.")) {
+                prefix = prefix.isEmpty() ? part : prefix + "." + part;
+                FetchParent<?, ?> current = parent;
+                parent = fetched.computeIfAbsent(prefix, k -> (Fetch<?, ?>) current.fetch(part, JoinType.LEFT));
+            }
+        }
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (query.getFilter() != null) {
+            Predicate filter = query.getFilter().toPredicate(root, cq, cb);
+            if (filter != null) {
+                predicates.add(filter);
+            }
+        }
+        Path<Comparable> key = root.get(query.getKeyAttribute());
+        if (query.getAfter() != null) {
+            Comparable after = query.getAfter();
+            predicates.add(query.isDescending() ? cb.lessThan(key, after) : cb.greaterThan(key, after));
+        }
+        cq.select(root)
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(query.isDescending() ? cb.desc(key) : cb.asc(key));
+
+        return entityManager.createQuery(cq)
+                .setMaxResults(query.getLimit() + 1)
+                .getResultList();
+    }
+}
@@ -3,17 +3,62 @@ package com.busify.project.common.publisher;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Component;
 
-import lombok.RequiredArgsConstructor;
-
 import com.busify.project.common.event.BusifyEvent;
+import com.busify.project.common.outbox.OutboxEvent;
+import com.busify.project.common.outbox.OutboxEventCodec;
+import com.busify.project.common.outbox.OutboxEventRepository;
+import com.busify.project.common.outbox.OutboxEventsWrittenEvent;
+import com.busify.project.common.outbox.OutboxStatus;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
+/**
+ * Phát sự kiện miền. Sự kiện có {@link OutboxEventCodec} được ghi vào outbox trong transaction
+ * hiện tại và gửi cho listener bất đồng bộ bởi {@link com.busify.project.common.outbox.OutboxRelay};
+ * sự kiện khác vẫn gửi đồng bộ như trước.
+ */
 @Component
-@RequiredArgsConstructor
 public class BusifyEventPublisher {
 
     private final ApplicationEventPublisher publisher;
+    private final OutboxEventRepository outboxRepository;
+    private final Map<Class<?>, OutboxEventCodec<?>> codecs = new HashMap<>();
+
+    public BusifyEventPublisher(ApplicationEventPublisher publisher,
+            OutboxEventRepository outboxRepository,
+            List<OutboxEventCodec<?>> codecs) {
+        this.publisher = publisher;
+        this.outboxRepository = outboxRepository;
+        for (OutboxEventCodec<?> codec : codecs) {
+            this.codecs.put(codec.getEventType(), codec);
+        }
+    }
 
     public void publishEvent(BusifyEvent event) {
-        publisher.publishEvent(event);
+        OutboxEventCodec<?> codec = codecs.get(event.getClass());
+        if (codec == null) {
+            publisher.publishEvent(event);
+            return;
+        }
+        outboxRepository.save(toOutboxEvent(codec, event));
+        publisher.publishEvent(new OutboxEventsWrittenEvent(this));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <E extends BusifyEvent> OutboxEvent toOutboxEvent(OutboxEventCodec<E> codec, BusifyEvent event) {
+        E typed = (E) event;
+        Instant now = Instant.now();
+        OutboxEvent outboxEvent = new OutboxEvent();
+        outboxEvent.setAggregateType(codec.getAggregateType());
+        outboxEvent.setAggregateId(codec.aggregateId(typed));
+        outboxEvent.setEventType(codec.getEventType().getSimpleName());
+        outboxEvent.setPayload(codec.encode(typed));
+        outboxEvent.setStatus(OutboxStatus.PENDING);
+        outboxEvent.setNextAttemptAt(now);
+        outboxEvent.setCreatedAt(now);
+        return outboxEvent;
     }
 }
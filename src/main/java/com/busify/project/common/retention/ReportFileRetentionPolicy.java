@@ -0,0 +1,78 @@
+package com.busify.project.common.retention;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Xoá file PDF báo cáo trong {@code <busify.reports.storage.path>/reports} cũ hơn thời hạn lưu,
+ * theo thời điểm sửa đổi cuối của file.
+ */
+@Slf4j
+public class ReportFileRetentionPolicy implements RetentionPolicy {
+
+    @Getter
+    private final String name;
+    @Getter
+    private final Duration retention;
+    private final Path directory;
+
+    public ReportFileRetentionPolicy(String name, Duration retention, Path directory) {
+        this.name = name;
+        this.retention = retention;
+        this.directory = directory;
+    }
+
+    @Override
+    public long countExpired(Instant cutoff) {
+        return expiredFiles(cutoff, Long.MAX_VALUE).size();
+    }
+
+    @Override
+    public int purgeBatch(Instant cutoff, int batchSize) {
+        int deleted = 0;
+        for (Path file : expiredFiles(cutoff, batchSize)) {
+            try {
+                if (Files.deleteIfExists(file)) {
+                    deleted++;
+                }
+            } catch (IOException e) {
+                // Bỏ qua file này; các file khác vẫn được xoá
+                log.warn("Không xoá được báo cáo {}: {}", file, e.getMessage());
+            }
+        }
+        return deleted;
+    }
+
+    private List<Path> expiredFiles(Instant cutoff, long limit) {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        FileTime threshold = FileTime.from(cutoff);
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(Files::isRegularFile)
+                    .filter(file -> isOlderThan(file, threshold))
+                    .limit(limit)
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static boolean isOlderThan(Path file, FileTime threshold) {
+        try {
+            return Files.getLastModifiedTime(file).compareTo(threshold) < 0;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.busify.project.common.retention;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Chính sách lưu giữ cho một tập dữ liệu: dữ liệu cũ hơn {@link #getRetention()} bị xoá
+ * (hoặc dọn) theo từng lô nhỏ bởi {@link RetentionService}.
+ */
+public interface RetentionPolicy {
+
+    /**
+     * Tên tập dữ liệu, khớp với khoá cấu hình {@code busify.retention.policies.<tên>}
+     */
+    String getName();
+
+    Duration getRetention();
+
+    /**
+     * Số dòng/file sẽ bị dọn với mốc {@code cutoff}, dùng cho dry-run
+     */
+    long countExpired(Instant cutoff);
+
+    /**
+     * Dọn tối đa {@code batchSize} dòng/file cũ hơn {@code cutoff}; mỗi lần gọi là một câu lệnh
+     * tự commit để khoá chỉ giữ trong thời gian của lô đó
+     *
+     * @return số dòng/file đã dọn, nhỏ hơn {@code batchSize} nghĩa là đã hết
+     */
+    int purgeBatch(Instant cutoff, int batchSize);
+}
@@ -0,0 +1,51 @@
+package com.busify.project.common.retention;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cấu hình job dọn dữ liệu cũ. Mỗi tập dữ liệu có thể tắt hoặc đổi thời hạn lưu qua
+ * {@code busify.retention.policies.<tên>.*}.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "busify.retention")
+@Data
+public class RetentionProperties {
+
+    private boolean enabled = true;
+
+    // Chỉ đếm số dòng sẽ bị xoá, không xoá gì
+    private boolean dryRun = false;
+
+    // Số dòng mỗi câu DELETE/UPDATE
+    private int batchSize = 1000;
+
+    // Nghỉ giữa hai lô để nhường khoá và I/O cho request thật
+    private Duration pause = Duration.ofMillis(200);
+
+    // Thời gian tối đa cho một tập dữ liệu trong một lượt; phần còn lại để lượt sau
+    private Duration maxRunTime = Duration.ofMinutes(10);
+
+    private Map<String, PolicySpec> policies = new LinkedHashMap<>();
+
+    public boolean isPolicyEnabled(String name) {
+        PolicySpec spec = policies.get(name);
+        return spec == null || spec.getEnabled() == null || spec.getEnabled();
+    }
+
+    public Duration retentionFor(String name, Duration defaultRetention) {
+        PolicySpec spec = policies.get(name);
+        return spec != null && spec.getRetention() != null ? spec.getRetention() : defaultRetention;
+    }
+
+    @Data
+    public static class PolicySpec {
+        private Boolean enabled;
+        private Duration retention;
+    }
+}
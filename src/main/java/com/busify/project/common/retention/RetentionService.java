@@ -0,0 +1,138 @@
+package com.busify.project.common.retention;
+
+import com.busify.project.common.job.JobCoordinator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Chạy các {@link RetentionPolicy} đã khai báo: dọn theo từng lô {@code batch-size} dòng, nghỉ
+ * {@code pause} giữa các lô và dừng sau {@code max-run-time} cho mỗi tập dữ liệu, nên không có câu
+ * DELETE nào giữ khoá lâu hay quét cả bảng trong một transaction. Mốc cắt được cố định lúc bắt đầu
+ * để các lô sau không đuổi theo dữ liệu mới hết hạn.
+ */
+@Service
+@Slf4j
+public class RetentionService {
+
+    private final List<RetentionPolicy> policies;
+    private final RetentionProperties properties;
+    private final JobCoordinator jobCoordinator;
+    private final Map<String, RetentionStatsDTO> stats = new ConcurrentHashMap<>();
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public RetentionService(List<RetentionPolicy> policies, RetentionProperties properties,
+            JobCoordinator jobCoordinator) {
+        this.policies = policies;
+        this.properties = properties;
+        this.jobCoordinator = jobCoordinator;
+    }
+
+    @Scheduled(cron = "${busify.retention.cron:0 15 * * * *}")
+    public void runScheduled() {
+        if (properties.isEnabled()) {
+            jobCoordinator.runExclusive("retention", () -> run(properties.isDryRun()));
+        }
+    }
+
+    /**
+     * @return kết quả của từng tập dữ liệu; rỗng nếu đang có lượt khác chạy
+     */
+    public Optional<List<RetentionStatsDTO>> run(boolean dryRun) {
+        if (!running.compareAndSet(false, true)) {
+            log.info("Bỏ qua lượt dọn dữ liệu: lượt trước chưa xong");
+            return Optional.empty();
+        }
+        try {
+            List<RetentionStatsDTO> results = new ArrayList<>();
+            for (RetentionPolicy policy : policies) {
+                if (properties.isPolicyEnabled(policy.getName())) {
+                    results.add(runPolicy(policy, dryRun));
+                }
+            }
+            return Optional.of(results);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    public List<RetentionStatsDTO> getStats() {
+        return policies.stream()
+                .map(policy -> stats.get(policy.getName()))
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    private RetentionStatsDTO runPolicy(RetentionPolicy policy, boolean dryRun) {
+        Instant startedAt = Instant.now();
+        Instant cutoff = startedAt.minus(policy.getRetention());
+        long startNanos = System.nanoTime();
+        long maxRunNanos = properties.getMaxRunTime().toNanos();
+        int batchSize = properties.getBatchSize();
+
+        long rows = 0;
+        int batches = 0;
+        boolean completed = false;
+        String error = null;
+        try {
+            if (dryRun) {
+                rows = policy.countExpired(cutoff);
+                completed = true;
+            } else {
+                while (true) {
+                    int purged = policy.purgeBatch(cutoff, batchSize);
+                    rows += purged;
+                    batches++;
+                    if (purged < batchSize) {
+                        completed = true;
+                        break;
+                    }
+                    if (System.nanoTime() - startNanos >= maxRunNanos) {
+                        break;
+                    }
+                    Thread.sleep(properties.getPause().toMillis());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            error = "Bị ngắt";
+        } catch (RuntimeException e) {
+            error = e.getClass().getSimpleName() + ": " + e.getMessage();
+            log.error("Lỗi khi dọn dữ liệu {}: {}", policy.getName(), e.getMessage(), e);
+        }
+
+        long durationMillis = (System.nanoTime() - startNanos) / 1_000_000;
+        RetentionStatsDTO previous = stats.get(policy.getName());
+        RetentionStatsDTO result = RetentionStatsDTO.builder()
+                .policy(policy.getName())
+                .retention(policy.getRetention().toString())
+                .lastRunAt(startedAt)
+                .lastDryRun(dryRun)
+                .lastRows(rows)
+                .lastBatches(batches)
+                .lastDurationMillis(durationMillis)
+                .lastCompleted(completed)
+                .lastError(error)
+                .totalPurged((previous != null ? previous.getTotalPurged() : 0) + (dryRun ? 0 : rows))
+                .totalDurationMillis((previous != null ? previous.getTotalDurationMillis() : 0) + durationMillis)
+                .build();
+        stats.put(policy.getName(), result);
+
+        if (dryRun) {
+            log.info("[dry-run] {}: {} dòng cũ hơn {} sẽ bị dọn", policy.getName(), rows, cutoff);
+        } else if (rows > 0 || !completed) {
+            log.info("Dọn {}: {} dòng trong {} lô, {} ms{}", policy.getName(), rows, batches, durationMillis,
+                    completed ? "" : " (chưa xong, tiếp tục ở lượt sau)");
+        }
+        return result;
+    }
+}
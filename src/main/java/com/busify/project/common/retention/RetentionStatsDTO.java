@@ -0,0 +1,28 @@
+package com.busify.project.common.retention;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RetentionStatsDTO {
+    private String policy;
+    private String retention;
+    private Instant lastRunAt;
+    private boolean lastDryRun;
+    // Số dòng đã dọn, hoặc số dòng sẽ bị dọn nếu là dry-run
+    private long lastRows;
+    private int lastBatches;
+    private long lastDurationMillis;
+    // false nếu lượt cuối dừng vì hết thời gian hoặc lỗi, phần còn lại để lượt sau
+    private boolean lastCompleted;
+    private String lastError;
+    private long totalPurged;
+    private long totalDurationMillis;
+}
@@ -0,0 +1,80 @@
+package com.busify.project.common.retention;
+
+import lombok.Getter;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.function.Function;
+
+/**
+ * {@link RetentionPolicy} trên một bảng: {@code DELETE ... LIMIT n} (hoặc {@code UPDATE ... LIMIT n} cho dữ liệu
+ * cần dọn cột chứ không xoá dòng). Điều kiện {@code where} có đúng một tham số {@code ?} là mốc cắt.
+ */
+public class SqlRetentionPolicy implements RetentionPolicy {
+
+    @Getter
+    private final String name;
+    @Getter
+    private final Duration retention;
+    private final JdbcTemplate jdbcTemplate;
+    private final String countSql;
+    private final String purgeSql;
+    private final Function<Instant, Object> cutoffParam;
+
+    private SqlRetentionPolicy(String name, Duration retention, JdbcTemplate jdbcTemplate, String table,
+            String setClause, String where, Function<Instant, Object> cutoffParam) {
+        this.name = name;
+        this.retention = retention;
+        this.jdbcTemplate = jdbcTemplate;
+        this.countSql = "SELECT COUNT(*) FROM " + table + " WHERE " + where;
+        this.purgeSql = setClause == null
+                ? "DELETE FROM " + table + " WHERE " + where + " LIMIT ?"
+                : "UPDATE " + table + " SET " + setClause + " WHERE " + where + " LIMIT ?";
+        this.cutoffParam = cutoffParam;
+    }
+
+    /**
+     * Xoá các dòng thoả {@code where}, mốc cắt truyền dưới dạng DATETIME
+     */
+    public static SqlRetentionPolicy delete(String name, Duration retention, JdbcTemplate jdbcTemplate,
+            String table, String where) {
+        return new SqlRetentionPolicy(name, retention, jdbcTemplate, table, null, where,
+                SqlRetentionPolicy::toDateTime);
+    }
+
+    /**
+     * Xoá các dòng thoả {@code where}, mốc cắt truyền dưới dạng epoch millis (ví dụ SPRING_SESSION.EXPIRY_TIME)
+     */
+    public static SqlRetentionPolicy deleteByEpochMillis(String name, Duration retention, JdbcTemplate jdbcTemplate,
+            String table, String where) {
+        return new SqlRetentionPolicy(name, retention, jdbcTemplate, table, null, where, Instant::toEpochMilli);
+    }
+
+    /**
+     * Cập nhật {@code setClause} trên các dòng thoả {@code where}; {@code setClause} phải làm dòng
+     * không còn thoả {@code where}, nếu không vòng lặp dọn sẽ không dừng trước giới hạn thời gian
+     */
+    public static SqlRetentionPolicy update(String name, Duration retention, JdbcTemplate jdbcTemplate,
+            String table, String setClause, String where) {
+        return new SqlRetentionPolicy(name, retention, jdbcTemplate, table, setClause, where,
+                SqlRetentionPolicy::toDateTime);
+    }
+
+    @Override
+    public long countExpired(Instant cutoff) {
+        Long count = jdbcTemplate.queryForObject(countSql, Long.class, cutoffParam.apply(cutoff));
+        return count != null ? count : 0;
+    }
+
+    @Override
+    public int purgeBatch(Instant cutoff, int batchSize) {
+        return jdbcTemplate.update(purgeSql, cutoffParam.apply(cutoff), batchSize);
+    }
+
+    private static Object toDateTime(Instant instant) {
+        return LocalDateTime.ofInstant(instant, ZoneId.systemDefault());
+    }
+}
@@ -0,0 +1,277 @@
+package com.busify.project.common.search;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Chỉ mục ngược trong bộ nhớ, cập nhật được từng bản ghi.
+ * <p>
+ * Mỗi field có một từ điển term đã sắp xếp ({@link TreeMap}) trỏ tới postings (id -> trọng số),
+ * nên một từ trong truy vấn được mở rộng thành mọi term có cùng tiền tố bằng một lần duyệt khoảng.
+ * Điểm của bản ghi là tổng, theo từng từ truy vấn, của trọng số field × idf của term khớp tốt nhất;
+ * khớp nguyên từ được điểm cao hơn khớp tiền tố. Cùng điểm thì {@code rankHint} lớn hơn đứng trước.
+ * Đọc song song, ghi độc quyền qua {@link ReentrantReadWriteLock}.
+ * </p>
+ */
+public final class InvertedIndex {
+
+    private static final int SNAPSHOT_MAGIC = 0x42534931; // "BSI1"
+    private static final float PREFIX_FACTOR = 0.6f;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, SearchDocument> documents = new HashMap<>();
+    private final Map<String, TreeMap<String, Map<Long, Float>>> postings = new HashMap<>();
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Thêm hoặc thay thế bản ghi cùng id
+     */
+    public void upsert(SearchDocument document) {
+        lock.writeLock().lock();
+        try {
+            SearchDocument previous = documents.put(document.getId(), document);
+            if (previous != null) {
+                unindex(previous);
+            }
+            index(document);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            SearchDocument previous = documents.remove(id);
+            if (previous != null) {
+                unindex(previous);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void index(SearchDocument document) {
+        for (Map.Entry<String, Map<String, Float>> field : document.getFields().entrySet()) {
+            TreeMap<String, Map<Long, Float>> terms = postings.computeIfAbsent(field.getKey(), k -> new TreeMap<>());
+            for (Map.Entry<String, Float> term : field.getValue().entrySet()) {
+                terms.computeIfAbsent(term.getKey(), k -> new HashMap<>()).put(document.getId(), term.getValue());
+            }
+        }
+    }
+
+    private void unindex(SearchDocument document) {
+        for (Map.Entry<String, Map<String, Float>> field : document.getFields().entrySet()) {
+            TreeMap<String, Map<Long, Float>> terms = postings.get(field.getKey());
+            if (terms == null) {
+                continue;
+            }
+            for (String term : field.getValue().keySet()) {
+                Map<Long, Float> docs = terms.get(term);
+                if (docs != null) {
+                    docs.remove(document.getId());
+                    if (docs.isEmpty()) {
+                        terms.remove(term);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Tìm và trả về trang id theo thứ hạng
+     *
+     * @param offset số bản ghi bỏ qua
+     * @param limit  số id tối đa trả về
+     */
+    public SearchHits search(SearchQuery query, long offset, int limit) {
+        if (query.isEmpty()) {
+            return SearchHits.empty();
+        }
+        lock.readLock().lock();
+        try {
+            Map<Long, Float> scores = null;
+            for (SearchQuery.Clause clause : query.getClauses()) {
+                Collection<String> fields = clause.fields().isEmpty() ? postings.keySet() : clause.fields();
+                for (String token : clause.tokens()) {
+                    Map<Long, Float> matched = matchToken(token, fields, scores, query.getFilters());
+                    if (scores == null) {
+                        scores = matched;
+                    } else {
+                        scores.keySet().retainAll(matched.keySet());
+                        scores.replaceAll((id, score) -> score + matched.get(id));
+                    }
+                    if (scores.isEmpty()) {
+                        return SearchHits.empty();
+                    }
+                }
+            }
+            return new SearchHits(topIds(scores, offset, limit), scores.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Điểm tốt nhất của từng bản ghi chứa một term bắt đầu bằng {@code token}.
+     * Từ thứ hai trở đi chỉ xét các bản ghi còn lại trong {@code candidates}.
+     */
+    private Map<Long, Float> matchToken(String token, Collection<String> fields, Map<Long, Float> candidates,
+            Map<String, String> filters) {
+        Map<Long, Float> matched = new HashMap<>();
+        int total = documents.size();
+        String upper = token + Character.MAX_VALUE;
+        for (String field : fields) {
+            TreeMap<String, Map<Long, Float>> terms = postings.get(field);
+            if (terms == null) {
+                continue;
+            }
+            for (Map.Entry<String, Map<Long, Float>> term : terms.subMap(token, true, upper, false).entrySet()) {
+                Map<Long, Float> docs = term.getValue();
+                float factor = (float) Math.log(1.0 + (double) total / docs.size())
+                        * (term.getKey().length() == token.length() ? 1f : PREFIX_FACTOR);
+                for (Map.Entry<Long, Float> posting : docs.entrySet()) {
+                    Long id = posting.getKey();
+                    if (candidates != null ? !candidates.containsKey(id)
+                            : !matchesFilters(documents.get(id), filters)) {
+                        continue;
+                    }
+                    matched.merge(id, posting.getValue() * factor, Math::max);
+                }
+            }
+        }
+        return matched;
+    }
+
+    private static boolean matchesFilters(SearchDocument document, Map<String, String> filters) {
+        for (Map.Entry<String, String> filter : filters.entrySet()) {
+            if (!filter.getValue().equals(document.getFilters().get(filter.getKey()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Chỉ giữ offset + limit bản ghi tốt nhất trong heap thay vì sắp xếp toàn bộ
+    private List<Long> topIds(Map<Long, Float> scores, long offset, int limit) {
+        if (offset >= scores.size() || limit <= 0) {
+            return List.of();
+        }
+        int wanted = (int) Math.min(offset + limit, scores.size());
+        Comparator<Map.Entry<Long, Float>> worstFirst = Comparator
+                .comparing((Map.Entry<Long, Float> e) -> e.getValue())
+                .thenComparingLong(e -> documents.get(e.getKey()).getRankHint())
+                .thenComparingLong(Map.Entry::getKey);
+        PriorityQueue<Map.Entry<Long, Float>> heap = new PriorityQueue<>(wanted + 1, worstFirst);
+        for (Map.Entry<Long, Float> entry : scores.entrySet()) {
+            heap.add(entry);
+            if (heap.size() > wanted) {
+                heap.poll();
+            }
+        }
+        List<Long> ranked = new ArrayList<>(heap.size());
+        while (!heap.isEmpty()) {
+            ranked.add(heap.poll().getKey());
+        }
+        Collections.reverse(ranked);
+        return ranked.subList((int) offset, ranked.size());
+    }
+
+    /**
+     * Ghi toàn bộ bản ghi (đã phân tích) ra luồng; postings được dựng lại khi đọc
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        writeTo(out, Set.of());
+    }
+
+    /**
+     * Như {@link #writeTo(OutputStream)} nhưng bỏ các field trong {@code excludedFields}
+     */
+    public void writeTo(OutputStream out, Set<String> excludedFields) throws IOException {
+        DataOutputStream data = new DataOutputStream(out);
+        lock.readLock().lock();
+        try {
+            data.writeInt(SNAPSHOT_MAGIC);
+            data.writeInt(documents.size());
+            for (SearchDocument document : documents.values()) {
+                data.writeLong(document.getId());
+                data.writeLong(document.getRankHint());
+                data.writeShort(document.getFilters().size());
+                for (Map.Entry<String, String> filter : document.getFilters().entrySet()) {
+                    data.writeUTF(filter.getKey());
+                    data.writeUTF(filter.getValue());
+                }
+                List<Map.Entry<String, Map<String, Float>>> fields = document.getFields().entrySet().stream()
+                        .filter(field -> !excludedFields.contains(field.getKey()))
+                        .toList();
+                data.writeShort(fields.size());
+                for (Map.Entry<String, Map<String, Float>> field : fields) {
+                    data.writeUTF(field.getKey());
+                    data.writeInt(field.getValue().size());
+                    for (Map.Entry<String, Float> term : field.getValue().entrySet()) {
+                        data.writeUTF(term.getKey());
+                        data.writeFloat(term.getValue());
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        data.flush();
+    }
+
+    public static InvertedIndex readFrom(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        if (data.readInt() != SNAPSHOT_MAGIC) {
+            throw new IOException("Định dạng snapshot chỉ mục không hợp lệ");
+        }
+        InvertedIndex index = new InvertedIndex();
+        int count = data.readInt();
+        for (int d = 0; d < count; d++) {
+            long id = data.readLong();
+            long rankHint = data.readLong();
+            int filterCount = data.readShort();
+            Map<String, String> filters = new HashMap<>();
+            for (int f = 0; f < filterCount; f++) {
+                filters.put(data.readUTF(), data.readUTF());
+            }
+            int fieldCount = data.readShort();
+            Map<String, Map<String, Float>> fields = new HashMap<>();
+            for (int f = 0; f < fieldCount; f++) {
+                String field = data.readUTF();
+                int termCount = data.readInt();
+                Map<String, Float> terms = new HashMap<>();
+                for (int t = 0; t < termCount; t++) {
+                    terms.put(data.readUTF(), data.readFloat());
+                }
+                fields.put(field, terms);
+            }
+            SearchDocument document = new SearchDocument(id, rankHint, filters, fields);
+            index.documents.put(id, document);
+            index.index(document);
+        }
+        return index;
+    }
+}
@@ -0,0 +1,130 @@
+package com.busify.project.common.search;
+
+import com.busify.project.common.utils.VietnameseTextNormalizer;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Một bản ghi đã phân tích sẵn để đưa vào {@link InvertedIndex}.
+ * <p>
+ * Chỉ giữ các term (đã bỏ dấu, viết thường) kèm trọng số theo từng field và các giá trị lọc,
+ * không giữ văn bản gốc. Field định danh (số điện thoại, biển số, email) được thêm dạng viết liền
+ * và các hậu tố của nó, để "51b12345", "12345" hay "4567" đều tìm được như LIKE '%kw%'.
+ * </p>
+ */
+public final class SearchDocument {
+
+    static final int MAX_TERM_LENGTH = 64;
+    private static final int MAX_IDENTIFIER_LENGTH = 32;
+    private static final int MIN_SUFFIX_LENGTH = 3;
+    private static final float SUFFIX_FACTOR = 0.5f;
+
+    private final long id;
+    private final long rankHint;
+    private final Map<String, String> filters;
+    // field -> term -> trọng số
+    private final Map<String, Map<String, Float>> fields;
+
+    SearchDocument(long id, long rankHint, Map<String, String> filters, Map<String, Map<String, Float>> fields) {
+        this.id = id;
+        this.rankHint = rankHint;
+        this.filters = filters;
+        this.fields = fields;
+    }
+
+    public static Builder builder(long id) {
+        return new Builder(id);
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * Thứ tự phụ khi cùng điểm, lớn hơn đứng trước (thường là thời điểm tạo/khởi hành)
+     */
+    public long getRankHint() {
+        return rankHint;
+    }
+
+    Map<String, String> getFilters() {
+        return filters;
+    }
+
+    Map<String, Map<String, Float>> getFields() {
+        return fields;
+    }
+
+    static String filterValue(Object value) {
+        return value instanceof Enum<?> e ? e.name() : value.toString();
+    }
+
+    public static final class Builder {
+
+        private final long id;
+        private long rankHint;
+        private final Map<String, String> filters = new HashMap<>();
+        private final Map<String, Map<String, Float>> fields = new HashMap<>();
+
+        private Builder(long id) {
+            this.id = id;
+        }
+
+        public Builder rankHint(long rankHint) {
+            this.rankHint = rankHint;
+            return this;
+        }
+
+        /**
+         * Văn bản thường (tên, tiêu đề, nội dung), tách thành từng từ
+         */
+        public Builder text(String field, String value, float boost) {
+            for (String token : VietnameseTextNormalizer.tokenize(value)) {
+                addTerm(field, token, boost);
+            }
+            return this;
+        }
+
+        /**
+         * Mã/định danh: từng phần, dạng viết liền và các hậu tố của dạng viết liền
+         */
+        public Builder identifier(String field, String value, float boost) {
+            List<String> tokens = VietnameseTextNormalizer.tokenize(value);
+            for (String token : tokens) {
+                addTerm(field, token, boost);
+            }
+            String compact = String.join("", tokens);
+            if (compact.isEmpty() || compact.length() > MAX_IDENTIFIER_LENGTH) {
+                return this;
+            }
+            addTerm(field, compact, boost);
+            for (int i = 1; i <= compact.length() - MIN_SUFFIX_LENGTH; i++) {
+                addTerm(field, compact.substring(i), boost * SUFFIX_FACTOR);
+            }
+            return this;
+        }
+
+        /**
+         * Giá trị lọc so sánh bằng; {@code null} thì bỏ qua
+         */
+        public Builder filter(String key, Object value) {
+            if (value != null) {
+                filters.put(key, filterValue(value));
+            }
+            return this;
+        }
+
+        private void addTerm(String field, String term, float weight) {
+            if (term.length() > MAX_TERM_LENGTH) {
+                return;
+            }
+            fields.computeIfAbsent(field, k -> new HashMap<>()).merge(term, weight, Math::max);
+        }
+
+        public SearchDocument build() {
+            return new SearchDocument(id, rankHint, filters, fields);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.busify.project.common.search;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+@Getter
+public class SearchEntityChangedEvent extends ApplicationEvent {
+
+    private final transient Object entity;
+
+    public SearchEntityChangedEvent(Object source, Object entity) {
+        super(source);
+        this.entity = entity;
+    }
+}
@@ -0,0 +1,26 @@
+package com.busify.project.common.search;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA listener phát {@link SearchEntityChangedEvent} khi entity được thêm/sửa/xoá,
+ * để {@link SearchIndexService} đánh lại chỉ mục cho đúng bản ghi đó.
+ */
+@Component
+@RequiredArgsConstructor
+public class SearchEntityListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Object entity) {
+        eventPublisher.publishEvent(new SearchEntityChangedEvent(this, entity));
+    }
+}
@@ -0,0 +1,15 @@
+package com.busify.project.common.search;
+
+import java.util.List;
+
+/**
+ * Một trang id theo thứ hạng và tổng số bản ghi khớp
+ */
+public record SearchHits(List<Long> ids, long total) {
+
+    private static final SearchHits EMPTY = new SearchHits(List.of(), 0);
+
+    public static SearchHits empty() {
+        return EMPTY;
+    }
+}
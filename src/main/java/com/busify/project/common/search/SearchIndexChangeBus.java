@@ -0,0 +1,76 @@
+package com.busify.project.common.search;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+
+/**
+ * Gửi và nhận id bản ghi cần đánh lại chỉ mục tìm kiếm giữa các instance qua một kênh Redis pub/sub
+ * riêng. Mỗi instance có một id riêng để bỏ qua tin nhắn do chính nó gửi.
+ */
+@Component
+@Slf4j
+public class SearchIndexChangeBus implements MessageListener {
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final String channel;
+    private volatile BiConsumer<String, List<Long>> listener = (indexName, ids) -> {
+    };
+
+    public SearchIndexChangeBus(StringRedisTemplate redisTemplate,
+            ObjectMapper objectMapper,
+            RedisMessageListenerContainer listenerContainer,
+            @Value("${busify.search.change-channel:busify:search:changes}") String channel) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.channel = channel;
+        listenerContainer.addMessageListener(this, new ChannelTopic(channel));
+    }
+
+    /**
+     * Nơi nhận id thay đổi do instance khác gửi
+     */
+    public void bind(BiConsumer<String, List<Long>> listener) {
+        this.listener = listener;
+    }
+
+    public void publish(String indexName, Collection<Long> ids) {
+        try {
+            redisTemplate.convertAndSend(channel, objectMapper.writeValueAsString(
+                    new SearchIndexChangeMessage(nodeId, indexName, List.copyOf(ids))));
+        } catch (Exception e) {
+            // Không làm hỏng thao tác ghi; instance khác bắt kịp ở lần build lại toàn bộ
+            log.warn("Không gửi được thay đổi chỉ mục tìm kiếm {}: {}", indexName, e.getMessage());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        SearchIndexChangeMessage payload;
+        try {
+            payload = objectMapper.readValue(new String(message.getBody(), StandardCharsets.UTF_8),
+                    SearchIndexChangeMessage.class);
+        } catch (Exception e) {
+            log.warn("Bỏ qua thay đổi chỉ mục tìm kiếm không hợp lệ: {}", e.getMessage());
+            return;
+        }
+        if (nodeId.equals(payload.getOrigin()) || payload.getIndexName() == null || payload.getIds() == null) {
+            return;
+        }
+        listener.accept(payload.getIndexName(), payload.getIds());
+    }
+}
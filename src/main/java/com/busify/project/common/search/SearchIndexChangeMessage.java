@@ -0,0 +1,19 @@
+package com.busify.project.common.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Id bản ghi cần đánh lại chỉ mục {@code indexName}, gửi qua Redis pub/sub cho các instance khác
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchIndexChangeMessage {
+    private String origin;
+    private String indexName;
+    private List<Long> ids;
+}
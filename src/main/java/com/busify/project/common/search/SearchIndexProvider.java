@@ -0,0 +1,42 @@
+package com.busify.project.common.search;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Nguồn dữ liệu của một chỉ mục trong {@link SearchIndexService}: đọc bản ghi từ DB
+ * và chuyển thành {@link SearchDocument}.
+ */
+public interface SearchIndexProvider {
+
+    /**
+     * Tên chỉ mục, cũng là tên file snapshot
+     */
+    String getIndexName();
+
+    /**
+     * Entity mà thay đổi của nó (qua {@link SearchEntityListener}) làm bản ghi cần đánh lại chỉ mục
+     */
+    Class<?> getEntityType();
+
+    Long idOf(Object entity);
+
+    /**
+     * Trang kế tiếp theo id tăng dần, dùng khi build lại toàn bộ
+     */
+    List<SearchDocument> loadAfter(long lastId, int limit);
+
+    /**
+     * Các bản ghi còn tồn tại trong {@code ids}; id không có trong kết quả sẽ bị xoá khỏi chỉ mục
+     */
+    List<SearchDocument> loadByIds(Collection<Long> ids);
+
+    /**
+     * Field không ghi ra snapshot trên đĩa (email, số điện thoại). Khi chỉ mục còn là bản nạp từ snapshot,
+     * truy vấn theo các field này nhận {@code Optional.empty()} và dùng truy vấn DB cho tới khi build lại xong.
+     */
+    default Set<String> getSnapshotExcludedFields() {
+        return Set.of();
+    }
+}
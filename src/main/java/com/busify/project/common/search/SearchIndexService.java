@@ -0,0 +1,323 @@
+package com.busify.project.common.search;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Chỉ mục tìm kiếm toàn văn nhúng trong tiến trình cho các màn hình quản trị,
+ * thay cho các truy vấn {@code LOWER(x) LIKE '%kw%'} phải quét cả bảng.
+ * <p>
+ * Mỗi {@link SearchIndexProvider} có một {@link InvertedIndex}. Lúc khởi động, snapshot trên đĩa
+ * được nạp trước để tìm kiếm dùng được ngay, sau đó build lại từ DB. Thay đổi entity (sau khi
+ * transaction commit) được gom theo id, gửi sang các instance khác qua {@link SearchIndexChangeBus}
+ * và đánh lại chỉ mục định kỳ; build lại toàn bộ định kỳ sửa các thay đổi không đi qua JPA
+ * (ghi thẳng DB, đổi tên ở bảng liên kết) và tín hiệu pub/sub bị mất.
+ * Khi chỉ mục chưa sẵn sàng, nơi gọi nhận {@link Optional#empty()} và dùng lại truy vấn DB cũ.
+ * </p>
+ * <p>
+ * Snapshot bỏ các field liên hệ ({@link SearchIndexProvider#getSnapshotExcludedFields()}) và được tạo
+ * bằng {@link Files#createTempFile}, nên trên POSIX chỉ tiến trình sở hữu đọc được. Cho tới khi build lại
+ * từ DB xong, truy vấn chạm tới các field đó (kể cả truy vấn mọi field) coi chỉ mục là chưa sẵn sàng.
+ * </p>
+ */
+@Service
+@Slf4j
+public class SearchIndexService {
+
+    private static final int LOAD_PAGE_SIZE = 1000;
+    private static final int ID_CHUNK_SIZE = 500;
+
+    private final Map<String, SearchIndexProvider> providers = new LinkedHashMap<>();
+    private final Map<String, InvertedIndex> indexes = new ConcurrentHashMap<>();
+    private final Map<String, Set<Long>> pending = new ConcurrentHashMap<>();
+    private final Set<String> unsavedIndexes = ConcurrentHashMap.newKeySet();
+    // Chỉ mục đang dùng bản nạp từ snapshot, thiếu các field bị loại khỏi snapshot
+    private final Set<String> snapshotOnly = ConcurrentHashMap.newKeySet();
+    private final SearchIndexChangeBus changeBus;
+
+    @Value("${busify.search.directory:./data/search}")
+    private String directory;
+
+    @Value("${busify.search.max-candidates:5000}")
+    private int maxCandidates;
+
+    public SearchIndexService(List<SearchIndexProvider> providers, SearchIndexChangeBus changeBus) {
+        for (SearchIndexProvider provider : providers) {
+            this.providers.put(provider.getIndexName(), provider);
+        }
+        this.changeBus = changeBus;
+        changeBus.bind(this::enqueue);
+    }
+
+    /**
+     * Trang id theo thứ hạng, rỗng nếu chỉ mục chưa sẵn sàng
+     */
+    public Optional<SearchHits> search(String indexName, SearchQuery query, Pageable pageable) {
+        InvertedIndex index = readyIndex(indexName, query);
+        if (index == null) {
+            return Optional.empty();
+        }
+        return Optional.of(index.search(query, pageable.getOffset(), pageable.getPageSize()));
+    }
+
+    /**
+     * Toàn bộ id khớp, để lọc/sắp xếp tiếp trong DB bằng {@code id IN (...)}.
+     * Rỗng nếu chỉ mục chưa sẵn sàng hoặc quá nhiều bản ghi khớp (truy vấn DB cũ hiệu quả hơn).
+     */
+    public Optional<List<Long>> matchingIds(String indexName, SearchQuery query) {
+        InvertedIndex index = readyIndex(indexName, query);
+        if (index == null) {
+            return Optional.empty();
+        }
+        SearchHits hits = index.search(query, 0, maxCandidates);
+        return hits.total() > maxCandidates ? Optional.empty() : Optional.of(hits.ids());
+    }
+
+    private InvertedIndex readyIndex(String indexName, SearchQuery query) {
+        InvertedIndex index = indexes.get(indexName);
+        if (index != null && snapshotOnly.contains(indexName)
+                && query.touchesAny(providers.get(indexName).getSnapshotExcludedFields())) {
+            // Kết quả từ snapshot sẽ thiếu bản ghi khớp theo email/số điện thoại
+            return null;
+        }
+        return index;
+    }
+
+    /**
+     * Nạp entity theo id và giữ đúng thứ hạng; id đã bị xoá trong DB thì bỏ qua
+     */
+    public <T> Page<T> toPage(SearchHits hits, Pageable pageable, Function<List<Long>, List<T>> loader,
+            Function<T, Long> idOf) {
+        if (hits.ids().isEmpty()) {
+            return new PageImpl<>(List.of(), pageable, hits.total());
+        }
+        Map<Long, T> byId = new HashMap<>();
+        for (T entity : loader.apply(hits.ids())) {
+            byId.put(idOf.apply(entity), entity);
+        }
+        List<T> content = new ArrayList<>(hits.ids().size());
+        for (Long id : hits.ids()) {
+            T entity = byId.get(id);
+            if (entity != null) {
+                content.add(entity);
+            }
+        }
+        return new PageImpl<>(content, pageable, hits.total());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        for (String name : providers.keySet()) {
+            loadSnapshot(name);
+        }
+        rebuildAll();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEntityChanged(SearchEntityChangedEvent event) {
+        for (SearchIndexProvider provider : providers.values()) {
+            if (provider.getEntityType().isInstance(event.getEntity())) {
+                Long id = provider.idOf(event.getEntity());
+                if (id != null) {
+                    markChanged(provider.getIndexName(), List.of(id));
+                }
+            }
+        }
+    }
+
+    /**
+     * Đánh dấu các bản ghi cần đánh lại chỉ mục, cho thay đổi ghi thẳng DB mà nơi ghi biết id.
+     * Các instance khác nhận cùng danh sách id.
+     */
+    public void markChanged(String indexName, Collection<Long> changedIds) {
+        if (enqueue(indexName, changedIds)) {
+            changeBus.publish(indexName, changedIds);
+        }
+    }
+
+    private boolean enqueue(String indexName, Collection<Long> changedIds) {
+        if (!providers.containsKey(indexName) || changedIds.isEmpty()) {
+            return false;
+        }
+        pending.compute(indexName, (name, ids) -> {
+            Set<Long> set = ids != null ? ids : ConcurrentHashMap.newKeySet();
+            set.addAll(changedIds);
+            return set;
+        });
+        return true;
+    }
+
+    // Gom nhiều thay đổi liên tiếp vào một lần đọc DB cho mỗi chỉ mục
+    @Scheduled(fixedDelayString = "${busify.search.dirty-check-ms:2000}")
+    public synchronized void applyPendingChanges() {
+        for (SearchIndexProvider provider : providers.values()) {
+            InvertedIndex index = indexes.get(provider.getIndexName());
+            if (index == null) {
+                // Lần build đầu tiên sẽ đọc trạng thái mới nhất
+                continue;
+            }
+            Set<Long> ids = pending.remove(provider.getIndexName());
+            if (ids == null || ids.isEmpty()) {
+                continue;
+            }
+            try {
+                List<Long> idList = new ArrayList<>(ids);
+                for (int from = 0; from < idList.size(); from += ID_CHUNK_SIZE) {
+                    List<Long> chunk = idList.subList(from, Math.min(from + ID_CHUNK_SIZE, idList.size()));
+                    Set<Long> missing = new HashSet<>(chunk);
+                    for (SearchDocument document : provider.loadByIds(chunk)) {
+                        index.upsert(document);
+                        missing.remove(document.getId());
+                    }
+                    missing.forEach(index::remove);
+                }
+                unsavedIndexes.add(provider.getIndexName());
+            } catch (Exception e) {
+                // Đưa lại vào hàng đợi để thử ở lượt sau
+                pending.merge(provider.getIndexName(), ids, (current, failed) -> {
+                    current.addAll(failed);
+                    return current;
+                });
+                log.error("Không thể cập nhật chỉ mục tìm kiếm {}: {}", provider.getIndexName(), e.getMessage(), e);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${busify.search.full-refresh-ms:21600000}",
+            initialDelayString = "${busify.search.full-refresh-ms:21600000}")
+    public void rebuildAll() {
+        for (String name : providers.keySet()) {
+            rebuild(name);
+        }
+    }
+
+    /**
+     * Build chỉ mục mới từ DB rồi thay thế chỉ mục đang dùng. Thay đổi đến trong lúc build vẫn nằm
+     * trong hàng đợi và được áp dụng lại sau đó.
+     */
+    public synchronized void rebuild(String name) {
+        SearchIndexProvider provider = providers.get(name);
+        long start = System.nanoTime();
+        try {
+            InvertedIndex fresh = new InvertedIndex();
+            long lastId = 0;
+            List<SearchDocument> page;
+            do {
+                page = provider.loadAfter(lastId, LOAD_PAGE_SIZE);
+                for (SearchDocument document : page) {
+                    fresh.upsert(document);
+                    lastId = Math.max(lastId, document.getId());
+                }
+            } while (page.size() == LOAD_PAGE_SIZE);
+            indexes.put(name, fresh);
+            snapshotOnly.remove(name);
+            saveSnapshot(name);
+            log.info("Đã build chỉ mục tìm kiếm {}: {} bản ghi trong {} ms",
+                    name, fresh.size(), (System.nanoTime() - start) / 1_000_000);
+        } catch (Exception e) {
+            log.error("Không thể build chỉ mục tìm kiếm {}: {}", name, e.getMessage(), e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${busify.search.snapshot-ms:60000}")
+    public void saveChangedSnapshots() {
+        for (String name : providers.keySet()) {
+            if (unsavedIndexes.remove(name)) {
+                saveSnapshot(name);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void saveOnShutdown() {
+        saveChangedSnapshots();
+    }
+
+    private Path snapshotPath(String name) {
+        return Paths.get(directory, name + ".idx");
+    }
+
+    private void loadSnapshot(String name) {
+        Path path = snapshotPath(name);
+        if (!Files.isRegularFile(path)) {
+            return;
+        }
+        long start = System.nanoTime();
+        try (InputStream in = new GZIPInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            InvertedIndex index = InvertedIndex.readFrom(in);
+            if (indexes.putIfAbsent(name, index) == null
+                    && !providers.get(name).getSnapshotExcludedFields().isEmpty()) {
+                snapshotOnly.add(name);
+            }
+            log.info("Đã nạp snapshot chỉ mục tìm kiếm {}: {} bản ghi trong {} ms",
+                    name, index.size(), (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException e) {
+            log.warn("Bỏ qua snapshot chỉ mục tìm kiếm {} bị lỗi: {}", name, e.getMessage());
+        }
+    }
+
+    // Ghi ra file tạm rồi đổi tên để không bao giờ để lại snapshot ghi dở
+    private void saveSnapshot(String name) {
+        InvertedIndex index = indexes.get(name);
+        if (index == null) {
+            return;
+        }
+        Path path = snapshotPath(name);
+        Path temp = null;
+        try {
+            Files.createDirectories(path.getParent());
+            temp = Files.createTempFile(path.getParent(), name, ".tmp");
+            try (OutputStream out = new GZIPOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                index.writeTo(out, providers.get(name).getSnapshotExcludedFields());
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            deleteQuietly(temp);
+            unsavedIndexes.add(name);
+            log.warn("Không thể ghi snapshot chỉ mục tìm kiếm {}: {}", name, e.getMessage());
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ignored) {
+            // File tạm sẽ bị ghi đè ở lần sau
+        }
+    }
+}
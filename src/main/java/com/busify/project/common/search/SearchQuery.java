@@ -0,0 +1,100 @@
+package com.busify.project.common.search;
+
+import com.busify.project.common.utils.VietnameseTextNormalizer;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Truy vấn trên {@link InvertedIndex}: mọi từ của mọi mệnh đề đều phải khớp (AND), mỗi từ khớp
+ * theo tiền tố; bản ghi còn phải có đúng các giá trị lọc.
+ */
+public final class SearchQuery {
+
+    private final List<Clause> clauses;
+    private final Map<String, String> filters;
+
+    private SearchQuery(List<Clause> clauses, Map<String, String> filters) {
+        this.clauses = clauses;
+        this.filters = filters;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    List<Clause> getClauses() {
+        return clauses;
+    }
+
+    Map<String, String> getFilters() {
+        return filters;
+    }
+
+    /**
+     * Không có từ nào để tìm (ví dụ từ khoá chỉ gồm dấu câu)
+     */
+    public boolean isEmpty() {
+        return clauses.isEmpty();
+    }
+
+    /**
+     * Có mệnh đề nào tìm trong một trong {@code fields} (hoặc trong mọi field)
+     */
+    boolean touchesAny(Set<String> fields) {
+        if (fields.isEmpty()) {
+            return false;
+        }
+        for (Clause clause : clauses) {
+            if (clause.fields().isEmpty() || clause.fields().stream().anyMatch(fields::contains)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param fields các field được tìm, rỗng = mọi field
+     */
+    record Clause(List<String> tokens, List<String> fields) {
+    }
+
+    public static final class Builder {
+
+        private final List<Clause> clauses = new ArrayList<>();
+        private final Map<String, String> filters = new HashMap<>();
+
+        /**
+         * Tìm {@code text} trong các field đã cho, hoặc mọi field nếu không truyền
+         */
+        public Builder match(String text, String... fields) {
+            List<String> tokens = new ArrayList<>();
+            for (String token : VietnameseTextNormalizer.tokenize(text)) {
+                tokens.add(token.length() > SearchDocument.MAX_TERM_LENGTH
+                        ? token.substring(0, SearchDocument.MAX_TERM_LENGTH)
+                        : token);
+            }
+            if (!tokens.isEmpty()) {
+                clauses.add(new Clause(tokens, List.of(fields)));
+            }
+            return this;
+        }
+
+        /**
+         * Lọc bằng; {@code null} thì không lọc
+         */
+        public Builder filter(String key, Object value) {
+            if (value != null) {
+                filters.put(key, SearchDocument.filterValue(value));
+            }
+            return this;
+        }
+
+        public SearchQuery build() {
+            return new SearchQuery(List.copyOf(clauses), Map.copyOf(filters));
+        }
+    }
+}
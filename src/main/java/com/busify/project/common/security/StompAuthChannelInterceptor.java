@@ -0,0 +1,101 @@
+package com.busify.project.common.security;
+
+import com.busify.project.common.security.principal.UserPrincipal;
+import com.busify.project.common.utils.JwtUtils;
+import com.busify.project.notification.controller.NotificationController;
+import lombok.RequiredArgsConstructor;
+import org.springframework.lang.NonNull;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.stereotype.Component;
+
+import java.security.Principal;
+
+/**
+ * Xác thực phiên STOMP bằng cùng JWT như API HTTP và chặn đăng ký hàng đợi riêng của người khác.
+ * <p>
+ * Khi CONNECT, header {@code Authorization: Bearer <token>} (nếu có) gắn người dùng vào phiên.
+ * SUBSCRIBE dưới {@code /queue} chỉ được chấp nhận khi đích đúng bằng {@code /queue/notifications/{userId}}
+ * của người dùng đã xác thực, đích chứa ký tự mẫu ({@code *}, {@code ?}, dấu ngoặc nhọn) bị từ chối, và client không được SEND
+ * thẳng vào {@code /queue}; các topic chung không đổi.
+ * </p>
+ */
+@Component
+@RequiredArgsConstructor
+public class StompAuthChannelInterceptor implements ChannelInterceptor {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+    private static final String QUEUE_ROOT = "/queue";
+
+    private final JwtUtils jwtUtil;
+    private final UserDetailsService userDetailsService;
+
+    @Override
+    public Message<?> preSend(@NonNull Message<?> message, @NonNull MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null) {
+            return message;
+        }
+        if (StompCommand.CONNECT.equals(accessor.getCommand())) {
+            authenticate(accessor);
+        } else if (StompCommand.SUBSCRIBE.equals(accessor.getCommand())) {
+            checkSubscription(accessor.getDestination(), accessor.getUser());
+        } else if (StompCommand.SEND.equals(accessor.getCommand()) && isUserQueue(accessor.getDestination())) {
+            // Chỉ server đẩy vào hàng đợi riêng
+            throw new AccessDeniedException("Không được gửi trực tiếp vào hàng đợi thông báo");
+        }
+        return message;
+    }
+
+    private void authenticate(StompHeaderAccessor accessor) {
+        String authHeader = accessor.getFirstNativeHeader("Authorization");
+        if (authHeader == null || !authHeader.startsWith(BEARER_PREFIX)) {
+            return;
+        }
+        String token = authHeader.substring(BEARER_PREFIX.length());
+        try {
+            UserDetails userDetails = userDetailsService.loadUserByUsername(jwtUtil.extractUsername(token));
+            if (jwtUtil.validateToken(token, userDetails)) {
+                accessor.setUser(new UsernamePasswordAuthenticationToken(userDetails, null,
+                        userDetails.getAuthorities()));
+                return;
+            }
+        } catch (Exception e) {
+            // Rơi xuống lỗi chung bên dưới
+        }
+        throw new AccessDeniedException("Invalid token");
+    }
+
+    private static boolean isUserQueue(String destination) {
+        // Mọi đích dưới /queue đều là hàng đợi riêng, kể cả "/queue" trần
+        return destination != null
+                && (destination.equals(QUEUE_ROOT) || destination.startsWith(QUEUE_ROOT + "/"));
+    }
+
+    private static void checkSubscription(String destination, Principal user) {
+        if (destination == null) {
+            throw new AccessDeniedException("Thiếu đích đăng ký");
+        }
+        // SimpleBroker khớp đích theo mẫu Ant, nên "/queue/**" sẽ nhận thông báo của mọi người dùng
+        if (destination.indexOf('*') >= 0 || destination.indexOf('?') >= 0 || destination.indexOf('{') >= 0) {
+            throw new AccessDeniedException("Không được đăng ký đích dạng mẫu");
+        }
+        if (!isUserQueue(destination)) {
+            return;
+        }
+        if (user instanceof UsernamePasswordAuthenticationToken authentication
+                && authentication.getPrincipal() instanceof UserPrincipal principal
+                && destination.equals(NotificationController.USER_QUEUE_PREFIX + principal.getUser().getId())) {
+            return;
+        }
+        throw new AccessDeniedException("Không được đăng ký nhận thông báo của người dùng khác");
+    }
+}
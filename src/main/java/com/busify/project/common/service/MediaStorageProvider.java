@@ -0,0 +1,27 @@
+package com.busify.project.common.service;
+
+import com.busify.project.common.dto.media.UploadedMedia;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Nơi lưu trữ media thực tế (Cloudinary khi chạy thật, bản in-memory khi test).
+ * Provider nhận file đã được spool ra đĩa để có thể stream lên thay vì giữ toàn bộ trên heap.
+ */
+public interface MediaStorageProvider {
+
+    /**
+     * Upload file từ đĩa lên provider.
+     *
+     * @param source   file tạm trên đĩa
+     * @param folder   thư mục đích (có thể null)
+     * @param publicId publicId mong muốn, không gồm folder
+     */
+    UploadedMedia upload(Path source, String folder, String publicId) throws IOException;
+
+    /**
+     * Xoá file theo publicId (gồm cả folder).
+     */
+    void delete(String publicId) throws IOException;
+}
@@ -0,0 +1,36 @@
+package com.busify.project.common.service;
+
+import com.busify.project.common.dto.media.UploadedMedia;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface MediaUploadService {
+
+    /**
+     * Upload một file (stream từ đĩa, có retry).
+     */
+    UploadedMedia upload(MultipartFile file, String folder);
+
+    /**
+     * Upload song song một lô file trên executor giới hạn. Kết quả giữ đúng thứ tự đầu vào.
+     * Nếu có file thất bại, các file đã upload thành công sẽ bị xoá và ném {@code MediaUploadException}.
+     */
+    List<UploadedMedia> uploadAll(List<MultipartFile> files, String folder);
+
+    /**
+     * Xoá bất đồng bộ các file, lỗi chỉ được log.
+     */
+    void deleteAsync(Collection<String> publicIds);
+
+    /**
+     * Xoá bất đồng bộ sau khi transaction hiện tại commit (xoá ngay nếu không có transaction).
+     */
+    void deleteAfterCommit(Collection<String> publicIds);
+
+    /**
+     * Xoá các file vừa upload nếu transaction hiện tại rollback.
+     */
+    void discardOnRollback(Collection<UploadedMedia> uploads);
+}
@@ -0,0 +1,55 @@
+package com.busify.project.common.service.impl;
+
+import com.busify.project.common.dto.media.UploadedMedia;
+import com.busify.project.common.service.MediaStorageProvider;
+import com.cloudinary.Cloudinary;
+import com.cloudinary.utils.ObjectUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Map;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CloudinaryMediaStorageProvider implements MediaStorageProvider {
+
+    private final Cloudinary cloudinary;
+
+    @Override
+    public UploadedMedia upload(Path source, String folder, String publicId) throws IOException {
+        @SuppressWarnings("unchecked")
+        Map<String, Object> uploadParams = (Map<String, Object>) ObjectUtils.asMap(
+                "resource_type", "auto",
+                "public_id", publicId);
+        if (folder != null && !folder.trim().isEmpty()) {
+            uploadParams.put("folder", folder);
+        }
+
+        // Truyền File thay vì byte[] để SDK stream multipart trực tiếp từ đĩa
+        @SuppressWarnings("unchecked")
+        Map<String, Object> uploadResult = (Map<String, Object>) cloudinary.uploader()
+                .upload(source.toFile(), uploadParams);
+
+        String url = (String) uploadResult.get("secure_url");
+        log.info("File uploaded successfully to Cloudinary: {}", url);
+        return new UploadedMedia(url, (String) uploadResult.get("public_id"));
+    }
+
+    @Override
+    public void delete(String publicId) throws IOException {
+        @SuppressWarnings("unchecked")
+        Map<String, Object> deleteResult = (Map<String, Object>) cloudinary.uploader().destroy(publicId,
+                ObjectUtils.emptyMap());
+        String result = (String) deleteResult.get("result");
+
+        if ("ok".equals(result)) {
+            log.info("File deleted successfully from Cloudinary: {}", publicId);
+        } else {
+            log.warn("Failed to delete file from Cloudinary: {}. Result: {}", publicId, result);
+        }
+    }
+}
@@ -1,17 +1,15 @@
 package com.busify.project.common.service.impl;
 
+import com.busify.project.common.exception.MediaUploadException;
 import com.busify.project.common.service.CloudinaryService;
-import com.cloudinary.Cloudinary;
-import com.cloudinary.utils.ObjectUtils;
+import com.busify.project.common.service.MediaStorageProvider;
+import com.busify.project.common.service.MediaUploadService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
-import java.util.Arrays;
-import java.util.List;
-import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -20,67 +18,15 @@ import java.util.regex.Pattern;
 @Slf4j
 public class CloudinaryServiceImpl implements CloudinaryService {
 
-    private final Cloudinary cloudinary;
-
-    // Allowed file types for uploads
-    private static final List<String> ALLOWED_IMAGE_TYPES = Arrays.asList(
-            "image/jpeg", "image/jpg", "image/png", "image/gif", "image/bmp", "image/webp");
-
-    private static final List<String> ALLOWED_DOCUMENT_TYPES = Arrays.asList(
-            "application/pdf", "application/msword",
-            "application/vnd.openxmlformats-officedocument.wordprocessingml.document");
-
-    // Max file size (5MB)
-    private static final long MAX_FILE_SIZE = 5 * 1024 * 1024;
+    private final MediaUploadService mediaUploadService;
+    private final MediaStorageProvider storageProvider;
 
     @Override
     public String uploadFile(MultipartFile file, String folder) throws Exception {
-        if (file == null || file.isEmpty()) {
-            throw new IllegalArgumentException("File cannot be null or empty");
-        }
-
-        // Validate file size
-        if (file.getSize() > MAX_FILE_SIZE) {
-            throw new IllegalArgumentException("File size cannot exceed 5MB");
-        }
-
-        // Validate file type
-        String contentType = file.getContentType();
-        if (contentType == null || (!ALLOWED_IMAGE_TYPES.contains(contentType) &&
-                !ALLOWED_DOCUMENT_TYPES.contains(contentType))) {
-            throw new IllegalArgumentException("Invalid file type. Only images and PDF/DOC files are allowed");
-        }
-
+        // Validate + spool ra đĩa + stream lên Cloudinary (không buffer toàn bộ file trên heap)
         try {
-            @SuppressWarnings("unchecked")
-            Map<String, Object> uploadParams = (Map<String, Object>) ObjectUtils.asMap(
-                    "resource_type", "auto");
-
-            // Add folder if specified
-            if (folder != null && !folder.trim().isEmpty()) {
-                uploadParams.put("folder", folder);
-            }
-
-            // Generate unique filename
-            String originalFilename = file.getOriginalFilename();
-            String fileExtension = "";
-            if (originalFilename != null && originalFilename.contains(".")) {
-                fileExtension = originalFilename.substring(originalFilename.lastIndexOf("."));
-            }
-
-            String publicId = "file_" + System.currentTimeMillis() + fileExtension;
-            uploadParams.put("public_id", publicId);
-
-            @SuppressWarnings("unchecked")
-            Map<String, Object> uploadResult = (Map<String, Object>) cloudinary.uploader().upload(file.getBytes(),
-                    uploadParams);
-
-            String uploadedUrl = (String) uploadResult.get("secure_url");
-            log.info("File uploaded successfully to Cloudinary: {}", uploadedUrl);
-
-            return uploadedUrl;
-
-        } catch (IOException e) {
+            return mediaUploadService.upload(file, folder).getUrl();
+        } catch (MediaUploadException e) {
             log.error("Error uploading file to Cloudinary", e);
             throw new Exception("Failed to upload file to Cloudinary: " + e.getMessage());
         }
@@ -93,18 +39,7 @@ public class CloudinaryServiceImpl implements CloudinaryService {
         }
 
         try {
-            @SuppressWarnings("unchecked")
-            Map<String, Object> deleteResult = (Map<String, Object>) cloudinary.uploader().destroy(publicId,
-                    ObjectUtils.emptyMap());
-            String result = (String) deleteResult.get("result");
-
-            boolean success = "ok".equals(result);
-            if (success) {
-                log.info("File deleted successfully from Cloudinary: {}", publicId);
-            } else {
-                log.warn("Failed to delete file from Cloudinary: {}. Result: {}", publicId, result);
-            }
-
+            storageProvider.delete(publicId);
         } catch (IOException e) {
             log.error("Error deleting file from Cloudinary: {}", publicId, e);
             throw new Exception("Failed to delete file from Cloudinary: " + e.getMessage());
@@ -0,0 +1,238 @@
+package com.busify.project.common.service.impl;
+
+import com.busify.project.common.dto.media.UploadedMedia;
+import com.busify.project.common.exception.MediaUploadException;
+import com.busify.project.common.service.MediaStorageProvider;
+import com.busify.project.common.service.MediaUploadService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Upload media theo lô: mỗi file được spool ra file tạm (không gọi {@code getBytes()}),
+ * sau đó stream lên provider song song trên {@code mediaUploadExecutor}.
+ */
+@Service
+@Slf4j
+public class MediaUploadServiceImpl implements MediaUploadService {
+
+    private static final List<String> ALLOWED_IMAGE_TYPES = Arrays.asList(
+            "image/jpeg", "image/jpg", "image/png", "image/gif", "image/bmp", "image/webp");
+
+    private static final List<String> ALLOWED_DOCUMENT_TYPES = Arrays.asList(
+            "application/pdf", "application/msword",
+            "application/vnd.openxmlformats-officedocument.wordprocessingml.document");
+
+    // Max file size (5MB)
+    private static final long MAX_FILE_SIZE = 5 * 1024 * 1024;
+
+    private static final int MAX_ATTEMPTS = 2;
+
+    private final MediaStorageProvider storageProvider;
+    private final Executor executor;
+    private final long batchTimeoutSeconds;
+
+    public MediaUploadServiceImpl(MediaStorageProvider storageProvider,
+                                  @Qualifier("mediaUploadExecutor") Executor executor,
+                                  @Value("${busify.media.upload.batch-timeout-seconds:120}") long batchTimeoutSeconds) {
+        this.storageProvider = storageProvider;
+        this.executor = executor;
+        this.batchTimeoutSeconds = batchTimeoutSeconds;
+    }
+
+    @Override
+    public UploadedMedia upload(MultipartFile file, String folder) {
+        validate(file);
+        Path spooled = spool(file);
+        try {
+            return uploadWithRetry(spooled, folder, buildPublicId(file));
+        } finally {
+            deleteQuietly(spooled);
+        }
+    }
+
+    @Override
+    public List<UploadedMedia> uploadAll(List<MultipartFile> files, String folder) {
+        if (files == null || files.isEmpty()) {
+            return List.of();
+        }
+        // Validate toàn bộ trước khi upload để không tốn băng thông cho lô sẽ bị từ chối
+        files.forEach(this::validate);
+
+        // Spool trên thread request vì MultipartFile gắn với vòng đời request
+        List<Path> spooled = new ArrayList<>(files.size());
+        try {
+            for (MultipartFile file : files) {
+                spooled.add(spool(file));
+            }
+        } catch (RuntimeException e) {
+            spooled.forEach(MediaUploadServiceImpl::deleteQuietly);
+            throw e;
+        }
+
+        List<CompletableFuture<UploadedMedia>> futures = new ArrayList<>(files.size());
+        for (int i = 0; i < files.size(); i++) {
+            Path source = spooled.get(i);
+            String publicId = buildPublicId(files.get(i));
+            futures.add(CompletableFuture
+                    .supplyAsync(() -> uploadWithRetry(source, folder, publicId), executor)
+                    .whenComplete((r, ex) -> deleteQuietly(source)));
+        }
+
+        try {
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+                    .get(batchTimeoutSeconds, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            // Lô thất bại: xoá mọi file đã (hoặc sẽ) upload thành công để không để lại rác trên provider
+            futures.forEach(f -> f.thenAccept(m -> deleteAsync(List.of(m.getPublicId()))));
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            throw new MediaUploadException("Không thể upload ảnh: " + rootMessage(e), e);
+        }
+
+        return futures.stream().map(CompletableFuture::join).toList();
+    }
+
+    @Override
+    public void deleteAsync(Collection<String> publicIds) {
+        if (publicIds == null || publicIds.isEmpty()) {
+            return;
+        }
+        List<String> ids = publicIds.stream().filter(Objects::nonNull).filter(id -> !id.isBlank()).toList();
+        for (String publicId : ids) {
+            CompletableFuture.runAsync(() -> {
+                try {
+                    storageProvider.delete(publicId);
+                } catch (Exception e) {
+                    log.warn("Không xóa được media {}: {}", publicId, e.getMessage());
+                }
+            }, executor);
+        }
+    }
+
+    @Override
+    public void deleteAfterCommit(Collection<String> publicIds) {
+        if (publicIds == null || publicIds.isEmpty()) {
+            return;
+        }
+        List<String> ids = List.copyOf(publicIds);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            deleteAsync(ids);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                deleteAsync(ids);
+            }
+        });
+    }
+
+    @Override
+    public void discardOnRollback(Collection<UploadedMedia> uploads) {
+        if (uploads == null || uploads.isEmpty()
+                || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        List<String> ids = uploads.stream().map(UploadedMedia::getPublicId).toList();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    deleteAsync(ids);
+                }
+            }
+        });
+    }
+
+    private UploadedMedia uploadWithRetry(Path source, String folder, String publicId) {
+        // Thử upload với 1 retry để giảm lỗi timeout tạm thời
+        Exception lastEx = null;
+        for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+            try {
+                return storageProvider.upload(source, folder, publicId);
+            } catch (Exception ex) {
+                lastEx = ex;
+                log.warn("Upload media thất bại attempt {}/{}: {}", attempt, MAX_ATTEMPTS, ex.getMessage());
+            }
+        }
+        throw new MediaUploadException("Failed to upload file: " + lastEx.getMessage(), lastEx);
+    }
+
+    private void validate(MultipartFile file) {
+        if (file == null || file.isEmpty()) {
+            throw new IllegalArgumentException("File cannot be null or empty");
+        }
+        if (file.getSize() > MAX_FILE_SIZE) {
+            throw new IllegalArgumentException("File size cannot exceed 5MB");
+        }
+        String contentType = file.getContentType();
+        if (contentType == null || (!ALLOWED_IMAGE_TYPES.contains(contentType) &&
+                !ALLOWED_DOCUMENT_TYPES.contains(contentType))) {
+            throw new IllegalArgumentException("Invalid file type. Only images and PDF/DOC files are allowed");
+        }
+    }
+
+    private Path spool(MultipartFile file) {
+        try {
+            Path temp = Files.createTempFile("busify-upload-", ".part");
+            // transferTo di chuyển/copy phần multipart ra đĩa mà không nạp toàn bộ lên heap
+            file.transferTo(temp);
+            return temp;
+        } catch (IOException e) {
+            throw new MediaUploadException("Không thể đọc file upload: " + e.getMessage(), e);
+        }
+    }
+
+    private String buildPublicId(MultipartFile file) {
+        String originalFilename = file.getOriginalFilename();
+        String fileExtension = "";
+        if (originalFilename != null && originalFilename.contains(".")) {
+            fileExtension = originalFilename.substring(originalFilename.lastIndexOf("."));
+        }
+        // Thêm hậu tố ngẫu nhiên vì các file trong cùng lô được upload trong cùng mili-giây
+        return "file_" + System.currentTimeMillis() + "_"
+                + Integer.toHexString(ThreadLocalRandom.current().nextInt(0x10000, 0xFFFFF)) + fileExtension;
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.debug("Không xoá được file tạm {}: {}", path, e.getMessage());
+        }
+    }
+
+    private static String rootMessage(Throwable e) {
+        Throwable cause = e;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException)
+                && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        if (cause instanceof MediaUploadException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause instanceof TimeoutException ? "quá thời gian chờ upload" : String.valueOf(cause.getMessage());
+    }
+}
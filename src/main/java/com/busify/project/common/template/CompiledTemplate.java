@@ -0,0 +1,103 @@
+package com.busify.project.common.template;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable, pre-parsed form of a text template.
+ * <p>
+ * The source is split once into literal fragments and {@code {{name}}} slots so
+ * rendering is a straight walk over two arrays that appends into a caller
+ * supplied buffer, with no regex or {@code String.format} parsing per call.
+ * Instances are safe to share between threads.
+ * </p>
+ */
+public final class CompiledTemplate {
+
+    private static final String OPEN = "{{";
+    private static final String CLOSE = "}}";
+
+    private final String name;
+    private final String[] literals;
+    private final String[] slots;
+    private final int literalLength;
+
+    private CompiledTemplate(String name, String[] literals, String[] slots) {
+        this.name = name;
+        this.literals = literals;
+        this.slots = slots;
+        int length = 0;
+        for (String literal : literals) {
+            length += literal.length();
+        }
+        this.literalLength = length;
+    }
+
+    /**
+     * Parses a template source into its compiled form
+     *
+     * @param name   template name, used in error messages
+     * @param source raw template text containing {@code {{slot}}} placeholders
+     * @return the compiled template
+     * @throws IllegalArgumentException if a placeholder is not closed or empty
+     */
+    public static CompiledTemplate compile(String name, String source) {
+        List<String> literals = new ArrayList<>();
+        List<String> slots = new ArrayList<>();
+
+        int cursor = 0;
+        while (true) {
+            int open = source.indexOf(OPEN, cursor);
+            if (open < 0) {
+                literals.add(source.substring(cursor));
+                break;
+            }
+            int close = source.indexOf(CLOSE, open + OPEN.length());
+            if (close < 0) {
+                throw new IllegalArgumentException("Unclosed placeholder in template '" + name + "' at " + open);
+            }
+            String slot = source.substring(open + OPEN.length(), close).trim();
+            if (slot.isEmpty()) {
+                throw new IllegalArgumentException("Empty placeholder in template '" + name + "' at " + open);
+            }
+            literals.add(source.substring(cursor, open));
+            slots.add(slot.intern());
+            cursor = close + CLOSE.length();
+        }
+
+        return new CompiledTemplate(name, literals.toArray(String[]::new), slots.toArray(String[]::new));
+    }
+
+    /**
+     * Appends the rendered template to {@code out}
+     * <p>
+     * Missing or {@code null} values render as an empty string.
+     * </p>
+     *
+     * @param out    target buffer
+     * @param values slot values keyed by placeholder name
+     */
+    public void renderTo(StringBuilder out, Map<String, ?> values) {
+        out.ensureCapacity(out.length() + literalLength + slots.length * 16);
+        for (int i = 0; i < slots.length; i++) {
+            out.append(literals[i]);
+            Object value = values.get(slots[i]);
+            if (value != null) {
+                out.append(value);
+            }
+        }
+        out.append(literals[slots.length]);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return size of the static text, used to pre-size render buffers
+     */
+    public int getLiteralLength() {
+        return literalLength;
+    }
+}
@@ -0,0 +1,141 @@
+package com.busify.project.common.template;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Loads every {@code templates/email/*.html} resource once at startup and
+ * renders them into per-thread reusable buffers.
+ */
+@Component
+@Slf4j
+public class EmailTemplateEngine {
+
+    private static final String TEMPLATE_LOCATION = "classpath*:templates/email/*.html";
+    private static final String TEMPLATE_SUFFIX = ".html";
+
+    // Buffers above this size are dropped after use so one huge mail does not pin memory
+    private static final int MAX_RETAINED_BUFFER = 256 * 1024;
+
+    private final ThreadLocal<StringBuilder> documentBuffer = ThreadLocal.withInitial(() -> new StringBuilder(8192));
+    private final ThreadLocal<StringBuilder> fragmentBuffer = ThreadLocal.withInitial(() -> new StringBuilder(2048));
+
+    private Map<String, CompiledTemplate> templates = Map.of();
+
+    @PostConstruct
+    public void loadTemplates() throws IOException {
+        Map<String, CompiledTemplate> compiled = new HashMap<>();
+        Resource[] resources = new PathMatchingResourcePatternResolver().getResources(TEMPLATE_LOCATION);
+        for (Resource resource : resources) {
+            String filename = resource.getFilename();
+            if (filename == null) {
+                continue;
+            }
+            String name = filename.substring(0, filename.length() - TEMPLATE_SUFFIX.length());
+            try (InputStream in = resource.getInputStream()) {
+                String source = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+                compiled.put(name, CompiledTemplate.compile(name, source));
+            }
+        }
+        this.templates = Map.copyOf(compiled);
+        log.info("Compiled {} email templates", templates.size());
+    }
+
+    /**
+     * Renders a full document template
+     *
+     * @param name   template name without extension
+     * @param values slot values
+     * @return rendered text
+     */
+    public String render(String name, Map<String, ?> values) {
+        return renderWith(documentBuffer, getTemplate(name), values);
+    }
+
+    /**
+     * Renders a fragment template once per item and concatenates the results,
+     * typically used to build ticket rows that are then passed into a document
+     * template
+     *
+     * @param name   fragment template name without extension
+     * @param items  items to render
+     * @param mapper maps each item to its slot values
+     * @return concatenated fragments
+     */
+    public <T> String renderEach(String name, Iterable<T> items, Function<T, Map<String, ?>> mapper) {
+        CompiledTemplate template = getTemplate(name);
+        StringBuilder out = fragmentBuffer.get();
+        out.setLength(0);
+        try {
+            for (T item : items) {
+                template.renderTo(out, mapper.apply(item));
+            }
+            return out.toString();
+        } finally {
+            release(fragmentBuffer, out);
+        }
+    }
+
+    /**
+     * Renders a fragment template into a standalone string
+     */
+    public String renderFragment(String name, Map<String, ?> values) {
+        return renderWith(fragmentBuffer, getTemplate(name), values);
+    }
+
+    /**
+     * Builds a slot map from alternating key/value arguments. Unlike
+     * {@code Map.of} it accepts {@code null} values, which render as empty.
+     */
+    public static Map<String, Object> model(Object... keyValues) {
+        if (keyValues.length % 2 != 0) {
+            throw new IllegalArgumentException("Template model requires key/value pairs");
+        }
+        Map<String, Object> model = new HashMap<>(keyValues.length);
+        for (int i = 0; i < keyValues.length; i += 2) {
+            model.put((String) keyValues[i], keyValues[i + 1]);
+        }
+        return model;
+    }
+
+    public boolean hasTemplate(String name) {
+        return templates.containsKey(name);
+    }
+
+    private String renderWith(ThreadLocal<StringBuilder> buffer, CompiledTemplate template, Map<String, ?> values) {
+        StringBuilder out = buffer.get();
+        out.setLength(0);
+        try {
+            template.renderTo(out, values);
+            return out.toString();
+        } finally {
+            release(buffer, out);
+        }
+    }
+
+    private void release(ThreadLocal<StringBuilder> buffer, StringBuilder out) {
+        if (out.capacity() > MAX_RETAINED_BUFFER) {
+            buffer.remove();
+        } else {
+            out.setLength(0);
+        }
+    }
+
+    private CompiledTemplate getTemplate(String name) {
+        CompiledTemplate template = templates.get(name);
+        if (template == null) {
+            throw new IllegalArgumentException("Email template not found: " + name);
+        }
+        return template;
+    }
+}
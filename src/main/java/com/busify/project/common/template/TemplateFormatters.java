@@ -0,0 +1,37 @@
+package com.busify.project.common.template;
+
+import java.text.NumberFormat;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAccessor;
+import java.util.Locale;
+
+/**
+ * Shared formatters for emails and generated documents.
+ * <p>
+ * {@link DateTimeFormatter} is immutable and shared directly. {@link NumberFormat}
+ * is not thread-safe, so each thread keeps its own instance instead of creating
+ * a new one on every send.
+ * </p>
+ */
+public final class TemplateFormatters {
+
+    public static final ZoneId VIETNAM_ZONE = ZoneId.of("Asia/Ho_Chi_Minh");
+
+    public static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("HH:mm dd/MM/yyyy")
+            .withZone(VIETNAM_ZONE);
+
+    private static final ThreadLocal<NumberFormat> CURRENCY = ThreadLocal
+            .withInitial(() -> NumberFormat.getInstance(new Locale("vi", "VN")));
+
+    private TemplateFormatters() {
+    }
+
+    public static String formatDateTime(TemporalAccessor temporal) {
+        return temporal == null ? "" : DATE_TIME.format(temporal);
+    }
+
+    public static String formatCurrency(Number amount) {
+        return amount == null ? "" : CURRENCY.get().format(amount);
+    }
+}
@@ -0,0 +1,84 @@
+package com.busify.project.common.utils;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Accent-insensitive text helpers for Vietnamese input.
+ * <p>
+ * Folding lowercases the text, strips combining diacritics and maps
+ * {@code đ/Đ} to {@code d}, so "Đà Nẵng", "da nang" and "DA NANG" all
+ * produce the same key.
+ * </p>
+ */
+public final class VietnameseTextNormalizer {
+
+    private VietnameseTextNormalizer() {
+    }
+
+    /**
+     * Lowercases and removes Vietnamese diacritics, keeping every other character
+     *
+     * @param text input text, may be {@code null}
+     * @return folded text, empty for {@code null}
+     */
+    public static String fold(String text) {
+        if (text == null || text.isEmpty()) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        StringBuilder out = new StringBuilder(decomposed.length());
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            if (c == 'đ' || c == 'Đ') {
+                out.append('d');
+            } else {
+                out.append(Character.toLowerCase(c));
+            }
+        }
+        return out.toString();
+    }
+
+    /**
+     * Folds the text and collapses every run of non letter/digit characters
+     * into a single space, e.g. "Chính sách hoàn tiền?" → "chinh sach hoan tien"
+     */
+    public static String normalize(String text) {
+        String folded = fold(text);
+        StringBuilder out = new StringBuilder(folded.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < folded.length(); i++) {
+            char c = folded.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                if (pendingSpace && out.length() > 0) {
+                    out.append(' ');
+                }
+                out.append(c);
+                pendingSpace = false;
+            } else {
+                pendingSpace = true;
+            }
+        }
+        return out.toString();
+    }
+
+    /**
+     * Splits normalized text into tokens
+     */
+    public static List<String> tokenize(String text) {
+        String normalized = normalize(text);
+        List<String> tokens = new ArrayList<>();
+        if (normalized.isEmpty()) {
+            return tokens;
+        }
+        for (String token : normalized.split(" ")) {
+            tokens.add(token.toLowerCase(Locale.ROOT));
+        }
+        return tokens;
+    }
+}
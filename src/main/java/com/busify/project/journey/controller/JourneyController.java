@@ -0,0 +1,57 @@
+package com.busify.project.journey.controller;
+
+import com.busify.project.common.dto.response.ApiResponse;
+import com.busify.project.journey.dto.response.JourneyItineraryDTO;
+import com.busify.project.journey.service.JourneyPlannerService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+@RestController
+@RequestMapping("/api/journeys")
+@RequiredArgsConstructor
+@Tag(name = "Journeys", description = "Multi-leg Journey Planner API")
+public class JourneyController {
+
+    private final JourneyPlannerService journeyPlannerService;
+
+    /**
+     * Tìm hành trình (có thể chuyển xe, lên/xuống ở điểm dừng giữa tuyến)
+     * GET /api/journeys?originCity=Hà Nội&destinationId=12&date=2025-08-20&maxTransfers=2
+     */
+    @Operation(summary = "Plan multi-leg journeys between two locations or cities")
+    @GetMapping
+    public ApiResponse<List<JourneyItineraryDTO>> planJourney(
+            @RequestParam(required = false) Long originId,
+            @RequestParam(required = false) String originCity,
+            @RequestParam(required = false) Long destinationId,
+            @RequestParam(required = false) String destinationCity,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(defaultValue = "2") int maxTransfers
+    ) {
+        Set<Long> origins = resolve(originId, originCity);
+        Set<Long> destinations = resolve(destinationId, destinationCity);
+        if (origins.isEmpty() || destinations.isEmpty()) {
+            return ApiResponse.badRequest("Điểm đi hoặc điểm đến không hợp lệ");
+        }
+        List<JourneyItineraryDTO> itineraries = journeyPlannerService.plan(origins, destinations, date,
+                Math.min(Math.max(maxTransfers, 0), 3));
+        return ApiResponse.success("Tìm hành trình thành công", itineraries);
+    }
+
+    private Set<Long> resolve(Long locationId, String city) {
+        if (locationId != null) {
+            return Set.of(locationId);
+        }
+        return city == null ? Set.of() : journeyPlannerService.findLocationIdsByCity(city);
+    }
+}
@@ -0,0 +1,23 @@
+package com.busify.project.journey.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class JourneyItineraryDTO {
+    private Instant departureTime;
+    private Instant arrivalTime;
+    private long durationMinutes;
+    private int transfers;
+    private BigDecimal totalPrice;
+    private List<JourneyLegDTO> legs;
+}
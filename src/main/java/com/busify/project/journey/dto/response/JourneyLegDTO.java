@@ -0,0 +1,28 @@
+package com.busify.project.journey.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class JourneyLegDTO {
+    private Long tripId;
+    private Long routeId;
+    private String routeName;
+    private String operatorName;
+    private Long fromLocationId;
+    private String fromLocationName;
+    private Long toLocationId;
+    private String toLocationName;
+    // Giờ dự kiến lên/xuống xe tại điểm dừng của chặng này
+    private Instant departureTime;
+    private Instant arrivalTime;
+    private BigDecimal pricePerSeat;
+}
@@ -0,0 +1,17 @@
+package com.busify.project.journey.planner;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Một phương án hành trình: các chặng nối tiếp nhau, mỗi chặng đi trên một chuyến.
+ */
+public record Itinerary(List<Leg> legs, long departureTime, long arrivalTime, int transfers, BigDecimal totalPrice) {
+
+    /**
+     * @param fromLocationId điểm lên xe
+     * @param toLocationId   điểm xuống xe
+     */
+    public record Leg(TripSchedule trip, long fromLocationId, long toLocationId, long departureTime, long arrivalTime) {
+    }
+}
@@ -0,0 +1,71 @@
+package com.busify.project.journey.planner;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Snapshot bất biến của mạng lưới chuyến dùng cho {@link JourneyPlanner}.
+ * Location id được ánh xạ sang chỉ số điểm dừng liên tục; mỗi điểm dừng biết các (chuyến, vị trí) đi qua nó.
+ */
+public final class JourneyNetwork {
+
+    private static final JourneyNetwork EMPTY = build(List.of());
+
+    final TripSchedule[] trips;
+    // Chỉ số điểm dừng theo thứ tự của từng chuyến
+    final int[][] tripStops;
+    // Với mỗi điểm dừng: cặp (chỉ số chuyến, vị trí trong chuyến) gói trong long
+    final long[][] stopVisits;
+    final Map<Long, Integer> stopIndex;
+
+    private JourneyNetwork(TripSchedule[] trips, int[][] tripStops, long[][] stopVisits, Map<Long, Integer> stopIndex) {
+        this.trips = trips;
+        this.tripStops = tripStops;
+        this.stopVisits = stopVisits;
+        this.stopIndex = stopIndex;
+    }
+
+    public static JourneyNetwork empty() {
+        return EMPTY;
+    }
+
+    public static JourneyNetwork build(Collection<TripSchedule> schedules) {
+        TripSchedule[] trips = schedules.stream()
+                .sorted(Comparator.comparingLong(TripSchedule::departureTime).thenComparingLong(TripSchedule::tripId))
+                .toArray(TripSchedule[]::new);
+
+        Map<Long, Integer> stopIndex = new HashMap<>();
+        int[][] tripStops = new int[trips.length][];
+        List<List<Long>> visits = new ArrayList<>();
+        for (int t = 0; t < trips.length; t++) {
+            long[] locationIds = trips[t].locationIds();
+            tripStops[t] = new int[locationIds.length];
+            for (int i = 0; i < locationIds.length; i++) {
+                int stop = stopIndex.computeIfAbsent(locationIds[i], id -> {
+                    visits.add(new ArrayList<>());
+                    return visits.size() - 1;
+                });
+                tripStops[t][i] = stop;
+                visits.get(stop).add(((long) t << 32) | i);
+            }
+        }
+
+        long[][] stopVisits = new long[visits.size()][];
+        for (int s = 0; s < stopVisits.length; s++) {
+            stopVisits[s] = visits.get(s).stream().mapToLong(Long::longValue).toArray();
+        }
+        return new JourneyNetwork(trips, tripStops, stopVisits, Map.copyOf(stopIndex));
+    }
+
+    public int tripCount() {
+        return trips.length;
+    }
+
+    public int stopCount() {
+        return stopVisits.length;
+    }
+}
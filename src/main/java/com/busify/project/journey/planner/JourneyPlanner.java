@@ -0,0 +1,202 @@
+package com.busify.project.journey.planner;
+
+import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tìm hành trình nhiều chặng theo kiểu RAPTOR trên {@link JourneyNetwork}.
+ * <p>
+ * Vòng k tương ứng với việc đi trên k chuyến (k - 1 lần chuyển xe). Ở mỗi vòng, chỉ các chuyến đi qua
+ * điểm dừng vừa được cải thiện ở vòng trước mới được quét, từ vị trí sớm nhất có thể lên xe.
+ * Mỗi điểm dừng giữ một "túi" nhãn Pareto theo (giờ đến, tổng giá); nhãn của vòng sau chỉ được giữ nếu
+ * không bị nhãn nào có ít lần chuyển hơn hoặc bằng lấn át. Kết quả là tập Pareto theo
+ * (giờ đến sớm nhất, ít chuyển xe nhất, rẻ nhất).
+ * </p>
+ */
+public final class JourneyPlanner {
+
+    private JourneyPlanner() {
+    }
+
+    /**
+     * @param earliestDeparture  không lên chuyến đầu tiên trước thời điểm này (epoch giây)
+     * @param latestDeparture    chuyến đầu tiên phải khởi hành trước thời điểm này (epoch giây)
+     * @param maxTransfers       số lần chuyển xe tối đa
+     * @param minTransferSeconds thời gian tối thiểu giữa hai chuyến tại cùng điểm dừng
+     */
+    public static List<Itinerary> plan(JourneyNetwork network,
+                                       Collection<Long> originLocationIds,
+                                       Collection<Long> destinationLocationIds,
+                                       long earliestDeparture,
+                                       long latestDeparture,
+                                       int maxTransfers,
+                                       long minTransferSeconds) {
+        int stopCount = network.stopCount();
+        boolean[] isTarget = new boolean[stopCount];
+        boolean anyTarget = false;
+        for (Long id : destinationLocationIds) {
+            Integer stop = network.stopIndex.get(id);
+            if (stop != null) {
+                isTarget[stop] = true;
+                anyTarget = true;
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        List<Label>[] previous = new List[stopCount];
+        @SuppressWarnings("unchecked")
+        List<Label>[] best = new List[stopCount];
+        List<Integer> marked = new ArrayList<>();
+        for (Long id : originLocationIds) {
+            Integer stop = network.stopIndex.get(id);
+            if (stop != null && previous[stop] == null && !isTarget[stop]) {
+                Label origin = new Label(stop, earliestDeparture, 0L, 0, null, -1, -1, -1);
+                previous[stop] = new ArrayList<>(List.of(origin));
+                best[stop] = new ArrayList<>(List.of(origin));
+                marked.add(stop);
+            }
+        }
+        if (!anyTarget || marked.isEmpty()) {
+            return List.of();
+        }
+
+        List<Label> arrivals = new ArrayList<>();
+        for (int round = 1; round <= maxTransfers + 1 && !marked.isEmpty(); round++) {
+            // Chuyến cần quét -> vị trí sớm nhất có nhãn mới
+            Map<Integer, Integer> tripsToScan = new HashMap<>();
+            for (int stop : marked) {
+                for (long visit : network.stopVisits[stop]) {
+                    tripsToScan.merge((int) (visit >>> 32), (int) visit, Math::min);
+                }
+            }
+
+            @SuppressWarnings("unchecked")
+            List<Label>[] current = new List[stopCount];
+            List<Integer> nextMarked = new ArrayList<>();
+
+            for (Map.Entry<Integer, Integer> entry : tripsToScan.entrySet()) {
+                int t = entry.getKey();
+                TripSchedule trip = network.trips[t];
+                int[] stops = network.tripStops[t];
+                long[] times = trip.times();
+                long price = toMinorUnits(trip.pricePerSeat());
+
+                Label boardedFrom = null;
+                int boardPosition = -1;
+                long onboardCost = Long.MAX_VALUE;
+                for (int i = entry.getValue(); i < stops.length; i++) {
+                    int stop = stops[i];
+                    // Xuống xe trước rồi mới xét lên xe tại cùng điểm
+                    if (boardedFrom != null) {
+                        Label candidate = new Label(stop, times[i], onboardCost, round, boardedFrom, t, boardPosition, i);
+                        if (addIfNotDominated(best, candidate)) {
+                            if (current[stop] == null) {
+                                current[stop] = new ArrayList<>();
+                                nextMarked.add(stop);
+                            }
+                            current[stop].add(candidate);
+                            if (isTarget[stop]) {
+                                arrivals.add(candidate);
+                            }
+                        }
+                    }
+                    if (previous[stop] == null) {
+                        continue;
+                    }
+                    for (Label label : previous[stop]) {
+                        boolean first = label.trip < 0;
+                        long ready = first ? label.arrival : label.arrival + minTransferSeconds;
+                        if (ready > times[i] || (first && times[i] > latestDeparture)) {
+                            continue;
+                        }
+                        long cost = label.cost + price;
+                        if (cost < onboardCost) {
+                            onboardCost = cost;
+                            boardedFrom = label;
+                            boardPosition = i;
+                        }
+                    }
+                }
+            }
+
+            // Không lên tiếp từ điểm đích
+            nextMarked.removeIf(stop -> isTarget[stop]);
+            previous = current;
+            marked = nextMarked;
+        }
+
+        return paretoItineraries(network, arrivals);
+    }
+
+    private static boolean addIfNotDominated(List<Label>[] best, Label candidate) {
+        List<Label> bag = best[candidate.stop];
+        if (bag == null) {
+            bag = new ArrayList<>();
+            best[candidate.stop] = bag;
+        } else {
+            for (Label existing : bag) {
+                // Nhãn trong túi luôn có số vòng <= vòng hiện tại
+                if (existing.arrival <= candidate.arrival && existing.cost <= candidate.cost) {
+                    return false;
+                }
+            }
+            // Chỉ loại nhãn cùng vòng; nhãn ít chuyển xe hơn vẫn là phương án Pareto riêng
+            bag.removeIf(existing -> existing.round == candidate.round
+                    && candidate.arrival <= existing.arrival && candidate.cost <= existing.cost);
+        }
+        bag.add(candidate);
+        return true;
+    }
+
+    private static List<Itinerary> paretoItineraries(JourneyNetwork network, List<Label> arrivals) {
+        arrivals.sort(Comparator.comparingLong((Label l) -> l.arrival)
+                .thenComparingInt(l -> l.round)
+                .thenComparingLong(l -> l.cost));
+        List<Label> front = new ArrayList<>();
+        for (Label candidate : arrivals) {
+            boolean dominated = false;
+            for (Label kept : front) {
+                if (kept.arrival <= candidate.arrival && kept.round <= candidate.round && kept.cost <= candidate.cost) {
+                    dominated = true;
+                    break;
+                }
+            }
+            if (!dominated) {
+                front.add(candidate);
+            }
+        }
+
+        List<Itinerary> itineraries = new ArrayList<>(front.size());
+        for (Label last : front) {
+            Deque<Itinerary.Leg> legs = new ArrayDeque<>();
+            for (Label label = last; label.trip >= 0; label = label.parent) {
+                TripSchedule trip = network.trips[label.trip];
+                legs.addFirst(new Itinerary.Leg(trip,
+                        trip.locationIds()[label.boardPosition], trip.locationIds()[label.alightPosition],
+                        trip.times()[label.boardPosition], trip.times()[label.alightPosition]));
+            }
+            List<Itinerary.Leg> legList = List.copyOf(legs);
+            itineraries.add(new Itinerary(legList, legList.get(0).departureTime(), last.arrival,
+                    legList.size() - 1, BigDecimal.valueOf(last.cost, 2)));
+        }
+        return itineraries;
+    }
+
+    private static long toMinorUnits(BigDecimal price) {
+        return price == null ? 0L : price.movePointRight(2).longValue();
+    }
+
+    /**
+     * Nhãn tại một điểm dừng: đến lúc {@code arrival} với tổng giá {@code cost} sau {@code round} chuyến.
+     */
+    private record Label(int stop, long arrival, long cost, int round, Label parent,
+                         int trip, int boardPosition, int alightPosition) {
+    }
+}
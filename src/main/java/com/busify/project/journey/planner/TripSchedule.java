@@ -0,0 +1,28 @@
+package com.busify.project.journey.planner;
+
+import java.math.BigDecimal;
+
+/**
+ * Lịch chạy của một chuyến qua các điểm dừng theo thứ tự.
+ *
+ * @param locationIds location id của từng điểm dừng (điểm đầu, các điểm dừng, điểm cuối)
+ * @param times       thời điểm xe có mặt tại từng điểm dừng, epoch giây, không giảm
+ */
+public record TripSchedule(long tripId,
+                           long routeId,
+                           String routeName,
+                           String operatorName,
+                           BigDecimal pricePerSeat,
+                           long[] locationIds,
+                           long[] times) {
+
+    public TripSchedule {
+        if (locationIds.length != times.length || locationIds.length < 2) {
+            throw new IllegalArgumentException("A trip needs at least two timed stops");
+        }
+    }
+
+    public long departureTime() {
+        return times[0];
+    }
+}
@@ -0,0 +1,300 @@
+package com.busify.project.journey.service;
+
+import com.busify.project.common.utils.VietnameseTextNormalizer;
+import com.busify.project.journey.dto.response.JourneyItineraryDTO;
+import com.busify.project.journey.dto.response.JourneyLegDTO;
+import com.busify.project.journey.planner.Itinerary;
+import com.busify.project.journey.planner.JourneyNetwork;
+import com.busify.project.journey.planner.JourneyPlanner;
+import com.busify.project.journey.planner.TripSchedule;
+import com.busify.project.location.dto.response.LocationDTO;
+import com.busify.project.location.service.LocationSearchIndexService;
+import com.busify.project.route.event.RouteNetworkChangedEvent;
+import com.busify.project.route.repository.RouteRepository;
+import com.busify.project.route_stop.repository.RouteStopRepository;
+import com.busify.project.trip.dto.response.JourneyTripResponse;
+import com.busify.project.trip.event.TripChangedEvent;
+import com.busify.project.trip.event.TripsTransitionedEvent;
+import com.busify.project.trip.repository.TripRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Tìm hành trình nhiều chặng (kể cả lên/xuống ở điểm dừng giữa tuyến và chuyển xe).
+ * <p>
+ * Lịch của từng chuyến trong {@code busify.journey.horizon-days} ngày tới được dựng từ giờ khởi hành và
+ * {@code timeOffsetFromStart} của các điểm dừng, rồi gom thành {@link JourneyNetwork} bất biến.
+ * Khi chuyến thay đổi ({@link TripChangedEvent}) chỉ chuyến đó được đọc lại; khi tuyến/điểm dừng thay đổi
+ * lịch được dựng lại từ dữ liệu chuyến đã có mà không truy vấn lại chuyến. Query luôn đọc snapshot hiện tại.
+ * </p>
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class JourneyPlannerService {
+
+    private static final ZoneId VIETNAM_ZONE = ZoneId.of("Asia/Ho_Chi_Minh");
+
+    private final TripRepository tripRepository;
+    private final RouteRepository routeRepository;
+    private final RouteStopRepository routeStopRepository;
+    private final LocationSearchIndexService locationSearchIndexService;
+
+    @Value("${busify.journey.horizon-days:7}")
+    private int horizonDays;
+
+    @Value("${busify.journey.min-transfer-minutes:15}")
+    private int minTransferMinutes;
+
+    private final Map<Long, JourneyTripResponse> tripRows = new ConcurrentHashMap<>();
+    private final Set<Long> pendingTripIds = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean routesDirty = new AtomicBoolean(false);
+
+    private volatile Map<Long, RoutePattern> routePatterns = Map.of();
+    private volatile JourneyNetwork network = JourneyNetwork.empty();
+
+    /**
+     * @param originIds      location id xuất phát (một hoặc nhiều, ví dụ mọi bến trong một thành phố)
+     * @param destinationIds location id đích
+     * @param date           ngày khởi hành theo giờ Việt Nam
+     */
+    public List<JourneyItineraryDTO> plan(Set<Long> originIds, Set<Long> destinationIds, LocalDate date,
+                                          int maxTransfers) {
+        Instant dayStart = date.atStartOfDay(VIETNAM_ZONE).toInstant();
+        Instant dayEnd = date.plusDays(1).atStartOfDay(VIETNAM_ZONE).toInstant();
+        Instant from = dayStart.isBefore(Instant.now()) ? Instant.now() : dayStart;
+        if (!from.isBefore(dayEnd)) {
+            return List.of();
+        }
+
+        List<Itinerary> itineraries = JourneyPlanner.plan(network, originIds, destinationIds,
+                from.getEpochSecond(), dayEnd.getEpochSecond(), maxTransfers, minTransferMinutes * 60L);
+
+        Map<Long, String> names = new HashMap<>();
+        for (LocationDTO location : locationSearchIndexService.getIndex().all()) {
+            names.put(location.getId(), location.getName());
+        }
+        return itineraries.stream().map(itinerary -> toDTO(itinerary, names)).toList();
+    }
+
+    /**
+     * Location id thuộc một thành phố, so khớp không phân biệt dấu/hoa thường
+     */
+    public Set<Long> findLocationIdsByCity(String city) {
+        String folded = VietnameseTextNormalizer.normalize(city);
+        Set<Long> ids = new HashSet<>();
+        if (folded.isEmpty()) {
+            return ids;
+        }
+        for (LocationDTO location : locationSearchIndexService.getIndex().all()) {
+            if (folded.equals(VietnameseTextNormalizer.normalize(location.getCity()))) {
+                ids.add(location.getId());
+            }
+        }
+        return ids;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        rebuild();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTripChanged(TripChangedEvent event) {
+        if (event.getTripId() != null) {
+            pendingTripIds.add(event.getTripId());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTripsTransitioned(TripsTransitionedEvent event) {
+        pendingTripIds.addAll(event.getTripIds());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRouteNetworkChanged(RouteNetworkChangedEvent event) {
+        routesDirty.set(true);
+    }
+
+    /**
+     * Áp dụng các thay đổi đang chờ: đọc lại riêng những chuyến vừa đổi và/hoặc dựng lại lịch theo tuyến mới
+     */
+    @Scheduled(fixedDelayString = "${busify.journey.refresh-ms:5000}")
+    public synchronized void applyPendingChanges() {
+        boolean routesChanged = routesDirty.getAndSet(false);
+        Set<Long> changed = new HashSet<>(pendingTripIds);
+        pendingTripIds.removeAll(changed);
+        if (!routesChanged && changed.isEmpty()) {
+            return;
+        }
+        try {
+            if (routesChanged) {
+                routePatterns = loadRoutePatterns();
+            }
+            if (!changed.isEmpty()) {
+                changed.forEach(tripRows::remove);
+                Instant horizon = Instant.now().plus(Duration.ofDays(horizonDays));
+                for (JourneyTripResponse row : tripRepository.findJourneyTripsByIds(changed)) {
+                    if (row.getDepartureTime() != null && row.getDepartureTime().isBefore(horizon)) {
+                        tripRows.put(row.getTripId(), row);
+                    }
+                }
+            }
+            publishNetwork();
+            log.debug("Đã cập nhật mạng lưới hành trình: {} chuyến thay đổi, tuyến thay đổi: {}",
+                    changed.size(), routesChanged);
+        } catch (Exception e) {
+            pendingTripIds.addAll(changed);
+            routesDirty.compareAndSet(false, routesChanged);
+            log.error("Không thể cập nhật mạng lưới hành trình: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Build lại toàn bộ định kỳ để trượt cửa sổ thời gian và bỏ chuyến đã chạy
+     */
+    @Scheduled(fixedDelayString = "${busify.journey.full-refresh-ms:1800000}",
+            initialDelayString = "${busify.journey.full-refresh-ms:1800000}")
+    public synchronized void rebuild() {
+        long start = System.nanoTime();
+        try {
+            Map<Long, RoutePattern> patterns = loadRoutePatterns();
+            Instant now = Instant.now();
+            // Chuyến đã khởi hành vẫn có thể chưa qua điểm dừng giữa tuyến
+            Instant from = now.minus(Duration.ofDays(1));
+            List<JourneyTripResponse> rows = tripRepository.findJourneyTrips(from, now.plus(Duration.ofDays(horizonDays)));
+
+            routesDirty.set(false);
+            routePatterns = patterns;
+            tripRows.clear();
+            rows.forEach(row -> tripRows.put(row.getTripId(), row));
+            publishNetwork();
+            log.info("Đã build mạng lưới hành trình: {} chuyến, {} điểm dừng trong {} ms",
+                    network.tripCount(), network.stopCount(), (System.nanoTime() - start) / 1_000_000);
+        } catch (Exception e) {
+            log.error("Không thể build mạng lưới hành trình: {}", e.getMessage(), e);
+        }
+    }
+
+    private void publishNetwork() {
+        Map<Long, RoutePattern> patterns = routePatterns;
+        long cutoff = Instant.now().getEpochSecond();
+        List<TripSchedule> schedules = new ArrayList<>(tripRows.size());
+        for (JourneyTripResponse row : tripRows.values()) {
+            TripSchedule schedule = toSchedule(row, patterns.get(row.getRouteId()));
+            if (schedule != null && schedule.times()[schedule.times().length - 1] >= cutoff) {
+                schedules.add(schedule);
+            }
+        }
+        network = JourneyNetwork.build(schedules);
+    }
+
+    private Map<Long, RoutePattern> loadRoutePatterns() {
+        Map<Long, List<long[]>> stopsByRoute = new HashMap<>();
+        for (Object[] row : routeStopRepository.findAllStopOffsets()) {
+            int offset = row[2] == null ? 0 : ((Number) row[2]).intValue();
+            stopsByRoute.computeIfAbsent((Long) row[0], k -> new ArrayList<>())
+                    .add(new long[]{(Long) row[1], offset});
+        }
+
+        Map<Long, RoutePattern> patterns = new HashMap<>();
+        for (Object[] row : routeRepository.findRouteEndpoints()) {
+            Long routeId = (Long) row[0];
+            Long startId = (Long) row[1];
+            Long endId = (Long) row[2];
+            if (startId == null || endId == null) {
+                continue;
+            }
+            int duration = row[3] == null ? 0 : ((Number) row[3]).intValue();
+            List<long[]> stops = stopsByRoute.getOrDefault(routeId, List.of()).stream()
+                    .filter(stop -> stop[0] != startId && stop[0] != endId)
+                    .sorted(Comparator.comparingLong(stop -> stop[1]))
+                    .toList();
+
+            long[] locationIds = new long[stops.size() + 2];
+            int[] offsets = new int[stops.size() + 2];
+            locationIds[0] = startId;
+            for (int i = 0; i < stops.size(); i++) {
+                locationIds[i + 1] = stops.get(i)[0];
+                offsets[i + 1] = (int) stops.get(i)[1];
+            }
+            locationIds[locationIds.length - 1] = endId;
+            offsets[offsets.length - 1] = duration;
+            patterns.put(routeId, new RoutePattern(locationIds, offsets));
+        }
+        return patterns;
+    }
+
+    private static TripSchedule toSchedule(JourneyTripResponse row, RoutePattern pattern) {
+        if (pattern == null || row.getDepartureTime() == null) {
+            return null;
+        }
+        long departure = row.getDepartureTime().getEpochSecond();
+        int last = pattern.locationIds.length - 1;
+        long[] times = new long[pattern.locationIds.length];
+        for (int i = 0; i < last; i++) {
+            times[i] = departure + pattern.offsetsMinutes[i] * 60L;
+        }
+        times[last] = row.getEstimatedArrivalTime() != null
+                ? row.getEstimatedArrivalTime().getEpochSecond()
+                : departure + pattern.offsetsMinutes[last] * 60L;
+        // Offset điểm dừng có thể vượt thời lượng tuyến do dữ liệu nhập tay: giữ thứ tự không giảm
+        for (int i = 1; i < times.length; i++) {
+            times[i] = Math.max(times[i], times[i - 1]);
+        }
+        return new TripSchedule(row.getTripId(), row.getRouteId(), row.getRouteName(), row.getOperatorName(),
+                row.getPricePerSeat(), pattern.locationIds, times);
+    }
+
+    private static JourneyItineraryDTO toDTO(Itinerary itinerary, Map<Long, String> names) {
+        List<JourneyLegDTO> legs = itinerary.legs().stream()
+                .map(leg -> JourneyLegDTO.builder()
+                        .tripId(leg.trip().tripId())
+                        .routeId(leg.trip().routeId())
+                        .routeName(leg.trip().routeName())
+                        .operatorName(leg.trip().operatorName())
+                        .fromLocationId(leg.fromLocationId())
+                        .fromLocationName(names.get(leg.fromLocationId()))
+                        .toLocationId(leg.toLocationId())
+                        .toLocationName(names.get(leg.toLocationId()))
+                        .departureTime(Instant.ofEpochSecond(leg.departureTime()))
+                        .arrivalTime(Instant.ofEpochSecond(leg.arrivalTime()))
+                        .pricePerSeat(leg.trip().pricePerSeat())
+                        .build())
+                .toList();
+        return JourneyItineraryDTO.builder()
+                .departureTime(Instant.ofEpochSecond(itinerary.departureTime()))
+                .arrivalTime(Instant.ofEpochSecond(itinerary.arrivalTime()))
+                .durationMinutes((itinerary.arrivalTime() - itinerary.departureTime()) / 60)
+                .transfers(itinerary.transfers())
+                .totalPrice(itinerary.totalPrice())
+                .legs(legs)
+                .build();
+    }
+
+    /**
+     * Thứ tự location và thời gian lệch (phút) so với giờ khởi hành của một tuyến
+     */
+    private record RoutePattern(long[] locationIds, int[] offsetsMinutes) {
+    }
+}
@@ -7,7 +7,9 @@ import org.springframework.web.bind.annotation.GetMapping;
 import com.busify.project.common.dto.response.ApiResponse;
 import com.busify.project.location.dto.response.LocationDTO;
 import com.busify.project.location.dto.response.LocationForOperatorResponse;
+import com.busify.project.location.dto.response.NearbyStopDTO;
 import com.busify.project.location.service.LocationService;
+import com.busify.project.location.service.NearbyStopService;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -26,6 +28,7 @@ import org.springframework.web.bind.annotation.RequestParam;
 public class LocationController {
 
     private final LocationService locationService;
+    private final NearbyStopService nearbyStopService;
 
     @Operation(summary = "Get all locations")
     @GetMapping
@@ -45,12 +48,35 @@ public class LocationController {
 
     /**
      * Tìm kiếm locations theo keyword để làm dropdown
-     * GET /api/locations/dropdown/search?keyword=hanoi
+     * GET /api/locations/dropdown/search?keyword=da nang&limit=20
      */
     @GetMapping("/dropdown/search")
     public ApiResponse<List<LocationDTO>> searchLocationsForDropdown(
-            @RequestParam(required = false) String keyword
+            @RequestParam(required = false) String keyword,
+            @RequestParam(defaultValue = "50") int limit
     ) {
-        return locationService.searchLocationsForDropdown(keyword);
+        return locationService.searchLocationsForDropdown(keyword, Math.min(Math.max(limit, 1), 200));
+    }
+
+    /**
+     * Tìm các điểm đón gần vị trí hiện tại kèm chuyến sắp qua điểm đó
+     * GET /api/locations/nearby?lat=10.8&lng=106.7&radiusKm=5&limit=10&hoursAhead=24
+     */
+    @Operation(summary = "Find nearest pickup points with upcoming trips")
+    @GetMapping("/nearby")
+    public ApiResponse<List<NearbyStopDTO>> findNearby(
+            @RequestParam double lat,
+            @RequestParam double lng,
+            @RequestParam(defaultValue = "5") double radiusKm,
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestParam(defaultValue = "24") int hoursAhead
+    ) {
+        if (lat < -90 || lat > 90 || lng < -180 || lng > 180) {
+            return ApiResponse.badRequest("Toạ độ không hợp lệ");
+        }
+        List<NearbyStopDTO> stops = nearbyStopService.findNearby(lat, lng,
+                Math.min(Math.max(radiusKm, 0.1), 100), Math.min(Math.max(limit, 1), 50),
+                Math.min(Math.max(hoursAhead, 0), 72));
+        return ApiResponse.success("Tìm điểm đón gần nhất thành công", stops);
     }
 }
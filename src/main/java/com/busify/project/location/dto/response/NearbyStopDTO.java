@@ -0,0 +1,18 @@
+package com.busify.project.location.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NearbyStopDTO {
+    private LocationDTO location;
+    private double distanceKm;
+    private List<NearbyTripDTO> upcomingTrips;
+}
@@ -0,0 +1,25 @@
+package com.busify.project.location.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NearbyTripDTO {
+    private Long tripId;
+    private Long routeId;
+    private String routeName;
+    private String operatorName;
+    private Instant departureTime;
+    // Thời điểm dự kiến xe qua điểm dừng này (departureTime + timeOffsetFromStart)
+    private Instant estimatedStopTime;
+    private BigDecimal pricePerSeat;
+    private String status;
+}
@@ -1,6 +1,7 @@
 package com.busify.project.location.entity;
 
 import com.busify.project.location.enums.LocationRegion;
+import com.busify.project.location.event.LocationEntityListener;
 
 import jakarta.persistence.*;
 import lombok.Getter;
@@ -10,6 +11,7 @@ import lombok.Setter;
 @Setter
 @Entity
 @Table(name = "locations")
+@EntityListeners(LocationEntityListener.class)
 public class Location {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
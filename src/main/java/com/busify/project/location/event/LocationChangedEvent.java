@@ -0,0 +1,15 @@
+package com.busify.project.location.event;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+@Getter
+public class LocationChangedEvent extends ApplicationEvent {
+
+    private final Long locationId;
+
+    public LocationChangedEvent(Object source, Long locationId) {
+        super(source);
+        this.locationId = locationId;
+    }
+}
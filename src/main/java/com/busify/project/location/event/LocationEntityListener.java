@@ -0,0 +1,27 @@
+package com.busify.project.location.event;
+
+import com.busify.project.location.entity.Location;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA listener phát {@link LocationChangedEvent} khi location được thêm/sửa/xoá,
+ * để các chỉ mục trong bộ nhớ (autocomplete...) tự làm mới.
+ */
+@Component
+@RequiredArgsConstructor
+public class LocationEntityListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Location location) {
+        eventPublisher.publishEvent(new LocationChangedEvent(this, location.getId()));
+    }
+}
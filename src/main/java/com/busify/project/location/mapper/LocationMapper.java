@@ -1,5 +1,6 @@
 package com.busify.project.location.mapper;
 
+import com.busify.project.location.dto.response.LocationDTO;
 import com.busify.project.location.dto.response.LocationForOperatorResponse;
 import com.busify.project.location.entity.Location;
 
@@ -13,4 +14,16 @@ public class LocationMapper {
                 .locationName(location.getName())
                 .build();
     }
+
+    public static LocationDTO toLocationDTO(Location location) {
+        LocationDTO dto = new LocationDTO();
+        dto.setId(location.getId());
+        dto.setName(location.getName());
+        dto.setAddress(location.getAddress());
+        dto.setCity(location.getCity());
+        dto.setLatitude(location.getLatitude());
+        dto.setLongitude(location.getLongitude());
+        dto.setRegion(location.getRegion());
+        return dto;
+    }
 }
@@ -0,0 +1,184 @@
+package com.busify.project.location.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Chỉ mục không gian dạng lưới (grid bucket) cho các điểm lat/lng, bất biến sau khi build.
+ * <p>
+ * Mỗi điểm được gán vào một ô kích thước {@code cellSizeDeg} độ. Truy vấn k điểm gần nhất quét các vòng ô
+ * quanh vị trí cần tìm, tính khoảng cách haversine chính xác cho từng ứng viên và dừng khi vòng tiếp theo
+ * chắc chắn xa hơn điểm thứ k hoặc vượt bán kính.
+ * </p>
+ */
+public final class GeoGridIndex {
+
+    private static final double EARTH_RADIUS_KM = 6371.0088;
+    private static final double KM_PER_DEG_LAT = 111.32;
+
+    private final double cellSizeDeg;
+    private final double[] lats;
+    private final double[] lngs;
+    private final Map<Long, int[]> cells;
+
+    private GeoGridIndex(double cellSizeDeg, double[] lats, double[] lngs, Map<Long, int[]> cells) {
+        this.cellSizeDeg = cellSizeDeg;
+        this.lats = lats;
+        this.lngs = lngs;
+        this.cells = cells;
+    }
+
+    /**
+     * @param lats        vĩ độ, phần tử thứ i là điểm i
+     * @param lngs        kinh độ tương ứng
+     * @param cellSizeDeg kích thước ô (0.05 độ ~ 5.5 km)
+     */
+    public static GeoGridIndex build(double[] lats, double[] lngs, double cellSizeDeg) {
+        if (lats.length != lngs.length) {
+            throw new IllegalArgumentException("lats and lngs must have the same length");
+        }
+        Map<Long, List<Integer>> buckets = new HashMap<>();
+        for (int i = 0; i < lats.length; i++) {
+            long cell = cellKey(cellOf(lats[i], cellSizeDeg), cellOf(lngs[i], cellSizeDeg));
+            buckets.computeIfAbsent(cell, k -> new ArrayList<>()).add(i);
+        }
+        Map<Long, int[]> cells = new HashMap<>(buckets.size() * 2);
+        buckets.forEach((cell, points) -> cells.put(cell, points.stream().mapToInt(Integer::intValue).toArray()));
+        return new GeoGridIndex(cellSizeDeg, lats.clone(), lngs.clone(), cells);
+    }
+
+    public int size() {
+        return lats.length;
+    }
+
+    /**
+     * Tìm tối đa {@code k} điểm gần nhất trong bán kính {@code radiusKm}, sắp xếp theo khoảng cách tăng dần.
+     */
+    public List<Neighbor> nearest(double lat, double lng, double radiusKm, int k) {
+        if (k <= 0 || lats.length == 0 || radiusKm <= 0) {
+            return List.of();
+        }
+
+        int centerRow = cellOf(lat, cellSizeDeg);
+        int centerCol = cellOf(lng, cellSizeDeg);
+        // Kích thước nhỏ nhất của một ô trong vùng tìm kiếm (theo chiều kinh độ ô hẹp lại về phía cực)
+        double farthestLat = Math.abs(lat) + radiusKm / KM_PER_DEG_LAT + cellSizeDeg;
+        double cosLat = Math.max(Math.cos(Math.toRadians(Math.min(farthestLat, 89.0))), 1e-6);
+        double cellKm = cellSizeDeg * KM_PER_DEG_LAT * cosLat;
+        int maxRing = (int) Math.ceil(radiusKm / cellKm) + 1;
+
+        // Max-heap theo khoảng cách giữ k ứng viên tốt nhất
+        double[] heapDist = new double[k];
+        int[] heapIdx = new int[k];
+        int heapSize = 0;
+
+        for (int ring = 0; ring <= maxRing; ring++) {
+            if (ring > 0) {
+                // Mọi điểm ở vòng này cách tâm ít nhất (ring - 1) ô
+                double ringMinKm = (ring - 1) * cellKm;
+                if (ringMinKm > radiusKm || (heapSize == k && ringMinKm > heapDist[0])) {
+                    break;
+                }
+            }
+            for (int row = centerRow - ring; row <= centerRow + ring; row++) {
+                boolean edgeRow = row == centerRow - ring || row == centerRow + ring;
+                int step = edgeRow ? 1 : 2 * ring;
+                for (int col = centerCol - ring; col <= centerCol + ring; col += Math.max(step, 1)) {
+                    int[] points = cells.get(cellKey(row, col));
+                    if (points == null) {
+                        continue;
+                    }
+                    for (int p : points) {
+                        double d = haversineKm(lat, lng, lats[p], lngs[p]);
+                        if (d > radiusKm) {
+                            continue;
+                        }
+                        if (heapSize < k) {
+                            heapDist[heapSize] = d;
+                            heapIdx[heapSize] = p;
+                            siftUp(heapDist, heapIdx, heapSize++);
+                        } else if (d < heapDist[0]) {
+                            heapDist[0] = d;
+                            heapIdx[0] = p;
+                            siftDown(heapDist, heapIdx, heapSize);
+                        }
+                    }
+                }
+            }
+        }
+
+        Neighbor[] result = new Neighbor[heapSize];
+        for (int i = 0; i < heapSize; i++) {
+            result[i] = new Neighbor(heapIdx[i], heapDist[i]);
+        }
+        Arrays.sort(result, (a, b) -> Double.compare(a.distanceKm(), b.distanceKm()));
+        return List.of(result);
+    }
+
+    public static double haversineKm(double lat1, double lng1, double lat2, double lng2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLng = Math.toRadians(lng2 - lng1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1.0, Math.sqrt(a)));
+    }
+
+    private static int cellOf(double degrees, double cellSizeDeg) {
+        return (int) Math.floor(degrees / cellSizeDeg);
+    }
+
+    private static long cellKey(int row, int col) {
+        return ((long) row << 32) | (col & 0xFFFFFFFFL);
+    }
+
+    private static void siftUp(double[] dist, int[] idx, int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (dist[parent] >= dist[i]) {
+                return;
+            }
+            swap(dist, idx, parent, i);
+            i = parent;
+        }
+    }
+
+    private static void siftDown(double[] dist, int[] idx, int size) {
+        int i = 0;
+        while (true) {
+            int largest = i;
+            int left = 2 * i + 1;
+            int right = left + 1;
+            if (left < size && dist[left] > dist[largest]) {
+                largest = left;
+            }
+            if (right < size && dist[right] > dist[largest]) {
+                largest = right;
+            }
+            if (largest == i) {
+                return;
+            }
+            swap(dist, idx, i, largest);
+            i = largest;
+        }
+    }
+
+    private static void swap(double[] dist, int[] idx, int a, int b) {
+        double d = dist[a];
+        dist[a] = dist[b];
+        dist[b] = d;
+        int t = idx[a];
+        idx[a] = idx[b];
+        idx[b] = t;
+    }
+
+    /**
+     * @param index      vị trí điểm trong mảng đầu vào lúc build
+     * @param distanceKm khoảng cách tới vị trí truy vấn
+     */
+    public record Neighbor(int index, double distanceKm) {
+    }
+}
@@ -0,0 +1,248 @@
+package com.busify.project.location.search;
+
+import com.busify.project.common.utils.VietnameseTextNormalizer;
+import com.busify.project.location.dto.response.LocationDTO;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Chỉ mục autocomplete bất biến cho locations.
+ * <p>
+ * Tên, thành phố và địa chỉ được bỏ dấu + tách token ("Đà Nẵng" -> "da", "nang"). Các token được
+ * sắp xếp trong một mảng để tìm theo tiền tố bằng binary search; mỗi token trỏ tới danh sách location
+ * chứa nó. Mỗi từ trong câu truy vấn được coi là tiền tố, kết quả là giao các tập location khớp.
+ * Xếp hạng: khớp ở tên trước, rồi thành phố, rồi địa chỉ; cùng mức thì location có nhiều chuyến hơn lên trước.
+ * </p>
+ */
+public final class LocationSearchIndex {
+
+    private static final int FIELD_NAME = 0;
+    private static final int FIELD_CITY = 1;
+    private static final int FIELD_ADDRESS = 2;
+
+    private static final LocationSearchIndex EMPTY = new LocationSearchIndex(List.of(), new long[0]);
+
+    private final LocationDTO[] locations;
+    // Thứ hạng của mỗi location theo (số chuyến giảm dần, tên tăng dần), 0 = phổ biến nhất
+    private final int[] popularityOrder;
+    private final String[] foldedNames;
+    // Token đã sắp xếp + postings tương ứng (id nội bộ tăng dần)
+    private final String[] tokens;
+    private final int[][] postings;
+    // Song song với postings: bitmask các field (name/city/address) của location chứa token
+    private final int[][] postingFields;
+    private final int[] allByCityAndName;
+
+    private LocationSearchIndex(List<LocationDTO> source, long[] popularity) {
+        this.locations = source.toArray(new LocationDTO[0]);
+        this.foldedNames = new String[locations.length];
+
+        // token -> (doc -> field mask); doc được thêm theo thứ tự tăng dần
+        TreeMap<String, LinkedHashMap<Integer, Integer>> tokenPostings = new TreeMap<>();
+        for (int doc = 0; doc < locations.length; doc++) {
+            LocationDTO location = locations[doc];
+            foldedNames[doc] = VietnameseTextNormalizer.normalize(location.getName());
+            addField(tokenPostings, doc, FIELD_NAME, location.getName());
+            addField(tokenPostings, doc, FIELD_CITY, location.getCity());
+            addField(tokenPostings, doc, FIELD_ADDRESS, location.getAddress());
+        }
+
+        this.tokens = tokenPostings.keySet().toArray(new String[0]);
+        this.postings = new int[tokens.length][];
+        this.postingFields = new int[tokens.length][];
+        int t = 0;
+        for (LinkedHashMap<Integer, Integer> docs : tokenPostings.values()) {
+            postings[t] = docs.keySet().stream().mapToInt(Integer::intValue).toArray();
+            postingFields[t] = docs.values().stream().mapToInt(Integer::intValue).toArray();
+            t++;
+        }
+
+        Integer[] order = new Integer[locations.length];
+        for (int doc = 0; doc < order.length; doc++) {
+            order[doc] = doc;
+        }
+        Arrays.sort(order, Comparator
+                .comparing((Integer doc) -> VietnameseTextNormalizer.normalize(locations[doc].getCity()))
+                .thenComparing(doc -> foldedNames[doc]));
+        this.allByCityAndName = Arrays.stream(order).mapToInt(Integer::intValue).toArray();
+
+        Integer[] byPopularity = Arrays.copyOf(order, order.length);
+        Arrays.sort(byPopularity, Comparator
+                .comparingLong((Integer doc) -> -popularity[doc])
+                .thenComparing(doc -> foldedNames[doc]));
+        this.popularityOrder = new int[locations.length];
+        for (int rank = 0; rank < byPopularity.length; rank++) {
+            popularityOrder[byPopularity[rank]] = rank;
+        }
+    }
+
+    public static LocationSearchIndex empty() {
+        return EMPTY;
+    }
+
+    /**
+     * @param locations  toàn bộ locations
+     * @param tripCounts số chuyến theo location id, dùng làm độ phổ biến
+     */
+    public static LocationSearchIndex build(Collection<LocationDTO> locations, Map<Long, Long> tripCounts) {
+        List<LocationDTO> source = new ArrayList<>(locations);
+        long[] popularity = new long[source.size()];
+        for (int doc = 0; doc < source.size(); doc++) {
+            popularity[doc] = tripCounts.getOrDefault(source.get(doc).getId(), 0L);
+        }
+        return new LocationSearchIndex(source, popularity);
+    }
+
+    public int size() {
+        return locations.length;
+    }
+
+    /**
+     * Tất cả locations theo thứ tự thành phố, tên (thay cho findAllOrderByCityAndName)
+     */
+    public List<LocationDTO> all() {
+        List<LocationDTO> result = new ArrayList<>(allByCityAndName.length);
+        for (int doc : allByCityAndName) {
+            result.add(locations[doc]);
+        }
+        return result;
+    }
+
+    /**
+     * Tìm location theo từ khoá, không phân biệt dấu/hoa thường, mỗi từ khớp theo tiền tố
+     */
+    public List<LocationDTO> search(String keyword, int limit) {
+        List<String> queryTokens = VietnameseTextNormalizer.tokenize(keyword);
+        if (queryTokens.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        BitSet candidates = null;
+        int[] fieldHits = new int[locations.length];
+        for (String queryToken : queryTokens) {
+            BitSet matched = new BitSet(locations.length);
+            int from = lowerBound(queryToken);
+            for (int t = from; t < tokens.length && tokens[t].startsWith(queryToken); t++) {
+                int[] docs = postings[t];
+                int[] fields = postingFields[t];
+                for (int j = 0; j < docs.length; j++) {
+                    matched.set(docs[j]);
+                    fieldHits[docs[j]] |= fields[j];
+                }
+            }
+            if (candidates == null) {
+                candidates = matched;
+            } else {
+                candidates.and(matched);
+            }
+            if (candidates.isEmpty()) {
+                return List.of();
+            }
+        }
+
+        String foldedQuery = String.join(" ", queryTokens);
+        // Khoá sắp xếp gói trong một long: (mức khớp, thứ hạng phổ biến) ở 32 bit cao, doc ở 32 bit thấp.
+        // Chỉ giữ top-k bằng max-heap kích thước limit thay vì sort toàn bộ ứng viên.
+        int k = Math.min(limit, candidates.cardinality());
+        long[] heap = new long[k];
+        int heapSize = 0;
+        for (int doc = candidates.nextSetBit(0); doc >= 0; doc = candidates.nextSetBit(doc + 1)) {
+            long sortKey = ((long) (matchRank(doc, fieldHits[doc], foldedQuery) * locations.length
+                    + popularityOrder[doc]) << 32) | doc;
+            if (heapSize < k) {
+                heap[heapSize] = sortKey;
+                siftUp(heap, heapSize++);
+            } else if (sortKey < heap[0]) {
+                heap[0] = sortKey;
+                siftDown(heap, heapSize);
+            }
+        }
+        Arrays.sort(heap, 0, heapSize);
+
+        List<LocationDTO> result = new ArrayList<>(heapSize);
+        for (int i = 0; i < heapSize; i++) {
+            result.add(locations[(int) heap[i]]);
+        }
+        return result;
+    }
+
+    private static void siftUp(long[] heap, int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (heap[parent] >= heap[i]) {
+                return;
+            }
+            swap(heap, parent, i);
+            i = parent;
+        }
+    }
+
+    private static void siftDown(long[] heap, int size) {
+        int i = 0;
+        while (true) {
+            int largest = i;
+            int left = 2 * i + 1;
+            int right = left + 1;
+            if (left < size && heap[left] > heap[largest]) {
+                largest = left;
+            }
+            if (right < size && heap[right] > heap[largest]) {
+                largest = right;
+            }
+            if (largest == i) {
+                return;
+            }
+            swap(heap, i, largest);
+            i = largest;
+        }
+    }
+
+    private static void swap(long[] heap, int a, int b) {
+        long tmp = heap[a];
+        heap[a] = heap[b];
+        heap[b] = tmp;
+    }
+
+    private int matchRank(int doc, int fieldHit, String foldedQuery) {
+        if (foldedNames[doc].startsWith(foldedQuery)) {
+            return 0;
+        }
+        if ((fieldHit & (1 << FIELD_NAME)) != 0) {
+            return 1;
+        }
+        if ((fieldHit & (1 << FIELD_CITY)) != 0) {
+            return 2;
+        }
+        return 3;
+    }
+
+    private int lowerBound(String prefix) {
+        int lo = 0;
+        int hi = tokens.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (tokens[mid].compareTo(prefix) < 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private static void addField(TreeMap<String, LinkedHashMap<Integer, Integer>> tokenPostings,
+                                 int doc, int field, String text) {
+        for (String token : VietnameseTextNormalizer.tokenize(text)) {
+            tokenPostings.computeIfAbsent(token, k -> new LinkedHashMap<>())
+                    .merge(doc, 1 << field, (a, b) -> a | b);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.busify.project.location.service;
+
+import com.busify.project.location.dto.response.LocationDTO;
+import com.busify.project.location.event.LocationChangedEvent;
+import com.busify.project.location.mapper.LocationMapper;
+import com.busify.project.location.repository.LocationRepository;
+import com.busify.project.location.search.LocationSearchIndex;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Giữ {@link LocationSearchIndex} trong bộ nhớ cho dropdown/autocomplete.
+ * <p>
+ * Chỉ mục được build lúc khởi động, đánh dấu cần build lại khi có {@link LocationChangedEvent}
+ * (sau khi transaction commit) và build lại định kỳ để cập nhật độ phổ biến theo số chuyến.
+ * Query luôn đọc snapshot hiện tại nên không bị chặn trong lúc build.
+ * </p>
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LocationSearchIndexService {
+
+    private final LocationRepository locationRepository;
+
+    private volatile LocationSearchIndex index = LocationSearchIndex.empty();
+    private final AtomicBoolean dirty = new AtomicBoolean(true);
+
+    public LocationSearchIndex getIndex() {
+        if (dirty.get() && index.size() == 0) {
+            // Chưa kịp build (ví dụ request đến trước ApplicationReadyEvent)
+            rebuildIfDirty();
+        }
+        return index;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        rebuild();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLocationChanged(LocationChangedEvent event) {
+        dirty.set(true);
+    }
+
+    // Gom nhiều thay đổi liên tiếp vào một lần build
+    @Scheduled(fixedDelayString = "${busify.location.index.dirty-check-ms:5000}")
+    public void rebuildIfDirty() {
+        if (dirty.get()) {
+            rebuild();
+        }
+    }
+
+    // Làm mới độ phổ biến (số chuyến) và các thay đổi ghi thẳng vào DB
+    @Scheduled(fixedDelayString = "${busify.location.index.full-refresh-ms:1800000}",
+            initialDelayString = "${busify.location.index.full-refresh-ms:1800000}")
+    public synchronized void rebuild() {
+        dirty.set(false);
+        long start = System.nanoTime();
+        try {
+            List<LocationDTO> locations = locationRepository.findAll().stream()
+                    .map(LocationMapper::toLocationDTO)
+                    .toList();
+            index = LocationSearchIndex.build(locations, loadTripCounts());
+            log.info("Đã build chỉ mục tìm kiếm location: {} locations trong {} ms",
+                    locations.size(), (System.nanoTime() - start) / 1_000_000);
+        } catch (Exception e) {
+            dirty.set(true);
+            log.error("Không thể build chỉ mục tìm kiếm location: {}", e.getMessage(), e);
+        }
+    }
+
+    private Map<Long, Long> loadTripCounts() {
+        Map<Long, Long> counts = new HashMap<>();
+        mergeCounts(counts, locationRepository.countTripsByStartLocation());
+        mergeCounts(counts, locationRepository.countTripsByEndLocation());
+        return counts;
+    }
+
+    private static void mergeCounts(Map<Long, Long> counts, List<Object[]> rows) {
+        for (Object[] row : rows) {
+            if (row[0] != null) {
+                counts.merge((Long) row[0], ((Number) row[1]).longValue(), Long::sum);
+            }
+        }
+    }
+}
@@ -11,6 +11,7 @@ import com.busify.project.location.dto.response.LocationForOperatorResponse;
 import com.busify.project.location.entity.Location;
 import com.busify.project.location.mapper.LocationMapper;
 import com.busify.project.location.repository.LocationRepository;
+import com.busify.project.location.search.LocationSearchIndex;
 
 import lombok.RequiredArgsConstructor;
 
@@ -18,6 +19,7 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class LocationService {
     private final LocationRepository locationRepository;
+    private final LocationSearchIndexService locationSearchIndexService;
 
     public List<LocationForOperatorResponse> getAllLocations() {
         List<Location> locations = locationRepository.findAll();
@@ -31,11 +33,7 @@ public class LocationService {
      */
     public ApiResponse<List<LocationDTO>> getAllLocationsForDropdown() {
         try {
-            List<Location> locations = locationRepository.findAllOrderByCityAndName();
-            List<LocationDTO> locationDTOs = locations.stream()
-                    .map(this::toLocationDTO)
-                    .collect(Collectors.toList());
-            
+            List<LocationDTO> locationDTOs = locationSearchIndexService.getIndex().all();
             return ApiResponse.success("Lấy danh sách điểm dừng thành công", locationDTOs);
         } catch (Exception e) {
             return ApiResponse.error(500, "Có lỗi xảy ra khi lấy danh sách điểm dừng: " + e.getMessage());
@@ -43,39 +41,21 @@ public class LocationService {
     }
 
     /**
-     * Tìm kiếm locations theo keyword cho dropdown
+     * Tìm kiếm locations theo keyword cho dropdown (không phân biệt dấu, khớp theo tiền tố từng từ)
      */
-    public ApiResponse<List<LocationDTO>> searchLocationsForDropdown(String keyword) {
+    public ApiResponse<List<LocationDTO>> searchLocationsForDropdown(String keyword, int limit) {
         try {
-            List<Location> locations;
+            LocationSearchIndex index = locationSearchIndexService.getIndex();
+            List<LocationDTO> locationDTOs;
             if (keyword == null || keyword.trim().isEmpty()) {
-                locations = locationRepository.findAllOrderByCityAndName();
+                locationDTOs = index.all();
             } else {
-                locations = locationRepository.searchByNameOrCity(keyword.trim());
+                locationDTOs = index.search(keyword, limit);
             }
-            
-            List<LocationDTO> locationDTOs = locations.stream()
-                    .map(this::toLocationDTO)
-                    .collect(Collectors.toList());
-            
+
             return ApiResponse.success("Tìm kiếm điểm dừng thành công", locationDTOs);
         } catch (Exception e) {
             return ApiResponse.error(500, "Có lỗi xảy ra khi tìm kiếm điểm dừng: " + e.getMessage());
         }
     }
-
-    /**
-     * Helper method để convert Location entity sang LocationDTO
-     */
-    private LocationDTO toLocationDTO(Location location) {
-        LocationDTO dto = new LocationDTO();
-        dto.setId(location.getId());
-        dto.setName(location.getName());
-        dto.setAddress(location.getAddress());
-        dto.setCity(location.getCity());
-        dto.setLatitude(location.getLatitude());
-        dto.setLongitude(location.getLongitude());
-        dto.setRegion(location.getRegion());
-        return dto;
-    }
 }
@@ -0,0 +1,221 @@
+package com.busify.project.location.service;
+
+import com.busify.project.location.dto.response.LocationDTO;
+import com.busify.project.location.dto.response.NearbyStopDTO;
+import com.busify.project.location.dto.response.NearbyTripDTO;
+import com.busify.project.location.event.LocationChangedEvent;
+import com.busify.project.location.mapper.LocationMapper;
+import com.busify.project.location.repository.LocationRepository;
+import com.busify.project.location.search.GeoGridIndex;
+import com.busify.project.route.event.RouteNetworkChangedEvent;
+import com.busify.project.route.repository.RouteRepository;
+import com.busify.project.route_stop.repository.RouteStopRepository;
+import com.busify.project.trip.dto.response.UpcomingRouteTripResponse;
+import com.busify.project.trip.repository.TripRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Tìm điểm đón gần nhất: chỉ mục lưới trên các location có toạ độ, kèm danh sách tuyến đi qua mỗi location
+ * (điểm đầu, điểm cuối, điểm dừng với thời gian lệch). Chuyến sắp chạy chỉ được truy vấn cho các tuyến
+ * của những điểm tìm được.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class NearbyStopService {
+
+    private final LocationRepository locationRepository;
+    private final RouteRepository routeRepository;
+    private final RouteStopRepository routeStopRepository;
+    private final TripRepository tripRepository;
+
+    @Value("${busify.location.nearby.cell-size-deg:0.05}")
+    private double cellSizeDeg;
+
+    @Value("${busify.location.nearby.trips-per-stop:5}")
+    private int tripsPerStop;
+
+    private volatile Network network = Network.EMPTY;
+    private final AtomicBoolean dirty = new AtomicBoolean(true);
+
+    /**
+     * @param radiusKm   bán kính tìm kiếm
+     * @param limit      số điểm dừng tối đa
+     * @param hoursAhead chỉ lấy chuyến qua điểm dừng trong khoảng này
+     */
+    public List<NearbyStopDTO> findNearby(double lat, double lng, double radiusKm, int limit, int hoursAhead) {
+        Network current = network;
+        List<GeoGridIndex.Neighbor> neighbors = current.index.nearest(lat, lng, radiusKm, limit);
+        if (neighbors.isEmpty()) {
+            return List.of();
+        }
+
+        Set<Long> routeIds = new LinkedHashSet<>();
+        for (GeoGridIndex.Neighbor neighbor : neighbors) {
+            current.servingRoutes[neighbor.index()].forEach(serving -> routeIds.add(serving.routeId()));
+        }
+        Map<Long, List<UpcomingRouteTripResponse>> tripsByRoute = loadUpcomingTrips(routeIds, current, hoursAhead);
+
+        Instant now = Instant.now();
+        Instant until = now.plus(Duration.ofHours(hoursAhead));
+        List<NearbyStopDTO> result = new ArrayList<>(neighbors.size());
+        for (GeoGridIndex.Neighbor neighbor : neighbors) {
+            List<NearbyTripDTO> trips = new ArrayList<>();
+            for (ServingRoute serving : current.servingRoutes[neighbor.index()]) {
+                for (UpcomingRouteTripResponse trip : tripsByRoute.getOrDefault(serving.routeId(), List.of())) {
+                    Instant atStop = trip.getDepartureTime().plus(Duration.ofMinutes(serving.offsetMinutes()));
+                    if (atStop.isBefore(now) || atStop.isAfter(until)) {
+                        continue;
+                    }
+                    trips.add(NearbyTripDTO.builder()
+                            .tripId(trip.getTripId())
+                            .routeId(trip.getRouteId())
+                            .routeName(trip.getRouteName())
+                            .operatorName(trip.getOperatorName())
+                            .departureTime(trip.getDepartureTime())
+                            .estimatedStopTime(atStop)
+                            .pricePerSeat(trip.getPricePerSeat())
+                            .status(trip.getStatus())
+                            .build());
+                }
+            }
+            trips.sort(Comparator.comparing(NearbyTripDTO::getEstimatedStopTime));
+            result.add(NearbyStopDTO.builder()
+                    .location(current.locations[neighbor.index()])
+                    .distanceKm(Math.round(neighbor.distanceKm() * 1000) / 1000.0)
+                    .upcomingTrips(trips.size() > tripsPerStop ? new ArrayList<>(trips.subList(0, tripsPerStop)) : trips)
+                    .build());
+        }
+        return result;
+    }
+
+    private Map<Long, List<UpcomingRouteTripResponse>> loadUpcomingTrips(Set<Long> routeIds, Network current,
+                                                                        int hoursAhead) {
+        if (routeIds.isEmpty() || hoursAhead <= 0) {
+            return Map.of();
+        }
+        // Chuyến đã khởi hành trước "now" vẫn có thể chưa tới điểm dừng giữa tuyến
+        Instant now = Instant.now();
+        Instant from = now.minus(Duration.ofMinutes(current.maxOffsetMinutes));
+        Instant to = now.plus(Duration.ofHours(hoursAhead));
+        Map<Long, List<UpcomingRouteTripResponse>> byRoute = new HashMap<>();
+        for (UpcomingRouteTripResponse trip : tripRepository.findUpcomingTripsByRouteIds(routeIds, from, to)) {
+            byRoute.computeIfAbsent(trip.getRouteId(), k -> new ArrayList<>()).add(trip);
+        }
+        return byRoute;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        rebuild();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLocationChanged(LocationChangedEvent event) {
+        dirty.set(true);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRouteNetworkChanged(RouteNetworkChangedEvent event) {
+        dirty.set(true);
+    }
+
+    @Scheduled(fixedDelayString = "${busify.location.index.dirty-check-ms:5000}")
+    public void rebuildIfDirty() {
+        if (dirty.get()) {
+            rebuild();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${busify.location.index.full-refresh-ms:1800000}",
+            initialDelayString = "${busify.location.index.full-refresh-ms:1800000}")
+    public synchronized void rebuild() {
+        dirty.set(false);
+        long start = System.nanoTime();
+        try {
+            List<LocationDTO> located = locationRepository.findAll().stream()
+                    .filter(l -> l.getLatitude() != null && l.getLongitude() != null)
+                    .map(LocationMapper::toLocationDTO)
+                    .toList();
+
+            Map<Long, Integer> positionById = new HashMap<>();
+            double[] lats = new double[located.size()];
+            double[] lngs = new double[located.size()];
+            for (int i = 0; i < located.size(); i++) {
+                positionById.put(located.get(i).getId(), i);
+                lats[i] = located.get(i).getLatitude();
+                lngs[i] = located.get(i).getLongitude();
+            }
+
+            @SuppressWarnings("unchecked")
+            List<ServingRoute>[] serving = new List[located.size()];
+            for (int i = 0; i < serving.length; i++) {
+                serving[i] = new ArrayList<>(2);
+            }
+            int maxOffset = 0;
+            for (Object[] row : routeRepository.findRouteEndpoints()) {
+                Long routeId = (Long) row[0];
+                int duration = row[3] == null ? 0 : ((Number) row[3]).intValue();
+                addServing(serving, positionById, (Long) row[1], routeId, 0);
+                addServing(serving, positionById, (Long) row[2], routeId, duration);
+                maxOffset = Math.max(maxOffset, duration);
+            }
+            for (Object[] row : routeStopRepository.findAllStopOffsets()) {
+                int offset = row[2] == null ? 0 : ((Number) row[2]).intValue();
+                addServing(serving, positionById, (Long) row[1], (Long) row[0], offset);
+                maxOffset = Math.max(maxOffset, offset);
+            }
+
+            network = new Network(GeoGridIndex.build(lats, lngs, cellSizeDeg),
+                    located.toArray(new LocationDTO[0]), serving, maxOffset);
+            log.info("Đã build chỉ mục điểm đón: {} điểm trong {} ms",
+                    located.size(), (System.nanoTime() - start) / 1_000_000);
+        } catch (Exception e) {
+            dirty.set(true);
+            log.error("Không thể build chỉ mục điểm đón: {}", e.getMessage(), e);
+        }
+    }
+
+    private static void addServing(List<ServingRoute>[] serving, Map<Long, Integer> positionById,
+                                   Long locationId, Long routeId, int offsetMinutes) {
+        Integer position = locationId == null ? null : positionById.get(locationId);
+        if (position == null) {
+            return;
+        }
+        // Một location có thể vừa là điểm dừng vừa là đầu/cuối tuyến: giữ một bản
+        for (ServingRoute existing : serving[position]) {
+            if (existing.routeId().equals(routeId)) {
+                return;
+            }
+        }
+        serving[position].add(new ServingRoute(routeId, offsetMinutes));
+    }
+
+    private record ServingRoute(Long routeId, int offsetMinutes) {
+    }
+
+    private record Network(GeoGridIndex index, LocationDTO[] locations, List<ServingRoute>[] servingRoutes,
+                           int maxOffsetMinutes) {
+        @SuppressWarnings("unchecked")
+        static final Network EMPTY = new Network(GeoGridIndex.build(new double[0], new double[0], 1.0),
+                new LocationDTO[0], new List[0], 0);
+    }
+}
@@ -12,6 +12,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.busify.project.common.dto.response.ApiResponse;
@@ -70,8 +71,12 @@ public class AdminController {
 
     @Operation(summary = "Get all notifications")
     @GetMapping
-    public ApiResponse<List<NotificationDTO>> getMyNotifications() {
-
+    public ApiResponse<?> getMyNotifications(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        if (cursor != null || limit != null) {
+            return ApiResponse.success("Lấy notifications thành công", notificationService.getNotifications(cursor, limit));
+        }
         List<NotificationDTO> notifications = notificationService.getNotificationsByUser();
         return ApiResponse.success("Lấy notifications thành công", notifications);
     }
@@ -4,6 +4,7 @@ import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Controller;
 
+import com.busify.project.notification.dto.NotificationPushDTO;
 import com.busify.project.notification.entity.NotificationData;
 import com.busify.project.notification.repository.NotificationRepo;
 
@@ -13,6 +14,9 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class NotificationController {
 
+    // Hàng đợi riêng của từng người dùng, chỉ chính người đó được đăng ký (StompAuthChannelInterceptor)
+    public static final String USER_QUEUE_PREFIX = "/queue/notifications/";
+
     private final SimpMessagingTemplate messagingTemplate;
     private final NotificationRepo notificationRepo;
 
@@ -31,4 +35,9 @@ public class NotificationController {
         System.out.println("Sending notification to: " + data.getSub());
         messagingTemplate.convertAndSend("/topic/" + data.getSub(), data.toMap());
     }
+
+    // Client đăng ký /queue/notifications/{userId} để nhận notification và số chưa đọc
+    public void sendToUser(Long userId, NotificationPushDTO push) {
+        messagingTemplate.convertAndSend(USER_QUEUE_PREFIX + userId, push);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,22 @@
+package com.busify.project.notification.dto;
+
+import com.busify.project.notification.event.NotificationChangedEvent;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Tin đẩy tới {@code /queue/notifications/{userId}}: thay đổi vừa xảy ra kèm số chưa đọc mới,
+ * để client cập nhật chuông thông báo mà không cần gọi lại API
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class NotificationPushDTO {
+    private NotificationChangedEvent.Change change;
+    private NotificationDTO notification;
+    private long unreadCount;
+}
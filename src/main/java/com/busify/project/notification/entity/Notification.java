@@ -55,5 +55,6 @@ public class Notification {
     private LocalDateTime readAt;
 
     @Column(name = "is_deleted", columnDefinition = "boolean default false")
-    private Boolean isDeleted;
+    @Builder.Default
+    private Boolean isDeleted = false;
 }
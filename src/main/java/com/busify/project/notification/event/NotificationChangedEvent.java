@@ -0,0 +1,33 @@
+package com.busify.project.notification.event;
+
+import com.busify.project.notification.dto.NotificationDTO;
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Notification của một user vừa thay đổi; bộ đếm chưa đọc được cập nhật và client nhận thông báo
+ * qua STOMP sau khi transaction commit
+ */
+@Getter
+public class NotificationChangedEvent extends ApplicationEvent {
+
+    public enum Change {
+        CREATED, READ, READ_ALL, UPDATED, DELETED
+    }
+
+    private final Long userId;
+    private final Change change;
+    // null với READ_ALL
+    private final NotificationDTO notification;
+    // Thay đổi số chưa đọc; bỏ qua với READ_ALL (đặt về 0)
+    private final long unreadDelta;
+
+    public NotificationChangedEvent(Object source, Long userId, Change change, NotificationDTO notification,
+            long unreadDelta) {
+        super(source);
+        this.userId = userId;
+        this.change = change;
+        this.notification = notification;
+        this.unreadDelta = unreadDelta;
+    }
+}
@@ -7,6 +7,7 @@ import io.lettuce.core.dynamic.annotation.Param;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 
 import java.time.LocalDateTime;
@@ -33,6 +34,45 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
         List<Notification> findByUserIdAndStatus(@Param("userId") Long userId,
                         @Param("status") NotificationStatus status);
 
+        // Đếm notifications chưa xoá theo status, nguồn của bộ đếm chưa đọc
+        @Query("SELECT COUNT(n) FROM Notification n WHERE n.userId = :userId AND n.status = :status " +
+                        "AND (n.isDeleted = false OR n.isDeleted IS NULL)")
+        long countActiveByUserIdAndStatus(@Param("userId") Long userId, @Param("status") NotificationStatus status);
+
+        @Query("SELECT COUNT(n) FROM Notification n WHERE n.userId = :userId " +
+                        "AND (n.isDeleted = false OR n.isDeleted IS NULL)")
+        long countActiveByUserId(@Param("userId") Long userId);
+
+        // Keyset theo id giảm dần (id tăng cùng created_at): trang sau bắt đầu ngay trước id cuối của trang trước
+        @Query("SELECT n FROM Notification n WHERE n.userId = :userId " +
+                        "AND (n.isDeleted = false OR n.isDeleted IS NULL) " +
+                        "AND (:beforeId IS NULL OR n.id < :beforeId) " +
+                        "ORDER BY n.id DESC")
+        List<Notification> findActiveByUserIdBefore(@Param("userId") Long userId, @Param("beforeId") Long beforeId,
+                        Pageable pageable);
+
+        // Chỉ đổi khi còn UNREAD, trả về 1 nếu lần gọi này thực sự đánh dấu đã đọc
+        @Modifying
+        @Query("UPDATE Notification n SET n.status = com.busify.project.notification.enums.NotificationStatus.READ, " +
+                        "n.readAt = :readAt " +
+                        "WHERE n.id = :id AND n.userId = :userId " +
+                        "AND n.status = com.busify.project.notification.enums.NotificationStatus.UNREAD")
+        int markRead(@Param("id") Long id, @Param("userId") Long userId, @Param("readAt") LocalDateTime readAt);
+
+        @Modifying
+        @Query("UPDATE Notification n SET n.status = com.busify.project.notification.enums.NotificationStatus.READ, " +
+                        "n.readAt = :readAt " +
+                        "WHERE n.userId = :userId " +
+                        "AND n.status = com.busify.project.notification.enums.NotificationStatus.UNREAD")
+        int markAllRead(@Param("userId") Long userId, @Param("readAt") LocalDateTime readAt);
+
+        // Trả về 1 nếu lần gọi này thực sự xoá (chưa bị xoá trước đó)
+        @Modifying
+        @Query("UPDATE Notification n SET n.isDeleted = true " +
+                        "WHERE n.id = :id AND n.userId = :userId " +
+                        "AND (n.isDeleted = false OR n.isDeleted IS NULL)")
+        int softDelete(@Param("id") Long id, @Param("userId") Long userId);
+
         // Tìm notification theo ID và user ID (để bảo mật)
         Optional<Notification> findByIdAndUserId(Long id, Long userId);
 
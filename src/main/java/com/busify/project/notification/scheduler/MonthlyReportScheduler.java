@@ -8,6 +8,7 @@ import org.springframework.stereotype.Service;
 
 import com.busify.project.bus_operator.dto.response.AdminMonthlyReportsResponse;
 import com.busify.project.bus_operator.service.BusOperatorService;
+import com.busify.project.common.job.JobCoordinator;
 import com.busify.project.notification.service.MonthlyReportNotificationService;
 
 import lombok.RequiredArgsConstructor;
@@ -19,12 +20,17 @@ import lombok.extern.slf4j.Slf4j;
 public class MonthlyReportScheduler {
     private final BusOperatorService busOperatorService;
     private final MonthlyReportNotificationService notificationService;
+    private final JobCoordinator jobCoordinator;
 
     @Value("${busify.admin.user-email}")
     private String adminUserEmail;
 
-    // Chạy vào ngày 1 hàng tháng lúc 8:00 AM
+    // Chạy vào ngày 1 hàng tháng lúc 8:00 AM, trên một instance duy nhất
     @Scheduled(cron = "0 0 8 1 * ?")
+    public void scheduledMonthlyReportNotification() {
+        jobCoordinator.runExclusive("report-monthly-notification", this::generateAndSendMonthlyReportNotification);
+    }
+
     public void generateAndSendMonthlyReportNotification() {
         try {
             LocalDate lastMonth = LocalDate.now().minusMonths(1);
@@ -0,0 +1,98 @@
+package com.busify.project.notification.service;
+
+import com.busify.project.notification.controller.NotificationController;
+import com.busify.project.notification.dto.NotificationPushDTO;
+import com.busify.project.notification.enums.NotificationStatus;
+import com.busify.project.notification.event.NotificationChangedEvent;
+import com.busify.project.notification.repository.NotificationRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Giữ số notification chưa đọc của từng user và đẩy thay đổi tới client.
+ * <p>
+ * Số chưa đọc được đọc từ {@link UnreadCounterStore}, chỉ COUNT trên DB khi chưa có bộ đếm
+ * (lần đầu hoặc hết TTL). Sau mỗi thay đổi đã commit, bộ đếm được cộng/trừ nguyên tử và client
+ * nhận {@link NotificationPushDTO} trên {@code /queue/notifications/{userId}} kèm số chưa đọc mới,
+ * nên không cần poll API đếm. Bộ đếm lỗi thì đọc thẳng từ DB.
+ * </p>
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class NotificationDeliveryService {
+
+    private final UnreadCounterStore counterStore;
+    private final NotificationRepository notificationRepository;
+    private final NotificationController notificationController;
+
+    public long unreadCount(Long userId) {
+        try {
+            Long cached = counterStore.get(userId);
+            if (cached != null) {
+                return cached;
+            }
+        } catch (RuntimeException e) {
+            log.warn("Không đọc được bộ đếm chưa đọc của user {}: {}", userId, e.getMessage());
+            return countFromDb(userId);
+        }
+        long count = countFromDb(userId);
+        try {
+            counterStore.set(userId, count);
+        } catch (RuntimeException e) {
+            log.warn("Không ghi được bộ đếm chưa đọc của user {}: {}", userId, e.getMessage());
+        }
+        return count;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNotificationChanged(NotificationChangedEvent event) {
+        Long userId = event.getUserId();
+        if (userId == null) {
+            return;
+        }
+        long unread = applyToCounter(event);
+        try {
+            notificationController.sendToUser(userId, NotificationPushDTO.builder()
+                    .change(event.getChange())
+                    .notification(event.getNotification())
+                    .unreadCount(unread)
+                    .build());
+        } catch (RuntimeException e) {
+            // Client vẫn lấy được trạng thái mới qua API khi kết nối lại
+            log.warn("Không đẩy được notification tới user {}: {}", userId, e.getMessage());
+        }
+    }
+
+    private long applyToCounter(NotificationChangedEvent event) {
+        Long userId = event.getUserId();
+        try {
+            if (event.getChange() == NotificationChangedEvent.Change.READ_ALL) {
+                counterStore.set(userId, 0);
+                return 0;
+            }
+            Long updated = event.getUnreadDelta() != 0 ? counterStore.add(userId, event.getUnreadDelta()) : null;
+            return updated != null ? updated : unreadCount(userId);
+        } catch (RuntimeException e) {
+            // Bỏ bộ đếm để lần đọc sau nạp lại từ DB thay vì giữ giá trị sai
+            log.warn("Không cập nhật được bộ đếm chưa đọc của user {}: {}", userId, e.getMessage());
+            evictQuietly(userId);
+            return countFromDb(userId);
+        }
+    }
+
+    private void evictQuietly(Long userId) {
+        try {
+            counterStore.evict(userId);
+        } catch (RuntimeException ignored) {
+            // Bộ đếm tự hết hạn theo TTL
+        }
+    }
+
+    private long countFromDb(Long userId) {
+        return notificationRepository.countActiveByUserIdAndStatus(userId, NotificationStatus.UNREAD);
+    }
+}
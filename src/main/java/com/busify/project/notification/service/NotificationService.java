@@ -1,6 +1,7 @@
 package com.busify.project.notification.service;
 
 import com.busify.project.common.event.PaymentSuccessEvent;
+import com.busify.project.common.pagination.CursorPage;
 import com.busify.project.notification.dto.NotificationDTO;
 import com.busify.project.notification.entity.Notification;
 import com.busify.project.notification.enums.NotificationStatus;
@@ -16,6 +17,9 @@ public interface NotificationService {
     // Lấy notifications của user
     List<NotificationDTO> getNotificationsByUser();
 
+    // Lấy notifications của user theo trang cursor, mới nhất trước
+    CursorPage<NotificationDTO> getNotifications(String cursor, Integer limit);
+
     List<NotificationDTO> getUnreadNotifications();
 
     // Lấy notification theo ID
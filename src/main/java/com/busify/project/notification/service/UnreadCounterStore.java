@@ -0,0 +1,25 @@
+package com.busify.project.notification.service;
+
+/**
+ * Lưu số notification chưa đọc của từng user. Mỗi thao tác phải nguyên tử trên một user.
+ * Bộ đếm chỉ là bản sao của bảng notifications: không có giá trị thì đọc lại từ DB.
+ */
+public interface UnreadCounterStore {
+
+    /**
+     * @return {@code null} nếu chưa có bộ đếm cho user
+     */
+    Long get(Long userId);
+
+    void set(Long userId, long value);
+
+    /**
+     * Cộng {@code delta} (không xuống dưới 0) nếu bộ đếm đang tồn tại; chưa có thì giữ nguyên,
+     * lần đọc sau sẽ nạp từ DB
+     *
+     * @return giá trị mới, {@code null} nếu chưa có bộ đếm
+     */
+    Long add(Long userId, long delta);
+
+    void evict(Long userId);
+}
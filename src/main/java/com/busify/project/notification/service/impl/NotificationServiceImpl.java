@@ -7,21 +7,31 @@ import java.util.UUID;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
 
+import com.busify.project.common.pagination.CursorCodec;
+import com.busify.project.common.pagination.CursorPage;
+import com.busify.project.common.pagination.CursorPagination;
+import com.busify.project.common.security.principal.UserPrincipal;
 import com.busify.project.notification.dto.NotificationDTO;
 import com.busify.project.notification.entity.Notification;
 import com.busify.project.notification.entity.NotificationData;
 import com.busify.project.notification.enums.NotificationStatus;
+import com.busify.project.notification.event.NotificationChangedEvent;
 import com.busify.project.notification.exception.NotificationCreationException;
 import com.busify.project.notification.exception.NotificationNotFoundException;
 import com.busify.project.notification.exception.NotificationUserException;
 import com.busify.project.notification.mapper.NotificationMapper;
 import com.busify.project.notification.repository.NotificationRepo;
 import com.busify.project.notification.repository.NotificationRepository;
+import com.busify.project.notification.service.NotificationDeliveryService;
 import com.busify.project.notification.service.NotificationService;
 import com.busify.project.user.entity.User;
 import com.busify.project.user.repository.UserRepository;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -42,6 +52,9 @@ public class NotificationServiceImpl implements NotificationService {
     private final NotificationRepository notificationRepository;
     private final JwtUtils jwtUtils;
     private final UserRepository userRepository;
+    private final NotificationDeliveryService deliveryService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CursorPagination cursorPagination;
 
     @EventListener
     @Override
@@ -69,7 +82,10 @@ public class NotificationServiceImpl implements NotificationService {
         try {
             Notification saved = notificationRepository.save(notification);
             log.info("✅ Đã tạo notification: {} cho user ID: {}", saved.getTitle(), saved.getUserId());
-            return NotificationMapper.toDTO(saved);
+            NotificationDTO dto = NotificationMapper.toDTO(saved);
+            publishChange(saved.getUserId(), NotificationChangedEvent.Change.CREATED, dto,
+                    saved.getStatus() == NotificationStatus.UNREAD ? 1 : 0);
+            return dto;
         } catch (Exception e) {
             log.error("❌ Lỗi khi tạo notification: {}", e.getMessage(), e);
             throw NotificationCreationException.creationFailed(e);
@@ -77,21 +93,31 @@ public class NotificationServiceImpl implements NotificationService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<NotificationDTO> getNotificationsByUser() {
-        String email = jwtUtils.getCurrentUserLogin().isPresent() ? jwtUtils.getCurrentUserLogin().get() : null;
-        User user = userRepository.findByEmail(email).orElseThrow(() -> NotificationUserException.userNotExists());
-        List<Notification> notifications = notificationRepository.findByUserId(user.getId());
+        Long userId = currentUserId();
+        cursorPagination.requireBounded(notificationRepository.countActiveByUserId(userId), "notification");
+        List<Notification> notifications = notificationRepository.findByUserId(userId);
         return notifications.stream()
                 .map(NotificationMapper::toDTO)
                 .collect(Collectors.toList());
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<NotificationDTO> getNotifications(String cursor, Integer limit) {
+        Long userId = currentUserId();
+        int pageSize = cursorPagination.limit(limit);
+        List<Notification> rows = notificationRepository.findActiveByUserIdBefore(userId,
+                cursorPagination.afterId(cursor), PageRequest.of(0, pageSize + 1));
+        return CursorPage.of(rows, pageSize, n -> CursorCodec.encode(n.getId()))
+                .map(NotificationMapper::toDTO);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<NotificationDTO> getUnreadNotifications() {
-        String email = jwtUtils.getCurrentUserLogin().isPresent() ? jwtUtils.getCurrentUserLogin().get() : null;
-        User user = userRepository.findByEmail(email).orElseThrow(() -> NotificationUserException.userNotExists());
-        Long userId = user.getId();
+        Long userId = currentUserId();
         List<Notification> notifications = notificationRepository.findByUserIdAndStatus(userId,
                 NotificationStatus.UNREAD);
         return notifications.stream()
@@ -102,83 +128,94 @@ public class NotificationServiceImpl implements NotificationService {
     @Override
     @Transactional(readOnly = true)
     public long countUnreadNotifications() {
-        String email = jwtUtils.getCurrentUserLogin().isPresent() ? jwtUtils.getCurrentUserLogin().get() : null;
-        User user = userRepository.findByEmail(email).orElseThrow(() -> NotificationUserException.userNotExists());
-        return notificationRepository.countByUserIdAndStatus(user.getId(), NotificationStatus.UNREAD);
+        return deliveryService.unreadCount(currentUserId());
     }
 
     @Override
     public NotificationDTO markAsRead(Long notificationId) {
-        String email = jwtUtils.getCurrentUserLogin().isPresent() ? jwtUtils.getCurrentUserLogin().get() : null;
-        User user = userRepository.findByEmail(email).orElseThrow(() -> NotificationUserException.userNotExists());
+        Long userId = currentUserId();
         Notification notification = notificationRepository
-                .findByIdAndUserId(notificationId, user.getId())
+                .findByIdAndUserId(notificationId, userId)
                 .orElseThrow(() -> NotificationNotFoundException.notExists());
 
-        notification.setStatus(NotificationStatus.READ);
-        notification.setReadAt(LocalDateTime.now());
-
-        Notification saved = notificationRepository.save(notification);
-        return NotificationMapper.toDTO(saved);
-
+        // Hai request đánh dấu cùng lúc chỉ một lần được trừ bộ đếm
+        LocalDateTime now = LocalDateTime.now();
+        if (notificationRepository.markRead(notificationId, userId, now) == 1) {
+            notification.setStatus(NotificationStatus.READ);
+            notification.setReadAt(now);
+            NotificationDTO dto = NotificationMapper.toDTO(notification);
+            publishChange(userId, NotificationChangedEvent.Change.READ, dto, Boolean.TRUE.equals(
+                    notification.getIsDeleted()) ? 0 : -1);
+            return dto;
+        }
+        return NotificationMapper.toDTO(notification);
     }
 
     @Override
     public void markAllAsRead() {
-        String email = jwtUtils.getCurrentUserLogin().isPresent() ? jwtUtils.getCurrentUserLogin().get() : null;
-        User user = userRepository.findByEmail(email).orElseThrow(() -> NotificationUserException.userNotExists());
-        List<NotificationDTO> unreadNotifications = getUnreadNotifications();
-
-        unreadNotifications.forEach(notification -> {
-            notification.setStatus(NotificationStatus.READ);
-            notification.setReadAt(LocalDateTime.now());
-        });
-
-        List<Notification> notifications = unreadNotifications.stream()
-                .map(NotificationMapper::toEntity)
-                .collect(Collectors.toList());
-
-        notificationRepository.saveAll(notifications);
-        log.info("✅ Đã đánh dấu {} notifications là đã đọc cho user ID: {}",
-                unreadNotifications.size(), user.getId());
+        Long userId = currentUserId();
+        int updated = notificationRepository.markAllRead(userId, LocalDateTime.now());
+        publishChange(userId, NotificationChangedEvent.Change.READ_ALL, null, 0);
+        log.info("✅ Đã đánh dấu {} notifications là đã đọc cho user ID: {}", updated, userId);
     }
 
     @Override
     public void deleteNotification(Long notificationId) {
-        String email = jwtUtils.getCurrentUserLogin().isPresent() ? jwtUtils.getCurrentUserLogin().get() : null;
-        User user = userRepository.findByEmail(email).orElseThrow(() -> NotificationUserException.userNotExists());
+        Long userId = currentUserId();
         Notification notification = notificationRepository
-                .findByIdAndUserId(notificationId, user.getId())
+                .findByIdAndUserId(notificationId, userId)
                 .orElseThrow(() -> NotificationNotFoundException.notExists());
 
-        notification.setIsDeleted(true);
-        notificationRepository.save(notification);
-        log.info("✅ Đã xóa notification ID: {} cho user ID: {}", notificationId, user.getId());
+        if (notificationRepository.softDelete(notificationId, userId) == 1) {
+            notification.setIsDeleted(true);
+            publishChange(userId, NotificationChangedEvent.Change.DELETED, NotificationMapper.toDTO(notification),
+                    notification.getStatus() == NotificationStatus.UNREAD ? -1 : 0);
+        }
+        log.info("✅ Đã xóa notification ID: {} cho user ID: {}", notificationId, userId);
     }
 
     @Override
     public NotificationDTO updateStatus(Long notificationId, NotificationStatus status) {
-        String email = jwtUtils.getCurrentUserLogin().isPresent() ? jwtUtils.getCurrentUserLogin().get() : null;
-        User user = userRepository.findByEmail(email).orElseThrow(() -> NotificationUserException.userNotExists());
+        Long userId = currentUserId();
         Notification notification = notificationRepository
-                .findByIdAndUserId(notificationId, user.getId())
+                .findByIdAndUserId(notificationId, userId)
                 .orElseThrow(() -> NotificationNotFoundException.notExists());
 
+        boolean wasUnread = notification.getStatus() == NotificationStatus.UNREAD;
         notification.setStatus(status);
         if (status == NotificationStatus.READ && notification.getReadAt() == null) {
             notification.setReadAt(LocalDateTime.now());
         }
         Notification saved = notificationRepository.save(notification);
-        return NotificationMapper.toDTO(saved);
+        NotificationDTO dto = NotificationMapper.toDTO(saved);
+        long delta = Boolean.TRUE.equals(saved.getIsDeleted()) ? 0
+                : (status == NotificationStatus.UNREAD ? 1 : 0) - (wasUnread ? 1 : 0);
+        publishChange(userId, NotificationChangedEvent.Change.UPDATED, dto, delta);
+        return dto;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public NotificationDTO getNotificationById(Long notificationId) {
-        String email = jwtUtils.getCurrentUserLogin().isPresent() ? jwtUtils.getCurrentUserLogin().get() : null;
-        User user = userRepository.findByEmail(email).orElseThrow(() -> NotificationUserException.userNotExists());
         Notification notification = notificationRepository
-                .findByIdAndUserId(notificationId, user.getId())
+                .findByIdAndUserId(notificationId, currentUserId())
                 .orElseThrow(() -> NotificationNotFoundException.notExists());
         return NotificationMapper.toDTO(notification);
     }
+
+    // Lấy id từ principal đã nạp lúc xác thực JWT, chỉ tra DB khi principal không phải UserPrincipal
+    private Long currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserPrincipal principal) {
+            return principal.getUser().getId();
+        }
+        String email = jwtUtils.getCurrentUserLogin().isPresent() ? jwtUtils.getCurrentUserLogin().get() : null;
+        User user = userRepository.findByEmail(email).orElseThrow(() -> NotificationUserException.userNotExists());
+        return user.getId();
+    }
+
+    private void publishChange(Long userId, NotificationChangedEvent.Change change, NotificationDTO notification,
+            long unreadDelta) {
+        eventPublisher.publishEvent(new NotificationChangedEvent(this, userId, change, notification, unreadDelta));
+    }
 }
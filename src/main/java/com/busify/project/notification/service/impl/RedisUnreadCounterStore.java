@@ -0,0 +1,63 @@
+package com.busify.project.notification.service.impl;
+
+import com.busify.project.notification.service.UnreadCounterStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * {@link UnreadCounterStore} trên Redis, dùng chung giữa các instance. Cộng/trừ chạy bằng script Lua
+ * nên kiểm tra tồn tại, cộng và chặn dưới 0 là một thao tác nguyên tử. Bộ đếm có TTL để mọi sai lệch
+ * với DB (ví dụ sửa trực tiếp trong DB) tự hết sau một khoảng ngắn.
+ */
+@Component
+public class RedisUnreadCounterStore implements UnreadCounterStore {
+
+    private static final String KEY_PREFIX = "busify:notification:unread:";
+
+    private static final RedisScript<Long> ADD_IF_PRESENT = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 0 then return nil end "
+                    + "local v = redis.call('INCRBY', KEYS[1], ARGV[1]) "
+                    + "if v < 0 then redis.call('SET', KEYS[1], 0, 'KEEPTTL') v = 0 end "
+                    + "return v",
+            Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final Duration ttl;
+
+    public RedisUnreadCounterStore(StringRedisTemplate redisTemplate,
+            @Value("${busify.notification.unread-counter.ttl-ms:600000}") long ttlMs) {
+        this.redisTemplate = redisTemplate;
+        this.ttl = Duration.ofMillis(ttlMs);
+    }
+
+    @Override
+    public Long get(Long userId) {
+        String value = redisTemplate.opsForValue().get(key(userId));
+        return value != null ? Long.valueOf(value) : null;
+    }
+
+    @Override
+    public void set(Long userId, long value) {
+        redisTemplate.opsForValue().set(key(userId), Long.toString(value), ttl);
+    }
+
+    @Override
+    public Long add(Long userId, long delta) {
+        return redisTemplate.execute(ADD_IF_PRESENT, List.of(key(userId)), Long.toString(delta));
+    }
+
+    @Override
+    public void evict(Long userId) {
+        redisTemplate.delete(key(userId));
+    }
+
+    private static String key(Long userId) {
+        return KEY_PREFIX + userId;
+    }
+}
@@ -4,9 +4,8 @@ import com.busify.project.common.dto.response.ApiResponse;
 import com.busify.project.payment.dto.request.PaymentRequestDTO;
 import com.busify.project.payment.dto.response.PaymentDetailResponseDTO;
 import com.busify.project.payment.dto.response.PaymentResponseDTO;
+import com.busify.project.payment.enums.PaymentStatus;
 import com.busify.project.payment.service.impl.PaymentServiceImpl;
-import com.busify.project.payment.strategy.impl.VNPayPaymentStrategy;
-import com.busify.project.ticket.service.TicketService;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -30,8 +29,6 @@ import org.springframework.web.bind.annotation.RequestParam;
 public class PaymentController {
 
     private final PaymentServiceImpl paymentService;
-    private final VNPayPaymentStrategy vnPayPaymentStrategy;
-    private final TicketService ticketService;
 
     @PostMapping("/create")
     @Operation(summary = "Create a new payment")
@@ -77,12 +74,9 @@ public class PaymentController {
             log.info("PayPal success callback - PayPal Payment ID: {}, Payer ID: {}",
                     paypalPaymentId, payerId);
 
-            PaymentResponseDTO response = paymentService.executePaymentByPayPalId(paypalPaymentId, payerId);
-            if (response.getStatus().name().equals("completed")) {
-                // Lấy bookingId từ response hoặc từ Payment entity
-                Long bookingId = response.getBookingId();
-                System.out.println("Booking Id: " + bookingId);
-                ticketService.createTicketsFromBooking(bookingId, null);
+            // Callback lặp lại (F5, gateway gọi lại) trả về kết quả lần đầu, không xuất vé lần nữa
+            PaymentResponseDTO response = paymentService.handlePayPalSuccess(paypalPaymentId, payerId);
+            if (response.getStatus() == PaymentStatus.completed) {
                 return ApiResponse.<PaymentResponseDTO>builder()
                         .code(HttpStatus.OK.value())
                         .message("Payment executed successfully")
@@ -138,12 +132,6 @@ public class PaymentController {
         try {
             log.info("VNPay callback received with parameters: {}", allParams);
 
-            String transactionCode = allParams.get("vnp_TxnRef");
-            String responseCode = allParams.get("vnp_ResponseCode");
-            String amount = allParams.get("vnp_Amount");
-            String orderInfo = allParams.get("vnp_OrderInfo");
-            String vnpTransactionNo = allParams.get("vnp_TransactionNo"); // VNPay internal transaction ID
-
             // Xác thực chữ ký (tùy chọn - có thể bỏ qua để đơn giản)
             // boolean isValid = VNPayUtil.verifyCallback(allParams,
             // vnPayConfig.getSecretKey());
@@ -151,13 +139,8 @@ public class PaymentController {
             // throw new RuntimeException("Invalid VNPay signature");
             // }
 
-            PaymentResponseDTO response = vnPayPaymentStrategy.handleCallback(
-                    transactionCode, responseCode, amount, orderInfo, vnpTransactionNo);
-
-            // Lấy bookingId từ response hoặc từ Payment entity
-            Long bookingId = response.getBookingId();
-            System.out.println("Booking Id: " + bookingId);
-            ticketService.createTicketsFromBooking(bookingId, null);
+            // Callback lặp lại trả về kết quả lần đầu; vé chỉ được xuất khi thanh toán thành công
+            PaymentResponseDTO response = paymentService.handleVnPayCallback(allParams);
 
             return ApiResponse.<PaymentResponseDTO>builder()
                     .code(HttpStatus.OK.value())
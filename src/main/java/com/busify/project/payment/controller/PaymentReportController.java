@@ -1,25 +1,41 @@
 package com.busify.project.payment.controller;
 
-import com.busify.project.common.dto.response.ApiResponse;
+import com.busify.project.report.export.ExportDataset;
+import com.busify.project.report.export.ExportFormat;
+import com.busify.project.report.service.OperatorExportService;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.io.IOException;
+import java.time.LocalDate;
+
 @RestController
 @RequestMapping("/api/report/payments")
 @RequiredArgsConstructor
 @Tag(name = "Payment Report", description = "Payment Report API")
 public class PaymentReportController {
 
+    private final OperatorExportService operatorExportService;
+
     @GetMapping("{operatorId}")
     @Operation(summary = "Get all payments by operator")
-    public ApiResponse<?> getAllPaymentsByOperator(@PathVariable String operatorId) {
-        return ApiResponse.success("");
+    @PreAuthorize("hasRole('OPERATOR') or hasRole('ADMIN')")
+    public void getAllPaymentsByOperator(@PathVariable Long operatorId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "csv") ExportFormat format,
+            HttpServletResponse response) throws IOException {
+        operatorExportService.exportToResponse(ExportDataset.payments, format, operatorId, from, to, response);
     }
 }
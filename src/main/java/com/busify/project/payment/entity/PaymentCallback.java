@@ -0,0 +1,43 @@
+package com.busify.project.payment.entity;
+
+import com.busify.project.payment.enums.PaymentStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Callback từ payment gateway đã nhận, theo mã giao dịch của gateway.
+ * Dòng được chèn trước khi xử lý (chiếm khoá); kết quả được ghi lại sau khi xử lý xong
+ * để callback lặp lại trả về đúng kết quả lần đầu mà không chạy lại.
+ */
+@Entity
+@Table(name = "payment_callbacks")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentCallback {
+
+    @Id
+    @Column(name = "callback_key", length = 191)
+    private String callbackKey;
+
+    @Column(name = "payment_id")
+    private Long paymentId;
+
+    @Column(name = "booking_id")
+    private Long bookingId;
+
+    // null = callback đầu tiên đang được xử lý
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", length = 20)
+    private PaymentStatus status;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "completed_at")
+    private Instant completedAt;
+}
@@ -0,0 +1,65 @@
+package com.busify.project.payment.event;
+
+import com.busify.project.common.event.PaymentSuccessEvent;
+import com.busify.project.common.outbox.OutboxEventCodec;
+import com.busify.project.payment.entity.Payment;
+import com.busify.project.payment.exception.PaymentNotFoundException;
+import com.busify.project.payment.repository.PaymentRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * PaymentSuccessEvent qua outbox: chỉ lưu payment id, payment được nạp lại khi relay gửi
+ */
+@Component
+@RequiredArgsConstructor
+public class PaymentSuccessEventCodec implements OutboxEventCodec<PaymentSuccessEvent> {
+
+    private final PaymentRepository paymentRepository;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public Class<PaymentSuccessEvent> getEventType() {
+        return PaymentSuccessEvent.class;
+    }
+
+    @Override
+    public String getAggregateType() {
+        return "PAYMENT";
+    }
+
+    @Override
+    public String aggregateId(PaymentSuccessEvent event) {
+        return String.valueOf(event.getPayment().getPaymentId());
+    }
+
+    @Override
+    public String encode(PaymentSuccessEvent event) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("paymentId", event.getPayment().getPaymentId());
+        payload.put("message", event.getMessage());
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Không thể ghi PaymentSuccessEvent vào outbox", e);
+        }
+    }
+
+    @Override
+    public PaymentSuccessEvent decode(String payload) {
+        try {
+            JsonNode node = objectMapper.readTree(payload);
+            Payment payment = paymentRepository.findWithBookingByPaymentId(node.get("paymentId").asLong())
+                    .orElseThrow(PaymentNotFoundException::notFound);
+            return new PaymentSuccessEvent(this, node.path("message").asText(null), payment);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Payload PaymentSuccessEvent không hợp lệ", e);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.busify.project.payment.repository;
+
+import com.busify.project.payment.entity.PaymentCallback;
+import com.busify.project.payment.enums.PaymentStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+@Repository
+public interface PaymentCallbackRepository extends JpaRepository<PaymentCallback, String> {
+
+    /**
+     * Chiếm khoá xử lý callback, commit ngay để instance khác thấy được.
+     *
+     * @return 1 nếu chiếm được, 0 nếu callback này đã được nhận trước đó
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT IGNORE INTO payment_callbacks (callback_key, created_at) VALUES (:key, :now)",
+            nativeQuery = true)
+    int claim(@Param("key") String callbackKey, @Param("now") Instant now);
+
+    /**
+     * Lấy lại khoá của lần xử lý bị bỏ dở (instance chết giữa chừng, không kịp ghi kết quả hay trả khoá).
+     * Đặt lại {@code created_at} nên chỉ một request lấy được, các request khác lại thấy khoá còn mới.
+     *
+     * @return 1 nếu lấy được, 0 nếu callback đã xử lý xong hoặc lần xử lý hiện tại chưa quá hạn
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE PaymentCallback c SET c.createdAt = :now " +
+            "WHERE c.callbackKey = :key AND c.status IS NULL AND c.createdAt < :staleBefore")
+    int takeOverStale(@Param("key") String callbackKey, @Param("now") Instant now,
+            @Param("staleBefore") Instant staleBefore);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE PaymentCallback c SET c.paymentId = :paymentId, c.bookingId = :bookingId, " +
+            "c.status = :status, c.completedAt = :now WHERE c.callbackKey = :key")
+    int recordResult(@Param("key") String callbackKey,
+            @Param("paymentId") Long paymentId,
+            @Param("bookingId") Long bookingId,
+            @Param("status") PaymentStatus status,
+            @Param("now") Instant now);
+
+    /**
+     * Trả khoá khi xử lý lỗi, để lần gateway gọi lại được xử lý từ đầu
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM PaymentCallback c WHERE c.callbackKey = :key AND c.status IS NULL")
+    int release(@Param("key") String callbackKey);
+}
@@ -1,13 +1,17 @@
 package com.busify.project.payment.repository;
 
+import java.time.Instant;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.busify.project.payment.entity.Payment;
+import com.busify.project.payment.enums.PaymentStatus;
 
 @Repository
 public interface PaymentRepository extends JpaRepository<Payment, Long> {
@@ -20,4 +24,30 @@ public interface PaymentRepository extends JpaRepository<Payment, Long> {
 
     @Query("SELECT p FROM Payment p JOIN FETCH p.booking b JOIN FETCH b.trip t WHERE p.paymentId = :paymentId AND p.status = 'COMPLETED'")
     Optional<Payment> findById(@Param("paymentId") Long id);
+
+    @Query("SELECT p FROM Payment p JOIN FETCH p.booking b JOIN FETCH b.trip WHERE p.paymentId = :paymentId")
+    Optional<Payment> findWithBookingByPaymentId(@Param("paymentId") Long paymentId);
+
+    @Query("SELECT p.status FROM Payment p WHERE p.paymentId = :paymentId")
+    PaymentStatus findStatusByPaymentId(@Param("paymentId") Long paymentId);
+
+    /**
+     * Compare-and-set pending -> completed: chỉ một callback thắng và chạy tiếp luồng hoàn tất
+     *
+     * @param gatewayId mã giao dịch gateway, null thì giữ nguyên
+     * @return 1 nếu chuyển trạng thái thành công, 0 nếu payment không còn pending
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Payment p SET p.status = com.busify.project.payment.enums.PaymentStatus.completed, " +
+            "p.paidAt = :paidAt, p.paymentGatewayId = COALESCE(:gatewayId, p.paymentGatewayId) " +
+            "WHERE p.paymentId = :paymentId AND p.status = com.busify.project.payment.enums.PaymentStatus.pending")
+    int completeIfPending(@Param("paymentId") Long paymentId, @Param("gatewayId") String gatewayId,
+            @Param("paidAt") Instant paidAt);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Payment p SET p.status = com.busify.project.payment.enums.PaymentStatus.failed " +
+            "WHERE p.paymentId = :paymentId AND p.status = com.busify.project.payment.enums.PaymentStatus.pending")
+    int failIfPending(@Param("paymentId") Long paymentId);
 }
@@ -1,5 +1,7 @@
 package com.busify.project.payment.service;
 
+import java.util.Map;
+
 import org.springframework.stereotype.Service;
 
 import com.busify.project.payment.dto.request.PaymentRequestDTO;
@@ -18,6 +20,12 @@ public interface PaymentService {
     // Execute PayPal payment by PayPal payment ID
     PaymentResponseDTO executePaymentByPayPalId(String paypalPaymentId, String payerId);
 
+    // PayPal return callback: execute payment và xuất vé đúng một lần cho mỗi PayPal payment ID
+    PaymentResponseDTO handlePayPalSuccess(String paypalPaymentId, String payerId);
+
+    // VNPay return callback: cập nhật payment và xuất vé đúng một lần cho mỗi giao dịch VNPay
+    PaymentResponseDTO handleVnPayCallback(Map<String, String> params);
+
     // Cancel PayPal payment
     PaymentResponseDTO cancelPayment(String paymentId);
 
@@ -0,0 +1,118 @@
+package com.busify.project.payment.service.impl;
+
+import com.busify.project.common.cache.CacheNames;
+import com.busify.project.payment.dto.response.PaymentResponseDTO;
+import com.busify.project.payment.entity.PaymentCallback;
+import com.busify.project.payment.enums.PaymentStatus;
+import com.busify.project.payment.repository.PaymentCallbackRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.function.Supplier;
+
+/**
+ * Đảm bảo mỗi callback của payment gateway chỉ chạy luồng hoàn tất thanh toán một lần.
+ * <p>
+ * Gateway gọi lại callback và người dùng F5 trang return, nên cùng một giao dịch có thể đến nhiều lần,
+ * kể cả song song trên nhiều instance. Callback đầu tiên chiếm khoá trong bảng {@code payment_callbacks}
+ * (INSERT IGNORE theo khoá chính) rồi mới xử lý; các lần sau trả lại kết quả đã lưu, đọc từ cache
+ * {@link CacheNames#PAYMENT_CALLBACKS} hoặc bằng một lần tra khoá chính. Khoá chưa có kết quả quá
+ * {@code callback-claim-timeout-minutes} được coi là bị bỏ dở và callback kế tiếp lấy lại để xử lý.
+ * </p>
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PaymentCallbackDeduplicator {
+
+    private final PaymentCallbackRepository callbackRepository;
+    private final CacheManager cacheManager;
+
+    // Lâu hơn nhiều so với thời gian xử lý một callback (gọi gateway + ghi booking/vé)
+    @Value("${busify.payment.callback-claim-timeout-minutes:10}")
+    private long claimTimeoutMinutes;
+
+    public static String payPalKey(String paypalPaymentId) {
+        return "PAYPAL:" + paypalPaymentId;
+    }
+
+    /**
+     * TxnRef là mã giao dịch của Busify, TransactionNo là mã giao dịch của VNPay cho lần thanh toán đó
+     */
+    public static String vnPayKey(String txnRef, String vnpTransactionNo) {
+        return "VNPAY:" + txnRef + ":" + (vnpTransactionNo != null ? vnpTransactionNo : "");
+    }
+
+    /**
+     * Chạy {@code handler} nếu đây là lần đầu nhận callback {@code callbackKey}, ngược lại trả về
+     * kết quả của lần đầu. Nếu lần đầu vẫn đang chạy, trả về trạng thái pending.
+     * Handler lỗi thì khoá được trả lại để lần gọi lại của gateway xử lý từ đầu.
+     */
+    public PaymentResponseDTO process(String callbackKey, Supplier<PaymentResponseDTO> handler) {
+        Cache cache = cacheManager.getCache(CacheNames.PAYMENT_CALLBACKS);
+        if (cache != null) {
+            PaymentResponseDTO cached = cache.get(callbackKey, PaymentResponseDTO.class);
+            if (cached != null) {
+                log.info("Bỏ qua callback trùng {} (cache)", callbackKey);
+                return cached;
+            }
+        }
+
+        Instant now = Instant.now();
+        if (callbackRepository.claim(callbackKey, now) == 0
+                && callbackRepository.takeOverStale(callbackKey, now,
+                        now.minus(Duration.ofMinutes(claimTimeoutMinutes))) == 0) {
+            return callbackRepository.findById(callbackKey)
+                    .map(previous -> duplicateResult(previous, cache))
+                    // Dòng vừa bị trả khoá giữa hai câu lệnh: coi như đang xử lý
+                    .orElseGet(() -> PaymentResponseDTO.builder().status(PaymentStatus.pending).build());
+        }
+
+        PaymentResponseDTO result;
+        try {
+            result = handler.get();
+        } catch (RuntimeException e) {
+            callbackRepository.release(callbackKey);
+            throw e;
+        }
+
+        callbackRepository.recordResult(callbackKey, result.getPaymentId(), result.getBookingId(),
+                result.getStatus(), Instant.now());
+        if (cache != null) {
+            cache.put(callbackKey, toCachedResult(result));
+        }
+        return result;
+    }
+
+    private PaymentResponseDTO duplicateResult(PaymentCallback previous, Cache cache) {
+        PaymentResponseDTO result = PaymentResponseDTO.builder()
+                .paymentId(previous.getPaymentId())
+                .bookingId(previous.getBookingId())
+                .status(previous.getStatus() != null ? previous.getStatus() : PaymentStatus.pending)
+                .build();
+        if (previous.getStatus() == null) {
+            log.info("Callback {} đang được xử lý ở request khác", previous.getCallbackKey());
+            return result;
+        }
+        log.info("Bỏ qua callback trùng {} (đã xử lý lúc {})", previous.getCallbackKey(), previous.getCompletedAt());
+        if (cache != null) {
+            cache.put(previous.getCallbackKey(), result);
+        }
+        return result;
+    }
+
+    // Chỉ giữ các trường được lưu trong bảng, để kết quả từ cache và từ DB giống nhau
+    private static PaymentResponseDTO toCachedResult(PaymentResponseDTO result) {
+        return PaymentResponseDTO.builder()
+                .paymentId(result.getPaymentId())
+                .bookingId(result.getBookingId())
+                .status(result.getStatus())
+                .build();
+    }
+}
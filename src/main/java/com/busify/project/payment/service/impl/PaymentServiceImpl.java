@@ -17,6 +17,8 @@ import com.busify.project.payment.repository.PaymentRepository;
 import com.busify.project.payment.service.PaymentService;
 import com.busify.project.payment.strategy.PaymentStrategy;
 import com.busify.project.payment.strategy.PaymentStrategyFactory;
+import com.busify.project.payment.strategy.impl.VNPayPaymentStrategy;
+import com.busify.project.ticket.service.TicketService;
 import com.busify.project.user.entity.Profile;
 import com.busify.project.audit_log.entity.AuditLog;
 import com.busify.project.audit_log.service.AuditLogService;
@@ -30,6 +32,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.util.Map;
 import java.util.UUID;
 
 @Service
@@ -42,6 +45,9 @@ public class PaymentServiceImpl implements PaymentService {
     private final PaymentStrategyFactory paymentStrategyFactory;
     private final AuditLogService auditLogService;
     private final UserRepository userRepository;
+    private final PaymentCallbackDeduplicator callbackDeduplicator;
+    private final VNPayPaymentStrategy vnPayPaymentStrategy;
+    private final TicketService ticketService;
 
     @Override
     public PaymentResponseDTO createPayment(PaymentRequestDTO paymentRequest) {
@@ -183,6 +189,42 @@ public class PaymentServiceImpl implements PaymentService {
         }
     }
 
+    @Override
+    public PaymentResponseDTO handlePayPalSuccess(String paypalPaymentId, String payerId) {
+        return callbackDeduplicator.process(PaymentCallbackDeduplicator.payPalKey(paypalPaymentId), () -> {
+            PaymentResponseDTO response = executePaymentByPayPalId(paypalPaymentId, payerId);
+            issueTicketsIfCompleted(response);
+            return response;
+        });
+    }
+
+    @Override
+    public PaymentResponseDTO handleVnPayCallback(Map<String, String> params) {
+        String transactionCode = params.get("vnp_TxnRef");
+        String vnpTransactionNo = params.get("vnp_TransactionNo"); // VNPay internal transaction ID
+
+        return callbackDeduplicator.process(PaymentCallbackDeduplicator.vnPayKey(transactionCode, vnpTransactionNo),
+                () -> {
+                    PaymentResponseDTO response = vnPayPaymentStrategy.handleCallback(
+                            transactionCode,
+                            params.get("vnp_ResponseCode"),
+                            params.get("vnp_Amount"),
+                            params.get("vnp_OrderInfo"),
+                            vnpTransactionNo);
+                    issueTicketsIfCompleted(response);
+                    return response;
+                });
+    }
+
+    /**
+     * Xuất vé khi payment đã hoàn tất; createTicketsFromBooking bỏ qua booking đã có vé
+     */
+    private void issueTicketsIfCompleted(PaymentResponseDTO response) {
+        if (response.getStatus() == PaymentStatus.completed && response.getBookingId() != null) {
+            ticketService.createTicketsFromBooking(response.getBookingId(), null);
+        }
+    }
+
     @Override
     public PaymentResponseDTO executePayment(String dbPaymentId, String payerId) {
         try {
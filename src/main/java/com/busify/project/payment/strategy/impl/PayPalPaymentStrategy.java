@@ -90,27 +90,28 @@ public class PayPalPaymentStrategy implements PaymentStrategy {
             log.info("PayPal payment state: {}", executedPayment.getState());
 
             if ("approved".equals(executedPayment.getState())) {
-                // Cập nhật trạng thái payment
-                paymentEntity.setStatus(PaymentStatus.completed);
-                paymentEntity.setPaidAt(Instant.now());
-                paymentRepository.save(paymentEntity);
-
-                log.info("Payment completed successfully - DB ID: {}", paymentEntity.getPaymentId());
+                // Compare-and-set: payment đã hoàn tất bởi callback khác thì không ghi đè
+                Instant paidAt = Instant.now();
+                if (paymentRepository.completeIfPending(paymentEntity.getPaymentId(), null, paidAt) == 1) {
+                    paymentEntity.setPaidAt(paidAt);
+                    log.info("Payment completed successfully - DB ID: {}", paymentEntity.getPaymentId());
+                }
+                paymentEntity.setStatus(paymentRepository.findStatusByPaymentId(paymentEntity.getPaymentId()));
 
                 return PaymentResponseDTO.builder()
                         .paymentId(paymentEntity.getPaymentId())
-                        .status(PaymentStatus.completed)
+                        .status(paymentEntity.getStatus())
                         .build();
             } else {
-                paymentEntity.setStatus(PaymentStatus.failed);
-                paymentRepository.save(paymentEntity);
+                paymentRepository.failIfPending(paymentEntity.getPaymentId());
+                paymentEntity.setStatus(paymentRepository.findStatusByPaymentId(paymentEntity.getPaymentId()));
 
                 log.warn("Payment not approved - State: {}, DB ID: {}", executedPayment.getState(),
                         paymentEntity.getPaymentId());
 
                 return PaymentResponseDTO.builder()
                         .paymentId(paymentEntity.getPaymentId())
-                        .status(PaymentStatus.failed)
+                        .status(paymentEntity.getStatus())
                         .build();
             }
 
@@ -19,6 +19,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
 
@@ -123,8 +124,12 @@ public class VNPayPaymentStrategy implements PaymentStrategy {
     }
 
     /**
-     * Xử lý callback từ VNPay với VNPay transaction number
+     * Xử lý callback từ VNPay với VNPay transaction number.
+     * Cập nhật status và ghi PaymentSuccessEvent vào outbox trong cùng một transaction.
+     * Trạng thái chỉ đổi qua câu UPDATE compare-and-set; entity đã nạp không bị sửa, vì khi flush
+     * Hibernate sẽ ghi lại cả dòng và xoá paid_at/payment_gateway_id do callback thắng ghi.
      */
+    @Transactional
     public PaymentResponseDTO handleCallback(String transactionCode, String responseCode, String amount,
             String orderInfo, String vnpTransactionNo) {
         try {
@@ -132,31 +137,35 @@ public class VNPayPaymentStrategy implements PaymentStrategy {
             Payment payment = paymentRepository.findByTransactionCode(transactionCode)
                     .orElseThrow(() -> PaymentNotFoundException.transactionNotFound());
 
+            // Compare-and-set trên status: chỉ callback chuyển được payment khỏi pending mới chạy luồng hoàn tất
+            boolean transitioned;
             if ("00".equals(responseCode)) { // Success
-                payment.setStatus(PaymentStatus.completed);
-                payment.setPaidAt(Instant.now());
-
                 // Lưu VNPay transaction number để dùng cho refund
-                if (vnpTransactionNo != null && !vnpTransactionNo.isEmpty()) {
-                    payment.setPaymentGatewayId(vnpTransactionNo);
-                }
+                String gatewayId = vnpTransactionNo != null && !vnpTransactionNo.isEmpty() ? vnpTransactionNo : null;
+                Instant paidAt = Instant.now();
+                transitioned = paymentRepository.completeIfPending(payment.getPaymentId(), gatewayId, paidAt) == 1;
 
-                log.info("VNPay callback success for transaction: {}, VNPay TxnNo: {}",
-                        transactionCode, vnpTransactionNo);
+                log.info("VNPay callback success for transaction: {}, VNPay TxnNo: {}, applied: {}",
+                        transactionCode, vnpTransactionNo, transitioned);
             } else {
-                payment.setStatus(PaymentStatus.failed);
+                transitioned = paymentRepository.failIfPending(payment.getPaymentId()) == 1;
                 log.warn("VNPay callback failed for transaction: {}, response code: {}", transactionCode, responseCode);
             }
 
-            final Payment sPayment = paymentRepository.save(payment);
+            PaymentStatus status = paymentRepository.findStatusByPaymentId(payment.getPaymentId());
 
-            seatReleaseService.cancelReleaseTask(sPayment.getBooking().getId());
+            // Callback lặp lại (hoặc đến sau callback khác) không huỷ task/phát sự kiện lần nữa
+            if (transitioned) {
+                seatReleaseService.cancelReleaseTask(payment.getBooking().getId());
 
-            eventPublisher.publishEvent(
-                    new PaymentSuccessEvent(this, "Payment successful for transaction: " + transactionCode, sPayment));
+                if (status == PaymentStatus.completed) {
+                    eventPublisher.publishEvent(new PaymentSuccessEvent(this,
+                            "Payment successful for transaction: " + transactionCode, payment));
+                }
+            }
             return PaymentResponseDTO.builder()
                     .paymentId(payment.getPaymentId())
-                    .status(payment.getStatus())
+                    .status(status)
                     .bookingId(payment.getBooking().getId())
                     .build();
 
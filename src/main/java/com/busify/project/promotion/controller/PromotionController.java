@@ -1,6 +1,7 @@
 package com.busify.project.promotion.controller;
 
 import com.busify.project.common.dto.response.ApiResponse;
+import com.busify.project.common.pagination.CursorPage;
 import com.busify.project.promotion.dto.request.PromotionRequesDTO;
 import com.busify.project.promotion.dto.request.PromotionFilterRequestDTO;
 import com.busify.project.promotion.dto.response.PromotionResponseDTO;
@@ -64,9 +65,17 @@ public class PromotionController {
                 .build();
     }
 
-    @Operation(summary = "Get all promotions")
+    @Operation(summary = "Get all promotions", description = "Truyền cursor/limit để phân trang; không truyền thì trả về toàn bộ nếu không vượt giới hạn")
     @GetMapping
-    public ApiResponse<List<PromotionResponseDTO>> getAllPromotions() {
+    public ApiResponse<?> getAllPromotions(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        if (cursor != null || limit != null) {
+            return ApiResponse.<CursorPage<PromotionResponseDTO>>builder()
+                    .code(HttpStatus.OK.value())
+                    .result(promotionService.getPromotions(cursor, limit))
+                    .build();
+        }
         List<PromotionResponseDTO> promotions = promotionService.getAllPromotions();
         return ApiResponse.<List<PromotionResponseDTO>>builder()
                 .code(HttpStatus.OK.value())
@@ -1,5 +1,6 @@
 package com.busify.project.promotion.repository;
 
+import com.busify.project.common.pagination.KeysetRepository;
 import com.busify.project.promotion.entity.Promotion;
 import com.busify.project.promotion.enums.PromotionType;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -13,7 +14,8 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface PromotionRepository extends JpaRepository<Promotion, Long>, JpaSpecificationExecutor<Promotion> {
+public interface PromotionRepository extends JpaRepository<Promotion, Long>, JpaSpecificationExecutor<Promotion>,
+        KeysetRepository {
         @Query("SELECT p FROM Promotion p WHERE p.code = :code")
         Optional<Promotion> findByCode(@Param("code") String code);
 
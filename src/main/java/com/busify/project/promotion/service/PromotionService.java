@@ -1,5 +1,6 @@
 package com.busify.project.promotion.service;
 
+import com.busify.project.common.pagination.CursorPage;
 import com.busify.project.promotion.dto.request.PromotionRequesDTO;
 import com.busify.project.promotion.dto.request.PromotionFilterRequestDTO;
 import com.busify.project.promotion.dto.response.PromotionResponseDTO;
@@ -20,6 +21,8 @@ public interface PromotionService {
 
     List<PromotionResponseDTO> getAllPromotions();
 
+    CursorPage<PromotionResponseDTO> getPromotions(String cursor, Integer limit);
+
     // Filter promotions method
     PromotionFilterResponseDTO filterPromotions(PromotionFilterRequestDTO filter, int page, int size);
 
@@ -1,6 +1,7 @@
 package com.busify.project.promotion.service.impl;
 
 import com.busify.project.booking.repository.BookingRepository;
+import com.busify.project.common.job.JobCoordinator;
 import com.busify.project.promotion.dto.campaign.CampaignPromotionDTO;
 import com.busify.project.promotion.dto.campaign.PromotionCampaignCreateDTO;
 import com.busify.project.promotion.dto.campaign.PromotionCampaignFilterResponseDTO;
@@ -40,6 +41,7 @@ public class PromotionCampaignServiceImpl implements PromotionCampaignService {
     private final PromotionRepository promotionRepository;
     private final PromotionCampaignMapper campaignMapper;
     private final BookingRepository bookingRepository;
+    private final JobCoordinator jobCoordinator;
 
     @Override
     public PromotionCampaignResponseDTO createCampaign(PromotionCampaignCreateDTO createDTO) {
@@ -507,17 +509,20 @@ public class PromotionCampaignServiceImpl implements PromotionCampaignService {
     @Override
     @Scheduled(cron = "0 30 0 * * *") // Chạy mỗi ngày lúc 0:30 (sau khi promotion scheduler chạy)
     public void updateStatusExpiredCampaigns() {
-        LocalDate currentDate = LocalDate.now();
-        List<PromotionCampaign> expiredCampaigns = campaignRepository.findExpiredButActiveCampaigns(currentDate);
-
-        for (PromotionCampaign campaign : expiredCampaigns) {
-            campaign.setActive(false);
-            log.info("Campaign expired and deactivated: {} (ID: {})", campaign.getTitle(), campaign.getCampaignId());
-        }
+        jobCoordinator.runExclusive("promotion-campaign-expire", () -> {
+            LocalDate currentDate = LocalDate.now();
+            List<PromotionCampaign> expiredCampaigns = campaignRepository.findExpiredButActiveCampaigns(currentDate);
+
+            for (PromotionCampaign campaign : expiredCampaigns) {
+                campaign.setActive(false);
+                log.info("Campaign expired and deactivated: {} (ID: {})", campaign.getTitle(),
+                        campaign.getCampaignId());
+            }
 
-        if (!expiredCampaigns.isEmpty()) {
-            campaignRepository.saveAll(expiredCampaigns);
-            log.info("Updated {} expired campaigns to inactive status", expiredCampaigns.size());
-        }
+            if (!expiredCampaigns.isEmpty()) {
+                campaignRepository.saveAll(expiredCampaigns);
+                log.info("Updated {} expired campaigns to inactive status", expiredCampaigns.size());
+            }
+        });
     }
 }
@@ -1,5 +1,10 @@
 package com.busify.project.promotion.service.impl;
 
+import com.busify.project.common.job.JobCoordinator;
+import com.busify.project.common.pagination.CursorCodec;
+import com.busify.project.common.pagination.CursorPage;
+import com.busify.project.common.pagination.CursorPagination;
+import com.busify.project.common.pagination.KeysetQuery;
 import com.busify.project.common.utils.JwtUtils;
 import com.busify.project.promotion.dto.request.PromotionRequesDTO;
 import com.busify.project.promotion.dto.request.PromotionFilterRequestDTO;
@@ -58,6 +63,8 @@ public class PromotionServiceImpl implements PromotionService {
 
     private final JwtUtils jwtUtils;
     private final AuditLogService auditLogService;
+    private final CursorPagination cursorPagination;
+    private final JobCoordinator jobCoordinator;
 
     @Override
     public PromotionResponseDTO createPromotion(PromotionRequesDTO promotion) {
@@ -138,13 +145,25 @@ public class PromotionServiceImpl implements PromotionService {
 
     @Override
     public List<PromotionResponseDTO> getAllPromotions() {
-
+        cursorPagination.requireBounded(promotionRepository.count(), "khuyến mãi");
         List<Promotion> promotions = promotionRepository.findAll();
         return promotions.stream()
                 .map(PromotionMapper::convertToDTO)
                 .toList();
     }
 
+    @Override
+    public CursorPage<PromotionResponseDTO> getPromotions(String cursor, Integer limit) {
+        int pageSize = cursorPagination.limit(limit);
+        // Mới nhất trước, giống filterPromotions
+        List<Promotion> promotions = promotionRepository.findKeyset(KeysetQuery.of(Promotion.class, "promotionId")
+                .descending()
+                .after(cursorPagination.afterId(cursor))
+                .limit(pageSize));
+        return CursorPage.of(promotions, pageSize, promotion -> CursorCodec.encode(promotion.getPromotionId()))
+                .map(PromotionMapper::convertToDTO);
+    }
+
     @Override
     public PromotionFilterResponseDTO filterPromotions(PromotionFilterRequestDTO filter, int page, int size) {
         // Tạo Pageable với sort theo id desc (mới nhất trước)
@@ -324,13 +343,15 @@ public class PromotionServiceImpl implements PromotionService {
     @Override
     @Scheduled(cron = "0 0 0 * * *") // Chạy mỗi ngày lúc 0h
     public void updateStatusExpiredPromotions() {
-        List<Promotion> expiredPromotions = promotionRepository.findAllExpiredButNotUpdated();
-        for (Promotion promotion : expiredPromotions) {
-            promotion.setStatus(PromotionStatus.expired);
-        }
-        if (!expiredPromotions.isEmpty()) {
-            promotionRepository.saveAll(expiredPromotions);
-        }
+        jobCoordinator.runExclusive("promotion-expire", () -> {
+            List<Promotion> expiredPromotions = promotionRepository.findAllExpiredButNotUpdated();
+            for (Promotion promotion : expiredPromotions) {
+                promotion.setStatus(PromotionStatus.expired);
+            }
+            if (!expiredPromotions.isEmpty()) {
+                promotionRepository.saveAll(expiredPromotions);
+            }
+        });
     }
 
     @Override
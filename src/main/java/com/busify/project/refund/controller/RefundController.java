@@ -27,14 +27,14 @@ public class RefundController {
 
     private final RefundService refundService;
 
-    @Operation(summary = "Create refund request", description = "Create a new refund request")
+    @Operation(summary = "Create refund request", description = "Create a new refund request. The refund is queued and sent to the payment gateway asynchronously; poll /{refundId}/status for the result")
     @PostMapping("/create")
     public ApiResponse<RefundResponseDTO> createRefund(@Valid @RequestBody RefundRequestDTO refundRequest) {
         try {
             RefundResponseDTO result = refundService.createRefund(refundRequest);
             return ApiResponse.<RefundResponseDTO>builder()
                     .code(HttpStatus.CREATED.value())
-                    .message("Refund request created successfully")
+                    .message("Refund request created and queued for processing")
                     .result(result)
                     .build();
         } catch (Exception e) {
@@ -43,14 +43,14 @@ public class RefundController {
         }
     }
 
-    @Operation(summary = "Process refund request", description = "Process refund request by admin or operator")
+    @Operation(summary = "Process refund request", description = "Queue a pending or failed refund request for (re)processing by admin or operator")
     @PostMapping("/{refundId}/process")
     public ApiResponse<RefundResponseDTO> processRefund(@PathVariable Long refundId) {
         try {
             RefundResponseDTO result = refundService.processRefund(refundId);
             return ApiResponse.<RefundResponseDTO>builder()
                     .code(HttpStatus.OK.value())
-                    .message("Refund processed successfully")
+                    .message("Refund queued for processing")
                     .result(result)
                     .build();
         } catch (Exception e) {
@@ -107,7 +107,7 @@ public class RefundController {
         }
     }
 
-    @Operation(summary = "Check refund status", description = "Check status of a refund request from payment gateway")
+    @Operation(summary = "Check refund status", description = "Poll the processing status of a refund request (PENDING -> PROCESSING -> COMPLETED/FAILED)")
     @GetMapping("/{refundId}/status")
     public ApiResponse<RefundResponseDTO> checkRefundStatus(@PathVariable Long refundId) {
         try {
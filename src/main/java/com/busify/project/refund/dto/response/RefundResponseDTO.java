@@ -28,4 +28,7 @@ public class RefundResponseDTO {
     private Instant processedAt;
     private Instant completedAt;
     private String notes;
+    private int attemptCount;
+    private Instant nextAttemptAt;
+    private String lastError;
 }
@@ -68,6 +68,25 @@ public class Refund {
     @Column(name = "notes", columnDefinition = "TEXT")
     private String notes;
 
+    // Hàng đợi xử lý refund (xem RefundJobWorker)
+    @Column(name = "attempt_count", nullable = false, columnDefinition = "INT NOT NULL DEFAULT 0")
+    private int attemptCount;
+
+    // null = chưa/không chờ worker xử lý
+    @Column(name = "next_attempt_at")
+    private Instant nextAttemptAt;
+
+    // Hạn của worker đang gửi refund sang gateway; quá hạn coi như worker đã chết
+    @Column(name = "claimed_until")
+    private Instant claimedUntil;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    // VNPay yêu cầu IP của người yêu cầu, mà worker chạy ngoài HTTP request
+    @Column(name = "request_ip", length = 45)
+    private String requestIp;
+
     @PrePersist
     protected void onCreate() {
         if (requestedAt == null) {
@@ -1,5 +1,10 @@
 package com.busify.project.refund.enums;
 
+/**
+ * Trạng thái refund, cũng là trạng thái của job trong hàng đợi:
+ * PENDING (đã yêu cầu, chờ worker) -> PROCESSING (đã gửi gateway) -> COMPLETED | FAILED.
+ * Lỗi tạm thời đưa job từ PROCESSING về PENDING với lịch thử lại.
+ */
 public enum RefundStatus {
     PENDING,
     PROCESSING,
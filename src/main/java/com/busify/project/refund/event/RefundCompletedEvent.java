@@ -0,0 +1,15 @@
+package com.busify.project.refund.event;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+@Getter
+public class RefundCompletedEvent extends ApplicationEvent {
+
+    private final Long refundId;
+
+    public RefundCompletedEvent(Object source, Long refundId) {
+        super(source);
+        this.refundId = refundId;
+    }
+}
@@ -0,0 +1,18 @@
+package com.busify.project.refund.event;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Có refund mới chờ xử lý; worker được đánh thức sau khi transaction commit
+ */
+@Getter
+public class RefundQueuedEvent extends ApplicationEvent {
+
+    private final Long refundId;
+
+    public RefundQueuedEvent(Object source, Long refundId) {
+        super(source);
+        this.refundId = refundId;
+    }
+}
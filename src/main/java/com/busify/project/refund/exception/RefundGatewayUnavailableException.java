@@ -0,0 +1,15 @@
+package com.busify.project.refund.exception;
+
+/**
+ * Gateway không trả lời được (lỗi mạng, timeout, 5xx, 429); refund sẽ được thử lại
+ */
+public class RefundGatewayUnavailableException extends RuntimeException {
+
+    public RefundGatewayUnavailableException(String message) {
+        super(message);
+    }
+
+    public RefundGatewayUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
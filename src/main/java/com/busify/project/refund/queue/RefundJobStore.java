@@ -0,0 +1,119 @@
+package com.busify.project.refund.queue;
+
+import com.busify.project.payment.enums.PaymentStatus;
+import com.busify.project.refund.entity.Refund;
+import com.busify.project.refund.enums.RefundStatus;
+import com.busify.project.refund.event.RefundCompletedEvent;
+import com.busify.project.refund.repository.RefundRepository;
+import com.busify.project.refund.strategy.RefundGatewayResult;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Các bước chuyển trạng thái của hàng đợi refund, mỗi bước là một transaction ngắn.
+ * Lời gọi gateway nằm giữa {@link #claimDue} và {@link #complete}/{@link #reschedule}/{@link #fail},
+ * ngoài transaction, nên không giữ connection DB trong lúc chờ VNPay.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RefundJobStore {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final RefundRepository refundRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Nhận tối đa {@code limit} refund đến hạn: PENDING -> PROCESSING, tăng attemptCount.
+     * Instance nào nhận thì instance khác không thấy (SKIP LOCKED) cho tới khi hết lease.
+     */
+    @Transactional
+    public List<Refund> claimDue(int limit, Duration lease) {
+        Instant now = Instant.now();
+        List<Long> ids = refundRepository.lockDueRefundIds(now, limit);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        refundRepository.markSubmitted(ids, now.plus(lease));
+        return refundRepository.findWithPaymentByRefundIdIn(ids);
+    }
+
+    @Transactional
+    public void complete(Long refundId, RefundGatewayResult result) {
+        Refund refund = refundRepository.findById(refundId).orElse(null);
+        // FAILED: lease đã hết trước khi gateway trả lời, nhưng tiền đã được hoàn thật
+        if (refund == null || (refund.getStatus() != RefundStatus.PROCESSING
+                && refund.getStatus() != RefundStatus.FAILED)) {
+            log.warn("Bỏ qua kết quả gateway cho refund {} ở trạng thái {}", refundId,
+                    refund != null ? refund.getStatus() : null);
+            return;
+        }
+        Instant now = Instant.now();
+        refund.setStatus(RefundStatus.COMPLETED);
+        refund.setProcessedAt(now);
+        refund.setCompletedAt(now);
+        refund.setGatewayRefundId(result.gatewayRefundId());
+        refund.setGatewayResponse(result.rawResponse());
+        refund.setClaimedUntil(null);
+        refund.setNextAttemptAt(null);
+        refund.setLastError(null);
+        refund.getPayment().setStatus(PaymentStatus.refunded);
+        eventPublisher.publishEvent(new RefundCompletedEvent(this, refundId));
+    }
+
+    /**
+     * Lỗi tạm thời: trả về PENDING để worker thử lại lúc {@code nextAttemptAt}
+     */
+    @Transactional
+    public void reschedule(Long refundId, String error, Instant nextAttemptAt) {
+        refundRepository.findById(refundId)
+                .filter(refund -> refund.getStatus() == RefundStatus.PROCESSING)
+                .ifPresent(refund -> {
+                    refund.setStatus(RefundStatus.PENDING);
+                    refund.setClaimedUntil(null);
+                    refund.setNextAttemptAt(nextAttemptAt);
+                    refund.setLastError(truncate(error));
+                });
+    }
+
+    @Transactional
+    public void fail(Long refundId, String error, String rawResponse) {
+        refundRepository.findById(refundId)
+                .filter(refund -> refund.getStatus() == RefundStatus.PROCESSING)
+                .ifPresent(refund -> {
+                    refund.setStatus(RefundStatus.FAILED);
+                    refund.setProcessedAt(Instant.now());
+                    refund.setClaimedUntil(null);
+                    refund.setNextAttemptAt(null);
+                    refund.setLastError(truncate(error));
+                    if (rawResponse != null) {
+                        refund.setGatewayResponse(rawResponse);
+                    }
+                });
+    }
+
+    /**
+     * Refund đã gửi nhưng worker chết trước khi ghi kết quả. Không gửi lại vì gateway có thể
+     * đã hoàn tiền; chuyển FAILED để admin đối soát và gọi lại bằng tay.
+     */
+    @Transactional
+    public int failExpiredSubmissions() {
+        return refundRepository.failExpiredSubmissions(Instant.now(),
+                "Không nhận được kết quả từ gateway trước khi hết lease, cần đối soát");
+    }
+
+    private static String truncate(String error) {
+        if (error == null || error.length() <= MAX_ERROR_LENGTH) {
+            return error;
+        }
+        return error.substring(0, MAX_ERROR_LENGTH);
+    }
+}
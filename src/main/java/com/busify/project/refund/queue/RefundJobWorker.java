@@ -0,0 +1,143 @@
+package com.busify.project.refund.queue;
+
+import com.busify.project.refund.entity.Refund;
+import com.busify.project.refund.event.RefundQueuedEvent;
+import com.busify.project.refund.exception.RefundStrategyNotFoundException;
+import com.busify.project.refund.strategy.RefundGatewayResult;
+import com.busify.project.refund.strategy.RefundStrategyFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Lấy refund đến hạn từ {@link RefundJobStore} và gửi sang gateway trên {@code refundExecutor}.
+ * <p>
+ * Số refund đang gửi không vượt quá số thread (semaphore), nên hàng đợi dồn lại trong DB chứ
+ * không phải trong bộ nhớ. Worker được đánh thức ngay khi có refund mới và mỗi khi một job xong;
+ * lịch poll định kỳ chỉ để nhặt các lần thử lại đến hạn và refund của instance khác.
+ * </p>
+ */
+@Component
+@Slf4j
+public class RefundJobWorker {
+
+    private final RefundJobStore jobStore;
+    private final RefundStrategyFactory strategyFactory;
+    private final RefundRetryPolicy retryPolicy;
+    private final Executor executor;
+    private final Semaphore permits;
+    private final Duration lease;
+    private final AtomicBoolean polling = new AtomicBoolean();
+
+    public RefundJobWorker(RefundJobStore jobStore,
+            RefundStrategyFactory strategyFactory,
+            RefundRetryPolicy retryPolicy,
+            @Qualifier("refundExecutor") Executor executor,
+            @Value("${busify.refund.worker.threads:4}") int threads,
+            @Value("${busify.refund.worker.lease-ms:300000}") long leaseMs) {
+        this.jobStore = jobStore;
+        this.strategyFactory = strategyFactory;
+        this.retryPolicy = retryPolicy;
+        this.executor = executor;
+        this.permits = new Semaphore(threads);
+        this.lease = Duration.ofMillis(leaseMs);
+    }
+
+    @Scheduled(fixedDelayString = "${busify.refund.worker.poll-ms:5000}")
+    public void poll() {
+        // Chỉ một lượt nhận job tại một thời điểm; lượt sau sẽ nhặt phần còn lại
+        if (!polling.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            int free = permits.availablePermits();
+            if (free == 0) {
+                return;
+            }
+            List<Refund> jobs = jobStore.claimDue(free, lease);
+            for (Refund job : jobs) {
+                permits.acquireUninterruptibly();
+                try {
+                    executor.execute(() -> runJob(job));
+                } catch (RejectedExecutionException e) {
+                    // Job đã nhận (PROCESSING) nên không bỏ được: xử lý luôn trên thread này
+                    runJob(job);
+                }
+            }
+        } catch (Exception e) {
+            log.error("Không thể nhận refund từ hàng đợi: {}", e.getMessage(), e);
+        } finally {
+            polling.set(false);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRefundQueued(RefundQueuedEvent event) {
+        try {
+            executor.execute(this::poll);
+        } catch (RejectedExecutionException e) {
+            // Executor đang bận; lịch poll định kỳ sẽ nhận refund này
+            log.debug("Refund {} chờ lượt poll tiếp theo", event.getRefundId());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${busify.refund.worker.stale-check-ms:60000}")
+    public void failExpiredSubmissions() {
+        int failed = jobStore.failExpiredSubmissions();
+        if (failed > 0) {
+            log.warn("{} refund hết lease khi đang gửi sang gateway, đã chuyển FAILED để đối soát", failed);
+        }
+    }
+
+    private void runJob(Refund job) {
+        try {
+            process(job);
+        } catch (Exception e) {
+            // Job ở lại PROCESSING và sẽ được failExpiredSubmissions xử lý khi hết lease
+            log.error("Lỗi khi ghi kết quả refund {}: {}", job.getRefundId(), e.getMessage(), e);
+        } finally {
+            permits.release();
+        }
+        // Còn job đến hạn thì nhận tiếp ngay, không chờ lượt poll định kỳ
+        poll();
+    }
+
+    void process(Refund job) {
+        RefundGatewayResult result;
+        try {
+            result = strategyFactory.getStrategy(job.getPayment().getPaymentMethod().name())
+                    .processRefund(job);
+        } catch (RefundStrategyNotFoundException e) {
+            result = RefundGatewayResult.rejected("Không hỗ trợ hoàn tiền cho phương thức "
+                    + job.getPayment().getPaymentMethod(), null);
+        } catch (RuntimeException e) {
+            log.error("Lỗi khi gửi refund {} sang gateway", job.getRefundId(), e);
+            result = RefundGatewayResult.retryable(e.getMessage());
+        }
+
+        switch (result.outcome()) {
+            case SUCCEEDED -> jobStore.complete(job.getRefundId(), result);
+            case REJECTED -> jobStore.fail(job.getRefundId(), result.message(), result.rawResponse());
+            case RETRYABLE -> {
+                Optional<Instant> next = retryPolicy.nextAttemptAt(job.getAttemptCount(), Instant.now());
+                if (next.isPresent()) {
+                    jobStore.reschedule(job.getRefundId(), result.message(), next.get());
+                } else {
+                    jobStore.fail(job.getRefundId(), "Hết số lần thử: " + result.message(), null);
+                }
+            }
+        }
+    }
+}
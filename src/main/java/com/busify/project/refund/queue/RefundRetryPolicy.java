@@ -0,0 +1,49 @@
+package com.busify.project.refund.queue;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Backoff luỹ thừa có jitter cho lỗi tạm thời của gateway.
+ * Lần thử thứ n chờ trong khoảng [d/2, d] với d = min(maxDelay, baseDelay * 2^(n-1)),
+ * để các refund lỗi cùng lúc (VNPay sập) không cùng thử lại một lúc.
+ */
+@Component
+public class RefundRetryPolicy {
+
+    private final int maxAttempts;
+    private final long baseDelayMs;
+    private final long maxDelayMs;
+
+    public RefundRetryPolicy(
+            @Value("${busify.refund.retry.max-attempts:5}") int maxAttempts,
+            @Value("${busify.refund.retry.base-delay-ms:30000}") long baseDelayMs,
+            @Value("${busify.refund.retry.max-delay-ms:1800000}") long maxDelayMs) {
+        this.maxAttempts = maxAttempts;
+        this.baseDelayMs = baseDelayMs;
+        this.maxDelayMs = maxDelayMs;
+    }
+
+    /**
+     * @param attemptsMade số lần đã gửi sang gateway (kể cả lần vừa lỗi)
+     * @return thời điểm thử lại, rỗng nếu đã hết lượt
+     */
+    public Optional<Instant> nextAttemptAt(int attemptsMade, Instant now) {
+        if (attemptsMade >= maxAttempts) {
+            return Optional.empty();
+        }
+        int shift = Math.min(Math.max(attemptsMade - 1, 0), 30);
+        long delay = Math.min(maxDelayMs, baseDelayMs << shift);
+        long half = delay / 2;
+        long jittered = half + ThreadLocalRandom.current().nextLong(delay - half + 1);
+        return Optional.of(now.plusMillis(jittered));
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+}
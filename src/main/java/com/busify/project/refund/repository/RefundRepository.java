@@ -3,6 +3,7 @@ package com.busify.project.refund.repository;
 import com.busify.project.refund.entity.Refund;
 import com.busify.project.refund.enums.RefundStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -38,4 +39,32 @@ public interface RefundRepository extends JpaRepository<Refund, Long> {
             "LEFT JOIN FETCH b.tickets t " +
             "WHERE r.refundId = :refundId")
     Optional<Refund> findByIdWithAllData(@Param("refundId") Long refundId);
+
+    // SKIP LOCKED: nhiều worker/instance nhận các job khác nhau mà không chờ nhau
+    @Query(value = "SELECT refund_id FROM refunds " +
+            "WHERE status = 'PENDING' AND next_attempt_at <= :now " +
+            "ORDER BY next_attempt_at LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Long> lockDueRefundIds(@Param("now") Instant now, @Param("limit") int limit);
+
+    @Modifying
+    @Query("UPDATE Refund r SET r.status = com.busify.project.refund.enums.RefundStatus.PROCESSING, " +
+            "r.claimedUntil = :claimedUntil, r.attemptCount = r.attemptCount + 1 " +
+            "WHERE r.refundId IN :ids")
+    int markSubmitted(@Param("ids") List<Long> ids, @Param("claimedUntil") Instant claimedUntil);
+
+    @Query("SELECT r FROM Refund r JOIN FETCH r.payment WHERE r.refundId IN :ids")
+    List<Refund> findWithPaymentByRefundIdIn(@Param("ids") List<Long> ids);
+
+    @Modifying
+    @Query("UPDATE Refund r SET r.status = com.busify.project.refund.enums.RefundStatus.FAILED, " +
+            "r.claimedUntil = NULL, r.processedAt = :now, r.lastError = :error " +
+            "WHERE r.status = com.busify.project.refund.enums.RefundStatus.PROCESSING AND r.claimedUntil < :now")
+    int failExpiredSubmissions(@Param("now") Instant now, @Param("error") String error);
+
+    // Điều kiện trên status để không huỷ job worker vừa nhận
+    @Modifying
+    @Query("UPDATE Refund r SET r.status = com.busify.project.refund.enums.RefundStatus.CANCELLED, " +
+            "r.nextAttemptAt = NULL " +
+            "WHERE r.refundId = :refundId AND r.status = com.busify.project.refund.enums.RefundStatus.PENDING")
+    int cancelIfPending(@Param("refundId") Long refundId);
 }
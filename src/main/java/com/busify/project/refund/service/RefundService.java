@@ -8,12 +8,12 @@ import java.util.List;
 public interface RefundService {
 
     /**
-     * Tạo yêu cầu refund mới
+     * Tạo yêu cầu refund mới và đưa vào hàng đợi, trả về ngay với trạng thái PENDING
      */
     RefundResponseDTO createRefund(RefundRequestDTO refundRequest);
 
     /**
-     * Xử lý refund thông qua payment gateway
+     * Đưa refund PENDING/FAILED vào hàng đợi để gửi (lại) sang payment gateway
      */
     RefundResponseDTO processRefund(Long refundId);
 
@@ -33,7 +33,7 @@ public interface RefundService {
     List<RefundResponseDTO> getRefundsByCustomerId(Long customerId);
 
     /**
-     * Kiểm tra trạng thái refund từ payment gateway
+     * Trạng thái xử lý hiện tại của refund, để client poll sau khi tạo
      */
     RefundResponseDTO checkRefundStatus(Long refundId);
 
@@ -11,8 +11,9 @@ import com.busify.project.refund.exception.RefundNotFoundException;
 import com.busify.project.refund.exception.RefundProcessingException;
 import com.busify.project.refund.repository.RefundRepository;
 import com.busify.project.refund.service.RefundService;
-import com.busify.project.refund.strategy.RefundStrategy;
-import com.busify.project.refund.strategy.RefundStrategyFactory;
+import com.busify.project.refund.event.RefundCompletedEvent;
+import com.busify.project.refund.event.RefundQueuedEvent;
+import com.busify.project.refund.util.NetworkUtil;
 import com.busify.project.refund.util.RefundPolicyUtil;
 import com.busify.project.ticket.entity.Tickets;
 import com.busify.project.user.entity.User;
@@ -22,12 +23,16 @@ import com.busify.project.common.utils.JwtUtils;
 import com.busify.project.auth.service.EmailService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -40,9 +45,9 @@ public class RefundServiceImpl implements RefundService {
     private final RefundRepository refundRepository;
     private final PaymentRepository paymentRepository;
     private final UserRepository userRepository;
-    private final RefundStrategyFactory refundStrategyFactory;
     private final JwtUtils jwtUtils;
     private final EmailService emailService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
@@ -82,14 +87,15 @@ public class RefundServiceImpl implements RefundService {
             refund.setRefundTransactionCode(generateRefundTransactionCode());
             refund.setRequestedBy(currentUser);
             refund.setNotes(refundRequest.getNotes());
+            refund.setRequestIp(NetworkUtil.getClientIpAddress());
+            refund.setNextAttemptAt(Instant.now());
 
             refund = refundRepository.save(refund);
 
-            log.info("Refund created successfully with ID: {}", refund.getRefundId());
-
-            processRefund(refund.getRefundId());
+            // Gửi sang gateway do RefundJobWorker đảm nhận sau khi transaction commit
+            eventPublisher.publishEvent(new RefundQueuedEvent(this, refund.getRefundId()));
 
-            log.info("Refund processed successfully with ID: {}", refund.getRefundId());
+            log.info("Refund created and queued with ID: {}", refund.getRefundId());
 
             return mapToDTO(refund);
 
@@ -103,43 +109,41 @@ public class RefundServiceImpl implements RefundService {
     @Transactional
     public RefundResponseDTO processRefund(Long refundId) {
         try {
-            log.info("Processing refund ID: {}", refundId);
+            log.info("Queueing refund ID: {}", refundId);
 
             Refund refund = refundRepository.findById(refundId)
                     .orElseThrow(() -> RefundNotFoundException.notFound(refundId));
 
-            // Kiểm tra status
-            if (refund.getStatus() != RefundStatus.PENDING) {
+            // PENDING: đưa lên đầu hàng đợi; FAILED: admin cho thử lại với số lượt mới
+            if (refund.getStatus() == RefundStatus.FAILED) {
+                refund.setStatus(RefundStatus.PENDING);
+                refund.setAttemptCount(0);
+            } else if (refund.getStatus() != RefundStatus.PENDING) {
                 throw RefundProcessingException.alreadyProcessed();
             }
-
-            // Cập nhật status thành PROCESSING
-            refund.setStatus(RefundStatus.PROCESSING);
+            refund.setNextAttemptAt(Instant.now());
             refund = refundRepository.save(refund);
 
-            // Lấy strategy phù hợp
-            RefundStrategy strategy = refundStrategyFactory.getStrategy(refund.getPayment().getPaymentMethod().name());
-
-            // Xử lý refund thông qua strategy
-            RefundResponseDTO result = strategy.processRefund(refund);
+            eventPublisher.publishEvent(new RefundQueuedEvent(this, refundId));
 
-            // Kiểm tra nếu refund thành công thì gửi email
-            if (RefundStatus.COMPLETED.name().equals(result.getStatus().name())) {
-                // Lấy refund với tất cả dữ liệu cần thiết để tránh lazy loading
-                Refund completedRefund = refundRepository.findByIdWithAllData(refundId)
-                        .orElseThrow(() -> RefundNotFoundException.notFound(refundId));
-                sendRefundSuccessEmailAsync(completedRefund);
-            }
-
-            log.info("Refund processed successfully for ID: {}", refundId);
-            return result;
+            return mapToDTO(refund);
 
         } catch (Exception e) {
-            log.error("Error processing refund ID: {}", refundId, e);
+            log.error("Error queueing refund ID: {}", refundId, e);
             throw RefundProcessingException.processingFailed(e);
         }
     }
 
+    /**
+     * Gửi email khi worker ghi nhận refund thành công (sau khi transaction của worker commit)
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRefundCompleted(RefundCompletedEvent event) {
+        // Lấy refund với tất cả dữ liệu cần thiết để tránh lazy loading
+        refundRepository.findByIdWithAllData(event.getRefundId())
+                .ifPresent(this::sendRefundSuccessEmailAsync);
+    }
+
     @Override
     public RefundResponseDTO getRefundById(Long refundId) {
         Refund refund = refundRepository.findById(refundId)
@@ -165,12 +169,10 @@ public class RefundServiceImpl implements RefundService {
 
     @Override
     public RefundResponseDTO checkRefundStatus(Long refundId) {
+        // Trạng thái do RefundJobWorker cập nhật; client poll endpoint này sau khi tạo refund
         Refund refund = refundRepository.findById(refundId)
                 .orElseThrow(() -> RefundNotFoundException.notFound(refundId));
-
-        // Lấy strategy và check status từ gateway
-        RefundStrategy strategy = refundStrategyFactory.getStrategy(refund.getPayment().getPaymentMethod().name());
-        return strategy.checkRefundStatus(refund);
+        return mapToDTO(refund);
     }
 
     @Override
@@ -179,13 +181,13 @@ public class RefundServiceImpl implements RefundService {
         Refund refund = refundRepository.findById(refundId)
                 .orElseThrow(() -> RefundNotFoundException.notFound(refundId));
 
-        // Chỉ có thể cancel khi status là PENDING
-        if (refund.getStatus() != RefundStatus.PENDING) {
+        // Chỉ có thể cancel khi status là PENDING; cập nhật có điều kiện để không đua với worker
+        if (refundRepository.cancelIfPending(refundId) == 0) {
             throw RefundProcessingException.notAllowed();
         }
-
+        // Đồng bộ entity đã nạp với câu UPDATE vừa chạy
         refund.setStatus(RefundStatus.CANCELLED);
-        refund = refundRepository.save(refund);
+        refund.setNextAttemptAt(null);
 
         log.info("Refund cancelled for ID: {}", refundId);
         return mapToDTO(refund);
@@ -242,6 +244,9 @@ public class RefundServiceImpl implements RefundService {
                 .processedAt(refund.getProcessedAt())
                 .completedAt(refund.getCompletedAt())
                 .notes(refund.getNotes())
+                .attemptCount(refund.getAttemptCount())
+                .nextAttemptAt(refund.getNextAttemptAt())
+                .lastError(refund.getLastError())
                 .build();
     }
 
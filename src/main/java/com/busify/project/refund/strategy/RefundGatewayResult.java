@@ -0,0 +1,30 @@
+package com.busify.project.refund.strategy;
+
+/**
+ * Kết quả một lần gửi refund sang gateway
+ *
+ * @param gatewayRefundId mã giao dịch hoàn tiền phía gateway, chỉ có khi thành công
+ * @param rawResponse     phản hồi gốc để lưu đối soát, có thể null
+ */
+public record RefundGatewayResult(Outcome outcome, String gatewayRefundId, String rawResponse, String message) {
+
+    public enum Outcome {
+        SUCCEEDED,
+        // Gateway từ chối: thử lại cũng vô ích
+        REJECTED,
+        // Lỗi mạng, timeout, 5xx: thử lại sau
+        RETRYABLE
+    }
+
+    public static RefundGatewayResult succeeded(String gatewayRefundId, String rawResponse) {
+        return new RefundGatewayResult(Outcome.SUCCEEDED, gatewayRefundId, rawResponse, null);
+    }
+
+    public static RefundGatewayResult rejected(String message, String rawResponse) {
+        return new RefundGatewayResult(Outcome.REJECTED, null, rawResponse, message);
+    }
+
+    public static RefundGatewayResult retryable(String message) {
+        return new RefundGatewayResult(Outcome.RETRYABLE, null, null, message);
+    }
+}
@@ -1,25 +1,17 @@
 package com.busify.project.refund.strategy;
 
-import com.busify.project.refund.dto.response.RefundResponseDTO;
 import com.busify.project.refund.entity.Refund;
 
 public interface RefundStrategy {
 
     /**
-     * Process refund through payment gateway
-     * 
-     * @param refund Refund entity
-     * @return RefundResponseDTO with updated status
-     */
-    RefundResponseDTO processRefund(Refund refund);
-
-    /**
-     * Check refund status from payment gateway
-     * 
-     * @param refund Refund entity
-     * @return RefundResponseDTO with current status
+     * Gửi refund sang payment gateway. Chạy trên thread của worker, ngoài transaction:
+     * không được ghi DB, chỉ trả kết quả để RefundJobStore cập nhật trạng thái.
+     *
+     * @param refund Refund entity, đã nạp sẵn payment
+     * @return kết quả từ gateway; lỗi tạm thời trả về {@link RefundGatewayResult.Outcome#RETRYABLE}
      */
-    RefundResponseDTO checkRefundStatus(Refund refund);
+    RefundGatewayResult processRefund(Refund refund);
 
     /**
      * Check if this strategy supports the payment method
@@ -0,0 +1,64 @@
+package com.busify.project.refund.strategy.impl;
+
+import com.busify.project.refund.entity.Refund;
+import com.busify.project.refund.strategy.RefundGatewayResult;
+import com.busify.project.refund.strategy.RefundStrategy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Gateway giả cho môi trường dev/tải thử: không gọi VNPay, chỉ mô phỏng độ trễ và tỉ lệ lỗi.
+ * Chỉ bật khi {@code busify.refund.fake-gateway.enabled=true}; khi bật sẽ nhận mọi payment method.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(name = "busify.refund.fake-gateway.enabled", havingValue = "true")
+@Slf4j
+public class FakeRefundStrategy implements RefundStrategy {
+
+    private final long latencyMs;
+    private final double transientFailureRate;
+    private final double rejectionRate;
+
+    public FakeRefundStrategy(
+            @Value("${busify.refund.fake-gateway.latency-ms:200}") long latencyMs,
+            @Value("${busify.refund.fake-gateway.transient-failure-rate:0.0}") double transientFailureRate,
+            @Value("${busify.refund.fake-gateway.rejection-rate:0.0}") double rejectionRate) {
+        this.latencyMs = latencyMs;
+        this.transientFailureRate = transientFailureRate;
+        this.rejectionRate = rejectionRate;
+    }
+
+    @Override
+    public RefundGatewayResult processRefund(Refund refund) {
+        if (latencyMs > 0) {
+            try {
+                Thread.sleep(latencyMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return RefundGatewayResult.retryable("Interrupted");
+            }
+        }
+        double roll = ThreadLocalRandom.current().nextDouble();
+        if (roll < transientFailureRate) {
+            return RefundGatewayResult.retryable("Fake gateway timeout");
+        }
+        if (roll < transientFailureRate + rejectionRate) {
+            return RefundGatewayResult.rejected("Fake gateway rejected", "{\"code\":\"94\"}");
+        }
+        String gatewayRefundId = "FAKE-" + refund.getRefundTransactionCode();
+        log.debug("Fake refund {} completed: {}", refund.getRefundId(), gatewayRefundId);
+        return RefundGatewayResult.succeeded(gatewayRefundId, "{\"code\":\"00\"}");
+    }
+
+    @Override
+    public boolean supports(String paymentMethod) {
+        return true;
+    }
+}
@@ -2,14 +2,11 @@ package com.busify.project.refund.strategy.impl;
 
 import com.busify.project.payment.config.VNPayConfig;
 import com.busify.project.payment.enums.PaymentMethod;
-import com.busify.project.payment.enums.PaymentStatus;
-import com.busify.project.refund.dto.response.RefundResponseDTO;
 import com.busify.project.refund.entity.Refund;
-import com.busify.project.refund.enums.RefundStatus;
-import com.busify.project.refund.repository.RefundRepository;
+import com.busify.project.refund.exception.RefundGatewayUnavailableException;
+import com.busify.project.refund.strategy.RefundGatewayResult;
 import com.busify.project.refund.strategy.RefundStrategy;
 import com.busify.project.refund.util.VNPayRefundUtil;
-import com.busify.project.refund.util.NetworkUtil;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
@@ -25,17 +22,20 @@ import java.time.format.DateTimeFormatter;
 @Slf4j
 public class VNPayRefundStrategy implements RefundStrategy {
 
+    private static final String RETRYABLE_RESPONSE_CODE = "99";
+
     private final VNPayConfig vnPayConfig;
-    private final RefundRepository refundRepository;
     private final ObjectMapper objectMapper = new ObjectMapper();
 
     @Override
-    public RefundResponseDTO processRefund(Refund refund) {
-        try {
-            log.info("Processing VNPay refund for refund ID: {}", refund.getRefundId());
+    public RefundGatewayResult processRefund(Refund refund) {
+        log.info("Processing VNPay refund for refund ID: {}", refund.getRefundId());
 
+        String vnpayResponse;
+        try {
             // Gọi VNPay refund API với partial refund để refund exact net amount
-            String vnpayResponse = VNPayRefundUtil.createRefundRequest(
+            vnpayResponse = VNPayRefundUtil.createRefundRequest(
+                    vnPayConfig.getRefundUrl(),
                     vnPayConfig.getMerchantCode(),
                     vnPayConfig.getSecretKey(),
                     refund.getPayment().getTransactionCode(),
@@ -43,66 +43,42 @@ public class VNPayRefundStrategy implements RefundStrategy {
                     refund.getRefundReason(),
                     refund.getPayment().getPaymentGatewayId(), // Original VNPay transaction ID
                     formatPaymentDate(refund.getPayment().getPaidAt()), // Original transaction date
-                    NetworkUtil.getClientIpAddress(), // Get real IP from request context
+                    refund.getRequestIp(), // IP lưu lúc tạo refund, worker không có request context
                     "03" // Partial refund để refund exact amount
             );
-
-            // Parse response từ VNPay
-            VNPayRefundResponse response = parseVNPayResponse(vnpayResponse);
-
-            if (response.isSuccess()) {
-                // Refund thành công
-                refund.setStatus(RefundStatus.COMPLETED);
-                refund.setCompletedAt(Instant.now());
-                refund.setGatewayResponse(vnpayResponse);
-                refund.setGatewayRefundId(response.getGatewayRefundId());
-
-                // Cập nhật payment status
-                refund.getPayment().setStatus(PaymentStatus.refunded);
-
-                log.info(
-                        "VNPay refund completed successfully for refund ID: {}, gateway refund ID: {}, response code: {}",
-                        refund.getRefundId(), response.getGatewayRefundId(), response.getResponseCode());
-
-            } else {
-                // Refund thất bại
-                refund.setStatus(RefundStatus.FAILED);
-                refund.setGatewayResponse(vnpayResponse);
-
-                log.warn("VNPay refund failed for refund ID: {}, response code: {}, message: {}, full response: {}",
-                        refund.getRefundId(), response.getResponseCode(), response.getMessage(), vnpayResponse);
-            }
-
-            refund.setProcessedAt(Instant.now());
-            refund = refundRepository.save(refund);
-
-            return mapToDTO(refund);
-
-        } catch (Exception e) {
-            log.error("Error processing VNPay refund for refund ID: {}", refund.getRefundId(), e);
-
-            refund.setStatus(RefundStatus.FAILED);
-            refund.setProcessedAt(Instant.now());
-            refund.setNotes("Error: " + e.getMessage());
-            refund = refundRepository.save(refund);
-
-            return mapToDTO(refund);
+        } catch (RefundGatewayUnavailableException e) {
+            log.warn("VNPay tạm thời không khả dụng cho refund ID {}: {}", refund.getRefundId(), e.getMessage());
+            return RefundGatewayResult.retryable(e.getMessage());
         }
-    }
 
-    @Override
-    public RefundResponseDTO checkRefundStatus(Refund refund) {
-        try {
-            log.info("Checking VNPay refund status for refund ID: {}", refund.getRefundId());
+        return toResult(refund, vnpayResponse);
+    }
 
-            // Gọi VNPay query API để check status
-            // Tạm thời return current status
-            return mapToDTO(refund);
+    /**
+     * Đổi phản hồi VNPay thành kết quả cho worker: {@code 00} thành công, {@code 99} (lỗi khác, thường là
+     * lỗi tạm thời phía VNPay) được thử lại, các mã còn lại là bị từ chối
+     */
+    RefundGatewayResult toResult(Refund refund, String vnpayResponse) {
+        // Parse response từ VNPay
+        VNPayRefundResponse response = parseVNPayResponse(vnpayResponse);
+
+        if (response.isSuccess()) {
+            log.info(
+                    "VNPay refund completed successfully for refund ID: {}, gateway refund ID: {}, response code: {}",
+                    refund.getRefundId(), response.getGatewayRefundId(), response.getResponseCode());
+            return RefundGatewayResult.succeeded(response.getGatewayRefundId(), vnpayResponse);
+        }
 
-        } catch (Exception e) {
-            log.error("Error checking VNPay refund status for refund ID: {}", refund.getRefundId(), e);
-            return mapToDTO(refund);
+        if (RETRYABLE_RESPONSE_CODE.equals(response.getResponseCode())) {
+            log.warn("VNPay trả lỗi khác (99) cho refund ID {}, sẽ thử lại: {}", refund.getRefundId(),
+                    response.getMessage());
+            return RefundGatewayResult.retryable("VNPay 99: " + response.getMessage());
         }
+
+        log.warn("VNPay refund failed for refund ID: {}, response code: {}, message: {}, full response: {}",
+                refund.getRefundId(), response.getResponseCode(), response.getMessage(), vnpayResponse);
+        return RefundGatewayResult.rejected(
+                "VNPay " + response.getResponseCode() + ": " + response.getMessage(), vnpayResponse);
     }
 
     @Override
@@ -110,24 +86,6 @@ public class VNPayRefundStrategy implements RefundStrategy {
         return PaymentMethod.VNPAY.name().equals(paymentMethod);
     }
 
-    private RefundResponseDTO mapToDTO(Refund refund) {
-        return RefundResponseDTO.builder()
-                .refundId(refund.getRefundId())
-                .paymentId(refund.getPayment().getPaymentId())
-                .refundAmount(refund.getRefundAmount())
-                .cancellationFee(refund.getCancellationFee())
-                .netRefundAmount(refund.getNetRefundAmount())
-                .refundReason(refund.getRefundReason())
-                .status(refund.getStatus())
-                .refundTransactionCode(refund.getRefundTransactionCode())
-                .gatewayRefundId(refund.getGatewayRefundId())
-                .requestedAt(refund.getRequestedAt())
-                .processedAt(refund.getProcessedAt())
-                .completedAt(refund.getCompletedAt())
-                .notes(refund.getNotes())
-                .build();
-    }
-
     /**
      * Parse VNPay response JSON
      */
@@ -1,5 +1,6 @@
 package com.busify.project.refund.util;
 
+import com.busify.project.refund.exception.RefundGatewayUnavailableException;
 import lombok.extern.slf4j.Slf4j;
 
 import javax.crypto.Mac;
@@ -19,10 +20,19 @@ import java.util.TreeMap;
 
 @Slf4j
 public class VNPayRefundUtil {
+
+    // Dùng chung cho mọi lần gọi để tái sử dụng connection pool và TLS session của HttpClient
+    private static final HttpClient HTTP_CLIENT = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
     /**
      * Tạo request refund tới VNPay với loại refund tùy chọn
+     *
+     * @throws RefundGatewayUnavailableException khi lỗi mạng, VNPay tạm thời không xử lý được
+     *                                           hoặc lỗi bất ngờ trước khi nhận được phản hồi
      */
-    public static String createRefundRequest(String merchantCode, String secretKey,
+    public static String createRefundRequest(String apiUrl, String merchantCode, String secretKey,
             String transactionCode, BigDecimal refundAmount,
             String refundReason, String originalTransactionNo,
             String originalTransactionDate, String ipAddress,
@@ -75,23 +85,23 @@ public class VNPayRefundUtil {
             log.info("VNPay refund request created for transaction: {}", transactionCode);
 
             // Call real VNPay API
-            String response = callVNPayRefundAPI(params);
+            String response = callVNPayRefundAPI(apiUrl, params);
             return response;
 
+        } catch (RefundGatewayUnavailableException e) {
+            throw e;
         } catch (Exception e) {
+            // Chưa gửi gì sang VNPay nên thử lại an toàn; worker giới hạn số lần thử
             log.error("Error creating VNPay refund request", e);
-            return createErrorResponse(e.getMessage());
+            throw new RefundGatewayUnavailableException("Không tạo được request refund: " + e.getMessage(), e);
         }
     }
 
     /**
      * Gọi VNPay Refund API thật
      */
-    private static String callVNPayRefundAPI(Map<String, String> params) {
+    private static String callVNPayRefundAPI(String apiUrl, Map<String, String> params) {
         try {
-            // VNPay Refund API endpoint
-            String apiUrl = "https://sandbox.vnpayment.vn/merchant_webapi/api/transaction";
-
             // Tạo JSON request body
             StringBuilder jsonBody = new StringBuilder();
             jsonBody.append("{");
@@ -106,11 +116,6 @@ public class VNPayRefundUtil {
             }
             jsonBody.append("}");
 
-            // Tạo HTTP client
-            HttpClient client = HttpClient.newBuilder()
-                    .connectTimeout(Duration.ofSeconds(30))
-                    .build();
-
             // Tạo HTTP request
             HttpRequest request = HttpRequest.newBuilder()
                     .uri(URI.create(apiUrl))
@@ -123,40 +128,49 @@ public class VNPayRefundUtil {
             log.info("Request body: {}", jsonBody.toString());
 
             // Gửi request và nhận response
-            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            HttpResponse<String> response = HTTP_CLIENT.send(request, HttpResponse.BodyHandlers.ofString());
 
             log.info("VNPay API response status: {}", response.statusCode());
             log.info("VNPay API response body: {}", response.body());
 
             if (response.statusCode() == 200) {
                 return response.body();
+            } else if (response.statusCode() >= 500 || response.statusCode() == 429) {
+                throw new RefundGatewayUnavailableException("VNPay trả về HTTP " + response.statusCode());
             } else {
                 log.error("VNPay API call failed with status: {}", response.statusCode());
-                return createErrorResponse("API call failed with status: " + response.statusCode());
+                return createErrorResponse("HTTP" + response.statusCode(),
+                        "API call failed with status: " + response.statusCode());
             }
 
-        } catch (IOException | InterruptedException e) {
+        } catch (IOException e) {
             log.error("Error calling VNPay refund API", e);
-            return createErrorResponse("Network error: " + e.getMessage());
+            throw new RefundGatewayUnavailableException("Network error: " + e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RefundGatewayUnavailableException("Interrupted while calling VNPay", e);
+        } catch (RefundGatewayUnavailableException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Unexpected error calling VNPay refund API", e);
-            return createErrorResponse("Unexpected error: " + e.getMessage());
+            throw new RefundGatewayUnavailableException("Unexpected error: " + e.getMessage(), e);
         }
     }
 
     /**
-     * Tạo error response khi API call thất bại
+     * Tạo error response khi VNPay trả HTTP 4xx: request sai nên không thử lại. Mã {@code HTTPxxx} không trùng
+     * mã nào của VNPay, để không bị hiểu nhầm là {@code 99} (lỗi khác, được thử lại)
      */
-    private static String createErrorResponse(String errorMessage) {
+    private static String createErrorResponse(String responseCode, String errorMessage) {
         return "{\n" +
                 "  \"vnp_ResponseId\": \"" + generateRequestId() + "\",\n" +
                 "  \"vnp_Command\": \"refund\",\n" +
-                "  \"vnp_ResponseCode\": \"99\",\n" +
+                "  \"vnp_ResponseCode\": \"" + responseCode + "\",\n" +
                 "  \"vnp_Message\": \"" + errorMessage + "\",\n" +
                 "  \"vnp_TmnCode\": \"ERROR\",\n" +
                 "  \"vnp_TxnRef\": \"\",\n" +
                 "  \"vnp_TransactionNo\": \"\",\n" +
-                "  \"vnp_TransactionStatus\": \"99\"\n" +
+                "  \"vnp_TransactionStatus\": \"" + responseCode + "\"\n" +
                 "}";
     }
 
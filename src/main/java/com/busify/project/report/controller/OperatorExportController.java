@@ -0,0 +1,42 @@
+package com.busify.project.report.controller;
+
+import com.busify.project.report.export.ExportDataset;
+import com.busify.project.report.export.ExportFormat;
+import com.busify.project.report.service.OperatorExportService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/api/reports/operators")
+@RequiredArgsConstructor
+@Tag(name = "Operator Export", description = "Streaming export of operator payments, bookings and tickets")
+public class OperatorExportController {
+
+    private final OperatorExportService operatorExportService;
+
+    @GetMapping("/{operatorId}/export/{dataset}")
+    @Operation(summary = "Stream operator payments, bookings or tickets as CSV or JSON Lines")
+    @PreAuthorize("hasRole('OPERATOR') or hasRole('ADMIN')")
+    public void export(@PathVariable Long operatorId,
+            @PathVariable ExportDataset dataset,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "csv") ExportFormat format,
+            HttpServletResponse response) throws IOException {
+        operatorExportService.exportToResponse(dataset, format, operatorId, from, to, response);
+    }
+}
@@ -0,0 +1,60 @@
+package com.busify.project.report.export;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * CSV theo RFC 4180, có BOM để Excel đọc đúng tiếng Việt.
+ * Ô bắt đầu bằng = + - @ được thêm dấu ' để không bị Excel hiểu là công thức.
+ */
+public class CsvExportWriter implements ExportRowWriter {
+
+    private final Writer out;
+
+    public CsvExportWriter(Writer out) {
+        this.out = out;
+    }
+
+    @Override
+    public void writeHeader(String[] columns) throws IOException {
+        out.write('\uFEFF');
+        writeLine(columns);
+    }
+
+    @Override
+    public void writeRow(Object[] values) throws IOException {
+        writeLine(values);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    private void writeLine(Object[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            if (values[i] != null) {
+                writeCell(ExportValues.format(values[i]), values[i] instanceof Number);
+            }
+        }
+        out.write("\r\n");
+    }
+
+    private void writeCell(String value, boolean numeric) throws IOException {
+        if (!numeric && !value.isEmpty() && "=+-@".indexOf(value.charAt(0)) >= 0) {
+            value = "'" + value;
+        }
+        boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!quote) {
+            out.write(value);
+            return;
+        }
+        out.write('"');
+        out.write(value.replace("\"", "\"\""));
+        out.write('"');
+    }
+}
@@ -0,0 +1,65 @@
+package com.busify.project.report.export;
+
+/**
+ * Các bảng dữ liệu nhà xe có thể xuất. Câu SQL nhận 3 tham số: operatorId, từ thời điểm, đến thời điểm
+ * (lọc theo ngày đặt vé) và đi từ bookings theo created_at để MySQL trả dòng theo index mà không cần sort.
+ */
+public enum ExportDataset {
+    payments(new String[] { "payment_id", "booking_code", "trip_id", "payment_method", "amount", "status",
+            "transaction_code", "payment_gateway_id", "paid_at", "booked_at" }, """
+            SELECT p.payment_id, b.booking_code, b.trip_id, p.payment_method, p.amount, p.status,
+                   p.transaction_code, p.payment_gateway_id, p.paid_at, b.created_at
+            FROM bookings b
+            JOIN trips t ON b.trip_id = t.trip_id
+            JOIN buses bu ON t.bus_id = bu.id
+            JOIN payments p ON p.booking_id = b.id
+            WHERE bu.operator_id = ? AND b.created_at >= ? AND b.created_at < ?
+            ORDER BY b.created_at, b.id
+            """),
+
+    bookings(new String[] { "booking_id", "booking_code", "trip_id", "departure_time", "status", "seat_number",
+            "total_amount", "selling_method", "customer_name", "customer_email", "customer_phone", "booked_at" }, """
+            SELECT b.id, b.booking_code, b.trip_id, t.departure_time, b.status, b.seat_number,
+                   b.total_amount, b.selling_method,
+                   COALESCE(b.guest_full_name, pr.full_name),
+                   COALESCE(b.guest_email, u.email),
+                   COALESCE(b.guest_phone, pr.phone_number),
+                   b.created_at
+            FROM bookings b
+            JOIN trips t ON b.trip_id = t.trip_id
+            JOIN buses bu ON t.bus_id = bu.id
+            LEFT JOIN users u ON b.customer_id = u.id
+            LEFT JOIN profiles pr ON pr.id = u.id
+            WHERE bu.operator_id = ? AND b.created_at >= ? AND b.created_at < ?
+            ORDER BY b.created_at, b.id
+            """),
+
+    tickets(new String[] { "ticket_id", "ticket_code", "booking_code", "trip_id", "departure_time", "seat_number",
+            "passenger_name", "passenger_phone", "price", "status", "sell_method", "checked_in_at", "booked_at" }, """
+            SELECT tk.ticket_id, tk.ticket_code, b.booking_code, b.trip_id, t.departure_time, tk.seat_number,
+                   tk.passenger_name, tk.passenger_phone, tk.price, tk.status, tk.sell_method,
+                   tk.checked_in_at, b.created_at
+            FROM bookings b
+            JOIN trips t ON b.trip_id = t.trip_id
+            JOIN buses bu ON t.bus_id = bu.id
+            JOIN tickets tk ON tk.booking_id = b.id
+            WHERE bu.operator_id = ? AND b.created_at >= ? AND b.created_at < ?
+            ORDER BY b.created_at, b.id, tk.ticket_id
+            """);
+
+    private final String[] columns;
+    private final String sql;
+
+    ExportDataset(String[] columns, String sql) {
+        this.columns = columns;
+        this.sql = sql;
+    }
+
+    public String[] getColumns() {
+        return columns.clone();
+    }
+
+    public String getSql() {
+        return sql;
+    }
+}
@@ -0,0 +1,28 @@
+package com.busify.project.report.export;
+
+import java.io.Writer;
+
+public enum ExportFormat {
+    csv("text/csv; charset=UTF-8", "csv"),
+    jsonl("application/x-ndjson; charset=UTF-8", "jsonl");
+
+    private final String contentType;
+    private final String extension;
+
+    ExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public ExportRowWriter newWriter(Writer out) {
+        return this == csv ? new CsvExportWriter(out) : new JsonLinesExportWriter(out);
+    }
+}
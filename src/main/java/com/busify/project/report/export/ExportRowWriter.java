@@ -0,0 +1,15 @@
+package com.busify.project.report.export;
+
+import java.io.IOException;
+
+/**
+ * Ghi từng dòng dữ liệu xuất ra luồng, không giữ dòng nào trong bộ nhớ
+ */
+public interface ExportRowWriter {
+
+    void writeHeader(String[] columns) throws IOException;
+
+    void writeRow(Object[] values) throws IOException;
+
+    void flush() throws IOException;
+}
@@ -0,0 +1,23 @@
+package com.busify.project.report.export;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+
+final class ExportValues {
+
+    private ExportValues() {
+    }
+
+    /**
+     * Thời gian theo ISO-8601 (UTC), số tiền không dùng ký hiệu mũ
+     */
+    static String format(Object value) {
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toInstant().toString();
+        }
+        if (value instanceof BigDecimal decimal) {
+            return decimal.toPlainString();
+        }
+        return value.toString();
+    }
+}
@@ -0,0 +1,72 @@
+package com.busify.project.report.export;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * JSON Lines: mỗi dòng là một object, khoá là tên cột
+ */
+public class JsonLinesExportWriter implements ExportRowWriter {
+
+    private final Writer out;
+    private String[] keys;
+
+    public JsonLinesExportWriter(Writer out) {
+        this.out = out;
+    }
+
+    @Override
+    public void writeHeader(String[] columns) {
+        keys = new String[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            keys[i] = quote(columns[i]) + ":";
+        }
+    }
+
+    @Override
+    public void writeRow(Object[] values) throws IOException {
+        out.write('{');
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            out.write(keys[i]);
+            Object value = values[i];
+            if (value == null) {
+                out.write("null");
+            } else if (value instanceof Number) {
+                out.write(ExportValues.format(value));
+            } else {
+                out.write(quote(ExportValues.format(value)));
+            }
+        }
+        out.write("}\n");
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    static String quote(String value) {
+        StringBuilder sb = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+                }
+            }
+        }
+        return sb.append('"').toString();
+    }
+}
@@ -0,0 +1,171 @@
+package com.busify.project.report.service;
+
+import com.busify.project.bus_operator.exception.BusOperatorNotFoundException;
+import com.busify.project.bus_operator.repository.BusOperatorRepository;
+import com.busify.project.common.exception.AppException;
+import com.busify.project.common.exception.ErrorCode;
+import com.busify.project.report.export.ExportDataset;
+import com.busify.project.report.export.ExportFormat;
+import com.busify.project.report.export.ExportRowWriter;
+import com.busify.project.trip.service.TripCrewAccessService;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Xuất thanh toán/đặt vé/vé của nhà xe theo khoảng ngày, ghi thẳng ra luồng phản hồi.
+ * <p>
+ * Truy vấn dùng con trỏ JDBC chỉ đọc, chỉ tiến với fetch size cấu hình được: với MySQL,
+ * {@code Integer.MIN_VALUE} là chế độ stream từng dòng (mặc định); giá trị dương cần
+ * {@code useCursorFetch=true} trên URL kết nối. Bộ nhớ dùng không phụ thuộc số dòng xuất.
+ * </p>
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OperatorExportService {
+
+    private static final ZoneId DEFAULT_ZONE = ZoneId.of("Asia/Ho_Chi_Minh");
+    private static final int FLUSH_EVERY_ROWS = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BusOperatorRepository busOperatorRepository;
+    private final TripCrewAccessService crewAccess;
+
+    @Value("${busify.export.fetch-size:-2147483648}")
+    private int fetchSize;
+
+    @Value("${busify.export.max-range-days:366}")
+    private long maxRangeDays;
+
+    /**
+     * Kiểm tra tham số và quyền trước khi ghi byte đầu tiên, để lỗi vẫn trả về dạng ApiResponse.
+     * Chỉ ADMIN hoặc chủ/nhân viên của chính nhà xe {@code operatorId} được xuất dữ liệu.
+     */
+    public void validate(Long operatorId, LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("Ngày bắt đầu phải trước hoặc bằng ngày kết thúc");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= maxRangeDays) {
+            throw new IllegalArgumentException("Khoảng thời gian xuất không được vượt quá " + maxRangeDays + " ngày");
+        }
+        TripCrewAccessService.CrewScope scope = crewAccess.currentScope();
+        if (!scope.all() && !operatorId.equals(scope.operatorId())) {
+            throw new AppException(ErrorCode.OPERATOR_UNAUTHORIZED,
+                    "Không được xuất dữ liệu của nhà xe " + operatorId);
+        }
+        if (!busOperatorRepository.existsById(operatorId)) {
+            throw BusOperatorNotFoundException.withId(operatorId);
+        }
+    }
+
+    /**
+     * Kiểm tra tham số, đặt header tải file rồi ghi dữ liệu thẳng vào phản hồi
+     */
+    public void exportToResponse(ExportDataset dataset, ExportFormat format, Long operatorId, LocalDate from,
+            LocalDate to, HttpServletResponse response) throws IOException {
+        validate(operatorId, from, to);
+        response.setContentType(format.getContentType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename(dataset.name() + "-" + operatorId + "-" + from + "-" + to + "." + format.getExtension())
+                .build()
+                .toString());
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-store");
+        export(dataset, format, operatorId, from, to, response.getOutputStream());
+    }
+
+    /**
+     * Ghi dữ liệu từ ngày {@code from} đến hết ngày {@code to}
+     *
+     * @return số dòng đã ghi
+     */
+    public long export(ExportDataset dataset, ExportFormat format, Long operatorId, LocalDate from, LocalDate to,
+            OutputStream out) throws IOException {
+        long start = System.nanoTime();
+        BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        ExportRowWriter rowWriter = format.newWriter(writer);
+        rowWriter.writeHeader(dataset.getColumns());
+        // Gửi header ngay để client bắt đầu nhận dữ liệu
+        rowWriter.flush();
+
+        StreamingRowHandler handler = new StreamingRowHandler(rowWriter);
+        try {
+            jdbcTemplate.query(connection -> {
+                PreparedStatement ps = connection.prepareStatement(dataset.getSql(),
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                ps.setFetchSize(fetchSize);
+                ps.setLong(1, operatorId);
+                ps.setTimestamp(2, Timestamp.from(from.atStartOfDay(DEFAULT_ZONE).toInstant()));
+                ps.setTimestamp(3, Timestamp.from(to.plusDays(1).atStartOfDay(DEFAULT_ZONE).toInstant()));
+                return ps;
+            }, handler);
+        } catch (UncheckedIOException e) {
+            // Client ngắt kết nối giữa chừng
+            throw e.getCause();
+        }
+        rowWriter.flush();
+        log.info("Đã xuất {} dòng {} của nhà xe {} ({} → {}) trong {} ms", handler.rows, dataset, operatorId, from, to,
+                (System.nanoTime() - start) / 1_000_000);
+        return handler.rows;
+    }
+
+    /**
+     * Ghi từng dòng ngay khi đọc được; chỉ giữ một mảng giá trị dùng lại cho mọi dòng
+     */
+    private static final class StreamingRowHandler implements RowCallbackHandler {
+
+        private final ExportRowWriter rowWriter;
+        private int[] columnTypes;
+        private Object[] values;
+        private long rows;
+
+        private StreamingRowHandler(ExportRowWriter rowWriter) {
+            this.rowWriter = rowWriter;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            if (columnTypes == null) {
+                ResultSetMetaData meta = rs.getMetaData();
+                columnTypes = new int[meta.getColumnCount()];
+                for (int i = 0; i < columnTypes.length; i++) {
+                    columnTypes[i] = meta.getColumnType(i + 1);
+                }
+                values = new Object[columnTypes.length];
+            }
+            for (int i = 0; i < values.length; i++) {
+                values[i] = columnTypes[i] == Types.TIMESTAMP ? rs.getTimestamp(i + 1) : rs.getObject(i + 1);
+            }
+            try {
+                rowWriter.writeRow(values);
+                if (++rows % FLUSH_EVERY_ROWS == 0) {
+                    rowWriter.flush();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
@@ -9,6 +9,7 @@ import java.util.UUID;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import com.busify.project.common.job.JobCoordinator;
 import com.busify.project.trip.entity.Trip;
 import com.busify.project.trip.repository.TripRepository;
 import com.busify.project.booking.entity.Bookings;
@@ -31,12 +32,18 @@ public class ReportService {
         private final ReportRepository reportRepository;
         private final BusOperatorRepository busOperatorRepository;
         private final TicketRepository ticketRepository;
+        private final JobCoordinator jobCoordinator;
 
         // run at the start of every month
         @Scheduled(cron = "0 0 0 1 * ?")
         // run at 12:55 every day for testing
         // @Scheduled(cron = "0 20 13 * * ?")
         public void generateMonthlyReport() {
+                // Chỉ một instance tạo báo cáo, tránh báo cáo trùng cho mỗi nhà xe
+                jobCoordinator.runExclusive("report-monthly", this::buildMonthlyReports);
+        }
+
+        private void buildMonthlyReports() {
                 System.out.println("Run cron job at " + Instant.now());
                 final List<Long> operatorIds = busOperatorRepository.findAllIds();
                 System.out.println("Found operators: " + operatorIds);
@@ -90,6 +97,10 @@ public class ReportService {
         // run at the start of every year
         @Scheduled(cron = "0 0 0 1 1 ?")
         public void generateYearlyReport() {
+                jobCoordinator.runExclusive("report-yearly", this::buildYearlyReports);
+        }
+
+        private void buildYearlyReports() {
                 final List<Long> operatorIds = busOperatorRepository.findAllIds();
                 for (Long operatorId : operatorIds) {
                         List<ReportEntity> monthlyReports = getReportsByYear(
@@ -15,12 +15,16 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.security.access.prepost.PreAuthorize;
 
 import com.busify.project.common.dto.response.ApiResponse;
 import com.busify.project.review.dto.ReviewAddDTO;
 import com.busify.project.review.dto.response.ReviewPageResponseDTO;
 import com.busify.project.review.dto.response.ReviewResponseDTO;
 import com.busify.project.review.dto.response.ReviewResponseListDTO;
+import com.busify.project.review.dto.response.RatingSummaryDTO;
+import com.busify.project.review.enums.RatingScope;
+import com.busify.project.review.service.RatingAggregateService;
 import com.busify.project.review.service.ReviewServiceImpl;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -35,6 +39,7 @@ import lombok.RequiredArgsConstructor;
 public class ReviewController {
 
     private final ReviewServiceImpl reviewService;
+    private final RatingAggregateService ratingAggregateService;
 
     @Operation(summary = "Get all reviews")
     @GetMapping()
@@ -161,4 +166,24 @@ public class ReviewController {
         return ApiResponse.success("Lấy danh sách đánh giá theo nhà điều hành xe thành công",
                 reviewService.getReviewsByBusOperatorId(busOperatorId));
     }
-}
\ No newline at end of file
+
+    /**
+     * Điểm trung bình, tổng số và phân bố sao đã tổng hợp
+     * GET /api/reviews/ratings/OPERATOR/5
+     */
+    @Operation(summary = "Get rating summary of a trip, operator or route")
+    @GetMapping("/ratings/{scope}/{targetId}")
+    public ApiResponse<RatingSummaryDTO> getRatingSummary(@PathVariable RatingScope scope,
+            @PathVariable Long targetId) {
+        return ApiResponse.success("Lấy tổng hợp đánh giá thành công",
+                ratingAggregateService.getSummary(scope, targetId));
+    }
+
+    @Operation(summary = "Rebuild rating aggregates from reviews")
+    @PostMapping("/ratings/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ApiResponse<Void> rebuildRatingAggregates() {
+        ratingAggregateService.rebuild();
+        return ApiResponse.success("Đã build lại tổng hợp đánh giá", null);
+    }
+}
@@ -0,0 +1,20 @@
+package com.busify.project.review.dto.response;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RatingSummaryDTO {
+    private Long targetId;
+    private Double averageRating;
+    private Long totalReviews;
+    // Số lượt theo sao, phần tử 0 là 1 sao
+    private List<Long> histogram;
+}
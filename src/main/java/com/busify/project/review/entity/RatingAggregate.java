@@ -0,0 +1,61 @@
+package com.busify.project.review.entity;
+
+import java.time.Instant;
+import java.util.List;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Tổng hợp đánh giá (tổng điểm, số lượt, phân bố sao) của một chuyến, nhà xe hoặc tuyến.
+ * Được cập nhật cùng transaction với review nên đọc trực tiếp thay cho AVG/COUNT trên bảng reviews.
+ */
+@Entity
+@Table(name = "rating_aggregates", indexes = {
+        @Index(name = "idx_rating_aggregates_scope_average", columnList = "scope, average_rating")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+public class RatingAggregate {
+    @EmbeddedId
+    private RatingAggregateId id;
+
+    @Column(name = "rating_sum", nullable = false)
+    private long ratingSum;
+
+    @Column(name = "rating_count", nullable = false)
+    private long ratingCount;
+
+    // rating_sum / rating_count, lưu sẵn để sắp xếp bảng xếp hạng theo index
+    @Column(name = "average_rating", nullable = false)
+    private double averageRating;
+
+    @Column(name = "stars_1", nullable = false)
+    private long stars1;
+
+    @Column(name = "stars_2", nullable = false)
+    private long stars2;
+
+    @Column(name = "stars_3", nullable = false)
+    private long stars3;
+
+    @Column(name = "stars_4", nullable = false)
+    private long stars4;
+
+    @Column(name = "stars_5", nullable = false)
+    private long stars5;
+
+    @Column(name = "updated_at")
+    private Instant updatedAt;
+
+    public List<Long> getHistogram() {
+        return List.of(stars1, stars2, stars3, stars4, stars5);
+    }
+}
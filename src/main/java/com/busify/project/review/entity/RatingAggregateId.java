@@ -0,0 +1,26 @@
+package com.busify.project.review.entity;
+
+import java.io.Serializable;
+
+import com.busify.project.review.enums.RatingScope;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RatingAggregateId implements Serializable {
+    @Enumerated(EnumType.STRING)
+    @Column(name = "scope", length = 16)
+    private RatingScope scope;
+
+    @Column(name = "target_id")
+    private Long targetId;
+}
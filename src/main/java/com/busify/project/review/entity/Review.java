@@ -1,5 +1,6 @@
 package com.busify.project.review.entity;
 
+import com.busify.project.common.search.SearchEntityListener;
 import com.busify.project.trip.entity.Trip;
 import com.busify.project.user.entity.User;
 
@@ -12,6 +13,7 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "reviews")
+@EntityListeners(SearchEntityListener.class)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
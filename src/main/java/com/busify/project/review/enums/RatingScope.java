@@ -0,0 +1,10 @@
+package com.busify.project.review.enums;
+
+/**
+ * Đối tượng được tổng hợp điểm đánh giá
+ */
+public enum RatingScope {
+    TRIP,
+    OPERATOR,
+    ROUTE
+}
@@ -0,0 +1,114 @@
+package com.busify.project.review.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.busify.project.review.entity.RatingAggregate;
+import com.busify.project.review.entity.RatingAggregateId;
+import com.busify.project.review.enums.RatingScope;
+
+public interface RatingAggregateRepository extends JpaRepository<RatingAggregate, RatingAggregateId> {
+
+        /**
+         * Cộng dồn thay đổi số lượt theo từng mức sao vào tổng hợp (tạo mới nếu chưa có).
+         * Một câu lệnh nguyên tử nên các review đồng thời không làm mất cập nhật của nhau;
+         * MySQL gán cột theo thứ tự nên average_rating dùng giá trị vừa cập nhật.
+         */
+        @Modifying
+        @Query(value = """
+                        INSERT INTO rating_aggregates
+                            (scope, target_id, rating_sum, rating_count, average_rating,
+                             stars_1, stars_2, stars_3, stars_4, stars_5, updated_at)
+                        VALUES (:scope, :targetId,
+                                :d1 + 2 * :d2 + 3 * :d3 + 4 * :d4 + 5 * :d5,
+                                :d1 + :d2 + :d3 + :d4 + :d5,
+                                CASE WHEN :d1 + :d2 + :d3 + :d4 + :d5 > 0
+                                     THEN (:d1 + 2 * :d2 + 3 * :d3 + 4 * :d4 + 5 * :d5) / (:d1 + :d2 + :d3 + :d4 + :d5)
+                                     ELSE 0 END,
+                                :d1, :d2, :d3, :d4, :d5, NOW())
+                        ON DUPLICATE KEY UPDATE
+                            rating_sum = rating_sum + (:d1 + 2 * :d2 + 3 * :d3 + 4 * :d4 + 5 * :d5),
+                            rating_count = rating_count + (:d1 + :d2 + :d3 + :d4 + :d5),
+                            stars_1 = stars_1 + :d1,
+                            stars_2 = stars_2 + :d2,
+                            stars_3 = stars_3 + :d3,
+                            stars_4 = stars_4 + :d4,
+                            stars_5 = stars_5 + :d5,
+                            average_rating = CASE WHEN rating_count > 0 THEN rating_sum / rating_count ELSE 0 END,
+                            updated_at = NOW()
+                        """, nativeQuery = true)
+        void applyDelta(@Param("scope") String scope,
+                        @Param("targetId") Long targetId,
+                        @Param("d1") long d1,
+                        @Param("d2") long d2,
+                        @Param("d3") long d3,
+                        @Param("d4") long d4,
+                        @Param("d5") long d5);
+
+        @Query("SELECT ra FROM RatingAggregate ra WHERE ra.id.scope = :scope AND ra.id.targetId IN :targetIds")
+        List<RatingAggregate> findByScopeAndTargetIds(@Param("scope") RatingScope scope,
+                        @Param("targetIds") Collection<Long> targetIds);
+
+        @Query("""
+                        SELECT ra FROM RatingAggregate ra
+                        WHERE ra.id.scope = :scope AND ra.ratingCount > 0
+                        ORDER BY ra.averageRating DESC, ra.ratingCount DESC
+                        """)
+        List<RatingAggregate> findTopRated(@Param("scope") RatingScope scope, Pageable pageable);
+
+        // ===== Build lại toàn bộ từ bảng reviews =====
+
+        @Modifying
+        @Query(value = "DELETE FROM rating_aggregates", nativeQuery = true)
+        void deleteAllAggregates();
+
+        @Modifying
+        @Query(value = """
+                        INSERT INTO rating_aggregates
+                            (scope, target_id, rating_sum, rating_count, average_rating,
+                             stars_1, stars_2, stars_3, stars_4, stars_5, updated_at)
+                        SELECT 'TRIP', r.trip_id, SUM(r.rating), COUNT(*), AVG(r.rating),
+                               SUM(r.rating = 1), SUM(r.rating = 2), SUM(r.rating = 3),
+                               SUM(r.rating = 4), SUM(r.rating = 5), NOW()
+                        FROM reviews r
+                        GROUP BY r.trip_id
+                        """, nativeQuery = true)
+        int rebuildTripAggregates();
+
+        @Modifying
+        @Query(value = """
+                        INSERT INTO rating_aggregates
+                            (scope, target_id, rating_sum, rating_count, average_rating,
+                             stars_1, stars_2, stars_3, stars_4, stars_5, updated_at)
+                        SELECT 'OPERATOR', b.operator_id, SUM(r.rating), COUNT(*), AVG(r.rating),
+                               SUM(r.rating = 1), SUM(r.rating = 2), SUM(r.rating = 3),
+                               SUM(r.rating = 4), SUM(r.rating = 5), NOW()
+                        FROM reviews r
+                        JOIN trips t ON r.trip_id = t.trip_id
+                        JOIN buses b ON t.bus_id = b.id
+                        WHERE b.operator_id IS NOT NULL
+                        GROUP BY b.operator_id
+                        """, nativeQuery = true)
+        int rebuildOperatorAggregates();
+
+        @Modifying
+        @Query(value = """
+                        INSERT INTO rating_aggregates
+                            (scope, target_id, rating_sum, rating_count, average_rating,
+                             stars_1, stars_2, stars_3, stars_4, stars_5, updated_at)
+                        SELECT 'ROUTE', t.route_id, SUM(r.rating), COUNT(*), AVG(r.rating),
+                               SUM(r.rating = 1), SUM(r.rating = 2), SUM(r.rating = 3),
+                               SUM(r.rating = 4), SUM(r.rating = 5), NOW()
+                        FROM reviews r
+                        JOIN trips t ON r.trip_id = t.trip_id
+                        WHERE t.route_id IS NOT NULL
+                        GROUP BY t.route_id
+                        """, nativeQuery = true)
+        int rebuildRouteAggregates();
+}
@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import com.busify.project.review.entity.Review;
+import java.util.Collection;
 import java.util.List;
 import com.busify.project.user.entity.User;
 import java.time.LocalDateTime;
@@ -68,4 +69,17 @@ public interface ReviewRepository extends JpaRepository<Review, Long> {
         Page<Review> findByCustomerFullNameAndCommentContaining(
                         @Param("fullName") String fullName,
                         @Param("keyword") String keyword, Pageable pageable);
-}
\ No newline at end of file
+
+        /**
+         * (reviewId, nội dung, tên khách, thời điểm tạo) cho chỉ mục tìm kiếm
+         */
+        @Query("SELECT r.reviewId, r.comment, p.fullName, r.createdAt FROM Review r " +
+                        "LEFT JOIN Profile p ON r.customer.id = p.id " +
+                        "WHERE r.reviewId > :lastId ORDER BY r.reviewId")
+        List<Object[]> findSearchRowsAfter(@Param("lastId") Long lastId, Pageable pageable);
+
+        @Query("SELECT r.reviewId, r.comment, p.fullName, r.createdAt FROM Review r " +
+                        "LEFT JOIN Profile p ON r.customer.id = p.id " +
+                        "WHERE r.reviewId IN :ids")
+        List<Object[]> findSearchRowsByIds(@Param("ids") Collection<Long> ids);
+}
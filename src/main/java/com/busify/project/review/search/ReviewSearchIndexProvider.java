@@ -0,0 +1,67 @@
+package com.busify.project.review.search;
+
+import com.busify.project.common.search.SearchDocument;
+import com.busify.project.common.search.SearchIndexProvider;
+import com.busify.project.review.entity.Review;
+import com.busify.project.review.repository.ReviewRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Chỉ mục review theo nội dung và tên khách; review mới hơn đứng trước khi cùng điểm.
+ * Đổi tên khách chỉ được cập nhật ở lần build lại toàn bộ.
+ */
+@Component
+@RequiredArgsConstructor
+public class ReviewSearchIndexProvider implements SearchIndexProvider {
+
+    public static final String INDEX = "reviews";
+    public static final String FIELD_COMMENT = "comment";
+    public static final String FIELD_CUSTOMER = "customer";
+
+    private final ReviewRepository reviewRepository;
+
+    @Override
+    public String getIndexName() {
+        return INDEX;
+    }
+
+    @Override
+    public Class<?> getEntityType() {
+        return Review.class;
+    }
+
+    @Override
+    public Long idOf(Object entity) {
+        return ((Review) entity).getReviewId();
+    }
+
+    @Override
+    public List<SearchDocument> loadAfter(long lastId, int limit) {
+        return reviewRepository.findSearchRowsAfter(lastId, PageRequest.of(0, limit)).stream()
+                .map(ReviewSearchIndexProvider::toDocument)
+                .toList();
+    }
+
+    @Override
+    public List<SearchDocument> loadByIds(Collection<Long> ids) {
+        return reviewRepository.findSearchRowsByIds(ids).stream()
+                .map(ReviewSearchIndexProvider::toDocument)
+                .toList();
+    }
+
+    private static SearchDocument toDocument(Object[] row) {
+        LocalDateTime createdAt = (LocalDateTime) row[3];
+        return SearchDocument.builder((Long) row[0])
+                .rankHint(createdAt != null ? createdAt.toEpochSecond(ZoneOffset.UTC) : 0)
+                .text(FIELD_COMMENT, (String) row[1], 1f)
+                .text(FIELD_CUSTOMER, (String) row[2], 1f)
+                .build();
+    }
+}
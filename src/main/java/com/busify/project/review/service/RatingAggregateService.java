@@ -0,0 +1,165 @@
+package com.busify.project.review.service;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.busify.project.common.job.JobCoordinator;
+import com.busify.project.review.dto.response.RatingSummaryDTO;
+import com.busify.project.review.entity.RatingAggregate;
+import com.busify.project.review.entity.RatingAggregateId;
+import com.busify.project.review.enums.RatingScope;
+import com.busify.project.review.repository.RatingAggregateRepository;
+import com.busify.project.trip.entity.Trip;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Tổng hợp điểm đánh giá theo chuyến, nhà xe và tuyến.
+ * <p>
+ * Mỗi lần thêm/sửa/xoá review chỉ cộng dồn phần thay đổi của phân bố sao vào ba dòng tổng hợp
+ * trong cùng transaction với review. Các màn hình danh sách và bảng xếp hạng đọc trực tiếp
+ * tổng hợp thay vì AVG/COUNT trên bảng reviews. Job build lại định kỳ sửa mọi sai lệch
+ * (ví dụ review bị xoá trực tiếp trong DB).
+ * </p>
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RatingAggregateService {
+
+    private final RatingAggregateRepository ratingAggregateRepository;
+    private final JobCoordinator jobCoordinator;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void reviewAdded(Trip trip, int rating) {
+        long[] delta = new long[5];
+        delta[rating - 1]++;
+        apply(trip, delta);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void reviewRemoved(Trip trip, int rating) {
+        long[] delta = new long[5];
+        delta[rating - 1]--;
+        apply(trip, delta);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void reviewChanged(Trip trip, int oldRating, int newRating) {
+        if (oldRating == newRating) {
+            return;
+        }
+        long[] delta = new long[5];
+        delta[oldRating - 1]--;
+        delta[newRating - 1]++;
+        apply(trip, delta);
+    }
+
+    private void apply(Trip trip, long[] delta) {
+        applyTo(RatingScope.TRIP, trip.getId(), delta);
+        if (trip.getBus() != null && trip.getBus().getOperator() != null) {
+            applyTo(RatingScope.OPERATOR, trip.getBus().getOperator().getId(), delta);
+        }
+        if (trip.getRoute() != null) {
+            applyTo(RatingScope.ROUTE, trip.getRoute().getId(), delta);
+        }
+    }
+
+    private void applyTo(RatingScope scope, Long targetId, long[] delta) {
+        ratingAggregateRepository.applyDelta(scope.name(), targetId,
+                delta[0], delta[1], delta[2], delta[3], delta[4]);
+    }
+
+    /**
+     * Điểm trung bình làm tròn 1 chữ số, 0 nếu chưa có đánh giá
+     */
+    public Double getAverageRating(RatingScope scope, Long targetId) {
+        return ratingAggregateRepository.findById(new RatingAggregateId(scope, targetId))
+                .map(RatingAggregateService::roundedAverage)
+                .orElse(0.0);
+    }
+
+    /**
+     * Điểm trung bình của nhiều đối tượng trong một truy vấn; đối tượng chưa có đánh giá không có trong map
+     */
+    public Map<Long, Double> getAverageRatings(RatingScope scope, Collection<Long> targetIds) {
+        Map<Long, Double> ratings = new HashMap<>();
+        if (targetIds.isEmpty()) {
+            return ratings;
+        }
+        for (RatingAggregate aggregate : ratingAggregateRepository.findByScopeAndTargetIds(scope, targetIds)) {
+            ratings.put(aggregate.getId().getTargetId(), roundedAverage(aggregate));
+        }
+        return ratings;
+    }
+
+    public RatingSummaryDTO getSummary(RatingScope scope, Long targetId) {
+        return ratingAggregateRepository.findById(new RatingAggregateId(scope, targetId))
+                .map(RatingAggregateService::toSummary)
+                .orElseGet(() -> RatingSummaryDTO.builder()
+                        .targetId(targetId)
+                        .averageRating(0.0)
+                        .totalReviews(0L)
+                        .histogram(List.of(0L, 0L, 0L, 0L, 0L))
+                        .build());
+    }
+
+    public List<RatingAggregate> getTopRated(RatingScope scope, int limit) {
+        return ratingAggregateRepository.findTopRated(scope, PageRequest.of(0, limit));
+    }
+
+    /**
+     * Lần chạy đầu sau khi thêm bảng tổng hợp: build từ dữ liệu review sẵn có
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void buildIfEmpty() {
+        if (ratingAggregateRepository.count() == 0) {
+            rebuild();
+        }
+    }
+
+    @Scheduled(cron = "${busify.rating.rebuild-cron:0 30 3 * * *}")
+    @Transactional
+    public void scheduledRebuild() {
+        jobCoordinator.runExclusive("rating-rebuild", this::rebuild);
+    }
+
+    /**
+     * Build lại toàn bộ tổng hợp từ bảng reviews
+     */
+    @Transactional
+    public void rebuild() {
+        long start = System.nanoTime();
+        ratingAggregateRepository.deleteAllAggregates();
+        int trips = ratingAggregateRepository.rebuildTripAggregates();
+        int operators = ratingAggregateRepository.rebuildOperatorAggregates();
+        int routes = ratingAggregateRepository.rebuildRouteAggregates();
+        log.info("Đã build lại tổng hợp đánh giá: {} chuyến, {} nhà xe, {} tuyến trong {} ms",
+                trips, operators, routes, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private static RatingSummaryDTO toSummary(RatingAggregate aggregate) {
+        return RatingSummaryDTO.builder()
+                .targetId(aggregate.getId().getTargetId())
+                .averageRating(roundedAverage(aggregate))
+                .totalReviews(aggregate.getRatingCount())
+                .histogram(aggregate.getHistogram())
+                .build();
+    }
+
+    private static double roundedAverage(RatingAggregate aggregate) {
+        return aggregate.getRatingCount() > 0 ? Math.round(aggregate.getAverageRating() * 10.0) / 10.0 : 0.0;
+    }
+}
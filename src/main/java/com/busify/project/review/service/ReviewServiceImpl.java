@@ -2,12 +2,16 @@ package com.busify.project.review.service;
 
 import java.time.LocalDateTime;
 import java.util.Collections;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.busify.project.common.search.SearchIndexService;
+import com.busify.project.common.search.SearchQuery;
 import com.busify.project.common.utils.JwtUtils;
 import com.busify.project.review.dto.ReviewAddDTO;
 import com.busify.project.review.dto.response.ReviewPageResponseDTO;
@@ -18,6 +22,7 @@ import com.busify.project.review.dto.response.ReviewResponseListDTO;
 import com.busify.project.review.entity.Review;
 import com.busify.project.review.mapper.ReviewDTOMapper;
 import com.busify.project.review.repository.ReviewRepository;
+import com.busify.project.review.search.ReviewSearchIndexProvider;
 import com.busify.project.trip.entity.Trip;
 import com.busify.project.trip.repository.TripRepository;
 import com.busify.project.user.entity.User;
@@ -26,9 +31,15 @@ import com.busify.project.user.repository.UserRepository;
 @Service
 public class ReviewServiceImpl extends ReviewService {
 
+        private final RatingAggregateService ratingAggregateService;
+        private final SearchIndexService searchIndexService;
+
         public ReviewServiceImpl(ReviewRepository reviewRepository, UserRepository userRepository,
-                        TripRepository tripRepository, JwtUtils jwtUtils) {
+                        TripRepository tripRepository, JwtUtils jwtUtils,
+                        RatingAggregateService ratingAggregateService, SearchIndexService searchIndexService) {
                 super(reviewRepository, userRepository, tripRepository, jwtUtils);
+                this.ratingAggregateService = ratingAggregateService;
+                this.searchIndexService = searchIndexService;
         }
 
         /**
@@ -63,6 +74,7 @@ public class ReviewServiceImpl extends ReviewService {
          *
          * @param reviewAddDTO the DTO containing review details
          */
+        @Transactional
         public ReviewResponseDTO addReview(ReviewAddDTO reviewAddDTO) {
                 final String email = jwtUtils.getCurrentUserLogin().isPresent() ? jwtUtils.getCurrentUserLogin().get()
                                 : null;
@@ -78,7 +90,9 @@ public class ReviewServiceImpl extends ReviewService {
                 final Trip trip = tripRepository.findById(reviewAddDTO.getTripId())
                                 .orElseThrow(() -> new IllegalArgumentException(
                                                 "Trip not found with ID: " + reviewAddDTO.getTripId()));
-                return toResponseAddDTO(reviewRepository.save(ReviewDTOMapper.toEntity(reviewAddDTO, user, trip)));
+                final Review saved = reviewRepository.save(ReviewDTOMapper.toEntity(reviewAddDTO, user, trip));
+                ratingAggregateService.reviewAdded(trip, saved.getRating());
+                return toResponseAddDTO(saved);
         }
 
         public ReviewResponseGetDTO getReview(Long id) {
@@ -92,8 +106,12 @@ public class ReviewServiceImpl extends ReviewService {
          *
          * @param id the ID of the review to delete
          */
+        @Transactional
         public ReviewResponseAddDTO deleteReview(Long id) {
-                reviewRepository.deleteById(id);
+                final Review review = reviewRepository.findById(id)
+                                .orElseThrow(() -> new IllegalArgumentException("Review not found with ID: " + id));
+                reviewRepository.delete(review);
+                ratingAggregateService.reviewRemoved(review.getTrip(), review.getRating());
                 return new ReviewResponseAddDTO("Review deleted successfully");
         }
 
@@ -104,11 +122,14 @@ public class ReviewServiceImpl extends ReviewService {
          * @param reviewAddDTO the DTO containing updated review details
          * @return the updated ReviewResponseDTO
          */
+        @Transactional
         public ReviewResponseDTO updateReview(Long id, ReviewAddDTO reviewAddDTO) {
                 final Review review = reviewRepository.getReferenceById(id);
+                final int oldRating = review.getRating();
                 review.setComment(reviewAddDTO.getComment());
                 review.setRating(reviewAddDTO.getRating());
                 reviewRepository.save(review);
+                ratingAggregateService.reviewChanged(review.getTrip(), oldRating, review.getRating());
                 return new ReviewResponseAddDTO("Review updated successfully");
         }
 
@@ -168,25 +189,45 @@ public class ReviewServiceImpl extends ReviewService {
         }
 
         public ReviewPageResponseDTO findByCustomerFullName(String fullName, Pageable pageable) {
-                Page<Review> reviewPage = reviewRepository.findByCustomerFullName(fullName, pageable);
+                SearchQuery query = SearchQuery.builder()
+                                .match(fullName, ReviewSearchIndexProvider.FIELD_CUSTOMER)
+                                .build();
+                Page<Review> reviewPage = searchReviews(query, pageable)
+                                .orElseGet(() -> reviewRepository.findByCustomerFullName(fullName, pageable));
                 Page<ReviewResponseGetDTO> dtoPage = reviewPage.map(ReviewDTOMapper::toResponseGetDTO);
                 return ReviewPageResponseDTO.fromPage(dtoPage);
         }
 
         public ReviewPageResponseDTO findByCommentContainingIgnoreCase(String keyword, Pageable pageable) {
-                Page<Review> reviewPage = reviewRepository.findByCommentContainingIgnoreCase(keyword, pageable);
+                SearchQuery query = SearchQuery.builder()
+                                .match(keyword, ReviewSearchIndexProvider.FIELD_COMMENT)
+                                .build();
+                Page<Review> reviewPage = searchReviews(query, pageable)
+                                .orElseGet(() -> reviewRepository.findByCommentContainingIgnoreCase(keyword, pageable));
                 Page<ReviewResponseGetDTO> dtoPage = reviewPage.map(ReviewDTOMapper::toResponseGetDTO);
                 return ReviewPageResponseDTO.fromPage(dtoPage);
         }
 
         public ReviewPageResponseDTO findByCustomerFullNameAndCommentContaining(String fullName, String keyword,
                         Pageable pageable) {
-                Page<Review> reviewPage = reviewRepository.findByCustomerFullNameAndCommentContaining(fullName, keyword,
-                                pageable);
+                SearchQuery query = SearchQuery.builder()
+                                .match(fullName, ReviewSearchIndexProvider.FIELD_CUSTOMER)
+                                .match(keyword, ReviewSearchIndexProvider.FIELD_COMMENT)
+                                .build();
+                Page<Review> reviewPage = searchReviews(query, pageable)
+                                .orElseGet(() -> reviewRepository.findByCustomerFullNameAndCommentContaining(fullName,
+                                                keyword, pageable));
                 Page<ReviewResponseGetDTO> dtoPage = reviewPage.map(ReviewDTOMapper::toResponseGetDTO);
                 return ReviewPageResponseDTO.fromPage(dtoPage);
         }
 
+        // Kết quả theo độ liên quan, cùng điểm thì review mới hơn trước; rỗng khi chỉ mục chưa sẵn sàng
+        private Optional<Page<Review>> searchReviews(SearchQuery query, Pageable pageable) {
+                return searchIndexService.search(ReviewSearchIndexProvider.INDEX, query, pageable)
+                                .map(hits -> searchIndexService.toPage(hits, pageable, reviewRepository::findAllById,
+                                                Review::getReviewId));
+        }
+
         public boolean canReview(Long tripId) {
                 final String email = jwtUtils.getCurrentUserLogin().isPresent() ? jwtUtils.getCurrentUserLogin().get()
                                 : null;
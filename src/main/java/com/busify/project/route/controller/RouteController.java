@@ -34,8 +34,13 @@ public class RouteController {
     }
 
     @GetMapping()
-    @Operation(summary = "Get all routes")
-    public ApiResponse<List<RouteResponse>> getAllRoutes() {
+    @Operation(summary = "Get all routes", description = "Truyền cursor/limit để phân trang; không truyền thì trả về toàn bộ nếu không vượt giới hạn")
+    public ApiResponse<?> getAllRoutes(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        if (cursor != null || limit != null) {
+            return ApiResponse.success("All routes fetched successfully", routeService.getRoutes(cursor, limit));
+        }
         List<RouteResponse> routes = routeService.getAllRoutes();
         return ApiResponse.success("All routes fetched successfully", routes);
     }
@@ -0,0 +1,18 @@
+package com.busify.project.route.event;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Phát ra khi tuyến hoặc điểm dừng của tuyến thay đổi, để các chỉ mục mạng lưới trong bộ nhớ làm mới.
+ */
+@Getter
+public class RouteNetworkChangedEvent extends ApplicationEvent {
+
+    private final Long routeId;
+
+    public RouteNetworkChangedEvent(Object source, Long routeId) {
+        super(source);
+        this.routeId = routeId;
+    }
+}
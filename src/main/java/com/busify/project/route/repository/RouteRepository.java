@@ -1,5 +1,6 @@
 package com.busify.project.route.repository;
 
+import com.busify.project.common.pagination.KeysetRepository;
 import com.busify.project.location.entity.Location;
 import com.busify.project.route.dto.response.PopularRouteResponse;
 import com.busify.project.route.dto.response.TopRouteRevenueDTO;
@@ -14,7 +15,7 @@ import org.springframework.stereotype.Repository;
 import java.util.List;
 
 @Repository
-public interface RouteRepository extends JpaRepository<Route, Long> {
+public interface RouteRepository extends JpaRepository<Route, Long>, KeysetRepository {
     @Query("SELECT new com.busify.project.route.dto.response.PopularRouteResponse(" +
             "r.id, " +
             "CONCAT(l1.name, ' → ', l2.name), " +
@@ -71,4 +72,9 @@ public interface RouteRepository extends JpaRepository<Route, Long> {
 
     boolean existsByStartLocationAndEndLocationAndIdNot(Location startLocation, Location endLocation, Long id);
 
-}
\ No newline at end of file
+    /**
+     * (routeId, startLocationId, endLocationId, defaultDurationMinutes) của mọi tuyến, dùng để build chỉ mục mạng lưới
+     */
+    @Query("SELECT r.id, r.startLocation.id, r.endLocation.id, r.defaultDurationMinutes FROM Route r")
+    List<Object[]> findRouteEndpoints();
+}
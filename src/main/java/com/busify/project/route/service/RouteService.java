@@ -1,5 +1,9 @@
 package com.busify.project.route.service;
 
+import com.busify.project.common.pagination.CursorCodec;
+import com.busify.project.common.pagination.CursorPage;
+import com.busify.project.common.pagination.CursorPagination;
+import com.busify.project.common.pagination.KeysetQuery;
 import com.busify.project.route.dto.response.PopularRouteResponse;
 import com.busify.project.route.dto.response.RouteResponse;
 import com.busify.project.route.dto.response.TopRouteRevenueDTO;
@@ -18,18 +22,30 @@ import org.springframework.stereotype.Service;
 @RequiredArgsConstructor
 public class RouteService {
     protected final RouteRepository routeRepository;
+    protected final CursorPagination cursorPagination;
 
     public List<PopularRouteResponse> getPopularRoutes() {
         return routeRepository.findPopularRoutes();
     }
 
     public List<RouteResponse> getAllRoutes() {
+        cursorPagination.requireBounded(routeRepository.count(), "tuyến đường");
         List<Route> routes = routeRepository.findAll();
         return routes.stream()
                 .map(RouteResponse::from)
                 .collect(Collectors.toList());
     }
 
+    public CursorPage<RouteResponse> getRoutes(String cursor, Integer limit) {
+        int pageSize = cursorPagination.limit(limit);
+        List<Route> routes = routeRepository.findKeyset(KeysetQuery.of(Route.class, "id")
+                .after(cursorPagination.afterId(cursor))
+                .limit(pageSize)
+                .fetch("startLocation", "endLocation"));
+        return CursorPage.of(routes, pageSize, route -> CursorCodec.encode(route.getId()))
+                .map(RouteResponse::from);
+    }
+
     // Lấy top 10 routes có doanh thu cao nhất theo năm
     public List<TopRouteRevenueDTO> getTop10RoutesByRevenueAndYear(Integer year) {
         LocalDate now = LocalDate.now();
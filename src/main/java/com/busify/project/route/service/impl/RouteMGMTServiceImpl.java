@@ -7,6 +7,7 @@ import com.busify.project.route.dto.request.RouteMGMTRequestDTO;
 import com.busify.project.route.dto.response.RouteDeleteResponseDTO;
 import com.busify.project.route.dto.response.RouteMGMTResposeDTO;
 import com.busify.project.route.entity.Route;
+import com.busify.project.route.event.RouteNetworkChangedEvent;
 import com.busify.project.route.exception.RouteOperationException;
 import com.busify.project.route.mapper.RouteMGMTMapper;
 import com.busify.project.route.repository.RouteRepository;
@@ -25,6 +26,7 @@ import lombok.RequiredArgsConstructor;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -43,6 +45,7 @@ public class RouteMGMTServiceImpl implements RouteMGMTService {
     private final RouteMGMTMapper routeMGMTMapper;
     private final AuditLogService auditLogService;
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
@@ -97,6 +100,7 @@ public class RouteMGMTServiceImpl implements RouteMGMTService {
             System.err.println("Failed to create audit log for route creation: " + e.getMessage());
         }
 
+        eventPublisher.publishEvent(new RouteNetworkChangedEvent(this, saved.getId()));
         return routeMGMTMapper.toRouteDetailResponseDTO(saved);
     }
 
@@ -179,6 +183,7 @@ public class RouteMGMTServiceImpl implements RouteMGMTService {
             System.err.println("Failed to create audit log for route update: " + e.getMessage());
         }
 
+        eventPublisher.publishEvent(new RouteNetworkChangedEvent(this, updated.getId()));
         return routeMGMTMapper.toRouteDetailResponseDTO(updated);
     }
 
@@ -204,6 +209,7 @@ public class RouteMGMTServiceImpl implements RouteMGMTService {
             }
 
             routeRepository.delete(route);
+            eventPublisher.publishEvent(new RouteNetworkChangedEvent(this, route.getId()));
         }
 
         return new RouteDeleteResponseDTO(
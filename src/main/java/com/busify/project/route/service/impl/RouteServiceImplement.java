@@ -1,5 +1,6 @@
 package com.busify.project.route.service.impl;
 
+import com.busify.project.common.pagination.CursorPagination;
 import com.busify.project.route.dto.response.RouteFilterTripResponse;
 import com.busify.project.route.mapper.RouteMapper;
 import com.busify.project.route.repository.RouteRepository;
@@ -12,11 +13,12 @@ import java.util.stream.Collectors;
 @Service
 public class RouteServiceImplement extends RouteService {
 
-    RouteServiceImplement(RouteRepository routeRepository) {
-        super(routeRepository);
+    RouteServiceImplement(RouteRepository routeRepository, CursorPagination cursorPagination) {
+        super(routeRepository, cursorPagination);
     }
 
     public List<RouteFilterTripResponse> getRouteFilterTripResponses() {
+        cursorPagination.requireBounded(routeRepository.count(), "tuyến đường");
         return routeRepository.findAll().stream()
                 .map(RouteMapper::toDTO)
                 .collect(Collectors.toList());
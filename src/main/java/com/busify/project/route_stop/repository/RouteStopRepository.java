@@ -33,4 +33,16 @@ public interface RouteStopRepository extends JpaRepository<RouteStop, RouteStopI
 
     List<RouteStop> findByRoute_IdOrderByStopOrderAsc(Long routeId);
     boolean existsByRoute_IdAndLocation_Id(Long routeId, Long locationId);
+
+    /**
+     * (routeId, locationId, timeOffsetFromStart) của mọi điểm dừng, dùng để build chỉ mục mạng lưới
+     */
+    @Query("SELECT rs.route.id, rs.location.id, rs.timeOffsetFromStart FROM RouteStop rs")
+    List<Object[]> findAllStopOffsets();
+
+    /**
+     * Location id các điểm dừng của một tuyến theo thứ tự stop_order
+     */
+    @Query("SELECT rs.location.id FROM RouteStop rs WHERE rs.route.id = :routeId ORDER BY rs.stopOrder ASC")
+    List<Long> findStopLocationIds(@Param("routeId") Long routeId);
 }
@@ -4,6 +4,7 @@ import com.busify.project.common.dto.response.ApiResponse;
 import com.busify.project.location.entity.Location;
 import com.busify.project.location.repository.LocationRepository;
 import com.busify.project.route.entity.Route;
+import com.busify.project.route.event.RouteNetworkChangedEvent;
 import com.busify.project.route.repository.RouteRepository;
 import com.busify.project.route_stop.dto.request.RouteStopMGMTRequestDTO;
 import com.busify.project.route_stop.dto.response.RouteStopDeleteResponseDTO;
@@ -14,6 +15,7 @@ import com.busify.project.route_stop.mapper.RouteStopMGMTMapper;
 import com.busify.project.route_stop.repository.RouteStopRepository;
 import com.busify.project.route_stop.service.RouteStopMGMTService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -26,6 +28,7 @@ public class RouteStopMGMTServiceImpl implements RouteStopMGMTService {
     private final RouteStopRepository routeStopRepository;
     private final RouteRepository routeRepository;
     private final LocationRepository locationRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public RouteStopMGMTResponseDTO addRouteStop(RouteStopMGMTRequestDTO requestDTO) {
@@ -55,6 +58,7 @@ public class RouteStopMGMTServiceImpl implements RouteStopMGMTService {
         routeStop.setTimeOffsetFromStart(requestDTO.getTimeOffsetFromStart());
 
         RouteStop saved = routeStopRepository.save(routeStop);
+        eventPublisher.publishEvent(new RouteNetworkChangedEvent(this, route.getId()));
         return RouteStopMGMTMapper.toResponseDTO(saved);
     }
 
@@ -79,6 +83,7 @@ public class RouteStopMGMTServiceImpl implements RouteStopMGMTService {
         routeStop.setTimeOffsetFromStart(requestDTO.getTimeOffsetFromStart());
 
         RouteStop updated = routeStopRepository.save(routeStop);
+        eventPublisher.publishEvent(new RouteNetworkChangedEvent(this, requestDTO.getRouteId()));
         return RouteStopMGMTMapper.toResponseDTO(updated);
     }
 
@@ -93,6 +98,7 @@ public class RouteStopMGMTServiceImpl implements RouteStopMGMTService {
 
         if (isDelete) {
             routeStopRepository.delete(routeStop);
+            eventPublisher.publishEvent(new RouteNetworkChangedEvent(this, routeId));
         }
 
         return new RouteStopDeleteResponseDTO(routeId, locationId);
@@ -9,7 +9,9 @@ import org.hibernate.annotations.CreationTimestamp;
 import java.time.Instant;
 
 @Entity
-@Table(name = "score_history")
+@Table(name = "score_history", indexes = {
+        @Index(name = "idx_score_history_batch", columnList = "batch_id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -35,6 +37,14 @@ public class ScoreHistory {
     @Column(name = "action_type", nullable = false, length = 20)
     private String actionType; // EARNED hoặc USED
 
+    // Chỉ có giá trị với dòng EARNED: mỗi booking chỉ được cộng điểm một lần
+    @Column(name = "earned_booking_id", unique = true)
+    private Long earnedBookingId;
+
+    // Lượt tích điểm đã tạo dòng này (null với dòng USED)
+    @Column(name = "batch_id", length = 36)
+    private String batchId;
+
     @CreationTimestamp
     @Column(name = "created_at", nullable = false)
     private Instant createdAt = Instant.now();
@@ -1,9 +1,49 @@
 package com.busify.project.score.repository;
 
-import com.busify.project.booking.entity.Bookings;
 import com.busify.project.score.entity.ScoreHistory;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
 
 public interface ScoreHistoryRepository extends JpaRepository<ScoreHistory, Long> {
-    boolean existsByBookingAndActionType(Bookings booking, String actionType);
+
+    /**
+     * Ghi lịch sử EARNED cho mọi booking đủ điều kiện của các chuyến trong một câu lệnh.
+     * Số điểm = số ghế của booking. Booking đã được cộng điểm bị bỏ qua nhờ unique key
+     * {@code earned_booking_id}, nên chạy lại hoặc chạy song song không cộng trùng.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO score_history
+                (booking_id, user_id, points_added, action_type, earned_booking_id, batch_id, created_at)
+            SELECT b.id, b.customer_id,
+                   CHAR_LENGTH(b.seat_number) - CHAR_LENGTH(REPLACE(b.seat_number, ',', '')) + 1,
+                   'EARNED', b.id, :batchId, NOW(6)
+            FROM bookings b
+            WHERE b.trip_id IN (:tripIds)
+              AND b.customer_id IS NOT NULL
+              AND b.status IN ('confirmed', 'completed')
+              AND TRIM(b.seat_number) <> ''
+            ON DUPLICATE KEY UPDATE earned_booking_id = earned_booking_id
+            """, nativeQuery = true)
+    void insertEarnedHistory(@Param("batchId") String batchId, @Param("tripIds") Collection<Long> tripIds);
+
+    /**
+     * Dòng EARNED tạo trước khi có cột earned_booking_id: giữ dòng đầu tiên của mỗi booking làm khoá
+     */
+    @Modifying
+    @Transactional
+    @Query(value = """
+            UPDATE score_history h
+            JOIN (SELECT MIN(id) AS id FROM score_history
+                  WHERE action_type = 'EARNED'
+                  GROUP BY booking_id) first_earned ON first_earned.id = h.id
+            SET h.earned_booking_id = h.booking_id
+            WHERE h.earned_booking_id IS NULL
+            """, nativeQuery = true)
+    int backfillEarnedBookingIds();
 }
@@ -3,10 +3,41 @@ package com.busify.project.score.repository;
 import com.busify.project.score.entity.Score;
 import com.busify.project.user.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface ScoreRepository extends JpaRepository<Score, Long> {
     Optional<Score> findByUser(User user);
     Optional<Score> findByUserId(Long userId);
+
+    /**
+     * Cộng điểm của một lượt tích điểm vào số dư bằng {@code points = points + ?},
+     * tạo ví điểm cho khách chưa có
+     */
+    @Modifying(clearAutomatically = true)
+    @Query(value = """
+            INSERT INTO scores (user_id, points, created_at, updated_at)
+            SELECT h.user_id, SUM(h.points_added), NOW(6), NOW(6)
+            FROM score_history h
+            WHERE h.batch_id = :batchId
+            GROUP BY h.user_id
+            ON DUPLICATE KEY UPDATE
+                points = points + VALUES(points),
+                updated_at = VALUES(updated_at)
+            """, nativeQuery = true)
+    int creditBatch(@Param("batchId") String batchId);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Score s SET s.points = s.points - :points, s.updatedAt = CURRENT_TIMESTAMP WHERE s.user.id = :userId AND s.points >= :points")
+    int deductPoints(@Param("userId") Long userId, @Param("points") int points);
+
+    @Query("""
+            SELECT s FROM Score s JOIN FETCH s.user u
+            WHERE u.id IN (SELECT h.user.id FROM ScoreHistory h WHERE h.batchId = :batchId)
+            """)
+    List<Score> findCreditedInBatch(@Param("batchId") String batchId);
 }
@@ -0,0 +1,122 @@
+package com.busify.project.score.service;
+
+import com.busify.project.common.job.JobCoordinator;
+import com.busify.project.score.entity.Score;
+import com.busify.project.score.repository.ScoreHistoryRepository;
+import com.busify.project.score.repository.ScoreRepository;
+import com.busify.project.trip.enums.TripStatus;
+import com.busify.project.trip.event.TripChangedEvent;
+import com.busify.project.trip.event.TripsTransitionedEvent;
+import com.busify.project.trip.repository.TripRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Tích điểm thành viên theo lô chuyến.
+ * <p>
+ * Mỗi lượt tích điểm chỉ gồm hai câu lệnh: ghi lịch sử EARNED cho mọi booking đủ điều kiện
+ * (unique key trên booking chặn cộng trùng), rồi cộng dồn số dư theo từng khách từ chính các dòng
+ * vừa ghi. Tự chạy khi chuyến chuyển sang {@code arrived}; job định kỳ quét lại các chuyến
+ * vừa đến nơi để bù những lượt bị lỗi.
+ * </p>
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LoyaltyAccrualService {
+
+    private static final int TRIP_CHUNK_SIZE = 500;
+
+    private final ScoreHistoryRepository scoreHistoryRepository;
+    private final ScoreRepository scoreRepository;
+    private final TripRepository tripRepository;
+    private final JobCoordinator jobCoordinator;
+
+    @Value("${busify.loyalty.sweep-lookback-hours:48}")
+    private long sweepLookbackHours;
+
+    /**
+     * Cộng điểm cho mọi booking đủ điều kiện của các chuyến
+     *
+     * @return ví điểm của những khách được cộng trong lượt này
+     */
+    @Transactional
+    public List<Score> accrue(Collection<Long> tripIds) {
+        if (tripIds.isEmpty()) {
+            return List.of();
+        }
+        String batchId = UUID.randomUUID().toString();
+        scoreHistoryRepository.insertEarnedHistory(batchId, tripIds);
+        int customers = scoreRepository.creditBatch(batchId);
+        if (customers == 0) {
+            return List.of();
+        }
+        log.info("Đã tích điểm cho {} chuyến (lô {})", tripIds.size(), batchId);
+        return scoreRepository.findCreditedInBatch(batchId);
+    }
+
+    /**
+     * Chạy sau khi transaction cập nhật chuyến đã commit; nếu lỗi, job quét định kỳ sẽ tích điểm lại
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onTripChanged(TripChangedEvent event) {
+        if (event.getStatus() == TripStatus.arrived && event.getTripId() != null) {
+            accrue(List.of(event.getTripId()));
+        }
+    }
+
+    /**
+     * Lô chuyến được job chuyển trạng thái tự chuyển sang {@code arrived}
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onTripsTransitioned(TripsTransitionedEvent event) {
+        if (event.getStatus() == TripStatus.arrived) {
+            accrue(event.getTripIds());
+        }
+    }
+
+    @Scheduled(cron = "${busify.loyalty.sweep-cron:0 */15 * * * *}")
+    @Transactional
+    public void sweepArrivedTrips() {
+        // Khoá tích điểm đã chống cộng trùng; lease chỉ để các instance không quét cùng một lượt
+        jobCoordinator.runExclusive("loyalty-sweep", () -> {
+            Instant since = Instant.now().minus(Duration.ofHours(sweepLookbackHours));
+            List<Long> tripIds = tripRepository.findArrivedTripIdsSince(since);
+            for (int from = 0; from < tripIds.size(); from += TRIP_CHUNK_SIZE) {
+                accrue(new ArrayList<>(tripIds.subList(from, Math.min(from + TRIP_CHUNK_SIZE, tripIds.size()))));
+            }
+        });
+    }
+
+    /**
+     * Lịch sử EARNED có trước khi có khoá chống cộng trùng
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillEarnedKeys() {
+        try {
+            int updated = scoreHistoryRepository.backfillEarnedBookingIds();
+            if (updated > 0) {
+                log.info("Đã gắn khoá tích điểm cho {} dòng lịch sử cũ", updated);
+            }
+        } catch (Exception e) {
+            log.error("Không thể gắn khoá tích điểm cho lịch sử cũ: {}", e.getMessage(), e);
+        }
+    }
+}
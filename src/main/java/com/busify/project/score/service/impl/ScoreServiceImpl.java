@@ -1,6 +1,5 @@
 package com.busify.project.score.service.impl;
 
-import com.busify.project.booking.entity.Bookings;
 import com.busify.project.booking.repository.BookingRepository;
 import com.busify.project.common.utils.JwtUtils;
 import com.busify.project.score.dto.request.ScoreMinusRequestDTO;
@@ -11,6 +10,7 @@ import com.busify.project.score.entity.ScoreHistory;
 import com.busify.project.score.mapper.ScoreMapper;
 import com.busify.project.score.repository.ScoreHistoryRepository;
 import com.busify.project.score.repository.ScoreRepository;
+import com.busify.project.score.service.LoyaltyAccrualService;
 import com.busify.project.score.service.ScoreService;
 import com.busify.project.user.entity.User;
 import com.busify.project.user.repository.UserRepository;
@@ -21,7 +21,6 @@ import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.ArrayList;
 import java.util.List;
 
 @Service
@@ -33,62 +32,13 @@ public class ScoreServiceImpl implements ScoreService {
     private final ScoreHistoryRepository scoreHistoryRepository;
     private final UserRepository userRepository;
     private final JwtUtils jwtUtil;
+    private final LoyaltyAccrualService loyaltyAccrualService;
 
     @Override
-    @Transactional
     public List<ScoreAddResponseDTO> addPointsByTripId(Long tripId) {
-        List<Bookings> bookings = bookingRepository.findByTripId(tripId);
-        List<ScoreAddResponseDTO> responses = new ArrayList<>();
-
-        for (Bookings booking : bookings) {
-            User customer = booking.getCustomer();
-            if (customer == null) continue;
-
-            // Chỉ xử lý booking đã confirm hoặc completed
-            String bookingStatus = String.valueOf(booking.getStatus());
-            if (!"confirmed".equalsIgnoreCase(bookingStatus)
-                    && !"completed".equalsIgnoreCase(bookingStatus)) {
-                continue;
-            }
-
-            // Check nếu booking này đã cộng điểm (EARNED) rồi thì bỏ qua
-            if (scoreHistoryRepository.existsByBookingAndActionType(booking, "EARNED")) {
-                continue;
-            }
-
-            // Tính số vé
-            int ticketCount = 0;
-            if (booking.getSeatNumber() != null && !booking.getSeatNumber().isBlank()) {
-                ticketCount = booking.getSeatNumber().split(",").length;
-            }
-            if (ticketCount == 0) continue;
-
-            // Tìm hoặc tạo Score
-            Score score = scoreRepository.findByUser(customer)
-                    .orElseGet(() -> {
-                        Score s = new Score();
-                        s.setUser(customer);
-                        s.setPoints(0);
-                        return s;
-                    });
-
-            // Cộng điểm
-            score.setPoints(score.getPoints() + ticketCount);
-            scoreRepository.save(score);
-
-            // Ghi log lịch sử (EARNED)
-            ScoreHistory history = ScoreHistory.builder()
-                    .booking(booking)
-                    .user(customer)
-                    .pointsAdded(ticketCount)
-                    .actionType("EARNED")
-                    .build();
-            scoreHistoryRepository.save(history);
-
-            responses.add(ScoreMapper.toDTO(score));
-        }
-
-        return responses;
+        return loyaltyAccrualService.accrue(List.of(tripId)).stream()
+                .map(ScoreMapper::toDTO)
+                .toList();
     }
 
     @Override
@@ -125,9 +75,11 @@ public class ScoreServiceImpl implements ScoreService {
             throw new IllegalArgumentException("Điểm không đủ để sử dụng");
         }
 
-        // Trừ điểm
-        score.setPoints(score.getPoints() - pointsToUse);
-        scoreRepository.save(score);
+        // Trừ điểm nguyên tử để không ghi đè điểm vừa được tích song song
+        if (scoreRepository.deductPoints(user.getId(), pointsToUse) == 0) {
+            throw new IllegalArgumentException("Điểm không đủ để sử dụng");
+        }
+        score = scoreRepository.findByUserId(user.getId()).orElseThrow();
 
         // Ghi log lịch sử (USED)
         ScoreHistory history = ScoreHistory.builder()
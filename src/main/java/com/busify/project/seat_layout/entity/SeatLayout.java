@@ -1,5 +1,6 @@
 package com.busify.project.seat_layout.entity;
 
+import com.busify.project.seat_layout.event.SeatLayoutEntityListener;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
@@ -12,6 +13,7 @@ import java.io.Serializable;
 @Setter
 @Entity
 @Table(name = "seat_layouts")
+@EntityListeners(SeatLayoutEntityListener.class)
 public class SeatLayout implements Serializable {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
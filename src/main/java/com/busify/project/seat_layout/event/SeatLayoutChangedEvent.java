@@ -0,0 +1,15 @@
+package com.busify.project.seat_layout.event;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+@Getter
+public class SeatLayoutChangedEvent extends ApplicationEvent {
+
+    private final Integer layoutId;
+
+    public SeatLayoutChangedEvent(Object source, Integer layoutId) {
+        super(source);
+        this.layoutId = layoutId;
+    }
+}
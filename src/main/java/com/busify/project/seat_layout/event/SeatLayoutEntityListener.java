@@ -0,0 +1,25 @@
+package com.busify.project.seat_layout.event;
+
+import com.busify.project.seat_layout.entity.SeatLayout;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA listener phát {@link SeatLayoutChangedEvent} khi sơ đồ ghế bị sửa/xoá,
+ * để bản đã dịch trong cache được bỏ đi.
+ */
+@Component
+@RequiredArgsConstructor
+public class SeatLayoutEntityListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PostUpdate
+    @PostRemove
+    public void onChange(SeatLayout seatLayout) {
+        eventPublisher.publishEvent(new SeatLayoutChangedEvent(this, seatLayout.getId()));
+    }
+}
@@ -0,0 +1,171 @@
+package com.busify.project.seat_layout.layout;
+
+import com.busify.project.seat_layout.entity.SeatLayout;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Sơ đồ ghế đã dịch sẵn từ {@code layout_data}, bất biến và dùng chung giữa các request.
+ * <p>
+ * Mỗi ghế có một số thứ tự (ordinal) theo tầng → hàng → cột, trùng thứ tự sinh ghế khi tạo chuyến.
+ * Tầng/hàng/cột của ghế nằm trong các mảng song song theo ordinal, mã ghế ({@code A.1.1} = cột, hàng, tầng)
+ * tra ngược ra ordinal qua một map, nên trạng thái ghế của chuyến chỉ cần một mảng theo ordinal.
+ * </p>
+ */
+public final class CompiledSeatLayout implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+    private static final int MAX_COLS = 26;
+
+    private final Integer layoutId;
+    private final String name;
+    private final int rows;
+    private final int cols;
+    private final int floors;
+    private final String[] seatCodes;
+    private final int[] floorOf;
+    private final int[] rowOf;
+    private final int[] colOf;
+    private final Map<String, Integer> ordinals;
+    private final Map<String, Object> layoutData;
+
+    private CompiledSeatLayout(Integer layoutId, String name, int rows, int cols, int floors,
+            Map<String, Object> layoutData) {
+        this.layoutId = layoutId;
+        this.name = name;
+        this.rows = rows;
+        this.cols = cols;
+        this.floors = floors;
+        int size = rows * cols * floors;
+        this.seatCodes = new String[size];
+        this.floorOf = new int[size];
+        this.rowOf = new int[size];
+        this.colOf = new int[size];
+        Map<String, Integer> index = new HashMap<>(size * 2);
+        int ordinal = 0;
+        for (int floor = 1; floor <= floors; floor++) {
+            for (int row = 1; row <= rows; row++) {
+                for (int col = 0; col < cols; col++) {
+                    String code = seatCode(col, row, floor);
+                    seatCodes[ordinal] = code;
+                    floorOf[ordinal] = floor;
+                    rowOf[ordinal] = row;
+                    colOf[ordinal] = col;
+                    index.put(code, ordinal);
+                    ordinal++;
+                }
+            }
+        }
+        this.ordinals = Collections.unmodifiableMap(index);
+        this.layoutData = Collections.unmodifiableMap(new LinkedHashMap<>(layoutData));
+    }
+
+    public static CompiledSeatLayout compile(SeatLayout seatLayout) {
+        return compile(seatLayout.getId(), seatLayout.getName(), seatLayout.getLayoutData());
+    }
+
+    /**
+     * @throws IllegalArgumentException nếu thiếu {@code rows}/{@code cols} hoặc kích thước không hợp lệ
+     */
+    public static CompiledSeatLayout compile(Integer layoutId, String name, Map<String, Object> layoutData) {
+        if (layoutData == null) {
+            throw new IllegalArgumentException("Sơ đồ ghế " + layoutId + " không có dữ liệu");
+        }
+        int rows = dimension(layoutData, "rows", null);
+        int cols = dimension(layoutData, "cols", null);
+        int floors = dimension(layoutData, "floors", 1);
+        if (cols > MAX_COLS) {
+            throw new IllegalArgumentException("Sơ đồ ghế " + layoutId + " có quá " + MAX_COLS + " cột");
+        }
+        return new CompiledSeatLayout(layoutId, name, rows, cols, floors, layoutData);
+    }
+
+    /**
+     * Mã ghế theo quy ước {@code <cột>.<hàng>.<tầng>}, cột tính từ 0 ({@code A})
+     */
+    public static String seatCode(int col, int row, int floor) {
+        return (char) ('A' + col) + "." + row + "." + floor;
+    }
+
+    /**
+     * @return ordinal của ghế, {@code -1} nếu mã ghế không thuộc sơ đồ
+     */
+    public int ordinalOf(String seatCode) {
+        Integer ordinal = seatCode == null ? null : ordinals.get(seatCode);
+        return ordinal == null ? -1 : ordinal;
+    }
+
+    public int size() {
+        return seatCodes.length;
+    }
+
+    public String seatCodeAt(int ordinal) {
+        return seatCodes[ordinal];
+    }
+
+    public int floorAt(int ordinal) {
+        return floorOf[ordinal];
+    }
+
+    public int rowAt(int ordinal) {
+        return rowOf[ordinal];
+    }
+
+    public int colAt(int ordinal) {
+        return colOf[ordinal];
+    }
+
+    public Integer getLayoutId() {
+        return layoutId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    public int getFloors() {
+        return floors;
+    }
+
+    /**
+     * Dữ liệu gốc (chỉ đọc) để trả cho client như trước
+     */
+    public Map<String, Object> getLayoutData() {
+        return layoutData;
+    }
+
+    private static int dimension(Map<String, Object> layoutData, String key, Integer defaultValue) {
+        Object value = layoutData.get(key);
+        int result;
+        if (value == null) {
+            if (defaultValue == null) {
+                throw new IllegalArgumentException("Sơ đồ ghế thiếu trường " + key);
+            }
+            result = defaultValue;
+        } else if (value instanceof Number number) {
+            result = number.intValue();
+        } else {
+            try {
+                result = Integer.parseInt(value.toString().trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Trường " + key + " của sơ đồ ghế không phải số: " + value);
+            }
+        }
+        if (result <= 0) {
+            throw new IllegalArgumentException("Trường " + key + " của sơ đồ ghế phải lớn hơn 0: " + result);
+        }
+        return result;
+    }
+}
@@ -13,4 +13,8 @@ import org.springframework.stereotype.Repository;
 public interface SeatLayoutRepository extends JpaRepository<SeatLayout, Integer> {
     @Query("SELECT t.bus.seatLayout FROM Trip t WHERE t.id = :tripId")
     Optional<SeatLayout> findSeatLayoutByTripId(@Param("tripId") Long tripId);
+
+    // Chỉ lấy id để tra sơ đồ đã dịch trong cache, không tải cột JSON
+    @Query("SELECT t.bus.seatLayout.id FROM Trip t WHERE t.id = :tripId")
+    Optional<Integer> findSeatLayoutIdByTripId(@Param("tripId") Long tripId);
 }
\ No newline at end of file
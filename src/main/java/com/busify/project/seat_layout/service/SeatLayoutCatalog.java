@@ -0,0 +1,73 @@
+package com.busify.project.seat_layout.service;
+
+import com.busify.project.common.cache.CacheNames;
+import com.busify.project.seat_layout.event.SeatLayoutChangedEvent;
+import com.busify.project.seat_layout.layout.CompiledSeatLayout;
+import com.busify.project.seat_layout.repository.SeatLayoutRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Optional;
+
+/**
+ * Sơ đồ ghế đã dịch ({@link CompiledSeatLayout}), cache theo id layout trong {@link CacheNames#SEAT_LAYOUTS}.
+ * <p>
+ * JSON {@code layout_data} chỉ được đọc và dịch khi cache trượt; sửa/xoá sơ đồ qua JPA sẽ bỏ bản trong cache
+ * sau khi commit. Sửa thẳng trong DB thì xoá cache qua {@code DELETE /api/admin/caches/seatLayouts}.
+ * </p>
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SeatLayoutCatalog {
+
+    private final SeatLayoutRepository seatLayoutRepository;
+    private final CacheManager cacheManager;
+
+    public Optional<CompiledSeatLayout> get(Integer layoutId) {
+        if (layoutId == null) {
+            return Optional.empty();
+        }
+        Cache cache = cacheManager.getCache(CacheNames.SEAT_LAYOUTS);
+        if (cache == null) {
+            return load(layoutId);
+        }
+        try {
+            return Optional.ofNullable(cache.get(layoutId, () -> load(layoutId).orElse(null)));
+        } catch (Cache.ValueRetrievalException e) {
+            // Trả lại lỗi dịch sơ đồ (IllegalArgumentException) như khi không có cache
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Sơ đồ ghế của xe chạy chuyến {@code tripId}; chỉ truy vấn id layout, phần còn lại lấy từ cache
+     */
+    public Optional<CompiledSeatLayout> forTrip(Long tripId) {
+        return seatLayoutRepository.findSeatLayoutIdByTripId(tripId).flatMap(this::get);
+    }
+
+    public void evict(Integer layoutId) {
+        Cache cache = cacheManager.getCache(CacheNames.SEAT_LAYOUTS);
+        if (cache != null) {
+            cache.evict(layoutId);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSeatLayoutChanged(SeatLayoutChangedEvent event) {
+        evict(event.getLayoutId());
+        log.info("Đã bỏ sơ đồ ghế {} khỏi cache", event.getLayoutId());
+    }
+
+    private Optional<CompiledSeatLayout> load(Integer layoutId) {
+        return seatLayoutRepository.findById(layoutId).map(CompiledSeatLayout::compile);
+    }
+}
@@ -4,6 +4,7 @@ import com.busify.project.seat_layout.dto.response.SeatLayoutFilterTripResponse;
 import com.busify.project.seat_layout.entity.SeatLayout;
 import com.busify.project.seat_layout.mapper.SeatLayoutMapper;
 import com.busify.project.seat_layout.repository.SeatLayoutRepository;
+import com.busify.project.seat_layout.service.SeatLayoutCatalog;
 import com.busify.project.seat_layout.service.SeatLayoutService;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -17,6 +18,8 @@ import java.util.stream.Collectors;
 public class SeatLayoutServiceImpl implements SeatLayoutService {
     @Autowired
     private SeatLayoutRepository seatLayoutRepository;
+    @Autowired
+    private SeatLayoutCatalog seatLayoutCatalog;
 
     @Override
     public List<SeatLayoutFilterTripResponse> getAllSeatLayouts() {
@@ -28,6 +31,12 @@ public class SeatLayoutServiceImpl implements SeatLayoutService {
 
     @Override
     public Optional<SeatLayout> getSeatLayoutByTripId(Long tripId) {
-        return seatLayoutRepository.findSeatLayoutByTripId(tripId);
+        return seatLayoutCatalog.forTrip(tripId).map(layout -> {
+            SeatLayout seatLayout = new SeatLayout();
+            seatLayout.setId(layout.getLayoutId());
+            seatLayout.setName(layout.getName());
+            seatLayout.setLayoutData(layout.getLayoutData());
+            return seatLayout;
+        });
     }
 }
@@ -0,0 +1,13 @@
+package com.busify.project.ticket.boarding;
+
+/**
+ * Nội dung đã ký của thẻ lên xe
+ *
+ * @param expiresAt epoch giây; sau thời điểm này thiết bị tài xế từ chối thẻ
+ */
+public record BoardingPass(long ticketId, String ticketCode, long tripId, String seatNumber, long expiresAt) {
+
+    public boolean isExpired(long nowEpochSecond) {
+        return nowEpochSecond > expiresAt;
+    }
+}
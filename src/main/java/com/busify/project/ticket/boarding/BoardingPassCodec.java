@@ -0,0 +1,117 @@
+package com.busify.project.ticket.boarding;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+
+/**
+ * Mã hoá/kiểm tra thẻ lên xe dạng {@code BP1.<payload>.<chữ ký>} (base64url, HMAC-SHA256).
+ * <p>
+ * Mỗi chuyến có khoá riêng suy ra từ khoá gốc ({@link #tripKey}); thiết bị tài xế chỉ tải khoá
+ * của chuyến mình chạy nên có thể kiểm tra vé khi mất mạng mà không nắm khoá gốc.
+ * </p>
+ */
+public final class BoardingPassCodec {
+
+    public static final String ALGORITHM = "HmacSHA256";
+    private static final String PREFIX = "BP1";
+    private static final char SEPARATOR = '|';
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private BoardingPassCodec() {
+    }
+
+    /**
+     * Khoá HMAC của một chuyến = HMAC(khoá gốc, "trip:" + tripId)
+     */
+    public static byte[] tripKey(byte[] masterKey, long tripId) {
+        return hmac(masterKey, ("trip:" + tripId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static String encode(BoardingPass pass, byte[] tripKey) {
+        requireNoSeparator(pass.ticketCode());
+        requireNoSeparator(pass.seatNumber());
+        String payload = pass.ticketId() + "|" + pass.ticketCode() + "|" + pass.tripId() + "|"
+                + pass.seatNumber() + "|" + pass.expiresAt();
+        byte[] payloadBytes = payload.getBytes(StandardCharsets.UTF_8);
+        return PREFIX + "." + ENCODER.encodeToString(payloadBytes) + "."
+                + ENCODER.encodeToString(hmac(tripKey, payloadBytes));
+    }
+
+    /**
+     * Đọc mã chuyến trong thẻ mà chưa kiểm tra chữ ký, để chọn khoá kiểm tra
+     */
+    public static long peekTripId(String token) {
+        return parsePayload(decodePayload(split(token)[1])).tripId();
+    }
+
+    /**
+     * Kiểm tra chữ ký và đọc nội dung thẻ; không kiểm tra hạn dùng
+     *
+     * @throws IllegalArgumentException nếu thẻ sai định dạng, sai chữ ký hoặc không thuộc chuyến của khoá
+     */
+    public static BoardingPass decode(String token, byte[] tripKey) {
+        String[] parts = split(token);
+        byte[] payloadBytes = decodePayload(parts[1]);
+        byte[] signature;
+        try {
+            signature = DECODER.decode(parts[2]);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Chữ ký thẻ lên xe không hợp lệ");
+        }
+        if (!MessageDigest.isEqual(signature, hmac(tripKey, payloadBytes))) {
+            throw new IllegalArgumentException("Chữ ký thẻ lên xe không hợp lệ");
+        }
+        return parsePayload(payloadBytes);
+    }
+
+    private static String[] split(String token) {
+        String[] parts = token == null ? new String[0] : token.split("\\.");
+        if (parts.length != 3 || !PREFIX.equals(parts[0])) {
+            throw new IllegalArgumentException("Thẻ lên xe sai định dạng");
+        }
+        return parts;
+    }
+
+    private static byte[] decodePayload(String part) {
+        try {
+            return DECODER.decode(part);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Thẻ lên xe sai định dạng");
+        }
+    }
+
+    private static BoardingPass parsePayload(byte[] payloadBytes) {
+        String[] fields = new String(payloadBytes, StandardCharsets.UTF_8).split("\\|", -1);
+        if (fields.length != 5) {
+            throw new IllegalArgumentException("Thẻ lên xe sai định dạng");
+        }
+        try {
+            return new BoardingPass(Long.parseLong(fields[0]), fields[1], Long.parseLong(fields[2]),
+                    fields[3], Long.parseLong(fields[4]));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Thẻ lên xe sai định dạng");
+        }
+    }
+
+    private static void requireNoSeparator(String value) {
+        if (value == null || value.indexOf(SEPARATOR) >= 0) {
+            throw new IllegalArgumentException("Giá trị không hợp lệ trong thẻ lên xe: " + value);
+        }
+    }
+
+    private static byte[] hmac(byte[] key, byte[] data) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(new SecretKeySpec(key, ALGORITHM));
+            return mac.doFinal(data);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Không thể tạo chữ ký thẻ lên xe", e);
+        }
+    }
+}
@@ -6,22 +6,31 @@ import java.util.Optional;
 import org.springframework.web.bind.annotation.*;
 
 import com.busify.project.common.dto.response.ApiResponse;
+import com.busify.project.common.exception.AppException;
+import com.busify.project.ticket.dto.request.CheckInSyncRequestDTO;
 import com.busify.project.ticket.dto.request.TicketRequestDTO;
 import com.busify.project.ticket.dto.request.TicketUpdateRequestDTO;
 import com.busify.project.ticket.dto.request.ValidateBookingTripRequestDTO;
 import com.busify.project.ticket.dto.request.UpdateTicketStatusRequestDTO;
+import com.busify.project.ticket.dto.response.BoardingKeyResponseDTO;
+import com.busify.project.ticket.dto.response.BoardingPassResponseDTO;
+import com.busify.project.ticket.dto.response.CheckInSyncResponseDTO;
 import com.busify.project.ticket.dto.response.TicketDetailResponseDTO;
 import com.busify.project.ticket.dto.response.TicketResponseDTO;
 import com.busify.project.ticket.dto.response.TripPassengerListResponseDTO;
 import com.busify.project.ticket.dto.response.BookingTicketsValidationResponseDTO;
 import com.busify.project.ticket.dto.response.TicketBySeat;
 import com.busify.project.ticket.dto.response.UpdateTicketStatusResponseDTO;
+import com.busify.project.ticket.service.BoardingPassService;
+import com.busify.project.ticket.service.CheckInSyncService;
 import com.busify.project.ticket.service.TicketService;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -33,6 +42,8 @@ import org.springframework.data.domain.Pageable;
 public class TicketController {
 
     private final TicketService ticketService;
+    private final BoardingPassService boardingPassService;
+    private final CheckInSyncService checkInSyncService;
 
     @Operation(summary = "Generate tickets from booking")
     @PostMapping()
@@ -158,6 +169,30 @@ public class TicketController {
         }
     }
 
+    @Operation(summary = "Get signed boarding pass of a ticket")
+    @GetMapping("/{ticketCode}/boarding-pass")
+    public ApiResponse<BoardingPassResponseDTO> getBoardingPass(@PathVariable String ticketCode) {
+        return ApiResponse.success("Lấy thẻ lên xe thành công", boardingPassService.getBoardingPass(ticketCode));
+    }
+
+    @Operation(summary = "Get boarding pass verification key of a trip")
+    @GetMapping("/boarding/trips/{tripId}/key")
+    @PreAuthorize("hasRole('DRIVER') or hasRole('OPERATOR') or hasRole('ADMIN')")
+    public ApiResponse<BoardingKeyResponseDTO> getBoardingKey(@PathVariable Long tripId) {
+        return ApiResponse.success("Lấy khoá kiểm tra thẻ lên xe thành công", boardingPassService.getTripKey(tripId));
+    }
+
+    @Operation(summary = "Sync offline check-in scans of a trip")
+    @PostMapping("/check-in/sync")
+    @PreAuthorize("hasRole('DRIVER') or hasRole('OPERATOR') or hasRole('ADMIN')")
+    public ApiResponse<CheckInSyncResponseDTO> syncCheckIns(@Valid @RequestBody CheckInSyncRequestDTO request) {
+        CheckInSyncResponseDTO response = checkInSyncService.sync(request);
+        if (response.getConflicts() == 0) {
+            return ApiResponse.success("Đồng bộ lên xe thành công", response);
+        }
+        return ApiResponse.success("Đồng bộ lên xe có " + response.getConflicts() + " lượt quét xung đột", response);
+    }
+
     @Operation(summary = "Update ticket status")
     @PatchMapping("/update-status")
     public ApiResponse<UpdateTicketStatusResponseDTO> updateTicketStatus(
@@ -183,14 +218,22 @@ public class TicketController {
         }
     }
 
-    @Operation(summary = "Get tickets by operator ID")
+    @Operation(summary = "Get tickets by operator ID", description = "Truyền cursor/limit để phân trang; không truyền thì trả về toàn bộ nếu không vượt giới hạn")
     @GetMapping("/operator/{operatorId}")
-    public ApiResponse<List<TicketResponseDTO>> getTicketsByOperatorId(@PathVariable Long operatorId,
+    public ApiResponse<?> getTicketsByOperatorId(@PathVariable Long operatorId,
             @RequestParam(required = false) Integer page,
-            @RequestParam(required = false) Integer size) {
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
         try {
+            if (cursor != null || limit != null) {
+                return ApiResponse.success("Lấy danh sách vé theo operator thành công",
+                        ticketService.getTicketsByOperatorId(operatorId, cursor, limit));
+            }
             List<TicketResponseDTO> tickets = ticketService.getTicketByOperatorId(operatorId);
             return ApiResponse.success("Lấy danh sách vé theo operator thành công", tickets);
+        } catch (AppException e) {
+            throw e;
         } catch (IllegalArgumentException e) {
             return ApiResponse.error(404, e.getMessage());
         } catch (Exception e) {
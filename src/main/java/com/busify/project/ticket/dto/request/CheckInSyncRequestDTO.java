@@ -0,0 +1,33 @@
+package com.busify.project.ticket.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+public class CheckInSyncRequestDTO {
+
+    @NotNull(message = "Trip ID không được để trống")
+    private Long tripId;
+
+    // Mã thiết bị quét; gửi lại cùng lượt từ cùng thiết bị không bị báo trùng
+    @Size(max = 64, message = "Mã thiết bị không được quá 64 ký tự")
+    private String deviceId;
+
+    @NotEmpty(message = "Danh sách lượt quét không được để trống")
+    @Size(max = 1000, message = "Không được đồng bộ quá 1000 lượt quét cùng lúc")
+    @Valid
+    private List<Scan> scans;
+
+    @Data
+    public static class Scan {
+        private String token; // Nội dung QR thẻ lên xe
+        private String ticketCode; // Nhập tay khi không quét được QR
+        private Instant scannedAt;
+    }
+}
@@ -0,0 +1,20 @@
+package com.busify.project.ticket.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Khoá kiểm tra thẻ lên xe của một chuyến, tải về thiết bị tài xế trước khi khởi hành
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BoardingKeyResponseDTO {
+    private Long tripId;
+    private String algorithm;
+    private String key; // base64url
+    private Instant expiresAt;
+}
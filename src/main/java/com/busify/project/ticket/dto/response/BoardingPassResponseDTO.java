@@ -0,0 +1,18 @@
+package com.busify.project.ticket.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BoardingPassResponseDTO {
+    private String ticketCode;
+    private Long tripId;
+    private String seatNumber;
+    private String token; // Nội dung QR
+    private Instant expiresAt;
+}
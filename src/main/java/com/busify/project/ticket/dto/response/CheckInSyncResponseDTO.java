@@ -0,0 +1,30 @@
+package com.busify.project.ticket.dto.response;
+
+import com.busify.project.ticket.enums.CheckInOutcome;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CheckInSyncResponseDTO {
+
+    private Long tripId;
+    private int totalScans;
+    private int applied;
+    private int conflicts;
+    private List<ScanResult> results; // Cùng thứ tự với danh sách lượt quét gửi lên
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class ScanResult {
+        private String ticketCode;
+        private String seatNumber;
+        private CheckInOutcome outcome;
+        private String message;
+    }
+}
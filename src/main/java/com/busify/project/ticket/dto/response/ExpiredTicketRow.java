@@ -0,0 +1,7 @@
+package com.busify.project.ticket.dto.response;
+
+public interface ExpiredTicketRow {
+    Long getTicketId();
+
+    Long getTripId();
+}
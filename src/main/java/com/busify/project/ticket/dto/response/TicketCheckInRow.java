@@ -0,0 +1,15 @@
+package com.busify.project.ticket.dto.response;
+
+public interface TicketCheckInRow {
+    Long getTicketId();
+
+    String getTicketCode();
+
+    String getSeatNumber();
+
+    String getStatus();
+
+    String getCheckedInDevice();
+
+    Long getTripId();
+}
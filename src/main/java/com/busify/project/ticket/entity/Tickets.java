@@ -1,6 +1,8 @@
 package com.busify.project.ticket.entity;
 
 import com.busify.project.booking.entity.Bookings;
+import com.busify.project.common.id.IdSequences;
+import com.busify.project.common.search.SearchEntityListener;
 import com.busify.project.ticket.enums.SellMethod;
 import com.busify.project.ticket.enums.TicketStatus;
 import com.busify.project.user.entity.User;
@@ -9,16 +11,21 @@ import jakarta.persistence.*;
 import lombok.*;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 
 @Entity
 @Table(name = "tickets")
+@EntityListeners(SearchEntityListener.class)
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 public class Tickets {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "tickets_id")
+    @TableGenerator(name = "tickets_id", table = "id_blocks", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = IdSequences.TICKETS,
+            allocationSize = IdSequences.ENTITY_ALLOCATION_SIZE)
     @Column(name = "ticket_id")
     private Long ticketId;
 
@@ -52,4 +59,11 @@ public class Tickets {
     @ManyToOne
     @JoinColumn(name = "seller_id")
     private User seller;
+
+    @Column(name = "checked_in_at")
+    private Instant checkedInAt;
+
+    // Thiết bị đã quét vé lên xe
+    @Column(name = "checked_in_device", length = 64)
+    private String checkedInDevice;
 }
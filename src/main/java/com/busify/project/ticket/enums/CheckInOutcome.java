@@ -0,0 +1,13 @@
+package com.busify.project.ticket.enums;
+
+public enum CheckInOutcome {
+    applied, // Đã lên xe (kể cả gửi lại lượt đồng bộ cũ của cùng thiết bị)
+    already_checked_in, // Vé đã được quét bởi thiết bị khác
+    duplicate_scan, // Vé xuất hiện nhiều lần trong cùng lượt đồng bộ
+    cancelled,
+    not_found,
+    wrong_trip,
+    seat_changed, // Vé đã đổi ghế sau khi phát hành thẻ
+    invalid_token,
+    expired,
+}
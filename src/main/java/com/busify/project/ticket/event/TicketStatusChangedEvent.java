@@ -0,0 +1,30 @@
+package com.busify.project.ticket.event;
+
+import com.busify.project.ticket.enums.TicketStatus;
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Một hoặc nhiều vé của cùng chuyến đổi trạng thái (lên xe, huỷ)
+ */
+@Getter
+public class TicketStatusChangedEvent extends ApplicationEvent {
+
+    private final Long tripId;
+    private final List<Long> ticketIds;
+    private final TicketStatus status;
+    private final Instant changedAt;
+
+    public TicketStatusChangedEvent(Object source, Long tripId, Collection<Long> ticketIds, TicketStatus status,
+            Instant changedAt) {
+        super(source);
+        this.tripId = tripId;
+        this.ticketIds = List.copyOf(ticketIds);
+        this.status = status;
+        this.changedAt = changedAt;
+    }
+}
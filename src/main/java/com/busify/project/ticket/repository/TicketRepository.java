@@ -1,10 +1,15 @@
 package com.busify.project.ticket.repository;
 
+import com.busify.project.common.pagination.KeysetRepository;
+import com.busify.project.ticket.dto.response.ExpiredTicketRow;
+import com.busify.project.ticket.dto.response.TicketCheckInRow;
 import com.busify.project.ticket.dto.response.TicketSeatStatusReponse;
 import com.busify.project.ticket.entity.Tickets;
 
 import jakarta.transaction.Transactional;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,7 +20,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
-public interface TicketRepository extends JpaRepository<Tickets, Long> {
+public interface TicketRepository extends JpaRepository<Tickets, Long>, KeysetRepository {
     Optional<Tickets> findByTicketCode(String ticketCode);
 
     Page<Tickets> findByPassengerName(String name, Pageable pageable);
@@ -57,16 +62,37 @@ public interface TicketRepository extends JpaRepository<Tickets, Long> {
     @Query("SELECT t FROM Tickets t JOIN t.booking b WHERE b.trip.id = :tripId")
     List<Tickets> findByTripId(@Param("tripId") Long tripId);
 
-    // Cập nhật status của tất cả tickets có status = valid thành cancelled cho một
-    // trip
+    /**
+     * Vé còn {@code valid} của các chuyến đã khởi hành mà thẻ lên xe đã hết hạn (giờ đến dự kiến, hoặc
+     * khởi hành + 24h nếu thiếu, cộng thời gian hiệu lực sau giờ đến). Cùng mốc với {@code BoardingPassService}.
+     */
+    @Query(value = """
+            SELECT tk.ticket_id as ticketId, b.trip_id as tripId
+            FROM tickets tk
+            INNER JOIN bookings b ON tk.booking_id = b.id
+            INNER JOIN trips tr ON b.trip_id = tr.trip_id
+            WHERE tk.status = 'valid'
+              AND tr.status IN (:tripStatuses)
+              AND COALESCE(tr.estimated_arrival_time, tr.departure_time + INTERVAL 24 HOUR) <= :arrivedBefore
+            ORDER BY tk.ticket_id
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<ExpiredTicketRow> findValidTicketsPastArrival(@Param("tripStatuses") Collection<String> tripStatuses,
+            @Param("arrivedBefore") Instant arrivedBefore,
+            @Param("limit") int limit);
+
+    // Điều kiện status để không đè lên vé vừa được quét lên xe
     @Modifying
-    @Transactional
-    @Query(value = "UPDATE tickets t INNER JOIN bookings b ON t.booking_id = b.id SET t.status = 'cancelled' WHERE b.trip_id = :tripId AND t.status = 'valid'", nativeQuery = true)
-    int cancelValidTicketsByTripId(@Param("tripId") Long tripId);
+    @Query(value = "UPDATE tickets SET status = 'cancelled' WHERE ticket_id IN (:ticketIds) AND status = 'valid'",
+            nativeQuery = true)
+    int cancelValidTicketsByIds(@Param("ticketIds") Collection<Long> ticketIds);
 
     @Query("SELECT t FROM Tickets t JOIN t.booking b JOIN b.trip tr WHERE tr.bus.operator.id = :operatorId ORDER BY b.createdAt DESC")
     List<Tickets> findByOperatorId(@Param("operatorId") Long operatorId);
 
+    @Query("SELECT COUNT(t) FROM Tickets t WHERE t.booking.trip.bus.operator.id = :operatorId")
+    long countByOperatorId(@Param("operatorId") Long operatorId);
+
     @Query("""
             SELECT t
             FROM Tickets t
@@ -91,4 +117,41 @@ public interface TicketRepository extends JpaRepository<Tickets, Long> {
             AND t.status = 'valid'
             """)
     List<TicketSeatStatusReponse> getTicketSeatStatusByTripId(@Param("tripId") Long tripId);
+
+    // Khoá các vé của một lượt đồng bộ lên xe để hai thiết bị không cùng xác nhận một vé;
+    // chỉ vé của đúng chuyến được nạp, mã vé của chuyến khác coi như không tồn tại
+    @Query(value = """
+            SELECT
+                t.ticket_id as ticketId,
+                t.ticket_code as ticketCode,
+                t.seat_number as seatNumber,
+                t.status as status,
+                t.checked_in_device as checkedInDevice,
+                b.trip_id as tripId
+            FROM tickets t
+            INNER JOIN bookings b ON t.booking_id = b.id
+            WHERE b.trip_id = :tripId
+              AND (t.ticket_id IN (:ticketIds) OR t.ticket_code IN (:ticketCodes))
+            FOR UPDATE
+            """, nativeQuery = true)
+    List<TicketCheckInRow> lockForCheckIn(@Param("tripId") Long tripId,
+            @Param("ticketIds") Collection<Long> ticketIds,
+            @Param("ticketCodes") Collection<String> ticketCodes);
+
+    @Modifying
+    @Query(value = """
+            UPDATE tickets
+            SET status = 'used', checked_in_at = NOW(6), checked_in_device = :deviceId
+            WHERE ticket_id IN (:ticketIds) AND status = 'valid'
+            """, nativeQuery = true)
+    int markCheckedIn(@Param("ticketIds") Collection<Long> ticketIds, @Param("deviceId") String deviceId);
+
+    /**
+     * (ticketId, tên hành khách, số điện thoại) cho chỉ mục tìm kiếm
+     */
+    @Query("SELECT t.ticketId, t.passengerName, t.passengerPhone FROM Tickets t WHERE t.ticketId > :lastId ORDER BY t.ticketId")
+    List<Object[]> findSearchRowsAfter(@Param("lastId") Long lastId, Pageable pageable);
+
+    @Query("SELECT t.ticketId, t.passengerName, t.passengerPhone FROM Tickets t WHERE t.ticketId IN :ids")
+    List<Object[]> findSearchRowsByIds(@Param("ids") Collection<Long> ids);
 }
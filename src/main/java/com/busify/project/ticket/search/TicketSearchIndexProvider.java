@@ -0,0 +1,70 @@
+package com.busify.project.ticket.search;
+
+import com.busify.project.common.search.SearchDocument;
+import com.busify.project.common.search.SearchIndexProvider;
+import com.busify.project.ticket.entity.Tickets;
+import com.busify.project.ticket.repository.TicketRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Chỉ mục vé theo tên và số điện thoại hành khách; vé mới hơn đứng trước khi cùng điểm
+ */
+@Component
+@RequiredArgsConstructor
+public class TicketSearchIndexProvider implements SearchIndexProvider {
+
+    public static final String INDEX = "tickets";
+    public static final String FIELD_PASSENGER_NAME = "passengerName";
+    public static final String FIELD_PASSENGER_PHONE = "passengerPhone";
+
+    private final TicketRepository ticketRepository;
+
+    @Override
+    public String getIndexName() {
+        return INDEX;
+    }
+
+    @Override
+    public Class<?> getEntityType() {
+        return Tickets.class;
+    }
+
+    @Override
+    public Long idOf(Object entity) {
+        return ((Tickets) entity).getTicketId();
+    }
+
+    @Override
+    public List<SearchDocument> loadAfter(long lastId, int limit) {
+        return ticketRepository.findSearchRowsAfter(lastId, PageRequest.of(0, limit)).stream()
+                .map(TicketSearchIndexProvider::toDocument)
+                .toList();
+    }
+
+    @Override
+    public List<SearchDocument> loadByIds(Collection<Long> ids) {
+        return ticketRepository.findSearchRowsByIds(ids).stream()
+                .map(TicketSearchIndexProvider::toDocument)
+                .toList();
+    }
+
+    @Override
+    public Set<String> getSnapshotExcludedFields() {
+        return Set.of(FIELD_PASSENGER_PHONE);
+    }
+
+    private static SearchDocument toDocument(Object[] row) {
+        Long ticketId = (Long) row[0];
+        return SearchDocument.builder(ticketId)
+                .rankHint(ticketId)
+                .text(FIELD_PASSENGER_NAME, (String) row[1], 1f)
+                .identifier(FIELD_PASSENGER_PHONE, (String) row[2], 1f)
+                .build();
+    }
+}
@@ -0,0 +1,101 @@
+package com.busify.project.ticket.service;
+
+import com.busify.project.ticket.boarding.BoardingPass;
+import com.busify.project.ticket.boarding.BoardingPassCodec;
+import com.busify.project.ticket.dto.response.BoardingKeyResponseDTO;
+import com.busify.project.ticket.dto.response.BoardingPassResponseDTO;
+import com.busify.project.ticket.entity.Tickets;
+import com.busify.project.ticket.enums.TicketStatus;
+import com.busify.project.ticket.exception.TicketNotFoundException;
+import com.busify.project.ticket.exception.TicketStatusException;
+import com.busify.project.ticket.repository.TicketRepository;
+import com.busify.project.trip.entity.Trip;
+import com.busify.project.trip.exception.TripNotFoundException;
+import com.busify.project.trip.repository.TripRepository;
+import com.busify.project.trip.service.TripCrewAccessService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Phát hành thẻ lên xe có chữ ký để tài xế kiểm tra vé khi không có mạng
+ */
+@Service
+@RequiredArgsConstructor
+public class BoardingPassService {
+
+    private final TicketRepository ticketRepository;
+    private final TripRepository tripRepository;
+    private final TripCrewAccessService tripCrewAccessService;
+
+    @Value("${busify.boarding.secret}")
+    private String secret;
+
+    // Thẻ còn hiệu lực thêm sau giờ đến dự kiến (xe trễ)
+    @Value("${busify.boarding.valid-after-arrival-hours:6}")
+    private long validAfterArrivalHours;
+
+    @Transactional(readOnly = true)
+    public BoardingPassResponseDTO getBoardingPass(String ticketCode) {
+        Tickets ticket = ticketRepository.findByTicketCode(ticketCode)
+                .orElseThrow(TicketNotFoundException::notFound);
+        if (ticket.getStatus() == TicketStatus.cancelled) {
+            throw TicketStatusException.alreadyCancelled();
+        }
+        Trip trip = ticket.getBooking().getTrip();
+        Instant expiresAt = expiresAt(trip);
+        return new BoardingPassResponseDTO(ticket.getTicketCode(), trip.getId(), ticket.getSeatNumber(),
+                sign(ticket, expiresAt), expiresAt);
+    }
+
+    /**
+     * Thẻ lên xe cho các vé chưa huỷ, theo ticketId
+     */
+    public Map<Long, String> issue(List<Tickets> tickets) {
+        Map<Long, String> tokens = new HashMap<>();
+        for (Tickets ticket : tickets) {
+            if (ticket.getStatus() != TicketStatus.cancelled) {
+                tokens.put(ticket.getTicketId(), sign(ticket, expiresAt(ticket.getBooking().getTrip())));
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Khoá kiểm tra thẻ lên xe của chuyến, chỉ cấp cho tài xế được phân công và nhà xe của chuyến
+     */
+    public BoardingKeyResponseDTO getTripKey(Long tripId) {
+        tripCrewAccessService.checkAccess(tripId);
+        Trip trip = tripRepository.findById(tripId)
+                .orElseThrow(TripNotFoundException::tripNotFound);
+        return new BoardingKeyResponseDTO(tripId, BoardingPassCodec.ALGORITHM,
+                Base64.getUrlEncoder().withoutPadding().encodeToString(tripKey(tripId)), expiresAt(trip));
+    }
+
+    public byte[] tripKey(long tripId) {
+        return BoardingPassCodec.tripKey(secret.getBytes(StandardCharsets.UTF_8), tripId);
+    }
+
+    private String sign(Tickets ticket, Instant expiresAt) {
+        long tripId = ticket.getBooking().getTrip().getId();
+        BoardingPass pass = new BoardingPass(ticket.getTicketId(), ticket.getTicketCode(), tripId,
+                ticket.getSeatNumber(), expiresAt.getEpochSecond());
+        return BoardingPassCodec.encode(pass, tripKey(tripId));
+    }
+
+    private Instant expiresAt(Trip trip) {
+        Instant arrival = trip.getEstimatedArrivalTime() != null
+                ? trip.getEstimatedArrivalTime()
+                : trip.getDepartureTime().plus(Duration.ofHours(24));
+        return arrival.plus(Duration.ofHours(validAfterArrivalHours));
+    }
+}
@@ -0,0 +1,204 @@
+package com.busify.project.ticket.service;
+
+import com.busify.project.audit_log.entity.AuditLog;
+import com.busify.project.audit_log.service.AuditLogService;
+import com.busify.project.common.utils.JwtUtils;
+import com.busify.project.ticket.boarding.BoardingPass;
+import com.busify.project.ticket.boarding.BoardingPassCodec;
+import com.busify.project.ticket.dto.request.CheckInSyncRequestDTO;
+import com.busify.project.ticket.dto.response.CheckInSyncResponseDTO;
+import com.busify.project.ticket.dto.response.CheckInSyncResponseDTO.ScanResult;
+import com.busify.project.ticket.dto.response.TicketCheckInRow;
+import com.busify.project.ticket.enums.CheckInOutcome;
+import com.busify.project.ticket.enums.TicketStatus;
+import com.busify.project.ticket.event.TicketStatusChangedEvent;
+import com.busify.project.ticket.repository.TicketRepository;
+import com.busify.project.trip.service.TripCrewAccessService;
+import com.busify.project.user.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Đồng bộ hàng loạt lượt quét lên xe từ thiết bị tài xế.
+ * <p>
+ * Chỉ tài xế được phân công hoặc nhà xe của chuyến mới được đồng bộ, và chỉ vé của đúng chuyến được xác nhận.
+ * Chữ ký thẻ được kiểm tra trong bộ nhớ; cả lượt đồng bộ chỉ dùng một câu SELECT ... FOR UPDATE,
+ * một câu UPDATE cho các vé hợp lệ và một dòng audit, thay vì vài truy vấn cho mỗi vé.
+ * Mỗi lượt quét nhận một kết quả riêng để thiết bị hiển thị xung đột.
+ * </p>
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CheckInSyncService {
+
+    private final TicketRepository ticketRepository;
+    private final BoardingPassService boardingPassService;
+    private final AuditLogService auditLogService;
+    private final JwtUtils jwtUtil;
+    private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TripCrewAccessService crewAccess;
+    private final ObjectMapper objectMapper;
+
+    @Transactional
+    public CheckInSyncResponseDTO sync(CheckInSyncRequestDTO request) {
+        long tripId = request.getTripId();
+        crewAccess.checkAccess(tripId);
+        byte[] tripKey = boardingPassService.tripKey(tripId);
+        long now = Instant.now().getEpochSecond();
+        List<CheckInSyncRequestDTO.Scan> scans = request.getScans();
+
+        // Bước 1: kiểm tra chữ ký, không chạm DB
+        ScanResult[] results = new ScanResult[scans.size()];
+        BoardingPass[] passes = new BoardingPass[scans.size()];
+        Set<Long> ticketIds = new HashSet<>();
+        Set<String> ticketCodes = new HashSet<>();
+        for (int i = 0; i < scans.size(); i++) {
+            CheckInSyncRequestDTO.Scan scan = scans.get(i);
+            if (scan.getToken() != null && !scan.getToken().isBlank()) {
+                try {
+                    if (BoardingPassCodec.peekTripId(scan.getToken()) != tripId) {
+                        results[i] = conflict(null, null, CheckInOutcome.wrong_trip, "Vé không thuộc chuyến này");
+                        continue;
+                    }
+                    BoardingPass pass = BoardingPassCodec.decode(scan.getToken(), tripKey);
+                    if (pass.isExpired(now)) {
+                        results[i] = conflict(pass.ticketCode(), pass.seatNumber(), CheckInOutcome.expired,
+                                "Thẻ lên xe đã hết hạn");
+                        continue;
+                    }
+                    passes[i] = pass;
+                    ticketIds.add(pass.ticketId());
+                } catch (IllegalArgumentException e) {
+                    results[i] = conflict(null, null, CheckInOutcome.invalid_token, e.getMessage());
+                }
+            } else if (scan.getTicketCode() != null && !scan.getTicketCode().isBlank()) {
+                ticketCodes.add(scan.getTicketCode().trim());
+            } else {
+                results[i] = conflict(null, null, CheckInOutcome.invalid_token, "Lượt quét không có thẻ hoặc mã vé");
+            }
+        }
+
+        // Bước 2: khoá toàn bộ vé liên quan trong một truy vấn
+        Map<Long, TicketCheckInRow> byId = new HashMap<>();
+        Map<String, TicketCheckInRow> byCode = new HashMap<>();
+        if (!ticketIds.isEmpty() || !ticketCodes.isEmpty()) {
+            // IN () rỗng không hợp lệ trong MySQL
+            List<TicketCheckInRow> rows = ticketRepository.lockForCheckIn(tripId,
+                    ticketIds.isEmpty() ? List.of(-1L) : ticketIds,
+                    ticketCodes.isEmpty() ? List.of("") : ticketCodes);
+            for (TicketCheckInRow row : rows) {
+                byId.put(row.getTicketId(), row);
+                byCode.put(row.getTicketCode(), row);
+            }
+        }
+
+        // Bước 3: đối chiếu từng lượt quét theo thứ tự gửi lên
+        String deviceId = request.getDeviceId();
+        List<Long> toCheckIn = new ArrayList<>();
+        Set<Long> seen = new HashSet<>();
+        for (int i = 0; i < scans.size(); i++) {
+            if (results[i] != null) {
+                continue;
+            }
+            BoardingPass pass = passes[i];
+            TicketCheckInRow row = pass != null ? byId.get(pass.ticketId()) : byCode.get(scans.get(i).getTicketCode().trim());
+            results[i] = resolve(pass, row, tripId, deviceId, seen, toCheckIn);
+        }
+
+        // Bước 4: một câu UPDATE cho mọi vé hợp lệ
+        if (!toCheckIn.isEmpty()) {
+            int updated = ticketRepository.markCheckedIn(toCheckIn, deviceId);
+            if (updated != toCheckIn.size()) {
+                // Không xảy ra khi các dòng đã được khoá ở bước 2
+                log.warn("Lượt đồng bộ lên xe chuyến {}: cập nhật {} / {} vé", tripId, updated, toCheckIn.size());
+            }
+            saveAuditLog(tripId, deviceId, toCheckIn.size(), scans.size());
+            eventPublisher.publishEvent(new TicketStatusChangedEvent(this, tripId, toCheckIn, TicketStatus.used,
+                    Instant.now()));
+        }
+
+        List<ScanResult> resultList = List.of(results);
+        int applied = (int) resultList.stream().filter(r -> r.getOutcome() == CheckInOutcome.applied).count();
+        return new CheckInSyncResponseDTO(tripId, scans.size(), applied, scans.size() - applied, resultList);
+    }
+
+    private static ScanResult resolve(BoardingPass pass, TicketCheckInRow row, long tripId, String deviceId,
+            Set<Long> seen, List<Long> toCheckIn) {
+        if (row == null) {
+            return conflict(pass != null ? pass.ticketCode() : null, null, CheckInOutcome.not_found,
+                    "Không tìm thấy vé");
+        }
+        if (pass != null && !pass.ticketCode().equals(row.getTicketCode())) {
+            return conflict(row.getTicketCode(), row.getSeatNumber(), CheckInOutcome.invalid_token,
+                    "Thẻ lên xe không khớp với vé");
+        }
+        if (row.getTripId() != tripId) {
+            return conflict(row.getTicketCode(), row.getSeatNumber(), CheckInOutcome.wrong_trip,
+                    "Vé không thuộc chuyến này");
+        }
+        if (pass != null && !pass.seatNumber().equals(row.getSeatNumber())) {
+            return conflict(row.getTicketCode(), row.getSeatNumber(), CheckInOutcome.seat_changed,
+                    "Vé đã đổi sang ghế " + row.getSeatNumber());
+        }
+        if (!seen.add(row.getTicketId())) {
+            return conflict(row.getTicketCode(), row.getSeatNumber(), CheckInOutcome.duplicate_scan,
+                    "Vé đã được quét trong lượt này");
+        }
+        TicketStatus status = TicketStatus.valueOf(row.getStatus());
+        if (status == TicketStatus.cancelled) {
+            return conflict(row.getTicketCode(), row.getSeatNumber(), CheckInOutcome.cancelled, "Vé đã bị hủy");
+        }
+        if (status == TicketStatus.used) {
+            if (deviceId != null && Objects.equals(deviceId, row.getCheckedInDevice())) {
+                // Thiết bị gửi lại lượt đồng bộ trước đó
+                return new ScanResult(row.getTicketCode(), row.getSeatNumber(), CheckInOutcome.applied,
+                        "Đã lên xe");
+            }
+            return conflict(row.getTicketCode(), row.getSeatNumber(), CheckInOutcome.already_checked_in,
+                    "Vé đã được sử dụng trước đó");
+        }
+        toCheckIn.add(row.getTicketId());
+        return new ScanResult(row.getTicketCode(), row.getSeatNumber(), CheckInOutcome.applied, "Đã lên xe");
+    }
+
+    private static ScanResult conflict(String ticketCode, String seatNumber, CheckInOutcome outcome, String message) {
+        return new ScanResult(ticketCode, seatNumber, outcome, message);
+    }
+
+    private void saveAuditLog(long tripId, String deviceId, int checkedIn, int totalScans) {
+        try {
+            String currentUserEmail = jwtUtil.getCurrentUserLogin().orElse("system");
+            AuditLog auditLog = new AuditLog();
+            auditLog.setAction("BULK_CHECK_IN");
+            auditLog.setTargetEntity("TRIP");
+            auditLog.setTargetId(tripId);
+            Map<String, Object> details = new LinkedHashMap<>();
+            details.put("trip_id", tripId);
+            details.put("device_id", deviceId != null ? deviceId : "");
+            details.put("checked_in", checkedIn);
+            details.put("total_scans", totalScans);
+            // deviceId do client gửi lên nên phải được escape
+            auditLog.setDetails(objectMapper.writeValueAsString(details));
+            userRepository.findByEmailIgnoreCase(currentUserEmail).ifPresent(auditLog::setUser);
+            auditLogService.save(auditLog);
+        } catch (Exception e) {
+            log.error("Không thể ghi audit log cho lượt lên xe chuyến {}: {}", tripId, e.getMessage());
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.busify.project.ticket.service;
 
 import com.busify.project.common.dto.response.ApiResponse;
+import com.busify.project.common.pagination.CursorPage;
 import com.busify.project.ticket.dto.request.TicketUpdateRequestDTO;
 import com.busify.project.ticket.dto.request.UpdateTicketStatusRequestDTO;
 import com.busify.project.ticket.dto.response.TicketResponseDTO;
@@ -46,11 +47,10 @@ public interface TicketService {
     // New method for updating ticket status (used/cancelled)
     UpdateTicketStatusResponseDTO updateTicketStatus(UpdateTicketStatusRequestDTO request);
 
-    // Tự động hủy các vé có status = valid khi trip chuyển sang departed
-    int autoCancelValidTicketsWhenTripDeparted(Long tripId);
-
     // Get Ticket by operator ID
     List<TicketResponseDTO> getTicketByOperatorId(Long operatorId);
+
+    CursorPage<TicketResponseDTO> getTicketsByOperatorId(Long operatorId, String cursor, Integer limit);
     TicketBySeat getTicketByTripIdAndSeatNumber(Long tripId, String seatNumber);
     List<TicketSeatStatusReponse> getTicketSeatStatusByTripId(Long tripId);
 }
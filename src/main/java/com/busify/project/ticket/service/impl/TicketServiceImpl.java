@@ -7,6 +7,13 @@ import com.busify.project.booking.entity.Bookings;
 import com.busify.project.booking.enums.BookingStatus;
 import com.busify.project.booking.repository.BookingRepository;
 import com.busify.project.common.dto.response.ApiResponse;
+import com.busify.project.common.id.HumanCodeGenerator;
+import com.busify.project.common.pagination.CursorCodec;
+import com.busify.project.common.pagination.CursorPage;
+import com.busify.project.common.pagination.CursorPagination;
+import com.busify.project.common.pagination.KeysetQuery;
+import com.busify.project.common.search.SearchIndexService;
+import com.busify.project.common.search.SearchQuery;
 import com.busify.project.common.utils.JwtUtils;
 import com.busify.project.ticket.dto.request.TicketUpdateRequestDTO;
 import com.busify.project.ticket.dto.request.UpdateTicketStatusRequestDTO;
@@ -20,11 +27,13 @@ import com.busify.project.ticket.dto.response.UpdateTicketStatusResponseDTO;
 import com.busify.project.ticket.entity.Tickets;
 import com.busify.project.ticket.enums.SellMethod;
 import com.busify.project.ticket.enums.TicketStatus;
+import com.busify.project.ticket.event.TicketStatusChangedEvent;
 import com.busify.project.ticket.exception.TicketProcessingException;
 import com.busify.project.ticket.mapper.TicketMapper;
 import com.busify.project.ticket.repository.TicketRepository;
+import com.busify.project.ticket.search.TicketSearchIndexProvider;
 import com.busify.project.ticket.service.TicketService;
-import com.busify.project.trip_seat.repository.TripSeatRepository;
+import com.busify.project.trip_seat.services.SeatInventoryService;
 import com.busify.project.trip_seat.services.TripSeatService;
 import com.busify.project.user.entity.Profile;
 import com.busify.project.user.entity.User;
@@ -33,6 +42,7 @@ import com.busify.project.user.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -44,9 +54,9 @@ import java.math.RoundingMode;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
-import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -57,18 +67,31 @@ public class TicketServiceImpl implements TicketService {
     private final BookingRepository bookingRepository;
     private final TicketRepository ticketRepository;
     private final TicketMapper ticketMapper;
-    private final TripSeatRepository tripSeatRepository;
     private final EmailService emailService;
     private final AuditLogService auditLogService;
     private final JwtUtils jwtUtil;
     private final UserRepository userRepository;
     private final TripSeatService tripSeatService;
+    private final SeatInventoryService seatInventoryService;
+    private final SearchIndexService searchIndexService;
+    private final CursorPagination cursorPagination;
+    private final HumanCodeGenerator humanCodeGenerator;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public List<TicketResponseDTO> createTicketsFromBooking(Long bookingId, SellMethod sellMethod) {
         Bookings booking = bookingRepository.findById(bookingId)
                 .orElseThrow(() -> new IllegalArgumentException("Booking not found with ID: " + bookingId));
 
+        // Gọi lại cho booking đã xuất vé (callback thanh toán lặp lại) trả về vé cũ, không tạo thêm
+        List<Tickets> existingTickets = ticketRepository.findByBookingCode(booking.getBookingCode());
+        if (!existingTickets.isEmpty()) {
+            log.info("Booking {} đã có {} vé, bỏ qua xuất vé", bookingId, existingTickets.size());
+            return existingTickets.stream()
+                    .map(ticketMapper::toTicketResponseDTO)
+                    .collect(Collectors.toList());
+        }
+
         String[] seatNumbers = booking.getSeatNumber().split(",");
 
         BigDecimal pricePerSeat = booking.getTrip().getPricePerSeat();
@@ -115,7 +138,7 @@ public class TicketServiceImpl implements TicketService {
             ticket.setPassengerPhone(passengerPhone);
             ticket.setSeatNumber(seat.trim());
             ticket.setStatus(TicketStatus.valid);
-            ticket.setTicketCode(generateTicketCode());
+            ticket.setTicketCode(humanCodeGenerator.nextTicketCode());
             ticket.setSellMethod(sellMethod != null ? sellMethod : SellMethod.AUTO);
             ticket.setSeller(seller.orElse(null));
             tickets.add(ticket);
@@ -129,9 +152,9 @@ public class TicketServiceImpl implements TicketService {
         List<Tickets> savedTickets = ticketRepository.saveAll(tickets);
 
         Long tripId = booking.getTrip().getId();
-        for (String seat : seatNumbers) {
-            tripSeatRepository.upsertSeat(tripId, seat.trim(), "booked");
-        }
+        seatInventoryService.confirmSeats(tripId,
+                Arrays.stream(seatNumbers).map(String::trim).toList(),
+                seatInventoryService.segmentMask(booking));
 
         // Lấy email
         String toEmail = booking.getCustomer() instanceof Profile profile
@@ -161,10 +184,6 @@ public class TicketServiceImpl implements TicketService {
                 .collect(Collectors.toList());
     }
 
-    private String generateTicketCode() {
-        return UUID.randomUUID().toString().replace("-", "").substring(0, 6).toUpperCase();
-    }
-
     @Override
     public ApiResponse<?> getAllTickets(int page, int size) {
         Pageable pageable = PageRequest.of(page, size);
@@ -184,16 +203,26 @@ public class TicketServiceImpl implements TicketService {
 
     @Override
     public Page<TicketResponseDTO> searchTicketsByName(String name, Pageable pageable) {
-        Page<Tickets> tickets = ticketRepository.findByPassengerName(name, pageable);
+        Page<Tickets> tickets = searchTickets(TicketSearchIndexProvider.FIELD_PASSENGER_NAME, name, pageable)
+                .orElseGet(() -> ticketRepository.findByPassengerName(name, pageable));
         return tickets.map(ticketMapper::toTicketResponseDTO);
     }
 
     @Override
     public Page<TicketResponseDTO> searchTicketsByPhone(String phone, Pageable pageable) {
-        Page<Tickets> tickets = ticketRepository.findByPassengerPhone(phone, pageable);
+        Page<Tickets> tickets = searchTickets(TicketSearchIndexProvider.FIELD_PASSENGER_PHONE, phone, pageable)
+                .orElseGet(() -> ticketRepository.findByPassengerPhone(phone, pageable));
         return tickets.map(ticketMapper::toTicketResponseDTO);
     }
 
+    // Rỗng khi chỉ mục chưa sẵn sàng
+    private Optional<Page<Tickets>> searchTickets(String field, String keyword, Pageable pageable) {
+        SearchQuery query = SearchQuery.builder().match(keyword, field).build();
+        return searchIndexService.search(TicketSearchIndexProvider.INDEX, query, pageable)
+                .map(hits -> searchIndexService.toPage(hits, pageable, ticketRepository::findAllById,
+                        Tickets::getTicketId));
+    }
+
     @Override
     public Optional<TicketDetailResponseDTO> getTicketById(String ticketCode) {
         Optional<Tickets> ticket = ticketRepository.findByTicketCode(ticketCode);
@@ -244,10 +273,16 @@ public class TicketServiceImpl implements TicketService {
 
         // Cập nhật số ghế nếu có thay đổi
         if (updateRequest.getSeatNumber() != null && !updateRequest.getSeatNumber().equals(ticket.getSeatNumber())) {
-            // Kiểm tra xem ghế mới có trống không
-            tripSeatRepository.upsertSeat(tripId, ticket.getSeatNumber(), "available");
+            // Kiểm tra xem ghế mới có trống trên đoạn đi của booking không
+            long segmentMask = seatInventoryService.segmentMask(ticket.getBooking());
+            List<String> newSeat = List.of(updateRequest.getSeatNumber());
+            if (!seatInventoryService.holdSeats(tripId, newSeat, segmentMask, null)) {
+                throw new IllegalArgumentException(
+                        "Ghế " + updateRequest.getSeatNumber() + " không còn trống trong chuyến đi " + tripId);
+            }
+            seatInventoryService.releaseSeats(tripId, List.of(ticket.getSeatNumber()), segmentMask);
+            seatInventoryService.confirmSeats(tripId, newSeat, segmentMask);
             ticket.setSeatNumber(updateRequest.getSeatNumber());
-            tripSeatRepository.upsertSeat(tripId, updateRequest.getSeatNumber(), "booked");
         }
 
         // Cập nhật email trong booking nếu có
@@ -331,7 +366,7 @@ public class TicketServiceImpl implements TicketService {
 
             // change trip seat status to available
             tripSeatService.changeTripSeatStatusToAvailable(ticket.getBooking().getTrip().getId(),
-                    ticket.getSeatNumber());
+                    ticket.getSeatNumber(), seatInventoryService.segmentMask(ticket.getBooking()));
 
             // update audit log (bổ sung chi tiết hoàn tiền)
             AuditLog auditLog = new AuditLog();
@@ -444,6 +479,10 @@ public class TicketServiceImpl implements TicketService {
         int successCount = 0;
         int failCount = 0;
 
+        // Người thực hiện dùng chung cho audit của mọi vé
+        String currentUserEmail = jwtUtil.getCurrentUserLogin().orElse("system");
+        User user = userRepository.findByEmailIgnoreCase(currentUserEmail).orElse(null);
+
         for (String ticketCode : ticketCodes) {
             UpdateTicketStatusResponseDTO.TicketUpdateResult result = new UpdateTicketStatusResponseDTO.TicketUpdateResult();
             result.setTicketCode(ticketCode);
@@ -478,6 +517,11 @@ public class TicketServiceImpl implements TicketService {
                         // Cập nhật status
                         ticket.setStatus(targetStatus);
                         ticketRepository.save(ticket);
+                        if (ticket.getBooking() != null && ticket.getBooking().getTrip() != null) {
+                            eventPublisher.publishEvent(new TicketStatusChangedEvent(this,
+                                    ticket.getBooking().getTrip().getId(), List.of(ticket.getTicketId()),
+                                    targetStatus, Instant.now()));
+                        }
 
                         result.setSuccess(true);
                         result.setNewStatus(targetStatus.toString());
@@ -486,9 +530,6 @@ public class TicketServiceImpl implements TicketService {
 
                         // Log audit nếu cần
                         try {
-                            String currentUserEmail = jwtUtil.getCurrentUserLogin().orElse("system");
-                            User user = userRepository.findByEmailIgnoreCase(currentUserEmail).orElse(null);
-
                             if (user != null) {
                                 AuditLog auditLog = new AuditLog();
                                 auditLog.setAction("UPDATE_STATUS");
@@ -523,76 +564,30 @@ public class TicketServiceImpl implements TicketService {
         return response;
     }
 
-    @Override
-    public int autoCancelValidTicketsWhenTripDeparted(Long tripId) {
-        try {
-            System.out
-                    .println("=== DEBUG: autoCancelValidTicketsWhenTripDeparted called for tripId: " + tripId + " ===");
-
-            // Đầu tiên, kiểm tra có vé nào của trip này không
-            List<Tickets> allTicketsForTrip = ticketRepository.findByTripId(tripId);
-            System.out.println("Total tickets found for trip " + tripId + ": " + allTicketsForTrip.size());
-
-            // Log trạng thái các vé trước khi cập nhật
-            for (Tickets ticket : allTicketsForTrip) {
-                System.out.println("Ticket ID: " + ticket.getTicketId() +
-                        ", Code: " + ticket.getTicketCode() +
-                        ", Status: " + ticket.getStatus());
-            }
-
-            // Cập nhật tất cả vé có status = valid thành cancelled cho trip này
-            int cancelledCount = ticketRepository.cancelValidTicketsByTripId(tripId);
-            System.out.println("Number of tickets cancelled: " + cancelledCount);
-
-            // Kiểm tra lại sau khi cập nhật
-            List<Tickets> ticketsAfterUpdate = ticketRepository.findByTripId(tripId);
-            System.out.println("=== After update ===");
-            for (Tickets ticket : ticketsAfterUpdate) {
-                System.out.println("Ticket ID: " + ticket.getTicketId() +
-                        ", Code: " + ticket.getTicketCode() +
-                        ", Status: " + ticket.getStatus());
-            }
-
-            // Log audit cho hành động tự động hủy vé
-            if (cancelledCount > 0) {
-                try {
-                    String currentUserEmail = jwtUtil.getCurrentUserLogin().orElse("system");
-                    User user = userRepository.findByEmailIgnoreCase(currentUserEmail).orElse(null);
-
-                    AuditLog auditLog = new AuditLog();
-                    auditLog.setAction("AUTO_CANCEL_TICKETS");
-                    auditLog.setTargetEntity("TRIP");
-                    auditLog.setTargetId(tripId);
-                    auditLog.setDetails(String.format(
-                            "{\"trip_id\":%d,\"cancelled_tickets_count\":%d,\"reason\":\"Trip status changed to departed\"}",
-                            tripId, cancelledCount));
-                    if (user != null) {
-                        auditLog.setUser(user);
-                    }
-                    auditLogService.save(auditLog);
-                    System.out.println("Audit log created successfully");
-                } catch (Exception auditException) {
-                    System.err.println(
-                            "Failed to create audit log for auto-cancel tickets: " + auditException.getMessage());
-                }
-            }
-
-            System.out.println("=== END DEBUG: autoCancelValidTicketsWhenTripDeparted ===");
-            return cancelledCount;
-        } catch (Exception e) {
-            System.err.println("Error auto-cancelling valid tickets for trip " + tripId + ": " + e.getMessage());
-            e.printStackTrace();
-            return 0;
-        }
-    }
-
     public List<TicketResponseDTO> getTicketByOperatorId(Long operatorId) {
+        cursorPagination.requireBounded(ticketRepository.countByOperatorId(operatorId), "vé");
         List<Tickets> tickets = ticketRepository.findByOperatorId(operatorId);
         return tickets.stream()
                 .map(ticketMapper::toTicketResponseDTO)
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public CursorPage<TicketResponseDTO> getTicketsByOperatorId(Long operatorId, String cursor, Integer limit) {
+        int pageSize = cursorPagination.limit(limit);
+        // Sắp theo ticket_id giảm dần để con trỏ ổn định. Id cấp theo khối trên từng instance nên chỉ gần đúng
+        // thứ tự tạo (vé tạo sau ở instance khác có thể có id nhỏ hơn), không thay được ORDER BY created_at
+        List<Tickets> tickets = ticketRepository.findKeyset(KeysetQuery.of(Tickets.class, "ticketId")
+                .descending()
+                .after(cursorPagination.afterId(cursor))
+                .limit(pageSize)
+                .where((root, query, cb) -> cb.equal(
+                        root.get("booking").get("trip").get("bus").get("operator").get("id"), operatorId))
+                .fetch("booking.trip.bus", "seller"));
+        return CursorPage.of(tickets, pageSize, ticket -> CursorCodec.encode(ticket.getTicketId()))
+                .map(ticketMapper::toTicketResponseDTO);
+    }
+
     @Override
     public TicketBySeat getTicketByTripIdAndSeatNumber(Long tripId, String seatNumber) {
         Tickets ticket = ticketRepository.findByTripIdAndSeatNumber(tripId, seatNumber)
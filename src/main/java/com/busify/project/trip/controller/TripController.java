@@ -36,8 +36,13 @@ public class TripController {
     private final TripServiceImpl tripService;
 
     @GetMapping
-    @Operation(summary = "Get all trips")
-    public ApiResponse<List<TripFilterResponseDTO>> getAllTrips() {
+    @Operation(summary = "Get all trips", description = "Truyền cursor/limit để phân trang; không truyền thì trả về toàn bộ nếu không vượt giới hạn")
+    public ApiResponse<?> getAllTrips(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        if (cursor != null || limit != null) {
+            return ApiResponse.success("Lấy danh sách chuyến đi thành công", tripService.getTrips(cursor, limit));
+        }
         List<TripFilterResponseDTO> trips = tripService.getAllTrips();
         return ApiResponse.success("Lấy danh sách chuyến đi thành công", trips);
     }
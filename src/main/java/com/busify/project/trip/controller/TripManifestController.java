@@ -0,0 +1,70 @@
+package com.busify.project.trip.controller;
+
+import com.busify.project.common.dto.response.ApiResponse;
+import com.busify.project.trip.dto.response.DepartureBoardDTO;
+import com.busify.project.trip.dto.response.TripManifestDTO;
+import com.busify.project.trip.manifest.TripManifestService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.time.Instant;
+
+@RestController
+@RequestMapping("/api/trips")
+@RequiredArgsConstructor
+@Tag(name = "Trip Manifest", description = "Passenger manifest and departure board for drivers and operators")
+public class TripManifestController {
+
+    private final TripManifestService tripManifestService;
+
+    @Operation(summary = "Get passenger manifest of a trip")
+    @GetMapping("/{tripId}/manifest")
+    @PreAuthorize("hasRole('DRIVER') or hasRole('OPERATOR') or hasRole('ADMIN')")
+    public ApiResponse<TripManifestDTO> getManifest(@PathVariable Long tripId) {
+        return ApiResponse.success("Lấy bảng kê hành khách thành công", tripManifestService.getManifest(tripId));
+    }
+
+    @Operation(summary = "Download printable passenger manifest (PDF)")
+    @GetMapping("/{tripId}/manifest/print")
+    @PreAuthorize("hasRole('DRIVER') or hasRole('OPERATOR') or hasRole('ADMIN')")
+    public ResponseEntity<byte[]> printManifest(@PathVariable Long tripId) {
+        byte[] pdf = tripManifestService.printManifest(tripId);
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_PDF);
+        headers.setContentDisposition(ContentDisposition.inline()
+                .filename("manifest-" + tripId + ".pdf")
+                .build());
+        return ResponseEntity.ok().headers(headers).body(pdf);
+    }
+
+    /**
+     * GET /api/trips/departure-board?locationId=5&hours=3
+     */
+    @Operation(summary = "Get departure board of a terminal with passenger counts")
+    @GetMapping("/departure-board")
+    @PreAuthorize("hasRole('DRIVER') or hasRole('OPERATOR') or hasRole('ADMIN')")
+    public ApiResponse<DepartureBoardDTO> getDepartureBoard(
+            @RequestParam Long locationId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(defaultValue = "3") int hours,
+            @RequestParam(defaultValue = "false") boolean passengers) {
+        DepartureBoardDTO board = tripManifestService.getDepartureBoard(locationId,
+                from != null ? from : Instant.now(), Duration.ofHours(hours), passengers);
+        return ApiResponse.success("Lấy bảng giờ khởi hành thành công", board);
+    }
+}
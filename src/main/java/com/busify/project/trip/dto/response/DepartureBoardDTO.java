@@ -0,0 +1,18 @@
+package com.busify.project.trip.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DepartureBoardDTO {
+    private Long locationId;
+    private Instant from;
+    private Instant to;
+    private List<TripManifestDTO> trips;
+}
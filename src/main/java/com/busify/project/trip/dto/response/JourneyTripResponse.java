@@ -0,0 +1,20 @@
+package com.busify.project.trip.dto.response;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+public interface JourneyTripResponse {
+    Long getTripId();
+
+    Long getRouteId();
+
+    String getRouteName();
+
+    String getOperatorName();
+
+    Instant getDepartureTime();
+
+    Instant getEstimatedArrivalTime();
+
+    BigDecimal getPricePerSeat();
+}
@@ -0,0 +1,26 @@
+package com.busify.project.trip.dto.response;
+
+import com.busify.project.ticket.enums.TicketStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class ManifestPassengerDTO {
+    private Long ticketId;
+    private String ticketCode;
+    private String seatNumber;
+    private String passengerName;
+    private String passengerPhone;
+    private TicketStatus status;
+    private Instant checkedInAt;
+    private String bookingCode;
+    private String pickupLocationName;
+    private String dropoffLocationName;
+}
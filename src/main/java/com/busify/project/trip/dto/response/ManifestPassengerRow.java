@@ -0,0 +1,30 @@
+package com.busify.project.trip.dto.response;
+
+import java.time.Instant;
+
+/**
+ * Một vé trên bảng kê hành khách: vé, ghế, hành khách, điểm đón/trả và trạng thái lên xe
+ */
+public interface ManifestPassengerRow {
+    Long getTripId();
+
+    Long getTicketId();
+
+    String getTicketCode();
+
+    String getSeatNumber();
+
+    String getPassengerName();
+
+    String getPassengerPhone();
+
+    String getTicketStatus();
+
+    Instant getCheckedInAt();
+
+    String getBookingCode();
+
+    String getPickupLocationName();
+
+    String getDropoffLocationName();
+}
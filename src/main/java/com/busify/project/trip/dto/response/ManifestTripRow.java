@@ -0,0 +1,26 @@
+package com.busify.project.trip.dto.response;
+
+import java.time.Instant;
+
+/**
+ * Thông tin chuyến cho bảng kê hành khách, đọc phẳng bằng một truy vấn cho cả lô chuyến
+ */
+public interface ManifestTripRow {
+    Long getTripId();
+
+    Instant getDepartureTime();
+
+    String getTripStatus();
+
+    String getRouteName();
+
+    String getStartLocationName();
+
+    String getEndLocationName();
+
+    String getLicensePlate();
+
+    String getOperatorName();
+
+    String getDriverName();
+}
@@ -0,0 +1,10 @@
+package com.busify.project.trip.dto.response;
+
+/**
+ * Tài xế được phân công và nhà xe của một chuyến, dùng để kiểm tra quyền truy cập
+ */
+public interface TripCrewRow {
+    Long getDriverId();
+
+    Long getOperatorId();
+}
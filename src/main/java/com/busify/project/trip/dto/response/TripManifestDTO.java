@@ -0,0 +1,34 @@
+package com.busify.project.trip.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Bảng kê hành khách của một chuyến. {@code passengers} bỏ trống khi chỉ cần số liệu cho bảng giờ khởi hành.
+ */
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TripManifestDTO {
+    private Long tripId;
+    private Instant departureTime;
+    private String tripStatus;
+    private String routeName;
+    private String startLocationName;
+    private String endLocationName;
+    private String licensePlate;
+    private String operatorName;
+    private String driverName;
+    private int totalPassengers;
+    private int checkedInCount;
+    private Instant generatedAt;
+    private List<ManifestPassengerDTO> passengers;
+}
@@ -0,0 +1,20 @@
+package com.busify.project.trip.dto.response;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+public interface UpcomingRouteTripResponse {
+    Long getTripId();
+
+    Long getRouteId();
+
+    String getRouteName();
+
+    String getOperatorName();
+
+    Instant getDepartureTime();
+
+    BigDecimal getPricePerSeat();
+
+    String getStatus();
+}
@@ -2,9 +2,12 @@ package com.busify.project.trip.entity;
 
 import com.busify.project.booking.entity.Bookings;
 import com.busify.project.bus.entity.Bus;
+import com.busify.project.common.id.IdSequences;
+import com.busify.project.common.search.SearchEntityListener;
 import com.busify.project.employee.entity.Employee;
 import com.busify.project.route.entity.Route;
 import com.busify.project.trip.enums.TripStatus;
+import com.busify.project.trip.event.TripEntityListener;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
@@ -19,11 +22,17 @@ import java.util.List;
 @Setter
 @Entity
 @Table(name = "trips", indexes = {
-        @Index(name = "idx_trips_departureTime_routeId", columnList = "departure_time, route_id")
+        @Index(name = "idx_trips_departureTime_routeId", columnList = "departure_time, route_id"),
+        @Index(name = "idx_trips_status_departureTime", columnList = "status, departure_time"),
+        @Index(name = "idx_trips_status_estimatedArrivalTime", columnList = "status, estimated_arrival_time")
 })
+@EntityListeners({ TripEntityListener.class, SearchEntityListener.class })
 public class Trip {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "trips_id")
+    @TableGenerator(name = "trips_id", table = "id_blocks", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = IdSequences.TRIPS,
+            allocationSize = IdSequences.ENTITY_ALLOCATION_SIZE)
     @Column(name = "trip_id", nullable = false)
     private Long id;
 
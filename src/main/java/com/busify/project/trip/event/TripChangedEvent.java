@@ -0,0 +1,18 @@
+package com.busify.project.trip.event;
+
+import com.busify.project.trip.enums.TripStatus;
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+@Getter
+public class TripChangedEvent extends ApplicationEvent {
+
+    private final Long tripId;
+    private final TripStatus status;
+
+    public TripChangedEvent(Object source, Long tripId, TripStatus status) {
+        super(source);
+        this.tripId = tripId;
+        this.status = status;
+    }
+}
@@ -0,0 +1,27 @@
+package com.busify.project.trip.event;
+
+import com.busify.project.trip.entity.Trip;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA listener phát {@link TripChangedEvent} khi chuyến được thêm/sửa/xoá,
+ * để mạng lưới tìm hành trình cập nhật riêng chuyến đó và tích điểm khi chuyến đã đến nơi.
+ */
+@Component
+@RequiredArgsConstructor
+public class TripEntityListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Trip trip) {
+        eventPublisher.publishEvent(new TripChangedEvent(this, trip.getId(), trip.getStatus()));
+    }
+}
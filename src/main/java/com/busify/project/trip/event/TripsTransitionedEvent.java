@@ -0,0 +1,31 @@
+package com.busify.project.trip.event;
+
+import com.busify.project.trip.enums.TripStatus;
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Một lô chuyến được chuyển trạng thái bằng câu UPDATE hàng loạt. Câu UPDATE không đi qua entity nên
+ * không có {@link TripChangedEvent}; các nơi theo dõi chuyến nhận sự kiện này thay thế.
+ */
+@Getter
+public class TripsTransitionedEvent extends ApplicationEvent {
+
+    private final List<Long> tripIds;
+    private final TripStatus status;
+    private final int completedBookings;
+    private final Instant transitionedAt;
+
+    public TripsTransitionedEvent(Object source, Collection<Long> tripIds, TripStatus status, int completedBookings,
+            Instant transitionedAt) {
+        super(source);
+        this.tripIds = List.copyOf(tripIds);
+        this.status = status;
+        this.completedBookings = completedBookings;
+        this.transitionedAt = transitionedAt;
+    }
+}
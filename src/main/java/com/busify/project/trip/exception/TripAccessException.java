@@ -19,4 +19,11 @@ public class TripAccessException extends AppException {
     public static TripAccessException busNotOwned() {
         return new TripAccessException(ErrorCode.TRIP_BUS_NOT_OWNED);
     }
+
+    /**
+     * Caller is neither the trip's driver nor its operator
+     */
+    public static TripAccessException notAssigned() {
+        return new TripAccessException(ErrorCode.TRIP_ACCESS_DENIED);
+    }
 }
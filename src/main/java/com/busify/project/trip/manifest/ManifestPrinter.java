@@ -0,0 +1,128 @@
+package com.busify.project.trip.manifest;
+
+import com.busify.project.notification.exception.PdfReportException;
+import com.busify.project.ticket.enums.TicketStatus;
+import com.busify.project.trip.dto.response.ManifestPassengerDTO;
+import com.busify.project.trip.dto.response.TripManifestDTO;
+import com.itextpdf.html2pdf.ConverterProperties;
+import com.itextpdf.html2pdf.HtmlConverter;
+
+import java.io.ByteArrayOutputStream;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dựng bảng kê hành khách để in (HTML → PDF), nhóm theo điểm đón để tài xế đối chiếu tại từng điểm
+ */
+final class ManifestPrinter {
+
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("HH:mm dd/MM/yyyy")
+            .withZone(ZoneId.of("Asia/Ho_Chi_Minh"));
+
+    private ManifestPrinter() {
+    }
+
+    static byte[] pdf(TripManifestDTO manifest) {
+        try {
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            HtmlConverter.convertToPdf(html(manifest), outputStream, new ConverterProperties());
+            return outputStream.toByteArray();
+        } catch (Exception e) {
+            throw PdfReportException.generationFailed(e);
+        }
+    }
+
+    static String html(TripManifestDTO manifest) {
+        StringBuilder html = new StringBuilder();
+        html.append("""
+                <!DOCTYPE html>
+                <html lang="vi">
+                <head>
+                    <meta charset="UTF-8">
+                    <title>Bảng kê hành khách</title>
+                    <style>
+                        body { font-family: 'DejaVu Sans', sans-serif; font-size: 11px; margin: 16px; }
+                        h1 { font-size: 16px; margin: 0 0 6px 0; }
+                        .meta td { padding: 1px 12px 1px 0; }
+                        h2 { font-size: 12px; margin: 14px 0 4px 0; }
+                        table.list { width: 100%; border-collapse: collapse; }
+                        table.list th, table.list td { border: 1px solid #555; padding: 3px 5px; text-align: left; }
+                        .check { width: 36px; text-align: center; }
+                    </style>
+                </head>
+                <body>
+                """);
+        html.append("<h1>Bảng kê hành khách - chuyến ").append(manifest.getTripId()).append("</h1>\n");
+        html.append("<table class=\"meta\">\n");
+        meta(html, "Tuyến", manifest.getRouteName());
+        meta(html, "Khởi hành", manifest.getDepartureTime() != null
+                ? TIME_FORMAT.format(manifest.getDepartureTime()) : null);
+        meta(html, "Nhà xe", manifest.getOperatorName());
+        meta(html, "Biển số", manifest.getLicensePlate());
+        meta(html, "Tài xế", manifest.getDriverName());
+        meta(html, "Hành khách", manifest.getCheckedInCount() + "/" + manifest.getTotalPassengers() + " đã lên xe");
+        meta(html, "In lúc", manifest.getGeneratedAt() != null ? TIME_FORMAT.format(manifest.getGeneratedAt()) : null);
+        html.append("</table>\n");
+
+        int index = 1;
+        for (Map.Entry<String, List<ManifestPassengerDTO>> stop : byPickup(manifest.getPassengers()).entrySet()) {
+            html.append("<h2>Điểm đón: ").append(escape(stop.getKey()))
+                    .append(" (").append(stop.getValue().size()).append(")</h2>\n");
+            html.append("""
+                    <table class="list">
+                    <tr><th>#</th><th>Ghế</th><th>Hành khách</th><th>Điện thoại</th><th>Điểm trả</th><th>Mã vé</th><th class="check">Lên xe</th></tr>
+                    """);
+            for (ManifestPassengerDTO passenger : stop.getValue()) {
+                html.append("<tr><td>").append(index++)
+                        .append("</td><td>").append(escape(passenger.getSeatNumber()))
+                        .append("</td><td>").append(escape(passenger.getPassengerName()))
+                        .append("</td><td>").append(escape(passenger.getPassengerPhone()))
+                        .append("</td><td>").append(escape(passenger.getDropoffLocationName()))
+                        .append("</td><td>").append(escape(passenger.getTicketCode()))
+                        .append("</td><td class=\"check\">")
+                        .append(passenger.getStatus() == TicketStatus.used ? "&#10003;" : "&#9744;")
+                        .append("</td></tr>\n");
+            }
+            html.append("</table>\n");
+        }
+        html.append("</body>\n</html>\n");
+        return html.toString();
+    }
+
+    // Giữ thứ tự xuất hiện của điểm đón, trong mỗi điểm giữ thứ tự ghế
+    private static Map<String, List<ManifestPassengerDTO>> byPickup(List<ManifestPassengerDTO> passengers) {
+        Map<String, List<ManifestPassengerDTO>> groups = new LinkedHashMap<>();
+        for (ManifestPassengerDTO passenger : passengers) {
+            String pickup = passenger.getPickupLocationName() != null ? passenger.getPickupLocationName() : "-";
+            groups.computeIfAbsent(pickup, key -> new ArrayList<>()).add(passenger);
+        }
+        return groups;
+    }
+
+    private static void meta(StringBuilder html, String label, String value) {
+        html.append("<tr><td><b>").append(label).append("</b></td><td>").append(escape(value)).append("</td></tr>\n");
+    }
+
+    static String escape(String value) {
+        if (value == null) {
+            return "";
+        }
+        StringBuilder escaped = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '<' -> escaped.append("&lt;");
+                case '>' -> escaped.append("&gt;");
+                case '&' -> escaped.append("&amp;");
+                case '"' -> escaped.append("&quot;");
+                case '\'' -> escaped.append("&#39;");
+                default -> escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+}
@@ -0,0 +1,33 @@
+package com.busify.project.trip.manifest;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Cấu hình bảng kê hành khách và bảng giờ khởi hành ({@code busify.manifest.*}).
+ * Bảng kê chỉ được cache trong khoảng quanh giờ khởi hành, khi tài xế và nhà xe xem liên tục.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "busify.manifest")
+@Data
+public class ManifestProperties {
+
+    // Bắt đầu cache trước giờ khởi hành bao lâu
+    private Duration cacheBeforeDeparture = Duration.ofHours(3);
+
+    // Tiếp tục cache sau giờ khởi hành bao lâu (khách lên dọc đường)
+    private Duration cacheAfterDeparture = Duration.ofHours(1);
+
+    // Thời gian sống của bản cache; lên xe/huỷ vé được cập nhật ngay, thay đổi khác (đặt mới, đổi ghế) chờ hết hạn
+    private Duration ttl = Duration.ofMinutes(2);
+
+    private long maxCachedTrips = 2_000;
+
+    // Khoảng thời gian tối đa của một lần xem bảng giờ khởi hành
+    private Duration maxBoardWindow = Duration.ofHours(24);
+
+    private int maxBoardTrips = 200;
+}
@@ -0,0 +1,240 @@
+package com.busify.project.trip.manifest;
+
+import com.busify.project.ticket.enums.TicketStatus;
+import com.busify.project.ticket.event.TicketStatusChangedEvent;
+import com.busify.project.trip.dto.response.DepartureBoardDTO;
+import com.busify.project.trip.dto.response.ManifestPassengerDTO;
+import com.busify.project.trip.dto.response.ManifestPassengerRow;
+import com.busify.project.trip.dto.response.ManifestTripRow;
+import com.busify.project.trip.dto.response.TripManifestDTO;
+import com.busify.project.trip.event.TripChangedEvent;
+import com.busify.project.trip.event.TripsTransitionedEvent;
+import com.busify.project.trip.exception.TripNotFoundException;
+import com.busify.project.trip.repository.TripRepository;
+import com.busify.project.trip.service.TripCrewAccessService;
+import com.busify.project.trip.service.TripCrewAccessService.CrewScope;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Bảng kê hành khách và bảng giờ khởi hành cho tài xế/nhà xe, đọc từ projection phẳng thay vì tải entity.
+ * <p>
+ * Một lô chuyến chỉ tốn một truy vấn thông tin chuyến và một truy vấn hành khách (vé, ghế, điểm đón/trả,
+ * trạng thái lên xe). Bảng kê của chuyến sắp/vừa khởi hành được cache trong process; lượt lên xe và huỷ vé
+ * sửa trực tiếp bản cache qua {@link TicketStatusChangedEvent}, các thay đổi khác chờ hết {@code ttl}.
+ * Instance khác không nhận sự kiện nên có thể trễ tối đa {@code ttl}.
+ * </p>
+ * <p>
+ * Bảng kê chứa thông tin hành khách nên chỉ trả cho người phụ trách chuyến ({@link TripCrewAccessService});
+ * việc kiểm tra chạy cả khi bảng kê đã có trong cache.
+ * </p>
+ */
+@Service
+@Slf4j
+public class TripManifestService {
+
+    private final TripRepository tripRepository;
+    private final ManifestProperties properties;
+    private final TripCrewAccessService crewAccess;
+    private final Clock clock;
+    private final Cache<Long, TripManifestDTO> cache;
+
+    @Autowired
+    public TripManifestService(TripRepository tripRepository, ManifestProperties properties,
+            TripCrewAccessService crewAccess) {
+        this(tripRepository, properties, crewAccess, Clock.systemUTC());
+    }
+
+    TripManifestService(TripRepository tripRepository, ManifestProperties properties,
+            TripCrewAccessService crewAccess, Clock clock) {
+        this.tripRepository = tripRepository;
+        this.properties = properties;
+        this.crewAccess = crewAccess;
+        this.clock = clock;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxCachedTrips())
+                .expireAfterWrite(properties.getTtl())
+                .build();
+    }
+
+    public TripManifestDTO getManifest(Long tripId) {
+        crewAccess.checkAccess(tripId);
+        return manifest(tripId);
+    }
+
+    private TripManifestDTO manifest(Long tripId) {
+        TripManifestDTO cached = cache.getIfPresent(tripId);
+        if (cached != null) {
+            return cached;
+        }
+        List<ManifestTripRow> trips = tripRepository.findManifestTrips(List.of(tripId));
+        if (trips.isEmpty()) {
+            throw TripNotFoundException.tripNotFound();
+        }
+        return load(trips).get(tripId);
+    }
+
+    /**
+     * Các chuyến người dùng hiện tại phụ trách xuất phát từ bến {@code locationId} trong {@code window}
+     * kể từ {@code from}. Chuyến chưa có trong cache được nạp cùng một lô.
+     */
+    public DepartureBoardDTO getDepartureBoard(Long locationId, Instant from, Duration window,
+            boolean includePassengers) {
+        if (window.isNegative() || window.isZero() || window.compareTo(properties.getMaxBoardWindow()) > 0) {
+            throw new IllegalArgumentException("Khoảng thời gian phải lớn hơn 0 và không quá "
+                    + properties.getMaxBoardWindow().toHours() + " giờ");
+        }
+        Instant to = from.plus(window);
+        CrewScope scope = crewAccess.currentScope();
+        List<ManifestTripRow> trips = tripRepository.findDepartureBoardTrips(locationId, from, to,
+                scope.all(), scope.operatorId(), scope.driverId(), properties.getMaxBoardTrips());
+
+        Map<Long, TripManifestDTO> manifests = new HashMap<>();
+        List<ManifestTripRow> missing = new ArrayList<>();
+        for (ManifestTripRow trip : trips) {
+            TripManifestDTO cached = cache.getIfPresent(trip.getTripId());
+            if (cached != null) {
+                manifests.put(trip.getTripId(), cached);
+            } else {
+                missing.add(trip);
+            }
+        }
+        if (!missing.isEmpty()) {
+            manifests.putAll(load(missing));
+        }
+
+        List<TripManifestDTO> board = new ArrayList<>(trips.size());
+        for (ManifestTripRow trip : trips) {
+            TripManifestDTO manifest = manifests.get(trip.getTripId());
+            board.add(includePassengers ? manifest : manifest.toBuilder().passengers(null).build());
+        }
+        return new DepartureBoardDTO(locationId, from, to, board);
+    }
+
+    /**
+     * Bảng kê dạng PDF để in, nhóm theo điểm đón rồi theo ghế
+     */
+    public byte[] printManifest(Long tripId) {
+        crewAccess.checkAccess(tripId);
+        return ManifestPrinter.pdf(manifest(tripId));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTicketStatusChanged(TicketStatusChangedEvent event) {
+        TripManifestDTO updated = cache.asMap().computeIfPresent(event.getTripId(),
+                (tripId, manifest) -> applyStatusChange(manifest, new HashSet<>(event.getTicketIds()),
+                        event.getStatus(), event.getChangedAt()));
+        if (updated != null) {
+            log.debug("Cập nhật bảng kê chuyến {}: {} vé -> {}", event.getTripId(), event.getTicketIds().size(),
+                    event.getStatus());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTripChanged(TripChangedEvent event) {
+        cache.invalidate(event.getTripId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTripsTransitioned(TripsTransitionedEvent event) {
+        cache.invalidateAll(event.getTripIds());
+    }
+
+    /**
+     * Bản sao bảng kê với trạng thái mới của các vé; vé bị huỷ được bỏ khỏi danh sách
+     */
+    static TripManifestDTO applyStatusChange(TripManifestDTO manifest, Set<Long> ticketIds, TicketStatus status,
+            Instant changedAt) {
+        List<ManifestPassengerDTO> passengers = new ArrayList<>(manifest.getPassengers().size());
+        for (ManifestPassengerDTO passenger : manifest.getPassengers()) {
+            if (!ticketIds.contains(passenger.getTicketId())) {
+                passengers.add(passenger);
+            } else if (status != TicketStatus.cancelled) {
+                passengers.add(passenger.toBuilder()
+                        .status(status)
+                        .checkedInAt(status == TicketStatus.used ? changedAt : passenger.getCheckedInAt())
+                        .build());
+            }
+        }
+        return withPassengers(manifest.toBuilder(), passengers).build();
+    }
+
+    private Map<Long, TripManifestDTO> load(List<ManifestTripRow> trips) {
+        List<Long> tripIds = trips.stream().map(ManifestTripRow::getTripId).toList();
+        Map<Long, List<ManifestPassengerDTO>> passengersByTrip = new HashMap<>();
+        for (ManifestPassengerRow row : tripRepository.findManifestPassengers(tripIds)) {
+            passengersByTrip.computeIfAbsent(row.getTripId(), id -> new ArrayList<>()).add(toPassenger(row));
+        }
+
+        Instant now = clock.instant();
+        Map<Long, TripManifestDTO> result = new LinkedHashMap<>();
+        for (ManifestTripRow trip : trips) {
+            TripManifestDTO manifest = withPassengers(TripManifestDTO.builder()
+                    .tripId(trip.getTripId())
+                    .departureTime(trip.getDepartureTime())
+                    .tripStatus(trip.getTripStatus())
+                    .routeName(trip.getRouteName())
+                    .startLocationName(trip.getStartLocationName())
+                    .endLocationName(trip.getEndLocationName())
+                    .licensePlate(trip.getLicensePlate())
+                    .operatorName(trip.getOperatorName())
+                    .driverName(trip.getDriverName())
+                    .generatedAt(now),
+                    passengersByTrip.getOrDefault(trip.getTripId(), List.of())).build();
+            if (isCacheable(trip.getDepartureTime(), now)) {
+                cache.put(trip.getTripId(), manifest);
+            }
+            result.put(trip.getTripId(), manifest);
+        }
+        return result;
+    }
+
+    private boolean isCacheable(Instant departureTime, Instant now) {
+        return departureTime != null
+                && !now.isBefore(departureTime.minus(properties.getCacheBeforeDeparture()))
+                && !now.isAfter(departureTime.plus(properties.getCacheAfterDeparture()));
+    }
+
+    private static TripManifestDTO.TripManifestDTOBuilder withPassengers(
+            TripManifestDTO.TripManifestDTOBuilder builder, List<ManifestPassengerDTO> passengers) {
+        int checkedIn = 0;
+        for (ManifestPassengerDTO passenger : passengers) {
+            if (passenger.getStatus() == TicketStatus.used) {
+                checkedIn++;
+            }
+        }
+        return builder.passengers(List.copyOf(passengers))
+                .totalPassengers(passengers.size())
+                .checkedInCount(checkedIn);
+    }
+
+    private static ManifestPassengerDTO toPassenger(ManifestPassengerRow row) {
+        return ManifestPassengerDTO.builder()
+                .ticketId(row.getTicketId())
+                .ticketCode(row.getTicketCode())
+                .seatNumber(row.getSeatNumber())
+                .passengerName(row.getPassengerName())
+                .passengerPhone(row.getPassengerPhone())
+                .status(TicketStatus.valueOf(row.getTicketStatus()))
+                .checkedInAt(row.getCheckedInAt())
+                .bookingCode(row.getBookingCode())
+                .pickupLocationName(row.getPickupLocationName())
+                .dropoffLocationName(row.getDropoffLocationName())
+                .build();
+    }
+}
@@ -1,6 +1,7 @@
 package com.busify.project.trip.repository;
 
 import com.busify.project.bus_operator.entity.BusOperator;
+import com.busify.project.common.pagination.KeysetRepository;
 import com.busify.project.location.enums.LocationRegion;
 import com.busify.project.trip.dto.response.*;
 import com.busify.project.trip.entity.Trip;
@@ -9,15 +10,28 @@ import com.busify.project.trip.enums.TripStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface TripRepository extends JpaRepository<Trip, Long> {
+public interface TripRepository extends JpaRepository<Trip, Long>, KeysetRepository {
+    @Query("""
+                SELECT d.id AS driverId, o.id AS operatorId
+                FROM Trip t
+                LEFT JOIN t.driver d
+                LEFT JOIN t.bus b
+                LEFT JOIN b.operator o
+                WHERE t.id = :tripId
+            """)
+    Optional<TripCrewRow> findCrewById(@Param("tripId") Long tripId);
+
     @Query("""
                 SELECT t
                 FROM Trip t
@@ -45,8 +59,8 @@ public interface TripRepository extends JpaRepository<Trip, Long> {
                 t.price_per_seat AS pricePerSeat,
                 t.price_per_seat AS originalPrice,
                 0 AS discountAmount,
-                AVG(rev.rating) AS averageRating,
-                COUNT(DISTINCT rev.review_id) AS totalReviews,
+                COALESCE(ra.average_rating, 0) AS averageRating,
+                COALESCE(ra.rating_count, 0) AS totalReviews,
 
                 sl.city AS startCity,
                 sl.address AS startAddress,
@@ -84,18 +98,9 @@ public interface TripRepository extends JpaRepository<Trip, Long> {
             LEFT JOIN
                 profiles AS p ON d.id = p.id
             LEFT JOIN
-                reviews AS rev ON t.trip_id = rev.trip_id
+                rating_aggregates AS ra ON ra.scope = 'TRIP' AND ra.target_id = t.trip_id
             WHERE
                 t.trip_id = :tripId
-            GROUP BY
-                t.trip_id,
-                r.route_id,
-                bo.operator_id,
-                bo.name,
-                sl.city, sl.address, sl.longitude, sl.latitude,
-                el.city, el.address, el.longitude, el.latitude,
-                b.id, bm.name, b.seat_layout_id, b.license_plate, b.amenities,
-                d.id, p.full_name
             """, nativeQuery = true)
     TripDetailResponse findTripDetailById(@Param("tripId") Long tripId);
 
@@ -124,9 +129,9 @@ public interface TripRepository extends JpaRepository<Trip, Long> {
                  FROM trip_seats ts
                  WHERE ts.trip_id = t.trip_id AND ts.status = 'AVAILABLE'
                 ) as availableSeats,
-                (SELECT IFNULL(AVG(rev.rating), 0)
-                 FROM reviews rev
-                 WHERE rev.trip_id = t.trip_id
+                (SELECT IFNULL(MAX(ra.average_rating), 0)
+                 FROM rating_aggregates ra
+                 WHERE ra.scope = 'TRIP' AND ra.target_id = t.trip_id
                 ) as averageRating,
                 t.status as status
             FROM
@@ -349,9 +354,9 @@ public interface TripRepository extends JpaRepository<Trip, Long> {
                  WHERE ts.trip_id = t.trip_id AND ts.status = 'AVAILABLE'
                 ) AS available_seats,
                 b.total_seats,
-                (SELECT IFNULL(AVG(rev.rating), 0)
-                 FROM reviews rev
-                 WHERE rev.trip_id = t.trip_id
+                (SELECT IFNULL(MAX(ra.average_rating), 0)
+                 FROM rating_aggregates ra
+                 WHERE ra.scope = 'TRIP' AND ra.target_id = t.trip_id
                 ) AS average_rating
             FROM
                 trips AS t
@@ -430,9 +435,9 @@ public interface TripRepository extends JpaRepository<Trip, Long> {
                  FROM TripSeat ts
                  WHERE ts.id.tripId = t.id AND ts.status = 'AVAILABLE'
                 ) as availableSeats,
-                (SELECT IFNULL(AVG(rev.rating), 0)
-                 FROM Review rev
-                 WHERE rev.trip.id = t.id
+                (SELECT COALESCE(MAX(ra.averageRating), 0)
+                 FROM RatingAggregate ra
+                 WHERE ra.id.scope = com.busify.project.review.enums.RatingScope.TRIP AND ra.id.targetId = t.id
                 ) as averageRating,
                 t.status as status
             FROM
@@ -497,4 +502,227 @@ public interface TripRepository extends JpaRepository<Trip, Long> {
             WHERE t.id = :tripId
             """)
     NextTripSeatStatusDTO getNextTripSeatStatus(@Param("tripId") Long tripId);
+
+    // Chuyến sắp chạy của nhiều tuyến trong một khoảng thời gian (dùng cho tìm điểm đón gần nhất)
+    @Query(value = """
+            SELECT
+                t.trip_id as tripId,
+                t.route_id as routeId,
+                r.name as routeName,
+                bo.name as operatorName,
+                t.departure_time as departureTime,
+                t.price_per_seat as pricePerSeat,
+                t.status as status
+            FROM trips t
+            JOIN routes r ON t.route_id = r.route_id
+            JOIN buses b ON t.bus_id = b.id
+            JOIN bus_operators bo ON b.operator_id = bo.operator_id
+            WHERE t.route_id IN (:routeIds)
+                AND t.departure_time BETWEEN :fromTime AND :toTime
+                AND t.status IN ('SCHEDULED', 'ON_SELL', 'DELAYED')
+            ORDER BY t.departure_time ASC
+            """, nativeQuery = true)
+    List<UpcomingRouteTripResponse> findUpcomingTripsByRouteIds(@Param("routeIds") Collection<Long> routeIds,
+                                                                @Param("fromTime") Instant fromTime,
+                                                                @Param("toTime") Instant toTime);
+
+    // Chuyến còn bán vé trong một khoảng thời gian, dùng để build mạng lưới tìm hành trình
+    @Query(value = """
+            SELECT
+                t.trip_id as tripId,
+                t.route_id as routeId,
+                r.name as routeName,
+                bo.name as operatorName,
+                t.departure_time as departureTime,
+                t.estimated_arrival_time as estimatedArrivalTime,
+                t.price_per_seat as pricePerSeat
+            FROM trips t
+            JOIN routes r ON t.route_id = r.route_id
+            JOIN buses b ON t.bus_id = b.id
+            JOIN bus_operators bo ON b.operator_id = bo.operator_id
+            WHERE t.departure_time BETWEEN :fromTime AND :toTime
+                AND t.status IN ('SCHEDULED', 'ON_SELL', 'DELAYED')
+            """, nativeQuery = true)
+    List<JourneyTripResponse> findJourneyTrips(@Param("fromTime") Instant fromTime,
+                                               @Param("toTime") Instant toTime);
+
+    // Như trên nhưng chỉ cho các chuyến vừa thay đổi; chuyến không còn bán vé sẽ không được trả về
+    @Query(value = """
+            SELECT
+                t.trip_id as tripId,
+                t.route_id as routeId,
+                r.name as routeName,
+                bo.name as operatorName,
+                t.departure_time as departureTime,
+                t.estimated_arrival_time as estimatedArrivalTime,
+                t.price_per_seat as pricePerSeat
+            FROM trips t
+            JOIN routes r ON t.route_id = r.route_id
+            JOIN buses b ON t.bus_id = b.id
+            JOIN bus_operators bo ON b.operator_id = bo.operator_id
+            WHERE t.trip_id IN (:tripIds)
+                AND t.status IN ('SCHEDULED', 'ON_SELL', 'DELAYED')
+            """, nativeQuery = true)
+    List<JourneyTripResponse> findJourneyTripsByIds(@Param("tripIds") Collection<Long> tripIds);
+
+    /**
+     * (routeId, startLocationId, endLocationId) của tuyến mà chuyến chạy, dùng để tính chặng lên/xuống
+     */
+    @Query("SELECT t.route.id, t.route.startLocation.id, t.route.endLocation.id FROM Trip t WHERE t.id = :tripId")
+    List<Object[]> findRouteEndpointsByTripId(@Param("tripId") Long tripId);
+
+    /**
+     * Chuyến đã đến nơi có giờ đến dự kiến từ {@code since}, dùng cho job tích điểm bù
+     */
+    @Query("SELECT t.id FROM Trip t WHERE t.status = com.busify.project.trip.enums.TripStatus.arrived AND t.estimatedArrivalTime >= :since")
+    List<Long> findArrivedTripIdsSince(@Param("since") Instant since);
+
+    /**
+     * (tripId, tên tuyến, biển số, tên tài xế, trạng thái, operatorId, giờ khởi hành) cho chỉ mục tìm kiếm
+     */
+    @Query("""
+            SELECT t.id, r.name, b.licensePlate, d.fullName, t.status, o.id, t.departureTime
+            FROM Trip t
+            LEFT JOIN t.route r
+            LEFT JOIN t.bus b
+            LEFT JOIN b.operator o
+            LEFT JOIN t.driver d
+            WHERE t.id > :lastId
+            ORDER BY t.id
+            """)
+    List<Object[]> findSearchRowsAfter(@Param("lastId") Long lastId, Pageable pageable);
+
+    @Query("""
+            SELECT t.id, r.name, b.licensePlate, d.fullName, t.status, o.id, t.departureTime
+            FROM Trip t
+            LEFT JOIN t.route r
+            LEFT JOIN t.bus b
+            LEFT JOIN b.operator o
+            LEFT JOIN t.driver d
+            WHERE t.id IN :ids
+            """)
+    List<Object[]> findSearchRowsByIds(@Param("ids") Collection<Long> ids);
+
+    @Query(value = """
+            SELECT
+                t.trip_id AS tripId,
+                t.departure_time AS departureTime,
+                t.status AS tripStatus,
+                r.name AS routeName,
+                sl.name AS startLocationName,
+                el.name AS endLocationName,
+                b.license_plate AS licensePlate,
+                bo.name AS operatorName,
+                p.full_name AS driverName
+            FROM trips t
+            JOIN routes r ON t.route_id = r.route_id
+            JOIN locations sl ON r.start_location_id = sl.location_id
+            JOIN locations el ON r.end_location_id = el.location_id
+            LEFT JOIN buses b ON t.bus_id = b.id
+            LEFT JOIN bus_operators bo ON b.operator_id = bo.operator_id
+            LEFT JOIN profiles p ON t.driver_id = p.id
+            WHERE t.trip_id IN (:tripIds)
+            """, nativeQuery = true)
+    List<ManifestTripRow> findManifestTrips(@Param("tripIds") Collection<Long> tripIds);
+
+    /**
+     * Chuyến xuất phát từ {@code locationId} trong khoảng [from, to), cho bảng giờ khởi hành.
+     * Lọc theo phạm vi người xem trong SQL để {@code limit} chỉ tính các chuyến họ được xem.
+     */
+    @Query(value = """
+            SELECT
+                t.trip_id AS tripId,
+                t.departure_time AS departureTime,
+                t.status AS tripStatus,
+                r.name AS routeName,
+                sl.name AS startLocationName,
+                el.name AS endLocationName,
+                b.license_plate AS licensePlate,
+                bo.name AS operatorName,
+                p.full_name AS driverName
+            FROM trips t
+            JOIN routes r ON t.route_id = r.route_id
+            JOIN locations sl ON r.start_location_id = sl.location_id
+            JOIN locations el ON r.end_location_id = el.location_id
+            LEFT JOIN buses b ON t.bus_id = b.id
+            LEFT JOIN bus_operators bo ON b.operator_id = bo.operator_id
+            LEFT JOIN profiles p ON t.driver_id = p.id
+            WHERE r.start_location_id = :locationId
+              AND t.departure_time >= :from AND t.departure_time < :to
+              AND t.status <> 'cancelled'
+              AND (:allTrips OR bo.operator_id = :operatorId OR t.driver_id = :driverId)
+            ORDER BY t.departure_time, t.trip_id
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<ManifestTripRow> findDepartureBoardTrips(@Param("locationId") Long locationId,
+            @Param("from") Instant from, @Param("to") Instant to,
+            @Param("allTrips") boolean allTrips, @Param("operatorId") Long operatorId,
+            @Param("driverId") Long driverId, @Param("limit") int limit);
+
+    /**
+     * Hành khách của cả lô chuyến trong một truy vấn; chỉ vé còn hiệu lực hoặc đã lên xe của booking đã xác nhận.
+     * Booking không chọn điểm đón/trả lấy điểm đầu/cuối tuyến.
+     */
+    @Query(value = """
+            SELECT
+                b.trip_id AS tripId,
+                tk.ticket_id AS ticketId,
+                tk.ticket_code AS ticketCode,
+                tk.seat_number AS seatNumber,
+                tk.passenger_name AS passengerName,
+                tk.passenger_phone AS passengerPhone,
+                tk.status AS ticketStatus,
+                tk.checked_in_at AS checkedInAt,
+                b.booking_code AS bookingCode,
+                COALESCE(pl.name, sl.name) AS pickupLocationName,
+                COALESCE(dl.name, el.name) AS dropoffLocationName
+            FROM tickets tk
+            JOIN bookings b ON tk.booking_id = b.id
+            JOIN trips t ON b.trip_id = t.trip_id
+            JOIN routes r ON t.route_id = r.route_id
+            JOIN locations sl ON r.start_location_id = sl.location_id
+            JOIN locations el ON r.end_location_id = el.location_id
+            LEFT JOIN locations pl ON b.pickup_location_id = pl.location_id
+            LEFT JOIN locations dl ON b.dropoff_location_id = dl.location_id
+            WHERE b.trip_id IN (:tripIds)
+              AND tk.status IN ('valid', 'used')
+              AND b.status IN ('confirmed', 'completed')
+            ORDER BY b.trip_id, tk.seat_number
+            """, nativeQuery = true)
+    List<ManifestPassengerRow> findManifestPassengers(@Param("tripIds") Collection<Long> tripIds);
+
+    /**
+     * Chuyến đã tới giờ khởi hành mà vẫn ở một trong {@code statuses}, khoá để chuyển trạng thái.
+     * SKIP LOCKED: lượt chuyển không chờ chuyến đang được sửa tay, lượt sau sẽ nhận lại.
+     */
+    @Query(value = """
+            SELECT trip_id FROM trips
+            WHERE status IN (:statuses) AND departure_time <= :cutoff
+            ORDER BY departure_time
+            LIMIT :limit FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<Long> lockDueForDeparture(@Param("statuses") Collection<String> statuses,
+                                   @Param("cutoff") Instant cutoff,
+                                   @Param("limit") int limit);
+
+    /**
+     * Như trên cho chuyến đã tới giờ đến dự kiến
+     */
+    @Query(value = """
+            SELECT trip_id FROM trips
+            WHERE status IN (:statuses) AND estimated_arrival_time <= :cutoff
+            ORDER BY estimated_arrival_time
+            LIMIT :limit FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<Long> lockDueForArrival(@Param("statuses") Collection<String> statuses,
+                                 @Param("cutoff") Instant cutoff,
+                                 @Param("limit") int limit);
+
+    // Điều kiện trên status để không ghi đè chuyến vừa được đổi trạng thái bằng tay
+    @Modifying
+    @Query(value = "UPDATE trips SET status = :toStatus WHERE trip_id IN (:tripIds) AND status IN (:fromStatuses)",
+            nativeQuery = true)
+    int transitionStatus(@Param("tripIds") Collection<Long> tripIds,
+                         @Param("fromStatuses") Collection<String> fromStatuses,
+                         @Param("toStatus") String toStatus);
 }
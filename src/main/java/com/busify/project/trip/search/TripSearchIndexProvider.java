@@ -0,0 +1,68 @@
+package com.busify.project.trip.search;
+
+import com.busify.project.common.search.SearchDocument;
+import com.busify.project.common.search.SearchIndexProvider;
+import com.busify.project.trip.entity.Trip;
+import com.busify.project.trip.repository.TripRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Chỉ mục chuyến cho màn hình quản lý chuyến: tên tuyến, biển số, tên tài xế; lọc theo trạng thái và nhà xe
+ */
+@Component
+@RequiredArgsConstructor
+public class TripSearchIndexProvider implements SearchIndexProvider {
+
+    public static final String INDEX = "trips";
+    public static final String FILTER_STATUS = "status";
+    public static final String FILTER_OPERATOR = "operatorId";
+
+    private final TripRepository tripRepository;
+
+    @Override
+    public String getIndexName() {
+        return INDEX;
+    }
+
+    @Override
+    public Class<?> getEntityType() {
+        return Trip.class;
+    }
+
+    @Override
+    public Long idOf(Object entity) {
+        return ((Trip) entity).getId();
+    }
+
+    @Override
+    public List<SearchDocument> loadAfter(long lastId, int limit) {
+        return tripRepository.findSearchRowsAfter(lastId, PageRequest.of(0, limit)).stream()
+                .map(TripSearchIndexProvider::toDocument)
+                .toList();
+    }
+
+    @Override
+    public List<SearchDocument> loadByIds(Collection<Long> ids) {
+        return tripRepository.findSearchRowsByIds(ids).stream()
+                .map(TripSearchIndexProvider::toDocument)
+                .toList();
+    }
+
+    private static SearchDocument toDocument(Object[] row) {
+        Instant departureTime = (Instant) row[6];
+        return SearchDocument.builder((Long) row[0])
+                .rankHint(departureTime != null ? departureTime.toEpochMilli() : 0)
+                .text("route", (String) row[1], 2f)
+                .identifier("licensePlate", (String) row[2], 2f)
+                .text("driver", (String) row[3], 1f)
+                .filter(FILTER_STATUS, row[4])
+                .filter(FILTER_OPERATOR, row[5])
+                .build();
+    }
+}
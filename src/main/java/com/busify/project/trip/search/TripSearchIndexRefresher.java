@@ -0,0 +1,22 @@
+package com.busify.project.trip.search;
+
+import com.busify.project.common.search.SearchIndexService;
+import com.busify.project.trip.event.TripsTransitionedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Đánh lại chỉ mục các chuyến được chuyển trạng thái hàng loạt (UPDATE thẳng DB, không qua JPA listener)
+ */
+@Component
+@RequiredArgsConstructor
+public class TripSearchIndexRefresher {
+
+    private final SearchIndexService searchIndexService;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTripsTransitioned(TripsTransitionedEvent event) {
+        searchIndexService.markChanged(TripSearchIndexProvider.INDEX, event.getTripIds());
+    }
+}
@@ -0,0 +1,74 @@
+package com.busify.project.trip.service;
+
+import com.busify.project.bus_operator.repository.BusOperatorRepository;
+import com.busify.project.common.utils.JwtUtils;
+import com.busify.project.employee.repository.EmployeeRepository;
+import com.busify.project.trip.dto.response.TripCrewRow;
+import com.busify.project.trip.exception.TripAccessException;
+import com.busify.project.trip.exception.TripNotFoundException;
+import com.busify.project.trip.repository.TripRepository;
+import com.busify.project.user.entity.User;
+import com.busify.project.user.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+/**
+ * Giới hạn dữ liệu vận hành của chuyến (khoá kiểm tra thẻ lên xe, bảng kê hành khách) cho đúng người phụ trách:
+ * ADMIN xem mọi chuyến, tài xế chỉ xem chuyến mình được phân công, chủ nhà xe/nhân viên chỉ xem chuyến của nhà xe mình.
+ */
+@Service
+@RequiredArgsConstructor
+public class TripCrewAccessService {
+
+    private final TripRepository tripRepository;
+    private final UserRepository userRepository;
+    private final BusOperatorRepository busOperatorRepository;
+    private final EmployeeRepository employeeRepository;
+    private final JwtUtils jwtUtil;
+
+    /**
+     * Phạm vi chuyến người dùng hiện tại được xem
+     *
+     * @param all        ADMIN, xem mọi chuyến
+     * @param driverId   id người dùng, khớp với tài xế được phân công
+     * @param operatorId nhà xe người dùng sở hữu hoặc làm việc cho, null với tài xế
+     */
+    public record CrewScope(boolean all, Long driverId, Long operatorId) {
+
+        public boolean covers(Long tripDriverId, Long tripOperatorId) {
+            return all
+                    || (driverId != null && driverId.equals(tripDriverId))
+                    || (operatorId != null && operatorId.equals(tripOperatorId));
+        }
+    }
+
+    public CrewScope currentScope() {
+        User user = jwtUtil.getCurrentUserLogin()
+                .flatMap(userRepository::findByEmail)
+                .orElseThrow(TripAccessException::notAssigned);
+        String role = user.getRole().getName();
+        if ("ADMIN".equals(role)) {
+            return new CrewScope(true, null, null);
+        }
+        Long operatorId = null;
+        // Tài xế cũng là nhân viên của nhà xe nhưng chỉ được xem chuyến mình lái
+        if (!"DRIVER".equals(role)) {
+            operatorId = busOperatorRepository.findOperatorIdByUserId(user.getId())
+                    .or(() -> employeeRepository.findOperatorIdByStaffUserId(user.getId()))
+                    .orElse(null);
+        }
+        return new CrewScope(false, user.getId(), operatorId);
+    }
+
+    /**
+     * @throws TripNotFoundException nếu chuyến không tồn tại
+     * @throws TripAccessException   nếu người dùng hiện tại không phụ trách chuyến
+     */
+    public void checkAccess(Long tripId) {
+        TripCrewRow crew = tripRepository.findCrewById(tripId)
+                .orElseThrow(TripNotFoundException::tripNotFound);
+        if (!currentScope().covers(crew.getDriverId(), crew.getOperatorId())) {
+            throw TripAccessException.notAssigned();
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.busify.project.trip.service;
 
+import com.busify.project.common.pagination.CursorPage;
 import com.busify.project.trip.dto.response.FilterResponseDTO;
 import com.busify.project.trip.dto.response.NextTripSeatsStatusResponseDTO;
 import com.busify.project.trip.dto.response.TopTripRevenueDTO;
@@ -18,6 +19,8 @@ import java.util.Map;
 public interface TripService {
     List<TripFilterResponseDTO> getAllTrips();
 
+    CursorPage<TripFilterResponseDTO> getTrips(String cursor, Integer limit);
+
     List<TripFilterResponseDTO> getTripsForCurrentDriver();
 
     FilterResponseDTO filterTrips(TripFilterRequestDTO filter, int page, int size);
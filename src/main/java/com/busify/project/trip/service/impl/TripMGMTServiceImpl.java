@@ -5,12 +5,15 @@ import com.busify.project.bus.repository.BusRepository;
 import com.busify.project.bus_operator.repository.BusOperatorRepository;
 import com.busify.project.common.dto.response.ApiResponse;
 import com.busify.project.common.exception.ErrorCode;
+import com.busify.project.common.search.SearchIndexService;
+import com.busify.project.common.search.SearchQuery;
 import com.busify.project.common.utils.JwtUtils;
 import com.busify.project.employee.entity.Employee;
 import com.busify.project.employee.repository.EmployeeRepository;
 import com.busify.project.route.entity.Route;
 import com.busify.project.route.repository.RouteRepository;
 import com.busify.project.seat_layout.entity.SeatLayout;
+import com.busify.project.seat_layout.layout.CompiledSeatLayout;
 import com.busify.project.seat_layout.repository.SeatLayoutRepository;
 import com.busify.project.trip.dto.request.TripMGMTRequestDTO;
 import com.busify.project.trip.dto.response.ReportTripResponseDTO;
@@ -23,6 +26,7 @@ import com.busify.project.trip.exception.TripNotFoundException;
 import com.busify.project.trip.exception.TripOperationException;
 import com.busify.project.trip.mapper.TripMGMTMapper;
 import com.busify.project.trip.repository.TripRepository;
+import com.busify.project.trip.search.TripSearchIndexProvider;
 import com.busify.project.trip.service.TripMGMTService;
 import com.busify.project.trip_seat.entity.TripSeat;
 import com.busify.project.trip_seat.entity.TripSeatId;
@@ -30,8 +34,6 @@ import com.busify.project.trip_seat.enums.TripSeatStatus;
 import com.busify.project.trip_seat.repository.TripSeatRepository;
 import com.busify.project.user.entity.User;
 import com.busify.project.user.repository.UserRepository;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -60,6 +62,7 @@ public class TripMGMTServiceImpl implements TripMGMTService {
     private final TripSeatRepository tripSeatRepository;
     private final BusOperatorRepository busOperatorRepository;
     private final JwtUtils jwtUtil;
+    private final SearchIndexService searchIndexService;
 
     @Override
     public TripMGMTResponseDTO addTrip(TripMGMTRequestDTO requestDTO) {
@@ -144,33 +147,20 @@ public class TripMGMTServiceImpl implements TripMGMTService {
 
     private void generateTripSeats(Trip trip, SeatLayout seatLayout) {
         try {
-            ObjectMapper mapper = new ObjectMapper();
-            JsonNode layoutData = mapper.valueToTree(seatLayout.getLayoutData());
+            CompiledSeatLayout layout = CompiledSeatLayout.compile(seatLayout);
 
-            int cols = layoutData.get("cols").asInt();
-            int rows = layoutData.get("rows").asInt();
-            int floors = layoutData.get("floors").asInt();
+            // Sinh ghế theo thứ tự của sơ đồ, tên ghế theo pattern: A.1.1 (col, row, floor)
+            List<TripSeat> tripSeats = new ArrayList<>(layout.size());
+            for (int ordinal = 0; ordinal < layout.size(); ordinal++) {
+                TripSeatId id = new TripSeatId(trip.getId(), layout.seatCodeAt(ordinal));
 
-            List<TripSeat> tripSeats = new ArrayList<>();
+                TripSeat seat = new TripSeat();
+                seat.setId(id);
+                seat.setStatus(TripSeatStatus.available); // enum
+                seat.setLockedAt(null);
+                seat.setLockingUser(null);
 
-            // Sinh tên ghế theo pattern: A.1.1 (col, row, floor)
-            for (int floor = 1; floor <= floors; floor++) {
-                for (int row = 1; row <= rows; row++) {
-                    for (int col = 0; col < cols; col++) {
-                        char colChar = (char) ('A' + col);
-                        String seatNumber = colChar + "." + row + "." + floor;
-
-                        TripSeatId id = new TripSeatId(trip.getId(), seatNumber);
-
-                        TripSeat seat = new TripSeat();
-                        seat.setId(id);
-                        seat.setStatus(TripSeatStatus.available); // enum
-                        seat.setLockedAt(null);
-                        seat.setLockingUser(null);
-
-                        tripSeats.add(seat);
-                    }
-                }
+                tripSeats.add(seat);
             }
 
             tripSeatRepository.saveAll(tripSeats);
@@ -350,7 +340,7 @@ public class TripMGMTServiceImpl implements TripMGMTService {
                     .orElseThrow(() -> new RuntimeException("Không tìm thấy Operator cho staff này"));
         }
 
-        Page<Trip> tripPage = tripRepository.searchAndFilterTrips(keyword, status, operatorId, pageable);
+        Page<Trip> tripPage = searchTrips(keyword, status, operatorId, pageable);
 
         List<TripMGMTResponseDTO> content = tripPage.stream()
                 .map(TripMGMTMapper::toTripDetailResponseDTO)
@@ -368,6 +358,21 @@ public class TripMGMTServiceImpl implements TripMGMTService {
         return ApiResponse.success("Lấy danh sách chuyến đi thành công", response);
     }
 
+    // Có từ khoá thì tìm qua chỉ mục; chỉ mục chưa sẵn sàng thì dùng truy vấn LIKE
+    private Page<Trip> searchTrips(String keyword, TripStatus status, Long operatorId, PageRequest pageable) {
+        if (keyword == null || keyword.isBlank()) {
+            return tripRepository.searchAndFilterTrips(keyword, status, operatorId, pageable);
+        }
+        SearchQuery query = SearchQuery.builder()
+                .match(keyword)
+                .filter(TripSearchIndexProvider.FILTER_STATUS, status)
+                .filter(TripSearchIndexProvider.FILTER_OPERATOR, operatorId)
+                .build();
+        return searchIndexService.search(TripSearchIndexProvider.INDEX, query, pageable)
+                .map(hits -> searchIndexService.toPage(hits, pageable, tripRepository::findAllById, Trip::getId))
+                .orElseGet(() -> tripRepository.searchAndFilterTrips(keyword, status, operatorId, pageable));
+    }
+
     public ApiResponse<List<ReportTripResponseDTO>> reportTrips(Long operatorId) {
         return ApiResponse.success(
                 "Get report data successfully",
@@ -3,20 +3,23 @@ package com.busify.project.trip.service.impl;
 import com.busify.project.booking.enums.BookingStatus;
 import com.busify.project.booking.repository.BookingRepository;
 import com.busify.project.bus_operator.repository.BusOperatorRepository;
-import com.busify.project.review.repository.ReviewRepository;
+import com.busify.project.review.enums.RatingScope;
+import com.busify.project.review.service.RatingAggregateService;
+import com.busify.project.common.pagination.CursorCodec;
+import com.busify.project.common.pagination.CursorPage;
+import com.busify.project.common.pagination.CursorPagination;
+import com.busify.project.common.pagination.KeysetQuery;
 import com.busify.project.common.utils.JwtUtils;
 import com.busify.project.audit_log.entity.AuditLog;
 import com.busify.project.audit_log.service.AuditLogService;
 import com.busify.project.trip.dto.response.*;
 import com.busify.project.user.repository.UserRepository;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.busify.project.user.entity.User;
 import com.busify.project.location.enums.LocationRegion;
 import com.busify.project.trip.entity.Trip;
 import com.busify.project.route.dto.response.RouteResponse;
-import com.busify.project.seat_layout.entity.SeatLayout;
-import com.busify.project.seat_layout.repository.SeatLayoutRepository;
+import com.busify.project.seat_layout.layout.CompiledSeatLayout;
+import com.busify.project.seat_layout.service.SeatLayoutCatalog;
 import com.busify.project.trip.dto.request.TripFilterRequestDTO;
 import com.busify.project.trip.dto.request.TripUpdateStatusRequest;
 import com.busify.project.trip.enums.TripStatus;
@@ -37,7 +40,7 @@ import com.busify.project.ticket.service.TicketService;
 import com.busify.project.booking.service.BookingService;
 import com.busify.project.bus.dto.response.BusLayoutResponseDTO;
 
-import org.springframework.beans.factory.annotation.Autowired;
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import java.time.Instant;
 import java.time.LocalDate;
@@ -52,39 +55,40 @@ import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
+@RequiredArgsConstructor
 public class TripServiceImpl implements TripService {
 
-    @Autowired
-    private TripRepository tripRepository;
-    @Autowired
-    private BusOperatorRepository busOperatorRepository;
-    @Autowired
-    private ReviewRepository reviewRepository;
-    @Autowired
-    private BookingRepository bookingRepository;
-
-    @Autowired
-    private JwtUtils jwtUtils;
-    @Autowired
-    private UserRepository userRepository;
-
-    @Autowired
-    private TicketService ticketService;
-    @Autowired
-    private BookingService bookingService;
-    @Autowired
-    private AuditLogService auditLogService;
-    @Autowired
-    private SeatLayoutRepository seatLayoutRepository;
-    @Autowired
-    private ObjectMapper objectMapper;
+    private final TripRepository tripRepository;
+    private final BusOperatorRepository busOperatorRepository;
+    private final RatingAggregateService ratingAggregateService;
+    private final BookingRepository bookingRepository;
+
+    private final JwtUtils jwtUtils;
+    private final UserRepository userRepository;
+
+    private final TicketService ticketService;
+    private final BookingService bookingService;
+    private final AuditLogService auditLogService;
+    private final SeatLayoutCatalog seatLayoutCatalog;
+    private final CursorPagination cursorPagination;
 
     @Override
     public List<TripFilterResponseDTO> getAllTrips() {
+        cursorPagination.requireBounded(tripRepository.count(), "chuyến đi");
         return tripRepository.findAll()
                 .stream()
-                .map(trip -> TripMapper.toDTO(trip, getAverageRating(trip.getId()), bookingRepository))
-                .collect(Collectors.toList());
+                .collect(Collectors.collectingAndThen(Collectors.toList(), this::toFilterDTOs));
+    }
+
+    @Override
+    public CursorPage<TripFilterResponseDTO> getTrips(String cursor, Integer limit) {
+        int pageSize = cursorPagination.limit(limit);
+        List<Trip> trips = tripRepository.findKeyset(KeysetQuery.of(Trip.class, "id")
+                .after(cursorPagination.afterId(cursor))
+                .limit(pageSize)
+                .fetch("route.startLocation", "route.endLocation", "bus.operator"));
+        return CursorPage.of(trips, pageSize, trip -> CursorCodec.encode(trip.getId()))
+                .mapAll(this::toFilterDTOs);
     }
 
     public List<TripFilterResponseDTO> getTripsForCurrentDriver() {
@@ -140,8 +144,7 @@ public class TripServiceImpl implements TripService {
         List<TripFilterResponseDTO> result = tripRepository
                 .findUpcomingTripsByDriverId(currentUser.getId(), currentTime)
                 .stream()
-                .map(trip -> TripMapper.toDTO(trip, getAverageRating(trip.getId()), bookingRepository))
-                .collect(Collectors.toList());
+                .collect(Collectors.collectingAndThen(Collectors.toList(), this::toFilterDTOs));
 
         // System.out.println("Filtered trips for current driver: " + result.size());
         // System.out.println("=== END DEBUG ===");
@@ -214,8 +217,7 @@ public class TripServiceImpl implements TripService {
                     }
                     return true;
                 })
-                .map(trip -> TripMapper.toDTO(trip, getAverageRating(trip.getId()), bookingRepository))
-                .collect(Collectors.toList());
+                .collect(Collectors.collectingAndThen(Collectors.toList(), this::toFilterDTOs));
 
         if (tripDTOs.isEmpty()) {
             return new FilterResponseDTO(
@@ -232,16 +234,18 @@ public class TripServiceImpl implements TripService {
         List<Trip> trips = tripRepository.searchTrips(departureDate, untilTime, startLocation, endLocation, status,
                 availableSeats);
         return trips.stream()
-                .map(trip -> TripMapper.toDTO(trip, getAverageRating(trip.getId()), bookingRepository))
-                .collect(Collectors.toList());
+                .collect(Collectors.collectingAndThen(Collectors.toList(), this::toFilterDTOs));
     }
 
-    private Double getAverageRating(Long tripId) {
-        Double rating = reviewRepository.findAverageRatingByTripId(tripId);
-        if (rating == null)
-            return 0.0;
-
-        return Math.round(rating * 10.0) / 10.0;
+    /**
+     * Map danh sách chuyến sang DTO, lấy điểm đánh giá đã tổng hợp của cả danh sách trong một truy vấn
+     */
+    private List<TripFilterResponseDTO> toFilterDTOs(List<Trip> trips) {
+        Map<Long, Double> ratings = ratingAggregateService.getAverageRatings(RatingScope.TRIP,
+                trips.stream().map(Trip::getId).toList());
+        return trips.stream()
+                .map(trip -> TripMapper.toDTO(trip, ratings.getOrDefault(trip.getId(), 0.0), bookingRepository))
+                .collect(Collectors.toList());
     }
 
     public List<TripResponse> findTopUpcomingTripByOperator() {
@@ -318,8 +322,7 @@ public class TripServiceImpl implements TripService {
         Long routeId = trip.getRoute().getId();
         final List<TripFilterResponseDTO> similarTrips = tripRepository.findUpcomingTripsByRouteExcludingTrip(routeId,
                 tripId).stream()
-                .map(t -> TripMapper.toDTO(t, getAverageRating(t.getId()), bookingRepository))
-                .collect(Collectors.toList());
+                .collect(Collectors.collectingAndThen(Collectors.toList(), this::toFilterDTOs));
         System.out.println("Similar trips found: " + similarTrips.get(0));
         return similarTrips;
     }
@@ -368,20 +371,13 @@ public class TripServiceImpl implements TripService {
             auditLog.setUser(currentUser);
             auditLogService.save(auditLog);
 
-            // Logic tự động hủy vé khi trip chuyển sang departed
-            int cancelledTickets = 0;
-            if (request.getStatus() == TripStatus.departed) {
-                System.out.println("=== DEBUG: Trip status changed to departed, calling auto-cancel tickets ===");
-                cancelledTickets = ticketService.autoCancelValidTicketsWhenTripDeparted(tripId);
-                System.out.println("Auto-cancelled tickets count: " + cancelledTickets);
-            }
+            // Vé chưa quét không bị huỷ lúc khởi hành: thẻ lên xe còn hạn tới sau giờ đến, vé còn valid
+            // được TripStatusTransitionService huỷ khi thẻ hết hạn, giống chuyến tự khởi hành
 
             // Logic tự động hoàn thành booking khi trip chuyển sang arrived
             int completedBookings = 0;
             if (request.getStatus() == TripStatus.arrived) {
-                System.out.println("=== DEBUG: Trip status changed to arrived, calling auto-complete bookings ===");
                 completedBookings = bookingService.markBookingsAsCompletedWhenTripArrived(tripId);
-                System.out.println("Auto-completed bookings count: " + completedBookings);
             }
 
             Map<String, Object> response = new HashMap<>();
@@ -392,13 +388,6 @@ public class TripServiceImpl implements TripService {
             response.put("newStatus", request.getStatus());
             response.put("reason", request.getReason());
 
-            // Thêm thông tin về việc tự động hủy vé
-            if (cancelledTickets > 0) {
-                response.put("autoCancelledTickets", cancelledTickets);
-                response.put("autoCancelMessage",
-                        String.format("Đã tự động hủy %d vé chưa sử dụng do chuyến đi đã khởi hành", cancelledTickets));
-            }
-
             // Thêm thông tin về việc tự động hoàn thành booking
             if (completedBookings > 0) {
                 response.put("autoCompletedBookings", completedBookings);
@@ -530,8 +519,7 @@ public class TripServiceImpl implements TripService {
 
         return tripRepository.findUpcomingTripsByDriverId(driverId, currentTime)
                 .stream()
-                .map(trip -> TripMapper.toDTO(trip, getAverageRating(trip.getId()), bookingRepository))
-                .collect(Collectors.toList());
+                .collect(Collectors.collectingAndThen(Collectors.toList(), this::toFilterDTOs));
     }
 
     @Override
@@ -576,17 +564,12 @@ public class TripServiceImpl implements TripService {
     public NextTripSeatsStatusResponseDTO getNextTripSeatsStatus(Long tripId) {
         tripRepository.findById(tripId)
                 .orElseThrow(() -> new IllegalArgumentException("Không tìm thấy chuyến đi với ID: " + tripId));
-        final Optional<SeatLayout> seatLayout = seatLayoutRepository.findSeatLayoutByTripId(tripId);
-        if (seatLayout.isEmpty()) {
-            throw new IllegalArgumentException("Chưa có sơ đồ ghế cho chuyến đi với ID: " + tripId);
-        }
+        final CompiledSeatLayout layout = seatLayoutCatalog.forTrip(tripId)
+                .orElseThrow(() -> new IllegalArgumentException("Chưa có sơ đồ ghế cho chuyến đi với ID: " + tripId));
         NextTripSeatStatusDTO response = tripRepository.getNextTripSeatStatus(tripId);
 
-        JsonNode layout = objectMapper.convertValue(seatLayout.get().getLayoutData(), JsonNode.class);
-        int rows = layout.get("rows").asInt();
-        int columns = layout.get("cols").asInt();
-        int floors = layout.has("floors") ? layout.get("floors").asInt() : 1;
-        final BusLayoutResponseDTO busLayout = new BusLayoutResponseDTO(rows, columns, floors);
+        final BusLayoutResponseDTO busLayout = new BusLayoutResponseDTO(layout.getRows(), layout.getCols(),
+                layout.getFloors());
 
         final List<TicketSeatStatusReponse> seatStatuses = ticketService.getTicketSeatStatusByTripId(tripId);
 
@@ -0,0 +1,239 @@
+package com.busify.project.trip.transition;
+
+import com.busify.project.audit_log.entity.AuditLog;
+import com.busify.project.audit_log.service.AuditLogService;
+import com.busify.project.booking.repository.BookingRepository;
+import com.busify.project.common.job.JobCoordinator;
+import com.busify.project.ticket.dto.response.ExpiredTicketRow;
+import com.busify.project.ticket.enums.TicketStatus;
+import com.busify.project.ticket.event.TicketStatusChangedEvent;
+import com.busify.project.ticket.repository.TicketRepository;
+import com.busify.project.trip.enums.TripStatus;
+import com.busify.project.trip.event.TripsTransitionedEvent;
+import com.busify.project.trip.repository.TripRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Tự chuyển chuyến theo giờ: {@code scheduled/on_sell → departed} khi tới giờ khởi hành,
+ * {@code departed → arrived} khi quá giờ đến dự kiến.
+ * <p>
+ * Mỗi lô chỉ gồm vài câu lệnh theo tập: khoá tối đa {@code batch-size} chuyến đến hạn (SKIP LOCKED),
+ * đổi trạng thái cả lô bằng một câu UPDATE, hoàn thành booking đã xác nhận của các chuyến đến nơi và ghi
+ * một dòng audit cho cả lô. Mỗi lô phát một {@link TripsTransitionedEvent} sau khi commit. Chuyến
+ * {@code delayed} không tự khởi hành vì giờ khởi hành cũ không còn đúng. Mốc thời gian cố định lúc bắt đầu
+ * lượt; hết {@code max-run-time} thì để lượt sau.
+ * </p>
+ * <p>
+ * Vé chưa quét không bị huỷ lúc khởi hành: tài xế quét thẻ khi không có mạng và đồng bộ sau
+ * ({@code CheckInSyncService}), thẻ còn hạn tới {@code busify.boarding.valid-after-arrival-hours} sau giờ đến.
+ * Khi thẻ đã hết hạn, bước cuối của mỗi lượt huỷ các vé còn {@code valid} của chuyến đã khởi hành hoặc đã
+ * đến nơi, theo lô bằng một câu UPDATE, bất kể chuyến được chuyển trạng thái tự động hay bằng tay.
+ * </p>
+ */
+@Service
+@Slf4j
+public class TripStatusTransitionService {
+
+    static final String JOB_NAME = "trip-status-transition";
+
+    private static final List<String> DEPARTURE_FROM = List.of(TripStatus.scheduled.name(), TripStatus.on_sell.name());
+    private static final List<String> ARRIVAL_FROM = List.of(TripStatus.departed.name());
+    private static final List<String> TICKET_CLOSE_TRIP_STATUSES = List.of(TripStatus.departed.name(),
+            TripStatus.arrived.name());
+
+    private final TripRepository tripRepository;
+    private final BookingRepository bookingRepository;
+    private final TicketRepository ticketRepository;
+    private final AuditLogService auditLogService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final JobCoordinator jobCoordinator;
+    private final TripTransitionProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration passValidityAfterArrival;
+    private final Clock clock;
+
+    @Autowired
+    public TripStatusTransitionService(TripRepository tripRepository,
+            BookingRepository bookingRepository,
+            TicketRepository ticketRepository,
+            AuditLogService auditLogService,
+            ApplicationEventPublisher eventPublisher,
+            JobCoordinator jobCoordinator,
+            TripTransitionProperties properties,
+            PlatformTransactionManager transactionManager,
+            @Value("${busify.boarding.valid-after-arrival-hours:6}") long validAfterArrivalHours) {
+        this(tripRepository, bookingRepository, ticketRepository, auditLogService, eventPublisher, jobCoordinator,
+                properties, transactionManager, Duration.ofHours(validAfterArrivalHours), Clock.systemUTC());
+    }
+
+    TripStatusTransitionService(TripRepository tripRepository,
+            BookingRepository bookingRepository,
+            TicketRepository ticketRepository,
+            AuditLogService auditLogService,
+            ApplicationEventPublisher eventPublisher,
+            JobCoordinator jobCoordinator,
+            TripTransitionProperties properties,
+            PlatformTransactionManager transactionManager,
+            Duration passValidityAfterArrival,
+            Clock clock) {
+        this.tripRepository = tripRepository;
+        this.bookingRepository = bookingRepository;
+        this.ticketRepository = ticketRepository;
+        this.auditLogService = auditLogService;
+        this.eventPublisher = eventPublisher;
+        this.jobCoordinator = jobCoordinator;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.passValidityAfterArrival = passValidityAfterArrival;
+        this.clock = clock;
+    }
+
+    @Scheduled(fixedDelayString = "${busify.trip-transition.poll-ms:60000}")
+    public void runScheduled() {
+        if (properties.isEnabled()) {
+            jobCoordinator.runExclusive(JOB_NAME, this::advanceDueTrips);
+        }
+    }
+
+    /**
+     * Chuyển mọi chuyến đã đến hạn. Khởi hành chạy trước để chuyến bị bỏ sót lâu (ví dụ job tắt cả ngày)
+     * đi tiếp sang {@code arrived} ngay trong lượt này.
+     */
+    public void advanceDueTrips() {
+        Instant now = clock.instant();
+        long deadline = System.nanoTime() + properties.getMaxRunTime().toNanos();
+        int departed = drain(TripStatus.departed, now.minus(properties.getDepartureGrace()), deadline);
+        int arrived = drain(TripStatus.arrived, now.minus(properties.getArrivalGrace()), deadline);
+        int closedTickets = drainExpiredTickets(now.minus(passValidityAfterArrival), deadline);
+        if (departed > 0 || arrived > 0 || closedTickets > 0) {
+            log.info("Tự chuyển trạng thái chuyến: {} khởi hành, {} đến nơi, huỷ {} vé hết hạn", departed, arrived,
+                    closedTickets);
+        }
+    }
+
+    /**
+     * @return số chuyến đã chuyển sang {@code target}
+     */
+    int drain(TripStatus target, Instant cutoff, long deadlineNanos) {
+        int total = 0;
+        int batch;
+        do {
+            batch = transactionTemplate.execute(status -> advanceBatch(target, cutoff));
+            total += batch;
+        } while (batch >= properties.getBatchSize() && System.nanoTime() < deadlineNanos);
+        return total;
+    }
+
+    /**
+     * @return số vé chưa quét đã bị huỷ vì thẻ lên xe hết hạn
+     */
+    int drainExpiredTickets(Instant arrivedBefore, long deadlineNanos) {
+        int total = 0;
+        int batch;
+        do {
+            batch = transactionTemplate.execute(status -> closeExpiredTicketsBatch(arrivedBefore));
+            total += batch;
+        } while (batch >= properties.getBatchSize() && System.nanoTime() < deadlineNanos);
+        return total;
+    }
+
+    private int closeExpiredTicketsBatch(Instant arrivedBefore) {
+        List<ExpiredTicketRow> rows = ticketRepository.findValidTicketsPastArrival(TICKET_CLOSE_TRIP_STATUSES,
+                arrivedBefore, properties.getBatchSize());
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        Map<Long, List<Long>> ticketIdsByTrip = rows.stream().collect(Collectors.groupingBy(
+                ExpiredTicketRow::getTripId, LinkedHashMap::new,
+                Collectors.mapping(ExpiredTicketRow::getTicketId, Collectors.toList())));
+        List<Long> ticketIds = rows.stream().map(ExpiredTicketRow::getTicketId).toList();
+
+        int cancelled = ticketRepository.cancelValidTicketsByIds(ticketIds);
+        saveTicketAuditLog(ticketIdsByTrip.keySet(), cancelled);
+        Instant changedAt = clock.instant();
+        ticketIdsByTrip.forEach((tripId, ids) -> eventPublisher.publishEvent(
+                new TicketStatusChangedEvent(this, tripId, ids, TicketStatus.cancelled, changedAt)));
+        log.debug("Huỷ {} vé hết hạn của {} chuyến", cancelled, ticketIdsByTrip.size());
+        // Đếm theo số dòng đã đọc để vòng lặp biết còn lô tiếp theo
+        return rows.size();
+    }
+
+    private int advanceBatch(TripStatus target, Instant cutoff) {
+        int limit = properties.getBatchSize();
+        List<Long> tripIds;
+        List<String> from;
+        if (target == TripStatus.departed) {
+            from = DEPARTURE_FROM;
+            tripIds = tripRepository.lockDueForDeparture(from, cutoff, limit);
+        } else {
+            from = ARRIVAL_FROM;
+            tripIds = tripRepository.lockDueForArrival(from, cutoff, limit);
+        }
+        if (tripIds.isEmpty()) {
+            return 0;
+        }
+
+        tripRepository.transitionStatus(tripIds, from, target.name());
+        int completedBookings = target == TripStatus.arrived
+                ? bookingRepository.markBookingsAsCompletedByTripIds(tripIds)
+                : 0;
+        saveAuditLog(tripIds, target, completedBookings);
+        eventPublisher.publishEvent(new TripsTransitionedEvent(this, tripIds, target, completedBookings,
+                clock.instant()));
+        log.debug("Chuyển {} chuyến sang {}: hoàn thành {} booking", tripIds.size(), target, completedBookings);
+        return tripIds.size();
+    }
+
+    /**
+     * Một dòng audit cho cả lô, tương ứng dòng {@code UPDATE TRIP_STATUS} khi đổi tay; không có người thực hiện
+     */
+    private void saveAuditLog(List<Long> tripIds, TripStatus target, int completedBookings) {
+        try {
+            AuditLog auditLog = new AuditLog();
+            auditLog.setAction("AUTO_UPDATE");
+            auditLog.setTargetEntity("TRIP_STATUS");
+            auditLog.setDetails(String.format(
+                    "{\"newStatus\":\"%s\",\"tripIds\":[%s],\"completedBookings\":%d,\"reason\":\"Scheduled time reached\"}",
+                    target, tripIds.stream().map(String::valueOf).collect(Collectors.joining(",")),
+                    completedBookings));
+            auditLogService.save(auditLog);
+        } catch (Exception e) {
+            log.error("Không thể ghi audit log cho lô {} chuyến sang {}: {}", tripIds.size(), target, e.getMessage());
+        }
+    }
+
+    /**
+     * Một dòng audit cho mỗi lô vé bị huỷ vì thẻ lên xe hết hạn
+     */
+    private void saveTicketAuditLog(Collection<Long> tripIds, int cancelledTickets) {
+        try {
+            AuditLog auditLog = new AuditLog();
+            auditLog.setAction("AUTO_CANCEL_TICKETS");
+            auditLog.setTargetEntity("TRIP");
+            auditLog.setDetails(String.format(
+                    "{\"tripIds\":[%s],\"cancelled_tickets_count\":%d,\"reason\":\"Boarding pass expired after arrival\"}",
+                    tripIds.stream().map(String::valueOf).collect(Collectors.joining(",")), cancelledTickets));
+            auditLogService.save(auditLog);
+        } catch (Exception e) {
+            log.error("Không thể ghi audit log cho lô {} vé hết hạn: {}", cancelledTickets, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.busify.project.trip.transition;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Cấu hình job tự chuyển trạng thái chuyến theo giờ ({@code busify.trip-transition.*})
+ */
+@Configuration
+@ConfigurationProperties(prefix = "busify.trip-transition")
+@Data
+public class TripTransitionProperties {
+
+    private boolean enabled = true;
+
+    // Số chuyến tối đa mỗi câu UPDATE (và mỗi transaction)
+    private int batchSize = 500;
+
+    // Chuyển sang departed khi đã quá giờ khởi hành bao lâu
+    private Duration departureGrace = Duration.ZERO;
+
+    // Chuyển sang arrived khi đã quá giờ đến dự kiến bao lâu, để tài xế kịp tự cập nhật nếu đến trễ
+    private Duration arrivalGrace = Duration.ofMinutes(30);
+
+    // Một lượt dừng sau thời gian này, phần còn lại để lượt sau
+    private Duration maxRunTime = Duration.ofMinutes(5);
+}
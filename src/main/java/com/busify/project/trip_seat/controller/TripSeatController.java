@@ -2,6 +2,7 @@ package com.busify.project.trip_seat.controller;
 
 import com.busify.project.common.dto.response.ApiResponse;
 import com.busify.project.trip_seat.dto.TripSeatsStatusReponse;
+import com.busify.project.trip_seat.services.SeatInventoryService;
 import com.busify.project.trip_seat.services.TripSeatService;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -12,6 +13,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
@@ -21,6 +23,9 @@ public class TripSeatController {
     @Autowired
     private TripSeatService tripSeatService;
 
+    @Autowired
+    private SeatInventoryService seatInventoryService;
+
     @Operation(summary = "Get seat availability by trip ID")
     @GetMapping("/{tripId}")
     public ResponseEntity<ApiResponse<TripSeatsStatusReponse>> getSeatAvailability(@PathVariable Long tripId) {
@@ -31,4 +36,24 @@ public class TripSeatController {
                 response);
         return ResponseEntity.ok(apiResponse);
     }
-}
\ No newline at end of file
+
+    /**
+     * Trạng thái ghế cho một đoạn đi: ghế chỉ bị bán ở chặng khác vẫn trống
+     * GET /api/trip-seats/{tripId}/segments?pickupLocationId=3&dropoffLocationId=7
+     */
+    @Operation(summary = "Get seat availability for a pickup/drop-off segment of a trip")
+    @GetMapping("/{tripId}/segments")
+    public ResponseEntity<ApiResponse<TripSeatsStatusReponse>> getSegmentSeatAvailability(
+            @PathVariable Long tripId,
+            @RequestParam(required = false) Long pickupLocationId,
+            @RequestParam(required = false) Long dropoffLocationId) {
+        long segmentMask = seatInventoryService.segmentMask(tripId, pickupLocationId, dropoffLocationId);
+        if (segmentMask == 0L) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.badRequest("Điểm lên/xuống không thuộc tuyến của chuyến đi"));
+        }
+        TripSeatsStatusReponse response = new TripSeatsStatusReponse(tripId,
+                seatInventoryService.getSeatStatuses(tripId, segmentMask));
+        return ResponseEntity.ok(ApiResponse.success("Trip segment seats status fetched successfully", response));
+    }
+}
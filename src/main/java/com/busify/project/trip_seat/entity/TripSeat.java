@@ -11,7 +11,11 @@ import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import org.springframework.data.domain.Persistable;
 import lombok.*;
 
 @Entity
@@ -21,7 +25,7 @@ import lombok.*;
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
-public class TripSeat {
+public class TripSeat implements Persistable<TripSeatId> {
     @EmbeddedId
     private TripSeatId id;
 
@@ -35,4 +39,30 @@ public class TripSeat {
     @ManyToOne
     @JoinColumn(name = "locking_user_id")
     private User lockingUser;
+
+    // Các chặng đang giữ chỗ / đã bán của ghế, xem SeatSegments
+    @Column(name = "locked_segments", nullable = false, columnDefinition = "BIGINT NOT NULL DEFAULT 0")
+    private long lockedSegments;
+
+    @Column(name = "booked_segments", nullable = false, columnDefinition = "BIGINT NOT NULL DEFAULT 0")
+    private long bookedSegments;
+
+    // Khoá do ứng dụng gán sẵn: không có cờ này saveAll() sẽ merge (SELECT từng ghế) thay vì persist theo batch
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private boolean newSeat = true;
+
+    @Override
+    public boolean isNew() {
+        return newSeat;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        newSeat = false;
+    }
 }
@@ -40,4 +40,96 @@ public interface TripSeatRepository extends JpaRepository<TripSeat, TripSeatId>
 
     @Query("SELECT COUNT(ts) FROM TripSeat ts WHERE ts.id.tripId = :tripId AND ts.status = :status")
     int countByTripIdAndStatus(@Param("tripId") Long tripId, @Param("status") com.busify.project.trip_seat.enums.TripSeatStatus status);
-}
\ No newline at end of file
+
+    // ===== Tồn kho theo chặng: mỗi câu lệnh là một UPDATE nguyên tử trên một dòng =====
+    // MySQL gán các cột theo thứ tự, nên status được tính từ giá trị mặt nạ vừa cập nhật
+
+    @Modifying
+    @Query(value = """
+            UPDATE trip_seats
+            SET locked_segments = locked_segments | :mask,
+                locked_at = NOW(),
+                locking_user_id = :userId,
+                status = CASE WHEN booked_segments <> 0 THEN 'booked'
+                              WHEN locked_segments <> 0 THEN 'locked'
+                              ELSE 'available' END
+            WHERE trip_id = :tripId AND seat_number = :seatNumber
+                AND ((locked_segments | booked_segments) & :mask) = 0
+            """, nativeQuery = true)
+    int holdSegments(@Param("tripId") Long tripId,
+            @Param("seatNumber") String seatNumber,
+            @Param("mask") long mask,
+            @Param("userId") Long userId);
+
+    @Modifying
+    @Query(value = """
+            UPDATE trip_seats
+            SET locked_segments = locked_segments & ~:mask,
+                locked_at = CASE WHEN locked_segments = 0 THEN NULL ELSE locked_at END,
+                locking_user_id = CASE WHEN locked_segments = 0 THEN NULL ELSE locking_user_id END,
+                status = CASE WHEN booked_segments <> 0 THEN 'booked'
+                              WHEN locked_segments <> 0 THEN 'locked'
+                              ELSE 'available' END
+            WHERE trip_id = :tripId AND seat_number = :seatNumber
+            """, nativeQuery = true)
+    int releaseHeldSegments(@Param("tripId") Long tripId,
+            @Param("seatNumber") String seatNumber,
+            @Param("mask") long mask);
+
+    /**
+     * (lockedSegments, bookedSegments) của ghế, khoá dòng đến hết transaction để xác nhận ngay sau đó
+     */
+    @Query(value = """
+            SELECT locked_segments, booked_segments FROM trip_seats
+            WHERE trip_id = :tripId AND seat_number = :seatNumber
+            FOR UPDATE
+            """, nativeQuery = true)
+    List<Object[]> lockSegments(@Param("tripId") Long tripId, @Param("seatNumber") String seatNumber);
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO trip_seats (seat_number, trip_id, status, locked_segments, booked_segments)
+            VALUES (:seatNumber, :tripId, 'booked', 0, :mask)
+            ON DUPLICATE KEY UPDATE
+                booked_segments = booked_segments | :mask,
+                locked_segments = locked_segments & ~:mask,
+                locked_at = CASE WHEN locked_segments = 0 THEN NULL ELSE locked_at END,
+                locking_user_id = CASE WHEN locked_segments = 0 THEN NULL ELSE locking_user_id END,
+                status = CASE WHEN booked_segments <> 0 THEN 'booked'
+                              WHEN locked_segments <> 0 THEN 'locked'
+                              ELSE 'available' END
+            """, nativeQuery = true)
+    int confirmSegments(@Param("tripId") Long tripId,
+            @Param("seatNumber") String seatNumber,
+            @Param("mask") long mask);
+
+    @Modifying
+    @Query(value = """
+            UPDATE trip_seats
+            SET booked_segments = booked_segments & ~:mask,
+                status = CASE WHEN booked_segments <> 0 THEN 'booked'
+                              WHEN locked_segments <> 0 THEN 'locked'
+                              ELSE 'available' END
+            WHERE trip_id = :tripId AND seat_number = :seatNumber
+            """, nativeQuery = true)
+    int releaseBookedSegments(@Param("tripId") Long tripId,
+            @Param("seatNumber") String seatNumber,
+            @Param("mask") long mask);
+
+    /**
+     * (seatNumber, lockedSegments, bookedSegments) của mọi ghế trong chuyến
+     */
+    @Query("SELECT ts.id.seatNumber, ts.lockedSegments, ts.bookedSegments FROM TripSeat ts WHERE ts.id.tripId = :tripId")
+    List<Object[]> findSegmentOccupancy(@Param("tripId") Long tripId);
+
+    // Ghế được khoá/bán trước khi có tồn kho theo chặng: coi như chiếm cả chuyến
+    @Modifying
+    @Transactional
+    @Query(value = """
+            UPDATE trip_seats
+            SET booked_segments = CASE WHEN status = 'booked' THEN :wholeTrip ELSE booked_segments END,
+                locked_segments = CASE WHEN status = 'locked' THEN :wholeTrip ELSE locked_segments END
+            WHERE status <> 'available' AND locked_segments = 0 AND booked_segments = 0
+            """, nativeQuery = true)
+    int backfillLegacySegments(@Param("wholeTrip") long wholeTrip);
+}
@@ -0,0 +1,11 @@
+package com.busify.project.trip_seat.segment;
+
+/**
+ * Các chặng đang bị giữ chỗ ({@code lockedSegments}) và đã bán ({@code bookedSegments}) của một ghế
+ */
+public record SeatOccupancy(String seatNumber, long lockedSegments, long bookedSegments) {
+
+    public long occupied() {
+        return lockedSegments | bookedSegments;
+    }
+}
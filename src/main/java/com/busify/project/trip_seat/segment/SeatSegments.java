@@ -0,0 +1,65 @@
+package com.busify.project.trip_seat.segment;
+
+import java.util.List;
+
+/**
+ * Mặt nạ bit cho các chặng của một chuyến: bit i là chặng từ điểm dừng thứ i tới điểm dừng thứ i + 1
+ * (điểm 0 là điểm đầu tuyến, tiếp theo là các route stop theo stopOrder, cuối cùng là điểm cuối tuyến).
+ * <p>
+ * Chỉ dùng 63 bit thấp để giá trị luôn là BIGINT có dấu dương trong MySQL
+ * (phép {@code & ~mask} trả về số không dấu).
+ * </p>
+ */
+public final class SeatSegments {
+
+    public static final int MAX_SEGMENTS = 63;
+
+    /**
+     * Cả chuyến, dùng cho booking không chọn điểm lên/xuống
+     */
+    public static final long WHOLE_TRIP = Long.MAX_VALUE;
+
+    private SeatSegments() {
+    }
+
+    /**
+     * Mặt nạ cho các chặng [from, to)
+     */
+    public static long range(int from, int to) {
+        if (from < 0 || to > MAX_SEGMENTS || from >= to) {
+            throw new IllegalArgumentException("Invalid segment range [" + from + ", " + to + ")");
+        }
+        long upTo = to == MAX_SEGMENTS ? WHOLE_TRIP : (1L << to) - 1;
+        return upTo & ~((1L << from) - 1);
+    }
+
+    /**
+     * Mặt nạ giữa hai location trên danh sách điểm dừng của chuyến;
+     * {@code null} nghĩa là điểm đầu (lên) hoặc điểm cuối (xuống)
+     *
+     * @return mặt nạ, hoặc {@code 0} nếu không có điểm hoặc điểm lên không đứng trước điểm xuống
+     */
+    public static long between(List<Long> stopLocationIds, Long pickupLocationId, Long dropoffLocationId) {
+        if (pickupLocationId == null && dropoffLocationId == null) {
+            return WHOLE_TRIP;
+        }
+        int from = pickupLocationId == null ? 0 : stopLocationIds.indexOf(pickupLocationId);
+        int to = dropoffLocationId == null ? stopLocationIds.size() - 1 : stopLocationIds.lastIndexOf(dropoffLocationId);
+        if (from < 0 || to <= from || to > MAX_SEGMENTS) {
+            return 0L;
+        }
+        // Toàn tuyến vẫn dùng WHOLE_TRIP để khớp với booking cũ
+        return from == 0 && to == stopLocationIds.size() - 1 ? WHOLE_TRIP : range(from, to);
+    }
+
+    public static boolean isFree(long occupied, long mask) {
+        return (occupied & mask) == 0;
+    }
+
+    /**
+     * Mọi chặng trong {@code mask} đang được giữ và chưa chặng nào bán, tức là có thể xác nhận an toàn
+     */
+    public static boolean isHeldOnly(long locked, long booked, long mask) {
+        return (locked & mask) == mask && (booked & mask) == 0;
+    }
+}
@@ -0,0 +1,59 @@
+package com.busify.project.trip_seat.services;
+
+import com.busify.project.trip_seat.repository.TripSeatRepository;
+import com.busify.project.trip_seat.segment.SeatOccupancy;
+import com.busify.project.trip_seat.segment.SeatSegments;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * {@link SeatSegmentStore} trên bảng trip_seats: kiểm tra và cập nhật mặt nạ trong cùng một câu UPDATE
+ * nên hai yêu cầu đồng thời không thể cùng giữ một chặng.
+ */
+@Component
+@RequiredArgsConstructor
+public class JpaSeatSegmentStore implements SeatSegmentStore {
+
+    private final TripSeatRepository tripSeatRepository;
+
+    @Override
+    @Transactional
+    public boolean hold(Long tripId, String seatNumber, long mask, Long userId) {
+        return tripSeatRepository.holdSegments(tripId, seatNumber, mask, userId) == 1;
+    }
+
+    @Override
+    @Transactional
+    public void releaseHold(Long tripId, String seatNumber, long mask) {
+        tripSeatRepository.releaseHeldSegments(tripId, seatNumber, mask);
+    }
+
+    @Override
+    @Transactional
+    public boolean confirm(Long tripId, String seatNumber, long mask) {
+        List<Object[]> current = tripSeatRepository.lockSegments(tripId, seatNumber);
+        tripSeatRepository.confirmSegments(tripId, seatNumber, mask);
+        if (current.isEmpty()) {
+            return true;
+        }
+        Object[] row = current.get(0);
+        return SeatSegments.isHeldOnly(((Number) row[0]).longValue(), ((Number) row[1]).longValue(), mask);
+    }
+
+    @Override
+    @Transactional
+    public void releaseBooked(Long tripId, String seatNumber, long mask) {
+        tripSeatRepository.releaseBookedSegments(tripId, seatNumber, mask);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<SeatOccupancy> occupancy(Long tripId) {
+        return tripSeatRepository.findSegmentOccupancy(tripId).stream()
+                .map(row -> new SeatOccupancy((String) row[0], (Long) row[1], (Long) row[2]))
+                .toList();
+    }
+}
@@ -0,0 +1,158 @@
+package com.busify.project.trip_seat.services;
+
+import com.busify.project.booking.entity.Bookings;
+import com.busify.project.route_stop.repository.RouteStopRepository;
+import com.busify.project.trip.repository.TripRepository;
+import com.busify.project.trip_seat.dto.SeatStatus;
+import com.busify.project.trip_seat.enums.TripSeatStatus;
+import com.busify.project.trip_seat.repository.TripSeatRepository;
+import com.busify.project.trip_seat.segment.SeatOccupancy;
+import com.busify.project.trip_seat.segment.SeatSegments;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Tồn kho ghế theo chặng: một ghế có thể bán cho nhiều hành khách nếu các đoạn đi không chồng nhau.
+ * <p>
+ * Booking không chọn điểm lên/xuống chiếm {@link SeatSegments#WHOLE_TRIP} như trước đây.
+ * Cột {@code status} của trip_seats vẫn được cập nhật (booked nếu có chặng đã bán, locked nếu có chặng
+ * đang giữ) để sơ đồ ghế cũ tiếp tục hoạt động.
+ * </p>
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SeatInventoryService {
+
+    private final SeatSegmentStore seatSegmentStore;
+    private final TripSeatRepository tripSeatRepository;
+    private final TripRepository tripRepository;
+    private final RouteStopRepository routeStopRepository;
+
+    /**
+     * Mặt nạ chặng giữa điểm lên và điểm xuống của chuyến; {@code null} là điểm đầu/cuối tuyến
+     *
+     * @return {@code 0} nếu điểm lên/xuống không nằm trên tuyến theo đúng thứ tự
+     */
+    public long segmentMask(Long tripId, Long pickupLocationId, Long dropoffLocationId) {
+        if (pickupLocationId == null && dropoffLocationId == null) {
+            return SeatSegments.WHOLE_TRIP;
+        }
+        List<Object[]> endpoints = tripRepository.findRouteEndpointsByTripId(tripId);
+        if (endpoints.isEmpty()) {
+            return 0L;
+        }
+        Object[] route = endpoints.get(0);
+        List<Long> stops = new ArrayList<>();
+        stops.add((Long) route[1]);
+        stops.addAll(routeStopRepository.findStopLocationIds((Long) route[0]));
+        stops.add((Long) route[2]);
+        return SeatSegments.between(stops, pickupLocationId, dropoffLocationId);
+    }
+
+    /**
+     * Mặt nạ đã lưu trên booking; booking cũ (chưa có mặt nạ) chiếm cả chuyến
+     */
+    public long segmentMask(Bookings booking) {
+        return booking.getSegmentMask() == null ? SeatSegments.WHOLE_TRIP : booking.getSegmentMask();
+    }
+
+    /**
+     * Giữ chỗ tất cả ghế hoặc không ghế nào
+     *
+     * @return {@code false} nếu có ghế đã bị chiếm một phần trong các chặng yêu cầu
+     */
+    public boolean holdSeats(Long tripId, Collection<String> seatNumbers, long mask, Long userId) {
+        List<String> ordered = inLockOrder(seatNumbers);
+        List<String> held = new ArrayList<>(ordered.size());
+        for (String seatNumber : ordered) {
+            if (!seatSegmentStore.hold(tripId, seatNumber, mask, userId)) {
+                held.forEach(seat -> seatSegmentStore.releaseHold(tripId, seat, mask));
+                return false;
+            }
+            held.add(seatNumber);
+        }
+        return true;
+    }
+
+    public void releaseHolds(Long tripId, Collection<String> seatNumbers, long mask) {
+        inLockOrder(seatNumbers).forEach(seat -> seatSegmentStore.releaseHold(tripId, seat, mask));
+    }
+
+    /**
+     * Xác nhận đã bán; không chặn vì khách đã thanh toán, chỉ cảnh báo ghế bị bán trùng
+     * (giữ chỗ hết hạn trước khi thanh toán xong và chặng đã sang người khác)
+     *
+     * @return {@code false} nếu có ghế xung đột cần xử lý tay
+     */
+    public boolean confirmSeats(Long tripId, Collection<String> seatNumbers, long mask) {
+        boolean clean = true;
+        for (String seat : inLockOrder(seatNumbers)) {
+            if (!seatSegmentStore.confirm(tripId, seat, mask)) {
+                log.warn("Ghế {} của chuyến {} bị xác nhận trùng chặng (mask {}): giữ chỗ đã hết hạn "
+                        + "hoặc chặng đã được giữ/bán cho khách khác", seat, tripId, mask);
+                clean = false;
+            }
+        }
+        return clean;
+    }
+
+    public void releaseSeats(Long tripId, Collection<String> seatNumbers, long mask) {
+        inLockOrder(seatNumbers).forEach(seat -> seatSegmentStore.releaseBooked(tripId, seat, mask));
+    }
+
+    /**
+     * Trạng thái từng ghế cho đoạn đi {@code mask}: ghế chỉ bị bán ở chặng khác vẫn là available
+     */
+    public List<SeatStatus> getSeatStatuses(Long tripId, long mask) {
+        List<SeatOccupancy> occupancy = seatSegmentStore.occupancy(tripId);
+        List<SeatStatus> result = new ArrayList<>(occupancy.size());
+        for (SeatOccupancy seat : occupancy) {
+            TripSeatStatus status = !SeatSegments.isFree(seat.bookedSegments(), mask) ? TripSeatStatus.booked
+                    : !SeatSegments.isFree(seat.lockedSegments(), mask) ? TripSeatStatus.locked
+                    : TripSeatStatus.available;
+            result.add(new SeatStatus(seat.seatNumber(), status));
+        }
+        return result;
+    }
+
+    public int countAvailableSeats(Long tripId, long mask) {
+        int count = 0;
+        for (SeatOccupancy seat : seatSegmentStore.occupancy(tripId)) {
+            if (SeatSegments.isFree(seat.occupied(), mask)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Mọi giao dịch khoá các dòng trip_seats theo cùng thứ tự số ghế, để hai booking nhiều ghế
+     * chọn ghế theo thứ tự khác nhau không chờ khoá lẫn nhau (deadlock InnoDB)
+     */
+    private static List<String> inLockOrder(Collection<String> seatNumbers) {
+        return seatNumbers.stream().sorted().toList();
+    }
+
+    /**
+     * Ghế đã khoá/bán trước khi có tồn kho theo chặng được coi là chiếm cả chuyến
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillLegacySeats() {
+        try {
+            int updated = tripSeatRepository.backfillLegacySegments(SeatSegments.WHOLE_TRIP);
+            if (updated > 0) {
+                log.info("Đã chuyển {} ghế cũ sang tồn kho theo chặng", updated);
+            }
+        } catch (Exception e) {
+            log.error("Không thể chuyển ghế cũ sang tồn kho theo chặng: {}", e.getMessage(), e);
+        }
+    }
+}
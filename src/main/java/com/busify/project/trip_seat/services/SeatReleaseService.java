@@ -3,11 +3,10 @@ package com.busify.project.trip_seat.services;
 import com.busify.project.booking.entity.Bookings;
 import com.busify.project.booking.enums.BookingStatus;
 import com.busify.project.booking.repository.BookingRepository;
+import com.busify.project.common.job.JobCoordinator;
 import com.busify.project.payment.enums.PaymentStatus;
 import com.busify.project.promotion.entity.Promotion;
 import com.busify.project.promotion.service.impl.PromotionServiceImpl;
-import com.busify.project.trip_seat.enums.TripSeatStatus;
-import com.busify.project.trip_seat.repository.TripSeatRepository;
 import com.busify.project.user.entity.Profile;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -19,6 +18,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
@@ -30,8 +30,12 @@ import java.util.concurrent.TimeUnit;
 @Slf4j
 public class SeatReleaseService {
 
-    private final TripSeatRepository tripSeatRepository;
+    private static final String PERIODIC_CHECK_JOB = "seat-release-check";
+    private static final int DEFAULT_PERIODIC_CHECK_PARTITIONS = 4;
+
+    private final SeatInventoryService seatInventoryService;
     private final BookingRepository bookingRepository;
+    private final JobCoordinator jobCoordinator;
     // private final PromotionServiceImpl promotionService;
 
     private final Map<Long, CompletableFuture<Void>> activeReleaseTasks = new ConcurrentHashMap<>();
@@ -72,36 +76,42 @@ public class SeatReleaseService {
 
     /**
      * Periodic backup mechanism: Check for expired bookings every 5 minutes
-     * This catches any seats that might have been missed by the in-memory tasks
+     * This catches any seats that might have been missed by the in-memory tasks.
+     * Bookings được chia theo id thành các phân vùng có lease riêng, nên mỗi instance quét một phần
+     * thay vì mọi instance cùng quét toàn bộ.
      */
     @Scheduled(fixedRate = 5 * 60 * 1000) // Run every 5 minutes
     @Transactional
     public void periodicExpiredSeatsCheck() {
         log.debug("Running periodic check for expired seat reservations...");
 
-        try {
-            LocalDateTime cutoffTime = LocalDateTime.now().minusMinutes(15);
-            List<Bookings> expiredBookings = bookingRepository.findExpiredPendingBookings(
-                    cutoffTime.atZone(java.time.ZoneId.systemDefault()).toInstant());
-
-            if (!expiredBookings.isEmpty()) {
-                log.info("Periodic check found {} expired bookings", expiredBookings.size());
-
-                for (Bookings booking : expiredBookings) {
-                    try {
-                        // Only process if not already handled by in-memory task
-                        if (!activeReleaseTasks.containsKey(booking.getId())) {
-                            releaseExpiredBooking(booking);
-                            log.info("Periodic check released booking ID: {}", booking.getId());
+        LocalDateTime cutoffTime = LocalDateTime.now().minusMinutes(15);
+        int partitions = jobCoordinator.partitionsFor(PERIODIC_CHECK_JOB, DEFAULT_PERIODIC_CHECK_PARTITIONS);
+        jobCoordinator.runPartitioned(PERIODIC_CHECK_JOB, DEFAULT_PERIODIC_CHECK_PARTITIONS, partition -> {
+            try {
+                List<Bookings> expiredBookings = bookingRepository.findExpiredPendingBookingsInPartition(
+                        cutoffTime.atZone(java.time.ZoneId.systemDefault()).toInstant(), partitions, partition);
+
+                if (!expiredBookings.isEmpty()) {
+                    log.info("Periodic check found {} expired bookings in partition {}", expiredBookings.size(),
+                            partition);
+
+                    for (Bookings booking : expiredBookings) {
+                        try {
+                            // Only process if not already handled by in-memory task
+                            if (!activeReleaseTasks.containsKey(booking.getId())) {
+                                releaseExpiredBooking(booking);
+                                log.info("Periodic check released booking ID: {}", booking.getId());
+                            }
+                        } catch (Exception e) {
+                            log.error("Error in periodic check for booking ID: {}", booking.getId(), e);
                         }
-                    } catch (Exception e) {
-                        log.error("Error in periodic check for booking ID: {}", booking.getId(), e);
                     }
                 }
+            } catch (Exception e) {
+                log.error("Error during periodic expired seats check", e);
             }
-        } catch (Exception e) {
-            log.error("Error during periodic expired seats check", e);
-        }
+        });
     }
 
     @Async("seatReleaseExecutor")
@@ -156,17 +166,10 @@ public class SeatReleaseService {
         if (booking.getPayment() != null && booking.getPayment().getStatus() != PaymentStatus.pending)
             return;
 
-        tripSeatRepository.findTripSeatBySeatNumberAndTripId(seatNumber, booking.getTrip().getId())
-                .ifPresent(seat -> {
-                    log.info("Releasing seat {} for expired booking {}", seat.getId().getSeatNumber(),
-                            booking.getId());
-                    if (seat.getStatus() == TripSeatStatus.locked) {
-                        seat.setStatus(TripSeatStatus.available);
-                        seat.setLockingUser(null);
-                        seat.setLockedAt(null);
-                        tripSeatRepository.save(seat);
-                    }
-                });
+        // Chỉ trả lại các chặng đang giữ của booking này, không động tới chặng đã bán cho booking khác
+        log.info("Releasing seat {} for expired booking {}", seatNumber, booking.getId());
+        seatInventoryService.releaseHolds(booking.getTrip().getId(), List.of(seatNumber),
+                seatInventoryService.segmentMask(booking));
 
         // Note: Return promotions that were applied to this booking when releasing
         // expired booking
@@ -220,20 +223,9 @@ public class SeatReleaseService {
         // Release the seat
 
         String[] seatNumbers = booking.getSeatNumber().split(",");
-        for (String seatNum : seatNumbers) {
-            tripSeatRepository.findTripSeatBySeatNumberAndTripId(
-                    seatNum, booking.getTrip().getId())
-                    .ifPresent(seat -> {
-                        if (seat.getStatus() == TripSeatStatus.locked) {
-                            seat.setStatus(TripSeatStatus.available);
-                            seat.setLockingUser(null);
-                            seat.setLockedAt(null);
-                            tripSeatRepository.save(seat);
-                            log.info("Released seat {} for expired booking {}", seat.getId().getSeatNumber(),
-                                    booking.getId());
-                        }
-                    });
-        }
+        List<String> seats = Arrays.stream(seatNumbers).map(String::trim).toList();
+        seatInventoryService.releaseHolds(booking.getTrip().getId(), seats, seatInventoryService.segmentMask(booking));
+        log.info("Released seats {} for expired booking {}", seats, booking.getId());
 
         // // Note: Return promotions that were applied to this booking when releasing
         // // expired booking
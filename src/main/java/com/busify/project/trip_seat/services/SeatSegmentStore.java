@@ -0,0 +1,32 @@
+package com.busify.project.trip_seat.services;
+
+import com.busify.project.trip_seat.segment.SeatOccupancy;
+
+import java.util.List;
+
+/**
+ * Lưu trữ mặt nạ chặng của từng ghế. Mỗi thao tác phải nguyên tử trên một ghế.
+ */
+public interface SeatSegmentStore {
+
+    /**
+     * Giữ chỗ các chặng trong {@code mask} nếu chưa chặng nào bị giữ hoặc bán
+     *
+     * @return {@code false} nếu ghế không tồn tại hoặc có chặng đã bị chiếm
+     */
+    boolean hold(Long tripId, String seatNumber, long mask, Long userId);
+
+    void releaseHold(Long tripId, String seatNumber, long mask);
+
+    /**
+     * Chuyển các chặng từ giữ chỗ sang đã bán (tạo dòng ghế nếu chưa có). Luôn ghi nhận vì khách đã trả tiền.
+     *
+     * @return {@code false} nếu trước đó có chặng trong {@code mask} đã bán, hoặc không còn được giữ trọn
+     *         (giữ chỗ đã hết hạn và một phần đã sang tay người khác)
+     */
+    boolean confirm(Long tripId, String seatNumber, long mask);
+
+    void releaseBooked(Long tripId, String seatNumber, long mask);
+
+    List<SeatOccupancy> occupancy(Long tripId);
+}
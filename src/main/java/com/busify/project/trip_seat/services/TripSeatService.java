@@ -2,13 +2,18 @@ package com.busify.project.trip_seat.services;
 
 import lombok.RequiredArgsConstructor;
 
+import com.busify.project.seat_layout.layout.CompiledSeatLayout;
+import com.busify.project.seat_layout.service.SeatLayoutCatalog;
 import com.busify.project.trip_seat.dto.SeatStatus;
 import com.busify.project.trip_seat.entity.TripSeat;
 import com.busify.project.trip_seat.enums.TripSeatStatus;
 import com.busify.project.trip_seat.repository.TripSeatRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
 import java.util.stream.Collectors;
 
@@ -17,22 +22,56 @@ import java.util.stream.Collectors;
 public class TripSeatService {
 
     private final TripSeatRepository tripSeatRepository;
+    private final SeatLayoutCatalog seatLayoutCatalog;
 
+    /**
+     * Sơ đồ trạng thái ghế theo thứ tự của sơ đồ ghế (tầng → hàng → cột)
+     */
     public List<SeatStatus> getTripSeatsStatus(Long tripId) {
         List<TripSeat> tripSeats = tripSeatRepository.findByTripId(tripId);
-        return tripSeats.stream()
-                .map(tripSeat -> new SeatStatus(tripSeat.getId().getSeatNumber(), tripSeat.getStatus()))
-                .collect(Collectors.toList());
+        Optional<CompiledSeatLayout> layout = seatLayoutCatalog.forTrip(tripId);
+        if (layout.isEmpty()) {
+            return tripSeats.stream()
+                    .map(tripSeat -> new SeatStatus(tripSeat.getId().getSeatNumber(), tripSeat.getStatus()))
+                    .collect(Collectors.toList());
+        }
+        return render(layout.get(), tripSeats);
     }
 
-    public boolean changeTripSeatStatusToAvailable(Long tripId, String seatNumber) {
-        TripSeat tripSeat = tripSeatRepository.findById_TripIdAndId_SeatNumber(tripId, seatNumber);
-        if (tripSeat != null) {
-            tripSeat.setStatus(TripSeatStatus.available);
-            tripSeatRepository.save(tripSeat);
-            return true;
+    /**
+     * Đặt trạng thái từng ghế vào mảng theo ordinal rồi đọc lại theo thứ tự sơ đồ.
+     * Ghế không có trong sơ đồ (sơ đồ đổi sau khi tạo chuyến) được giữ ở cuối danh sách.
+     */
+    static List<SeatStatus> render(CompiledSeatLayout layout, List<TripSeat> tripSeats) {
+        TripSeatStatus[] statuses = new TripSeatStatus[layout.size()];
+        List<SeatStatus> unmapped = new ArrayList<>();
+        for (TripSeat tripSeat : tripSeats) {
+            String seatNumber = tripSeat.getId().getSeatNumber();
+            int ordinal = layout.ordinalOf(seatNumber);
+            if (ordinal < 0) {
+                unmapped.add(new SeatStatus(seatNumber, tripSeat.getStatus()));
+            } else {
+                statuses[ordinal] = tripSeat.getStatus();
+            }
+        }
+        List<SeatStatus> result = new ArrayList<>(tripSeats.size());
+        for (int ordinal = 0; ordinal < statuses.length; ordinal++) {
+            if (statuses[ordinal] != null) {
+                result.add(new SeatStatus(layout.seatCodeAt(ordinal), statuses[ordinal]));
+            }
         }
-        return false;
+        result.addAll(unmapped);
+        return result;
+    }
+
+    /**
+     * Trả lại các chặng {@code segmentMask} của ghế (đang giữ hoặc đã bán);
+     * các chặng thuộc booking khác vẫn giữ nguyên
+     */
+    @Transactional
+    public boolean changeTripSeatStatusToAvailable(Long tripId, String seatNumber, long segmentMask) {
+        tripSeatRepository.releaseHeldSegments(tripId, seatNumber, segmentMask);
+        return tripSeatRepository.releaseBookedSegments(tripId, seatNumber, segmentMask) > 0;
     }
 
     public int countAvailableSeats(Long tripId) {
@@ -1,6 +1,7 @@
 package com.busify.project.user.controller;
 
 import com.busify.project.common.dto.response.ApiResponse;
+import com.busify.project.common.exception.AppException;
 import com.busify.project.user.dto.UserDTO;
 
 import com.busify.project.user.dto.request.ChangePasswordRequestDTO;
@@ -31,8 +32,13 @@ public class UserController {
     private UserServiceImpl userService;
 
     @GetMapping
-    @Operation(summary = "Get list of all users")
-    public ApiResponse<List<UserDTO>> getUsers() {
+    @Operation(summary = "Get list of all users", description = "Truyền cursor/limit để phân trang; không truyền thì trả về toàn bộ nếu không vượt giới hạn")
+    public ApiResponse<?> getUsers(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        if (cursor != null || limit != null) {
+            return ApiResponse.success("Lấy danh sách người dùng thành công", userService.getUsers(cursor, limit));
+        }
         List<UserDTO> users = userService.getAllUsers();
         if (users == null) {
             return ApiResponse.badRequest("User không tồn tại");
@@ -105,11 +111,19 @@ public class UserController {
     }
 
     @GetMapping("/management")
-    @Operation(summary = "Get all users for management")
-    public ApiResponse<List<UserManagementDTO>> getUsersForManagement() {
+    @Operation(summary = "Get all users for management", description = "Truyền cursor/limit để phân trang; không truyền thì trả về toàn bộ nếu không vượt giới hạn")
+    public ApiResponse<?> getUsersForManagement(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
         try {
+            if (cursor != null || limit != null) {
+                return ApiResponse.success("Lấy danh sách người dùng cho quản lý thành công",
+                        userService.getUsersForManagement(cursor, limit));
+            }
             List<UserManagementDTO> users = userService.getAllUsersForManagement();
             return ApiResponse.success("Lấy danh sách người dùng cho quản lý thành công", users);
+        } catch (AppException e) {
+            throw e;
         } catch (RuntimeException e) {
             return ApiResponse.badRequest("Lấy danh sách người dùng không thành công: " + e.getMessage());
         }
@@ -1,6 +1,7 @@
 package com.busify.project.user.entity;
 
 import com.busify.project.auth.enums.AuthProvider;
+import com.busify.project.common.search.SearchEntityListener;
 import com.busify.project.role.entity.Role;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
@@ -15,6 +16,7 @@ import org.hibernate.annotations.OnDeleteAction;
 @Setter
 @Entity
 @Inheritance(strategy = InheritanceType.JOINED)
+@EntityListeners(SearchEntityListener.class)
 @Table(name = "users", indexes = {
         @Index(name = "idx_users_email", columnList = "email")
 })
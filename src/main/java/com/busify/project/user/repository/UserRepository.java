@@ -1,6 +1,7 @@
 package com.busify.project.user.repository;
 
 import com.busify.project.auth.enums.AuthProvider;
+import com.busify.project.common.pagination.KeysetRepository;
 import com.busify.project.user.entity.Profile;
 import com.busify.project.user.entity.User;
 import com.busify.project.user.enums.UserStatus;
@@ -13,11 +14,12 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, KeysetRepository {
     Optional<User> findByEmail(String email);
 
     @Query("SELECT COUNT(u) > 0 FROM User u WHERE LOWER(u.email) = LOWER(:email)")
@@ -36,6 +38,9 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @Query("SELECT u FROM User u JOIN FETCH u.role")
     List<User> findAllWithRoles();
 
+    @Query("SELECT COUNT(p) FROM Profile p WHERE (:status IS NULL OR p.status = :status)")
+    long countProfiles(@Param("status") UserStatus status);
+
     @Query("SELECT p FROM Profile p JOIN FETCH p.role WHERE (:search IS NULL OR " +
             "LOWER(p.fullName) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
             "LOWER(p.email) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
@@ -72,4 +77,34 @@ public interface UserRepository extends JpaRepository<User, Long> {
     // Find users by role ID using Integer type with custom query
     @Query("SELECT u FROM User u WHERE u.role.id = :roleId")
     List<User> findUsersByRoleId(@Param("roleId") Integer roleId);
-}
\ No newline at end of file
+
+    /**
+     * Như {@link #findUsersForManagement} nhưng từ khoá đã được chỉ mục tìm kiếm đổi thành danh sách id
+     */
+    @Query("SELECT p FROM Profile p JOIN FETCH p.role WHERE p.id IN :ids " +
+            "AND (:status IS NULL OR p.status = :status) " +
+            "AND (:authProvider IS NULL OR p.authProvider = :authProvider) " +
+            "AND (:roleName IS NULL OR p.role.name = :roleName) " +
+            "AND (:emailVerified IS NULL OR p.emailVerified = :emailVerified) " +
+            "AND (:createdFrom IS NULL OR p.createdAt >= :createdFrom) " +
+            "AND (:createdTo IS NULL OR p.createdAt <= :createdTo)")
+    Page<Profile> findUsersForManagementByIds(
+            @Param("ids") Collection<Long> ids,
+            @Param("status") UserStatus status,
+            @Param("authProvider") AuthProvider authProvider,
+            @Param("roleName") String roleName,
+            @Param("emailVerified") Boolean emailVerified,
+            @Param("createdFrom") Instant createdFrom,
+            @Param("createdTo") Instant createdTo,
+            Pageable pageable);
+
+    /**
+     * (id, họ tên, email, số điện thoại, thời điểm tạo) cho chỉ mục tìm kiếm
+     */
+    @Query("SELECT p.id, p.fullName, p.email, p.phoneNumber, p.createdAt FROM Profile p " +
+            "WHERE p.id > :lastId ORDER BY p.id")
+    List<Object[]> findSearchRowsAfter(@Param("lastId") Long lastId, Pageable pageable);
+
+    @Query("SELECT p.id, p.fullName, p.email, p.phoneNumber, p.createdAt FROM Profile p WHERE p.id IN :ids")
+    List<Object[]> findSearchRowsByIds(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,70 @@
+package com.busify.project.user.search;
+
+import com.busify.project.common.search.SearchDocument;
+import com.busify.project.common.search.SearchIndexProvider;
+import com.busify.project.user.entity.User;
+import com.busify.project.user.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Chỉ mục người dùng (profile) theo họ tên, email và số điện thoại cho màn hình quản lý người dùng
+ */
+@Component
+@RequiredArgsConstructor
+public class UserSearchIndexProvider implements SearchIndexProvider {
+
+    public static final String INDEX = "users";
+
+    private final UserRepository userRepository;
+
+    @Override
+    public String getIndexName() {
+        return INDEX;
+    }
+
+    @Override
+    public Class<?> getEntityType() {
+        return User.class;
+    }
+
+    @Override
+    public Long idOf(Object entity) {
+        return ((User) entity).getId();
+    }
+
+    @Override
+    public List<SearchDocument> loadAfter(long lastId, int limit) {
+        return userRepository.findSearchRowsAfter(lastId, PageRequest.of(0, limit)).stream()
+                .map(UserSearchIndexProvider::toDocument)
+                .toList();
+    }
+
+    @Override
+    public List<SearchDocument> loadByIds(Collection<Long> ids) {
+        return userRepository.findSearchRowsByIds(ids).stream()
+                .map(UserSearchIndexProvider::toDocument)
+                .toList();
+    }
+
+    @Override
+    public Set<String> getSnapshotExcludedFields() {
+        return Set.of("email", "phoneNumber");
+    }
+
+    private static SearchDocument toDocument(Object[] row) {
+        Instant createdAt = (Instant) row[4];
+        return SearchDocument.builder((Long) row[0])
+                .rankHint(createdAt != null ? createdAt.toEpochMilli() : 0)
+                .text("fullName", (String) row[1], 2f)
+                .identifier("email", (String) row[2], 1f)
+                .identifier("phoneNumber", (String) row[3], 1f)
+                .build();
+    }
+}
@@ -2,6 +2,7 @@ package com.busify.project.user.service;
 
 import java.util.List;
 
+import com.busify.project.common.pagination.CursorPage;
 import com.busify.project.user.dto.UserDTO;
 import com.busify.project.user.dto.request.ChangePasswordRequestDTO;
 import com.busify.project.user.dto.request.UserManagementFilterDTO;
@@ -25,6 +26,10 @@ public interface UserService {
 
     List<UserManagementDTO> getAllUsersForManagement();
 
+    CursorPage<UserDTO> getUsers(String cursor, Integer limit);
+
+    CursorPage<UserManagementDTO> getUsersForManagement(String cursor, Integer limit);
+
     UserManagementPageDTO getUsersForManagementWithFilter(UserManagementFilterDTO filterDTO);
 
     UserDTO createUser(UserManagerUpdateOrCreateDTO userDTO);
@@ -1,6 +1,12 @@
 package com.busify.project.user.service.impl;
 
 import com.busify.project.auth.enums.AuthProvider;
+import com.busify.project.common.pagination.CursorCodec;
+import com.busify.project.common.pagination.CursorPage;
+import com.busify.project.common.pagination.CursorPagination;
+import com.busify.project.common.pagination.KeysetQuery;
+import com.busify.project.common.search.SearchIndexService;
+import com.busify.project.common.search.SearchQuery;
 import com.busify.project.common.utils.JwtUtils;
 import com.busify.project.audit_log.entity.AuditLog;
 import com.busify.project.audit_log.service.AuditLogService;
@@ -21,6 +27,7 @@ import com.busify.project.user.exception.UserProfileNotFoundException;
 import com.busify.project.user.exception.UserRoleNotFoundException;
 import com.busify.project.user.mapper.UserMapper;
 import com.busify.project.user.repository.UserRepository;
+import com.busify.project.user.search.UserSearchIndexProvider;
 import com.busify.project.user.service.UserService;
 
 import jakarta.persistence.EntityManager;
@@ -41,6 +48,7 @@ import java.time.Instant;
 import java.time.LocalDate;
 import java.time.ZoneOffset;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
@@ -50,6 +58,8 @@ public class UserServiceImpl implements UserService {
     private final RoleRepository roleRepository;
     private final PasswordEncoder passwordEncoder;
     private final AuditLogService auditLogService;
+    private final SearchIndexService searchIndexService;
+    private final CursorPagination cursorPagination;
 
     private final JwtUtils utils;
     @PersistenceContext
@@ -58,6 +68,7 @@ public class UserServiceImpl implements UserService {
     @Cacheable(value = "allUsers")
     @Override
     public List<UserDTO> getAllUsers() {
+        cursorPagination.requireBounded(userRepository.countProfiles(UserStatus.active), "người dùng");
         List<User> users = userRepository.findAllWithRoles();
         return users
                 .stream()
@@ -277,6 +288,7 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public List<UserManagementDTO> getAllUsersForManagement() {
+        cursorPagination.requireBounded(userRepository.countProfiles(null), "người dùng");
         List<User> users = userRepository.findAllWithRoles();
         return users
                 .stream()
@@ -286,6 +298,29 @@ public class UserServiceImpl implements UserService {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public CursorPage<UserDTO> getUsers(String cursor, Integer limit) {
+        int pageSize = cursorPagination.limit(limit);
+        List<Profile> profiles = userRepository.findKeyset(KeysetQuery.of(Profile.class, "id")
+                .after(cursorPagination.afterId(cursor))
+                .limit(pageSize)
+                .where((root, query, cb) -> cb.equal(root.get("status"), UserStatus.active))
+                .fetch("role"));
+        return CursorPage.of(profiles, pageSize, profile -> CursorCodec.encode(profile.getId()))
+                .map(UserMapper::toDTO);
+    }
+
+    @Override
+    public CursorPage<UserManagementDTO> getUsersForManagement(String cursor, Integer limit) {
+        int pageSize = cursorPagination.limit(limit);
+        List<Profile> profiles = userRepository.findKeyset(KeysetQuery.of(Profile.class, "id")
+                .after(cursorPagination.afterId(cursor))
+                .limit(pageSize)
+                .fetch("role"));
+        return CursorPage.of(profiles, pageSize, profile -> CursorCodec.encode(profile.getId()))
+                .map(UserMapper::toManagementDTO);
+    }
+
     @CacheEvict(value = "allUsers", allEntries = true)
     @Override
     public UserDTO createUser(UserManagerUpdateOrCreateDTO userDTO) {
@@ -354,16 +389,37 @@ public class UserServiceImpl implements UserService {
                 ? filterDTO.getSearch().trim()
                 : null;
 
+        // Từ khoá được chỉ mục tìm kiếm đổi thành danh sách id; các bộ lọc và sắp xếp vẫn chạy trong DB
+        Optional<List<Long>> matchedIds = searchFilter == null
+                ? Optional.empty()
+                : searchIndexService.matchingIds(UserSearchIndexProvider.INDEX,
+                        SearchQuery.builder().match(searchFilter).build());
+
         // Query with filters
-        Page<Profile> usersPage = userRepository.findUsersForManagement(
-                searchFilter,
-                filterDTO.getStatus(),
-                filterDTO.getAuthProvider(),
-                filterDTO.getRoleName(),
-                filterDTO.getEmailVerified(),
-                createdFrom,
-                createdTo,
-                pageable);
+        Page<Profile> usersPage;
+        if (matchedIds.isPresent() && matchedIds.get().isEmpty()) {
+            usersPage = Page.empty(pageable);
+        } else if (matchedIds.isPresent()) {
+            usersPage = userRepository.findUsersForManagementByIds(
+                    matchedIds.get(),
+                    filterDTO.getStatus(),
+                    filterDTO.getAuthProvider(),
+                    filterDTO.getRoleName(),
+                    filterDTO.getEmailVerified(),
+                    createdFrom,
+                    createdTo,
+                    pageable);
+        } else {
+            usersPage = userRepository.findUsersForManagement(
+                    searchFilter,
+                    filterDTO.getStatus(),
+                    filterDTO.getAuthProvider(),
+                    filterDTO.getRoleName(),
+                    filterDTO.getEmailVerified(),
+                    createdFrom,
+                    createdTo,
+                    pageable);
+        }
 
         // Convert to DTOs
         List<UserManagementDTO> userDTOs = usersPage.getContent()
@@ -0,0 +1,4 @@
+-- Thời điểm và thiết bị quét vé lên xe (đồng bộ hàng loạt từ thiết bị tài xế)
+ALTER TABLE tickets
+    ADD COLUMN checked_in_at DATETIME(6) NULL,
+    ADD COLUMN checked_in_device VARCHAR(64) NULL;
@@ -0,0 +1,2 @@
+-- Xuất dữ liệu nhà xe theo khoảng ngày đặt vé đọc bookings theo thứ tự created_at
+CREATE INDEX idx_booking_createdAt ON bookings (created_at);
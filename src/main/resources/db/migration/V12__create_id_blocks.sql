@@ -0,0 +1,20 @@
+-- Dãy số cấp theo khối cho id entity (@TableGenerator, pooled-lo) và mã vé/mã đặt chỗ.
+-- next_val là số đầu tiên của khối kế tiếp, nên dãy entity bắt đầu ngay sau id lớn nhất hiện có.
+CREATE TABLE IF NOT EXISTS id_blocks (
+    sequence_name VARCHAR(255) NOT NULL PRIMARY KEY,
+    next_val BIGINT NOT NULL
+);
+
+INSERT INTO id_blocks (sequence_name, next_val)
+SELECT 'tickets', COALESCE(MAX(ticket_id), 0) + 1 FROM tickets
+ON DUPLICATE KEY UPDATE next_val = GREATEST(next_val, VALUES(next_val));
+
+INSERT INTO id_blocks (sequence_name, next_val)
+SELECT 'bookings', COALESCE(MAX(id), 0) + 1 FROM bookings
+ON DUPLICATE KEY UPDATE next_val = GREATEST(next_val, VALUES(next_val));
+
+INSERT INTO id_blocks (sequence_name, next_val)
+SELECT 'trips', COALESCE(MAX(trip_id), 0) + 1 FROM trips
+ON DUPLICATE KEY UPDATE next_val = GREATEST(next_val, VALUES(next_val));
+
+INSERT IGNORE INTO id_blocks (sequence_name, next_val) VALUES ('ticket_code', 1), ('booking_code', 1);
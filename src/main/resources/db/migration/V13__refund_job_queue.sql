@@ -0,0 +1,9 @@
+-- Hàng đợi xử lý refund bất đồng bộ (RefundJobWorker).
+-- Refund cũ giữ next_attempt_at = NULL nên worker không tự gửi lại; admin dùng POST /api/refunds/{id}/process.
+ALTER TABLE refunds
+    ADD COLUMN attempt_count INT NOT NULL DEFAULT 0,
+    ADD COLUMN next_attempt_at DATETIME(6) NULL,
+    ADD COLUMN claimed_until DATETIME(6) NULL,
+    ADD COLUMN last_error VARCHAR(1000) NULL,
+    ADD COLUMN request_ip VARCHAR(45) NULL,
+    ADD INDEX idx_refunds_status_next_attempt (status, next_attempt_at);
@@ -0,0 +1,10 @@
+-- Callback đã xử lý của payment gateway, khoá theo mã giao dịch gateway (PAYPAL:<paymentId>, VNPAY:<TxnRef>:<TransactionNo>).
+-- status NULL = lần xử lý đầu tiên đang chạy.
+CREATE TABLE IF NOT EXISTS payment_callbacks (
+    callback_key VARCHAR(191) NOT NULL PRIMARY KEY,
+    payment_id BIGINT NULL,
+    booking_id BIGINT NULL,
+    status VARCHAR(20) NULL,
+    created_at DATETIME(6) NOT NULL,
+    completed_at DATETIME(6) NULL
+);
@@ -0,0 +1,3 @@
+-- Đếm chưa đọc, đánh dấu tất cả đã đọc và lịch sử phân trang keyset của từng user
+CREATE INDEX idx_notifications_user_status ON notifications (user_id, status);
+CREATE INDEX idx_notifications_user_id ON notifications (user_id, id);
@@ -0,0 +1,7 @@
+-- Cột mốc thời gian mà RetentionService lọc theo, để mỗi lô DELETE ... LIMIT chỉ đọc các dòng cần xoá
+CREATE INDEX idx_notifications_created_at ON notifications (created_at);
+CREATE INDEX idx_audit_logs_timestamp ON audit_logs (timestamp);
+CREATE INDEX idx_verification_tokens_expiry_date ON verification_tokens (expiry_date);
+CREATE INDEX idx_trip_seats_locked_at ON trip_seats (locked_at);
+CREATE INDEX idx_outbox_status_dispatched_at ON outbox_events (status, dispatched_at);
+CREATE INDEX idx_payment_callbacks_completed_at ON payment_callbacks (completed_at);
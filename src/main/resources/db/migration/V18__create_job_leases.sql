@@ -0,0 +1,22 @@
+-- Lease của job định kỳ: instance nào UPDATE được dòng (lease_until <= now) thì chạy lượt đó
+CREATE TABLE IF NOT EXISTS job_leases (
+    name VARCHAR(191) NOT NULL PRIMARY KEY,
+    owner VARCHAR(191) NOT NULL,
+    lease_until DATETIME(6) NOT NULL,
+    acquired_at DATETIME(6) NOT NULL
+);
+
+-- Lịch sử chạy job: instance, phân vùng, thời gian chạy và lỗi
+CREATE TABLE IF NOT EXISTS job_runs (
+    id BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    job_name VARCHAR(191) NOT NULL,
+    partition_no INT NULL,
+    owner VARCHAR(191) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    started_at DATETIME(6) NOT NULL,
+    finished_at DATETIME(6) NULL,
+    duration_ms BIGINT NULL,
+    error VARCHAR(1000) NULL,
+    INDEX idx_job_runs_job_started (job_name, started_at),
+    INDEX idx_job_runs_started (started_at)
+);
@@ -0,0 +1,3 @@
+-- Job tự chuyển trạng thái chuyến lọc theo trạng thái rồi theo giờ khởi hành/giờ đến dự kiến
+CREATE INDEX idx_trips_status_departureTime ON trips (status, departure_time);
+CREATE INDEX idx_trips_status_estimatedArrivalTime ON trips (status, estimated_arrival_time);
@@ -0,0 +1,13 @@
+-- Tồn kho ghế theo chặng: bit i = đoạn từ điểm dừng i tới i + 1 (xem SeatSegments)
+ALTER TABLE trip_seats
+    ADD COLUMN locked_segments BIGINT NOT NULL DEFAULT 0,
+    ADD COLUMN booked_segments BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE bookings
+    ADD COLUMN pickup_location_id BIGINT NULL,
+    ADD COLUMN dropoff_location_id BIGINT NULL,
+    ADD COLUMN segment_mask BIGINT NULL;
+
+-- Ghế đã khoá/bán trước đây chiếm cả chuyến (63 bit thấp)
+UPDATE trip_seats SET booked_segments = 9223372036854775807 WHERE status = 'booked';
+UPDATE trip_seats SET locked_segments = 9223372036854775807 WHERE status = 'locked';
@@ -0,0 +1,16 @@
+-- Tổng hợp đánh giá theo chuyến/nhà xe/tuyến, cập nhật cộng dồn cùng transaction với review
+CREATE TABLE IF NOT EXISTS rating_aggregates (
+    scope          VARCHAR(16) NOT NULL,
+    target_id      BIGINT      NOT NULL,
+    rating_sum     BIGINT      NOT NULL DEFAULT 0,
+    rating_count   BIGINT      NOT NULL DEFAULT 0,
+    average_rating DOUBLE      NOT NULL DEFAULT 0,
+    stars_1        BIGINT      NOT NULL DEFAULT 0,
+    stars_2        BIGINT      NOT NULL DEFAULT 0,
+    stars_3        BIGINT      NOT NULL DEFAULT 0,
+    stars_4        BIGINT      NOT NULL DEFAULT 0,
+    stars_5        BIGINT      NOT NULL DEFAULT 0,
+    updated_at     DATETIME(6) NULL,
+    PRIMARY KEY (scope, target_id),
+    INDEX idx_rating_aggregates_scope_average (scope, average_rating)
+);
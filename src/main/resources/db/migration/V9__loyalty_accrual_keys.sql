@@ -0,0 +1,14 @@
+-- Khoá chống cộng điểm trùng cho từng booking và mã lượt tích điểm
+ALTER TABLE score_history
+    ADD COLUMN earned_booking_id BIGINT NULL,
+    ADD COLUMN batch_id VARCHAR(36) NULL;
+
+UPDATE score_history h
+JOIN (SELECT MIN(id) AS id FROM score_history
+      WHERE action_type = 'EARNED'
+      GROUP BY booking_id) first_earned ON first_earned.id = h.id
+SET h.earned_booking_id = h.booking_id;
+
+ALTER TABLE score_history
+    ADD CONSTRAINT uk_score_history_earned_booking UNIQUE (earned_booking_id),
+    ADD INDEX idx_score_history_batch (batch_id);
@@ -0,0 +1,72 @@
+package com.busify.project.blog.service.impl;
+
+import com.busify.project.blog.dto.CreateBlogPostDto;
+import com.busify.project.blog.repository.BlogPostRepository;
+import com.busify.project.common.dto.media.UploadedMedia;
+import com.busify.project.common.search.SearchIndexService;
+import com.busify.project.common.service.CloudinaryService;
+import com.busify.project.common.service.MediaUploadService;
+import com.busify.project.user.repository.UserRepository;
+import com.busify.project.user.service.impl.UserServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BlogPostServiceImplTest {
+
+    private MediaUploadService mediaUploadService;
+    private TransactionTemplate transactionTemplate;
+    private BlogPostServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        mediaUploadService = mock(MediaUploadService.class);
+        transactionTemplate = mock(TransactionTemplate.class);
+        service = new BlogPostServiceImpl(mock(BlogPostRepository.class), mock(UserRepository.class),
+                mock(UserServiceImpl.class), mock(CloudinaryService.class), mediaUploadService,
+                mock(SearchIndexService.class), transactionTemplate);
+        when(mediaUploadService.upload(any(), anyString())).thenReturn(new UploadedMedia("https://img", "blog-posts/1"));
+    }
+
+    @Test
+    void createPost_ShouldUploadBeforeOpeningTransactionAndDiscardImageWhenSaveFails() {
+        when(transactionTemplate.execute(any(TransactionCallback.class)))
+                .thenThrow(new IllegalStateException("lưu thất bại"));
+
+        assertThatThrownBy(() -> service.createPost(post())).isInstanceOf(IllegalStateException.class);
+
+        InOrder order = inOrder(mediaUploadService, transactionTemplate);
+        order.verify(mediaUploadService).upload(any(), anyString());
+        order.verify(transactionTemplate).execute(any(TransactionCallback.class));
+        verify(mediaUploadService).deleteAsync(List.of("blog-posts/1"));
+    }
+
+    @Test
+    void updatePost_ShouldUploadBeforeOpeningTransaction() {
+        service.updatePost(1L, post());
+
+        InOrder order = inOrder(mediaUploadService, transactionTemplate);
+        order.verify(mediaUploadService).upload(any(), anyString());
+        order.verify(transactionTemplate).execute(any(TransactionCallback.class));
+    }
+
+    private static CreateBlogPostDto post() {
+        CreateBlogPostDto dto = new CreateBlogPostDto();
+        dto.setTitle("Tiêu đề");
+        dto.setImage(new MockMultipartFile("image", "a.png", "image/png", new byte[]{1}));
+        return dto;
+    }
+}
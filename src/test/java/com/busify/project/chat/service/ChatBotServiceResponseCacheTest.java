@@ -0,0 +1,62 @@
+package com.busify.project.chat.service;
+
+import com.busify.project.chat.config.ChatContextConfig;
+import com.busify.project.chat.repository.ChatMessageRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ChatBotServiceResponseCacheTest {
+
+    private static final String QUESTION = "Chính sách hoàn tiền?";
+
+    private OpenAIService openAIService;
+    private AIResponseCache responseCache;
+    private ChatBotService chatBotService;
+
+    @BeforeEach
+    void setUp() {
+        ChatContextConfig config = new ChatContextConfig();
+        openAIService = mock(OpenAIService.class);
+        responseCache = new AIResponseCache(config);
+        ConversationContextManager contextManager = new ConversationContextManager(
+                mock(ChatMessageRepository.class), config);
+        chatBotService = new ChatBotService(openAIService, responseCache, contextManager);
+    }
+
+    @Test
+    void getBotReplyWithHistory_FirstTurnQuestion_ShouldBeServedFromCacheToOtherRooms() {
+        when(openAIService.getChatGPTResponseWithHistory(eq(QUESTION), anyString(), anyString()))
+                .thenReturn("Hoàn 90% nếu huỷ trước 24h");
+
+        chatBotService.getBotReplyWithHistory(QUESTION, "ai-a@example.com", "a@example.com");
+        String reply = chatBotService.getBotReplyWithHistory(QUESTION, "ai-b@example.com", "b@example.com");
+
+        assertThat(reply).isEqualTo("Hoàn 90% nếu huỷ trước 24h");
+        verify(openAIService, times(1)).getChatGPTResponseWithHistory(eq(QUESTION), anyString(), anyString());
+    }
+
+    @Test
+    void getBotReplyWithHistory_FollowUpQuestion_ShouldNotLeakContextualAnswerToOtherRooms() {
+        when(openAIService.getChatGPTResponseWithHistory(eq("Tôi muốn huỷ vé BUS123"), anyString(), anyString()))
+                .thenReturn("Đã ghi nhận");
+        when(openAIService.getChatGPTResponseWithHistory(eq(QUESTION), eq("ai-a@example.com"), anyString()))
+                .thenReturn("Vé BUS123 của bạn được hoàn 90%");
+        when(openAIService.getChatGPTResponseWithHistory(eq(QUESTION), eq("ai-b@example.com"), anyString()))
+                .thenReturn("Hoàn 90% nếu huỷ trước 24h");
+
+        chatBotService.getBotReplyWithHistory("Tôi muốn huỷ vé BUS123", "ai-a@example.com", "a@example.com");
+        chatBotService.getBotReplyWithHistory(QUESTION, "ai-a@example.com", "a@example.com");
+        String otherRoom = chatBotService.getBotReplyWithHistory(QUESTION, "ai-b@example.com", "b@example.com");
+
+        assertThat(otherRoom).isEqualTo("Hoàn 90% nếu huỷ trước 24h");
+        assertThat(responseCache.get(QUESTION)).contains("Hoàn 90% nếu huỷ trước 24h");
+    }
+}
@@ -0,0 +1,138 @@
+package com.busify.project.chat.service;
+
+import com.busify.project.chat.config.OpenAIConfig;
+import com.busify.project.chat.config.OpenRouterClientConfig;
+import com.sun.net.httpserver.HttpServer;
+import io.netty.resolver.AddressResolverGroup;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.Connection;
+import reactor.netty.ConnectionObserver;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.transport.TransportConfig;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Chạy OpenRouterService với một stub server cục bộ thay cho OpenRouter thật
+ */
+class OpenRouterServiceStreamingTest {
+
+    private HttpServer server;
+    private CountingConnectionProvider connectionProvider;
+    private OpenRouterService openRouterService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/chat/completions", exchange -> {
+            String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            boolean stream = body.contains("\"stream\":true");
+
+            if (stream) {
+                exchange.getResponseHeaders().add("Content-Type", "text/event-stream");
+                exchange.sendResponseHeaders(200, 0);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    for (String token : List.of("Xin ", "chào ", "bạn!")) {
+                        out.write(("data: {\"choices\":[{\"delta\":{\"content\":\"" + token + "\"}}]}\n\n")
+                                .getBytes(StandardCharsets.UTF_8));
+                        out.flush();
+                    }
+                    out.write("data: [DONE]\n\n".getBytes(StandardCharsets.UTF_8));
+                }
+            } else {
+                byte[] response = "{\"choices\":[{\"index\":0,\"message\":{\"role\":\"assistant\",\"content\":\"Xin chào bạn!\"}}]}"
+                        .getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, response.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(response);
+                }
+            }
+        });
+        server.start();
+
+        OpenAIConfig config = new OpenAIConfig();
+        config.setKey("test-key");
+        config.setBaseUrl("http://localhost:" + server.getAddress().getPort());
+        config.setTimeout(5);
+
+        OpenRouterClientConfig clientConfig = new OpenRouterClientConfig(config);
+        connectionProvider = new CountingConnectionProvider(clientConfig.openRouterConnectionProvider());
+        WebClient webClient = clientConfig.openRouterWebClient(connectionProvider);
+        openRouterService = new OpenRouterService(webClient, config);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+        connectionProvider.dispose();
+    }
+
+    @Test
+    void streamChatCompletion_ShouldEmitTokensInOrder() {
+        List<String> chunks = openRouterService.streamChatCompletion("test-key", "test-model",
+                List.of(new OpenRouterService.Message("user", "Xin chào")), 100, 0.7)
+                .collectList()
+                .block(Duration.ofSeconds(5));
+
+        assertThat(chunks).containsExactly("Xin ", "chào ", "bạn!");
+    }
+
+    @Test
+    void getChatCompletion_ShouldGoThroughSharedConnectionPool() {
+        for (int i = 0; i < 3; i++) {
+            String reply = openRouterService.getChatCompletion("test-key", "test-model",
+                    List.of(new OpenRouterService.Message("user", "Xin chào")), 100, 0.7);
+            assertThat(reply).isEqualTo("Xin chào bạn!");
+        }
+
+        // Mọi request đều lấy kết nối từ pool của bean dùng chung, không tạo client riêng
+        assertThat(connectionProvider.acquired).hasValue(3);
+    }
+
+    private static final class CountingConnectionProvider implements ConnectionProvider {
+
+        private final ConnectionProvider delegate;
+        private final AtomicInteger acquired = new AtomicInteger();
+
+        private CountingConnectionProvider(ConnectionProvider delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Mono<? extends Connection> acquire(TransportConfig config, ConnectionObserver observer,
+                Supplier<? extends SocketAddress> remoteAddress, AddressResolverGroup<?> resolverGroup) {
+            acquired.incrementAndGet();
+            return delegate.acquire(config, observer, remoteAddress, resolverGroup);
+        }
+
+        @Override
+        public void dispose() {
+            delegate.dispose();
+        }
+
+        @Override
+        public Mono<Void> disposeLater() {
+            return delegate.disposeLater();
+        }
+
+        @Override
+        public int maxConnections() {
+            return delegate.maxConnections();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.busify.project.common.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class TwoTierCacheTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private StringRedisTemplate redisTemplate;
+    private ConcurrentMapCache l2;
+    private CacheInvalidationBus bus;
+    private TwoTierCache cache;
+
+    @BeforeEach
+    void setUp() {
+        redisTemplate = mock(StringRedisTemplate.class);
+        l2 = new ConcurrentMapCache("routes", false);
+        bus = new CacheInvalidationBus(redisTemplate, objectMapper, "test-channel");
+        cache = new TwoTierCache("routes",
+                Caffeine.newBuilder().maximumSize(100).recordStats().build(), l2, bus, false);
+        bus.bind(name -> "routes".equals(name) ? cache : null);
+    }
+
+    @Test
+    void loaderRunsOnceThenServedFromL1() {
+        AtomicInteger loads = new AtomicInteger();
+
+        String first = cache.get(1L, () -> "route-" + loads.incrementAndGet());
+        String second = cache.get(1L, () -> "route-" + loads.incrementAndGet());
+
+        assertThat(first).isEqualTo("route-1");
+        assertThat(second).isEqualTo("route-1");
+        assertThat(loads).hasValue(1);
+        assertThat(l2.get(1L).get()).isEqualTo("route-1");
+
+        CacheStatsDTO stats = cache.getStats();
+        assertThat(stats.getMisses()).isEqualTo(1);
+        assertThat(stats.getL1Hits()).isEqualTo(1);
+        assertThat(stats.getLoads()).isEqualTo(1);
+    }
+
+    @Test
+    void l2HitPopulatesL1() {
+        l2.put(7L, "from-redis");
+
+        assertThat(cache.get(7L).get()).isEqualTo("from-redis");
+        l2.evict(7L);
+        assertThat(cache.get(7L).get()).isEqualTo("from-redis");
+
+        CacheStatsDTO stats = cache.getStats();
+        assertThat(stats.getL2Hits()).isEqualTo(1);
+        assertThat(stats.getL1Hits()).isEqualTo(1);
+    }
+
+    @Test
+    void writesPublishInvalidation() {
+        cache.put(1L, "a");
+        cache.evict(1L);
+
+        verify(redisTemplate, times(2)).convertAndSend(eq("test-channel"), anyString());
+        assertThat(cache.get(1L)).isNull();
+    }
+
+    @Test
+    void remoteInvalidationDropsOnlyL1() throws Exception {
+        cache.put(1L, "stale");
+        l2.put(1L, "fresh");
+
+        String payload = objectMapper.writeValueAsString(new CacheInvalidationMessage("other-node", "routes", "1"));
+        bus.onMessage(new DefaultMessage("test-channel".getBytes(StandardCharsets.UTF_8),
+                payload.getBytes(StandardCharsets.UTF_8)), null);
+
+        assertThat(cache.get(1L).get()).isEqualTo("fresh");
+    }
+}
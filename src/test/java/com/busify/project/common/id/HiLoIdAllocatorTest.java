@@ -0,0 +1,85 @@
+package com.busify.project.common.id;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HiLoIdAllocatorTest {
+
+    private static final int BLOCK_SIZE = 50;
+
+    private final Map<String, Long> nextFree = new HashMap<>();
+    private final List<String> reservations = new ArrayList<>();
+    private HiLoIdAllocator allocator;
+
+    @BeforeEach
+    void setUp() {
+        // Giống JdbcIdBlockSource: mỗi lần reserve là một round-trip DB, dãy tăng theo khối
+        IdBlockSource source = (sequence, size) -> {
+            reservations.add(sequence);
+            long first = nextFree.getOrDefault(sequence, 1L);
+            nextFree.put(sequence, first + size);
+            return first;
+        };
+        allocator = new HiLoIdAllocator(source, BLOCK_SIZE);
+    }
+
+    @Test
+    void next_WithinBlock_ShouldReserveOnceAndHandOutConsecutiveIds() {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < BLOCK_SIZE; i++) {
+            ids.add(allocator.next(IdSequences.TICKETS));
+        }
+
+        assertThat(reservations).containsExactly(IdSequences.TICKETS);
+        assertThat(ids).first().isEqualTo(1L);
+        assertThat(ids).last().isEqualTo((long) BLOCK_SIZE);
+        assertThat(ids).doesNotHaveDuplicates().isSorted();
+    }
+
+    @Test
+    void next_BlockExhausted_ShouldReserveNextBlock() {
+        for (int i = 0; i < BLOCK_SIZE; i++) {
+            allocator.next(IdSequences.TICKETS);
+        }
+
+        long id = allocator.next(IdSequences.TICKETS);
+
+        assertThat(id).isEqualTo(BLOCK_SIZE + 1L);
+        assertThat(reservations).hasSize(2);
+    }
+
+    @Test
+    void next_ThousandRows_ShouldTouchSourceOncePerBlockAndSequence() {
+        for (int i = 0; i < 1_000; i++) {
+            allocator.next(IdSequences.TRIPS);
+            allocator.next(IdSequences.TICKET_CODES);
+        }
+
+        assertThat(reservations).filteredOn(IdSequences.TRIPS::equals).hasSize(1_000 / BLOCK_SIZE);
+        assertThat(reservations).filteredOn(IdSequences.TICKET_CODES::equals).hasSize(1_000 / BLOCK_SIZE);
+    }
+
+    @Test
+    void next_SequencesAreIndependent() {
+        long ticket = allocator.next(IdSequences.TICKETS);
+        long trip = allocator.next(IdSequences.TRIPS);
+
+        assertThat(ticket).isEqualTo(1L);
+        assertThat(trip).isEqualTo(1L);
+        assertThat(reservations).containsExactly(IdSequences.TICKETS, IdSequences.TRIPS);
+    }
+
+    @Test
+    void constructor_NonPositiveBlockSize_ShouldBeRejected() {
+        assertThatThrownBy(() -> new HiLoIdAllocator((sequence, size) -> 1L, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
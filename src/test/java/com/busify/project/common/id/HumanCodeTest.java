@@ -0,0 +1,79 @@
+package com.busify.project.common.id;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HumanCodeTest {
+
+    @Test
+    void consecutiveValuesGiveDistinctUnambiguousCodes() {
+        Set<String> codes = new HashSet<>();
+        for (long value = 0; value < 200_000; value++) {
+            String code = HumanCode.encode(value);
+            assertThat(code).hasSize(8).matches("[0-9A-HJKMNP-TV-Z]+");
+            codes.add(code);
+        }
+        assertThat(codes).hasSize(200_000);
+        assertThat(HumanCode.encode(1)).isNotEqualTo(HumanCode.encode(2)).doesNotStartWith("0000");
+    }
+
+    @Test
+    void checkCharacterCatchesTyposAndSwaps() {
+        char[] code = HumanCode.encode(123_456).toCharArray();
+        assertThat(HumanCode.isWellFormed(new String(code))).isTrue();
+
+        List<String> typos = new ArrayList<>();
+        for (int i = 0; i < code.length; i++) {
+            char original = code[i];
+            for (char replacement : HumanCode.ALPHABET.toCharArray()) {
+                boolean zeroZ = (original == '0' && replacement == 'Z') || (original == 'Z' && replacement == '0');
+                if (replacement != original && !zeroZ) {
+                    code[i] = replacement;
+                    typos.add(new String(code));
+                }
+            }
+            code[i] = original;
+        }
+        for (int i = 0; i + 1 < code.length; i++) {
+            if (code[i] != code[i + 1]) {
+                char[] swapped = code.clone();
+                swapped[i] = code[i + 1];
+                swapped[i + 1] = code[i];
+                typos.add(new String(swapped));
+            }
+        }
+        assertThat(typos).noneMatch(HumanCode::isWellFormed);
+    }
+
+    @Test
+    void rejectsValuesOutsideCodeSpace() {
+        assertThatThrownBy(() -> HumanCode.encode(-1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> HumanCode.encode(1L << 35)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void allocatorHitsSourceOncePerBlock() {
+        List<String> reservations = new ArrayList<>();
+        HiLoIdAllocator allocator = new HiLoIdAllocator((sequence, size) -> {
+            reservations.add(sequence);
+            return 1_000L * reservations.size();
+        }, 50);
+
+        List<Long> tickets = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            tickets.add(allocator.next("tickets"));
+        }
+        long booking = allocator.next("bookings");
+
+        assertThat(tickets).startsWith(1_000L, 1_001L).contains(2_000L, 3_019L).doesNotHaveDuplicates();
+        assertThat(booking).isEqualTo(4_000L);
+        assertThat(reservations).containsExactly("tickets", "tickets", "tickets", "bookings");
+    }
+}
@@ -0,0 +1,159 @@
+package com.busify.project.common.id;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.TableGenerator;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Thông lượng INSERT thật vào MySQL cho một booking 40 vé và một lịch 1000 chuyến:
+ * IDENTITY (Hibernate phải gửi từng INSERT để lấy id về, không gom batch được) so với id cấp theo khối
+ * từ bảng kiểu {@code id_blocks} ({@code pooled-lo}, cùng cấu hình entity thật) + {@code hibernate.jdbc.batch_size}.
+ * Mỗi lượt persist cả danh sách trong một transaction, giống {@code saveAll} của Spring Data.
+ * <p>
+ * Cần một schema MySQL riêng (bảng benchmark được tạo và xoá khi chạy):
+ * {@code BENCHMARK_DB_URL=jdbc:mysql://localhost:3306/busify_bench?createDatabaseIfNotExist=true&rewriteBatchedStatements=true
+ * BENCHMARK_DB_USERNAME=... BENCHMARK_DB_PASSWORD=... mvn test -Pbenchmark -Dtest=IdAllocationBenchmarkTest}
+ * </p>
+ */
+@Tag("benchmark")
+@Slf4j
+class IdAllocationBenchmarkTest {
+
+    private static final int BATCH_SIZE = 50;
+    private static final int ITERATIONS = 20;
+
+    private static SessionFactory sessionFactory;
+
+    @BeforeAll
+    static void connect() {
+        String url = System.getenv("BENCHMARK_DB_URL");
+        assumeTrue(url != null && !url.isBlank(), "Chưa đặt BENCHMARK_DB_URL, bỏ qua benchmark insert");
+        sessionFactory = new Configuration()
+                .addAnnotatedClass(IdentityRow.class)
+                .addAnnotatedClass(BlockRow.class)
+                .setProperty(AvailableSettings.JAKARTA_JDBC_URL, url)
+                .setProperty(AvailableSettings.JAKARTA_JDBC_USER, envOrEmpty("BENCHMARK_DB_USERNAME"))
+                .setProperty(AvailableSettings.JAKARTA_JDBC_PASSWORD, envOrEmpty("BENCHMARK_DB_PASSWORD"))
+                .setProperty(AvailableSettings.HBM2DDL_AUTO, "create-drop")
+                .setProperty(AvailableSettings.PREFERRED_POOLED_OPTIMIZER, "pooled-lo")
+                .setProperty(AvailableSettings.STATEMENT_BATCH_SIZE, String.valueOf(BATCH_SIZE))
+                .setProperty(AvailableSettings.ORDER_INSERTS, "true")
+                .buildSessionFactory();
+    }
+
+    @AfterAll
+    static void close() {
+        if (sessionFactory != null) {
+            sessionFactory.close();
+        }
+    }
+
+    @Test
+    void bookingOf40Tickets() {
+        compare("Booking 40 vé", 40);
+    }
+
+    @Test
+    void timetableOf1000Trips() {
+        compare("Lịch 1000 chuyến", 1_000);
+    }
+
+    private static void compare(String scenario, int rows) {
+        double identity = rowsPerSecond(rows, i -> new IdentityRow("IDN-" + i));
+        double blocks = rowsPerSecond(rows, i -> new BlockRow("BLK-" + i));
+        log.info("{}: IDENTITY {} dòng/s, id theo khối + batch {} dòng/s (x{})", scenario,
+                Math.round(identity), Math.round(blocks), String.format("%.1f", blocks / identity));
+        assertThat(blocks).isGreaterThan(identity);
+    }
+
+    private static double rowsPerSecond(int rows, IntFunction<Object> factory) {
+        // Warm-up: nạp metadata, khối id đầu tiên, JIT
+        persistAll(rows, factory);
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            persistAll(rows, factory);
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        return rows * (double) ITERATIONS / seconds;
+    }
+
+    private static void persistAll(int rows, IntFunction<Object> factory) {
+        List<Object> entities = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            entities.add(factory.apply(i));
+        }
+        sessionFactory.inTransaction(session -> entities.forEach(session::persist));
+    }
+
+    private static String envOrEmpty(String name) {
+        String value = System.getenv(name);
+        return value != null ? value : "";
+    }
+
+    @Entity
+    @Table(name = "benchmark_identity_rows")
+    @Getter
+    @NoArgsConstructor
+    static class IdentityRow {
+        @Id
+        @GeneratedValue(strategy = GenerationType.IDENTITY)
+        private Long id;
+
+        @Column(nullable = false, length = 32)
+        private String code;
+
+        @Column(name = "created_at", nullable = false)
+        private Instant createdAt;
+
+        IdentityRow(String code) {
+            this.code = code;
+            this.createdAt = Instant.now();
+        }
+    }
+
+    @Entity
+    @Table(name = "benchmark_block_rows")
+    @Getter
+    @NoArgsConstructor
+    static class BlockRow {
+        @Id
+        @GeneratedValue(strategy = GenerationType.TABLE, generator = "benchmark_block_rows_id")
+        @TableGenerator(name = "benchmark_block_rows_id", table = "benchmark_id_blocks",
+                pkColumnName = "sequence_name", valueColumnName = "next_val",
+                pkColumnValue = "benchmark_block_rows", allocationSize = IdSequences.ENTITY_ALLOCATION_SIZE)
+        private Long id;
+
+        @Column(nullable = false, length = 32)
+        private String code;
+
+        @Column(name = "created_at", nullable = false)
+        private Instant createdAt;
+
+        BlockRow(String code) {
+            this.code = code;
+            this.createdAt = Instant.now();
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.busify.project.common.job;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class JobCoordinatorTest {
+
+    private final Map<String, JobLease> leases = new ConcurrentHashMap<>();
+    private final Map<Long, JobRun> runs = new ConcurrentHashMap<>();
+    private final AtomicLong runIds = new AtomicLong();
+    private JobLeaseRepository leaseRepository;
+    private JobRunRepository runRepository;
+    private JobProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        // Giả lập bảng job_leases với cùng điều kiện như các câu UPDATE
+        leaseRepository = mock(JobLeaseRepository.class);
+        when(leaseRepository.createIfMissing(anyString(), any())).thenAnswer(invocation -> {
+            Instant expired = invocation.getArgument(1);
+            return leases.putIfAbsent(invocation.getArgument(0),
+                    new JobLease(invocation.getArgument(0), "", expired, expired)) == null ? 1 : 0;
+        });
+        when(leaseRepository.tryAcquire(anyString(), anyString(), any(), any())).thenAnswer(invocation -> {
+            String name = invocation.getArgument(0);
+            String owner = invocation.getArgument(1);
+            Instant now = invocation.getArgument(2);
+            Instant until = invocation.getArgument(3);
+            AtomicInteger updated = new AtomicInteger();
+            leases.computeIfPresent(name, (key, lease) -> {
+                if (!lease.getLeaseUntil().isAfter(now) || lease.getOwner().equals(owner)) {
+                    updated.set(1);
+                    return new JobLease(name, owner, until, now);
+                }
+                return lease;
+            });
+            return updated.get();
+        });
+        when(leaseRepository.release(anyString(), anyString(), any())).thenAnswer(invocation -> {
+            JobLease lease = leases.get(invocation.getArgument(0));
+            if (lease == null || !lease.getOwner().equals(invocation.getArgument(1))) {
+                return 0;
+            }
+            lease.setLeaseUntil(invocation.getArgument(2));
+            return 1;
+        });
+
+        runRepository = mock(JobRunRepository.class);
+        when(runRepository.save(any())).thenAnswer(invocation -> {
+            JobRun run = invocation.getArgument(0);
+            run.setId(runIds.incrementAndGet());
+            runs.put(run.getId(), run);
+            return run;
+        });
+        when(runRepository.findById(anyLong())).thenAnswer(invocation ->
+                Optional.ofNullable(runs.get(invocation.<Long>getArgument(0))));
+
+        properties = new JobProperties();
+        properties.setMinHold(Duration.ofSeconds(30));
+    }
+
+    private JobCoordinator instance() {
+        return new JobCoordinator(leaseRepository, runRepository, properties, mock(PlatformTransactionManager.class));
+    }
+
+    @Test
+    void runExclusive_SameTickOnTwoInstances_ShouldRunOnce() {
+        JobCoordinator first = instance();
+        JobCoordinator second = instance();
+        AtomicInteger executions = new AtomicInteger();
+
+        boolean ranOnFirst = first.runExclusive("report-monthly", executions::incrementAndGet);
+        boolean ranOnSecond = second.runExclusive("report-monthly", executions::incrementAndGet);
+
+        assertThat(ranOnFirst).isTrue();
+        assertThat(ranOnSecond).isFalse();
+        assertThat(executions).hasValue(1);
+        // Lease được giữ thêm min-hold sau khi chạy xong, không giữ hết thời hạn 10 phút
+        JobLease lease = leases.get("report-monthly");
+        assertThat(lease.getOwner()).isEqualTo(first.getOwner());
+        assertThat(lease.getLeaseUntil()).isBefore(Instant.now().plus(Duration.ofMinutes(1)));
+    }
+
+    @Test
+    void runExclusive_AfterLeaseExpired_ShouldRunOnOtherInstance() {
+        JobCoordinator first = instance();
+        JobCoordinator second = instance();
+        first.runExclusive("promotion-expire", () -> { });
+        leases.get("promotion-expire").setLeaseUntil(Instant.now().minusSeconds(1));
+
+        assertThat(second.runExclusive("promotion-expire", () -> { })).isTrue();
+        assertThat(leases.get("promotion-expire").getOwner()).isEqualTo(second.getOwner());
+    }
+
+    @Test
+    void runExclusive_ShouldRecordRunHistory() {
+        JobCoordinator coordinator = instance();
+
+        coordinator.runExclusive("retention", () -> { });
+        assertThatThrownBy(() -> coordinator.runExclusive("rating-rebuild", () -> {
+            throw new IllegalStateException("deadlock");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(runs.values()).extracting(JobRun::getJobName, JobRun::getStatus).containsExactlyInAnyOrder(
+                tuple("retention", JobRunStatus.SUCCEEDED),
+                tuple("rating-rebuild", JobRunStatus.FAILED));
+        assertThat(runs.values()).allSatisfy(run -> {
+            assertThat(run.getDurationMs()).isNotNull();
+            assertThat(run.getFinishedAt()).isNotNull();
+            assertThat(run.getOwner()).isEqualTo(coordinator.getOwner());
+        });
+        assertThat(runs.values()).filteredOn(run -> run.getStatus() == JobRunStatus.FAILED)
+                .singleElement().extracting(JobRun::getError).asString().contains("deadlock");
+    }
+
+    @Test
+    void runPartitioned_ShouldSplitPartitionsBetweenInstances() {
+        JobCoordinator first = instance();
+        JobCoordinator second = instance();
+        List<Integer> firstPartitions = new ArrayList<>();
+        List<Integer> secondPartitions = new ArrayList<>();
+        // Instance thứ hai đang giữ phân vùng 1 và 3
+        leases.put("seat-release-check#1", new JobLease("seat-release-check#1", second.getOwner(),
+                Instant.now().plusSeconds(60), Instant.now()));
+        leases.put("seat-release-check#3", new JobLease("seat-release-check#3", second.getOwner(),
+                Instant.now().plusSeconds(60), Instant.now()));
+
+        int ranOnFirst = first.runPartitioned("seat-release-check", 4, firstPartitions::add);
+        int ranOnSecond = second.runPartitioned("seat-release-check", 4, secondPartitions::add);
+
+        assertThat(ranOnFirst).isEqualTo(2);
+        assertThat(firstPartitions).containsExactlyInAnyOrder(0, 2);
+        // Phân vùng 0 và 2 còn trong min-hold của instance đầu
+        assertThat(secondPartitions).containsExactlyInAnyOrder(1, 3);
+        assertThat(ranOnSecond).isEqualTo(2);
+    }
+
+    @Test
+    void runExclusive_CoordinationDisabled_ShouldRunWithoutLease() {
+        properties.setCoordinationEnabled(false);
+        AtomicInteger executions = new AtomicInteger();
+
+        instance().runExclusive("report-monthly", executions::incrementAndGet);
+        instance().runExclusive("report-monthly", executions::incrementAndGet);
+
+        assertThat(executions).hasValue(2);
+        assertThat(leases).isEmpty();
+    }
+}
@@ -0,0 +1,57 @@
+package com.busify.project.common.pagination;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CursorCodecTest {
+
+    @Test
+    void roundTripsCompositeKeys() {
+        Instant departure = Instant.parse("2025-06-01T08:30:00Z");
+
+        CursorCodec.Cursor cursor = CursorCodec.decode(CursorCodec.encode(departure, 42L));
+
+        assertThat(cursor.getInstant(0)).isEqualTo(departure);
+        assertThat(cursor.getLong(1)).isEqualTo(42L);
+    }
+
+    @Test
+    void keepsSeparatorsAndUnicodeInsideStrings() {
+        String email = "an:12s3:nguyễn@xe.vn";
+
+        String token = CursorCodec.encode(email);
+
+        assertThat(token).matches("[A-Za-z0-9_-]+");
+        assertThat(CursorCodec.decode(token).getString(0)).isEqualTo(email);
+    }
+
+    @Test
+    void rejectsTamperedOrForeignTokens() {
+        String token = CursorCodec.encode(42L);
+
+        assertThatThrownBy(() -> CursorCodec.decode(token.substring(0, token.length() - 2)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> CursorCodec.decode("not a cursor!"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> CursorCodec.decode(CursorCodec.encode("abc")).getLong(0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void pageUsesExtraRowOnlyToDetectNextPage() {
+        CursorPage<Long> page = CursorPage.of(List.of(1L, 2L, 3L), 2, CursorCodec::encode);
+
+        assertThat(page.getItems()).containsExactly(1L, 2L);
+        assertThat(page.isHasNext()).isTrue();
+        assertThat(CursorCodec.decode(page.getNextCursor()).getLong(0)).isEqualTo(2L);
+
+        CursorPage<Long> last = CursorPage.of(List.of(3L), 2, CursorCodec::encode);
+        assertThat(last.isHasNext()).isFalse();
+        assertThat(last.getNextCursor()).isNull();
+    }
+}
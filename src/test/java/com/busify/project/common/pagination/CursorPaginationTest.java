@@ -0,0 +1,39 @@
+package com.busify.project.common.pagination;
+
+import com.busify.project.common.exception.AppException;
+import com.busify.project.common.exception.ErrorCode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CursorPaginationTest {
+
+    private final CursorPagination pagination = new CursorPagination();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(pagination, "defaultLimit", 50);
+        ReflectionTestUtils.setField(pagination, "maxLimit", 500);
+        ReflectionTestUtils.setField(pagination, "maxUnpagedResults", 1000L);
+    }
+
+    @Test
+    void requireBounded_OverLimit_ShouldRejectWithResultSetTooLarge() {
+        assertThatCode(() -> pagination.requireBounded(1000, "chuyến đi")).doesNotThrowAnyException();
+
+        assertThatThrownBy(() -> pagination.requireBounded(1001, "chuyến đi"))
+                .isInstanceOf(AppException.class)
+                .extracting("errorCode").isEqualTo(ErrorCode.RESULT_SET_TOO_LARGE);
+    }
+
+    @Test
+    void limit_ShouldDefaultAndCap() {
+        assertThat(pagination.limit(null)).isEqualTo(50);
+        assertThat(pagination.limit(10_000)).isEqualTo(500);
+        assertThatThrownBy(() -> pagination.limit(0)).isInstanceOf(AppException.class);
+    }
+}
@@ -0,0 +1,111 @@
+package com.busify.project.common.pagination;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SuppressWarnings({ "unchecked", "rawtypes" })
+class KeysetRepositoryImplTest {
+
+    private final Predicate afterKey = mock(Predicate.class);
+    private final Predicate filter = mock(Predicate.class);
+    private final Order ascending = mock(Order.class);
+    private final Order descending = mock(Order.class);
+
+    private CriteriaBuilder cb;
+    private CriteriaQuery<Row> cq;
+    private Root<Row> root;
+    private Path key;
+    private TypedQuery<Row> typedQuery;
+    private KeysetRepositoryImpl repository;
+
+    @BeforeEach
+    void setUp() {
+        EntityManager entityManager = mock(EntityManager.class);
+        cb = mock(CriteriaBuilder.class);
+        cq = mock(CriteriaQuery.class);
+        root = mock(Root.class);
+        key = mock(Path.class);
+        typedQuery = mock(TypedQuery.class);
+
+        when(entityManager.getCriteriaBuilder()).thenReturn(cb);
+        when(cb.createQuery(Row.class)).thenReturn(cq);
+        when(cq.from(Row.class)).thenReturn(root);
+        when(root.get("id")).thenReturn(key);
+        when(cb.asc(key)).thenReturn(ascending);
+        when(cb.desc(key)).thenReturn(descending);
+        when(cb.greaterThan(any(Path.class), any(Comparable.class))).thenReturn(afterKey);
+        when(cb.lessThan(any(Path.class), any(Comparable.class))).thenReturn(afterKey);
+        when(cq.select(root)).thenReturn(cq);
+        when(cq.where(any(Predicate[].class))).thenReturn(cq);
+        when(cq.orderBy(any(Order.class))).thenReturn(cq);
+        when(entityManager.createQuery(cq)).thenReturn(typedQuery);
+        when(typedQuery.setMaxResults(anyInt())).thenReturn(typedQuery);
+        when(typedQuery.getResultList()).thenReturn(List.of());
+
+        repository = new KeysetRepositoryImpl();
+        ReflectionTestUtils.setField(repository, "entityManager", entityManager);
+    }
+
+    @Test
+    void firstPage_ShouldOrderAscendingWithoutKeyPredicateAndReadOneExtraRow() {
+        repository.findKeyset(KeysetQuery.of(Row.class, "id").limit(20));
+
+        verify(cb, never()).greaterThan(any(Path.class), any(Comparable.class));
+        assertThat(wherePredicates()).isEmpty();
+        verify(cq).orderBy(ascending);
+        verify(typedQuery).setMaxResults(21);
+    }
+
+    @Test
+    void nextPage_ShouldSeekPastTheCursorKey() {
+        repository.findKeyset(KeysetQuery.of(Row.class, "id").after(42L).limit(10));
+
+        verify(cb).greaterThan(key, 42L);
+        assertThat(wherePredicates()).containsExactly(afterKey);
+        verify(typedQuery).setMaxResults(11);
+    }
+
+    @Test
+    void descendingPage_ShouldSeekBelowTheKeyAndCombineWithFilter() {
+        repository.findKeyset(KeysetQuery.of(Row.class, "id")
+                .descending()
+                .after(42L)
+                .where((r, q, b) -> filter));
+
+        verify(cb).lessThan(key, 42L);
+        assertThat(wherePredicates()).containsExactly(filter, afterKey);
+        verify(cq).orderBy(descending);
+    }
+
+    // where(Predicate...) có nhiều overload nên đọc thẳng lời gọi đã ghi lại thay vì verify
+    private List<Object> wherePredicates() {
+        return mockingDetails(cq).getInvocations().stream()
+                .filter(invocation -> invocation.getMethod().getName().equals("where"))
+                .findFirst()
+                .map(invocation -> List.of((Object[]) invocation.getRawArguments()[0]))
+                .orElseThrow();
+    }
+
+    private static final class Row {
+    }
+}
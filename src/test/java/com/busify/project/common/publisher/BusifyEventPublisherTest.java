@@ -0,0 +1,96 @@
+package com.busify.project.common.publisher;
+
+import com.busify.project.booking.entity.Bookings;
+import com.busify.project.common.event.ManualBookingEvent;
+import com.busify.project.common.event.PaymentSuccessEvent;
+import com.busify.project.common.outbox.OutboxEvent;
+import com.busify.project.common.outbox.OutboxEventCodec;
+import com.busify.project.common.outbox.OutboxEventRepository;
+import com.busify.project.common.outbox.OutboxEventsWrittenEvent;
+import com.busify.project.common.outbox.OutboxStatus;
+import com.busify.project.payment.entity.Payment;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isA;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class BusifyEventPublisherTest {
+
+    private ApplicationEventPublisher applicationPublisher;
+    private OutboxEventRepository outboxRepository;
+    private BusifyEventPublisher publisher;
+
+    @BeforeEach
+    void setUp() {
+        applicationPublisher = mock(ApplicationEventPublisher.class);
+        outboxRepository = mock(OutboxEventRepository.class);
+        publisher = new BusifyEventPublisher(applicationPublisher, outboxRepository, List.of(new PaymentCodec()));
+    }
+
+    @Test
+    void publishEvent_WithCodec_ShouldWriteOutboxInsteadOfDispatching() {
+        Payment payment = new Payment();
+        payment.setPaymentId(42L);
+
+        publisher.publishEvent(new PaymentSuccessEvent(this, "ok", payment));
+
+        ArgumentCaptor<OutboxEvent> saved = ArgumentCaptor.forClass(OutboxEvent.class);
+        verify(outboxRepository).save(saved.capture());
+        assertThat(saved.getValue().getAggregateType()).isEqualTo("PAYMENT");
+        assertThat(saved.getValue().getAggregateId()).isEqualTo("42");
+        assertThat(saved.getValue().getEventType()).isEqualTo("PaymentSuccessEvent");
+        assertThat(saved.getValue().getPayload()).isEqualTo("{\"paymentId\":42}");
+        assertThat(saved.getValue().getStatus()).isEqualTo(OutboxStatus.PENDING);
+        assertThat(saved.getValue().getNextAttemptAt()).isNotNull();
+        // Listener không chạy trong transaction gốc, chỉ relay được đánh thức
+        verify(applicationPublisher, never()).publishEvent(isA(PaymentSuccessEvent.class));
+        verify(applicationPublisher).publishEvent(isA(OutboxEventsWrittenEvent.class));
+    }
+
+    @Test
+    void publishEvent_WithoutCodec_ShouldDispatchDirectly() {
+        ManualBookingEvent event = new ManualBookingEvent(this, "manual", new Bookings());
+
+        publisher.publishEvent(event);
+
+        verify(applicationPublisher).publishEvent(event);
+        verify(outboxRepository, never()).save(any());
+    }
+
+    private static class PaymentCodec implements OutboxEventCodec<PaymentSuccessEvent> {
+
+        @Override
+        public Class<PaymentSuccessEvent> getEventType() {
+            return PaymentSuccessEvent.class;
+        }
+
+        @Override
+        public String getAggregateType() {
+            return "PAYMENT";
+        }
+
+        @Override
+        public String aggregateId(PaymentSuccessEvent event) {
+            return String.valueOf(event.getPayment().getPaymentId());
+        }
+
+        @Override
+        public String encode(PaymentSuccessEvent event) {
+            return "{\"paymentId\":" + event.getPayment().getPaymentId() + "}";
+        }
+
+        @Override
+        public PaymentSuccessEvent decode(String payload) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
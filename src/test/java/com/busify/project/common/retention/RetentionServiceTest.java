@@ -0,0 +1,132 @@
+package com.busify.project.common.retention;
+
+import com.busify.project.common.job.JobCoordinator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class RetentionServiceTest {
+
+    private RetentionProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        properties = new RetentionProperties();
+        properties.setBatchSize(100);
+        properties.setPause(Duration.ZERO);
+    }
+
+    @Test
+    void run_ShouldPurgeInBoundedBatchesUntilExhausted() {
+        FakePolicy policy = new FakePolicy("notifications", 250);
+
+        List<RetentionStatsDTO> results = service(policy).run(false).orElseThrow();
+
+        assertThat(policy.batchSizes).containsExactly(100, 100, 100);
+        assertThat(policy.remaining).isZero();
+        RetentionStatsDTO result = results.get(0);
+        assertThat(result.getLastRows()).isEqualTo(250);
+        assertThat(result.getLastBatches()).isEqualTo(3);
+        assertThat(result.isLastCompleted()).isTrue();
+        assertThat(result.getTotalPurged()).isEqualTo(250);
+    }
+
+    @Test
+    void run_DryRun_ShouldOnlyCount() {
+        FakePolicy policy = new FakePolicy("notifications", 250);
+
+        RetentionStatsDTO result = service(policy).run(true).orElseThrow().get(0);
+
+        assertThat(policy.batchSizes).isEmpty();
+        assertThat(policy.remaining).isEqualTo(250);
+        assertThat(result.getLastRows()).isEqualTo(250);
+        assertThat(result.isLastDryRun()).isTrue();
+        assertThat(result.getTotalPurged()).isZero();
+    }
+
+    @Test
+    void run_MaxRunTimeReached_ShouldStopAndLeaveRestForNextRun() {
+        properties.setMaxRunTime(Duration.ZERO);
+        FakePolicy policy = new FakePolicy("audit-logs", 1_000);
+
+        RetentionStatsDTO result = service(policy).run(false).orElseThrow().get(0);
+
+        assertThat(policy.batchSizes).hasSize(1);
+        assertThat(result.isLastCompleted()).isFalse();
+        assertThat(policy.remaining).isEqualTo(900);
+    }
+
+    @Test
+    void run_PolicyFails_ShouldContinueWithOtherPolicies() {
+        FakePolicy broken = new FakePolicy("sessions", 10) {
+            @Override
+            public int purgeBatch(Instant cutoff, int batchSize) {
+                throw new IllegalStateException("lock wait timeout");
+            }
+        };
+        FakePolicy healthy = new FakePolicy("audit-logs", 10);
+
+        List<RetentionStatsDTO> results = service(broken, healthy).run(false).orElseThrow();
+
+        assertThat(results.get(0).getLastError()).contains("lock wait timeout");
+        assertThat(results.get(1).getLastRows()).isEqualTo(10);
+        assertThat(healthy.remaining).isZero();
+    }
+
+    @Test
+    void run_DisabledPolicy_ShouldBeSkipped() {
+        RetentionProperties.PolicySpec spec = new RetentionProperties.PolicySpec();
+        spec.setEnabled(false);
+        properties.getPolicies().put("sessions", spec);
+        FakePolicy policy = new FakePolicy("sessions", 10);
+
+        assertThat(service(policy).run(false).orElseThrow()).isEmpty();
+        assertThat(policy.remaining).isEqualTo(10);
+    }
+
+    private RetentionService service(RetentionPolicy... policies) {
+        return new RetentionService(List.of(policies), properties, mock(JobCoordinator.class));
+    }
+
+    private static class FakePolicy implements RetentionPolicy {
+
+        private final String name;
+        private final List<Integer> batchSizes = new ArrayList<>();
+        private int remaining;
+
+        FakePolicy(String name, int expired) {
+            this.name = name;
+            this.remaining = expired;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public Duration getRetention() {
+            return Duration.ofDays(90);
+        }
+
+        @Override
+        public long countExpired(Instant cutoff) {
+            return remaining;
+        }
+
+        @Override
+        public int purgeBatch(Instant cutoff, int batchSize) {
+            batchSizes.add(batchSize);
+            int purged = Math.min(batchSize, remaining);
+            remaining -= purged;
+            return purged;
+        }
+    }
+}
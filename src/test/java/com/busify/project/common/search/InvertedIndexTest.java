@@ -0,0 +1,109 @@
+package com.busify.project.common.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InvertedIndexTest {
+
+    private InvertedIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new InvertedIndex();
+        index.upsert(trip(1L, "Sài Gòn - Đà Lạt", "51B-123.45", "Nguyễn Văn An", "scheduled", 100));
+        index.upsert(trip(2L, "Hà Nội - Sa Pa", "29A-678.90", "Trần Đà", "scheduled", 300));
+        index.upsert(trip(3L, "Đà Nẵng - Huế", "43B-111.22", "Lê Văn Bình", "cancelled", 200));
+    }
+
+    @Test
+    void matchesWithoutDiacriticsAndByPrefix() {
+        assertThat(index.search(query("da lat"), 0, 10).ids()).containsExactly(1L);
+        assertThat(index.search(query("ĐÀ LẠT"), 0, 10).ids()).containsExactly(1L);
+        assertThat(index.search(query("sai g"), 0, 10).ids()).containsExactly(1L);
+        assertThat(index.search(query("da xyz"), 0, 10).total()).isZero();
+    }
+
+    @Test
+    void identifierMatchesJoinedFormAndSuffix() {
+        assertThat(index.search(query("51b12345"), 0, 10).ids()).containsExactly(1L);
+        assertThat(index.search(query("67890"), 0, 10).ids()).containsExactly(2L);
+    }
+
+    @Test
+    void ranksByFieldBoostThenRankHint() {
+        // Tuyến 1 và 3 cùng điểm (khớp ở tên tuyến), tuyến 3 có rankHint lớn hơn; tên tài xế nhẹ hơn tên tuyến
+        assertThat(index.search(query("da"), 0, 10).ids()).containsExactly(3L, 1L, 2L);
+        // Khớp nguyên từ xếp trên khớp tiền tố
+        index.upsert(trip(4L, "Đắk Lắk - Buôn Ma Thuột", "47B-555.66", "Phạm Văn Cường", "scheduled", 900));
+        assertThat(index.search(query("da"), 0, 10).ids()).containsExactly(3L, 1L, 4L, 2L);
+    }
+
+    @Test
+    void appliesFiltersFieldsAndPaging() {
+        SearchQuery scheduled = SearchQuery.builder().match("da").filter("status", "scheduled").build();
+        assertThat(index.search(scheduled, 0, 10).ids()).containsExactlyInAnyOrder(1L, 2L);
+
+        SearchQuery driverOnly = SearchQuery.builder().match("da", "driver").build();
+        assertThat(index.search(driverOnly, 0, 10).ids()).containsExactly(2L);
+
+        SearchHits secondPage = index.search(query("da"), 1, 1);
+        assertThat(secondPage.ids()).hasSize(1);
+        assertThat(secondPage.total()).isEqualTo(3);
+    }
+
+    @Test
+    void upsertReplacesAndRemoveDeletesPostings() {
+        index.upsert(trip(1L, "Sài Gòn - Vũng Tàu", "51B-123.45", "Nguyễn Văn An", "scheduled", 100));
+        assertThat(index.search(query("lat"), 0, 10).total()).isZero();
+        assertThat(index.search(query("vung tau"), 0, 10).ids()).containsExactly(1L);
+
+        index.remove(1L);
+        assertThat(index.search(query("vung"), 0, 10).total()).isZero();
+        assertThat(index.size()).isEqualTo(2);
+    }
+
+    @Test
+    void snapshotRoundTrip() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        index.writeTo(out);
+        InvertedIndex restored = InvertedIndex.readFrom(new ByteArrayInputStream(out.toByteArray()));
+
+        assertThat(restored.size()).isEqualTo(3);
+        assertThat(restored.search(query("da"), 0, 10).ids()).isEqualTo(index.search(query("da"), 0, 10).ids());
+        assertThat(restored.search(SearchQuery.builder().match("hue").filter("status", "cancelled").build(), 0, 10)
+                .ids()).containsExactly(3L);
+    }
+
+    @Test
+    void snapshotOmitsExcludedFields() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        index.writeTo(out, Set.of("licensePlate"));
+        InvertedIndex restored = InvertedIndex.readFrom(new ByteArrayInputStream(out.toByteArray()));
+
+        assertThat(restored.size()).isEqualTo(3);
+        assertThat(restored.search(query("51b12345"), 0, 10).total()).isZero();
+        assertThat(restored.search(query("da lat"), 0, 10).ids()).containsExactly(1L);
+    }
+
+    private static SearchQuery query(String text) {
+        return SearchQuery.builder().match(text).build();
+    }
+
+    private static SearchDocument trip(long id, String route, String plate, String driver, String status,
+            long rankHint) {
+        return SearchDocument.builder(id)
+                .rankHint(rankHint)
+                .text("route", route, 2f)
+                .identifier("licensePlate", plate, 2f)
+                .text("driver", driver, 1f)
+                .filter("status", status)
+                .build();
+    }
+}
@@ -0,0 +1,107 @@
+package com.busify.project.common.search;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SearchIndexServiceTest {
+
+    private static final String INDEX = "users";
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void snapshotOnlyIndex_ShouldDeferExcludedFieldQueriesUntilRebuilt() {
+        // Lần chạy trước build từ DB và ghi snapshot (không có email)
+        SearchIndexProvider first = provider();
+        when(first.loadAfter(anyLong(), anyInt())).thenReturn(List.of(user()), List.of());
+        service(first).rebuild(INDEX);
+
+        // Khởi động lại, DB chưa đọc xong: chỉ có bản từ snapshot
+        SearchIndexProvider second = provider();
+        when(second.loadAfter(anyLong(), anyInt())).thenThrow(new IllegalStateException("db chưa sẵn sàng"));
+        SearchIndexService restarted = service(second);
+        restarted.buildOnStartup();
+
+        assertThat(search(restarted, SearchQuery.builder().match("an", "fullName").build()))
+                .hasValueSatisfying(ids -> assertThat(ids).containsExactly(1L));
+        assertThat(search(restarted, SearchQuery.builder().match("an@busify.vn", "email").build())).isEmpty();
+        assertThat(restarted.matchingIds(INDEX, SearchQuery.builder().match("an@busify.vn").build())).isEmpty();
+
+        // Build lại xong thì tìm được theo email
+        doReturn(List.of(user())).when(second).loadAfter(anyLong(), anyInt());
+        restarted.rebuild(INDEX);
+
+        assertThat(restarted.matchingIds(INDEX, SearchQuery.builder().match("an@busify.vn").build()))
+                .hasValueSatisfying(ids -> assertThat(ids).containsExactly(1L));
+    }
+
+    @Test
+    void changeBus_ShouldHandOtherNodesIdsToListenerAndIgnoreOwn() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        SearchIndexChangeBus bus = new SearchIndexChangeBus(mock(StringRedisTemplate.class), objectMapper,
+                mock(RedisMessageListenerContainer.class), "search-channel");
+        Map<String, List<Long>> received = new HashMap<>();
+        bus.bind(received::put);
+
+        bus.onMessage(message(objectMapper, new SearchIndexChangeMessage("other-node", "trips", List.of(1L, 2L))),
+                null);
+        String ownId = (String) ReflectionTestUtils.getField(bus, "nodeId");
+        bus.onMessage(message(objectMapper, new SearchIndexChangeMessage(ownId, "users", List.of(3L))), null);
+
+        assertThat(received).containsOnly(Map.entry("trips", List.of(1L, 2L)));
+    }
+
+    private SearchIndexService service(SearchIndexProvider provider) {
+        SearchIndexChangeBus bus = mock(SearchIndexChangeBus.class);
+        SearchIndexService service = new SearchIndexService(List.of(provider), bus);
+        ReflectionTestUtils.setField(service, "directory", directory.toString());
+        ReflectionTestUtils.setField(service, "maxCandidates", 100);
+        return service;
+    }
+
+    private static Optional<List<Long>> search(SearchIndexService service, SearchQuery query) {
+        return service.search(INDEX, query, PageRequest.of(0, 10)).map(SearchHits::ids);
+    }
+
+    private static SearchIndexProvider provider() {
+        SearchIndexProvider provider = mock(SearchIndexProvider.class);
+        when(provider.getIndexName()).thenReturn(INDEX);
+        when(provider.getSnapshotExcludedFields()).thenReturn(Set.of("email"));
+        return provider;
+    }
+
+    private static SearchDocument user() {
+        return SearchDocument.builder(1L)
+                .text("fullName", "Nguyễn Văn An", 2f)
+                .identifier("email", "an@busify.vn", 1f)
+                .build();
+    }
+
+    private static DefaultMessage message(ObjectMapper objectMapper, SearchIndexChangeMessage payload)
+            throws Exception {
+        return new DefaultMessage("search-channel".getBytes(StandardCharsets.UTF_8),
+                objectMapper.writeValueAsBytes(payload));
+    }
+}
@@ -0,0 +1,127 @@
+package com.busify.project.common.security;
+
+import com.busify.project.common.security.principal.UserPrincipal;
+import com.busify.project.common.utils.JwtUtils;
+import com.busify.project.role.entity.Role;
+import com.busify.project.user.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import java.security.Principal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class StompAuthChannelInterceptorTest {
+
+    private final MessageChannel channel = mock(MessageChannel.class);
+    private JwtUtils jwtUtil;
+    private UserDetailsService userDetailsService;
+    private StompAuthChannelInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = mock(JwtUtils.class);
+        userDetailsService = mock(UserDetailsService.class);
+        interceptor = new StompAuthChannelInterceptor(jwtUtil, userDetailsService);
+    }
+
+    @Test
+    void connect_ValidBearerToken_ShouldAttachUser() {
+        UserPrincipal principal = principal(7L);
+        when(jwtUtil.extractUsername("good")).thenReturn("7@busify.vn");
+        when(userDetailsService.loadUserByUsername("7@busify.vn")).thenReturn(principal);
+        when(jwtUtil.validateToken("good", principal)).thenReturn(true);
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.CONNECT);
+        accessor.addNativeHeader("Authorization", "Bearer good");
+
+        interceptor.preSend(message(accessor), channel);
+
+        assertThat(accessor.getUser()).isInstanceOf(UsernamePasswordAuthenticationToken.class);
+        assertThat(((UsernamePasswordAuthenticationToken) accessor.getUser()).getPrincipal()).isSameAs(principal);
+    }
+
+    @Test
+    void connect_InvalidToken_ShouldBeRejected() {
+        when(jwtUtil.extractUsername("bad")).thenThrow(new IllegalArgumentException("malformed"));
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.CONNECT);
+        accessor.addNativeHeader("Authorization", "Bearer bad");
+
+        assertThatThrownBy(() -> interceptor.preSend(message(accessor), channel))
+                .isInstanceOf(AccessDeniedException.class);
+    }
+
+    @Test
+    void subscribe_OwnNotificationQueue_ShouldPass() {
+        assertThatCode(() -> interceptor.preSend(subscribe("/queue/notifications/7", authenticated(7L)), channel))
+                .doesNotThrowAnyException();
+    }
+
+    @Test
+    void subscribe_OtherUsersQueueOrAnonymous_ShouldBeRejected() {
+        assertThatThrownBy(() -> interceptor.preSend(subscribe("/queue/notifications/8", authenticated(7L)), channel))
+                .isInstanceOf(AccessDeniedException.class);
+        assertThatThrownBy(() -> interceptor.preSend(subscribe("/queue/notifications/7", null), channel))
+                .isInstanceOf(AccessDeniedException.class);
+    }
+
+    @Test
+    void subscribe_PatternOrOtherQueueDestination_ShouldBeRejected() {
+        for (String destination : new String[] { "/queue/**", "/queue/notif*/*", "/queue/notifications/?",
+                "/queue/notifications/{id}", "/topic/**", "/queue", "/queue/other/7", "/queue/notifications/7/x" }) {
+            assertThatThrownBy(() -> interceptor.preSend(subscribe(destination, authenticated(7L)), channel))
+                    .as(destination)
+                    .isInstanceOf(AccessDeniedException.class);
+        }
+    }
+
+    @Test
+    void subscribe_PublicTopic_ShouldNotRequireUser() {
+        assertThatCode(() -> interceptor.preSend(subscribe("/topic/operator/3", null), channel))
+                .doesNotThrowAnyException();
+    }
+
+    @Test
+    void send_IntoNotificationQueue_ShouldBeRejected() {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.SEND);
+        accessor.setDestination("/queue/notifications/8");
+        accessor.setUser(authenticated(7L));
+
+        assertThatThrownBy(() -> interceptor.preSend(message(accessor), channel))
+                .isInstanceOf(AccessDeniedException.class);
+    }
+
+    private static Message<byte[]> subscribe(String destination, Principal user) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.SUBSCRIBE);
+        accessor.setDestination(destination);
+        accessor.setUser(user);
+        return message(accessor);
+    }
+
+    private static Message<byte[]> message(StompHeaderAccessor accessor) {
+        accessor.setLeaveMutable(true);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+
+    private static UsernamePasswordAuthenticationToken authenticated(Long userId) {
+        UserPrincipal principal = principal(userId);
+        return new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+    }
+
+    private static UserPrincipal principal(Long userId) {
+        Role role = new Role();
+        role.setName("CUSTOMER");
+        return new UserPrincipal(User.builder().id(userId).email(userId + "@busify.vn").role(role).build());
+    }
+}
@@ -0,0 +1,67 @@
+package com.busify.project.common.service;
+
+import com.busify.project.common.dto.media.UploadedMedia;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Provider giả lưu file trong bộ nhớ, dùng thay Cloudinary khi test.
+ */
+public class InMemoryMediaStorageProvider implements MediaStorageProvider {
+
+    private final Map<String, byte[]> stored = new ConcurrentHashMap<>();
+    private final Set<String> failingFiles = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private volatile long uploadDelayMs;
+
+    @Override
+    public UploadedMedia upload(Path source, String folder, String publicId) throws IOException {
+        int current = inFlight.incrementAndGet();
+        maxInFlight.accumulateAndGet(current, Math::max);
+        try {
+            byte[] content = Files.readAllBytes(source);
+            if (failingFiles.contains(new String(content))) {
+                throw new IOException("simulated upload failure");
+            }
+            if (uploadDelayMs > 0) {
+                Thread.sleep(uploadDelayMs);
+            }
+            String fullId = folder == null ? publicId : folder + "/" + publicId;
+            stored.put(fullId, content);
+            return new UploadedMedia("memory://" + fullId, fullId);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(e);
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    @Override
+    public void delete(String publicId) {
+        stored.remove(publicId);
+    }
+
+    public void failWhenContentIs(String content) {
+        failingFiles.add(content);
+    }
+
+    public void setUploadDelayMs(long uploadDelayMs) {
+        this.uploadDelayMs = uploadDelayMs;
+    }
+
+    public Map<String, byte[]> getStored() {
+        return stored;
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight.get();
+    }
+}
@@ -0,0 +1,84 @@
+package com.busify.project.common.service.impl;
+
+import com.busify.project.common.dto.media.UploadedMedia;
+import com.busify.project.common.exception.MediaUploadException;
+import com.busify.project.common.service.InMemoryMediaStorageProvider;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MediaUploadServiceImplTest {
+
+    private InMemoryMediaStorageProvider provider;
+    private ExecutorService executor;
+    private MediaUploadServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        provider = new InMemoryMediaStorageProvider();
+        executor = Executors.newFixedThreadPool(4);
+        service = new MediaUploadServiceImpl(provider, executor, 10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void uploadAll_uploadsInParallelAndKeepsOrder() {
+        provider.setUploadDelayMs(100);
+        List<MultipartFile> files = IntStream.range(0, 4)
+                .<MultipartFile>mapToObj(i -> image("bus-" + i + ".png", "content-" + i))
+                .toList();
+
+        List<UploadedMedia> result = service.uploadAll(files, "busify/buses/images");
+
+        assertThat(result).hasSize(4);
+        assertThat(provider.getMaxInFlight()).isGreaterThan(1);
+        for (int i = 0; i < 4; i++) {
+            assertThat(result.get(i).getPublicId()).startsWith("busify/buses/images/file_").endsWith(".png");
+            assertThat(new String(provider.getStored().get(result.get(i).getPublicId()))).isEqualTo("content-" + i);
+        }
+    }
+
+    @Test
+    void uploadAll_removesSuccessfulUploadsWhenOneFails() throws Exception {
+        provider.failWhenContentIs("broken");
+        List<MultipartFile> files = List.of(image("a.png", "ok-1"), image("b.png", "broken"), image("c.png", "ok-2"));
+
+        assertThatThrownBy(() -> service.uploadAll(files, "busify/buses/images"))
+                .isInstanceOf(MediaUploadException.class)
+                .hasMessageContaining("simulated upload failure");
+
+        // Xoá bù chạy bất đồng bộ trên executor
+        executor.shutdown();
+        assertThat(executor.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(provider.getStored()).isEmpty();
+    }
+
+    @Test
+    void uploadAll_rejectsInvalidFilesBeforeUploading() {
+        List<MultipartFile> files = List.of(image("a.png", "ok"),
+                new MockMultipartFile("images", "x.exe", "application/octet-stream", "bin".getBytes()));
+
+        assertThatThrownBy(() -> service.uploadAll(files, "busify/buses/images"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(provider.getStored()).isEmpty();
+    }
+
+    private static MockMultipartFile image(String name, String content) {
+        return new MockMultipartFile("images", name, "image/png", content.getBytes());
+    }
+}
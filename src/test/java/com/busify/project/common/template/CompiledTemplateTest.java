@@ -0,0 +1,49 @@
+package com.busify.project.common.template;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CompiledTemplateTest {
+
+    @Test
+    void renderTo_ShouldSubstituteSlotsInOrder() {
+        CompiledTemplate template = CompiledTemplate.compile("greeting",
+                "<p>Xin chào {{fullName}}, vé {{ticketCode}} của {{fullName}}</p>");
+
+        StringBuilder out = new StringBuilder();
+        template.renderTo(out, Map.of("fullName", "An", "ticketCode", "ABC123"));
+
+        assertThat(out.toString()).isEqualTo("<p>Xin chào An, vé ABC123 của An</p>");
+    }
+
+    @Test
+    void renderTo_WithMissingValue_ShouldRenderEmpty() {
+        CompiledTemplate template = CompiledTemplate.compile("reason", "Lý do: {{ refundReason }}.");
+
+        StringBuilder out = new StringBuilder();
+        template.renderTo(out, EmailTemplateEngine.model("refundReason", null));
+
+        assertThat(out.toString()).isEqualTo("Lý do: .");
+    }
+
+    @Test
+    void renderTo_ShouldKeepPercentSignsLiteral() {
+        CompiledTemplate template = CompiledTemplate.compile("css", "width: 100%; {{value}}");
+
+        StringBuilder out = new StringBuilder();
+        template.renderTo(out, Map.of("value", "ok"));
+
+        assertThat(out.toString()).isEqualTo("width: 100%; ok");
+    }
+
+    @Test
+    void compile_WithUnclosedPlaceholder_ShouldThrowException() {
+        assertThatThrownBy(() -> CompiledTemplate.compile("broken", "Xin chào {{fullName"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("broken");
+    }
+}
@@ -0,0 +1,29 @@
+package com.busify.project.common.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VietnameseTextNormalizerTest {
+
+    @Test
+    void fold_ShouldRemoveDiacriticsAndLowercase() {
+        assertThat(VietnameseTextNormalizer.fold("Đà Nẵng")).isEqualTo("da nang");
+        assertThat(VietnameseTextNormalizer.fold("Hồ Chí Minh")).isEqualTo("ho chi minh");
+        assertThat(VietnameseTextNormalizer.fold(null)).isEmpty();
+    }
+
+    @Test
+    void normalize_ShouldCollapsePunctuationAndWhitespace() {
+        assertThat(VietnameseTextNormalizer.normalize("  Chính sách   hoàn tiền?? "))
+                .isEqualTo("chinh sach hoan tien");
+        assertThat(VietnameseTextNormalizer.normalize("chinh sach hoan tien"))
+                .isEqualTo(VietnameseTextNormalizer.normalize("Chính sách hoàn tiền?"));
+    }
+
+    @Test
+    void tokenize_ShouldSplitNormalizedWords() {
+        assertThat(VietnameseTextNormalizer.tokenize("Bến xe Miền Đông, TP.HCM"))
+                .containsExactly("ben", "xe", "mien", "dong", "tp", "hcm");
+    }
+}
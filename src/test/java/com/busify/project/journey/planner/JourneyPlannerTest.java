@@ -0,0 +1,83 @@
+package com.busify.project.journey.planner;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JourneyPlannerTest {
+
+    private static final long HOUR = 3600;
+    private static final long TRANSFER = 15 * 60;
+
+    @Test
+    void findsTransferThroughIntermediateStop() {
+        // 1 -> 2 (qua điểm dừng 5), rồi 2 -> 3
+        JourneyNetwork network = JourneyNetwork.build(List.of(
+                trip(10, "100000", new long[]{1, 5, 2}, new long[]{0, HOUR, 2 * HOUR}),
+                trip(11, "80000", new long[]{2, 3}, new long[]{2 * HOUR + 10 * 60, 4 * HOUR}),
+                trip(12, "80000", new long[]{2, 3}, new long[]{3 * HOUR, 5 * HOUR})));
+
+        List<Itinerary> result = JourneyPlanner.plan(network, Set.of(1L), Set.of(3L), 0, HOUR, 2, TRANSFER);
+
+        // Chuyến 11 khởi hành trước khi đủ thời gian chuyển xe nên phải chờ chuyến 12
+        assertThat(result).hasSize(1);
+        Itinerary itinerary = result.get(0);
+        assertThat(itinerary.transfers()).isEqualTo(1);
+        assertThat(itinerary.legs()).extracting(leg -> leg.trip().tripId()).containsExactly(10L, 12L);
+        assertThat(itinerary.arrivalTime()).isEqualTo(5 * HOUR);
+        assertThat(itinerary.totalPrice()).isEqualByComparingTo("180000");
+    }
+
+    @Test
+    void alightsAtPassThroughStop() {
+        JourneyNetwork network = JourneyNetwork.build(List.of(
+                trip(20, "150000", new long[]{1, 5, 2}, new long[]{0, HOUR, 2 * HOUR})));
+
+        List<Itinerary> result = JourneyPlanner.plan(network, Set.of(1L), Set.of(5L), 0, HOUR, 0, TRANSFER);
+
+        assertThat(result).singleElement().satisfies(itinerary -> {
+            assertThat(itinerary.legs()).singleElement().satisfies(leg -> {
+                assertThat(leg.fromLocationId()).isEqualTo(1L);
+                assertThat(leg.toLocationId()).isEqualTo(5L);
+                assertThat(leg.arrivalTime()).isEqualTo(HOUR);
+            });
+            assertThat(itinerary.transfers()).isZero();
+        });
+    }
+
+    @Test
+    void keepsParetoOptionsForArrivalTransfersAndPrice() {
+        JourneyNetwork network = JourneyNetwork.build(List.of(
+                // Đi thẳng: chậm nhưng không chuyển xe
+                trip(30, "300000", new long[]{1, 3}, new long[]{0, 6 * HOUR}),
+                // Hai chặng: đến sớm hơn
+                trip(31, "100000", new long[]{1, 2}, new long[]{0, HOUR}),
+                trip(32, "100000", new long[]{2, 3}, new long[]{2 * HOUR, 4 * HOUR}),
+                // Đi thẳng, đến muộn hơn và đắt hơn: bị lấn át
+                trip(33, "350000", new long[]{1, 3}, new long[]{HOUR / 2, 7 * HOUR})));
+
+        List<Itinerary> result = JourneyPlanner.plan(network, Set.of(1L), Set.of(3L), 0, HOUR, 2, TRANSFER);
+
+        assertThat(result).extracting(Itinerary::arrivalTime).containsExactly(4 * HOUR, 6 * HOUR);
+        assertThat(result).extracting(Itinerary::transfers).containsExactly(1, 0);
+    }
+
+    @Test
+    void respectsDepartureWindowAndTransferLimit() {
+        JourneyNetwork network = JourneyNetwork.build(List.of(
+                trip(40, "100000", new long[]{1, 2}, new long[]{2 * HOUR, 3 * HOUR}),
+                trip(41, "100000", new long[]{2, 3}, new long[]{4 * HOUR, 5 * HOUR})));
+
+        assertThat(JourneyPlanner.plan(network, Set.of(1L), Set.of(3L), 0, HOUR, 2, TRANSFER)).isEmpty();
+        assertThat(JourneyPlanner.plan(network, Set.of(1L), Set.of(3L), 0, 3 * HOUR, 0, TRANSFER)).isEmpty();
+        assertThat(JourneyPlanner.plan(network, Set.of(1L), Set.of(3L), 0, 3 * HOUR, 1, TRANSFER)).hasSize(1);
+    }
+
+    private static TripSchedule trip(long id, String price, long[] locations, long[] times) {
+        return new TripSchedule(id, id, "Route " + id, "Operator", new BigDecimal(price), locations, times);
+    }
+}
@@ -0,0 +1,63 @@
+package com.busify.project.location.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GeoGridIndexTest {
+
+    @Test
+    void nearestMatchesBruteForce() {
+        Random random = new Random(7);
+        int n = 5_000;
+        double[] lats = new double[n];
+        double[] lngs = new double[n];
+        // Phủ lãnh thổ Việt Nam
+        for (int i = 0; i < n; i++) {
+            lats[i] = 8.5 + random.nextDouble() * 15;
+            lngs[i] = 102 + random.nextDouble() * 7.5;
+        }
+        GeoGridIndex index = GeoGridIndex.build(lats, lngs, 0.05);
+
+        for (int q = 0; q < 200; q++) {
+            double lat = 8.5 + random.nextDouble() * 15;
+            double lng = 102 + random.nextDouble() * 7.5;
+            double radiusKm = 1 + random.nextDouble() * 60;
+            int k = 1 + random.nextInt(10);
+
+            double[] distances = new double[n];
+            for (int i = 0; i < n; i++) {
+                distances[i] = GeoGridIndex.haversineKm(lat, lng, lats[i], lngs[i]);
+            }
+            int[] expected = IntStream.range(0, n).boxed()
+                    .filter(i -> distances[i] <= radiusKm)
+                    .sorted((a, b) -> Double.compare(distances[a], distances[b]))
+                    .limit(k)
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+
+            int[] actual = index.nearest(lat, lng, radiusKm, k).stream()
+                    .mapToInt(GeoGridIndex.Neighbor::index)
+                    .toArray();
+            assertThat(actual).as("query %d", q).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void returnsDistancesInAscendingOrderWithinRadius() {
+        // Bến xe Miền Đông, Bến xe Miền Tây, Bến xe Đà Nẵng
+        GeoGridIndex index = GeoGridIndex.build(
+                new double[] { 10.8157, 10.7406, 16.0544 },
+                new double[] { 106.7110, 106.6192, 108.1702 }, 0.05);
+
+        List<GeoGridIndex.Neighbor> result = index.nearest(10.7769, 106.7009, 20, 5);
+
+        assertThat(result).extracting(GeoGridIndex.Neighbor::index).containsExactly(0, 1);
+        assertThat(result.get(0).distanceKm()).isLessThan(result.get(1).distanceKm());
+        assertThat(index.nearest(10.7769, 106.7009, 1, 5)).isEmpty();
+    }
+}
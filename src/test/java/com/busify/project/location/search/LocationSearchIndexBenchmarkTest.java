@@ -0,0 +1,103 @@
+package com.busify.project.location.search;
+
+import com.busify.project.location.dto.response.LocationDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * So sánh chỉ mục với cách làm cũ {@code LOWER(name) LIKE '%kw%' OR LOWER(city) LIKE '%kw%'}
+ * (mô phỏng trong bộ nhớ, tức là chưa tính round-trip DB của phiên bản cũ).
+ * Chạy riêng: {@code mvn test -Pbenchmark -Dtest=LocationSearchIndexBenchmarkTest}
+ */
+@Tag("benchmark")
+@Slf4j
+class LocationSearchIndexBenchmarkTest {
+
+    private static final String[] CITIES = { "Hà Nội", "TP. Hồ Chí Minh", "Đà Nẵng", "Hải Phòng", "Cần Thơ",
+            "Nha Trang", "Đà Lạt", "Huế", "Quy Nhơn", "Vũng Tàu", "Buôn Ma Thuột", "Đồng Hới" };
+    private static final String[] KINDS = { "Bến xe", "Văn phòng", "Trạm dừng", "Ngã tư", "Cầu", "Chợ" };
+    private static final String[] NAMES = { "Miền Đông", "Miền Tây", "Giáp Bát", "Mỹ Đình", "Trung tâm",
+            "Phía Bắc", "Phía Nam", "Sân bay", "Ga", "Hàng Xanh", "An Sương", "Ngã Bảy" };
+    private static final String[] QUERIES = { "da nang", "ben xe mien", "ha", "cho", "san bay", "vung tau ga" };
+
+    @Test
+    void indexIsFasterThanLikeScan() {
+        Random random = new Random(42);
+        List<LocationDTO> locations = new ArrayList<>();
+        Map<Long, Long> tripCounts = new HashMap<>();
+        for (long id = 1; id <= 5_000; id++) {
+            String city = CITIES[random.nextInt(CITIES.length)];
+            String name = KINDS[random.nextInt(KINDS.length)] + " " + NAMES[random.nextInt(NAMES.length)] + " " + id;
+            locations.add(LocationSearchIndexTest.location(id, name, "Số " + id + " đường " + NAMES[random.nextInt(NAMES.length)], city));
+            tripCounts.put(id, (long) random.nextInt(500));
+        }
+
+        long buildStart = System.nanoTime();
+        LocationSearchIndex index = LocationSearchIndex.build(locations, tripCounts);
+        long buildMicros = (System.nanoTime() - buildStart) / 1_000;
+
+        int iterations = 2_000;
+        // Warm-up
+        runIndex(index, iterations);
+        runLike(locations, iterations);
+
+        long indexNanos = runIndex(index, iterations);
+        long likeNanos = runLike(locations, iterations);
+
+        log.info("Location search ({} rows): build {} µs, index {} µs/query, LIKE scan {} µs/query",
+                locations.size(), buildMicros,
+                String.format("%.1f", indexNanos / 1_000.0 / (iterations * QUERIES.length)),
+                String.format("%.1f", likeNanos / 1_000.0 / (iterations * QUERIES.length)));
+
+        assertThat(indexNanos).isLessThan(likeNanos);
+        // LIKE không khớp "da nang" với "Đà Nẵng", chỉ mục thì có
+        assertThat(like(locations, "da nang")).isEmpty();
+        assertThat(index.search("da nang", 50)).isNotEmpty();
+    }
+
+    private static long runIndex(LocationSearchIndex index, int iterations) {
+        long start = System.nanoTime();
+        int sink = 0;
+        for (int i = 0; i < iterations; i++) {
+            for (String query : QUERIES) {
+                sink += index.search(query, 50).size();
+            }
+        }
+        assertThat(sink).isPositive();
+        return System.nanoTime() - start;
+    }
+
+    private static long runLike(List<LocationDTO> locations, int iterations) {
+        long start = System.nanoTime();
+        int sink = 0;
+        for (int i = 0; i < iterations; i++) {
+            for (String query : QUERIES) {
+                sink += like(locations, query).size();
+            }
+        }
+        assertThat(sink).isNotNegative();
+        return System.nanoTime() - start;
+    }
+
+    private static List<LocationDTO> like(List<LocationDTO> locations, String keyword) {
+        String kw = keyword.toLowerCase(Locale.ROOT);
+        List<LocationDTO> result = new ArrayList<>();
+        for (LocationDTO location : locations) {
+            if (location.getName().toLowerCase(Locale.ROOT).contains(kw)
+                    || location.getCity().toLowerCase(Locale.ROOT).contains(kw)) {
+                result.add(location);
+            }
+        }
+        return result;
+    }
+}
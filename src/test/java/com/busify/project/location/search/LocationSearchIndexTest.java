@@ -0,0 +1,55 @@
+package com.busify.project.location.search;
+
+import com.busify.project.location.dto.response.LocationDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LocationSearchIndexTest {
+
+    private final LocationSearchIndex index = LocationSearchIndex.build(List.of(
+            location(1L, "Bến xe Đà Nẵng", "Tôn Đức Thắng", "Đà Nẵng"),
+            location(2L, "Bến xe Miền Đông", "Đinh Bộ Lĩnh", "TP. Hồ Chí Minh"),
+            location(3L, "Ngã ba Dầu Giây", "QL1A", "Đồng Nai"),
+            location(4L, "Đà Lạt", "Tô Hiến Thành", "Lâm Đồng")),
+            Map.of(1L, 2L, 4L, 10L));
+
+    @Test
+    void matchesWithoutDiacritics() {
+        assertThat(ids(index.search("da nang", 10))).containsExactly(1L);
+        assertThat(ids(index.search("ĐÀ NẴNG", 10))).containsExactly(1L);
+    }
+
+    @Test
+    void eachWordIsAPrefix() {
+        assertThat(ids(index.search("ben mien d", 10))).containsExactly(2L);
+        assertThat(index.search("ben xyz", 10)).isEmpty();
+    }
+
+    @Test
+    void ranksNamePrefixThenNameThenCityThenPopularity() {
+        // "Đà Lạt" bắt đầu bằng "da"; "Đà Nẵng" khớp token trong tên; "Dầu Giây" khớp tên nhưng ít chuyến hơn
+        assertThat(ids(index.search("da", 10))).containsExactly(4L, 1L, 3L);
+        // "Miền Đông" khớp ở tên, hai location còn lại khớp ở thành phố, xếp theo số chuyến
+        assertThat(ids(index.search("dong", 10))).containsExactly(2L, 4L, 3L);
+    }
+
+    @Test
+    void respectsLimitAndListsAllByCity() {
+        assertThat(index.search("da", 1)).hasSize(1);
+        assertThat(ids(index.all())).containsExactly(1L, 3L, 4L, 2L);
+    }
+
+    private static List<Long> ids(List<LocationDTO> locations) {
+        return locations.stream().map(LocationDTO::getId).toList();
+    }
+
+    static LocationDTO location(Long id, String name, String address, String city) {
+        LocationDTO dto = new LocationDTO(id, name, city);
+        dto.setAddress(address);
+        return dto;
+    }
+}
@@ -0,0 +1,32 @@
+package com.busify.project.notification.service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link UnreadCounterStore} trong bộ nhớ cho test, cùng ngữ nghĩa với bản Redis
+ */
+class InMemoryUnreadCounterStore implements UnreadCounterStore {
+
+    private final Map<Long, Long> counters = new ConcurrentHashMap<>();
+
+    @Override
+    public Long get(Long userId) {
+        return counters.get(userId);
+    }
+
+    @Override
+    public void set(Long userId, long value) {
+        counters.put(userId, value);
+    }
+
+    @Override
+    public Long add(Long userId, long delta) {
+        return counters.computeIfPresent(userId, (id, value) -> Math.max(0, value + delta));
+    }
+
+    @Override
+    public void evict(Long userId) {
+        counters.remove(userId);
+    }
+}
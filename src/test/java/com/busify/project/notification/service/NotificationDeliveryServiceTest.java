@@ -0,0 +1,95 @@
+package com.busify.project.notification.service;
+
+import com.busify.project.notification.controller.NotificationController;
+import com.busify.project.notification.dto.NotificationDTO;
+import com.busify.project.notification.dto.NotificationPushDTO;
+import com.busify.project.notification.enums.NotificationStatus;
+import com.busify.project.notification.event.NotificationChangedEvent;
+import com.busify.project.notification.event.NotificationChangedEvent.Change;
+import com.busify.project.notification.repository.NotificationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class NotificationDeliveryServiceTest {
+
+    private static final Long USER_ID = 7L;
+
+    private InMemoryUnreadCounterStore counterStore;
+    private NotificationRepository notificationRepository;
+    private NotificationController notificationController;
+    private NotificationDeliveryService deliveryService;
+
+    @BeforeEach
+    void setUp() {
+        counterStore = spy(new InMemoryUnreadCounterStore());
+        notificationRepository = mock(NotificationRepository.class);
+        notificationController = mock(NotificationController.class);
+        deliveryService = new NotificationDeliveryService(counterStore, notificationRepository, notificationController);
+        when(notificationRepository.countActiveByUserIdAndStatus(USER_ID, NotificationStatus.UNREAD)).thenReturn(3L);
+    }
+
+    @Test
+    void unreadCount_ShouldCountOnceThenServeFromCounter() {
+        assertThat(deliveryService.unreadCount(USER_ID)).isEqualTo(3);
+        assertThat(deliveryService.unreadCount(USER_ID)).isEqualTo(3);
+        assertThat(deliveryService.unreadCount(USER_ID)).isEqualTo(3);
+
+        verify(notificationRepository, times(1)).countActiveByUserIdAndStatus(USER_ID, NotificationStatus.UNREAD);
+    }
+
+    @Test
+    void onNotificationChanged_ShouldAdjustCounterAndPushNewCount() {
+        deliveryService.unreadCount(USER_ID);
+
+        deliveryService.onNotificationChanged(event(Change.CREATED, 1));
+        deliveryService.onNotificationChanged(event(Change.READ, -1));
+        deliveryService.onNotificationChanged(event(Change.READ, -1));
+
+        ArgumentCaptor<NotificationPushDTO> pushes = ArgumentCaptor.forClass(NotificationPushDTO.class);
+        verify(notificationController, times(3)).sendToUser(eq(USER_ID), pushes.capture());
+        assertThat(pushes.getAllValues()).extracting(NotificationPushDTO::getUnreadCount).containsExactly(4L, 3L, 2L);
+        assertThat(pushes.getAllValues().get(0).getNotification().getId()).isEqualTo(99L);
+        verify(notificationRepository, times(1)).countActiveByUserIdAndStatus(USER_ID, NotificationStatus.UNREAD);
+    }
+
+    @Test
+    void onNotificationChanged_ReadAll_ShouldResetCounterWithoutCounting() {
+        deliveryService.onNotificationChanged(event(Change.READ_ALL, 0));
+
+        assertThat(counterStore.get(USER_ID)).isZero();
+        assertThat(deliveryService.unreadCount(USER_ID)).isZero();
+        verify(notificationRepository, never()).countActiveByUserIdAndStatus(anyLong(), any());
+    }
+
+    @Test
+    void onNotificationChanged_WithoutCounter_ShouldLoadCommittedCountFromDb() {
+        deliveryService.onNotificationChanged(event(Change.CREATED, 1));
+
+        // Dòng mới đã commit nên COUNT đã gồm nó, không cộng thêm lần nữa
+        assertThat(counterStore.get(USER_ID)).isEqualTo(3);
+    }
+
+    @Test
+    void unreadCount_CounterUnavailable_ShouldFallBackToDb() {
+        when(counterStore.get(USER_ID)).thenThrow(new IllegalStateException("redis down"));
+
+        assertThat(deliveryService.unreadCount(USER_ID)).isEqualTo(3);
+    }
+
+    private NotificationChangedEvent event(Change change, long delta) {
+        NotificationDTO dto = change == Change.READ_ALL ? null : NotificationDTO.builder().id(99L).userId(USER_ID).build();
+        return new NotificationChangedEvent(this, USER_ID, change, dto, delta);
+    }
+}
@@ -0,0 +1,131 @@
+package com.busify.project.payment.service;
+
+import com.busify.project.common.cache.CacheNames;
+import com.busify.project.payment.dto.response.PaymentResponseDTO;
+import com.busify.project.payment.entity.PaymentCallback;
+import com.busify.project.payment.enums.PaymentStatus;
+import com.busify.project.payment.repository.PaymentCallbackRepository;
+import com.busify.project.payment.service.impl.PaymentCallbackDeduplicator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PaymentCallbackDeduplicatorTest {
+
+    private static final String KEY = PaymentCallbackDeduplicator.vnPayKey("TXN123", "14000001");
+
+    private PaymentCallbackRepository repository;
+    private ConcurrentMapCacheManager cacheManager;
+    private PaymentCallbackDeduplicator deduplicator;
+    private final AtomicInteger handlerCalls = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(PaymentCallbackRepository.class);
+        cacheManager = new ConcurrentMapCacheManager(CacheNames.PAYMENT_CALLBACKS);
+        deduplicator = new PaymentCallbackDeduplicator(repository, cacheManager);
+        ReflectionTestUtils.setField(deduplicator, "claimTimeoutMinutes", 10L);
+    }
+
+    private PaymentResponseDTO completed() {
+        handlerCalls.incrementAndGet();
+        return PaymentResponseDTO.builder().paymentId(5L).bookingId(9L).status(PaymentStatus.completed).build();
+    }
+
+    @Test
+    void process_FirstCallback_ShouldRunHandlerAndRecordResult() {
+        when(repository.claim(eq(KEY), any())).thenReturn(1);
+
+        PaymentResponseDTO result = deduplicator.process(KEY, this::completed);
+
+        assertThat(result.getStatus()).isEqualTo(PaymentStatus.completed);
+        assertThat(handlerCalls).hasValue(1);
+        verify(repository).recordResult(eq(KEY), eq(5L), eq(9L), eq(PaymentStatus.completed), any());
+    }
+
+    @Test
+    void process_RepeatedCallback_ShouldReturnCachedResultWithoutTouchingDb() {
+        when(repository.claim(eq(KEY), any())).thenReturn(1);
+        deduplicator.process(KEY, this::completed);
+
+        PaymentResponseDTO again = deduplicator.process(KEY, this::completed);
+
+        assertThat(handlerCalls).hasValue(1);
+        assertThat(again.getPaymentId()).isEqualTo(5L);
+        assertThat(again.getBookingId()).isEqualTo(9L);
+        assertThat(again.getStatus()).isEqualTo(PaymentStatus.completed);
+        verify(repository).claim(eq(KEY), any());
+    }
+
+    @Test
+    void process_CallbackHandledOnOtherInstance_ShouldReturnStoredResult() {
+        when(repository.claim(eq(KEY), any())).thenReturn(0);
+        when(repository.findById(KEY)).thenReturn(Optional.of(
+                new PaymentCallback(KEY, 5L, 9L, PaymentStatus.completed, Instant.now(), Instant.now())));
+
+        PaymentResponseDTO result = deduplicator.process(KEY, this::completed);
+
+        assertThat(handlerCalls).hasValue(0);
+        assertThat(result.getStatus()).isEqualTo(PaymentStatus.completed);
+        assertThat(cacheManager.getCache(CacheNames.PAYMENT_CALLBACKS).get(KEY)).isNotNull();
+    }
+
+    @Test
+    void process_CallbackStillInProgress_ShouldReturnPendingAndNotCache() {
+        when(repository.claim(eq(KEY), any())).thenReturn(0);
+        when(repository.findById(KEY)).thenReturn(Optional.of(
+                new PaymentCallback(KEY, null, null, null, Instant.now(), null)));
+
+        PaymentResponseDTO result = deduplicator.process(KEY, this::completed);
+
+        assertThat(handlerCalls).hasValue(0);
+        assertThat(result.getStatus()).isEqualTo(PaymentStatus.pending);
+        assertThat(cacheManager.getCache(CacheNames.PAYMENT_CALLBACKS).get(KEY)).isNull();
+    }
+
+    @Test
+    void process_AbandonedClaim_ShouldBeTakenOverAfterTimeout() {
+        when(repository.claim(eq(KEY), any())).thenReturn(0);
+        when(repository.takeOverStale(eq(KEY), any(), any())).thenAnswer(invocation -> {
+            Instant now = invocation.getArgument(1);
+            Instant staleBefore = invocation.getArgument(2);
+            assertThat(Duration.between(staleBefore, now)).isEqualTo(Duration.ofMinutes(10));
+            return 1;
+        });
+
+        PaymentResponseDTO result = deduplicator.process(KEY, this::completed);
+
+        assertThat(handlerCalls).hasValue(1);
+        assertThat(result.getStatus()).isEqualTo(PaymentStatus.completed);
+        verify(repository, never()).findById(anyString());
+        verify(repository).recordResult(eq(KEY), eq(5L), eq(9L), eq(PaymentStatus.completed), any());
+    }
+
+    @Test
+    void process_HandlerFails_ShouldReleaseClaimForRetry() {
+        when(repository.claim(eq(KEY), any())).thenReturn(1);
+
+        assertThatThrownBy(() -> deduplicator.process(KEY, () -> {
+            throw new IllegalStateException("gateway down");
+        })).isInstanceOf(IllegalStateException.class);
+
+        verify(repository).release(KEY);
+        verify(repository, never()).recordResult(anyString(), any(), any(), any(), any());
+    }
+}
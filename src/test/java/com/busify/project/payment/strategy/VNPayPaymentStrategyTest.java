@@ -0,0 +1,81 @@
+package com.busify.project.payment.strategy;
+
+import com.busify.project.booking.entity.Bookings;
+import com.busify.project.common.event.PaymentSuccessEvent;
+import com.busify.project.common.publisher.BusifyEventPublisher;
+import com.busify.project.payment.config.VNPayConfig;
+import com.busify.project.payment.dto.response.PaymentResponseDTO;
+import com.busify.project.payment.entity.Payment;
+import com.busify.project.payment.enums.PaymentStatus;
+import com.busify.project.payment.repository.PaymentRepository;
+import com.busify.project.payment.strategy.impl.VNPayPaymentStrategy;
+import com.busify.project.trip_seat.services.SeatReleaseService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class VNPayPaymentStrategyTest {
+
+    private PaymentRepository paymentRepository;
+    private BusifyEventPublisher eventPublisher;
+    private SeatReleaseService seatReleaseService;
+    private VNPayPaymentStrategy strategy;
+    private Payment payment;
+
+    @BeforeEach
+    void setUp() {
+        paymentRepository = mock(PaymentRepository.class);
+        eventPublisher = mock(BusifyEventPublisher.class);
+        seatReleaseService = mock(SeatReleaseService.class);
+        strategy = new VNPayPaymentStrategy(mock(VNPayConfig.class), paymentRepository, eventPublisher,
+                seatReleaseService);
+
+        Bookings booking = new Bookings();
+        booking.setId(9L);
+        payment = new Payment();
+        payment.setPaymentId(5L);
+        payment.setTransactionCode("TXN123");
+        payment.setBooking(booking);
+        when(paymentRepository.findByTransactionCode("TXN123")).thenReturn(Optional.of(payment));
+    }
+
+    @Test
+    void handleCallback_LostCompareAndSet_ShouldNotTouchLoadedEntity() {
+        when(paymentRepository.completeIfPending(eq(5L), eq("14000002"), any())).thenReturn(0);
+        when(paymentRepository.findStatusByPaymentId(5L)).thenReturn(PaymentStatus.completed);
+
+        PaymentResponseDTO result = strategy.handleCallback("TXN123", "00", "100000", "info", "14000002");
+
+        assertThat(result.getStatus()).isEqualTo(PaymentStatus.completed);
+        assertThat(result.getBookingId()).isEqualTo(9L);
+        // Entity còn giữ giá trị lúc nạp nên không bị Hibernate flush đè lên dòng của callback thắng
+        assertThat(payment.getStatus()).isEqualTo(PaymentStatus.pending);
+        assertThat(payment.getPaidAt()).isNull();
+        assertThat(payment.getPaymentGatewayId()).isNull();
+        verify(seatReleaseService, never()).cancelReleaseTask(anyLong());
+        verify(eventPublisher, never()).publishEvent(any(PaymentSuccessEvent.class));
+    }
+
+    @Test
+    void handleCallback_WonCompareAndSet_ShouldCompleteWithoutDirtyingEntity() {
+        when(paymentRepository.completeIfPending(eq(5L), eq("14000001"), any())).thenReturn(1);
+        when(paymentRepository.findStatusByPaymentId(5L)).thenReturn(PaymentStatus.completed);
+
+        PaymentResponseDTO result = strategy.handleCallback("TXN123", "00", "100000", "info", "14000001");
+
+        assertThat(result.getStatus()).isEqualTo(PaymentStatus.completed);
+        assertThat(payment.getPaidAt()).isNull();
+        verify(seatReleaseService).cancelReleaseTask(9L);
+        verify(eventPublisher).publishEvent(any(PaymentSuccessEvent.class));
+    }
+}
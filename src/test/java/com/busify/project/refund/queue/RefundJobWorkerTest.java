@@ -0,0 +1,178 @@
+package com.busify.project.refund.queue;
+
+import com.busify.project.payment.entity.Payment;
+import com.busify.project.payment.enums.PaymentMethod;
+import com.busify.project.refund.entity.Refund;
+import com.busify.project.refund.enums.RefundStatus;
+import com.busify.project.refund.strategy.RefundGatewayResult;
+import com.busify.project.refund.strategy.RefundStrategyFactory;
+import com.busify.project.refund.strategy.impl.FakeRefundStrategy;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@Slf4j
+class RefundJobWorkerTest {
+
+    private static final int THREADS = 8;
+
+    private RefundJobStore jobStore;
+    private ExecutorService executor;
+    private final Queue<Refund> queue = new ConcurrentLinkedQueue<>();
+
+    @BeforeEach
+    void setUp() {
+        jobStore = mock(RefundJobStore.class);
+        executor = Executors.newFixedThreadPool(THREADS);
+        // Giả lập claimDue: lấy tối đa limit job và tăng attemptCount như markSubmitted
+        when(jobStore.claimDue(anyInt(), any(Duration.class))).thenAnswer(invocation -> {
+            int limit = invocation.getArgument(0);
+            List<Refund> claimed = new ArrayList<>();
+            Refund refund;
+            while (claimed.size() < limit && (refund = queue.poll()) != null) {
+                refund.setStatus(RefundStatus.PROCESSING);
+                refund.setAttemptCount(refund.getAttemptCount() + 1);
+                claimed.add(refund);
+            }
+            return claimed;
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void poll_ShouldDrainQueueConcurrently() throws InterruptedException {
+        int jobs = 200;
+        long latencyMs = 20;
+        for (long id = 1; id <= jobs; id++) {
+            queue.add(refund(id));
+        }
+        CountDownLatch done = new CountDownLatch(jobs);
+        doAnswer(invocation -> {
+            done.countDown();
+            return null;
+        }).when(jobStore).complete(any(), any());
+
+        RefundJobWorker worker = worker(new FakeRefundStrategy(latencyMs, 0, 0), 5);
+        long start = System.nanoTime();
+        worker.poll();
+
+        assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+        long elapsedMs = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+        log.debug("Refund queue: {} job, {} thread, gateway {} ms -> {} ms (tuần tự ~{} ms)",
+                jobs, THREADS, latencyMs, elapsedMs, jobs * latencyMs);
+        // Chỉ dựa vào việc tự nhận job khi xong, không cần lịch poll định kỳ
+        assertThat(elapsedMs).isLessThan(jobs * latencyMs);
+        assertThat(queue).isEmpty();
+    }
+
+    @Test
+    void process_TransientFailure_ShouldRescheduleInFuture() {
+        RefundJobWorker worker = worker(new FakeRefundStrategy(0, 1.0, 0), 5);
+        Refund job = refund(1L);
+        job.setAttemptCount(1);
+
+        Instant before = Instant.now();
+        worker.process(job);
+
+        verify(jobStore).reschedule(eq(1L), anyString(),
+                argThat(at -> at.isAfter(before)));
+        verify(jobStore, never()).fail(any(), any(), any());
+    }
+
+    @Test
+    void process_TransientFailureOnLastAttempt_ShouldFail() {
+        RefundJobWorker worker = worker(new FakeRefundStrategy(0, 1.0, 0), 3);
+        Refund job = refund(1L);
+        job.setAttemptCount(3);
+
+        worker.process(job);
+
+        verify(jobStore).fail(eq(1L), anyString(), isNull());
+        verify(jobStore, never()).reschedule(any(), any(), any());
+    }
+
+    @Test
+    void process_Rejected_ShouldFailWithoutRetry() {
+        RefundJobWorker worker = worker(new FakeRefundStrategy(0, 0, 1.0), 5);
+
+        worker.process(refund(1L));
+
+        verify(jobStore).fail(eq(1L), anyString(), anyString());
+        verify(jobStore, never()).reschedule(any(), any(), any());
+    }
+
+    @Test
+    void process_Succeeded_ShouldCompleteWithGatewayId() {
+        RefundJobWorker worker = worker(new FakeRefundStrategy(0, 0, 0), 5);
+
+        worker.process(refund(1L));
+
+        verify(jobStore).complete(eq(1L),
+                argThat((RefundGatewayResult result) ->
+                        result.outcome() == RefundGatewayResult.Outcome.SUCCEEDED
+                                && "FAKE-REF_1".equals(result.gatewayRefundId())));
+    }
+
+    @Test
+    void retryPolicy_ShouldBackOffWithinBounds() {
+        RefundRetryPolicy policy = new RefundRetryPolicy(5, 1_000, 10_000);
+        Instant now = Instant.parse("2025-01-01T00:00:00Z");
+
+        for (int attempt = 1; attempt < 5; attempt++) {
+            long delay = Math.min(10_000, 1_000L << (attempt - 1));
+            Optional<Instant> next = policy.nextAttemptAt(attempt, now);
+            assertThat(next).isPresent();
+            assertThat(Duration.between(now, next.get()).toMillis()).isBetween(delay / 2, delay);
+        }
+        assertThat(policy.nextAttemptAt(5, now)).isEmpty();
+    }
+
+    private RefundJobWorker worker(FakeRefundStrategy strategy, int maxAttempts) {
+        return new RefundJobWorker(jobStore,
+                new RefundStrategyFactory(List.of(strategy)),
+                new RefundRetryPolicy(maxAttempts, 1_000, 60_000),
+                executor, THREADS, 300_000);
+    }
+
+    private static Refund refund(Long id) {
+        Payment payment = new Payment();
+        payment.setPaymentId(id);
+        payment.setPaymentMethod(PaymentMethod.VNPAY);
+        Refund refund = new Refund();
+        refund.setRefundId(id);
+        refund.setPayment(payment);
+        refund.setStatus(RefundStatus.PENDING);
+        refund.setRefundTransactionCode("REF_" + id);
+        return refund;
+    }
+}
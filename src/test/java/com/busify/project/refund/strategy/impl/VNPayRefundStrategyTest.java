@@ -0,0 +1,31 @@
+package com.busify.project.refund.strategy.impl;
+
+import com.busify.project.payment.config.VNPayConfig;
+import com.busify.project.refund.entity.Refund;
+import com.busify.project.refund.strategy.RefundGatewayResult.Outcome;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class VNPayRefundStrategyTest {
+
+    private final VNPayRefundStrategy strategy = new VNPayRefundStrategy(mock(VNPayConfig.class));
+    private final Refund refund = new Refund();
+
+    @Test
+    void toResult_OtherErrorCode99_ShouldBeRetried() {
+        assertThat(strategy.toResult(refund, response("99")).outcome()).isEqualTo(Outcome.RETRYABLE);
+    }
+
+    @Test
+    void toResult_ShouldSucceedOn00AndRejectOtherCodes() {
+        assertThat(strategy.toResult(refund, response("00")).outcome()).isEqualTo(Outcome.SUCCEEDED);
+        assertThat(strategy.toResult(refund, response("94")).outcome()).isEqualTo(Outcome.REJECTED);
+        assertThat(strategy.toResult(refund, response("HTTP400")).outcome()).isEqualTo(Outcome.REJECTED);
+    }
+
+    private static String response(String code) {
+        return "{\"vnp_ResponseCode\":\"" + code + "\",\"vnp_Message\":\"msg\",\"vnp_TransactionNo\":\"123\"}";
+    }
+}
@@ -0,0 +1,45 @@
+package com.busify.project.report.export;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExportRowWriterTest {
+
+    private static final String[] COLUMNS = { "id", "name", "amount", "paid_at" };
+
+    @Test
+    void csv_ShouldQuoteSpecialCharactersAndGuardFormulas() throws IOException {
+        StringWriter out = new StringWriter();
+        ExportRowWriter writer = ExportFormat.csv.newWriter(out);
+
+        writer.writeHeader(COLUMNS);
+        writer.writeRow(new Object[] { 1L, "Nguyễn, \"Văn\" A", new BigDecimal("1E+5"), null });
+        writer.writeRow(new Object[] { 2L, "=HYPERLINK(\"x\")", new BigDecimal("-5"),
+                Timestamp.from(Instant.parse("2025-01-02T03:04:05Z")) });
+        writer.flush();
+
+        assertThat(out.toString()).isEqualTo("\uFEFFid,name,amount,paid_at\r\n"
+                + "1,\"Nguyễn, \"\"Văn\"\" A\",100000,\r\n"
+                + "2,\"'=HYPERLINK(\"\"x\"\")\",-5,2025-01-02T03:04:05Z\r\n");
+    }
+
+    @Test
+    void jsonLines_ShouldWriteOneObjectPerLine() throws IOException {
+        StringWriter out = new StringWriter();
+        ExportRowWriter writer = ExportFormat.jsonl.newWriter(out);
+
+        writer.writeHeader(COLUMNS);
+        writer.writeRow(new Object[] { 1L, "Ghế \"A1\"\n", new BigDecimal("250000.00"), null });
+        writer.flush();
+
+        assertThat(out.toString())
+                .isEqualTo("{\"id\":1,\"name\":\"Ghế \\\"A1\\\"\\n\",\"amount\":250000.00,\"paid_at\":null}\n");
+    }
+}
@@ -0,0 +1,70 @@
+package com.busify.project.report.service;
+
+import com.busify.project.bus_operator.repository.BusOperatorRepository;
+import com.busify.project.common.exception.AppException;
+import com.busify.project.common.exception.ErrorCode;
+import com.busify.project.report.export.ExportDataset;
+import com.busify.project.report.export.ExportFormat;
+import com.busify.project.trip.service.TripCrewAccessService;
+import com.busify.project.trip.service.TripCrewAccessService.CrewScope;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class OperatorExportServiceTest {
+
+    private static final LocalDate FROM = LocalDate.of(2025, 1, 1);
+    private static final LocalDate TO = LocalDate.of(2025, 1, 31);
+
+    private BusOperatorRepository busOperatorRepository;
+    private TripCrewAccessService crewAccess;
+    private OperatorExportService service;
+
+    @BeforeEach
+    void setUp() {
+        busOperatorRepository = mock(BusOperatorRepository.class);
+        crewAccess = mock(TripCrewAccessService.class);
+        service = new OperatorExportService(mock(JdbcTemplate.class), busOperatorRepository, crewAccess);
+        ReflectionTestUtils.setField(service, "maxRangeDays", 366L);
+        when(busOperatorRepository.existsById(3L)).thenReturn(true);
+        when(busOperatorRepository.existsById(4L)).thenReturn(true);
+    }
+
+    @Test
+    void exportToResponse_OtherOperator_ShouldBeRejectedBeforeWriting() {
+        when(crewAccess.currentScope()).thenReturn(new CrewScope(false, 10L, 3L));
+        HttpServletResponse response = mock(HttpServletResponse.class);
+
+        assertThatThrownBy(() -> service.exportToResponse(ExportDataset.payments, ExportFormat.csv, 4L, FROM, TO,
+                response))
+                .isInstanceOf(AppException.class)
+                .extracting("errorCode").isEqualTo(ErrorCode.OPERATOR_UNAUTHORIZED);
+        verifyNoInteractions(response);
+    }
+
+    @Test
+    void validate_DriverWithoutOperatorScope_ShouldBeRejected() {
+        when(crewAccess.currentScope()).thenReturn(new CrewScope(false, 20L, null));
+
+        assertThatThrownBy(() -> service.validate(3L, FROM, TO)).isInstanceOf(AppException.class);
+    }
+
+    @Test
+    void validate_OwnOperatorOrAdmin_ShouldPass() {
+        when(crewAccess.currentScope()).thenReturn(new CrewScope(false, 10L, 3L));
+        assertThatCode(() -> service.validate(3L, FROM, TO)).doesNotThrowAnyException();
+
+        when(crewAccess.currentScope()).thenReturn(new CrewScope(true, null, null));
+        assertThatCode(() -> service.validate(4L, FROM, TO)).doesNotThrowAnyException();
+    }
+}
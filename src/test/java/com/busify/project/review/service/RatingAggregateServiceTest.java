@@ -0,0 +1,107 @@
+package com.busify.project.review.service;
+
+import com.busify.project.bus.entity.Bus;
+import com.busify.project.bus_operator.entity.BusOperator;
+import com.busify.project.common.job.JobCoordinator;
+import com.busify.project.review.repository.RatingAggregateRepository;
+import com.busify.project.route.entity.Route;
+import com.busify.project.trip.entity.Trip;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RatingAggregateServiceTest {
+
+    private RatingAggregateRepository repository;
+    private JobCoordinator jobCoordinator;
+    private RatingAggregateService service;
+    private Trip trip;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(RatingAggregateRepository.class);
+        jobCoordinator = mock(JobCoordinator.class);
+        service = new RatingAggregateService(repository, jobCoordinator);
+
+        BusOperator operator = new BusOperator();
+        operator.setId(7L);
+        Bus bus = new Bus();
+        bus.setOperator(operator);
+        Route route = new Route();
+        route.setId(3L);
+        trip = new Trip();
+        trip.setId(11L);
+        trip.setBus(bus);
+        trip.setRoute(route);
+    }
+
+    @Test
+    void reviewAdded_ShouldIncrementBucketForEveryScope() {
+        service.reviewAdded(trip, 4);
+
+        verify(repository).applyDelta("TRIP", 11L, 0, 0, 0, 1, 0);
+        verify(repository).applyDelta("OPERATOR", 7L, 0, 0, 0, 1, 0);
+        verify(repository).applyDelta("ROUTE", 3L, 0, 0, 0, 1, 0);
+    }
+
+    @Test
+    void reviewChanged_ShouldMoveOneReviewBetweenBuckets() {
+        service.reviewChanged(trip, 2, 5);
+
+        verify(repository).applyDelta("TRIP", 11L, 0, -1, 0, 0, 1);
+        verify(repository).applyDelta("OPERATOR", 7L, 0, -1, 0, 0, 1);
+        verify(repository).applyDelta("ROUTE", 3L, 0, -1, 0, 0, 1);
+    }
+
+    @Test
+    void reviewChanged_SameRating_ShouldNotTouchAggregates() {
+        service.reviewChanged(trip, 3, 3);
+
+        verify(repository, never()).applyDelta(anyString(), anyLong(),
+                anyLong(), anyLong(), anyLong(), anyLong(), anyLong());
+    }
+
+    @Test
+    void reviewRemoved_WithoutOperator_ShouldSkipOperatorScope() {
+        trip.setBus(null);
+
+        service.reviewRemoved(trip, 1);
+
+        verify(repository).applyDelta("TRIP", 11L, -1, 0, 0, 0, 0);
+        verify(repository).applyDelta("ROUTE", 3L, -1, 0, 0, 0, 0);
+        verify(repository, never()).applyDelta(eq("OPERATOR"), anyLong(),
+                anyLong(), anyLong(), anyLong(), anyLong(), anyLong());
+    }
+
+    @Test
+    void scheduledRebuild_ShouldRunOnlyThroughJobLease() {
+        ArgumentCaptor<Runnable> task = ArgumentCaptor.forClass(Runnable.class);
+        when(jobCoordinator.runExclusive(eq("rating-rebuild"), task.capture())).thenReturn(true);
+
+        service.scheduledRebuild();
+
+        verify(repository, never()).deleteAllAggregates();
+        task.getValue().run();
+        verify(repository).deleteAllAggregates();
+        verify(repository).rebuildTripAggregates();
+    }
+
+    @Test
+    void scheduledRebuild_LeaseHeldElsewhere_ShouldNotRebuild() {
+        when(jobCoordinator.runExclusive(eq("rating-rebuild"), any())).thenReturn(false);
+
+        service.scheduledRebuild();
+
+        verify(jobCoordinator).runExclusive(eq("rating-rebuild"), any());
+        verify(repository, never()).deleteAllAggregates();
+    }
+}
@@ -0,0 +1,72 @@
+package com.busify.project.seat_layout.layout;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CompiledSeatLayoutTest {
+
+    @Test
+    void compile_ShouldIndexSeatsByFloorRowColumn() {
+        CompiledSeatLayout layout = CompiledSeatLayout.compile(3, "Giường nằm 2 tầng",
+                Map.of("rows", 2, "cols", 3, "floors", 2));
+
+        assertThat(layout.size()).isEqualTo(12);
+        assertThat(layout.seatCodeAt(0)).isEqualTo("A.1.1");
+        assertThat(layout.seatCodeAt(2)).isEqualTo("C.1.1");
+        assertThat(layout.seatCodeAt(3)).isEqualTo("A.2.1");
+        assertThat(layout.seatCodeAt(6)).isEqualTo("A.1.2");
+        int ordinal = layout.ordinalOf("B.2.2");
+        assertThat(ordinal).isEqualTo(10);
+        assertThat(layout.floorAt(ordinal)).isEqualTo(2);
+        assertThat(layout.rowAt(ordinal)).isEqualTo(2);
+        assertThat(layout.colAt(ordinal)).isEqualTo(1);
+        assertThat(layout.ordinalOf("D.1.1")).isEqualTo(-1);
+        assertThat(layout.ordinalOf(null)).isEqualTo(-1);
+    }
+
+    @Test
+    void compile_WithoutFloors_ShouldDefaultToOneFloor() {
+        CompiledSeatLayout layout = CompiledSeatLayout.compile(1, "Ghế ngồi", Map.of("rows", "10", "cols", 4));
+
+        assertThat(layout.getFloors()).isEqualTo(1);
+        assertThat(layout.size()).isEqualTo(40);
+        assertThat(layout.seatCodeAt(39)).isEqualTo("D.10.1");
+    }
+
+    @Test
+    void compile_InvalidData_ShouldThrow() {
+        assertThatThrownBy(() -> CompiledSeatLayout.compile(1, "x", Map.of("cols", 4)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> CompiledSeatLayout.compile(1, "x", Map.of("rows", 0, "cols", 4)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> CompiledSeatLayout.compile(1, "x", Map.of("rows", 2, "cols", 27)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void compiledLayout_ShouldSurviveJdkSerialization() throws Exception {
+        CompiledSeatLayout layout = CompiledSeatLayout.compile(3, "Limousine",
+                Map.of("rows", 5, "cols", 3, "floors", 1));
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(layout);
+        }
+        CompiledSeatLayout copy;
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            copy = (CompiledSeatLayout) in.readObject();
+        }
+
+        assertThat(copy.size()).isEqualTo(15);
+        assertThat(copy.ordinalOf("C.5.1")).isEqualTo(14);
+        assertThat(copy.getLayoutData()).containsEntry("rows", 5);
+    }
+}
@@ -0,0 +1,62 @@
+package com.busify.project.ticket.boarding;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BoardingPassCodecTest {
+
+    private static final byte[] MASTER_KEY = "test-master-key".getBytes(StandardCharsets.UTF_8);
+
+    private final BoardingPass pass = new BoardingPass(42L, "TK-ABC123", 7L, "A05", 1_800_000_000L);
+
+    @Test
+    void decode_ShouldReturnSignedPass() {
+        byte[] key = BoardingPassCodec.tripKey(MASTER_KEY, 7L);
+
+        String token = BoardingPassCodec.encode(pass, key);
+
+        assertThat(token).startsWith("BP1.");
+        assertThat(BoardingPassCodec.peekTripId(token)).isEqualTo(7L);
+        assertThat(BoardingPassCodec.decode(token, key)).isEqualTo(pass);
+    }
+
+    @Test
+    void decode_TamperedPayload_ShouldBeRejected() {
+        byte[] key = BoardingPassCodec.tripKey(MASTER_KEY, 7L);
+        String token = BoardingPassCodec.encode(pass, key);
+        String forged = BoardingPassCodec.encode(
+                new BoardingPass(42L, "TK-ABC123", 7L, "A01", pass.expiresAt()), "other".getBytes(StandardCharsets.UTF_8));
+        String tampered = forged.substring(0, forged.lastIndexOf('.')) + token.substring(token.lastIndexOf('.'));
+
+        assertThatThrownBy(() -> BoardingPassCodec.decode(tampered, key))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void decode_WithAnotherTripKey_ShouldBeRejected() {
+        String token = BoardingPassCodec.encode(pass, BoardingPassCodec.tripKey(MASTER_KEY, 7L));
+
+        assertThatThrownBy(() -> BoardingPassCodec.decode(token, BoardingPassCodec.tripKey(MASTER_KEY, 8L)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void decode_Malformed_ShouldBeRejected() {
+        byte[] key = BoardingPassCodec.tripKey(MASTER_KEY, 7L);
+
+        assertThatThrownBy(() -> BoardingPassCodec.decode("not-a-token", key))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> BoardingPassCodec.decode("BP1.@@@.@@@", key))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void isExpired_ShouldCompareWithExpiry() {
+        assertThat(pass.isExpired(pass.expiresAt())).isFalse();
+        assertThat(pass.isExpired(pass.expiresAt() + 1)).isTrue();
+    }
+}
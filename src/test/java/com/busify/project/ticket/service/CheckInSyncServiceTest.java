@@ -0,0 +1,114 @@
+package com.busify.project.ticket.service;
+
+import com.busify.project.audit_log.entity.AuditLog;
+import com.busify.project.audit_log.service.AuditLogService;
+import com.busify.project.common.utils.JwtUtils;
+import com.busify.project.ticket.dto.request.CheckInSyncRequestDTO;
+import com.busify.project.ticket.dto.response.CheckInSyncResponseDTO;
+import com.busify.project.ticket.dto.response.TicketCheckInRow;
+import com.busify.project.ticket.enums.CheckInOutcome;
+import com.busify.project.ticket.repository.TicketRepository;
+import com.busify.project.trip.exception.TripAccessException;
+import com.busify.project.trip.service.TripCrewAccessService;
+import com.busify.project.user.repository.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class CheckInSyncServiceTest {
+
+    private static final SpelAwareProxyProjectionFactory PROJECTIONS = new SpelAwareProxyProjectionFactory();
+
+    private TicketRepository ticketRepository;
+    private AuditLogService auditLogService;
+    private TripCrewAccessService crewAccess;
+    private CheckInSyncService service;
+
+    @BeforeEach
+    void setUp() {
+        ticketRepository = mock(TicketRepository.class);
+        auditLogService = mock(AuditLogService.class);
+        crewAccess = mock(TripCrewAccessService.class);
+        JwtUtils jwtUtil = mock(JwtUtils.class);
+        when(jwtUtil.getCurrentUserLogin()).thenReturn(Optional.empty());
+        BoardingPassService boardingPassService = mock(BoardingPassService.class);
+        when(boardingPassService.tripKey(anyLong())).thenReturn(new byte[32]);
+        service = new CheckInSyncService(ticketRepository, boardingPassService, auditLogService, jwtUtil,
+                mock(UserRepository.class), mock(ApplicationEventPublisher.class), crewAccess, new ObjectMapper());
+    }
+
+    @Test
+    void sync_TripOfAnotherCrew_ShouldBeRejectedBeforeTouchingTickets() {
+        doThrow(TripAccessException.notAssigned()).when(crewAccess).checkAccess(1L);
+
+        assertThatThrownBy(() -> service.sync(request("dev-1", "TK-1")))
+                .isInstanceOf(TripAccessException.class);
+        verifyNoInteractions(ticketRepository);
+    }
+
+    @Test
+    void sync_TicketCodeOfAnotherTrip_ShouldNotBeCheckedIn() {
+        // Truy vấn chỉ nạp vé của chuyến 1 nên mã vé chuyến khác không có dòng nào
+        when(ticketRepository.lockForCheckIn(eq(1L), anyCollection(), anyCollection())).thenReturn(List.of());
+
+        CheckInSyncResponseDTO response = service.sync(request("dev-1", "TK-OTHER"));
+
+        assertThat(response.getApplied()).isZero();
+        assertThat(response.getResults().get(0).getOutcome()).isEqualTo(CheckInOutcome.not_found);
+    }
+
+    @Test
+    void sync_ShouldEscapeDeviceIdInAuditDetails() throws Exception {
+        when(ticketRepository.lockForCheckIn(eq(1L), anyCollection(), anyCollection()))
+                .thenReturn(List.of(row(5L, "TK-1", 1L)));
+        when(ticketRepository.markCheckedIn(any(), any())).thenReturn(1);
+        String deviceId = "dev\",\"checked_in\":999,\"x\":\"";
+
+        service.sync(request(deviceId, "TK-1"));
+
+        ArgumentCaptor<AuditLog> captor = ArgumentCaptor.forClass(AuditLog.class);
+        verify(auditLogService).save(captor.capture());
+        JsonNode details = new ObjectMapper().readTree(captor.getValue().getDetails());
+        assertThat(details.get("device_id").asText()).isEqualTo(deviceId);
+        assertThat(details.get("checked_in").asInt()).isEqualTo(1);
+    }
+
+    private static CheckInSyncRequestDTO request(String deviceId, String ticketCode) {
+        CheckInSyncRequestDTO.Scan scan = new CheckInSyncRequestDTO.Scan();
+        scan.setTicketCode(ticketCode);
+        CheckInSyncRequestDTO request = new CheckInSyncRequestDTO();
+        request.setTripId(1L);
+        request.setDeviceId(deviceId);
+        request.setScans(List.of(scan));
+        return request;
+    }
+
+    private static TicketCheckInRow row(Long ticketId, String ticketCode, Long tripId) {
+        return PROJECTIONS.createProjection(TicketCheckInRow.class, Map.of(
+                "ticketId", ticketId,
+                "ticketCode", ticketCode,
+                "seatNumber", "A.1.1",
+                "status", "valid",
+                "tripId", tripId));
+    }
+}
@@ -0,0 +1,219 @@
+package com.busify.project.trip.manifest;
+
+import com.busify.project.ticket.enums.TicketStatus;
+import com.busify.project.ticket.event.TicketStatusChangedEvent;
+import com.busify.project.trip.dto.response.DepartureBoardDTO;
+import com.busify.project.trip.dto.response.ManifestPassengerRow;
+import com.busify.project.trip.dto.response.ManifestTripRow;
+import com.busify.project.trip.dto.response.TripManifestDTO;
+import com.busify.project.trip.exception.TripAccessException;
+import com.busify.project.trip.repository.TripRepository;
+import com.busify.project.trip.service.TripCrewAccessService;
+import com.busify.project.trip.service.TripCrewAccessService.CrewScope;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TripManifestServiceTest {
+
+    private static final Instant NOW = Instant.parse("2025-06-01T00:00:00Z");
+    private static final SpelAwareProxyProjectionFactory PROJECTIONS = new SpelAwareProxyProjectionFactory();
+
+    private TripRepository tripRepository;
+    private TripCrewAccessService crewAccess;
+    private TripManifestService service;
+
+    @BeforeEach
+    void setUp() {
+        tripRepository = mock(TripRepository.class);
+        crewAccess = mock(TripCrewAccessService.class);
+        when(crewAccess.currentScope()).thenReturn(new CrewScope(true, null, null));
+        service = new TripManifestService(tripRepository, new ManifestProperties(), crewAccess,
+                Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @Test
+    void getManifest_DepartingSoon_ShouldLoadOnceAndCache() {
+        givenTrip(1L, NOW.plus(Duration.ofMinutes(45)));
+        when(tripRepository.findManifestPassengers(List.of(1L))).thenReturn(List.of(
+                passenger(1L, 11L, "A.1.1", "valid", null),
+                passenger(1L, 12L, "B.1.1", "used", NOW.minusSeconds(60))));
+
+        TripManifestDTO first = service.getManifest(1L);
+        TripManifestDTO second = service.getManifest(1L);
+
+        assertThat(second).isSameAs(first);
+        assertThat(first.getTotalPassengers()).isEqualTo(2);
+        assertThat(first.getCheckedInCount()).isEqualTo(1);
+        assertThat(first.getPassengers()).extracting("seatNumber").containsExactly("A.1.1", "B.1.1");
+        verify(tripRepository, times(1)).findManifestPassengers(anyCollection());
+    }
+
+    @Test
+    void getManifest_FarFromDeparture_ShouldNotCache() {
+        givenTrip(1L, NOW.plus(Duration.ofDays(2)));
+        when(tripRepository.findManifestPassengers(List.of(1L))).thenReturn(List.of());
+
+        service.getManifest(1L);
+        service.getManifest(1L);
+
+        verify(tripRepository, times(2)).findManifestPassengers(anyCollection());
+    }
+
+    @Test
+    void ticketStatusChanged_ShouldPatchCachedManifestWithoutReload() {
+        givenTrip(1L, NOW.plus(Duration.ofMinutes(10)));
+        when(tripRepository.findManifestPassengers(List.of(1L))).thenReturn(List.of(
+                passenger(1L, 11L, "A.1.1", "valid", null),
+                passenger(1L, 12L, "B.1.1", "valid", null),
+                passenger(1L, 13L, "C.1.1", "valid", null)));
+        service.getManifest(1L);
+        Instant checkedInAt = NOW.plusSeconds(30);
+
+        service.onTicketStatusChanged(new TicketStatusChangedEvent(this, 1L, List.of(11L, 12L), TicketStatus.used,
+                checkedInAt));
+        service.onTicketStatusChanged(new TicketStatusChangedEvent(this, 1L, List.of(13L), TicketStatus.cancelled,
+                checkedInAt));
+        TripManifestDTO manifest = service.getManifest(1L);
+
+        assertThat(manifest.getTotalPassengers()).isEqualTo(2);
+        assertThat(manifest.getCheckedInCount()).isEqualTo(2);
+        assertThat(manifest.getPassengers()).allSatisfy(p -> {
+            assertThat(p.getStatus()).isEqualTo(TicketStatus.used);
+            assertThat(p.getCheckedInAt()).isEqualTo(checkedInAt);
+        });
+        verify(tripRepository, times(1)).findManifestPassengers(anyCollection());
+    }
+
+    @Test
+    void getDepartureBoard_ShouldLoadUncachedTripsInOneBatch() {
+        ManifestTripRow cachedTrip = givenTrip(1L, NOW.plus(Duration.ofMinutes(20)));
+        when(tripRepository.findManifestPassengers(List.of(1L))).thenReturn(List.of(
+                passenger(1L, 11L, "A.1.1", "used", NOW)));
+        service.getManifest(1L);
+
+        ManifestTripRow second = trip(2L, NOW.plus(Duration.ofMinutes(40)));
+        ManifestTripRow third = trip(3L, NOW.plus(Duration.ofMinutes(90)));
+        when(tripRepository.findDepartureBoardTrips(eq(5L), eq(NOW), eq(NOW.plus(Duration.ofHours(3))), eq(true),
+                eq(null), eq(null), anyInt()))
+                .thenReturn(List.of(cachedTrip, second, third));
+        when(tripRepository.findManifestPassengers(List.of(2L, 3L))).thenReturn(List.of(
+                passenger(2L, 21L, "A.1.1", "valid", null),
+                passenger(3L, 31L, "A.1.1", "valid", null),
+                passenger(3L, 32L, "B.1.1", "used", NOW)));
+
+        DepartureBoardDTO board = service.getDepartureBoard(5L, NOW, Duration.ofHours(3), false);
+
+        assertThat(board.getTrips()).extracting(TripManifestDTO::getTripId).containsExactly(1L, 2L, 3L);
+        assertThat(board.getTrips()).extracting(TripManifestDTO::getTotalPassengers).containsExactly(1, 1, 2);
+        assertThat(board.getTrips()).extracting(TripManifestDTO::getCheckedInCount).containsExactly(1, 0, 1);
+        assertThat(board.getTrips()).allSatisfy(t -> assertThat(t.getPassengers()).isNull());
+        verify(tripRepository).findManifestPassengers(List.of(2L, 3L));
+        // Bản trong cache vẫn giữ danh sách hành khách
+        assertThat(service.getManifest(3L).getPassengers()).hasSize(2);
+    }
+
+    @Test
+    void getManifest_CachedButNotAssigned_ShouldBeDenied() {
+        givenTrip(1L, NOW.plus(Duration.ofMinutes(10)));
+        when(tripRepository.findManifestPassengers(List.of(1L))).thenReturn(List.of());
+        service.getManifest(1L);
+        doThrow(TripAccessException.notAssigned()).when(crewAccess).checkAccess(1L);
+
+        assertThatThrownBy(() -> service.getManifest(1L)).isInstanceOf(TripAccessException.class);
+        assertThatThrownBy(() -> service.printManifest(1L)).isInstanceOf(TripAccessException.class);
+    }
+
+    @Test
+    void getDepartureBoard_Driver_ShouldQueryOnlyAssignedTrips() {
+        when(crewAccess.currentScope()).thenReturn(new CrewScope(false, 20L, null));
+        when(tripRepository.findDepartureBoardTrips(eq(5L), eq(NOW), eq(NOW.plus(Duration.ofHours(3))), eq(false),
+                eq(null), eq(20L), anyInt())).thenReturn(List.of());
+
+        DepartureBoardDTO board = service.getDepartureBoard(5L, NOW, Duration.ofHours(3), true);
+
+        assertThat(board.getTrips()).isEmpty();
+        verify(tripRepository, never()).findManifestPassengers(anyList());
+    }
+
+    @Test
+    void printableManifest_ShouldGroupByPickupAndEscapeNames() {
+        givenTrip(1L, NOW.plus(Duration.ofMinutes(10)));
+        Map<String, Object> injected = passengerValues(1L, 11L, "A.1.1", "valid", null);
+        injected.put("passengerName", "<b>Nguyễn Văn A</b>");
+        injected.put("pickupLocationName", "Bến xe Miền Đông");
+        when(tripRepository.findManifestPassengers(List.of(1L))).thenReturn(List.of(
+                PROJECTIONS.createProjection(ManifestPassengerRow.class, injected),
+                passenger(1L, 12L, "B.1.1", "used", NOW)));
+
+        String html = ManifestPrinter.html(service.getManifest(1L));
+
+        assertThat(html).contains("Điểm đón: Bến xe Miền Đông (1)", "Điểm đón: Bến xe A (1)");
+        assertThat(html).contains("&lt;b&gt;Nguyễn Văn A&lt;/b&gt;").doesNotContain("<b>Nguyễn");
+        assertThat(html).contains("1/2 đã lên xe");
+    }
+
+    private ManifestTripRow givenTrip(Long tripId, Instant departureTime) {
+        ManifestTripRow row = trip(tripId, departureTime);
+        when(tripRepository.findManifestTrips(List.of(tripId))).thenReturn(List.of(row));
+        return row;
+    }
+
+    private static ManifestTripRow trip(Long tripId, Instant departureTime) {
+        Map<String, Object> values = new HashMap<>();
+        values.put("tripId", tripId);
+        values.put("departureTime", departureTime);
+        values.put("tripStatus", "scheduled");
+        values.put("routeName", "Sài Gòn - Đà Lạt");
+        values.put("startLocationName", "Bến xe A");
+        values.put("endLocationName", "Bến xe B");
+        values.put("licensePlate", "51B-123.45");
+        values.put("operatorName", "Nhà xe X");
+        values.put("driverName", "Tài xế Y");
+        return PROJECTIONS.createProjection(ManifestTripRow.class, values);
+    }
+
+    private static ManifestPassengerRow passenger(Long tripId, Long ticketId, String seat, String status,
+            Instant checkedInAt) {
+        return PROJECTIONS.createProjection(ManifestPassengerRow.class,
+                passengerValues(tripId, ticketId, seat, status, checkedInAt));
+    }
+
+    private static Map<String, Object> passengerValues(Long tripId, Long ticketId, String seat, String status,
+            Instant checkedInAt) {
+        Map<String, Object> values = new HashMap<>();
+        values.put("tripId", tripId);
+        values.put("ticketId", ticketId);
+        values.put("ticketCode", "TK" + ticketId);
+        values.put("seatNumber", seat);
+        values.put("passengerName", "Khách " + ticketId);
+        values.put("passengerPhone", "0900000" + ticketId);
+        values.put("ticketStatus", status);
+        values.put("checkedInAt", checkedInAt);
+        values.put("bookingCode", "BK" + ticketId);
+        values.put("pickupLocationName", "Bến xe A");
+        values.put("dropoffLocationName", "Bến xe B");
+        return values;
+    }
+}
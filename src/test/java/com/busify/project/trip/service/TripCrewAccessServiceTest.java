@@ -0,0 +1,119 @@
+package com.busify.project.trip.service;
+
+import com.busify.project.bus_operator.repository.BusOperatorRepository;
+import com.busify.project.common.exception.ErrorCode;
+import com.busify.project.common.utils.JwtUtils;
+import com.busify.project.employee.repository.EmployeeRepository;
+import com.busify.project.role.entity.Role;
+import com.busify.project.trip.dto.response.TripCrewRow;
+import com.busify.project.trip.exception.TripAccessException;
+import com.busify.project.trip.exception.TripNotFoundException;
+import com.busify.project.trip.repository.TripRepository;
+import com.busify.project.user.entity.User;
+import com.busify.project.user.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TripCrewAccessServiceTest {
+
+    private static final SpelAwareProxyProjectionFactory PROJECTIONS = new SpelAwareProxyProjectionFactory();
+
+    private TripRepository tripRepository;
+    private UserRepository userRepository;
+    private BusOperatorRepository busOperatorRepository;
+    private EmployeeRepository employeeRepository;
+    private JwtUtils jwtUtil;
+    private TripCrewAccessService service;
+
+    @BeforeEach
+    void setUp() {
+        tripRepository = mock(TripRepository.class);
+        userRepository = mock(UserRepository.class);
+        busOperatorRepository = mock(BusOperatorRepository.class);
+        employeeRepository = mock(EmployeeRepository.class);
+        jwtUtil = mock(JwtUtils.class);
+        service = new TripCrewAccessService(tripRepository, userRepository, busOperatorRepository,
+                employeeRepository, jwtUtil);
+        givenTrip(1L, 20L, 300L);
+    }
+
+    @Test
+    void checkAccess_AssignedDriver_ShouldPass() {
+        givenCurrentUser(20L, "DRIVER");
+
+        assertThatCode(() -> service.checkAccess(1L)).doesNotThrowAnyException();
+    }
+
+    @Test
+    void checkAccess_OtherDriverOfSameOperator_ShouldBeDenied() {
+        givenCurrentUser(21L, "DRIVER");
+        when(employeeRepository.findOperatorIdByStaffUserId(21L)).thenReturn(Optional.of(300L));
+
+        assertThatThrownBy(() -> service.checkAccess(1L))
+                .isInstanceOf(TripAccessException.class)
+                .extracting("errorCode").isEqualTo(ErrorCode.TRIP_ACCESS_DENIED);
+        verify(employeeRepository, never()).findOperatorIdByStaffUserId(21L);
+    }
+
+    @Test
+    void checkAccess_OwnerOfTripOperator_ShouldPass() {
+        givenCurrentUser(5L, "OPERATOR");
+        when(busOperatorRepository.findOperatorIdByUserId(5L)).thenReturn(Optional.of(300L));
+
+        assertThatCode(() -> service.checkAccess(1L)).doesNotThrowAnyException();
+    }
+
+    @Test
+    void checkAccess_StaffOfAnotherOperator_ShouldBeDenied() {
+        givenCurrentUser(6L, "STAFF");
+        when(busOperatorRepository.findOperatorIdByUserId(6L)).thenReturn(Optional.empty());
+        when(employeeRepository.findOperatorIdByStaffUserId(6L)).thenReturn(Optional.of(301L));
+
+        assertThatThrownBy(() -> service.checkAccess(1L)).isInstanceOf(TripAccessException.class);
+    }
+
+    @Test
+    void checkAccess_Admin_ShouldPassAnyTrip() {
+        givenCurrentUser(1L, "ADMIN");
+
+        assertThatCode(() -> service.checkAccess(1L)).doesNotThrowAnyException();
+        assertThat(service.currentScope().covers(99L, 999L)).isTrue();
+    }
+
+    @Test
+    void checkAccess_UnknownTrip_ShouldThrowNotFound() {
+        givenCurrentUser(20L, "DRIVER");
+        when(tripRepository.findCrewById(2L)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> service.checkAccess(2L)).isInstanceOf(TripNotFoundException.class);
+    }
+
+    private void givenTrip(Long tripId, Long driverId, Long operatorId) {
+        Map<String, Object> values = new HashMap<>();
+        values.put("driverId", driverId);
+        values.put("operatorId", operatorId);
+        when(tripRepository.findCrewById(tripId))
+                .thenReturn(Optional.of(PROJECTIONS.createProjection(TripCrewRow.class, values)));
+    }
+
+    private void givenCurrentUser(Long userId, String roleName) {
+        Role role = new Role();
+        role.setName(roleName);
+        User user = User.builder().id(userId).email(userId + "@busify.vn").role(role).build();
+        when(jwtUtil.getCurrentUserLogin()).thenReturn(Optional.of(user.getEmail()));
+        when(userRepository.findByEmail(user.getEmail())).thenReturn(Optional.of(user));
+    }
+}
@@ -0,0 +1,185 @@
+package com.busify.project.trip.transition;
+
+import com.busify.project.audit_log.entity.AuditLog;
+import com.busify.project.audit_log.service.AuditLogService;
+import com.busify.project.booking.repository.BookingRepository;
+import com.busify.project.common.job.JobCoordinator;
+import com.busify.project.ticket.dto.response.ExpiredTicketRow;
+import com.busify.project.ticket.enums.TicketStatus;
+import com.busify.project.ticket.event.TicketStatusChangedEvent;
+import com.busify.project.ticket.repository.TicketRepository;
+import com.busify.project.trip.enums.TripStatus;
+import com.busify.project.trip.event.TripsTransitionedEvent;
+import com.busify.project.trip.repository.TripRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class TripStatusTransitionServiceTest {
+
+    private static final Instant NOW = Instant.parse("2025-06-01T17:00:00Z");
+    private static final List<String> DEPARTURE_FROM = List.of("scheduled", "on_sell");
+    private static final List<String> ARRIVAL_FROM = List.of("departed");
+    private static final List<String> TICKET_CLOSE_TRIP_STATUSES = List.of("departed", "arrived");
+    private static final SpelAwareProxyProjectionFactory PROJECTIONS = new SpelAwareProxyProjectionFactory();
+
+    private TripRepository tripRepository;
+    private BookingRepository bookingRepository;
+    private TicketRepository ticketRepository;
+    private AuditLogService auditLogService;
+    private ApplicationEventPublisher eventPublisher;
+    private JobCoordinator jobCoordinator;
+    private TripTransitionProperties properties;
+    private TripStatusTransitionService service;
+
+    @BeforeEach
+    void setUp() {
+        tripRepository = mock(TripRepository.class);
+        bookingRepository = mock(BookingRepository.class);
+        ticketRepository = mock(TicketRepository.class);
+        auditLogService = mock(AuditLogService.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        jobCoordinator = mock(JobCoordinator.class);
+        properties = new TripTransitionProperties();
+        properties.setBatchSize(2);
+        service = new TripStatusTransitionService(tripRepository, bookingRepository, ticketRepository,
+                auditLogService, eventPublisher, jobCoordinator, properties, mock(PlatformTransactionManager.class),
+                Duration.ofHours(6), Clock.fixed(NOW, ZoneOffset.UTC));
+        when(tripRepository.lockDueForDeparture(anyCollection(), any(), anyInt())).thenReturn(List.of());
+        when(tripRepository.lockDueForArrival(anyCollection(), any(), anyInt())).thenReturn(List.of());
+        when(ticketRepository.findValidTicketsPastArrival(anyCollection(), any(), anyInt())).thenReturn(List.of());
+    }
+
+    @Test
+    void advanceDueTrips_DueDepartures_ShouldTransitionInBatchesWithOneAuditRowEach() {
+        when(tripRepository.lockDueForDeparture(DEPARTURE_FROM, NOW, 2))
+                .thenReturn(List.of(1L, 2L), List.of(3L));
+
+        service.advanceDueTrips();
+
+        verify(tripRepository).transitionStatus(List.of(1L, 2L), DEPARTURE_FROM, "departed");
+        verify(tripRepository).transitionStatus(List.of(3L), DEPARTURE_FROM, "departed");
+        verify(bookingRepository, never()).markBookingsAsCompletedByTripIds(anyCollection());
+        assertThat(publishedEvents(2))
+                .extracting(TripsTransitionedEvent::getTripIds, TripsTransitionedEvent::getStatus)
+                .containsExactly(
+                        tuple(List.of(1L, 2L), TripStatus.departed),
+                        tuple(List.of(3L), TripStatus.departed));
+
+        ArgumentCaptor<AuditLog> audits = ArgumentCaptor.forClass(AuditLog.class);
+        verify(auditLogService, times(2)).save(audits.capture());
+        assertThat(audits.getAllValues()).allSatisfy(audit -> {
+            assertThat(audit.getAction()).isEqualTo("AUTO_UPDATE");
+            assertThat(audit.getTargetEntity()).isEqualTo("TRIP_STATUS");
+        });
+        assertThat(audits.getAllValues().get(0).getDetails()).contains("\"newStatus\":\"departed\"", "\"tripIds\":[1,2]");
+    }
+
+    @Test
+    void advanceDueTrips_DueArrivals_ShouldUseGraceAndCompleteBookings() {
+        when(tripRepository.lockDueForArrival(ARRIVAL_FROM, NOW.minus(Duration.ofMinutes(30)), 2))
+                .thenReturn(List.of(7L));
+        when(bookingRepository.markBookingsAsCompletedByTripIds(List.of(7L))).thenReturn(12);
+
+        service.advanceDueTrips();
+
+        verify(tripRepository).transitionStatus(List.of(7L), ARRIVAL_FROM, "arrived");
+        TripsTransitionedEvent event = publishedEvents(1).get(0);
+        assertThat(event.getStatus()).isEqualTo(TripStatus.arrived);
+        assertThat(event.getCompletedBookings()).isEqualTo(12);
+        assertThat(event.getTransitionedAt()).isEqualTo(NOW);
+    }
+
+    @Test
+    void advanceDueTrips_DepartureAndArrival_ShouldNotCancelTicketsBeforePassesExpire() {
+        when(tripRepository.lockDueForDeparture(DEPARTURE_FROM, NOW, 2)).thenReturn(List.of(1L));
+        when(tripRepository.lockDueForArrival(ARRIVAL_FROM, NOW.minus(Duration.ofMinutes(30)), 2))
+                .thenReturn(List.of(7L));
+
+        service.advanceDueTrips();
+
+        // Chỉ vé của chuyến đã đến nơi quá 6h mới được xét huỷ
+        verify(ticketRepository).findValidTicketsPastArrival(TICKET_CLOSE_TRIP_STATUSES, NOW.minus(Duration.ofHours(6)),
+                2);
+        verify(ticketRepository, never()).cancelValidTicketsByIds(anyCollection());
+    }
+
+    @Test
+    void advanceDueTrips_ExpiredPasses_ShouldCancelValidTicketsInBatches() {
+        Instant arrivedBefore = NOW.minus(Duration.ofHours(6));
+        when(ticketRepository.findValidTicketsPastArrival(TICKET_CLOSE_TRIP_STATUSES, arrivedBefore, 2))
+                .thenReturn(List.of(expired(10L, 7L), expired(11L, 8L)), List.of(expired(12L, 8L)));
+        when(ticketRepository.cancelValidTicketsByIds(anyCollection())).thenReturn(2, 1);
+
+        service.advanceDueTrips();
+
+        verify(ticketRepository).cancelValidTicketsByIds(List.of(10L, 11L));
+        verify(ticketRepository).cancelValidTicketsByIds(List.of(12L));
+        ArgumentCaptor<TicketStatusChangedEvent> events = ArgumentCaptor.forClass(TicketStatusChangedEvent.class);
+        verify(eventPublisher, times(3)).publishEvent(events.capture());
+        assertThat(events.getAllValues())
+                .extracting(TicketStatusChangedEvent::getTripId, TicketStatusChangedEvent::getTicketIds,
+                        TicketStatusChangedEvent::getStatus)
+                .containsExactly(
+                        tuple(7L, List.of(10L), TicketStatus.cancelled),
+                        tuple(8L, List.of(11L), TicketStatus.cancelled),
+                        tuple(8L, List.of(12L), TicketStatus.cancelled));
+
+        ArgumentCaptor<AuditLog> audits = ArgumentCaptor.forClass(AuditLog.class);
+        verify(auditLogService, times(2)).save(audits.capture());
+        assertThat(audits.getAllValues().get(0).getAction()).isEqualTo("AUTO_CANCEL_TICKETS");
+        assertThat(audits.getAllValues().get(0).getDetails()).contains("\"tripIds\":[7,8]",
+                "\"cancelled_tickets_count\":2");
+    }
+
+    @Test
+    void advanceDueTrips_NothingDue_ShouldNotUpdateOrPublish() {
+        service.advanceDueTrips();
+
+        verify(tripRepository, never()).transitionStatus(anyCollection(), anyCollection(), anyString());
+        verifyNoInteractions(eventPublisher, auditLogService);
+    }
+
+    @Test
+    void runScheduled_Disabled_ShouldNotRun() {
+        properties.setEnabled(false);
+
+        service.runScheduled();
+
+        verifyNoInteractions(jobCoordinator, tripRepository);
+    }
+
+    private static ExpiredTicketRow expired(Long ticketId, Long tripId) {
+        return PROJECTIONS.createProjection(ExpiredTicketRow.class, Map.of("ticketId", ticketId, "tripId", tripId));
+    }
+
+    private List<TripsTransitionedEvent> publishedEvents(int expected) {
+        ArgumentCaptor<TripsTransitionedEvent> captor = ArgumentCaptor.forClass(TripsTransitionedEvent.class);
+        verify(eventPublisher, times(expected)).publishEvent(captor.capture());
+        return captor.getAllValues();
+    }
+}
@@ -1,5 +1,6 @@
 package com.busify.project.tripSeat;
 
+import com.busify.project.seat_layout.service.SeatLayoutCatalog;
 import com.busify.project.trip_seat.dto.SeatStatus;
 import com.busify.project.trip_seat.entity.TripSeat;
 import com.busify.project.trip_seat.entity.TripSeatId;
@@ -24,6 +25,9 @@ class TripSeatServiceTest {
     @Mock
     private TripSeatRepository tripSeatRepository;
 
+    @Mock
+    private SeatLayoutCatalog seatLayoutCatalog;
+
     @InjectMocks
     private TripSeatService tripSeatService;
 
@@ -0,0 +1,43 @@
+package com.busify.project.trip_seat.segment;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SeatSegmentsTest {
+
+    // Điểm đầu 10, hai điểm dừng 20 và 30, điểm cuối 40
+    private static final List<Long> STOPS = List.of(10L, 20L, 30L, 40L);
+
+    @Test
+    void rangeCoversHalfOpenInterval() {
+        assertThat(SeatSegments.range(0, 1)).isEqualTo(0b1L);
+        assertThat(SeatSegments.range(1, 3)).isEqualTo(0b110L);
+        assertThat(SeatSegments.range(0, SeatSegments.MAX_SEGMENTS)).isEqualTo(SeatSegments.WHOLE_TRIP);
+        assertThatThrownBy(() -> SeatSegments.range(2, 2)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> SeatSegments.range(0, 64)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void betweenResolvesStopsAlongRoute() {
+        assertThat(SeatSegments.between(STOPS, null, null)).isEqualTo(SeatSegments.WHOLE_TRIP);
+        assertThat(SeatSegments.between(STOPS, 10L, 40L)).isEqualTo(SeatSegments.WHOLE_TRIP);
+        assertThat(SeatSegments.between(STOPS, 20L, null)).isEqualTo(0b110L);
+        assertThat(SeatSegments.between(STOPS, null, 20L)).isEqualTo(0b1L);
+        assertThat(SeatSegments.between(STOPS, 30L, 20L)).isZero();
+        assertThat(SeatSegments.between(STOPS, 99L, 40L)).isZero();
+    }
+
+    @Test
+    void adjacentSegmentsDoNotConflict() {
+        long firstLeg = SeatSegments.between(STOPS, 10L, 30L);
+        long lastLeg = SeatSegments.between(STOPS, 30L, 40L);
+
+        assertThat(SeatSegments.isFree(firstLeg, lastLeg)).isTrue();
+        assertThat(SeatSegments.isFree(firstLeg, SeatSegments.between(STOPS, 20L, 40L))).isFalse();
+        assertThat(SeatSegments.isFree(firstLeg | lastLeg, SeatSegments.WHOLE_TRIP)).isFalse();
+    }
+}
@@ -0,0 +1,69 @@
+package com.busify.project.trip_seat.services;
+
+import com.busify.project.trip_seat.segment.SeatOccupancy;
+import com.busify.project.trip_seat.segment.SeatSegments;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link SeatSegmentStore} trong bộ nhớ với cùng ngữ nghĩa so sánh-và-cập nhật trên từng ghế như câu UPDATE.
+ */
+class InMemorySeatSegmentStore implements SeatSegmentStore {
+
+    private final Map<String, SeatOccupancy> seats = new ConcurrentHashMap<>();
+    private final Long tripId;
+
+    InMemorySeatSegmentStore(Long tripId, List<String> seatNumbers) {
+        this.tripId = tripId;
+        seatNumbers.forEach(seat -> seats.put(seat, new SeatOccupancy(seat, 0L, 0L)));
+    }
+
+    @Override
+    public boolean hold(Long tripId, String seatNumber, long mask, Long userId) {
+        if (!this.tripId.equals(tripId) || !seats.containsKey(seatNumber)) {
+            return false;
+        }
+        boolean[] held = new boolean[1];
+        seats.computeIfPresent(seatNumber, (seat, current) -> {
+            if ((current.occupied() & mask) != 0) {
+                return current;
+            }
+            held[0] = true;
+            return new SeatOccupancy(seat, current.lockedSegments() | mask, current.bookedSegments());
+        });
+        return held[0];
+    }
+
+    @Override
+    public void releaseHold(Long tripId, String seatNumber, long mask) {
+        seats.computeIfPresent(seatNumber, (seat, current) ->
+                new SeatOccupancy(seat, current.lockedSegments() & ~mask, current.bookedSegments()));
+    }
+
+    @Override
+    public boolean confirm(Long tripId, String seatNumber, long mask) {
+        boolean[] clean = {true};
+        seats.compute(seatNumber, (seat, current) -> {
+            if (current == null) {
+                return new SeatOccupancy(seat, 0L, mask);
+            }
+            clean[0] = SeatSegments.isHeldOnly(current.lockedSegments(), current.bookedSegments(), mask);
+            return new SeatOccupancy(seat, current.lockedSegments() & ~mask, current.bookedSegments() | mask);
+        });
+        return clean[0];
+    }
+
+    @Override
+    public void releaseBooked(Long tripId, String seatNumber, long mask) {
+        seats.computeIfPresent(seatNumber, (seat, current) ->
+                new SeatOccupancy(seat, current.lockedSegments(), current.bookedSegments() & ~mask));
+    }
+
+    @Override
+    public List<SeatOccupancy> occupancy(Long tripId) {
+        return this.tripId.equals(tripId) ? new ArrayList<>(seats.values()) : List.of();
+    }
+}
@@ -0,0 +1,52 @@
+package com.busify.project.trip_seat.services;
+
+import com.busify.project.trip_seat.repository.TripSeatRepository;
+import com.busify.project.trip_seat.segment.SeatSegments;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Chỉ kiểm tra cách gọi repository; các câu SQL trên mặt nạ bit cần MySQL thật nên không chạy ở đây.
+ */
+class JpaSeatSegmentStoreTest {
+
+    private static final long MASK = SeatSegments.range(0, 3);
+
+    private final TripSeatRepository repository = mock(TripSeatRepository.class);
+    private final JpaSeatSegmentStore store = new JpaSeatSegmentStore(repository);
+
+    @Test
+    void confirm_StillHeld_ShouldLockRowBeforeConfirming() {
+        when(repository.lockSegments(1L, "A.1.1")).thenReturn(List.<Object[]>of(new Object[]{MASK, 0L}));
+
+        assertThat(store.confirm(1L, "A.1.1", MASK)).isTrue();
+
+        InOrder order = inOrder(repository);
+        order.verify(repository).lockSegments(1L, "A.1.1");
+        order.verify(repository).confirmSegments(1L, "A.1.1", MASK);
+    }
+
+    @Test
+    void confirm_SegmentAlreadyBookedOrNoLongerHeld_ShouldReportConflict() {
+        when(repository.lockSegments(1L, "A.1.1")).thenReturn(List.<Object[]>of(new Object[]{0L, 1L}));
+        when(repository.lockSegments(1L, "B.1.1")).thenReturn(List.<Object[]>of(new Object[]{1L, 0L}));
+
+        assertThat(store.confirm(1L, "A.1.1", MASK)).isFalse();
+        assertThat(store.confirm(1L, "B.1.1", MASK)).isFalse();
+    }
+
+    @Test
+    void hold_ShouldSucceedOnlyWhenTheConditionalUpdateMatchedTheRow() {
+        when(repository.holdSegments(1L, "A.1.1", MASK, 7L)).thenReturn(1);
+
+        assertThat(store.hold(1L, "A.1.1", MASK, 7L)).isTrue();
+        assertThat(store.hold(1L, "B.1.1", MASK, 7L)).isFalse();
+    }
+}
@@ -0,0 +1,198 @@
+package com.busify.project.trip_seat.services;
+
+import com.busify.project.trip_seat.dto.SeatStatus;
+import com.busify.project.trip_seat.enums.TripSeatStatus;
+import com.busify.project.trip_seat.segment.SeatOccupancy;
+import com.busify.project.trip_seat.segment.SeatSegments;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class SeatInventoryServiceTest {
+
+    private static final Long TRIP_ID = 1L;
+    private static final List<String> SEATS = List.of("A.1.1", "B.1.1", "A.2.1", "B.2.1");
+    // 10 điểm dừng -> 9 chặng
+    private static final int SEGMENTS = 9;
+
+    private final InMemorySeatSegmentStore store = new InMemorySeatSegmentStore(TRIP_ID, SEATS);
+    private final SeatInventoryService service = new SeatInventoryService(store, null, null, null);
+
+    @Test
+    void sharesSeatAcrossDisjointLegs() {
+        long firstLeg = SeatSegments.range(0, 5);
+        long lastLeg = SeatSegments.range(5, SEGMENTS);
+
+        assertThat(service.holdSeats(TRIP_ID, List.of("A.1.1"), firstLeg, 1L)).isTrue();
+        assertThat(service.holdSeats(TRIP_ID, List.of("A.1.1"), lastLeg, 2L)).isTrue();
+        assertThat(service.holdSeats(TRIP_ID, List.of("A.1.1"), SeatSegments.range(4, 6), 3L)).isFalse();
+        assertThat(service.holdSeats(TRIP_ID, List.of("A.1.1"), SeatSegments.WHOLE_TRIP, 4L)).isFalse();
+
+        service.confirmSeats(TRIP_ID, List.of("A.1.1"), firstLeg);
+        List<SeatStatus> forFirstLeg = service.getSeatStatuses(TRIP_ID, SeatSegments.range(1, 2));
+        List<SeatStatus> forLastLeg = service.getSeatStatuses(TRIP_ID, SeatSegments.range(7, 8));
+        assertThat(statusOf(forFirstLeg, "A.1.1")).isEqualTo(TripSeatStatus.booked);
+        assertThat(statusOf(forLastLeg, "A.1.1")).isEqualTo(TripSeatStatus.locked);
+
+        // Hết hạn giữ chỗ chặng cuối: chặng đầu đã bán không bị ảnh hưởng
+        service.releaseHolds(TRIP_ID, List.of("A.1.1"), lastLeg);
+        assertThat(statusOf(service.getSeatStatuses(TRIP_ID, lastLeg), "A.1.1")).isEqualTo(TripSeatStatus.available);
+        assertThat(service.countAvailableSeats(TRIP_ID, SeatSegments.WHOLE_TRIP)).isEqualTo(SEATS.size() - 1);
+    }
+
+    @Test
+    void multiSeatHoldIsAllOrNothing() {
+        long mask = SeatSegments.range(2, 4);
+        assertThat(service.holdSeats(TRIP_ID, List.of("B.1.1"), SeatSegments.range(3, 4), 1L)).isTrue();
+
+        assertThat(service.holdSeats(TRIP_ID, List.of("A.1.1", "B.1.1"), mask, 2L)).isFalse();
+
+        assertThat(occupancy().get("A.1.1").occupied()).isZero();
+    }
+
+    @Test
+    void holdsSeatsInCanonicalOrder() {
+        InMemorySeatSegmentStore recording = spy(store);
+        SeatInventoryService ordered = new SeatInventoryService(recording, null, null, null);
+
+        assertThat(ordered.holdSeats(TRIP_ID, List.of("B.2.1", "A.1.1", "B.1.1"), SeatSegments.WHOLE_TRIP, 1L))
+                .isTrue();
+
+        ArgumentCaptor<String> seats = ArgumentCaptor.forClass(String.class);
+        verify(recording, times(3)).hold(eq(TRIP_ID), seats.capture(), anyLong(), eq(1L));
+        assertThat(seats.getAllValues()).containsExactly("A.1.1", "B.1.1", "B.2.1");
+    }
+
+    @Test
+    void lateConfirmReportsConflictWithAnotherCustomer() {
+        long mask = SeatSegments.range(0, 4);
+        assertThat(service.holdSeats(TRIP_ID, List.of("A.1.1"), mask, 1L)).isTrue();
+        // Giữ chỗ của khách 1 hết hạn, khách 2 giữ một phần đoạn đó
+        service.releaseHolds(TRIP_ID, List.of("A.1.1"), mask);
+        assertThat(service.holdSeats(TRIP_ID, List.of("A.1.1"), SeatSegments.range(2, 6), 2L)).isTrue();
+
+        assertThat(service.confirmSeats(TRIP_ID, List.of("A.1.1"), mask)).isFalse();
+
+        assertThat(service.holdSeats(TRIP_ID, List.of("B.1.1"), mask, 3L)).isTrue();
+        assertThat(service.confirmSeats(TRIP_ID, List.of("B.1.1"), mask)).isTrue();
+    }
+
+    @Test
+    void concurrentReservationsNeverOverlap() throws Exception {
+        int threads = 8;
+        int attemptsPerThread = 20_000;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger successes = new AtomicInteger();
+        List<Future<List<Reservation>>> futures = new ArrayList<>();
+
+        for (int t = 0; t < threads; t++) {
+            long userId = t;
+            futures.add(pool.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                List<Reservation> mine = new ArrayList<>();
+                start.await();
+                for (int i = 0; i < attemptsPerThread; i++) {
+                    int from = random.nextInt(SEGMENTS);
+                    long mask = SeatSegments.range(from, from + 1 + random.nextInt(SEGMENTS - from));
+                    List<String> seats = pickSeats(random);
+                    if (service.holdSeats(TRIP_ID, seats, mask, userId)) {
+                        successes.incrementAndGet();
+                        Reservation reservation = new Reservation(seats, mask);
+                        if (random.nextBoolean()) {
+                            service.confirmSeats(TRIP_ID, seats, mask);
+                            reservation.confirmed = true;
+                        }
+                        mine.add(reservation);
+                    }
+                    // Huỷ / hết hạn một phần đặt chỗ để tồn kho luôn biến động
+                    if (!mine.isEmpty() && random.nextInt(3) == 0) {
+                        Reservation released = mine.remove(random.nextInt(mine.size()));
+                        if (released.confirmed) {
+                            service.releaseSeats(TRIP_ID, released.seats, released.mask);
+                        } else {
+                            service.releaseHolds(TRIP_ID, released.seats, released.mask);
+                        }
+                    }
+                }
+                return mine;
+            }));
+        }
+        start.countDown();
+
+        List<Reservation> outstanding = new ArrayList<>();
+        for (Future<List<Reservation>> future : futures) {
+            outstanding.addAll(future.get(60, TimeUnit.SECONDS));
+        }
+        pool.shutdown();
+
+        Map<String, Long> expectedLocked = new HashMap<>();
+        Map<String, Long> expectedBooked = new HashMap<>();
+        for (Reservation reservation : outstanding) {
+            for (String seat : reservation.seats) {
+                long taken = expectedLocked.getOrDefault(seat, 0L) | expectedBooked.getOrDefault(seat, 0L);
+                assertThat(taken & reservation.mask).as("overlap on seat %s", seat).isZero();
+                Map<String, Long> target = reservation.confirmed ? expectedBooked : expectedLocked;
+                target.merge(seat, reservation.mask, (a, b) -> a | b);
+            }
+        }
+        Map<String, SeatOccupancy> actual = occupancy();
+        for (String seat : SEATS) {
+            assertThat(actual.get(seat).lockedSegments()).isEqualTo(expectedLocked.getOrDefault(seat, 0L));
+            assertThat(actual.get(seat).bookedSegments()).isEqualTo(expectedBooked.getOrDefault(seat, 0L));
+        }
+        assertThat(successes.get()).isGreaterThan(threads);
+    }
+
+    private static List<String> pickSeats(ThreadLocalRandom random) {
+        String first = SEATS.get(random.nextInt(SEATS.size()));
+        if (random.nextBoolean()) {
+            return List.of(first);
+        }
+        String second = SEATS.get(random.nextInt(SEATS.size()));
+        return second.equals(first) ? List.of(first) : List.of(first, second);
+    }
+
+    private Map<String, SeatOccupancy> occupancy() {
+        Map<String, SeatOccupancy> bySeat = new HashMap<>();
+        store.occupancy(TRIP_ID).forEach(seat -> bySeat.put(seat.seatNumber(), seat));
+        return bySeat;
+    }
+
+    private static TripSeatStatus statusOf(List<SeatStatus> statuses, String seatNumber) {
+        return statuses.stream()
+                .filter(status -> status.getSeatNumber().equals(seatNumber))
+                .findFirst()
+                .map(SeatStatus::getStatus)
+                .orElseThrow();
+    }
+
+    private static final class Reservation {
+        final List<String> seats;
+        final long mask;
+        boolean confirmed;
+
+        Reservation(List<String> seats, long mask) {
+            this.seats = seats;
+            this.mask = mask;
+        }
+    }
+}
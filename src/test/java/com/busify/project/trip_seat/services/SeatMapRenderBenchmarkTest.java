@@ -0,0 +1,109 @@
+package com.busify.project.trip_seat.services;
+
+import com.busify.project.seat_layout.layout.CompiledSeatLayout;
+import com.busify.project.trip_seat.dto.SeatStatus;
+import com.busify.project.trip_seat.entity.TripSeat;
+import com.busify.project.trip_seat.entity.TripSeatId;
+import com.busify.project.trip_seat.enums.TripSeatStatus;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * So sánh dựng sơ đồ ghế từ {@link CompiledSeatLayout} đã cache với cách cũ: mỗi request dịch lại
+ * {@code layout_data} bằng Jackson rồi trả trạng thái theo thứ tự dòng trong DB (chưa tính query tải JSON).
+ * Chạy riêng: {@code mvn test -Pbenchmark -Dtest=SeatMapRenderBenchmarkTest}
+ */
+@Tag("benchmark")
+@Slf4j
+class SeatMapRenderBenchmarkTest {
+
+    private static final TripSeatStatus[] STATUSES = TripSeatStatus.values();
+
+    @Test
+    void compiledLayoutIsFasterThanParsePerRequest() {
+        // Xe giường nằm 2 tầng 6 hàng x 3 cột, thêm vài trường hiển thị như dữ liệu thật
+        Map<String, Object> layoutData = new LinkedHashMap<>();
+        layoutData.put("rows", 6);
+        layoutData.put("cols", 3);
+        layoutData.put("floors", 2);
+        layoutData.put("aisles", List.of(1));
+        layoutData.put("labels", Map.of("1", "Tầng dưới", "2", "Tầng trên"));
+        ObjectMapper objectMapper = new ObjectMapper();
+        CompiledSeatLayout layout = CompiledSeatLayout.compile(1, "Giường nằm", layoutData);
+
+        Random random = new Random(42);
+        List<TripSeat> tripSeats = new ArrayList<>();
+        for (int ordinal = 0; ordinal < layout.size(); ordinal++) {
+            TripSeat seat = new TripSeat();
+            seat.setId(new TripSeatId(1L, layout.seatCodeAt(ordinal)));
+            seat.setStatus(STATUSES[random.nextInt(STATUSES.length)]);
+            tripSeats.add(seat);
+        }
+        // Thứ tự khoá chính trong DB (chuỗi) khác thứ tự sơ đồ
+        Collections.shuffle(tripSeats, random);
+
+        int iterations = 50_000;
+        // Warm-up
+        runParse(objectMapper, layoutData, tripSeats, iterations);
+        runCompiled(layout, tripSeats, iterations);
+
+        long parseNanos = runParse(objectMapper, layoutData, tripSeats, iterations);
+        long compiledNanos = runCompiled(layout, tripSeats, iterations);
+
+        log.info("Seat map ({} ghế): parse mỗi request {} µs, sơ đồ đã dịch {} µs", layout.size(),
+                String.format("%.2f", parseNanos / 1_000.0 / iterations),
+                String.format("%.2f", compiledNanos / 1_000.0 / iterations));
+        assertThat(compiledNanos).isLessThan(parseNanos);
+
+        List<SeatStatus> rendered = TripSeatService.render(layout, tripSeats);
+        assertThat(rendered).containsExactlyInAnyOrderElementsOf(parse(objectMapper, layoutData, tripSeats));
+        assertThat(rendered).extracting(SeatStatus::getSeatNumber).startsWith("A.1.1", "B.1.1", "C.1.1", "A.2.1");
+    }
+
+    private static long runParse(ObjectMapper objectMapper, Map<String, Object> layoutData,
+            List<TripSeat> tripSeats, int iterations) {
+        long start = System.nanoTime();
+        int sink = 0;
+        for (int i = 0; i < iterations; i++) {
+            sink += parse(objectMapper, layoutData, tripSeats).size();
+        }
+        assertThat(sink).isPositive();
+        return System.nanoTime() - start;
+    }
+
+    private static long runCompiled(CompiledSeatLayout layout, List<TripSeat> tripSeats, int iterations) {
+        long start = System.nanoTime();
+        int sink = 0;
+        for (int i = 0; i < iterations; i++) {
+            sink += layout.getRows() * layout.getCols() * layout.getFloors();
+            sink += TripSeatService.render(layout, tripSeats).size();
+        }
+        assertThat(sink).isPositive();
+        return System.nanoTime() - start;
+    }
+
+    private static List<SeatStatus> parse(ObjectMapper objectMapper, Map<String, Object> layoutData,
+            List<TripSeat> tripSeats) {
+        JsonNode layout = objectMapper.convertValue(layoutData, JsonNode.class);
+        int rows = layout.get("rows").asInt();
+        int columns = layout.get("cols").asInt();
+        int floors = layout.has("floors") ? layout.get("floors").asInt() : 1;
+        List<SeatStatus> result = new ArrayList<>(rows * columns * floors);
+        for (TripSeat tripSeat : tripSeats) {
+            result.add(new SeatStatus(tripSeat.getId().getSeatNumber(), tripSeat.getStatus()));
+        }
+        return result;
+    }
+}